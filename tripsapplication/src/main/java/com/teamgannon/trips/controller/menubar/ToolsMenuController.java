@@ -217,8 +217,14 @@ public class ToolsMenuController {
             return;
         }
 
-        // For larger datasets, show progress dialog
+        // Small changes since the last calculation are patched in place
         TransitManager transitManager = interstellarSpacePane.getTransitManager();
+        if (transitManager.updateTransits(transitDefinitions, starsInView)) {
+            mainSplitPaneManager.getTransitFilterPane().setFilter(transitDefinitions, transitManager);
+            return;
+        }
+
+        // For larger datasets, show progress dialog
         ITransitDistanceCalculator calculator = transitManager.getCalculatorFactory().getCalculator(starsInView.size());
 
         TransitCalculationDialog calculationDialog = new TransitCalculationDialog(
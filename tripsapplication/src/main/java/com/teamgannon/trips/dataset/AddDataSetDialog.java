@@ -155,6 +155,7 @@ public class AddDataSetDialog extends Dialog<Dataset> {
     private void addChoices() {
         addFormat(DataFormatEnum.CH_VIEW, "chv");
         addFormat(DataFormatEnum.CSV, "trips.csv");
+        addFormat(DataFormatEnum.COLUMNAR, "trips.col");
     }
 
     private void addFormat(DataFormatEnum fileType, String suffix) {
@@ -270,6 +271,9 @@ public class AddDataSetDialog extends Dialog<Dataset> {
             case CSV -> {
                 return new FileChooser.ExtensionFilter("CSV files (*.csv)", "*.csv");
             }
+            case COLUMNAR -> {
+                return new FileChooser.ExtensionFilter("TRIPS columnar files (*.trips.col)", "*.trips.col");
+            }
             default -> {
                 return new FileChooser.ExtensionFilter("All files (*.*)", "*.*");
             }
@@ -6,20 +6,22 @@ import com.teamgannon.trips.dataset.model.Polity;
 import com.teamgannon.trips.dataset.model.Theme;
 import com.teamgannon.trips.dialogs.dataset.model.Dataset;
 import com.teamgannon.trips.file.chview.ChViewRecord;
+import com.teamgannon.trips.file.chview.ChviewReader;
 import com.teamgannon.trips.file.chview.model.CHViewPreferences;
 import com.teamgannon.trips.file.chview.model.ChViewFile;
 import com.teamgannon.trips.file.csvin.RegCSVFile;
 import com.teamgannon.trips.jpa.model.DataSetDescriptor;
 import com.teamgannon.trips.jpa.model.StarObject;
 import com.teamgannon.trips.jpa.repository.DataSetDescriptorRepository;
-import com.teamgannon.trips.jpa.repository.StarObjectRepository;
 import com.teamgannon.trips.routing.model.RouteDefinition;
+import com.teamgannon.trips.service.bulkload.StarBulkLoad;
 import com.teamgannon.trips.service.importservices.tasks.ProgressUpdater;
 import javafx.scene.paint.Color;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
 import java.util.*;
 
 
@@ -32,22 +34,32 @@ import java.util.*;
 public class DataSetDescriptorFactory {
 
 
+    /**
+     * records read from a chview file and saved at a time
+     */
+    private static final int CHV_BATCH_SIZE = 1000;
+
     /**
      * create a Dataset descriptor for chview files
+     * <p>
+     * The file is read incrementally, each batch of records being converted and saved as soon as it
+     * is decoded, so the whole file is never held in memory.
      *
      * @param progressUpdater             an updater for any long loading progress
      * @param dataset                     the descriptor from the user for this dataset
      * @param dataSetDescriptorRepository the data set repo to save this in
-     * @param starObjectRepository        the astrographic repo to save it in
-     * @param chViewFile                  the ch view files
+     * @param starLoad                    the bulk load to insert the stars with
+     * @param chviewReader                the reader for the ch view file
+     * @param file                        the ch view file
      * @return a dataset descriptor
      */
     public static @NotNull DataSetDescriptor createDataSetDescriptor(
             @NotNull ProgressUpdater progressUpdater,
             @NotNull Dataset dataset,
             @NotNull DataSetDescriptorRepository dataSetDescriptorRepository,
-            @NotNull StarObjectRepository starObjectRepository,
-            @NotNull ChViewFile chViewFile) throws Exception {
+            @NotNull StarBulkLoad starLoad,
+            @NotNull ChviewReader chviewReader,
+            @NotNull File file) throws Exception {
 
         DataSetDescriptor dataSetDescriptor = new DataSetDescriptor();
         dataSetDescriptor.setDataSetName(dataset.getName());
@@ -56,48 +68,51 @@ public class DataSetDescriptorFactory {
         dataSetDescriptor.setFileCreator(dataset.getAuthor());
         dataSetDescriptor.setDatasetType(dataset.getDataType().getDataFormatEnum().getValue());
 
-        // parse chview file to create the basics for the data set to save
-        dataSetDescriptor.setTheme(createTheme("default", chViewFile));
-
         // now validate whether the dataset actually exists already
         if (dataSetDescriptorRepository.existsById(dataSetDescriptor.getDataSetName())) {
             throw new Exception("This dataset:{" + dataSetDescriptor.getDataSetName() + "} already exists");
         }
 
-
-        // process all the stellar records from chview and convert to our target objects
-        Map<Integer, ChViewRecord> chViewRecordMap = chViewFile.getRecords();
-        Map<String, StarObject> astrographicObjectMap = new HashMap<>();
-        double maxDistance = 0;
+        // convert the stellar records from chview to our target objects and save them batch by batch
+        long[] numberStars = {0};
+        double[] maxDistance = {0};
         progressUpdater.updateTaskInfo("Saving records in database");
-        for (Integer recordId : chViewRecordMap.keySet()) {
-            try {
-
-                ChViewRecord chViewRecord = chViewRecordMap.get(recordId);
-                // distance check
-                double distance = Double.parseDouble(chViewRecord.getDistanceToEarth());
-                if (distance > maxDistance) {
-                    maxDistance = distance;
+        ChViewFile chViewFile = chviewReader.streamFile(progressUpdater, file, CHV_BATCH_SIZE, chViewRecords -> {
+            List<StarObject> starObjects = new ArrayList<>(chViewRecords.size());
+            for (ChViewRecord chViewRecord : chViewRecords) {
+                try {
+                    // distance check
+                    double distance = Double.parseDouble(chViewRecord.getDistanceToEarth());
+                    if (distance > maxDistance[0]) {
+                        maxDistance[0] = distance;
+                    }
+                    StarObject starObject = new StarObject();
+                    starObject.fromChvRecord(dataset, chViewRecord);
+                    starObjects.add(starObject);
+                } catch (Exception e) {
+                    log.error("failed to translate to star object: {}", chViewRecord, e);
                 }
-                StarObject starObject = new StarObject();
-                starObject.fromChvRecord(dataset, chViewRecord);
-                astrographicObjectMap.put(starObject.getId(), starObject);
-            } catch (Exception e) {
-                log.error("failed to translate to star object: {}", chViewRecordMap.get(recordId), e);
             }
+            starLoad.insert(starObjects);
+            numberStars[0] += starObjects.size();
+            progressUpdater.updateTaskInfo(numberStars[0] + " records saved so far");
+        });
+        if (chViewFile == null) {
+            throw new Exception("Failed to read the chview file:" + file.getAbsolutePath());
         }
 
-        // save the astrographic records
-        starObjectRepository.saveAll(astrographicObjectMap.values());
+        // parse chview file to create the basics for the data set to save
+        dataSetDescriptor.setTheme(createTheme("default", chViewFile));
+
         String saveMessage = String.format("Number of records loaded for file:%s is %d",
                 chViewFile.getOriginalFileName(),
-                astrographicObjectMap.size());
+                numberStars[0]);
         log.info(saveMessage);
         progressUpdater.updateTaskInfo(saveMessage);
 
         // set the records for this
-        dataSetDescriptor.setNumberStars((long) astrographicObjectMap.keySet().size());
-        dataSetDescriptor.setDistanceRange(maxDistance);
+        dataSetDescriptor.setNumberStars(numberStars[0]);
+        dataSetDescriptor.setDistanceRange(maxDistance[0]);
         String message = String.format("Loaded %d stars within %.1f into dataset \"%s\"",
                 dataSetDescriptor.getNumberStars(),
                 dataSetDescriptor.getDistanceRange(),
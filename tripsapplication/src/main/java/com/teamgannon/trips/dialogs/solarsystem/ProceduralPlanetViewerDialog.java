@@ -1537,9 +1537,8 @@ public class ProceduralPlanetViewerDialog extends Dialog<Void> {
 
         for (int polyIdx = 0; polyIdx < polygons.size(); polyIdx++) {
             int plate1 = plateIndex[polyIdx];
-            int[] neighbors = adjacency.neighborsOnly(polyIdx);
-
-            for (int neighborIdx : neighbors) {
+            for (int k = adjacency.neighborStart(polyIdx); k < adjacency.neighborEnd(polyIdx); k++) {
+                int neighborIdx = adjacency.neighborAt(k);
                 int plate2 = plateIndex[neighborIdx];
 
                 if (plate1 == plate2) continue;
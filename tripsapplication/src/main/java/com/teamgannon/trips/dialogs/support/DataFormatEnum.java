@@ -5,7 +5,8 @@ import java.util.Arrays;
 public enum DataFormatEnum {
 
     CH_VIEW("chview import"),
-    CSV("csv import");
+    CSV("csv import"),
+    COLUMNAR("columnar import");
 
     private final String value;
 
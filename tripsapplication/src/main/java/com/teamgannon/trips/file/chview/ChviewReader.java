@@ -10,14 +10,19 @@ import com.teamgannon.trips.stellarmodelling.StellarClassification;
 import com.teamgannon.trips.stellarmodelling.StellarFactory;
 import javafx.scene.paint.Color;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.io.EndianUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Used to read the CHView file format
@@ -35,9 +40,9 @@ public class ChviewReader {
 
 
     /**
-     * the complete file content
+     * the file content, mapped from disk while the file is read
      */
-    private byte[] fileContent;
+    private ByteBuffer fileContent;
 
     /**
      * the current index in the file
@@ -49,6 +54,11 @@ public class ChviewReader {
      */
     private int recordNumber = 0;
 
+    /**
+     * set once a record runs past the end of the file
+     */
+    private boolean truncated = false;
+
     /**
      * dependency injection for component
      */
@@ -63,34 +73,59 @@ public class ChviewReader {
      * @return a chview file
      */
     public @Nullable ChViewFile loadFile(@NotNull ProgressUpdater progressUpdater, @NotNull File file) {
-        return readCompleteFile(progressUpdater, file);
+        List<ChViewRecord> records = new ArrayList<>();
+        ChViewFile chViewFile = streamFile(progressUpdater, file, Integer.MAX_VALUE, records::addAll);
+        if (chViewFile != null) {
+            records.forEach(chViewFile::addRecord);
+        }
+        return chViewFile;
     }
 
     /**
-     * read the complete file
+     * read a ch view file incrementally, handing the star records over in batches as they are decoded
+     * <p>
+     * The file is memory mapped rather than read into the heap, and the records are not kept once
+     * handed over, so the memory used does not grow with the file and the first batch can be saved
+     * while the rest of the file is still to be parsed.
      *
      * @param progressUpdater the updater
-     * @param inputFile       the file name to read
+     * @param file            the chview file
+     * @param batchSize       the most records handed over at a time
+     * @param batchConsumer   takes each batch of records, in file order
+     * @return the chview file with its preferences and comments but without the records,
+     * or null if the file could not be read; batches already handed over are not taken back
      */
-    private @Nullable ChViewFile readCompleteFile(@NotNull ProgressUpdater progressUpdater, @NotNull File inputFile) {
-
-        try {
-            fileContent = Files.readAllBytes(inputFile.toPath());
-            return parsefile(progressUpdater, inputFile.getAbsolutePath());
+    public @Nullable ChViewFile streamFile(@NotNull ProgressUpdater progressUpdater,
+                                           @NotNull File file,
+                                           int batchSize,
+                                           @NotNull Consumer<List<ChViewRecord>> batchConsumer) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // the mapping stays valid once the channel is closed
+            fileContent = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
         } catch (IOException e) {
             log.error("load failed for file because of:" + e);
             return null;
         }
+        try {
+            return parsefile(progressUpdater, file.getAbsolutePath(), batchSize, batchConsumer);
+        } finally {
+            // let the mapping go with the buffer
+            fileContent = null;
+        }
     }
 
 
     /**
-     * relies on the file being read into a byte buffer
+     * relies on the file being mapped into a byte buffer
      */
-    private @Nullable ChViewFile parsefile(@NotNull ProgressUpdater progressUpdater, String fileName) {
+    private @Nullable ChViewFile parsefile(@NotNull ProgressUpdater progressUpdater,
+                                           String fileName,
+                                           int batchSize,
+                                           @NotNull Consumer<List<ChViewRecord>> batchConsumer) {
         progressUpdater.updateTaskInfo("reading front preamble");
         ChViewFile chViewFile = new ChViewFile();
         currentIndex = 0;
+        truncated = false;
         chViewFile.setOriginalFileName(fileName);
 
         // get the file version
@@ -107,18 +142,31 @@ public class ChviewReader {
         currentIndex += 2;
         chViewFile.setNumberOfRecords(numberOfRecords);
 
-        // read each file record
+        // read each file record, handing them over a batch at a time
         progressUpdater.updateTaskInfo("reading records");
+        List<ChViewRecord> batch = new ArrayList<>(Math.min(batchSize, Math.max(0, numberOfRecords)));
         for (int i = 0; i < numberOfRecords; i++) {
             ChViewRecord chViewRecord = parseRecord(fileContent, currentIndex, progressUpdater);
+            if (truncated) {
+                // the rest of the records are missing, don't pass the file off as complete
+                log.error("file {} is truncated, it ends in record {} of {}", fileName, i, numberOfRecords);
+                return null;
+            }
             if (chViewRecord == null) {
                 continue;
             }
-            chViewFile.addRecord(chViewRecord);
+            batch.add(chViewRecord);
+            if (batch.size() >= batchSize) {
+                batchConsumer.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
             if (i % 100 == 0) {
                 progressUpdater.updateTaskInfo("read " + i + " records");
             }
         }
+        if (!batch.isEmpty()) {
+            batchConsumer.accept(batch);
+        }
 
         parseLinks(fileContent, currentIndex);
 
@@ -129,9 +177,9 @@ public class ChviewReader {
         return chViewFile;
     }
 
-    private void parseLinks(byte @NotNull [] fileContent, int index) {
+    private void parseLinks(@NotNull ByteBuffer fileContent, int index) {
 
-        if (fileContent.length < index) {
+        if (fileContent.limit() < index) {
             short numberOfLinks = readShort(fileContent, index);
             currentIndex += 2;
 
@@ -157,8 +205,8 @@ public class ChviewReader {
      * @param index       the current index
      */
 
-    private String parsePreamble(byte @NotNull [] fileContent, int index) {
-        if (fileContent.length < index) {
+    private String parsePreamble(@NotNull ByteBuffer fileContent, int index) {
+        if (fileContent.limit() < index) {
             StringResult fileComments = readString(fileContent, currentIndex);
             return fileComments.getValue();
         } else {
@@ -173,7 +221,7 @@ public class ChviewReader {
      * @param buffer the file content buffer
      * @return the View Preferences object
      */
-    private @NotNull CHViewPreferences parseViewPreferences(byte[] buffer) {
+    private @NotNull CHViewPreferences parseViewPreferences(ByteBuffer buffer) {
         CHViewPreferences CHViewPreferences = new CHViewPreferences();
 
         // boolean
@@ -484,12 +532,9 @@ public class ChviewReader {
      * @param length the length
      * @return the byte array
      */
-    private byte @NotNull [] copyBytes(byte[] buffer, int index, int length) {
+    private byte @NotNull [] copyBytes(ByteBuffer buffer, int index, int length) {
         byte[] byteArray = new byte[length];
-        for (int i = 0; i < length; ++i) {
-            int position = index + i;
-            byteArray[i] = buffer[position];
-        }
+        buffer.get(index, byteArray);
         return byteArray;
     }
 
@@ -500,7 +545,7 @@ public class ChviewReader {
      * @param progressUpdater a thread safe updater control
      * @return the parsed record
      */
-    private @Nullable ChViewRecord parseRecord(byte[] buffer, int index, @NotNull ProgressUpdater progressUpdater) {
+    private @Nullable ChViewRecord parseRecord(ByteBuffer buffer, int index, @NotNull ProgressUpdater progressUpdater) {
 
         ChViewRecord chViewRecord = new ChViewRecord();
 
@@ -598,7 +643,7 @@ public class ChviewReader {
             currentIndex += 2;
             chViewRecord.setGroupNumber(group);
 
-            if (buffer[currentIndex] != 0) {
+            if (currentIndex < buffer.limit() && buffer.get(currentIndex) != 0) {
                 currentIndex++;
                 log.debug(chViewRecord.toString());
                 chViewRecord.setSubsidiaryStar(parseRecord(buffer, currentIndex, progressUpdater));
@@ -667,6 +712,9 @@ public class ChviewReader {
 
 
         } catch (Exception e) {
+            if (e instanceof IndexOutOfBoundsException) {
+                truncated = true;
+            }
             log.error("format corruption in file:" + e.getMessage());
             progressUpdater.updateTaskInfo("Loading CHV file:Encountered a corruption in file and was not about to continue");
             return null;
@@ -683,7 +731,7 @@ public class ChviewReader {
         );
     }
 
-    private @NotNull PseudoString readStarParameter(byte[] buffer, int index) {
+    private @NotNull PseudoString readStarParameter(ByteBuffer buffer, int index) {
         // initialization
         PseudoString pseudoString = new PseudoString();
         int i = index;
@@ -691,9 +739,9 @@ public class ChviewReader {
         int paddingCounter = 0;
 
         // handle the condition where the length is > 255
-        if (buffer[i] != 0xFF) {
+        if (buffer.get(i) != 0xFF) {
             // simple length
-            lengthDiscovered = buffer[i];
+            lengthDiscovered = buffer.get(i);
             i++;  // move pointer to just past length
             paddingCounter++;
         } else {
@@ -704,7 +752,7 @@ public class ChviewReader {
             i += 2;
         }
 
-        if (buffer[i] == 0) {
+        if (buffer.get(i) == 0) {
             // this is a name
             i++;
             StringBuilder name = readString(buffer, i, lengthDiscovered);
@@ -737,7 +785,7 @@ public class ChviewReader {
      * @param index  the point to start from
      * @return the result of what was found
      */
-    private @NotNull PseudoString findString(byte[] buffer, int index) {
+    private @NotNull PseudoString findString(ByteBuffer buffer, int index) {
         // initialization
         PseudoString pseudoString = new PseudoString();
         int i = index;
@@ -750,9 +798,9 @@ public class ChviewReader {
         i = j;
 
         // handle the condition where the length is > 255
-        if (buffer[i] != 0xFF) {
+        if (buffer.get(i) != 0xFF) {
             // simple length
-            lengthDiscovered = buffer[i];
+            lengthDiscovered = buffer.get(i);
             i++;  // move pointer to just past length
             paddingCounter++;
         } else {
@@ -763,7 +811,7 @@ public class ChviewReader {
             i += 2;
         }
 
-        if (buffer[i] == 0) {
+        if (buffer.get(i) == 0) {
             // this is a name
             i++;
             StringBuilder name = readString(buffer, i, lengthDiscovered);
@@ -796,8 +844,8 @@ public class ChviewReader {
      * @param i      the beginning point
      * @return a description of what was read
      */
-    private int scanNonZero(byte[] buffer, int i) {
-        while (buffer[i] == 0) {
+    private int scanNonZero(ByteBuffer buffer, int i) {
+        while (buffer.get(i) == 0) {
             i++;
         }
         return i;
@@ -810,8 +858,8 @@ public class ChviewReader {
      * @param index  the index
      * @return the short value
      */
-    private short readShort(byte[] buffer, int index) {
-        return EndianUtils.readSwappedShort(buffer, index);
+    private short readShort(ByteBuffer buffer, int index) {
+        return buffer.getShort(index);
     }
 
     /**
@@ -821,9 +869,8 @@ public class ChviewReader {
      * @param index  the index point
      * @return a boolean
      */
-    private boolean readBoolean(byte[] buffer, int index) {
-        int value = EndianUtils.readSwappedShort(buffer, index);
-        return value != 0;
+    private boolean readBoolean(ByteBuffer buffer, int index) {
+        return buffer.getShort(index) != 0;
     }
 
     /**
@@ -833,8 +880,8 @@ public class ChviewReader {
      * @param index  the index
      * @return the int value
      */
-    private int readInt(byte[] buffer, int index) {
-        return EndianUtils.readSwappedInteger(buffer, index);
+    private int readInt(ByteBuffer buffer, int index) {
+        return buffer.getInt(index);
     }
 
     /**
@@ -848,7 +895,7 @@ public class ChviewReader {
      * @param index  the index from which to read
      * @return the string
      */
-    private @NotNull StringResult readString(byte[] buffer, int index) {
+    private @NotNull StringResult readString(ByteBuffer buffer, int index) {
 
         StringResult result = new StringResult();
         StringBuilder stringBuilder = new StringBuilder();
@@ -873,16 +920,16 @@ public class ChviewReader {
         return result;
     }
 
-    private int skipWeirdEmpties(byte[] buffer, int i) {
+    private int skipWeirdEmpties(ByteBuffer buffer, int i) {
         int skipCount = 0;
-        while (buffer[i + skipCount] == 0) {
+        while (buffer.get(i + skipCount) == 0) {
             skipCount++;
         }
         return skipCount;
     }
 
-    private short getStringLength(byte[] buffer, int index) {
-        short value = buffer[index];
+    private short getStringLength(ByteBuffer buffer, int index) {
+        short value = buffer.get(index);
         if (value != 0xff) {
             // length is in 1 byte
             return value;
@@ -892,15 +939,15 @@ public class ChviewReader {
         }
     }
 
-    private @NotNull StringBuilder readString(byte[] buffer, int index, int length) {
+    private @NotNull StringBuilder readString(ByteBuffer buffer, int index, int length) {
         StringBuilder stringBuilder = new StringBuilder();
         for (int i = 0; i < length; ++i) {
-            if (buffer[index + i] < 0) {
+            if (buffer.get(index + i) < 0) {
                 log.error("Bad ASCII character at index=" + index + i);
                 // I threw this error as a help to parsing, so I would know why the parser failed
                 throw new IllegalArgumentException();
             }
-            stringBuilder.append((char) buffer[index + i]);
+            stringBuilder.append((char) buffer.get(index + i));
         }
         return stringBuilder;
     }
@@ -0,0 +1,209 @@
+package com.teamgannon.trips.file.columnar;
+
+import com.teamgannon.trips.dialogs.dataset.model.Dataset;
+import com.teamgannon.trips.file.columnar.StarColumnarFormat.FileColumn;
+import com.teamgannon.trips.file.csvin.RegCSVFile;
+import com.teamgannon.trips.jpa.model.DataSetDescriptor;
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.service.BulkLoadService;
+import com.teamgannon.trips.service.StarService;
+import com.teamgannon.trips.service.bulkload.StarBulkLoad;
+import com.teamgannon.trips.service.importservices.tasks.ProgressUpdater;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reads a TRIPS columnar star file ({@link StarColumnarFormat}) into a dataset.
+ * <p>
+ * The calling thread reads the row groups and saves them in file order, while a small pool
+ * decodes the groups read ahead. With no text to parse, the load is bound by the saves.
+ * Like {@link com.teamgannon.trips.file.csvin.RegularStarCatalogCsvReader}, the stars are
+ * inserted through a {@link StarBulkLoad} given a {@link BulkLoadService}, and through
+ * {@link StarService#starBulkSave} otherwise.
+ */
+@Slf4j
+public class ColumnarStarFileReader {
+
+    // Groups decoded ahead of the saves per decoder
+    private static final int GROUPS_IN_FLIGHT_PER_WORKER = 2;
+
+    // Rough size of a star in the file, to estimate the load size
+    private static final int ESTIMATED_BYTES_PER_STAR = 500;
+
+    private final StarService starService;
+    private final @Nullable BulkLoadService bulkLoadService;
+
+    public ColumnarStarFileReader(StarService starService, @Nullable BulkLoadService bulkLoadService) {
+        this.starService = starService;
+        this.bulkLoadService = bulkLoadService;
+    }
+
+    public RegCSVFile loadFile(@NotNull ProgressUpdater progressUpdater,
+                               @NotNull File file,
+                               @NotNull Dataset dataset) {
+        RegCSVFile loadFile = new RegCSVFile();
+        loadFile.setDataset(dataset);
+        dataset.setFileSelected(file.getAbsolutePath());
+        loadFile.setDataSetDescriptor(createDescriptor(dataset));
+
+        long start = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            log.info("Starting read of columnar file={}", file.getAbsolutePath());
+            if (channel.size() < StarColumnarFormat.PREAMBLE_BYTES) {
+                throw new IOException("not a TRIPS columnar star file");
+            }
+            int headerLength = StarColumnarFormat.readPreamble(readFully(channel, StarColumnarFormat.PREAMBLE_BYTES));
+            List<FileColumn> columns = StarColumnarFormat.readHeader(readFully(channel, headerLength));
+
+            try (StarBulkLoad starLoad = bulkLoadService == null ? null
+                    : bulkLoadService.openStarLoad(dataset.getName(), file.length() / ESTIMATED_BYTES_PER_STAR)) {
+                loadGroups(channel, columns, loadFile, progressUpdater, starLoad);
+            }
+
+            long totalTime = System.currentTimeMillis() - start;
+            log.info("Columnar file load complete: total:{}, time:{}ms", loadFile.getSize(), totalTime);
+            loadFile.setReadSuccess(true);
+            loadFile.setProcessMessage(String.format("File load report: total:%d, accepts:%d, rejects:%d, time:%.1fs",
+                    loadFile.getSize(), loadFile.getNumbAccepts(), loadFile.getNumbRejects(), totalTime / 1000.0));
+        } catch (IOException e) {
+            progressUpdater.updateTaskInfo("failed to read file because: " + e.getMessage());
+            log.error("failed to read file because: {}", e.getMessage());
+            loadFile.setReadSuccess(false);
+            loadFile.setProcessMessage("failed to read file because: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progressUpdater.updateTaskInfo("load of dataset was interrupted");
+            log.warn("load of file {} was interrupted", file.getAbsolutePath());
+            loadFile.setReadSuccess(false);
+            loadFile.setProcessMessage("load of dataset was interrupted");
+        }
+
+        if (loadFile.isReadSuccess()) {
+            loadFile.getDataSetDescriptor().setNumberStars(loadFile.getSize());
+            loadFile.getDataSetDescriptor().setDistanceRange(loadFile.getMaxDistance());
+            progressUpdater.updateTaskInfo("load of dataset complete with " + loadFile.getSize() + " stars loaded");
+        }
+        return loadFile;
+    }
+
+    /**
+     * Read the row groups up to the end marker, decoding ahead on the pool and saving in order.
+     */
+    private void loadGroups(@NotNull FileChannel channel,
+                            @NotNull List<FileColumn> columns,
+                            @NotNull RegCSVFile loadFile,
+                            @NotNull ProgressUpdater progressUpdater,
+                            @Nullable StarBulkLoad starLoad) throws IOException, InterruptedException {
+        int workers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService decoders = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "columnar-decode-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Deque<Future<List<StarObject>>> pending = new ArrayDeque<>();
+            boolean more = true;
+            while (more || !pending.isEmpty()) {
+                while (more && pending.size() < workers * GROUPS_IN_FLIGHT_PER_WORKER) {
+                    int length = readFully(channel, Integer.BYTES).getInt();
+                    if (length == 0) {
+                        more = false;
+                    } else {
+                        ByteBuffer group = readFully(channel, length);
+                        pending.add(decoders.submit(() -> StarColumnarFormat.decodeRowGroup(group, columns)));
+                    }
+                }
+                if (!pending.isEmpty()) {
+                    saveGroup(take(pending), loadFile, progressUpdater, starLoad);
+                }
+            }
+        } finally {
+            decoders.shutdownNow();
+        }
+    }
+
+    private @NotNull List<StarObject> take(@NotNull Deque<Future<List<StarObject>>> pending)
+            throws IOException, InterruptedException {
+        try {
+            return pending.poll().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IllegalStateException("failed to decode row group", e.getCause());
+        }
+    }
+
+    private void saveGroup(@NotNull List<StarObject> stars,
+                           @NotNull RegCSVFile loadFile,
+                           @NotNull ProgressUpdater progressUpdater,
+                           @Nullable StarBulkLoad starLoad) {
+        String dataSetName = loadFile.getDataset().getName();
+        double maxDistance = loadFile.getMaxDistance();
+        for (StarObject star : stars) {
+            star.setDataSetName(dataSetName);
+            maxDistance = Math.max(maxDistance, star.getDistance());
+        }
+
+        long saveStart = System.currentTimeMillis();
+        if (starLoad != null) {
+            starLoad.insert(stars);
+        } else {
+            starService.starBulkSave(stars);
+        }
+
+        loadFile.setMaxDistance(maxDistance);
+        loadFile.setSize(loadFile.getSize() + stars.size());
+        loadFile.setNumbAccepts(loadFile.getNumbAccepts() + stars.size());
+        progressUpdater.updateTaskInfo(String.format("--> %d loaded so far, please wait ", loadFile.getSize()));
+        log.info("Batch: {} records saved in {}ms, total: {}",
+                stars.size(), System.currentTimeMillis() - saveStart, loadFile.getSize());
+    }
+
+    /**
+     * Read exactly {@code length} bytes at the channel's position.
+     *
+     * @throws EOFException if the file ends first
+     */
+    private static @NotNull ByteBuffer readFully(@NotNull FileChannel channel, int length) throws IOException {
+        if (length < 0) {
+            throw new IOException("corrupt columnar star file: negative length " + length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("columnar star file is truncated");
+            }
+        }
+        return buffer.flip();
+    }
+
+    private DataSetDescriptor createDescriptor(Dataset dataset) {
+        DataSetDescriptor descriptor = new DataSetDescriptor();
+        descriptor.setDataSetName(dataset.getName());
+        descriptor.setFilePath(dataset.getFileSelected());
+        descriptor.setFileCreator(dataset.getAuthor());
+        descriptor.setFileOriginalDate(Instant.now().getEpochSecond());
+        descriptor.setFileNotes(dataset.getNotes());
+        return descriptor;
+    }
+}
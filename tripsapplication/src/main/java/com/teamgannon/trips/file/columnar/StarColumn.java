@@ -0,0 +1,74 @@
+package com.teamgannon.trips.file.columnar;
+
+import com.teamgannon.trips.jpa.model.StarObject;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * One star field as a column of a columnar star file: its name, how its values are stored,
+ * and how it is read from and written to a {@link StarObject}.
+ */
+public sealed interface StarColumn {
+
+    @NotNull String name();
+
+    /**
+     * The type code written to the file header.
+     */
+    byte typeCode();
+
+    record DoubleColumn(@NotNull String name,
+                        @NotNull ToDoubleFunction<StarObject> getter,
+                        @NotNull ObjDoubleConsumer<StarObject> setter) implements StarColumn {
+
+        public static final byte TYPE = 1;
+
+        @Override
+        public byte typeCode() {
+            return TYPE;
+        }
+    }
+
+    record IntColumn(@NotNull String name,
+                     @NotNull ToIntFunction<StarObject> getter,
+                     @NotNull ObjIntConsumer<StarObject> setter) implements StarColumn {
+
+        public static final byte TYPE = 2;
+
+        @Override
+        public byte typeCode() {
+            return TYPE;
+        }
+    }
+
+    record BooleanColumn(@NotNull String name,
+                         @NotNull Predicate<StarObject> getter,
+                         @NotNull BiConsumer<StarObject, Boolean> setter) implements StarColumn {
+
+        public static final byte TYPE = 3;
+
+        @Override
+        public byte typeCode() {
+            return TYPE;
+        }
+    }
+
+    record StringColumn(@NotNull String name,
+                        @NotNull Function<StarObject, String> getter,
+                        @NotNull BiConsumer<StarObject, String> setter) implements StarColumn {
+
+        public static final byte TYPE = 4;
+
+        @Override
+        public byte typeCode() {
+            return TYPE;
+        }
+    }
+}
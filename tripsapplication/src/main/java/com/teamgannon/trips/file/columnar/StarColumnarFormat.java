@@ -0,0 +1,597 @@
+package com.teamgannon.trips.file.columnar;
+
+import com.teamgannon.trips.file.columnar.StarColumn.BooleanColumn;
+import com.teamgannon.trips.file.columnar.StarColumn.DoubleColumn;
+import com.teamgannon.trips.file.columnar.StarColumn.IntColumn;
+import com.teamgannon.trips.file.columnar.StarColumn.StringColumn;
+import com.teamgannon.trips.jpa.model.StarCatalogIds;
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.jpa.model.StarWorldBuilding;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * The TRIPS columnar star file ({@code .trips.col}): a compact binary dataset export that
+ * loads back without any text parsing.
+ * <p>
+ * The file holds stars in row groups, each storing its rows column by column:
+ * <pre>
+ *   header     "TRIPSCOL", version, header length, then per column: type, name
+ *   row group  group length, row count, then per column a chunk:
+ *                chunk length, encoding, then the values
+ *   end        a group length of 0
+ * </pre>
+ * A chunk holding a single value stores it once ({@code CONSTANT}); a string chunk with few
+ * distinct values stores them once followed by a one or two byte index per row
+ * ({@code DICTIONARY}); any other chunk stores every row ({@code PLAIN}): doubles and ints
+ * as 8 and 4 bytes, booleans as a byte, strings as a UTF-8 byte length (-1 for null) and
+ * the bytes. Catalogs repeat a lot of values (zero magnitudes, "NA" polities, a handful of
+ * spectral classes), so most chunks shrink to a few bytes.
+ * All numbers are little-endian. Columns are matched by name on reading, so a file with
+ * columns this version does not know, or without ones it does, still loads. Star ids and
+ * the dataset name are not stored; the loading dataset assigns them, as with CSV.
+ * <p>
+ * The stored fields are taken as they are, so a file written from a loaded dataset needs
+ * none of the coordinate and catalog id clean-up a CSV load does.
+ */
+@Slf4j
+public final class StarColumnarFormat {
+
+    public static final String FILE_SUFFIX = ".trips.col";
+
+    /**
+     * Rows per row group; matches the batch size of the star loads.
+     */
+    public static final int ROWS_PER_GROUP = 5000;
+
+    static final int VERSION = 1;
+
+    // Column chunk encodings
+    private static final byte PLAIN = 0;
+    private static final byte CONSTANT = 1;
+    private static final byte DICTIONARY = 2;
+
+    // Largest string dictionary, so indices fit in two bytes
+    private static final int MAX_DICTIONARY_SIZE = 1 << 16;
+
+    private static final byte[] MAGIC = "TRIPSCOL".getBytes(StandardCharsets.US_ASCII);
+
+    // magic, version, header length
+    static final int PREAMBLE_BYTES = MAGIC.length + Integer.BYTES + Integer.BYTES;
+
+    private static final List<StarColumn> COLUMNS = new ArrayList<>();
+
+    static {
+        stringColumn("displayName", StarObject::getDisplayName, StarObject::setDisplayName);
+        stringColumn("commonName", StarObject::getCommonName, StarObject::setCommonName);
+        stringColumn("systemName", StarObject::getSystemName, StarObject::setSystemName);
+        stringColumn("epoch", StarObject::getEpoch, StarObject::setEpoch);
+        booleanColumn("gaiaUpdated", StarObject::isGaiaUpdated, StarObject::setGaiaUpdated);
+        stringColumn("gaiaUpdatedDate", StarObject::getGaiaUpdatedDate, StarObject::setGaiaUpdatedDate);
+        stringColumn("constellationName", StarObject::getConstellationName, StarObject::setConstellationName);
+
+        catalogColumn("simbadId", StarCatalogIds::getSimbadId, StarObject::setSimbadId);
+        catalogColumn("bayerCatId", StarCatalogIds::getBayerCatId, StarObject::setBayerCatId);
+        catalogColumn("glieseCatId", StarCatalogIds::getGlieseCatId, StarObject::setGlieseCatId);
+        catalogColumn("hipCatId", StarCatalogIds::getHipCatId, StarObject::setHipCatId);
+        catalogColumn("hdCatId", StarCatalogIds::getHdCatId, StarObject::setHdCatId);
+        catalogColumn("flamsteedCatId", StarCatalogIds::getFlamsteedCatId, StarObject::setFlamsteedCatId);
+        catalogColumn("tycho2CatId", StarCatalogIds::getTycho2CatId, StarObject::setTycho2CatId);
+        catalogColumn("gaiaDR2CatId", StarCatalogIds::getGaiaDR2CatId, StarObject::setGaiaDR2CatId);
+        catalogColumn("gaiaDR3CatId", StarCatalogIds::getGaiaDR3CatId, StarObject::setGaiaDR3CatId);
+        catalogColumn("gaiaEDR3CatId", StarCatalogIds::getGaiaEDR3CatId, StarObject::setGaiaEDR3CatId);
+        catalogColumn("twoMassCatId", StarCatalogIds::getTwoMassCatId, StarObject::setTwoMassCatId);
+        catalogColumn("csiCatId", StarCatalogIds::getCsiCatId, StarObject::setCsiCatId);
+        catalogColumn("catalogIdList", StarCatalogIds::getRawCatalogIdList, StarObject::setCatalogIdList);
+
+        worldColumn("polity", StarWorldBuilding::getPolity, StarObject::setPolity);
+        worldColumn("worldType", StarWorldBuilding::getWorldType, StarObject::setWorldType);
+        worldColumn("fuelType", StarWorldBuilding::getFuelType, StarObject::setFuelType);
+        worldColumn("portType", StarWorldBuilding::getPortType, StarObject::setPortType);
+        worldColumn("populationType", StarWorldBuilding::getPopulationType, StarObject::setPopulationType);
+        worldColumn("techType", StarWorldBuilding::getTechType, StarObject::setTechType);
+        worldColumn("productType", StarWorldBuilding::getProductType, StarObject::setProductType);
+        worldColumn("milSpaceType", StarWorldBuilding::getMilSpaceType, StarObject::setMilSpaceType);
+        worldColumn("milPlanType", StarWorldBuilding::getMilPlanType, StarObject::setMilPlanType);
+        booleanColumn("other", star -> star.getWorldBuilding() != null && star.getWorldBuilding().isOther(), StarObject::setOther);
+        booleanColumn("anomaly", star -> star.getWorldBuilding() != null && star.getWorldBuilding().isAnomaly(), StarObject::setAnomaly);
+
+        doubleColumn("mass", StarObject::getMass, StarObject::setMass);
+        doubleColumn("radius", StarObject::getRadius, StarObject::setRadius);
+        doubleColumn("temperature", StarObject::getTemperature, StarObject::setTemperature);
+        doubleColumn("age", StarObject::getAge, StarObject::setAge);
+        doubleColumn("metallicity", StarObject::getMetallicity, StarObject::setMetallicity);
+        stringColumn("spectralClass", StarObject::getSpectralClass, StarObject::setSpectralClass);
+        stringColumn("orthoSpectralClass", StarObject::getOrthoSpectralClass, StarObject::setOrthoSpectralClass);
+        stringColumn("luminosity", StarObject::getLuminosity, StarObject::setLuminosity);
+        stringColumn("apparentMagnitude", StarObject::getApparentMagnitude, StarObject::setApparentMagnitude);
+        stringColumn("absoluteMagnitude", StarObject::getAbsoluteMagnitude, StarObject::setAbsoluteMagnitude);
+        doubleColumn("x", StarObject::getX, StarObject::setX);
+        doubleColumn("y", StarObject::getY, StarObject::setY);
+        doubleColumn("z", StarObject::getZ, StarObject::setZ);
+        doubleColumn("ra", StarObject::getRa, StarObject::setRa);
+        doubleColumn("declination", StarObject::getDeclination, StarObject::setDeclination);
+        doubleColumn("galacticLat", StarObject::getGalacticLat, StarObject::setGalacticLat);
+        doubleColumn("galacticLong", StarObject::getGalacticLong, StarObject::setGalacticLong);
+        doubleColumn("pmra", StarObject::getPmra, StarObject::setPmra);
+        doubleColumn("pmdec", StarObject::getPmdec, StarObject::setPmdec);
+        doubleColumn("parallax", StarObject::getParallax, StarObject::setParallax);
+        doubleColumn("distance", StarObject::getDistance, StarObject::setDistance);
+        doubleColumn("radialVelocity", StarObject::getRadialVelocity, StarObject::setRadialVelocity);
+        doubleColumn("bprp", StarObject::getBprp, StarObject::setBprp);
+        doubleColumn("bpg", StarObject::getBpg, StarObject::setBpg);
+        doubleColumn("grp", StarObject::getGrp, StarObject::setGrp);
+        doubleColumn("magu", StarObject::getMagu, StarObject::setMagu);
+        doubleColumn("magb", StarObject::getMagb, StarObject::setMagb);
+        doubleColumn("magv", StarObject::getMagv, StarObject::setMagv);
+        doubleColumn("magr", StarObject::getMagr, StarObject::setMagr);
+        doubleColumn("magi", StarObject::getMagi, StarObject::setMagi);
+        stringColumn("notes", StarObject::getNotes, StarObject::setNotes);
+        stringColumn("source", StarObject::getSource, StarObject::setSource);
+        booleanColumn("realStar", StarObject::isRealStar, StarObject::setRealStar);
+        booleanColumn("exoplanets", StarObject::isExoplanets, StarObject::setExoplanets);
+        intColumn("numExoplanets", StarObject::getNumExoplanets, StarObject::setNumExoplanets);
+        stringColumn("miscText1", StarObject::getMiscText1, StarObject::setMiscText1);
+        stringColumn("miscText2", StarObject::getMiscText2, StarObject::setMiscText2);
+        stringColumn("miscText3", StarObject::getMiscText3, StarObject::setMiscText3);
+        stringColumn("miscText4", StarObject::getMiscText4, StarObject::setMiscText4);
+        stringColumn("miscText5", StarObject::getMiscText5, StarObject::setMiscText5);
+        doubleColumn("miscNum1", StarObject::getMiscNum1, StarObject::setMiscNum1);
+        doubleColumn("miscNum2", StarObject::getMiscNum2, StarObject::setMiscNum2);
+        doubleColumn("miscNum3", StarObject::getMiscNum3, StarObject::setMiscNum3);
+        doubleColumn("miscNum4", StarObject::getMiscNum4, StarObject::setMiscNum4);
+        doubleColumn("miscNum5", StarObject::getMiscNum5, StarObject::setMiscNum5);
+        booleanColumn("forceLabelToBeShown", StarObject::isForceLabelToBeShown, StarObject::setForceLabelToBeShown);
+        doubleColumn("displayScore", StarObject::getDisplayScore, StarObject::setDisplayScore);
+    }
+
+    private StarColumnarFormat() {
+    }
+
+    /**
+     * The columns this version writes, in file order.
+     */
+    public static @NotNull List<StarColumn> columns() {
+        return Collections.unmodifiableList(COLUMNS);
+    }
+
+    // =========================================================================
+    // Writing
+    // =========================================================================
+
+    /**
+     * The file header, ready to write.
+     */
+    public static @NotNull ByteBuffer encodeHeader() {
+        List<byte[]> names = COLUMNS.stream().map(c -> c.name().getBytes(StandardCharsets.UTF_8)).toList();
+        int length = Integer.BYTES;
+        for (byte[] name : names) {
+            length += 1 + Short.BYTES + name.length;
+        }
+        ByteBuffer buffer = allocate(PREAMBLE_BYTES + length);
+        buffer.put(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(length);
+        buffer.putInt(COLUMNS.size());
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            buffer.put(COLUMNS.get(i).typeCode());
+            buffer.putShort((short) names.get(i).length);
+            buffer.put(names.get(i));
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * A row group holding the stars, ready to write. Safe to call from several threads.
+     */
+    public static @NotNull ByteBuffer encodeRowGroup(@NotNull List<StarObject> stars) {
+        List<ByteBuffer> chunks = new ArrayList<>(COLUMNS.size());
+        long length = Integer.BYTES;
+        for (StarColumn column : COLUMNS) {
+            ByteBuffer chunk = encodeColumn(column, stars);
+            chunks.add(chunk);
+            length += chunk.remaining();
+        }
+        if (length > Integer.MAX_VALUE - Integer.BYTES) {
+            throw new IllegalArgumentException("row group too large: " + length + " bytes for " + stars.size() + " stars");
+        }
+
+        ByteBuffer buffer = allocate(Integer.BYTES + (int) length);
+        buffer.putInt((int) length);
+        buffer.putInt(stars.size());
+        chunks.forEach(buffer::put);
+        return buffer.flip();
+    }
+
+    /**
+     * The end of file marker, ready to write.
+     */
+    public static @NotNull ByteBuffer encodeEnd() {
+        return allocate(Integer.BYTES).putInt(0).flip();
+    }
+
+    // =========================================================================
+    // Reading
+    // =========================================================================
+
+    /**
+     * A column as a file has it: its name and type, and the known column it fills, if any.
+     */
+    public record FileColumn(@NotNull String name, byte typeCode, @Nullable StarColumn column) {
+    }
+
+    /**
+     * Check the preamble at the start of a file.
+     *
+     * @param preamble the first {@link #PREAMBLE_BYTES} bytes
+     * @return the length of the header that follows
+     * @throws IOException if this is not a columnar star file this version can read
+     */
+    public static int readPreamble(@NotNull ByteBuffer preamble) throws IOException {
+        ByteBuffer buffer = preamble.order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("not a TRIPS columnar star file");
+        }
+        int version = buffer.getInt();
+        if (version > VERSION) {
+            throw new IOException("columnar star file version " + version + " is newer than this version of TRIPS reads");
+        }
+        int length = buffer.getInt();
+        if (length < Integer.BYTES) {
+            throw new IOException("corrupt columnar star file header");
+        }
+        return length;
+    }
+
+    /**
+     * Read the column list of the header that follows the preamble.
+     */
+    public static @NotNull List<FileColumn> readHeader(@NotNull ByteBuffer header) throws IOException {
+        Map<String, StarColumn> known = new HashMap<>();
+        COLUMNS.forEach(column -> known.put(column.name(), column));
+
+        ByteBuffer buffer = header.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int count = buffer.getInt();
+            List<FileColumn> columns = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                byte type = buffer.get();
+                if (type < DoubleColumn.TYPE || type > StringColumn.TYPE) {
+                    throw new IOException("unknown column type " + type);
+                }
+                byte[] name = new byte[buffer.getShort()];
+                buffer.get(name);
+                String columnName = new String(name, StandardCharsets.UTF_8);
+                StarColumn column = known.get(columnName);
+                if (column == null) {
+                    log.warn("columnar star file column {} is not known, skipped", columnName);
+                } else if (column.typeCode() != type) {
+                    log.warn("columnar star file column {} has type {}, expected {}, skipped",
+                            columnName, type, column.typeCode());
+                    column = null;
+                }
+                columns.add(new FileColumn(columnName, type, column));
+            }
+            return columns;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("corrupt columnar star file header", e);
+        }
+    }
+
+    /**
+     * Turn a row group back into stars. Safe to call from several threads.
+     *
+     * @param group   the group after its length
+     * @param columns the file's columns
+     * @return new stars, with fresh ids and no dataset name
+     */
+    public static @NotNull List<StarObject> decodeRowGroup(@NotNull ByteBuffer group,
+                                                           @NotNull List<FileColumn> columns) throws IOException {
+        ByteBuffer buffer = group.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            int rows = buffer.getInt();
+            List<StarObject> stars = new ArrayList<>(rows);
+            for (int r = 0; r < rows; r++) {
+                stars.add(new StarObject());
+            }
+            for (FileColumn fileColumn : columns) {
+                int length = buffer.getInt();
+                ByteBuffer chunk = buffer.slice(buffer.position(), length).order(ByteOrder.LITTLE_ENDIAN);
+                buffer.position(buffer.position() + length);
+                if (fileColumn.column() != null) {
+                    decodeColumn(fileColumn.column(), chunk, stars);
+                    if (chunk.hasRemaining()) {
+                        throw new IOException("corrupt columnar star file: " + chunk.remaining()
+                                + " bytes left in column " + fileColumn.name());
+                    }
+                }
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("corrupt columnar star file: " + buffer.remaining() + " bytes left in row group");
+            }
+            return stars;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("corrupt columnar star file row group", e);
+        }
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // Column encoding
+
+    private static @NotNull ByteBuffer encodeColumn(@NotNull StarColumn column, @NotNull List<StarObject> stars) {
+        return switch (column) {
+            case DoubleColumn doubleColumn -> encodeDoubles(doubleColumn, stars);
+            case IntColumn intColumn -> encodeInts(intColumn, stars);
+            case BooleanColumn booleanColumn -> encodeBooleans(booleanColumn, stars);
+            case StringColumn stringColumn -> encodeStrings(stringColumn, stars);
+        };
+    }
+
+    private static ByteBuffer encodeDoubles(DoubleColumn column, List<StarObject> stars) {
+        double[] values = new double[stars.size()];
+        boolean constant = true;
+        for (int r = 0; r < values.length; r++) {
+            values[r] = column.getter().applyAsDouble(stars.get(r));
+            constant &= Double.doubleToRawLongBits(values[r]) == Double.doubleToRawLongBits(values[0]);
+        }
+        if (constant && values.length > 0) {
+            return chunk(CONSTANT, Double.BYTES).putDouble(values[0]).flip();
+        }
+        ByteBuffer chunk = chunk(PLAIN, Double.BYTES * values.length);
+        chunk.asDoubleBuffer().put(values);
+        return chunk.position(chunk.limit()).flip();
+    }
+
+    private static ByteBuffer encodeInts(IntColumn column, List<StarObject> stars) {
+        int[] values = new int[stars.size()];
+        boolean constant = true;
+        for (int r = 0; r < values.length; r++) {
+            values[r] = column.getter().applyAsInt(stars.get(r));
+            constant &= values[r] == values[0];
+        }
+        if (constant && values.length > 0) {
+            return chunk(CONSTANT, Integer.BYTES).putInt(values[0]).flip();
+        }
+        ByteBuffer chunk = chunk(PLAIN, Integer.BYTES * values.length);
+        chunk.asIntBuffer().put(values);
+        return chunk.position(chunk.limit()).flip();
+    }
+
+    private static ByteBuffer encodeBooleans(BooleanColumn column, List<StarObject> stars) {
+        byte[] values = new byte[stars.size()];
+        boolean constant = true;
+        for (int r = 0; r < values.length; r++) {
+            values[r] = (byte) (column.getter().test(stars.get(r)) ? 1 : 0);
+            constant &= values[r] == values[0];
+        }
+        if (constant && values.length > 0) {
+            return chunk(CONSTANT, 1).put(values[0]).flip();
+        }
+        return chunk(PLAIN, values.length).put(values).flip();
+    }
+
+    /**
+     * Strings are stored once when the column holds a single value, as a dictionary and
+     * per-row indices when it holds few, and row by row otherwise.
+     */
+    private static ByteBuffer encodeStrings(StringColumn column, List<StarObject> stars) {
+        int rows = stars.size();
+        int dictionaryLimit = Math.min(MAX_DICTIONARY_SIZE, Math.max(1, rows / 2));
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int[] indices = new int[rows];
+        for (int r = 0; r < rows && dictionary.size() <= dictionaryLimit; r++) {
+            indices[r] = dictionary.computeIfAbsent(column.getter().apply(stars.get(r)), value -> dictionary.size());
+        }
+
+        if (dictionary.size() <= dictionaryLimit) {
+            List<byte[]> values = dictionary.keySet().stream().map(StarColumnarFormat::utf8).toList();
+            if (values.size() == 1) {
+                return putString(chunk(CONSTANT, stringBytes(values.get(0))), values.get(0)).flip();
+            }
+            int indexBytes = values.size() <= 256 ? 1 : Short.BYTES;
+            int length = Integer.BYTES + rows * indexBytes;
+            for (byte[] value : values) {
+                length += stringBytes(value);
+            }
+            ByteBuffer chunk = chunk(DICTIONARY, length).putInt(values.size());
+            values.forEach(value -> putString(chunk, value));
+            for (int index : indices) {
+                if (indexBytes == 1) {
+                    chunk.put((byte) index);
+                } else {
+                    chunk.putShort((short) index);
+                }
+            }
+            return chunk.flip();
+        }
+
+        byte[][] values = new byte[rows][];
+        int length = 0;
+        for (int r = 0; r < rows; r++) {
+            values[r] = utf8(column.getter().apply(stars.get(r)));
+            length += stringBytes(values[r]);
+        }
+        ByteBuffer chunk = chunk(PLAIN, length);
+        for (byte[] value : values) {
+            putString(chunk, value);
+        }
+        return chunk.flip();
+    }
+
+    /**
+     * A column chunk buffer with its length and encoding written, room for the values left.
+     */
+    private static ByteBuffer chunk(byte encoding, int valueBytes) {
+        return allocate(Integer.BYTES + 1 + valueBytes).putInt(1 + valueBytes).put(encoding);
+    }
+
+    private static byte[] utf8(@Nullable String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringBytes(byte[] value) {
+        return Integer.BYTES + (value == null ? 0 : value.length);
+    }
+
+    private static ByteBuffer putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            return buffer.putInt(-1);
+        }
+        return buffer.putInt(value.length).put(value);
+    }
+
+    // Column decoding
+
+    private static void decodeColumn(@NotNull StarColumn column,
+                                     @NotNull ByteBuffer chunk,
+                                     @NotNull List<StarObject> stars) throws IOException {
+        byte encoding = chunk.get();
+        switch (column) {
+            case DoubleColumn doubleColumn -> decodeDoubles(doubleColumn, encoding, chunk, stars);
+            case IntColumn intColumn -> decodeInts(intColumn, encoding, chunk, stars);
+            case BooleanColumn booleanColumn -> decodeBooleans(booleanColumn, encoding, chunk, stars);
+            case StringColumn stringColumn -> decodeStrings(stringColumn, encoding, chunk, stars);
+        }
+    }
+
+    private static void decodeDoubles(DoubleColumn column, byte encoding, ByteBuffer chunk, List<StarObject> stars)
+            throws IOException {
+        if (encoding == CONSTANT) {
+            double value = chunk.getDouble();
+            stars.forEach(star -> column.setter().accept(star, value));
+        } else {
+            expectEncoding(encoding, PLAIN, column);
+            for (StarObject star : stars) {
+                column.setter().accept(star, chunk.getDouble());
+            }
+        }
+    }
+
+    private static void decodeInts(IntColumn column, byte encoding, ByteBuffer chunk, List<StarObject> stars)
+            throws IOException {
+        if (encoding == CONSTANT) {
+            int value = chunk.getInt();
+            stars.forEach(star -> column.setter().accept(star, value));
+        } else {
+            expectEncoding(encoding, PLAIN, column);
+            for (StarObject star : stars) {
+                column.setter().accept(star, chunk.getInt());
+            }
+        }
+    }
+
+    private static void decodeBooleans(BooleanColumn column, byte encoding, ByteBuffer chunk, List<StarObject> stars)
+            throws IOException {
+        if (encoding == CONSTANT) {
+            boolean value = chunk.get() != 0;
+            stars.forEach(star -> column.setter().accept(star, value));
+        } else {
+            expectEncoding(encoding, PLAIN, column);
+            for (StarObject star : stars) {
+                column.setter().accept(star, chunk.get() != 0);
+            }
+        }
+    }
+
+    private static void decodeStrings(StringColumn column, byte encoding, ByteBuffer chunk, List<StarObject> stars)
+            throws IOException {
+        if (encoding == CONSTANT) {
+            String value = readString(chunk);
+            stars.forEach(star -> column.setter().accept(star, value));
+        } else if (encoding == DICTIONARY) {
+            String[] values = new String[chunk.getInt()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = readString(chunk);
+            }
+            boolean byteIndices = values.length <= 256;
+            for (StarObject star : stars) {
+                int index = byteIndices ? Byte.toUnsignedInt(chunk.get()) : Short.toUnsignedInt(chunk.getShort());
+                column.setter().accept(star, values[index]);
+            }
+        } else {
+            expectEncoding(encoding, PLAIN, column);
+            for (StarObject star : stars) {
+                column.setter().accept(star, readString(chunk));
+            }
+        }
+    }
+
+    private static void expectEncoding(byte encoding, byte expected, StarColumn column) throws IOException {
+        if (encoding != expected) {
+            throw new IOException("corrupt columnar star file: unknown encoding " + encoding + " for column " + column.name());
+        }
+    }
+
+    private static @Nullable String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    // Column registration
+
+    private static void catalogColumn(String name, Function<StarCatalogIds, String> getter, BiConsumer<StarObject, String> setter) {
+        stringColumn(name, star -> star.getCatalogIds() == null ? null : getter.apply(star.getCatalogIds()), setter);
+    }
+
+    private static void worldColumn(String name, Function<StarWorldBuilding, String> getter, BiConsumer<StarObject, String> setter) {
+        stringColumn(name, star -> star.getWorldBuilding() == null ? null : getter.apply(star.getWorldBuilding()), setter);
+    }
+
+    private static void doubleColumn(String name, ToDoubleFunction<StarObject> getter, ObjDoubleConsumer<StarObject> setter) {
+        COLUMNS.add(new DoubleColumn(name, getter, setter));
+    }
+
+    private static void intColumn(String name, ToIntFunction<StarObject> getter, ObjIntConsumer<StarObject> setter) {
+        COLUMNS.add(new IntColumn(name, getter, setter));
+    }
+
+    private static void booleanColumn(String name, Predicate<StarObject> getter, BiConsumer<StarObject, Boolean> setter) {
+        COLUMNS.add(new BooleanColumn(name, getter, setter));
+    }
+
+    private static void stringColumn(String name, Function<StarObject, String> getter, BiConsumer<StarObject, String> setter) {
+        COLUMNS.add(new StringColumn(name, getter, setter));
+    }
+}
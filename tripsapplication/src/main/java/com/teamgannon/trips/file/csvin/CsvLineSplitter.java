@@ -0,0 +1,50 @@
+package com.teamgannon.trips.file.csvin;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Quote-aware CSV line splitter.
+ * <p>
+ * Splits on commas outside double quotes in one pass over the line, keeping quotes and
+ * empty trailing fields exactly as they appear. For lines with balanced quotes this gives
+ * the same fields as splitting with the look-ahead regex
+ * {@code ,(?=(?:[^"]*"[^"]*")*[^"]*$)} and limit -1, which rescans the rest of the line
+ * at every comma.
+ */
+public final class CsvLineSplitter {
+
+    private CsvLineSplitter() {
+    }
+
+    /**
+     * Split a line into its fields.
+     *
+     * @param line the line, without its line terminator
+     * @return the fields; a line without separators gives one field
+     */
+    public static String @NotNull [] split(@NotNull String line) {
+        String[] fields = new String[16];
+        int count = 0;
+        int start = 0;
+        boolean quoted = false;
+        for (int i = 0, n = line.length(); i < n; i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ',' && !quoted) {
+                if (count == fields.length) {
+                    fields = Arrays.copyOf(fields, count * 2);
+                }
+                fields[count++] = line.substring(start, i);
+                start = i + 1;
+            }
+        }
+        if (count == fields.length) {
+            fields = Arrays.copyOf(fields, count + 1);
+        }
+        fields[count++] = line.substring(start);
+        return count == fields.length ? fields : Arrays.copyOf(fields, count);
+    }
+}
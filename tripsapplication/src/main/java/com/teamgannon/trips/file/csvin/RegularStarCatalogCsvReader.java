@@ -5,8 +5,10 @@ import com.teamgannon.trips.file.csvin.model.AstroCSVStar;
 import com.teamgannon.trips.file.csvin.model.LoadStats;
 import com.teamgannon.trips.jpa.model.DataSetDescriptor;
 import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.service.BulkLoadService;
 import com.teamgannon.trips.service.DatabaseManagementService;
 import com.teamgannon.trips.service.StarService;
+import com.teamgannon.trips.service.bulkload.StarBulkLoad;
 import com.teamgannon.trips.service.importservices.tasks.ProgressUpdater;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
@@ -20,29 +22,57 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.regex.Pattern;
-import java.util.stream.IntStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.teamgannon.trips.astrogation.Coordinates.calculateEquatorialCoordinates;
 import static com.teamgannon.trips.astrogation.Coordinates.equatorialToGalactic;
 import static com.teamgannon.trips.dialogs.gaiadata.CatalogUtils.cleanUpEntries;
 import static com.teamgannon.trips.dialogs.gaiadata.CatalogUtils.setCatalogIds;
 
+/**
+ * Reads a TRIPS star CSV file into a dataset.
+ * <p>
+ * The load runs as a pipeline: a reader thread cuts the file into blocks of lines, a pool
+ * of parser workers turns each block into stars, and the calling thread saves the blocks
+ * in file order. The stages are joined by a bounded queue of pending blocks, so the reader
+ * waits when parsing or saving falls behind and memory stays bounded.
+ * <p>
+ * Given a {@link BulkLoadService}, the stars are inserted with JDBC batches through a
+ * {@link StarBulkLoad}; without one they are saved through {@link StarService#starBulkSave}.
+ */
 @Slf4j
 public class RegularStarCatalogCsvReader {
 
-    // Pre-compiled pattern for CSV splitting - handles quoted fields with commas
-    private static final Pattern CSV_SPLIT_PATTERN = Pattern.compile(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
-
-    // Increased batch size for better throughput with Hibernate batching
+    // Lines per block, and stars per bulk save; sized for Hibernate batching
     private static final int BATCH_SIZE = 5000;
 
+    // Blocks read ahead of the writer per parser worker
+    private static final int BLOCKS_IN_FLIGHT_PER_WORKER = 2;
+
+    // Rough size of a star line, to estimate the load size when the file has no descriptor
+    private static final int ESTIMATED_BYTES_PER_STAR = 400;
+
     private final DatabaseManagementService databaseManagementService;
     private final StarService starService;
+    private final @Nullable BulkLoadService bulkLoadService;
 
     public RegularStarCatalogCsvReader(DatabaseManagementService databaseManagementService, StarService starService) {
+        this(databaseManagementService, starService, null);
+    }
+
+    public RegularStarCatalogCsvReader(DatabaseManagementService databaseManagementService,
+                                       StarService starService,
+                                       @Nullable BulkLoadService bulkLoadService) {
         this.databaseManagementService = databaseManagementService;
         this.starService = starService;
+        this.bulkLoadService = bulkLoadService;
     }
 
     public RegCSVFile loadFile(@NotNull ProgressUpdater progressUpdater,
@@ -82,23 +112,12 @@ public class RegularStarCatalogCsvReader {
                 csvFile.setDataSetDescriptor(createDescriptor(dataset));
             }
 
-            // read stars in batches
-            do {
-                loadStats.clearLoopCounter();
-                long start = System.currentTimeMillis();
-                List<StarObject> starList = parseBulkRecords(BATCH_SIZE, reader, loadStats);
-                long parseTime = System.currentTimeMillis() - start;
-
-                // save all the stars we've read so far
-                long saveStart = System.currentTimeMillis();
-                starService.starBulkSave(starList);
-                long saveTime = System.currentTimeMillis() - saveStart;
-
-                loadStats.addToTotalCount(loadStats.getLoopCounter());
-                progressUpdater.updateTaskInfo(String.format("--> %d loaded so far, please wait ", loadStats.getTotalCount()));
-                log.info("Batch: {} records parsed in {}ms, saved in {}ms, total: {}",
-                        loadStats.getLoopCounter(), parseTime, saveTime, loadStats.getTotalCount());
-            } while (!loadStats.isReadComplete()); // the moment readComplete turns true, we stop
+            // read, parse and save stars in blocks
+            try (StarBulkLoad starLoad = bulkLoadService == null ? null
+                    : bulkLoadService.openStarLoad(dataset.getName(), expectedStars(file, csvFile))) {
+                loadBlocks(reader, loadStats, progressUpdater, starLoad);
+            }
+            loadStats.setReadComplete(true);
 
             long totalTime = System.currentTimeMillis() - fileStart;
             log.info("File load complete: total:{}, accepts:{}, rejects:{}, time:{}ms",
@@ -112,6 +131,12 @@ public class RegularStarCatalogCsvReader {
             log.error("failed to read file because: {}", e.getMessage());
             csvFile.setReadSuccess(false);
             csvFile.setProcessMessage("failed to read file because: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progressUpdater.updateTaskInfo("load of dataset was interrupted");
+            log.warn("load of file {} was interrupted", file.getAbsolutePath());
+            csvFile.setReadSuccess(false);
+            csvFile.setProcessMessage("load of dataset was interrupted");
         }
 
         if (csvFile.isReadSuccess()) {
@@ -124,30 +149,148 @@ public class RegularStarCatalogCsvReader {
         return csvFile;
     }
 
-    private List<StarObject> parseBulkRecords(int numberToParse,
-                                              BufferedReader reader,
-                                              LoadStats loadStats) throws IOException {
-        // Use ArrayList with pre-sized capacity for better performance
-        List<StarObject> starList = new ArrayList<>(numberToParse);
+    /**
+     * Run the read, parse and save pipeline over the rest of the file.
+     */
+    private void loadBlocks(@NotNull BufferedReader reader,
+                            @NotNull LoadStats loadStats,
+                            @NotNull ProgressUpdater progressUpdater,
+                            @Nullable StarBulkLoad starLoad) throws IOException, InterruptedException {
+        // the reader and the writer take a core each
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService parsers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "csv-parse-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // blocks in file order; each future completes when its block is parsed
+        BlockingQueue<Future<ParsedBlock>> pending = new ArrayBlockingQueue<>(workers * BLOCKS_IN_FLIGHT_PER_WORKER);
 
-        for (int i = 0; i < numberToParse; i++) {
-            String line = reader.readLine();
+        Thread readerThread = new Thread(() -> readBlocks(reader, loadStats.getDataSet(), parsers, pending), "csv-read");
+        readerThread.setDaemon(true);
+        readerThread.start();
+        try {
+            writeBlocks(pending, loadStats, progressUpdater, starLoad);
+        } finally {
+            // stops the reader and the parsers if the writer failed; no-op otherwise
+            readerThread.interrupt();
+            parsers.shutdownNow();
+            // the reader must be done with the file before it is closed
+            readerThread.join();
+        }
+    }
 
-            if (line == null) {
-                log.debug("End of file reached at line={}", loadStats.getTotalCount());
-                loadStats.setReadComplete(true);
-                break;
+    /**
+     * About how many stars the file holds: the count in its descriptor, else a guess from its size.
+     */
+    private long expectedStars(@NotNull File file, @NotNull RegCSVFile csvFile) {
+        Long numberStars = csvFile.getDataSetDescriptor().getNumberStars();
+        if (numberStars != null && numberStars > 0) {
+            return numberStars;
+        }
+        return file.length() / ESTIMATED_BYTES_PER_STAR;
+    }
+
+    /**
+     * Reader stage: cut the file into blocks and queue each for parsing, in order.
+     * Ends the queue with {@link ParsedBlock#END}, or with the read failure.
+     */
+    private void readBlocks(@NotNull BufferedReader reader,
+                            @NotNull Dataset dataset,
+                            @NotNull ExecutorService parsers,
+                            @NotNull BlockingQueue<Future<ParsedBlock>> pending) {
+        try {
+            Future<ParsedBlock> end = CompletableFuture.completedFuture(ParsedBlock.END);
+            try {
+                long firstLine = 0;
+                boolean more = true;
+                while (more) {
+                    List<String> lines = new ArrayList<>(BATCH_SIZE);
+                    String line = null;
+                    while (lines.size() < BATCH_SIZE && (line = reader.readLine()) != null) {
+                        lines.add(line);
+                    }
+                    more = line != null;
+                    if (!lines.isEmpty()) {
+                        long blockStart = firstLine;
+                        pending.put(parsers.submit(() -> parseBlock(dataset, blockStart, lines)));
+                        firstLine += lines.size();
+                    }
+                }
+                log.debug("End of file reached at line={}", firstLine);
+            } catch (IOException | RuntimeException e) {
+                end = CompletableFuture.failedFuture(e);
             }
+            pending.put(end);
+        } catch (InterruptedException e) {
+            // the writer gave up
+            Thread.currentThread().interrupt();
+        }
+    }
 
-            // Use pre-compiled pattern for faster splitting
-            String[] splitLine = CSV_SPLIT_PATTERN.split(line, -1);
-            String[] lineRead = linePad(splitLine, splitLine.length);
-            loadStats.incLoopCounter();
+    /**
+     * Writer stage: save the parsed blocks in file order and report progress.
+     */
+    private void writeBlocks(@NotNull BlockingQueue<Future<ParsedBlock>> pending,
+                             @NotNull LoadStats loadStats,
+                             @NotNull ProgressUpdater progressUpdater,
+                             @Nullable StarBulkLoad starLoad) throws IOException, InterruptedException {
+        RegCSVFile csvFile = loadStats.getCsvFile();
+        while (true) {
+            ParsedBlock block;
+            try {
+                block = pending.take().get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException ioException) {
+                    throw ioException;
+                }
+                throw new IllegalStateException("failed to parse CSV block", e.getCause());
+            }
+            if (block == ParsedBlock.END) {
+                return;
+            }
+
+            // save all the stars we've read so far
+            long saveStart = System.currentTimeMillis();
+            if (starLoad != null) {
+                starLoad.insert(block.stars);
+            } else {
+                starService.starBulkSave(block.stars);
+            }
+            long saveTime = System.currentTimeMillis() - saveStart;
+
+            csvFile.setNumbAccepts(csvFile.getNumbAccepts() + block.accepts);
+            csvFile.setNumbRejects(csvFile.getNumbRejects() + block.rejects);
+            csvFile.setSize(csvFile.getSize() + block.lineCount);
+            loadStats.setMaxDistance(Math.max(loadStats.getMaxDistance(), block.maxDistance));
+            loadStats.addToTotalCount(block.lineCount);
+
+            progressUpdater.updateTaskInfo(String.format("--> %d loaded so far, please wait ", loadStats.getTotalCount()));
+            log.info("Batch: {} records parsed in {}ms, saved in {}ms, total: {}",
+                    block.lineCount, block.parseTime, saveTime, loadStats.getTotalCount());
+        }
+    }
+
+    /**
+     * Parser stage: turn a block of lines into stars. Runs on a parser worker.
+     *
+     * @param dataset   the dataset being loaded
+     * @param firstLine the number of star lines before this block, for logging
+     * @param lines     the block's lines
+     */
+    private @NotNull ParsedBlock parseBlock(@NotNull Dataset dataset, long firstLine, @NotNull List<String> lines) {
+        long start = System.currentTimeMillis();
+        ParsedBlock block = new ParsedBlock(lines.size());
+
+        for (int i = 0; i < lines.size(); i++) {
+            long lineNumber = firstLine + i;
+            String[] lineRead = CsvLineSplitter.split(lines.get(i));
 
             try {
                 // Log raw CSV values for first few records to diagnose parsing issues
-                if (loadStats.getTotalCount() < 5) {
-                    log.info("=== IMPORT ROW {} ===", loadStats.getTotalCount());
+                if (lineNumber < 5) {
+                    log.info("=== IMPORT ROW {} ===", lineNumber);
                     log.info("  Total columns: {}", lineRead.length);
                     log.info("  col[0] id: '{}'", lineRead.length > 0 ? lineRead[0] : "N/A");
                     log.info("  col[2] displayName: '{}'", lineRead.length > 2 ? lineRead[2] : "N/A");
@@ -163,14 +306,14 @@ public class RegularStarCatalogCsvReader {
                     }
                 }
 
-                AstroCSVStar star = parseAstroCSVStar(loadStats.getDataSet(), lineRead);
+                AstroCSVStar star = parseAstroCSVStar(dataset, lineRead);
                 StarObject starObject = star.toStarObject();
 
                 if (starObject != null) {
-                    starObject.setDataSetName(loadStats.getDataSet().getName());
+                    starObject.setDataSetName(dataset.getName());
 
-                    if (loadStats.getTotalCount() == 0) {
-                        log.info("Dataset name being assigned: '{}'", loadStats.getDataSet().getName());
+                    if (lineNumber == 0) {
+                        log.info("Dataset name being assigned: '{}'", dataset.getName());
                     }
 
                     if (starObject.getX() == 0.0 && starObject.getY() == 0.0 && starObject.getZ() == 0.0) {
@@ -182,7 +325,7 @@ public class RegularStarCatalogCsvReader {
                         starObject.setZ(coordinates[2]);
                     }
 
-                    if (loadStats.getTotalCount() < 10) {
+                    if (lineNumber < 10) {
                         log.info("CSV import PARSED: name='{}', dist={}, realStar={}, other={}, anomaly={}, dataSetName='{}'",
                                 starObject.getDisplayName(), starObject.getDistance(),
                                 starObject.isRealStar(), starObject.isOther(), starObject.isAnomaly(),
@@ -197,25 +340,19 @@ public class RegularStarCatalogCsvReader {
                     setCatalogIds(starObject);
                     cleanUpEntries(starObject);
 
-                    starList.add(starObject);
-                    loadStats.getCsvFile().incAccepts();
-
-                    double distance = starObject.getDistance();
-                    if (distance > loadStats.getMaxDistance()) {
-                        loadStats.setMaxDistance(distance);
-                    }
+                    block.stars.add(starObject);
+                    block.accepts++;
+                    block.maxDistance = Math.max(block.maxDistance, starObject.getDistance());
                 } else {
-                    loadStats.getCsvFile().incRejects();
+                    block.rejects++;
                 }
-
-                loadStats.getCsvFile().incTotal();
             } catch (Exception e) {
-                log.error("Failed to parse line {}: {}", loadStats.getTotalCount() + i, e.getMessage());
-                loadStats.getCsvFile().incRejects();
-                loadStats.getCsvFile().incTotal();
+                log.error("Failed to parse line {}: {}", lineNumber, e.getMessage());
+                block.rejects++;
             }
         }
-        return starList;
+        block.parseTime = System.currentTimeMillis() - start;
+        return block;
     }
 
     private AstroCSVStar parseAstroCSVStar(@NotNull Dataset dataset, String[] lineRead) {
@@ -333,19 +470,6 @@ public class RegularStarCatalogCsvReader {
         }
     }
 
-    private String[] linePad(String[] split, int size) {
-        String[] pad = new String[size];
-        IntStream.range(0, size).forEachOrdered(i -> {
-            if (i < split.length) {
-                pad[i] = split[i];
-            } else {
-                pad[i] = "";
-            }
-        });
-        return pad;
-    }
-
-
     private DataSetDescriptor createDescriptor(Dataset dataset) {
         DataSetDescriptor descriptor = new DataSetDescriptor();
         descriptor.setDataSetName(dataset.getName());
@@ -399,4 +523,24 @@ public class RegularStarCatalogCsvReader {
         return replaced;
     }
 
+    /**
+     * The stars parsed from one block of lines, with the block's load statistics.
+     */
+    private static final class ParsedBlock {
+
+        // marks the end of the file in the pending queue
+        static final ParsedBlock END = new ParsedBlock(0);
+
+        final List<StarObject> stars;
+        final int lineCount;
+        int accepts;
+        int rejects;
+        double maxDistance;
+        long parseTime;
+
+        ParsedBlock(int lineCount) {
+            this.stars = new ArrayList<>(lineCount);
+            this.lineCount = lineCount;
+        }
+    }
 }
@@ -2,10 +2,8 @@ package com.teamgannon.trips.file.csvin.model;
 
 import com.teamgannon.trips.jpa.model.StarObject;
 import com.teamgannon.trips.stellarmodelling.StarCreator;
-import com.teamgannon.trips.stellarmodelling.StellarFactory;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
@@ -15,12 +13,6 @@ import java.util.UUID;
 @Builder
 public class AstroCSVStar {
 
-
-    @Getter(value = AccessLevel.NONE)
-    @Setter(value = AccessLevel.NONE)
-    @Builder.Default
-    private @NotNull StellarFactory stellarFactory = new StellarFactory();
-
     private String datasetName;
     private String displayName;
     private String commonName;
@@ -199,8 +199,8 @@ public class PlotManager {
         // clear plot first
         currentPlot.clearPlot();
 
-        // clear interstellarPlot
-        interstellarSpacePane.clearAll();
+        // clear interstellarPlot, keeping transits to patch after plotting
+        interstellarSpacePane.clearAllButTransits();
 
         // set center star
         String centerStar = searchContext.getAstroSearchQuery().getCenterStar();
@@ -252,6 +252,9 @@ public class PlotManager {
         interstellarSpacePane.plotStars(currentPlot);
         currentPlot.setPlotActive(true);
 
+        // update displayed transits to the new star set
+        interstellarSpacePane.refreshTransits();
+
         // draw the routes for this descriptor
         interstellarSpacePane.redrawRoutes(dataSetDescriptor.getRoutes());
 
@@ -306,6 +306,14 @@ public class InterstellarSpacePane extends Pane implements RotationController {
         transitManager.clearTransits();
     }
 
+    /**
+     * Patches the displayed transits to the stars now in view, or clears them if
+     * the plot changed too much.
+     */
+    public void refreshTransits() {
+        transitManager.refreshTransits(getCurrentStarsInView());
+    }
+
     public void toggleTransits(boolean transitsOn) {
         transitManager.setVisible(transitsOn);
     }
@@ -623,9 +631,17 @@ public class InterstellarSpacePane extends Pane implements RotationController {
     // =========================================================================
 
     public void clearAll() {
+        clearAllButTransits();
+        clearTransits();
+    }
+
+    /**
+     * Clears everything except the transits, which {@link #refreshTransits()} brings up
+     * to date once the new stars are plotted.
+     */
+    public void clearAllButTransits() {
         clearStars();
         clearRoutes();
-        clearTransits();
         clearNebulae();
     }
 }
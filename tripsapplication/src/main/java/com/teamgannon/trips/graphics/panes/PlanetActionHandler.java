@@ -156,8 +156,8 @@ public class PlanetActionHandler {
             // Create PlanetConfig directly from ExoPlanet properties
             PlanetConfig config = ProceduralPlanetPersistenceHelper.buildConfigFromExoPlanet(exoPlanet, seed);
 
-            // Generate procedural terrain
-            PlanetGenerator.GeneratedPlanet generated = PlanetGenerator.generate(config);
+            // Load the terrain stored for this config, generating it on first view
+            PlanetGenerator.GeneratedPlanet generated = solarSystemService.loadOrGenerateProceduralPlanet(config);
 
             log.info("Generated terrain with {} polygons, {} rivers",
                     generated.polygons().size(),
@@ -175,6 +175,7 @@ public class PlanetActionHandler {
                         ProceduralPlanetPersistenceHelper.populateProceduralMetadata(
                                 exoPlanet, planetConfig, planetConfig.seed(), planet, "USER_OVERRIDES");
                         solarSystemService.updateExoPlanet(exoPlanet);
+                        solarSystemService.storeProceduralPlanet(planet);
                     });
 
             // Set planet type for terrain type determination (JOVIAN/ICE_GIANT/etc)
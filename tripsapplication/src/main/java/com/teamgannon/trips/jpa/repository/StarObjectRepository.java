@@ -60,6 +60,7 @@ public interface StarObjectRepository
     /**
      * Delete all stars in a dataset.
      */
+    @Transactional
     void deleteByDataSetName(String dataSetName);
 
     /**
@@ -170,6 +171,37 @@ public interface StarObjectRepository
             @Param("minY") double minY, @Param("maxY") double maxY,
             @Param("minZ") double minZ, @Param("maxZ") double maxZ);
 
+    /**
+     * Stream the id, display name and coordinates of stars within a 3D coordinate bounding box.
+     * Each row is {@code [id, displayName, x, y, z]}, so no entity is materialized.
+     * Used by the dataset-wide route search to load the corridor between two stars.
+     */
+    @Query("""
+           SELECT s.id, s.displayName, s.x, s.y, s.z FROM STAR_OBJ s WHERE s.dataSetName = :dataSetName \
+           AND s.x >= :minX AND s.x <= :maxX \
+           AND s.y >= :minY AND s.y <= :maxY \
+           AND s.z >= :minZ AND s.z <= :maxZ\
+           """)
+    @Transactional(readOnly = true)
+    Stream<Object[]> streamSparseInBoundingBox(
+            @Param("dataSetName") String dataSetName,
+            @Param("minX") double minX, @Param("maxX") double maxX,
+            @Param("minY") double minY, @Param("maxY") double maxY,
+            @Param("minZ") double minZ, @Param("maxZ") double maxZ);
+
+    /**
+     * Stream the columns of a dataset's star snapshot. Each row is
+     * {@code [id, displayName, x, y, z, distance, magv, absoluteMagnitude, bprp, temperature,
+     * spectralClass, commonName, systemName, constellationName]}, so no entity is materialized.
+     */
+    @Query("""
+           SELECT s.id, s.displayName, s.x, s.y, s.z, s.distance, s.magv, s.absoluteMagnitude, \
+           s.bprp, s.temperature, s.spectralClass, s.commonName, s.systemName, s.constellationName \
+           FROM STAR_OBJ s WHERE s.dataSetName = :dataSetName\
+           """)
+    @Transactional(readOnly = true)
+    Stream<Object[]> streamSnapshotColumns(@Param("dataSetName") String dataSetName);
+
     // ========== Magnitude-based queries for night sky rendering ==========
 
     /**
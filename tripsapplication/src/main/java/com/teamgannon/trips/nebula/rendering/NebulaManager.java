@@ -4,6 +4,7 @@ import com.teamgannon.trips.nebula.model.Nebula;
 import com.teamgannon.trips.nebula.repository.NebulaRepository;
 import com.teamgannon.trips.nebula.service.NebulaConfigConverter;
 import com.teamgannon.trips.particlefields.InterstellarRingAdapter;
+import com.teamgannon.trips.particlefields.ParticleFieldScheduler;
 import com.teamgannon.trips.particlefields.RingConfiguration;
 import com.teamgannon.trips.particlefields.RingFieldRenderer;
 import javafx.scene.Group;
@@ -240,7 +241,8 @@ public class NebulaManager {
 
     /**
      * Update animation for all active nebulae.
-     * Call this every frame.
+     * Call this every frame. The particles are propagated on the shared
+     * {@link ParticleFieldScheduler} workers; this thread only pushes their vertices.
      *
      * @param timeScale animation speed multiplier
      */
@@ -249,11 +251,7 @@ public class NebulaManager {
             return;
         }
 
-        for (RingFieldRenderer renderer : activeRenderers.values()) {
-            renderer.update(timeScale);
-            // Use efficient position update every frame (no full mesh rebuild)
-            renderer.updateMeshPositions();
-        }
+        ParticleFieldScheduler.shared().step(activeRenderers.values(), timeScale);
     }
 
     /**
@@ -8,6 +8,8 @@ import com.teamgannon.trips.nightsky.math.*;
 import com.teamgannon.trips.nightsky.model.*;
 import com.teamgannon.trips.nightsky.service.*;
 import com.teamgannon.trips.planetary.PlanetaryContext;
+import com.teamgannon.trips.service.snapshot.StarSnapshot;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.math3.geometry.euclidean.threed.Vector3D;
@@ -40,6 +42,7 @@ public class PlanetarySkyBridgeService {
     private final PhotometryService photometryService;
     private final NightSkyCacheService cacheService;
     private final StarObjectRepository starObjectRepository;
+    private final StarSnapshotService starSnapshotService;
 
     // Default search radius in light years
     private static final double DEFAULT_RADIUS_LY = 100.0;
@@ -106,16 +109,11 @@ public class PlanetarySkyBridgeService {
         }
 
         // Load stars efficiently with magnitude pre-filtering at DB level
-        // Add some headroom to the magnitude limit to account for atmospheric extinction
+        // Add some headroom to the magnitude limit to account for atmospheric extinction.
+        // The stars do not depend on the local time, so changing it reuses the cached set.
         double dbMagLimit = effectiveMagLimit + 1.0;
-        List<StarRenderRow> allStars = queryStarsEfficiently(dbMagLimit, datasetName);
-
-        // Fallback: if very few stars found, some may have magnitude in other fields
-        // In that case, use the full streaming query
-        if (allStars.size() < 50) {
-            log.info("Few stars found with magv filter ({}), using full streaming query", allStars.size());
-            allStars = queryAllStars();
-        }
+        List<StarRenderRow> allStars = cacheService.getMagnitudeCandidates(datasetName, dbMagLimit,
+                () -> queryCandidates(dbMagLimit, datasetName));
 
         // Build horizon basis for the observer (same as NightSkyQuery3D)
         PlanetRotationModel rotationModel = new PlanetRotationModel(0.0, 86400.0, 0.0);
@@ -220,6 +218,18 @@ public class PlanetarySkyBridgeService {
         return new double[]{altitudeDeg, azimuthDeg};
     }
 
+    private List<StarRenderRow> queryCandidates(double magLimit, String datasetName) {
+        List<StarRenderRow> stars = queryStarsEfficiently(magLimit, datasetName);
+
+        // Fallback: if very few stars found, some may have magnitude in other fields
+        // In that case, use the full streaming query
+        if (stars.size() < 50) {
+            log.info("Few stars found with magv filter ({}), using full streaming query", stars.size());
+            stars = queryAllStars();
+        }
+        return stars;
+    }
+
     /**
      * Query stars efficiently using streaming with magnitude pre-filtering.
      * This is much faster than loading ALL stars and filtering in memory.
@@ -231,6 +241,19 @@ public class PlanetarySkyBridgeService {
     private List<StarRenderRow> queryStarsEfficiently(double magLimit, String datasetName) {
         List<StarRenderRow> results = new ArrayList<>();
 
+        // A cached dataset snapshot answers the same filter from its columns
+        StarSnapshot snapshot = starSnapshotService.getSnapshot(datasetName);
+        if (snapshot != null) {
+            for (int i = 0; i < snapshot.size(); i++) {
+                float magv = snapshot.magv(i);
+                if (magv != 0.0f && magv <= magLimit) {
+                    results.add(toStarRenderRow(snapshot, i));
+                }
+            }
+            log.info("Loaded {} stars with mag <= {} from snapshot", results.size(), magLimit);
+            return results;
+        }
+
         // Use streaming query with magnitude filter for efficiency
         // The database filters out stars that are definitely too dim
         try (Stream<StarObject> starStream = (datasetName != null && !datasetName.isEmpty())
@@ -286,18 +309,43 @@ public class PlanetarySkyBridgeService {
                 .build();
     }
 
+    /**
+     * Snapshot counterpart of {@link #toStarRenderRow(StarObject)} for stars with a V-band
+     * magnitude, which is what selectStarObjectMagnitude picks for them.
+     */
+    private StarRenderRow toStarRenderRow(StarSnapshot snapshot, int i) {
+        float teff = snapshot.temperature(i) > 0 ? snapshot.temperature(i) : 5500.0f;
+        String id = snapshot.id(i);
+
+        return StarRenderRow.builder()
+                .starId(id != null ? id.hashCode() : 0)
+                .xLy(snapshot.x(i))
+                .yLy(snapshot.y(i))
+                .zLy(snapshot.z(i))
+                .absMag(snapshot.magv(i))
+                .bpRpOrTeff(teff)
+                .spectralClass(snapshot.spectralClass(i))
+                .starName(resolveStarName(snapshot.commonName(i), snapshot.displayName(i),
+                        snapshot.systemName(i), id))
+                .build();
+    }
+
     private String resolveStarName(StarObject star) {
-        if (star.getCommonName() != null && !star.getCommonName().trim().isEmpty()) {
-            return star.getCommonName().trim();
+        return resolveStarName(star.getCommonName(), star.getDisplayName(), star.getSystemName(), star.getId());
+    }
+
+    private String resolveStarName(String commonName, String displayName, String systemName, String id) {
+        if (commonName != null && !commonName.trim().isEmpty()) {
+            return commonName.trim();
         }
-        if (star.getDisplayName() != null && !star.getDisplayName().trim().isEmpty()) {
-            return star.getDisplayName().trim();
+        if (displayName != null && !displayName.trim().isEmpty()) {
+            return displayName.trim();
         }
-        if (star.getSystemName() != null && !star.getSystemName().trim().isEmpty()) {
-            return star.getSystemName().trim();
+        if (systemName != null && !systemName.trim().isEmpty()) {
+            return systemName.trim();
         }
-        if (star.getId() != null && !star.getId().trim().isEmpty()) {
-            return star.getId().trim();
+        if (id != null && !id.trim().isEmpty()) {
+            return id.trim();
         }
         return "Unknown";
     }
@@ -0,0 +1,145 @@
+package com.teamgannon.trips.nightsky.math;
+
+/**
+ * Bounded selection of the brightest stars, by apparent magnitude.
+ * <p>
+ * A binary max-heap on (magnitude, star index) holding at most {@code capacity} entries:
+ * the root is the dimmest star kept, and a brighter offer replaces it. Selecting the
+ * brightest k of n stars costs O(n log k) with no per-star allocation, instead of sorting
+ * all n. Ties on magnitude keep the lower index, so the selection and its order match a
+ * stable sort of the stars by magnitude.
+ * <p>
+ * Storage is reused across {@link #reset} calls and grows only when the capacity does.
+ */
+public final class BrightestStarHeap {
+
+    private float[] magnitudes = new float[0];
+    private int[] indices = new int[0];
+    private int capacity;
+    private int size;
+    private int offered;
+
+    /**
+     * Empties the heap and sets how many stars it keeps.
+     */
+    public void reset(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must not be negative: " + capacity);
+        }
+        if (magnitudes.length < capacity) {
+            magnitudes = new float[capacity];
+            indices = new int[capacity];
+        }
+        this.capacity = capacity;
+        this.size = 0;
+        this.offered = 0;
+    }
+
+    /**
+     * Offers a star; it is kept if the heap has room or it is brighter than the dimmest kept.
+     */
+    public void offer(float magnitude, int index) {
+        offered++;
+        if (size < capacity) {
+            magnitudes[size] = magnitude;
+            indices[size] = index;
+            siftUp(size++);
+        } else if (capacity > 0 && before(magnitude, index, magnitudes[0], indices[0])) {
+            magnitudes[0] = magnitude;
+            indices[0] = index;
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Offers every star kept by another heap.
+     */
+    public void offerAll(BrightestStarHeap other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.magnitudes[i], other.indices[i]);
+        }
+        // count what the other heap saw, not just what it kept
+        offered += other.offered - other.size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Number of stars offered since the last reset, kept or not.
+     */
+    public int offered() {
+        return offered;
+    }
+
+    /**
+     * Sorts the kept stars brightest first, in place; the heap is then read with
+     * {@link #magnitudeAt} and {@link #indexAt} and must be reset before the next offer.
+     */
+    public void sort() {
+        for (int end = size - 1; end > 0; end--) {
+            swap(0, end);
+            siftDown(0, end);
+        }
+    }
+
+    public float magnitudeAt(int position) {
+        return magnitudes[position];
+    }
+
+    public int indexAt(int position) {
+        return indices[position];
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    /**
+     * Whether star a sorts before (is brighter than) star b.
+     */
+    private static boolean before(float magnitudeA, int indexA, float magnitudeB, int indexB) {
+        int compare = Float.compare(magnitudeA, magnitudeB);
+        return compare < 0 || (compare == 0 && indexA < indexB);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!before(magnitudes[parent], indices[parent], magnitudes[position], indices[position])) {
+                return;
+            }
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position, int end) {
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= end) {
+                return;
+            }
+            int largest = left;
+            int right = left + 1;
+            if (right < end && before(magnitudes[left], indices[left], magnitudes[right], indices[right])) {
+                largest = right;
+            }
+            if (!before(magnitudes[position], indices[position], magnitudes[largest], indices[largest])) {
+                return;
+            }
+            swap(position, largest);
+            position = largest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        float magnitude = magnitudes[a];
+        magnitudes[a] = magnitudes[b];
+        magnitudes[b] = magnitude;
+        int index = indices[a];
+        indices[a] = indices[b];
+        indices[b] = index;
+    }
+}
@@ -0,0 +1,84 @@
+package com.teamgannon.trips.nightsky.model;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Candidate stars for a night sky, prepared once and projected for many frames.
+ * <p>
+ * Positions, absolute magnitudes and render colors are copied into primitive columns so the
+ * per-frame projection reads arrays instead of {@link StarRenderRow} objects and does not
+ * recompute colors. The rows are kept for star ids and names.
+ */
+public final class SkyCandidateSet {
+
+    private final List<StarRenderRow> rows;
+    private final StarRenderRow hostStar;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final float[] absMag;
+    private final int[] color;
+    private final int hostStarColor;
+
+    /**
+     * @param rows          the candidate stars
+     * @param hostStar      the observer's host star, or null if unknown
+     * @param colorFunction ARGB render color of a star
+     */
+    public SkyCandidateSet(List<StarRenderRow> rows, StarRenderRow hostStar, ToIntFunction<StarRenderRow> colorFunction) {
+        int n = rows.size();
+        this.rows = List.copyOf(rows);
+        this.hostStar = hostStar;
+        this.x = new double[n];
+        this.y = new double[n];
+        this.z = new double[n];
+        this.absMag = new float[n];
+        this.color = new int[n];
+        for (int i = 0; i < n; i++) {
+            StarRenderRow row = this.rows.get(i);
+            x[i] = row.getXLy();
+            y[i] = row.getYLy();
+            z[i] = row.getZLy();
+            absMag[i] = row.getAbsMag();
+            color[i] = colorFunction.applyAsInt(row);
+        }
+        this.hostStarColor = hostStar != null ? colorFunction.applyAsInt(hostStar) : 0;
+    }
+
+    public int size() {
+        return x.length;
+    }
+
+    public StarRenderRow getRow(int i) {
+        return rows.get(i);
+    }
+
+    public StarRenderRow getHostStar() {
+        return hostStar;
+    }
+
+    public double getX(int i) {
+        return x[i];
+    }
+
+    public double getY(int i) {
+        return y[i];
+    }
+
+    public double getZ(int i) {
+        return z[i];
+    }
+
+    public float getAbsMag(int i) {
+        return absMag[i];
+    }
+
+    public int getColor(int i) {
+        return color[i];
+    }
+
+    public int getHostStarColor() {
+        return hostStarColor;
+    }
+}
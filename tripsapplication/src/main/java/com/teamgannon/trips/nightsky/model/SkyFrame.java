@@ -0,0 +1,226 @@
+package com.teamgannon.trips.nightsky.model;
+
+import com.teamgannon.trips.nightsky.math.BrightestStarHeap;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One frame of a night sky in primitive buffers, reused from frame to frame.
+ * <p>
+ * Filled by {@code NightSkyService.computeSkyFrame} from a {@link SkyCandidateSet}: the
+ * visible stars, brightest first, as parallel azimuth/altitude/magnitude/distance/color
+ * arrays plus the candidate index of each star. Passing the previous frame back in reuses
+ * all buffers, so an animation recomputing the sky every pulse allocates nothing per star.
+ * <p>
+ * A frame is not thread-safe; use one per animation.
+ */
+public final class SkyFrame {
+
+    private Instant instantUtc;
+
+    // per-candidate projection, written by the projection workers
+    private float[] candidateAzRad = new float[0];
+    private float[] candidateAltRad = new float[0];
+    private float[] candidateDistanceLy = new float[0];
+
+    // visible stars, brightest first
+    private float[] azRad = new float[0];
+    private float[] altRad = new float[0];
+    private float[] apparentMag = new float[0];
+    private float[] distanceLy = new float[0];
+    private int[] color = new int[0];
+    private int[] candidateIndex = new int[0];
+    private int size;
+
+    private int candidateCount;
+    private int matchedCount;
+
+    private boolean hostStarPresent;
+    private double hostAzRad;
+    private double hostAltRad;
+    private float hostApparentMag;
+    private double hostDistanceLy;
+
+    private BrightestStarHeap[] heaps = new BrightestStarHeap[0];
+
+    // =========================================================================
+    // Results
+    // =========================================================================
+
+    public Instant getInstantUtc() {
+        return instantUtc;
+    }
+
+    /**
+     * Number of visible stars in the frame.
+     */
+    public int size() {
+        return size;
+    }
+
+    public float getAzRad(int i) {
+        return azRad[i];
+    }
+
+    public float getAltRad(int i) {
+        return altRad[i];
+    }
+
+    public float getApparentMag(int i) {
+        return apparentMag[i];
+    }
+
+    public float getDistanceLy(int i) {
+        return distanceLy[i];
+    }
+
+    public int getColor(int i) {
+        return color[i];
+    }
+
+    /**
+     * Index of the star in the {@link SkyCandidateSet} the frame was computed from.
+     */
+    public int getCandidateIndex(int i) {
+        return candidateIndex[i];
+    }
+
+    /**
+     * Number of candidate stars projected.
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * Number of stars above the horizon and within the magnitude limit, before the star limit.
+     */
+    public int getMatchedCount() {
+        return matchedCount;
+    }
+
+    public boolean isHostStarPresent() {
+        return hostStarPresent;
+    }
+
+    public double getHostAzRad() {
+        return hostAzRad;
+    }
+
+    public double getHostAltRad() {
+        return hostAltRad;
+    }
+
+    public float getHostApparentMag() {
+        return hostApparentMag;
+    }
+
+    public double getHostDistanceLy() {
+        return hostDistanceLy;
+    }
+
+    /**
+     * Copy the frame into sky points, as returned by {@code NightSkyService.computeNightSky}.
+     */
+    public List<SkyStarPoint> toSkyStarPoints(SkyCandidateSet candidates) {
+        List<SkyStarPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            StarRenderRow row = candidates.getRow(candidateIndex[i]);
+            points.add(SkyStarPoint.builder()
+                    .azRad(azRad[i])
+                    .altRad(altRad[i])
+                    .apparentMag(apparentMag[i])
+                    .color(color[i])
+                    .starId(row.getStarId())
+                    .starName(row.getStarName())
+                    .distanceLy(distanceLy[i])
+                    .build());
+        }
+        return points;
+    }
+
+    // =========================================================================
+    // Filling (NightSkyService)
+    // =========================================================================
+
+    /**
+     * Start a new frame, growing the buffers if needed.
+     *
+     * @param instantUtc     the frame's time
+     * @param candidateCount number of candidate stars to project
+     * @param maxStars       most stars the frame can hold
+     * @param heapCount      number of selection heaps needed
+     */
+    public void begin(Instant instantUtc, int candidateCount, int maxStars, int heapCount) {
+        this.instantUtc = instantUtc;
+        this.candidateCount = candidateCount;
+        this.size = 0;
+        this.matchedCount = 0;
+        this.hostStarPresent = false;
+        if (candidateAzRad.length < candidateCount) {
+            candidateAzRad = new float[candidateCount];
+            candidateAltRad = new float[candidateCount];
+            candidateDistanceLy = new float[candidateCount];
+        }
+        int capacity = Math.min(maxStars, candidateCount);
+        if (azRad.length < capacity) {
+            azRad = new float[capacity];
+            altRad = new float[capacity];
+            apparentMag = new float[capacity];
+            distanceLy = new float[capacity];
+            color = new int[capacity];
+            candidateIndex = new int[capacity];
+        }
+        if (heaps.length < heapCount) {
+            int existing = heaps.length;
+            heaps = Arrays.copyOf(heaps, heapCount);
+            for (int i = existing; i < heapCount; i++) {
+                heaps[i] = new BrightestStarHeap();
+            }
+        }
+    }
+
+    /**
+     * Selection heap {@code i}, reused between frames.
+     */
+    public BrightestStarHeap heap(int i) {
+        return heaps[i];
+    }
+
+    /**
+     * Record a candidate's projection; each candidate is written by one worker only.
+     */
+    public void setCandidate(int i, float azRad, float altRad, float distanceLy) {
+        candidateAzRad[i] = azRad;
+        candidateAltRad[i] = altRad;
+        candidateDistanceLy[i] = distanceLy;
+    }
+
+    /**
+     * Append the next visible star from its candidate projection.
+     */
+    public void addStar(int candidate, float magnitude, int starColor) {
+        int i = size++;
+        candidateIndex[i] = candidate;
+        azRad[i] = candidateAzRad[candidate];
+        altRad[i] = candidateAltRad[candidate];
+        distanceLy[i] = candidateDistanceLy[candidate];
+        apparentMag[i] = magnitude;
+        color[i] = starColor;
+    }
+
+    public void setMatchedCount(int matchedCount) {
+        this.matchedCount = matchedCount;
+    }
+
+    public void setHostStar(double azRad, double altRad, float apparentMag, double distanceLy) {
+        this.hostStarPresent = true;
+        this.hostAzRad = azRad;
+        this.hostAltRad = altRad;
+        this.hostApparentMag = apparentMag;
+        this.hostDistanceLy = distanceLy;
+    }
+}
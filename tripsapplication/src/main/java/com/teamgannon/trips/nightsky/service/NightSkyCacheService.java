@@ -2,25 +2,50 @@ package com.teamgannon.trips.nightsky.service;
 
 import com.teamgannon.trips.nightsky.model.NightSkyRequest;
 import com.teamgannon.trips.nightsky.model.NightSkyResult;
+import com.teamgannon.trips.nightsky.model.SkyCandidateSet;
+import com.teamgannon.trips.nightsky.model.StarRenderRow;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 /**
  * Performance optimization through caching of sky computations.
- * Uses ConcurrentHashMap with TTL-based expiration.
+ * <p>
+ * Two layers, both ConcurrentHashMaps with TTL-based expiration:
+ * <ul>
+ *   <li>Results: finished skies per request and minute, short-lived.</li>
+ *   <li>Candidates: the stars a sky is computed from, per planet, dataset, radius and LOD.
+ *       The visible star set barely changes over hours, so candidates live long and a new
+ *       instant only reapplies the transform and photometry to them. Entries are dropped
+ *       when {@link StarSnapshotService} reports that their dataset changed.</li>
+ * </ul>
  */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class NightSkyCacheService {
 
     private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
     private static final int MAX_CACHE_SIZE = 100;
 
+    private static final Duration CANDIDATE_TTL = Duration.ofHours(1);
+
+    /**
+     * Candidate sets hold up to a few hundred thousand stars each, so only a few are kept.
+     */
+    private static final int MAX_CANDIDATE_SETS = 8;
+
+    private final StarSnapshotService starSnapshotService;
+
     private final ConcurrentHashMap<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CandidateEntry> candidates = new ConcurrentHashMap<>();
 
     /**
      * Get cached result if available and not expired.
@@ -68,12 +93,43 @@ public class NightSkyCacheService {
         log.debug("Cached result for key: {}", key);
     }
 
+    /**
+     * Get the candidate stars for a request, loading them on a miss.
+     * <p>
+     * Keyed by planet, dataset, radius and LOD but not time, so every instant of a
+     * time-lapse shares one candidate set.
+     *
+     * @param request the request
+     * @param loader  queries the candidates; called on a miss only
+     * @return the cached or loaded candidates
+     */
+    public SkyCandidateSet getCandidates(NightSkyRequest request, Supplier<SkyCandidateSet> loader) {
+        return getCandidates(computeCandidateKey(request), request.getDatasetName(), loader);
+    }
+
+    /**
+     * Get every star of a dataset brighter than a magnitude limit, loading them on a miss.
+     * These do not depend on the observer, so all planets share them.
+     *
+     * @param datasetName    the dataset, or null for all datasets
+     * @param magnitudeLimit the faintest magnitude included
+     * @param loader         queries the stars; called on a miss only
+     * @return the cached or loaded stars
+     */
+    public List<StarRenderRow> getMagnitudeCandidates(String datasetName, double magnitudeLimit,
+                                                      Supplier<List<StarRenderRow>> loader) {
+        String key = String.format("*_%s_mag%.2f", datasetName, magnitudeLimit);
+        return getCandidates(key, datasetName, loader);
+    }
+
     /**
      * Invalidate cache entry for a planet.
      */
     public void invalidate(String planetId) {
         cache.entrySet().removeIf(entry ->
                 entry.getKey().startsWith(planetId));
+        candidates.entrySet().removeIf(entry ->
+                entry.getKey().startsWith(planetId));
         log.debug("Invalidated cache for planet: {}", planetId);
     }
 
@@ -82,6 +138,7 @@ public class NightSkyCacheService {
      */
     public void clear() {
         cache.clear();
+        candidates.clear();
         log.info("Cache cleared");
     }
 
@@ -92,7 +149,7 @@ public class NightSkyCacheService {
         long valid = cache.values().stream()
                 .filter(e -> !e.isExpired())
                 .count();
-        return "Cache: %d entries (%d valid)".formatted(cache.size(), valid);
+        return "Cache: %d entries (%d valid), %d candidate sets".formatted(cache.size(), valid, candidates.size());
     }
 
     private String computeKey(NightSkyRequest request) {
@@ -107,6 +164,45 @@ public class NightSkyCacheService {
                 request.getLod().name());
     }
 
+    private String computeCandidateKey(NightSkyRequest request) {
+        return String.format("%s_%s_%.0f_%s",
+                request.getPlanetId(),
+                request.getDatasetName(),
+                request.getRadiusLy(),
+                request.getLod().name());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getCandidates(String key, String datasetName, Supplier<T> loader) {
+        long generation = starSnapshotService.getGeneration(datasetName);
+        CandidateEntry entry = candidates.get(key);
+        if (entry != null && !entry.isExpired() && entry.generation == generation) {
+            log.debug("Candidate cache hit for key: {}", key);
+            return (T) entry.value;
+        }
+
+        T value = loader.get();
+        // a dataset change during the load may have been missed by it
+        if (starSnapshotService.getGeneration(datasetName) == generation) {
+            if (candidates.size() >= MAX_CANDIDATE_SETS) {
+                evictOldestCandidates();
+            }
+            candidates.put(key, new CandidateEntry(value, generation));
+            log.debug("Cached candidates for key: {}", key);
+        }
+        return value;
+    }
+
+    private void evictOldestCandidates() {
+        candidates.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        if (candidates.size() >= MAX_CANDIDATE_SETS) {
+            candidates.entrySet().stream()
+                    .min((a, b) -> a.getValue().createdAt
+                            .compareTo(b.getValue().createdAt))
+                    .ifPresent(oldest -> candidates.remove(oldest.getKey()));
+        }
+    }
+
     private void evictOldest() {
         // Remove expired entries first
         cache.entrySet().removeIf(entry -> entry.getValue().isExpired());
@@ -143,4 +239,22 @@ public class NightSkyCacheService {
             return createdAt;
         }
     }
+
+    private static class CandidateEntry {
+        private final Object value;
+        private final long generation;
+        private final Instant createdAt;
+        private final Instant expiresAt;
+
+        CandidateEntry(Object value, long generation) {
+            this.value = value;
+            this.generation = generation;
+            this.createdAt = Instant.now();
+            this.expiresAt = createdAt.plus(CANDIDATE_TTL);
+        }
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
 }
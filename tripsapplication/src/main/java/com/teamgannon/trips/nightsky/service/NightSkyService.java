@@ -1,5 +1,6 @@
 package com.teamgannon.trips.nightsky.service;
 
+import com.teamgannon.trips.nightsky.math.BrightestStarHeap;
 import com.teamgannon.trips.nightsky.model.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -7,9 +8,8 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * Main orchestrator for night sky computation.
@@ -20,6 +20,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class NightSkyService {
 
+    /**
+     * Candidate count above which {@link #computeSkyFrame} splits projection across cores.
+     */
+    static final int PARALLEL_THRESHOLD = 50_000;
+
+    /**
+     * Smallest share of candidates worth a core of its own.
+     */
+    private static final int MIN_CHUNK_SIZE = 16_384;
+
     private final TimeService timeService;
     private final EphemerisService ephemerisService;
     private final StarQueryService starQueryService;
@@ -46,134 +56,190 @@ public class NightSkyService {
         log.info("Computing night sky for planet: {} at time: {}",
                 request.getPlanetId(), request.getInstantUtc());
 
-        // 1. Get planet position and attitude
+        // 1. Candidate stars, queried once per planet, dataset, radius and LOD
+        SkyCandidateSet candidates = cacheService.getCandidates(request, () -> prepareCandidates(request));
+
+        // 2. Transform, photometry and brightness selection for this instant
+        SkyFrame frame = computeSkyFrame(request, candidates, null);
+        List<SkyStarPoint> visibleStars = frame.toSkyStarPoints(candidates);
+
+        // 3. Host star position (the "sun")
+        SkyStarPoint hostStar = toHostStarPoint(candidates, frame);
+
+        // 4. Build result
+        Duration computeTime = Duration.between(startTime, Instant.now());
+
+        NightSkyResult result = NightSkyResult.builder()
+                .stars(visibleStars)
+                .hostStar(hostStar)
+                .totalStarsQueried(candidates.size())
+                .visibleCount(visibleStars.size())
+                .computeTime(computeTime)
+                .request(request)
+                .computedAt(Instant.now())
+                .fromCache(false)
+                .build();
+
+        // 5. Cache the result
+        cacheService.put(request, result);
+
+        log.info("Computed night sky: {} visible stars in {}ms",
+                visibleStars.size(), computeTime.toMillis());
+
+        return result;
+    }
+
+    // =========================================================================
+    // Streaming Frames
+    // =========================================================================
+
+    /**
+     * Query the candidate stars for a request once, for repeated {@link #computeSkyFrame} calls.
+     * {@link #computeNightSky} keeps these in the candidate layer of {@link NightSkyCacheService}.
+     * <p>
+     * The candidates are the stars within the request radius of the observer at the request
+     * time; over a time-lapse the observer moves by a few AU, far less than the radius, so
+     * the same candidates serve every frame.
+     */
+    public SkyCandidateSet prepareCandidates(NightSkyRequest request) {
         PlanetAttitude attitude = ephemerisService.getPlanetAttitude(
                 request.getPlanetId(),
                 request.getHostStarId(),
                 request.getInstantUtc());
-
         double[] observerPos = attitude.getPositionLy();
 
-        // 2. Build observer's local ENU frame
-        EnuFrame enuFrame = ephemerisService.getEnuFrame(
-                attitude,
-                request.getLatRad(),
-                request.getLonRad());
-
-        // 3. Query candidate stars
         List<StarRenderRow> candidateStars = starQueryService.queryStarsInRadius(
                 observerPos[0], observerPos[1], observerPos[2],
                 request.getRadiusLy(),
                 request.getDatasetName(),
                 request.getLod());
+        StarRenderRow hostStar = starQueryService.getHostStar(request.getHostStarId());
+
+        log.debug("Prepared {} candidate stars for planet: {}", candidateStars.size(), request.getPlanetId());
+        return new SkyCandidateSet(candidateStars, hostStar, photometryService::starToColor);
+    }
+
+    /**
+     * Compute one frame of the night sky into reusable buffers.
+     * <p>
+     * Produces the same stars in the same order as {@link #computeNightSky} for the same
+     * candidates, but fills primitive buffers instead of building a {@link SkyStarPoint} per
+     * star, keeps only the brightest {@code maxStars} in a bounded heap instead of sorting
+     * every visible star, and projects large candidate sets on several cores. Results are not
+     * cached: each frame is a new instant.
+     *
+     * @param request    observer, time and limits; the time is usually the only change between frames
+     * @param candidates stars from {@link #prepareCandidates}
+     * @param frame      the previous frame to reuse, or null for a new one
+     * @return the filled frame
+     */
+    public SkyFrame computeSkyFrame(NightSkyRequest request, SkyCandidateSet candidates, SkyFrame frame) {
+        if (frame == null) {
+            frame = new SkyFrame();
+        }
+
+        PlanetAttitude attitude = ephemerisService.getPlanetAttitude(
+                request.getPlanetId(),
+                request.getHostStarId(),
+                request.getInstantUtc());
+        double[] observerPos = attitude.getPositionLy();
+        EnuFrame enuFrame = ephemerisService.getEnuFrame(
+                attitude,
+                request.getLatRad(),
+                request.getLonRad());
 
-        log.debug("Queried {} candidate stars", candidateStars.size());
+        int n = candidates.size();
+        int chunks = n < PARALLEL_THRESHOLD
+                ? 1
+                : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), n / MIN_CHUNK_SIZE));
+        int maxStars = Math.max(0, request.getMaxStars());
+        // one heap per chunk, plus one to merge them into when there are several
+        frame.begin(request.getInstantUtc(), n, maxStars, chunks == 1 ? 1 : chunks + 1);
+
+        SkyFrame target = frame;
+        if (chunks == 1) {
+            projectRange(request, candidates, observerPos, enuFrame, 0, n, target, target.heap(0), maxStars);
+        } else {
+            IntStream.range(0, chunks).parallel().forEach(chunk -> projectRange(
+                    request, candidates, observerPos, enuFrame,
+                    (int) ((long) n * chunk / chunks), (int) ((long) n * (chunk + 1) / chunks),
+                    target, target.heap(chunk), maxStars));
+        }
 
-        // 4. Transform each star to sky coordinates
-        List<SkyStarPoint> visibleStars = new ArrayList<>();
+        BrightestStarHeap selected = frame.heap(0);
+        if (chunks > 1) {
+            selected = frame.heap(chunks);
+            selected.reset(maxStars);
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                selected.offerAll(frame.heap(chunk));
+            }
+        }
+        selected.sort();
+        for (int i = 0; i < selected.size(); i++) {
+            int candidate = selected.indexAt(i);
+            frame.addStar(candidate, selected.magnitudeAt(i), candidates.getColor(candidate));
+        }
+        frame.setMatchedCount(selected.offered());
 
-        for (StarRenderRow star : candidateStars) {
-            // Transform to horizontal coordinates
-            double[] horizontal = skyTransformService.worldToHorizontal(
-                    star, observerPos, enuFrame);
+        StarRenderRow hostStar = candidates.getHostStar();
+        if (hostStar != null) {
+            double[] horizontal = skyTransformService.worldToHorizontal(hostStar, observerPos, enuFrame);
+            float apparentMag = photometryService.calculateApparentMagnitude(hostStar.getAbsMag(), horizontal[2]);
+            frame.setHostStar(horizontal[0], horizontal[1], apparentMag, horizontal[2]);
+        }
+        return frame;
+    }
 
+    /**
+     * Project candidates {@code [from, to)} to the horizon and offer the visible ones to a heap.
+     */
+    private void projectRange(NightSkyRequest request, SkyCandidateSet candidates,
+                              double[] observerPos, EnuFrame enuFrame,
+                              int from, int to, SkyFrame frame, BrightestStarHeap heap, int maxStars) {
+        float maxMagnitude = request.getMaxMagnitude();
+        AtmosphereModel atmosphere = request.getAtmosphereModel();
+        double[] horizontal = new double[3];
+
+        heap.reset(maxStars);
+        for (int i = from; i < to; i++) {
+            skyTransformService.worldToHorizontal(candidates.getX(i), candidates.getY(i), candidates.getZ(i),
+                    observerPos, enuFrame, horizontal);
             double azimuth = horizontal[0];
             double altitude = horizontal[1];
             double distance = horizontal[2];
-
-            // Skip stars below horizon
-            if (!skyTransformService.isAboveHorizon(altitude)) {
+            // a star at the observer position is overhead
+            if (distance > 0 && !skyTransformService.isAboveHorizon(altitude)) {
                 continue;
             }
 
-            // Calculate apparent magnitude
-            float apparentMag = photometryService.calculateApparentMagnitude(
-                    star.getAbsMag(), distance);
-
-            // Apply atmospheric extinction
-            apparentMag = photometryService.applyAtmosphericExtinction(
-                    apparentMag, altitude, request.getAtmosphereModel());
-
-            // Skip stars dimmer than limit
-            if (apparentMag > request.getMaxMagnitude()) {
+            float apparentMag = photometryService.calculateApparentMagnitude(candidates.getAbsMag(i), distance);
+            apparentMag = photometryService.applyAtmosphericExtinction(apparentMag, altitude, atmosphere);
+            if (apparentMag > maxMagnitude) {
                 continue;
             }
 
-            // Get star color
-            int color = photometryService.starToColor(star);
-
-            // Create sky point
-            SkyStarPoint point = SkyStarPoint.builder()
-                    .azRad(azimuth)
-                    .altRad(altitude)
-                    .apparentMag(apparentMag)
-                    .color(color)
-                    .starId(star.getStarId())
-                    .starName(star.getStarName())
-                    .distanceLy(distance)
-                    .build();
-
-            visibleStars.add(point);
-        }
-
-        // 5. Sort by brightness and limit
-        visibleStars.sort(Comparator.comparingDouble(SkyStarPoint::getApparentMag));
-        if (visibleStars.size() > request.getMaxStars()) {
-            visibleStars = visibleStars.subList(0, request.getMaxStars());
+            frame.setCandidate(i, (float) azimuth, (float) altitude, (float) distance);
+            heap.offer(apparentMag, i);
         }
-
-        // 6. Compute host star position (the "sun")
-        SkyStarPoint hostStar = computeHostStar(request, observerPos, enuFrame);
-
-        // 7. Build result
-        Duration computeTime = Duration.between(startTime, Instant.now());
-
-        NightSkyResult result = NightSkyResult.builder()
-                .stars(visibleStars)
-                .hostStar(hostStar)
-                .totalStarsQueried(candidateStars.size())
-                .visibleCount(visibleStars.size())
-                .computeTime(computeTime)
-                .request(request)
-                .computedAt(Instant.now())
-                .fromCache(false)
-                .build();
-
-        // 8. Cache the result
-        cacheService.put(request, result);
-
-        log.info("Computed night sky: {} visible stars in {}ms",
-                visibleStars.size(), computeTime.toMillis());
-
-        return result;
     }
 
     /**
-     * Compute the host star's position in the sky (the "sun").
+     * The host star's position in the sky (the "sun"), from a computed frame.
      */
-    private SkyStarPoint computeHostStar(NightSkyRequest request,
-                                          double[] observerPos,
-                                          EnuFrame enuFrame) {
-        StarRenderRow hostStar = starQueryService.getHostStar(request.getHostStarId());
-        if (hostStar == null) {
+    private SkyStarPoint toHostStarPoint(SkyCandidateSet candidates, SkyFrame frame) {
+        StarRenderRow hostStar = candidates.getHostStar();
+        if (hostStar == null || !frame.isHostStarPresent()) {
             return null;
         }
 
-        double[] horizontal = skyTransformService.worldToHorizontal(
-                hostStar, observerPos, enuFrame);
-
-        double distance = horizontal[2];
-        float apparentMag = photometryService.calculateApparentMagnitude(
-                hostStar.getAbsMag(), distance);
-
         return SkyStarPoint.builder()
-                .azRad(horizontal[0])
-                .altRad(horizontal[1])
-                .apparentMag(apparentMag)
-                .color(photometryService.starToColor(hostStar))
+                .azRad(frame.getHostAzRad())
+                .altRad(frame.getHostAltRad())
+                .apparentMag(frame.getHostApparentMag())
+                .color(candidates.getHostStarColor())
                 .starId(hostStar.getStarId())
                 .starName(hostStar.getStarName())
-                .distanceLy(distance)
+                .distanceLy(frame.getHostDistanceLy())
                 .build();
     }
 
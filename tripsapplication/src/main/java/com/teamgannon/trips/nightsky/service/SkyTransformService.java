@@ -4,6 +4,7 @@ import com.teamgannon.trips.nightsky.model.EnuFrame;
 import com.teamgannon.trips.nightsky.model.StarRenderRow;
 import lombok.extern.slf4j.Slf4j;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.MathArrays;
 import org.springframework.stereotype.Service;
 
 /**
@@ -23,24 +24,48 @@ public class SkyTransformService {
      * @return double[3]: {azimuth (rad), altitude (rad), distance (ly)}
      */
     public double[] worldToHorizontal(StarRenderRow star, double[] observerLy, EnuFrame enu) {
+        double[] horizontal = new double[3];
+        worldToHorizontal(star.getXLy(), star.getYLy(), star.getZLy(), observerLy, enu, horizontal);
+        return horizontal;
+    }
+
+    /**
+     * Transform a world position to azimuth/altitude as seen from observer, writing the
+     * result into a caller-supplied array. Allocation-free form of
+     * {@link #worldToHorizontal(StarRenderRow, double[], EnuFrame)} for bulk projection.
+     *
+     * @param xLy        Star X in world coordinates (light years)
+     * @param yLy        Star Y in world coordinates (light years)
+     * @param zLy        Star Z in world coordinates (light years)
+     * @param observerLy Observer position in world coordinates (light years)
+     * @param enu        Observer's local ENU frame
+     * @param out        receives {azimuth (rad), altitude (rad), distance (ly)}
+     */
+    public void worldToHorizontal(double xLy, double yLy, double zLy,
+                                  double[] observerLy, EnuFrame enu, double[] out) {
         // Vector from observer to star in world coordinates
-        double dx = star.getXLy() - observerLy[0];
-        double dy = star.getYLy() - observerLy[1];
-        double dz = star.getZLy() - observerLy[2];
+        double dx = xLy - observerLy[0];
+        double dy = yLy - observerLy[1];
+        double dz = zLy - observerLy[2];
 
         double distance = Math.sqrt(dx * dx + dy * dy + dz * dz);
         if (distance < 1e-10) {
             // Star is at observer position
-            return new double[]{0, Math.PI / 2, 0};
+            out[0] = 0;
+            out[1] = Math.PI / 2;
+            out[2] = 0;
+            return;
         }
 
         // Direction unit vector
-        Vector3D direction = new Vector3D(dx / distance, dy / distance, dz / distance);
+        double ux = dx / distance;
+        double uy = dy / distance;
+        double uz = dz / distance;
 
         // Project onto ENU frame
-        double eastComponent = direction.dotProduct(enu.getEast());
-        double northComponent = direction.dotProduct(enu.getNorth());
-        double upComponent = direction.dotProduct(enu.getUp());
+        double eastComponent = dot(ux, uy, uz, enu.getEast());
+        double northComponent = dot(ux, uy, uz, enu.getNorth());
+        double upComponent = dot(ux, uy, uz, enu.getUp());
 
         // Azimuth: angle from North, clockwise (0=N, π/2=E)
         double azimuth = Math.atan2(eastComponent, northComponent);
@@ -50,7 +75,16 @@ public class SkyTransformService {
         double horizontalDist = Math.sqrt(eastComponent * eastComponent + northComponent * northComponent);
         double altitude = Math.atan2(upComponent, horizontalDist);
 
-        return new double[]{azimuth, altitude, distance};
+        out[0] = azimuth;
+        out[1] = altitude;
+        out[2] = distance;
+    }
+
+    /**
+     * Same result as {@link Vector3D#dotProduct}, without creating the vector.
+     */
+    private static double dot(double x, double y, double z, Vector3D axis) {
+        return MathArrays.linearCombination(x, axis.getX(), y, axis.getY(), z, axis.getZ());
     }
 
     /**
@@ -4,17 +4,23 @@ import com.teamgannon.trips.jpa.model.StarObject;
 import com.teamgannon.trips.jpa.repository.StarObjectRepository;
 import com.teamgannon.trips.nightsky.model.LevelOfDetail;
 import com.teamgannon.trips.nightsky.model.StarRenderRow;
+import com.teamgannon.trips.service.snapshot.StarSnapshot;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Fast candidate-star retrieval with LOD and spatial binning.
+ * <p>
+ * Reads the dataset's columnar star snapshot when one is available, and streams
+ * entities from a bounding-box query otherwise.
  */
 @Slf4j
 @Service
@@ -22,6 +28,7 @@ import java.util.stream.Stream;
 public class StarQueryService {
 
     private final StarObjectRepository starObjectRepository;
+    private final StarSnapshotService starSnapshotService;
 
     /**
      * Query stars within a spatial bounding box centered on observer.
@@ -41,6 +48,11 @@ public class StarQueryService {
         double minZ = centerZ - radiusLy;
         double maxZ = centerZ + radiusLy;
 
+        StarSnapshot snapshot = starSnapshotService.getSnapshot(datasetName);
+        if (snapshot != null) {
+            return queryStarsInRadius(snapshot, centerX, centerY, centerZ, radiusLy, lod);
+        }
+
         log.debug("Querying stars in box: ({},{},{}) to ({},{},{})",
                 minX, minY, minZ, maxX, maxY, maxZ);
 
@@ -68,6 +80,24 @@ public class StarQueryService {
         }
     }
 
+    /**
+     * Scan the snapshot columns with the same filters as the entity query.
+     */
+    private List<StarRenderRow> queryStarsInRadius(StarSnapshot snapshot,
+                                                   double centerX, double centerY, double centerZ,
+                                                   double radiusLy,
+                                                   LevelOfDetail lod) {
+        double radiusSquared = radiusLy * radiusLy;
+        List<StarRenderRow> rows = new ArrayList<>();
+        for (int i = 0; i < snapshot.size() && rows.size() < lod.getMaxStars(); i++) {
+            if (snapshot.distanceSquared(i, centerX, centerY, centerZ) <= radiusSquared
+                    && snapshot.magv(i) <= lod.getMagnitudeLimit()) {
+                rows.add(toStarRenderRow(snapshot, i));
+            }
+        }
+        return rows;
+    }
+
     /**
      * Get host star data for the "sun" rendering.
      */
@@ -102,4 +132,28 @@ public class StarQueryService {
                 .starName(star.getDisplayName())
                 .build();
     }
+
+    /**
+     * Convert a snapshot star to a StarRenderRow, as {@link #toStarRenderRow(StarObject)}.
+     */
+    private StarRenderRow toStarRenderRow(StarSnapshot snapshot, int i) {
+        float absMag = snapshot.magv(i);
+        if (absMag == 0.0f) {
+            absMag = 10.0f; // Default for unknown magnitude
+        }
+
+        float teff = snapshot.temperature(i) > 0 ? snapshot.temperature(i) : 5500.0f;
+
+        String id = snapshot.id(i);
+        return StarRenderRow.builder()
+                .starId(id != null ? id.hashCode() : 0)
+                .xLy(snapshot.x(i))
+                .yLy(snapshot.y(i))
+                .zLy(snapshot.z(i))
+                .absMag(absMag)
+                .bpRpOrTeff(teff)
+                .spectralClass(snapshot.spectralClass(i))
+                .starName(snapshot.displayName(i))
+                .build();
+    }
 }
@@ -0,0 +1,72 @@
+package com.teamgannon.trips.particlefields;
+
+import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Advances particle fields off the JavaFX application thread.
+ * <p>
+ * Each frame, {@link #step} hands the Keplerian propagation of every field to a worker pool,
+ * which writes into the back half of the field's double-buffered element state. The JavaFX
+ * thread only publishes the propagations that finished since the last frame and pushes their
+ * vertices, so many animated rings, belts and nebulae no longer hold the frame up. Fields are
+ * shown one frame behind the simulation.
+ * <p>
+ * Usage, from an animation loop:
+ * <pre>{@code
+ * ParticleFieldScheduler.shared().step(renderers, timeScale);
+ * }</pre>
+ * A renderer driven by the scheduler should not also be driven by
+ * {@link RingFieldRenderer#update(double)}.
+ */
+public class ParticleFieldScheduler {
+
+    private static final ParticleFieldScheduler SHARED = new ParticleFieldScheduler(createPool());
+
+    private final Executor executor;
+
+    /**
+     * Creates a scheduler propagating on the given executor.
+     *
+     * @param executor the executor the propagations run on
+     */
+    ParticleFieldScheduler(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the scheduler shared by all views, with a small pool of daemon workers.
+     */
+    public static ParticleFieldScheduler shared() {
+        return SHARED;
+    }
+
+    /**
+     * Advances the given fields by one frame. Call on the JavaFX thread, once per frame.
+     *
+     * @param renderers the fields to advance
+     * @param timeScale multiplier for angular movement (1.0 = normal speed at 60fps)
+     * @return the number of fields whose positions changed on screen
+     */
+    public int step(Collection<RingFieldRenderer> renderers, double timeScale) {
+        int published = 0;
+        for (RingFieldRenderer renderer : renderers) {
+            if (renderer.stepPropagation(timeScale, executor)) {
+                published++;
+            }
+        }
+        return published;
+    }
+
+    private static Executor createPool() {
+        int workers = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "particle-propagation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -5,6 +5,9 @@ import javafx.scene.paint.Color;
 /**
  * Represents a single particle/element in a ring system.
  * Contains both orbital parameters (immutable) and current state (mutable angle).
+ * <p>
+ * Once a renderer attaches the element to a {@link RingElementBuffer}, the current state
+ * lives in the buffer and this element is a view of its slot.
  */
 public class RingElement {
 
@@ -25,6 +28,10 @@ public class RingElement {
     // Cached position (updated each frame)
     private double x, y, z;
 
+    // Buffer holding the current state once attached, and this element's slot in it
+    private RingElementBuffer buffer;
+    private int index;
+
     public RingElement(
             double semiMajorAxis,
             double eccentricity,
@@ -58,6 +65,10 @@ public class RingElement {
      * @param timeScale multiplier for angular movement (1.0 = normal speed)
      */
     public void advance(double timeScale) {
+        if (buffer != null) {
+            buffer.advance(index, timeScale);
+            return;
+        }
         currentAngle += angularSpeed * timeScale;
         updatePosition();
     }
@@ -111,15 +122,28 @@ public class RingElement {
     public Color getColor() { return color; }
 
     // Getters for mutable state
-    public double getCurrentAngle() { return currentAngle; }
-    public double getX() { return x; }
-    public double getY() { return y; }
-    public double getZ() { return z; }
+    public double getCurrentAngle() { return buffer != null ? buffer.getAngle(index) : currentAngle; }
+    public double getX() { return buffer != null ? buffer.getX(index) : x; }
+    public double getY() { return buffer != null ? buffer.getY(index) : y; }
+    public double getZ() { return buffer != null ? buffer.getZ(index) : z; }
+
+    /**
+     * Moves the current state into the given buffer slot, which the buffer has already
+     * filled from this element.
+     */
+    void attach(RingElementBuffer buffer, int index) {
+        this.buffer = buffer;
+        this.index = index;
+    }
 
     /**
      * Sets the position directly (used by physics engines like ODE).
      */
     public void setPosition(double x, double y, double z) {
+        if (buffer != null) {
+            buffer.setPosition(index, x, y, z);
+            return;
+        }
         this.x = x;
         this.y = y;
         this.z = z;
@@ -0,0 +1,271 @@
+package com.teamgannon.trips.particlefields;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Orbital state of a ring's elements in struct-of-arrays form.
+ * <p>
+ * Each element's parameters and position sit at its index in parallel arrays, with the
+ * rotation sines and cosines computed once, so advancing a large field is a flat loop
+ * that can be split across threads. The {@link RingElement}s attached to a buffer read
+ * their angle and position from it.
+ * <p>
+ * The current state is double-buffered so it can be propagated off the JavaFX thread:
+ * {@link #propagate} computes the next angles and positions into the back arrays, from the
+ * front arrays, while the front stays readable, and {@link #swap} publishes them. Nothing
+ * else may change the state while a propagation runs.
+ */
+final class RingElementBuffer {
+
+    /** Element count from which an advance is split across threads */
+    private static final int PARALLEL_THRESHOLD = 20_000;
+
+    private final int size;
+
+    // Orbital parameters
+    private final double[] semiMajorAxis;
+    private final double[] eccentricity;
+    private final double[] angularSpeed;
+    private final double[] heightOffset;
+    private final double[] cosArgPeri;
+    private final double[] sinArgPeri;
+    private final double[] cosInc;
+    private final double[] sinInc;
+    private final double[] cosLAN;
+    private final double[] sinLAN;
+
+    // Current state, read by the attached elements
+    private double[] angle;
+    private double[] x;
+    private double[] y;
+    private double[] z;
+
+    // Next state, written by a propagation
+    private double[] nextAngle;
+    private double[] nextX;
+    private double[] nextY;
+    private double[] nextZ;
+
+    /**
+     * Copies the elements' parameters and current state, and attaches the elements to the buffer.
+     *
+     * @param elements the elements, kept in this order
+     */
+    RingElementBuffer(List<RingElement> elements) {
+        size = elements.size();
+        semiMajorAxis = new double[size];
+        eccentricity = new double[size];
+        angularSpeed = new double[size];
+        heightOffset = new double[size];
+        cosArgPeri = new double[size];
+        sinArgPeri = new double[size];
+        cosInc = new double[size];
+        sinInc = new double[size];
+        cosLAN = new double[size];
+        sinLAN = new double[size];
+        angle = new double[size];
+        x = new double[size];
+        y = new double[size];
+        z = new double[size];
+        nextAngle = new double[size];
+        nextX = new double[size];
+        nextY = new double[size];
+        nextZ = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            RingElement element = elements.get(i);
+            semiMajorAxis[i] = element.getSemiMajorAxis();
+            eccentricity[i] = element.getEccentricity();
+            angularSpeed[i] = element.getAngularSpeed();
+            heightOffset[i] = element.getHeightOffset();
+            cosArgPeri[i] = Math.cos(element.getArgumentOfPeriapsis());
+            sinArgPeri[i] = Math.sin(element.getArgumentOfPeriapsis());
+            cosInc[i] = Math.cos(element.getInclination());
+            sinInc[i] = Math.sin(element.getInclination());
+            cosLAN[i] = Math.cos(element.getLongitudeOfAscendingNode());
+            sinLAN[i] = Math.sin(element.getLongitudeOfAscendingNode());
+            angle[i] = element.getCurrentAngle();
+            x[i] = element.getX();
+            y[i] = element.getY();
+            z[i] = element.getZ();
+            element.attach(this, i);
+        }
+    }
+
+    /**
+     * Returns the number of elements in the buffer.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Advances every element's orbital position by the given time scale.
+     *
+     * @param timeScale multiplier for angular movement (1.0 = normal speed)
+     */
+    void advance(double timeScale) {
+        propagate(timeScale);
+        swap();
+    }
+
+    /**
+     * Advances a single element's orbital position by the given time scale.
+     */
+    void advance(int i, double timeScale) {
+        angle[i] += angularSpeed[i] * timeScale;
+        updatePosition(i, angle[i], x, y, z);
+    }
+
+    /**
+     * Computes every element's next orbital position, by the given time scale, into the
+     * back arrays. The current state is only read, so it may be read concurrently.
+     *
+     * @param timeScale multiplier for angular movement (1.0 = normal speed)
+     */
+    void propagate(double timeScale) {
+        IntStream indices = IntStream.range(0, size);
+        if (size >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> {
+            nextAngle[i] = angle[i] + angularSpeed[i] * timeScale;
+            updatePosition(i, nextAngle[i], nextX, nextY, nextZ);
+        });
+    }
+
+    /**
+     * Makes the propagated state current.
+     */
+    void swap() {
+        double[] swapped = angle;
+        angle = nextAngle;
+        nextAngle = swapped;
+        swapped = x;
+        x = nextX;
+        nextX = swapped;
+        swapped = y;
+        y = nextY;
+        nextY = swapped;
+        swapped = z;
+        z = nextZ;
+        nextZ = swapped;
+    }
+
+    /**
+     * Computes the x, y, z position of an element at the given orbital angle,
+     * as {@link RingElement} does for a detached element.
+     */
+    private void updatePosition(int i, double theta, double[] xOut, double[] yOut, double[] zOut) {
+        double a = semiMajorAxis[i];
+        double e = eccentricity[i];
+
+        // Calculate radius at current true anomaly: r = a(1-e²)/(1+e*cos(ν))
+        double r;
+        if (e < 1e-10) {
+            r = a;
+        } else {
+            r = a * (1 - e * e) / (1 + e * Math.cos(theta));
+        }
+
+        // Position in orbital plane
+        double xOrbital = r * Math.cos(theta);
+        double yOrbital = r * Math.sin(theta);
+
+        // Apply argument of periapsis rotation (in orbital plane)
+        double xRotated = xOrbital * cosArgPeri[i] - yOrbital * sinArgPeri[i];
+        double yRotated = xOrbital * sinArgPeri[i] + yOrbital * cosArgPeri[i];
+
+        // Apply inclination (tilt the orbital plane)
+        double zTilted = yRotated * sinInc[i];
+        double yTilted = yRotated * cosInc[i];
+
+        // Apply longitude of ascending node (rotate around z-axis)
+        xOut[i] = xRotated * cosLAN[i] - yTilted * sinLAN[i];
+        zOut[i] = xRotated * sinLAN[i] + yTilted * cosLAN[i];
+        yOut[i] = zTilted + heightOffset[i];
+    }
+
+    double getAngle(int i) { return angle[i]; }
+    double getX(int i) { return x[i]; }
+    double getY(int i) { return y[i]; }
+    double getZ(int i) { return z[i]; }
+
+    /**
+     * Sets an element's position directly.
+     */
+    void setPosition(int i, double x, double y, double z) {
+        this.x[i] = x;
+        this.y[i] = y;
+        this.z[i] = z;
+    }
+
+    /**
+     * Writes every element's position, moved by the given offset and taken relative to
+     * the given origin, as x, y, z per element. The arithmetic is done in double precision,
+     * as when a mesh is built, before narrowing to float.
+     *
+     * @param target array of at least {@code 3 * size()} floats
+     */
+    void writePositions(float[] target,
+                        double offsetX, double offsetY, double offsetZ,
+                        double originX, double originY, double originZ) {
+        writePositions(x, y, z, target, offsetX, offsetY, offsetZ, originX, originY, originZ);
+    }
+
+    /**
+     * Writes the propagated positions as {@link #writePositions} writes the current ones.
+     */
+    void writeNextPositions(float[] target,
+                            double offsetX, double offsetY, double offsetZ,
+                            double originX, double originY, double originZ) {
+        writePositions(nextX, nextY, nextZ, target, offsetX, offsetY, offsetZ, originX, originY, originZ);
+    }
+
+    /**
+     * Writes the positions of the given elements, in the order given, as
+     * {@link #writePositions(float[], double, double, double, double, double, double)} writes
+     * all of them. Used to stage the elements shown by one mesh of a chunked field.
+     *
+     * @param indices the elements to write
+     * @param target  array of at least {@code 3 * indices.length} floats
+     */
+    void writePositions(int[] indices, float[] target,
+                        double offsetX, double offsetY, double offsetZ,
+                        double originX, double originY, double originZ) {
+        writePositions(x, y, z, indices, target, offsetX, offsetY, offsetZ, originX, originY, originZ);
+    }
+
+    /**
+     * Writes the propagated positions of the given elements as
+     * {@link #writePositions(int[], float[], double, double, double, double, double, double)}
+     * writes the current ones.
+     */
+    void writeNextPositions(int[] indices, float[] target,
+                            double offsetX, double offsetY, double offsetZ,
+                            double originX, double originY, double originZ) {
+        writePositions(nextX, nextY, nextZ, indices, target, offsetX, offsetY, offsetZ, originX, originY, originZ);
+    }
+
+    private void writePositions(double[] xs, double[] ys, double[] zs, float[] target,
+                                double offsetX, double offsetY, double offsetZ,
+                                double originX, double originY, double originZ) {
+        for (int i = 0; i < size; i++) {
+            target[i * 3] = (float) (xs[i] + offsetX - originX);
+            target[i * 3 + 1] = (float) (ys[i] + offsetY - originY);
+            target[i * 3 + 2] = (float) (zs[i] + offsetZ - originZ);
+        }
+    }
+
+    private void writePositions(double[] xs, double[] ys, double[] zs, int[] indices, float[] target,
+                                double offsetX, double offsetY, double offsetZ,
+                                double originX, double originY, double originZ) {
+        for (int n = 0; n < indices.length; n++) {
+            int i = indices[n];
+            target[n * 3] = (float) (xs[i] + offsetX - originX);
+            target[n * 3 + 1] = (float) (ys[i] + offsetY - originY);
+            target[n * 3 + 2] = (float) (zs[i] + offsetZ - originZ);
+        }
+    }
+}
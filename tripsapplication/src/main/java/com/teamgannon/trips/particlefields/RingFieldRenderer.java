@@ -20,6 +20,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 /**
  * Renders ring/particle field elements to a JavaFX Group.
@@ -43,6 +47,9 @@ import java.util.Random;
  * // In animation loop:
  * renderer.update(timeScale);
  * renderer.updateMeshPositions();  // Efficient update, can call every frame
+ *
+ * // Or, to propagate off the JavaFX thread:
+ * ParticleFieldScheduler.shared().step(List.of(renderer), timeScale);
  * }</pre>
  */
 @Slf4j
@@ -81,8 +88,28 @@ public class RingFieldRenderer {
     /** Meshes for particles - either single combined mesh or chunked meshes */
     private ScatterMesh mesh;
 
-    /** List of chunked meshes when using chunked rendering mode */
-    private List<ScatterMesh> chunkedMeshes = new ArrayList<>();
+    /** Chunks of the field when using chunked rendering mode, replaced whenever the field is rebinned */
+    private List<MeshChunk> meshChunks = List.of();
+
+    /**
+     * A spatial bin's mesh, the indices of the elements it shows, and the bin centroid
+     * its vertices are taken relative to. The bin keeps its elements until the field is
+     * rebuilt, so its mesh can be updated in place as they move. Positions are staged in
+     * {@code staging} on the JavaFX thread and in {@code propagated} by a propagation.
+     */
+    private record MeshChunk(ScatterMesh mesh, int[] indices,
+                             double originX, double originY, double originZ,
+                             float[] staging, float[] propagated) {
+    }
+
+    /**
+     * Published propagations between rebuilds of a spatially-binned field. Its bins are
+     * updated in place in between, and the rebuild re-bins the elements that drifted away.
+     */
+    static final int REBIN_INTERVAL = 300;
+
+    /** Published propagations between position updates of individual spheres, one node per element */
+    static final int SPHERE_REFRESH_INTERVAL = 5;
 
     /** Maximum particles per chunk - increased from 500 since JavaFX 25 fixed frustum culling */
     private static final int MAX_PARTICLES_PER_CHUNK = 2000;
@@ -94,7 +121,7 @@ public class RingFieldRenderer {
     /** Whether to use chunked rendering (derived from renderingMode) */
     private boolean useChunkedRendering = true;
 
-    /** Whether spatial binning was used (requires full rebuild for animation) */
+    /** Whether spatial binning was used (positions are then pushed per chunk) */
     private boolean usedSpatialBinning = false;
 
     /** Whether to use individual Sphere objects (derived from renderingMode) */
@@ -119,6 +146,40 @@ public class RingFieldRenderer {
     /** Cached Point3D list for efficient position updates */
     private List<Point3D> cachedPoints;
 
+    /** Element positions in struct-of-arrays form, advanced in bulk each frame */
+    private RingElementBuffer elementBuffer;
+
+    /** Staging array of mesh particle positions (x, y, z per element), reused each frame */
+    private float[] positionStaging;
+
+    /** Propagation running on a {@link ParticleFieldScheduler} worker, if any */
+    private Future<?> pendingPropagation;
+
+    /** Time scale of the frames that passed while a propagation was running */
+    private double deferredTimeScale;
+
+    /** Mesh particle positions written by the pending propagation */
+    private float[] propagatedPositions;
+
+    /** Offset and origin the propagated positions were written with */
+    private Rebase propagationRebase;
+
+    /** Incremented whenever the meshes are rebuilt */
+    private int meshGeneration;
+
+    /** Mesh generation the propagated positions were written for */
+    private int propagationGeneration;
+
+    /** Propagations published since the meshes were built or the spheres last moved */
+    private int publishedSinceRefresh;
+
+    /**
+     * World offset added to element positions and origin subtracted from them in the mesh.
+     */
+    private record Rebase(double offsetX, double offsetY, double offsetZ,
+                          double originX, double originY, double originZ) {
+    }
+
     /** Whether the renderer has been initialized */
     @Getter
     private boolean initialized = false;
@@ -194,9 +255,12 @@ public class RingFieldRenderer {
         group.getChildren().clear();
         mesh = null;
         cachedPoints = null;
+        abandonPropagation();
 
         // Generate elements using the appropriate generator
         elements = RingFieldFactory.generateElements(config, random);
+        elementBuffer = new RingElementBuffer(elements);
+        positionStaging = null;
 
         // Compute base size (midpoint of size range)
         baseSize = (config.minSize() + config.maxSize()) / 2.0;
@@ -364,6 +428,8 @@ public class RingFieldRenderer {
      */
     private void buildMesh() {
         if (elements.isEmpty()) return;
+        meshGeneration++;
+        publishedSinceRefresh = 0;
 
         // Use individual spheres mode - matches how stars are rendered (never clips)
         if (useIndividualSpheres) {
@@ -543,7 +609,7 @@ public class RingFieldRenderer {
      * This avoids frustum culling issues caused by large transformed bounds.
      */
     private void buildChunkedMeshes() {
-        chunkedMeshes.clear();
+        List<MeshChunk> chunks = new ArrayList<>();
 
         // Find bounding box of all particles (in world coords)
         double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
@@ -564,10 +630,11 @@ public class RingFieldRenderer {
         double cellSizeY = (maxY - minY) / divisions + 0.001;
         double cellSizeZ = (maxZ - minZ) / divisions + 0.001;
 
-        // Bin elements by their position in the grid
-        Map<String, List<RingElement>> bins = new HashMap<>();
+        // Bin element indices by their position in the grid
+        Map<String, List<Integer>> bins = new HashMap<>();
 
-        for (RingElement element : elements) {
+        for (int i = 0; i < elements.size(); i++) {
+            RingElement element = elements.get(i);
             double wx = element.getX() + worldOffsetX;
             double wy = element.getY() + worldOffsetY;
             double wz = element.getZ() + worldOffsetZ;
@@ -576,16 +643,20 @@ public class RingFieldRenderer {
             int iy = Math.min(divisions - 1, (int) ((wy - minY) / cellSizeY));
             int iz = Math.min(divisions - 1, (int) ((wz - minZ) / cellSizeZ));
             String key = ix + "_" + iy + "_" + iz;
-            bins.computeIfAbsent(key, k -> new ArrayList<>()).add(element);
+            bins.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
         }
 
         log.info("Spatial binning with per-bin rebasing: {} particles into {} bins ({}x{}x{} grid)",
                 elements.size(), bins.size(), divisions, divisions, divisions);
 
         // Create a mesh for each non-empty bin with LOCAL centroid rebasing
-        for (Map.Entry<String, List<RingElement>> entry : bins.entrySet()) {
-            List<RingElement> binElements = entry.getValue();
-            if (binElements.isEmpty()) continue;
+        for (Map.Entry<String, List<Integer>> entry : bins.entrySet()) {
+            int[] indices = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            if (indices.length == 0) continue;
+            List<RingElement> binElements = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                binElements.add(elements.get(index));
+            }
 
             // Compute LOCAL centroid for this bin (in double precision)
             double localCentroidX = 0, localCentroidY = 0, localCentroidZ = 0;
@@ -634,17 +705,19 @@ public class RingFieldRenderer {
             binGroup.setTranslateY(localCentroidY);
             binGroup.setTranslateZ(localCentroidZ);
 
-            chunkedMeshes.add(chunkMesh);
+            chunks.add(new MeshChunk(chunkMesh, indices, localCentroidX, localCentroidY, localCentroidZ,
+                    new float[indices.length * 3], new float[indices.length * 3]));
             group.getChildren().add(binGroup);
         }
+        meshChunks = List.copyOf(chunks);
 
-        log.info("Built {} spatially-binned meshes with per-bin local rebasing", chunkedMeshes.size());
+        log.info("Built {} spatially-binned meshes with per-bin local rebasing", meshChunks.size());
 
         // Mark that spatial binning was used (affects animation updates)
         usedSpatialBinning = true;
 
         // Set mesh to first chunk for compatibility with existing code
-        mesh = chunkedMeshes.isEmpty() ? null : chunkedMeshes.get(0);
+        mesh = meshChunks.isEmpty() ? null : meshChunks.get(0).mesh();
     }
 
     /**
@@ -793,18 +866,19 @@ public class RingFieldRenderer {
     public void update(double timeScale) {
         if (!initialized) return;
 
-        for (RingElement element : elements) {
-            element.advance(timeScale);
+        if (pendingPropagation != null) {
+            publishPropagation();
         }
+        elementBuffer.advance(timeScale);
     }
 
     /**
      * Updates the mesh positions efficiently without full rebuild.
      * This can be called every frame as it only updates the vertex buffer.
-     * Note: When spatial binning is used, this triggers a full rebuild since
-     * particles may move between bins.
+     * Note: When spatial binning is used, each bin's mesh is updated with the elements
+     * it was built with, wherever they have moved since.
      *
-     * @return true if efficient update was used, false if full rebuild was needed
+     * @return true if efficient update was used, false if the meshes could not be updated in place
      */
     public boolean updateMeshPositions() {
         if (!initialized || elements.isEmpty()) {
@@ -823,34 +897,58 @@ public class RingFieldRenderer {
             return true;
         }
 
-        // Spatial binning requires full rebuild since particles can move between cells
+        // Spatial binning - stage each bin's elements around the bin's own centroid
         if (usedSpatialBinning) {
-            group.getChildren().clear();
-            chunkedMeshes.clear();
-            mesh = null;
-            buildMesh();
-            return false;
+            Rebase rebase = currentRebase();
+            boolean updated = !meshChunks.isEmpty();
+            for (MeshChunk chunk : meshChunks) {
+                elementBuffer.writePositions(chunk.indices(), chunk.staging(),
+                        rebase.offsetX(), rebase.offsetY(), rebase.offsetZ(),
+                        chunk.originX(), chunk.originY(), chunk.originZ());
+                updated &= commitPositions(chunk.mesh(), chunk.staging());
+            }
+            return updated;
         }
 
-        if (cachedPoints == null) {
+        // Single mesh mode
+        if (cachedPoints == null || mesh == null) {
             return false;
         }
 
-        // Update cached Point3D positions from elements
-        for (int i = 0; i < elements.size(); i++) {
-            RingElement element = elements.get(i);
-            Point3D point = cachedPoints.get(i);
-            point.x = (float) element.getX();
-            point.y = (float) element.getY();
-            point.z = (float) element.getZ();
+        // Stage the positions as the mesh was built: world offset added, centroid removed
+        if (positionStaging == null || positionStaging.length != elementBuffer.size() * 3) {
+            positionStaging = new float[elementBuffer.size() * 3];
         }
+        Rebase rebase = currentRebase();
+        elementBuffer.writePositions(positionStaging, rebase.offsetX(), rebase.offsetY(), rebase.offsetZ(),
+                rebase.originX(), rebase.originY(), rebase.originZ());
 
-        // Single mesh mode
-        if (mesh == null) {
-            return false;
+        // Use efficient bulk update (doesn't rebuild mesh, just commits the vertices at once)
+        return commitPositions(mesh, positionStaging);
+    }
+
+    /**
+     * Commits staged positions to a mesh in bulk.
+     * <p>
+     * The mesh's scatter data keeps the positions it was built with, so a
+     * {@code setScatterData} call or a property change that rebuilds the mesh would put
+     * the particles back there. This renderer never rebuilds a mesh in place: it builds
+     * new meshes from the current element positions instead.
+     *
+     * @return true if the mesh was updated in place
+     */
+    private static boolean commitPositions(ScatterMesh target, float[] positions) {
+        return target.updatePositions(positions);
+    }
+
+    /**
+     * Returns the offset and origin the single mesh is built with.
+     */
+    private Rebase currentRebase() {
+        if (useCentroidRebasing) {
+            return new Rebase(worldOffsetX, worldOffsetY, worldOffsetZ, centroidX, centroidY, centroidZ);
         }
-        // Use efficient position update (doesn't rebuild mesh, just updates vertices)
-        return mesh.updatePositions(cachedPoints);
+        return new Rebase(worldOffsetX, worldOffsetY, worldOffsetZ, 0, 0, 0);
     }
 
     /**
@@ -891,7 +989,7 @@ public class RingFieldRenderer {
             // The group translation will be set to (centroid + offset) in buildMesh()
             if (initialized) {
                 group.getChildren().clear();
-                chunkedMeshes.clear();
+                meshChunks = List.of();
                 mesh = null;
                 buildMesh();
             }
@@ -972,8 +1070,8 @@ public class RingFieldRenderer {
         if (!individualSpheres.isEmpty()) {
             return individualSpheres.size();
         }
-        if (!chunkedMeshes.isEmpty()) {
-            return chunkedMeshes.size();
+        if (!meshChunks.isEmpty()) {
+            return meshChunks.size();
         }
         return mesh != null ? 1 : 0;
     }
@@ -985,9 +1083,12 @@ public class RingFieldRenderer {
         elements.clear();
         group.getChildren().clear();
         mesh = null;
-        chunkedMeshes.clear();
+        meshChunks = List.of();
         individualSpheres.clear();
         cachedPoints = null;
+        abandonPropagation();
+        elementBuffer = null;
+        positionStaging = null;
         colorPalette = null;
         initialized = false;
         usedSpatialBinning = false;
@@ -1005,6 +1106,142 @@ public class RingFieldRenderer {
         config = null;
     }
 
+    // ==================== Scheduled Propagation ====================
+
+    /**
+     * Advances the elements on the given executor instead of the calling thread.
+     * Called on the JavaFX thread each frame by {@link ParticleFieldScheduler}: once the
+     * propagation started on an earlier frame has finished, its positions are published
+     * and pushed to the mesh, and the next propagation starts. Frames that pass while a
+     * propagation runs are added to the next one, so the field keeps its speed.
+     *
+     * @param timeScale multiplier for angular movement (1.0 = normal speed at 60fps)
+     * @param executor  the executor to propagate on
+     * @return true if propagated positions were published
+     */
+    boolean stepPropagation(double timeScale, Executor executor) {
+        if (!initialized || elements.isEmpty()) {
+            return false;
+        }
+
+        boolean published = false;
+        if (pendingPropagation != null) {
+            if (!pendingPropagation.isDone()) {
+                deferredTimeScale += timeScale;
+                return false;
+            }
+            published = publishPropagation();
+        }
+
+        double step = deferredTimeScale + timeScale;
+        deferredTimeScale = 0;
+        if (propagatedPositions == null || propagatedPositions.length != elementBuffer.size() * 3) {
+            propagatedPositions = new float[elementBuffer.size() * 3];
+        }
+
+        // Captured here, as the worker must not read renderer state
+        RingElementBuffer buffer = elementBuffer;
+        float[] target = propagatedPositions;
+        boolean stage = !useIndividualSpheres;
+        List<MeshChunk> chunks = usedSpatialBinning ? meshChunks : List.of();
+        Rebase rebase = currentRebase();
+        propagationRebase = rebase;
+        // Nothing is staged for spheres, so no generation matches
+        propagationGeneration = stage ? meshGeneration : -1;
+        pendingPropagation = CompletableFuture.runAsync(() -> {
+            buffer.propagate(step);
+            if (!stage) {
+                return;
+            }
+            if (chunks.isEmpty()) {
+                buffer.writeNextPositions(target, rebase.offsetX(), rebase.offsetY(), rebase.offsetZ(),
+                        rebase.originX(), rebase.originY(), rebase.originZ());
+            }
+            for (MeshChunk chunk : chunks) {
+                buffer.writeNextPositions(chunk.indices(), chunk.propagated(),
+                        rebase.offsetX(), rebase.offsetY(), rebase.offsetZ(),
+                        chunk.originX(), chunk.originY(), chunk.originZ());
+            }
+        }, executor);
+        return published;
+    }
+
+    /**
+     * Waits for the pending propagation, makes its positions current and pushes them to the mesh.
+     * The staged vertices are used when the meshes have not been rebuilt, nor moved to another
+     * origin, since. A spatially-binned field is rebuilt every {@link #REBIN_INTERVAL}
+     * propagations instead, and individual spheres only move every
+     * {@link #SPHERE_REFRESH_INTERVAL} propagations.
+     *
+     * @return true if the propagated positions were published
+     */
+    private boolean publishPropagation() {
+        Future<?> propagation = pendingPropagation;
+        pendingPropagation = null;
+        try {
+            propagation.get();
+        } catch (ExecutionException e) {
+            log.error("particle propagation failed for {}", config.name(), e.getCause());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        elementBuffer.swap();
+        publishedSinceRefresh++;
+        if (useIndividualSpheres) {
+            if (publishedSinceRefresh >= SPHERE_REFRESH_INTERVAL) {
+                updateMeshPositions();
+                publishedSinceRefresh = 0;
+            }
+            return true;
+        }
+        if (usedSpatialBinning && publishedSinceRefresh >= REBIN_INTERVAL) {
+            group.getChildren().clear();
+            meshChunks = List.of();
+            mesh = null;
+            buildMesh();
+            return true;
+        }
+
+        boolean pushed = propagationGeneration == meshGeneration
+                && propagationRebase.equals(currentRebase())
+                && pushPropagatedPositions();
+        if (!pushed) {
+            updateMeshPositions();
+        }
+        return true;
+    }
+
+    /**
+     * Commits the positions staged by the propagation to the meshes they were staged for.
+     */
+    private boolean pushPropagatedPositions() {
+        if (usedSpatialBinning) {
+            boolean pushed = !meshChunks.isEmpty();
+            for (MeshChunk chunk : meshChunks) {
+                pushed &= commitPositions(chunk.mesh(), chunk.propagated());
+            }
+            return pushed;
+        }
+        return mesh != null && commitPositions(mesh, propagatedPositions);
+    }
+
+    /**
+     * Drops the pending propagation, whose buffer is being replaced. A running propagation
+     * finishes into the old buffer and arrays, which are no longer used.
+     */
+    private void abandonPropagation() {
+        if (pendingPropagation != null) {
+            pendingPropagation.cancel(false);
+            pendingPropagation = null;
+        }
+        deferredTimeScale = 0;
+        propagatedPositions = null;
+        propagationRebase = null;
+    }
+
     // ==================== Diagnostic Methods ====================
 
     /** Visual bounding box for debugging */
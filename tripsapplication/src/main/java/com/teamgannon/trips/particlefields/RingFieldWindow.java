@@ -18,6 +18,7 @@ import javafx.stage.Stage;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.List;
 import java.util.Random;
 
 /**
@@ -48,7 +49,6 @@ public class RingFieldWindow {
     private static final double WINDOW_WIDTH = 1200;
     private static final double WINDOW_HEIGHT = 900;
 
-    private static final int MESH_REFRESH_INTERVAL = 5;
     private static final double TARGET_FRAME_SECONDS = 1.0 / 60.0;
     private static final double MAX_DELTA_SECONDS = 0.1;
 
@@ -80,7 +80,6 @@ public class RingFieldWindow {
     /** Animation state */
     private AnimationTimer animationTimer;
     private boolean animating = true;
-    private int frameCounter = 0;
     private long lastFrameNanos = 0;
 
     /**
@@ -227,14 +226,8 @@ public class RingFieldWindow {
                 // Scale relative to target frame rate
                 double timeScale = deltaSeconds / TARGET_FRAME_SECONDS;
 
-                // Update element positions
-                renderer.update(timeScale);
-
-                // Refresh meshes periodically (not every frame)
-                frameCounter++;
-                if (frameCounter % MESH_REFRESH_INTERVAL == 0) {
-                    renderer.refreshMeshes();
-                }
+                // Propagate element positions off this thread and push the finished ones
+                ParticleFieldScheduler.shared().step(List.of(renderer), timeScale);
             }
         };
         animationTimer.start();
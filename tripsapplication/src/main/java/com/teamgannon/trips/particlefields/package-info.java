@@ -18,6 +18,7 @@
  *   <li>{@link com.teamgannon.trips.particlefields.RingFieldRenderer} - Main renderer for particle fields</li>
  *   <li>{@link com.teamgannon.trips.particlefields.RingConfiguration} - Configuration record for ring parameters</li>
  *   <li>{@link com.teamgannon.trips.particlefields.RingFieldFactory} - Factory with presets for common structures</li>
+ *   <li>{@link com.teamgannon.trips.particlefields.ParticleFieldScheduler} - Propagates animated fields on worker threads</li>
  *   <li>{@link com.teamgannon.trips.particlefields.RingFieldWindow} - Standalone visualization window</li>
  * </ul>
  *
@@ -34,9 +35,8 @@
  * RingFieldRenderer renderer = new RingFieldRenderer(config, new Random(42));
  * parentGroup.getChildren().add(renderer.getGroup());
  *
- * // In animation loop:
- * renderer.update(timeScale);
- * renderer.refreshMeshes();  // Periodically, not every frame
+ * // In animation loop, propagating off the JavaFX thread:
+ * ParticleFieldScheduler.shared().step(List.of(renderer), timeScale);
  * }</pre>
  *
  * @see com.teamgannon.trips.solarsystem.rendering.SolarSystemRenderer
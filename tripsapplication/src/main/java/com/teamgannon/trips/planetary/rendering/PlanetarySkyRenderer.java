@@ -17,8 +17,11 @@ import javafx.scene.shape.Cylinder;
 import javafx.scene.shape.Sphere;
 import javafx.scene.transform.Rotate;
 import lombok.extern.slf4j.Slf4j;
+import org.fxyz3d.shapes.primitives.ScatterMesh;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
@@ -31,6 +34,16 @@ import java.util.Map;
 @Slf4j
 public class PlanetarySkyRenderer {
 
+    /**
+     * How stars and Milky Way particles are turned into scene nodes.
+     */
+    public enum StarRenderMode {
+        /** One combined mesh per layer; clicks are resolved through a spatial lookup */
+        MESH,
+        /** One Sphere node per star, halo and particle, each star with its own click handler */
+        NODES
+    }
+
     /**
      * Sky dome radius in screen units
      */
@@ -41,6 +54,32 @@ public class PlanetarySkyRenderer {
      */
     private static final double AU_TO_LY = 1.0 / 63241.0;
 
+    /**
+     * Spectral types with their own star color; other types render white.
+     */
+    private static final String SPECTRAL_TYPES = "OBAFGKM";
+
+    /**
+     * Palette texels per star color, so texture filtering never blends neighbouring colors.
+     */
+    private static final int PALETTE_BLOCK = 16;
+
+    /**
+     * Palette block of the first halo color; core colors use blocks 0-7.
+     */
+    private static final int HALO_BLOCK_OFFSET = 8;
+
+    /**
+     * Star core and halo colors for the mesh rendering mode.
+     */
+    private static final List<Color> STAR_PALETTE = buildStarPalette();
+
+    /**
+     * Farthest a click on the star mesh can land from a star's center: the largest halo
+     * (triple halo at six times the largest core) plus a margin.
+     */
+    private static final double MAX_PICK_DISTANCE = 22.0;
+
     /**
      * Maximum magnitude to display (dimmer stars filtered)
      */
@@ -88,9 +127,46 @@ public class PlanetarySkyRenderer {
      */
     private java.util.function.Consumer<BrightStarEntry> onStarClicked;
 
+    /**
+     * Current star rendering mode
+     */
+    private StarRenderMode starRenderMode = StarRenderMode.MESH;
+
+    /**
+     * Stars in the star mesh, by point index (mesh mode only)
+     */
+    private final List<BrightStarEntry> meshStarEntries = new ArrayList<>();
+
+    /**
+     * Spatial lookup from a point on the sky dome to the mesh star there (mesh mode only)
+     */
+    private SkyPointIndex meshStarIndex;
+
+    /**
+     * Number of Milky Way particles rendered, in either mode
+     */
+    private int milkyWayParticleCount;
+
     public PlanetarySkyRenderer() {
         // Milky Way renders behind stars (added first)
         skyGroup.getChildren().addAll(groundGroup, milkyWayGroup, gridGroup, horizonGroup, starsGroup, hostStarGroup, siblingPlanetsGroup);
+
+        // Per-star nodes consume their own clicks; anything reaching the group hit a star mesh
+        starsGroup.setOnMouseClicked(event -> {
+            javafx.scene.input.PickResult pick = event.getPickResult();
+            if (meshStarIndex == null || pick == null || pick.getIntersectedNode() == null) {
+                return;
+            }
+            Point3D scenePoint = pick.getIntersectedNode().localToScene(pick.getIntersectedPoint());
+            Point3D skyPoint = starsGroup.sceneToLocal(scenePoint);
+            BrightStarEntry starEntry = skyPoint != null
+                    ? findMeshStar(skyPoint.getX(), skyPoint.getY(), skyPoint.getZ())
+                    : null;
+            if (starEntry != null && onStarClicked != null) {
+                onStarClicked.accept(starEntry);
+            }
+            event.consume();
+        });
     }
 
     /**
@@ -146,7 +222,7 @@ public class PlanetarySkyRenderer {
         }
 
         log.info("Rendered sky dome from {} with {} visible stars, {} Milky Way particles",
-                context.getPlanetName(), brightestStars.size(), milkyWayGroup.getChildren().size());
+                context.getPlanetName(), brightestStars.size(), milkyWayParticleCount);
 
         return skyGroup;
     }
@@ -270,6 +346,11 @@ public class PlanetarySkyRenderer {
         // Precompute materials for different brightness levels (performance optimization)
         PhongMaterial[] materials = createMilkyWayMaterials(baseOpacity);
 
+        // In mesh mode the same levels become a palette, with the level opacity per particle
+        SkyPointLayer particleLayer = starRenderMode == StarRenderMode.MESH
+                ? new SkyPointLayer(Arrays.stream(materials).map(material -> opaque(material.getDiffuseColor())).toList(), true)
+                : null;
+
         for (int i = 0; i < particleCount; i++) {
             // Generate particle in galactic coordinates
             // Galactic longitude (l): 0-360° around the plane
@@ -328,6 +409,11 @@ public class PlanetarySkyRenderer {
 
             // Create small particle
             double size = 0.3 + brightness * 0.4 + milkyWayRandom.nextDouble() * 0.2;
+            if (particleLayer != null) {
+                int colorIndex = (int) Math.round(255.0 * matIndex / (materials.length - 1));
+                particleLayer.add(skyPos, colorIndex, size, materials[matIndex].getDiffuseColor().getOpacity());
+                continue;
+            }
             Sphere particle = new Sphere(size);
             particle.setCullFace(CullFace.NONE);
             particle.setMaterial(materials[matIndex]);
@@ -338,7 +424,18 @@ public class PlanetarySkyRenderer {
             milkyWayGroup.getChildren().add(particle);
         }
 
-        log.info("Rendered {} Milky Way particles", milkyWayGroup.getChildren().size());
+        if (particleLayer != null) {
+            milkyWayParticleCount = particleLayer.size();
+            ScatterMesh particleMesh = particleLayer.build();
+            if (particleMesh != null) {
+                particleMesh.setMouseTransparent(true);
+                milkyWayGroup.getChildren().add(particleMesh);
+            }
+        } else {
+            milkyWayParticleCount = milkyWayGroup.getChildren().size();
+        }
+
+        log.info("Rendered {} Milky Way particles", milkyWayParticleCount);
     }
 
     /**
@@ -452,6 +549,11 @@ public class PlanetarySkyRenderer {
 
         brightestStars.clear();
 
+        boolean meshMode = starRenderMode == StarRenderMode.MESH;
+        SkyPointLayer haloLayer = meshMode ? new SkyPointLayer(STAR_PALETTE, true) : null;
+        SkyPointLayer coreLayer = meshMode ? new SkyPointLayer(STAR_PALETTE, false) : null;
+        float[] meshStarPositions = meshMode ? new float[allStars.size() * 3] : null;
+
         for (StarDisplayRecord star : allStars) {
             // Skip the host star (rendered separately as sun)
             if (context.getHostStar() != null &&
@@ -489,14 +591,6 @@ public class PlanetarySkyRenderer {
             // Position on sky dome
             double[] skyPos = sphericalToCartesian(SKY_DOME_RADIUS, azimuth, altitude);
 
-            // Create star visual with magnitude-based rendering
-            Color starColor = getStarColor(star.getSpectralClass());
-            StarVisualResult starVisual = createStarVisual(adjustedMag, starColor, skyPos);
-
-            starsGroup.getChildren().add(starVisual.group());
-            Sphere starSphere = starVisual.coreSphere();
-            Group starGroup = starVisual.group();
-
             // Create star entry for tracking and click identification
             BrightStarEntry starEntry = new BrightStarEntry(
                     star.getStarName(),
@@ -507,35 +601,105 @@ public class PlanetarySkyRenderer {
                     star
             );
 
-            // Map the star group and core sphere to the star data for click-to-identify
-            shapeToStarData.put(starGroup, starEntry);
-            shapeToStarData.put(starSphere, starEntry);
-
-            // Add click handler to the star group
-            starGroup.setOnMouseClicked(event -> {
-                if (onStarClicked != null) {
-                    onStarClicked.accept(starEntry);
-                }
-                event.consume();
-            });
+            // Create star visual with magnitude-based rendering
+            Node labelAnchor;
+            if (meshMode) {
+                addStarPoints(coreLayer, haloLayer, adjustedMag, star.getSpectralClass(), skyPos);
+                int pointIndex = meshStarEntries.size();
+                meshStarPositions[pointIndex * 3] = (float) skyPos[0];
+                meshStarPositions[pointIndex * 3 + 1] = (float) skyPos[1];
+                meshStarPositions[pointIndex * 3 + 2] = (float) skyPos[2];
+                meshStarEntries.add(starEntry);
+                labelAnchor = null;
+            } else {
+                Color starColor = getStarColor(star.getSpectralClass());
+                StarVisualResult starVisual = createStarVisual(adjustedMag, starColor, skyPos);
+
+                starsGroup.getChildren().add(starVisual.group());
+                Sphere starSphere = starVisual.coreSphere();
+                Group starGroup = starVisual.group();
+
+                // Map the star group and core sphere to the star data for click-to-identify
+                shapeToStarData.put(starGroup, starEntry);
+                shapeToStarData.put(starSphere, starEntry);
+
+                // Add click handler to the star group
+                starGroup.setOnMouseClicked(event -> {
+                    if (onStarClicked != null) {
+                        onStarClicked.accept(starEntry);
+                    }
+                    event.consume();
+                });
+                labelAnchor = starSphere;
+            }
 
             // Create label for bright stars (mag <= labelMagnitudeLimit)
             if (adjustedMag <= labelMagnitudeLimit && star.getStarName() != null && !star.getStarName().isEmpty()) {
+                if (labelAnchor == null) {
+                    // Mesh stars have no node of their own; an empty group marks the label position
+                    labelAnchor = new Group();
+                    labelAnchor.setTranslateX(skyPos[0]);
+                    labelAnchor.setTranslateY(skyPos[1]);
+                    labelAnchor.setTranslateZ(skyPos[2]);
+                    starsGroup.getChildren().add(labelAnchor);
+                    shapeToStarData.put(labelAnchor, starEntry);
+                }
                 Label label = createStarLabel(star.getStarName(), adjustedMag);
-                shapeToLabel.put(starSphere, label);
+                shapeToLabel.put(labelAnchor, label);
             }
 
             // Track brightest stars (for side pane list)
             brightestStars.add(starEntry);
         }
 
+        if (meshMode) {
+            // Halos first so the translucent layer sits behind the cores, as in node mode
+            ScatterMesh haloMesh = haloLayer.build();
+            if (haloMesh != null) {
+                starsGroup.getChildren().add(haloMesh);
+            }
+            ScatterMesh coreMesh = coreLayer.build();
+            if (coreMesh != null) {
+                starsGroup.getChildren().add(coreMesh);
+            }
+            meshStarIndex = new SkyPointIndex(meshStarPositions, meshStarEntries.size(), MAX_PICK_DISTANCE);
+        }
+
         // Sort by magnitude (brightest first) and keep top 20
         brightestStars.sort(Comparator.comparingDouble(BrightStarEntry::getApparentMagnitude));
         if (brightestStars.size() > 20) {
             brightestStars.subList(20, brightestStars.size()).clear();
         }
 
-        log.info("Rendered {} stars above horizon", starsGroup.getChildren().size());
+        log.info("Rendered {} stars above horizon", meshMode ? meshStarEntries.size() : starsGroup.getChildren().size());
+    }
+
+    /**
+     * Add a star's core and halos to the star meshes, sized and tinted as in {@link #createStarVisual}.
+     */
+    private void addStarPoints(SkyPointLayer coreLayer, SkyPointLayer haloLayer,
+                               double magnitude, String spectralClass, double[] position) {
+        int colorBlock = spectralColorBlock(spectralClass);
+        double coreSize = calculateCoreSize(magnitude);
+
+        double[] halos = haloTiers(magnitude);
+        for (int i = 0; i < halos.length; i += 2) {
+            haloLayer.add(position, paletteIndex(HALO_BLOCK_OFFSET + colorBlock), coreSize * halos[i], halos[i + 1]);
+        }
+        coreLayer.add(position, paletteIndex(colorBlock), coreSize, 1.0);
+    }
+
+    /**
+     * Find the mesh star nearest a point on the sky dome.
+     *
+     * @return the star, or null if no mesh star is within pick distance
+     */
+    @Nullable BrightStarEntry findMeshStar(double x, double y, double z) {
+        if (meshStarIndex == null) {
+            return null;
+        }
+        int index = meshStarIndex.nearest(x, y, z);
+        return index >= 0 ? meshStarEntries.get(index) : null;
     }
 
     /**
@@ -919,7 +1083,7 @@ public class PlanetarySkyRenderer {
     /**
      * Get star color based on spectral class.
      */
-    private Color getStarColor(String spectralClass) {
+    private static Color getStarColor(String spectralClass) {
         if (spectralClass == null || spectralClass.isEmpty()) {
             return Color.WHITE;
         }
@@ -937,6 +1101,53 @@ public class PlanetarySkyRenderer {
         };
     }
 
+    /**
+     * Halo color for a star color: the star color blended with white.
+     */
+    private static Color haloTint(Color starColor) {
+        return starColor.interpolate(Color.WHITE, 0.6);
+    }
+
+    private static Color opaque(Color color) {
+        return Color.color(color.getRed(), color.getGreen(), color.getBlue());
+    }
+
+    /**
+     * Palette block of a spectral class's star color: the index in {@link #SPECTRAL_TYPES},
+     * or the block after them (white) for other classes.
+     */
+    private static int spectralColorBlock(String spectralClass) {
+        if (spectralClass == null || spectralClass.isEmpty()) {
+            return SPECTRAL_TYPES.length();
+        }
+        int block = SPECTRAL_TYPES.indexOf(spectralClass.charAt(0));
+        return block >= 0 ? block : SPECTRAL_TYPES.length();
+    }
+
+    /**
+     * Color index of the middle texel of a palette block.
+     */
+    private static int paletteIndex(int block) {
+        return block * PALETTE_BLOCK + PALETTE_BLOCK / 2;
+    }
+
+    /**
+     * Build the 256-entry star palette: one block per spectral color for cores, then the
+     * same colors blended towards white for halos.
+     */
+    private static List<Color> buildStarPalette() {
+        List<Color> palette = new ArrayList<>(256);
+        for (int i = 0; i < 256; i++) {
+            int block = i / PALETTE_BLOCK;
+            int colorBlock = block % HALO_BLOCK_OFFSET;
+            Color starColor = colorBlock < SPECTRAL_TYPES.length()
+                    ? getStarColor(String.valueOf(SPECTRAL_TYPES.charAt(colorBlock)))
+                    : Color.WHITE;
+            palette.add(block < HALO_BLOCK_OFFSET ? starColor : haloTint(starColor));
+        }
+        return palette;
+    }
+
     /**
      * Create a cylinder segment between two points.
      */
@@ -993,6 +1204,9 @@ public class PlanetarySkyRenderer {
         brightestStars.clear();
         shapeToLabel.clear();
         shapeToStarData.clear();
+        meshStarEntries.clear();
+        meshStarIndex = null;
+        milkyWayParticleCount = 0;
     }
 
     /**
@@ -1063,6 +1277,17 @@ public class PlanetarySkyRenderer {
         gridGroup.setVisible(visible);
     }
 
+    /**
+     * Set how stars and Milky Way particles are rendered. Takes effect on the next render.
+     */
+    public void setStarRenderMode(StarRenderMode mode) {
+        this.starRenderMode = mode;
+    }
+
+    public StarRenderMode getStarRenderMode() {
+        return starRenderMode;
+    }
+
     /**
      * Result of creating a star visual - contains the group and core sphere reference.
      */
@@ -1100,27 +1325,35 @@ public class PlanetarySkyRenderer {
         core.setTranslateZ(z);
 
         // Add halos based on magnitude tier
+        double[] halos = haloTiers(magnitude);
+        for (int i = 0; i < halos.length; i += 2) {
+            starGroup.getChildren().add(createHalo(x, y, z, coreSize * halos[i], starColor, halos[i + 1]));
+        }
+
+        starGroup.getChildren().add(core);
+
+        return new StarVisualResult(starGroup, core);
+    }
+
+    /**
+     * Halos for a star's magnitude tier, outermost first, as (radius / core radius, opacity) pairs.
+     */
+    private static double[] haloTiers(double magnitude) {
         if (magnitude <= -1.0) {
             // Exceptional brightness (Sirius-class): triple halo
-            starGroup.getChildren().add(createHalo(x, y, z, coreSize * 6.0, starColor, 0.08));
-            starGroup.getChildren().add(createHalo(x, y, z, coreSize * 4.0, starColor, 0.15));
-            starGroup.getChildren().add(createHalo(x, y, z, coreSize * 2.5, starColor, 0.25));
+            return new double[]{6.0, 0.08, 4.0, 0.15, 2.5, 0.25};
         } else if (magnitude <= 0.5) {
             // Very bright: double halo
-            starGroup.getChildren().add(createHalo(x, y, z, coreSize * 4.0, starColor, 0.12));
-            starGroup.getChildren().add(createHalo(x, y, z, coreSize * 2.2, starColor, 0.22));
+            return new double[]{4.0, 0.12, 2.2, 0.22};
         } else if (magnitude <= 1.5) {
             // Bright: single halo
-            starGroup.getChildren().add(createHalo(x, y, z, coreSize * 2.5, starColor, 0.18));
+            return new double[]{2.5, 0.18};
         } else if (magnitude <= 2.5) {
             // Moderately bright: subtle halo
-            starGroup.getChildren().add(createHalo(x, y, z, coreSize * 1.8, starColor, 0.12));
+            return new double[]{1.8, 0.12};
         }
         // mag > 2.5: no halo, just the core
-
-        starGroup.getChildren().add(core);
-
-        return new StarVisualResult(starGroup, core);
+        return new double[0];
     }
 
     /**
@@ -1131,7 +1364,7 @@ public class PlanetarySkyRenderer {
         halo.setCullFace(CullFace.NONE);
 
         // Blend the star color with white for the halo (tinted glow)
-        Color haloColor = tintColor.interpolate(Color.WHITE, 0.6);
+        Color haloColor = haloTint(tintColor);
         // Apply opacity to the color
         Color finalColor = Color.color(
                 haloColor.getRed(),
@@ -0,0 +1,126 @@
+package com.teamgannon.trips.planetary.rendering;
+
+import java.util.Arrays;
+
+/**
+ * Nearest-point lookup over points on the sky dome, used to resolve a click on a
+ * combined star mesh back to the star that was hit.
+ * <p>
+ * Points are bucketed into a uniform 3D grid whose cell edge equals the maximum pick
+ * distance, so any point within that distance of a query lies in one of the 27 cells
+ * around it. Cells are stored as a sorted array of cell keys with the point indices in
+ * the same order, and a query binary-searches each neighbouring key.
+ */
+final class SkyPointIndex {
+
+    /**
+     * Offset added to cell coordinates so they pack into non-negative key fields.
+     */
+    private static final int CELL_OFFSET = 1 << 20;
+    private static final long CELL_SPAN = 1L << 21;
+
+    private final double cellSize;
+    private final float[] coordinates;
+    private final long[] sortedKeys;
+    private final int[] sortedIndices;
+
+    /**
+     * @param coordinates point positions as x, y, z triples; the array is kept, not copied
+     * @param count       number of points in the array
+     * @param maxDistance largest distance at which a query still matches a point
+     */
+    SkyPointIndex(float[] coordinates, int count, double maxDistance) {
+        if (maxDistance <= 0) {
+            throw new IllegalArgumentException("maxDistance must be positive: " + maxDistance);
+        }
+        this.cellSize = maxDistance;
+        this.coordinates = coordinates;
+
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            packed[i] = key(cell(coordinates[i * 3]), cell(coordinates[i * 3 + 1]), cell(coordinates[i * 3 + 2]));
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(packed[a], packed[b]));
+
+        sortedKeys = new long[count];
+        sortedIndices = new int[count];
+        for (int i = 0; i < count; i++) {
+            sortedIndices[i] = order[i];
+            sortedKeys[i] = packed[order[i]];
+        }
+    }
+
+    /**
+     * Number of indexed points.
+     */
+    int size() {
+        return sortedIndices.length;
+    }
+
+    /**
+     * Finds the point closest to a position.
+     *
+     * @return the index of the closest point within the maximum distance, or -1 if none
+     */
+    int nearest(double x, double y, double z) {
+        int cx = cell(x);
+        int cy = cell(y);
+        int cz = cell(z);
+        double maxDistanceSquared = cellSize * cellSize;
+        double bestDistanceSquared = Double.MAX_VALUE;
+        int best = -1;
+
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    long cellKey = key(cx + dx, cy + dy, cz + dz);
+                    for (int k = firstIndexOf(cellKey); k >= 0 && k < sortedKeys.length && sortedKeys[k] == cellKey; k++) {
+                        int index = sortedIndices[k];
+                        double px = coordinates[index * 3] - x;
+                        double py = coordinates[index * 3 + 1] - y;
+                        double pz = coordinates[index * 3 + 2] - z;
+                        double distanceSquared = px * px + py * py + pz * pz;
+                        if (distanceSquared <= maxDistanceSquared && distanceSquared < bestDistanceSquared) {
+                            bestDistanceSquared = distanceSquared;
+                            best = index;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    private int cell(double value) {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    private static long key(int cx, int cy, int cz) {
+        return ((cx + CELL_OFFSET) * CELL_SPAN + (cy + CELL_OFFSET)) * CELL_SPAN + (cz + CELL_OFFSET);
+    }
+
+    /**
+     * Position of the first entry with the key, or -1 if the key is absent.
+     */
+    private int firstIndexOf(long cellKey) {
+        int low = 0;
+        int high = sortedKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedKeys[mid] < cellKey) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < sortedKeys.length && sortedKeys[low] == cellKey ? low : -1;
+    }
+}
@@ -0,0 +1,91 @@
+package com.teamgannon.trips.planetary.rendering;
+
+import javafx.scene.paint.Color;
+import javafx.scene.shape.CullFace;
+import org.fxyz3d.geometry.Point3D;
+import org.fxyz3d.shapes.primitives.ScatterMesh;
+import org.fxyz3d.shapes.primitives.helper.MarkerFactory;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Accumulates sky points and renders them as one {@link ScatterMesh}.
+ * <p>
+ * Each point becomes a low-poly marker inside a single combined mesh. Color and opacity are
+ * carried in the texture coordinates (palette column and opacity row of the palette texture)
+ * and size is baked into the marker vertices, so thousands of points cost one node and one
+ * material instead of one {@code Sphere} and {@code PhongMaterial} each.
+ */
+final class SkyPointLayer {
+
+    private final List<Color> palette;
+    private final boolean perParticleOpacity;
+    private final List<Point3D> points = new ArrayList<>();
+    private final List<Double> radii = new ArrayList<>();
+
+    /**
+     * @param palette            colors selected by point color index (0-255)
+     * @param perParticleOpacity whether point opacities are used; otherwise points are opaque
+     */
+    SkyPointLayer(List<Color> palette, boolean perParticleOpacity) {
+        this.palette = palette;
+        this.perParticleOpacity = perParticleOpacity;
+    }
+
+    /**
+     * Adds a point.
+     *
+     * @param position   x, y, z on the sky dome
+     * @param colorIndex palette index (0-255)
+     * @param radius     marker radius, comparable to a {@code Sphere} radius
+     * @param opacity    0 (transparent) to 1 (opaque); ignored without per-particle opacity
+     */
+    void add(double[] position, int colorIndex, double radius, double opacity) {
+        points.add(new Point3D((float) position[0], (float) position[1], (float) position[2],
+                colorIndex, 1.0f, (float) opacity));
+        radii.add(radius);
+    }
+
+    int size() {
+        return points.size();
+    }
+
+    void clear() {
+        points.clear();
+        radii.clear();
+    }
+
+    /**
+     * Builds the mesh for the points added so far.
+     *
+     * @return the mesh, or null if no points were added
+     */
+    @Nullable ScatterMesh build() {
+        if (points.isEmpty()) {
+            return null;
+        }
+
+        // ScatterMesh draws its first marker at the base height without applying its scale,
+        // so the first point's size is the base and the other points scale relative to it.
+        double baseRadius = radii.get(0);
+        for (int i = 0; i < points.size(); i++) {
+            points.get(i).scale = (float) (radii.get(i) / baseRadius);
+        }
+
+        // Configure on the default data and swap in the points last: every property change
+        // rebuilds the mesh, and only the final rebuild should see all the points.
+        ScatterMesh mesh = new ScatterMesh();
+        mesh.setMarker(MarkerFactory.Marker.OCTAHEDRON);
+        mesh.setHeight(baseRadius * 2);
+        if (perParticleOpacity) {
+            mesh.enableAllPerParticleAttributes(palette);
+        } else {
+            mesh.enablePerParticleAttributes(palette);
+        }
+        mesh.setCullFace(CullFace.NONE);
+        mesh.setScatterData(new ArrayList<>(points));
+        return mesh;
+    }
+}
@@ -1,15 +1,17 @@
 package com.teamgannon.trips.planetarymodelling.procedural;
 
-import org.hipparchus.geometry.euclidean.threed.Vector3D;
-
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 /**
  * Computes and stores neighbor relationships between polygons.
  * Optimized with a spatial grid to reduce neighbor search complexity from O(n^2).
+ * <p>
+ * The graph is stored in CSR form: the neighbors of polygon {@code i} are entries
+ * {@code offsets[i]} to {@code offsets[i + 1]} of one flat index array, the first being
+ * {@code i} itself. Hot loops should walk them with {@link #neighborStart(int)},
+ * {@link #neighborEnd(int)} and {@link #neighborAt(int)}, which do not allocate;
+ * {@link #neighbors(int)} and {@link #neighborsOnly(int)} return copies.
  */
 public class AdjacencyGraph {
 
@@ -19,110 +21,246 @@ public class AdjacencyGraph {
     private static final int MIN_NEIGHBOR_SAMPLES = 10;
     private static final boolean DEBUG_LOGGING = false;
 
-    private final List<int[]> adjacencies;
-
     /**
-     * Represents the integer coordinates of a cell in the spatial grid.
+     * Grid cell coordinates are packed into a long, 21 bits per axis.
      */
-    private record GridKey(int x, int y, int z) {}
+    private static final int CELL_BITS = 21;
+    private static final int CELL_BIAS = 1 << (CELL_BITS - 1);
+
+    private final PolygonMesh mesh;
+    private final int[] offsets;
+    private final int[] indices;
 
     public AdjacencyGraph(List<Polygon> polygons) {
-        this.adjacencies = computeAdjacencies(polygons);
+        this(PolygonMesh.of(polygons));
+    }
+
+    public AdjacencyGraph(PolygonMesh mesh) {
+        this.mesh = mesh;
+        this.offsets = new int[mesh.size() + 1];
+        this.indices = computeAdjacencies(mesh, offsets);
     }
 
-    private List<int[]> computeAdjacencies(List<Polygon> polygons) {
-        int n = polygons.size();
-        List<int[]> result = new ArrayList<>(n);
+    /**
+     * Restores a graph from previously computed CSR neighbor lists, each starting with
+     * the polygon itself.
+     */
+    AdjacencyGraph(PolygonMesh mesh, int[] offsets, int[] indices) {
+        if (offsets.length != mesh.size() + 1 || offsets[offsets.length - 1] != indices.length) {
+            throw new IllegalArgumentException("Inconsistent adjacency arrays");
+        }
+        this.mesh = mesh;
+        this.offsets = offsets;
+        this.indices = indices;
+    }
+
+    private static int[] computeAdjacencies(PolygonMesh mesh, int[] offsets) {
+        int n = mesh.size();
         if (n == 0) {
-            return result;
+            return new int[0];
         }
 
         // 1. Initialize Spatial Grid
         // The cell size is chosen to be the neighbor search radius, ensuring any
         // potential neighbor must be in an adjacent grid cell.
-        double neighborDistance = estimateNeighborDistance(polygons);
+        double neighborDistance = estimateNeighborDistance(mesh);
         double neighborDistanceSq = neighborDistance * neighborDistance;
         double cellSize = neighborDistance;
-        Map<GridKey, List<Integer>> grid = new HashMap<>();
 
-        // 2. Binning Pass: Place all polygon indices into the grid
+        // 2. Binning Pass: group polygon indices by cell, keeping index order within a cell
+        long[] polygonCells = new long[n];
+        CellTable cells = new CellTable(n);
+        int[] cellOf = new int[n];
         for (int i = 0; i < n; i++) {
-            Vector3D center = polygons.get(i).center();
-            GridKey key = new GridKey(
-                (int) Math.floor(center.getX() / cellSize),
-                (int) Math.floor(center.getY() / cellSize),
-                (int) Math.floor(center.getZ() / cellSize)
+            polygonCells[i] = cellKey(
+                (int) Math.floor(mesh.centerX(i) / cellSize),
+                (int) Math.floor(mesh.centerY(i) / cellSize),
+                (int) Math.floor(mesh.centerZ(i) / cellSize)
             );
-            grid.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+            cellOf[i] = cells.getOrAdd(polygonCells[i]);
+        }
+        int[] cellStarts = new int[cells.size() + 1];
+        for (int i = 0; i < n; i++) {
+            cellStarts[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cells.size(); c++) {
+            cellStarts[c + 1] += cellStarts[c];
+        }
+        int[] cellMembers = new int[n];
+        int[] fill = Arrays.copyOf(cellStarts, cells.size());
+        for (int i = 0; i < n; i++) {
+            cellMembers[fill[cellOf[i]]++] = i;
         }
 
         // 3. Neighbor Search Pass
+        int[] result = new int[n * 7];
+        int count = 0;
         for (int i = 0; i < n; i++) {
-            Vector3D center = polygons.get(i).center();
-            List<Integer> neighbors = new ArrayList<>();
-            neighbors.add(i); // A polygon is its own neighbor
-
-            GridKey centerKey = new GridKey(
-                (int) Math.floor(center.getX() / cellSize),
-                (int) Math.floor(center.getY() / cellSize),
-                (int) Math.floor(center.getZ() / cellSize)
-            );
+            offsets[i] = count;
+            if (count == result.length) {
+                result = Arrays.copyOf(result, result.length * 2);
+            }
+            result[count++] = i; // A polygon is its own neighbor
+
+            long centerKey = polygonCells[i];
+            int cx = (int) (centerKey >>> (2 * CELL_BITS)) - CELL_BIAS;
+            int cy = (int) ((centerKey >>> CELL_BITS) & ((1L << CELL_BITS) - 1)) - CELL_BIAS;
+            int cz = (int) (centerKey & ((1L << CELL_BITS) - 1)) - CELL_BIAS;
 
             // Iterate through the 3x3x3 cube of cells around the polygon's cell
             for (int dx = -1; dx <= 1; dx++) {
                 for (int dy = -1; dy <= 1; dy++) {
                     for (int dz = -1; dz <= 1; dz++) {
-                        GridKey searchKey = new GridKey(centerKey.x + dx, centerKey.y + dy, centerKey.z + dz);
-                        List<Integer> candidates = grid.get(searchKey);
-
-                        if (candidates == null) {
+                        int cell = cells.get(cellKey(cx + dx, cy + dy, cz + dz));
+                        if (cell < 0) {
                             continue;
                         }
 
                         // For each candidate in the cell, check the actual distance
-                        for (int j : candidates) {
+                        for (int m = cellStarts[cell]; m < cellStarts[cell + 1]; m++) {
+                            int j = cellMembers[m];
                             if (i == j) {
                                 continue;
                             }
-                            Vector3D otherCenter = polygons.get(j).center();
-                            double distSq = Vector3D.distanceSq(center, otherCenter);
-                            if (distSq < neighborDistanceSq) {
-                                neighbors.add(j);
+                            if (mesh.centerDistanceSq(i, j) < neighborDistanceSq) {
+                                if (count == result.length) {
+                                    result = Arrays.copyOf(result, result.length * 2);
+                                }
+                                result[count++] = j;
                             }
                         }
                     }
                 }
             }
-            result.add(neighbors.stream().mapToInt(Integer::intValue).toArray());
         }
+        offsets[n] = count;
+
+        return Arrays.copyOf(result, count);
+    }
 
-        return result;
+    private static long cellKey(int x, int y, int z) {
+        long mask = (1L << CELL_BITS) - 1;
+        return ((x + CELL_BIAS) & mask) << (2 * CELL_BITS)
+            | ((y + CELL_BIAS) & mask) << CELL_BITS
+            | ((z + CELL_BIAS) & mask);
     }
 
+    /**
+     * Open-addressing map from packed cell keys to dense cell numbers, numbered in
+     * first-seen order.
+     */
+    private static final class CellTable {
+
+        private final long[] keys;
+        private final int[] cells;
+        private final int mask;
+        private int size;
+
+        CellTable(int expectedCells) {
+            int capacity = Integer.highestOneBit(Math.max(2, expectedCells) * 2 - 1) << 1;
+            keys = new long[capacity];
+            cells = new int[capacity];
+            Arrays.fill(cells, -1);
+            mask = capacity - 1;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(long key) {
+            for (int slot = slot(key); cells[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return cells[slot];
+                }
+            }
+            return -1;
+        }
+
+        int getOrAdd(long key) {
+            int slot = slot(key);
+            for (; cells[slot] >= 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return cells[slot];
+                }
+            }
+            keys[slot] = key;
+            cells[slot] = size;
+            return size++;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+
+    /**
+     * Returns the polygon and its neighbors, the polygon first. The array is a copy.
+     */
     public int[] neighbors(int idx) {
-        return adjacencies.get(idx);
+        return Arrays.copyOfRange(indices, offsets[idx], offsets[idx + 1]);
     }
 
+    /**
+     * Returns the neighbors of the polygon, excluding itself. The array is a copy.
+     */
     public int[] neighborsOnly(int idx) {
-        int[] full = adjacencies.get(idx);
-        int[] neighbors = new int[full.length - 1];
-        System.arraycopy(full, 1, neighbors, 0, neighbors.length);
-        return neighbors;
+        return Arrays.copyOfRange(indices, offsets[idx] + 1, offsets[idx + 1]);
+    }
+
+    /**
+     * Index of the first neighbor of the polygon (excluding itself), for {@link #neighborAt(int)}.
+     */
+    public int neighborStart(int idx) {
+        return offsets[idx] + 1;
+    }
+
+    /**
+     * Index one past the last neighbor of the polygon, for {@link #neighborAt(int)}.
+     */
+    public int neighborEnd(int idx) {
+        return offsets[idx + 1];
+    }
+
+    /**
+     * Returns the polygon at a position between {@link #neighborStart(int)} and
+     * {@link #neighborEnd(int)}.
+     */
+    public int neighborAt(int position) {
+        return indices[position];
     }
 
     public boolean areNeighbors(int idx1, int idx2) {
-        for (int neighbor : neighborsOnly(idx1)) {
-            if (neighbor == idx2) return true;
+        for (int k = neighborStart(idx1); k < neighborEnd(idx1); k++) {
+            if (indices[k] == idx2) return true;
         }
         return false;
     }
 
     public int size() {
-        return adjacencies.size();
+        return offsets.length - 1;
+    }
+
+    /**
+     * Returns the flat mesh the graph was computed over.
+     */
+    public PolygonMesh mesh() {
+        return mesh;
+    }
+
+    // Raw CSR arrays, for bulk copies
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] indices() {
+        return indices;
     }
 
-    private static double estimateNeighborDistance(List<Polygon> polygons) {
-        int n = polygons.size();
+    private static double estimateNeighborDistance(PolygonMesh mesh) {
+        int n = mesh.size();
         if (n < 2) {
             if (DEBUG_LOGGING) {
                 System.out.println("[AdjacencyGraph] Fallback neighbor distance (too few polygons).");
@@ -131,35 +269,35 @@ public class AdjacencyGraph {
         }
 
         int step = Math.max(1, n / MAX_NEIGHBOR_SAMPLES);
-        List<Double> nearestDistances = new ArrayList<>();
+        double[] nearestDistances = new double[(n + step - 1) / step];
+        int samples = 0;
 
         for (int i = 0; i < n; i += step) {
-            Vector3D center = polygons.get(i).center();
             double minDistSq = Double.MAX_VALUE;
 
             for (int j = 0; j < n; j++) {
                 if (i == j) continue;
-                double distSq = Vector3D.distanceSq(center, polygons.get(j).center());
+                double distSq = mesh.centerDistanceSq(i, j);
                 if (distSq < minDistSq) {
                     minDistSq = distSq;
                 }
             }
 
             if (minDistSq < Double.MAX_VALUE) {
-                nearestDistances.add(Math.sqrt(minDistSq));
+                nearestDistances[samples++] = Math.sqrt(minDistSq);
             }
         }
 
-        if (nearestDistances.size() < MIN_NEIGHBOR_SAMPLES) {
+        if (samples < MIN_NEIGHBOR_SAMPLES) {
             if (DEBUG_LOGGING) {
                 System.out.println("[AdjacencyGraph] Fallback neighbor distance (insufficient samples).");
             }
             return NEIGHBOR_DISTANCE_DEFAULT;
         }
 
-        nearestDistances.sort(Double::compareTo);
-        int index = (int) Math.floor(0.95 * (nearestDistances.size() - 1));
-        double percentile = nearestDistances.get(index);
+        Arrays.sort(nearestDistances, 0, samples);
+        int index = (int) Math.floor(0.95 * (samples - 1));
+        double percentile = nearestDistances[index];
 
         if (percentile <= 0.0 || Double.isNaN(percentile) || Double.isInfinite(percentile)) {
             if (DEBUG_LOGGING) {
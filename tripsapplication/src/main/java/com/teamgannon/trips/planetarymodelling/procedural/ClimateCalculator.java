@@ -65,7 +65,7 @@ public class ClimateCalculator {
      */
     private static final double EPSILON = 1e-10;
 
-    private final List<Polygon> polygons;
+    private final PolygonMesh mesh;
     private final ClimateModel model;
     private final double axialTiltRadians;
     private final double seasonalOffsetRadians;
@@ -90,7 +90,16 @@ public class ClimateCalculator {
      */
     public ClimateCalculator(List<Polygon> polygons, ClimateModel model,
             double axialTiltDegrees, double seasonalOffsetDegrees, int seasonalSamples) {
-        this.polygons = polygons;
+        this(PolygonMesh.of(polygons), model, axialTiltDegrees, seasonalOffsetDegrees, seasonalSamples);
+    }
+
+    /**
+     * Create calculator over a flat mesh, reading polygon centers without a
+     * {@link Vector3D} per polygon.
+     */
+    public ClimateCalculator(PolygonMesh mesh, ClimateModel model,
+            double axialTiltDegrees, double seasonalOffsetDegrees, int seasonalSamples) {
+        this.mesh = mesh;
         this.model = model != null ? model : ClimateModel.SIMPLE_LATITUDE;
         this.axialTiltRadians = Math.toRadians(axialTiltDegrees);
         this.seasonalOffsetRadians = Math.toRadians(seasonalOffsetDegrees);
@@ -101,11 +110,10 @@ public class ClimateCalculator {
      * Calculate climate zones for all polygons using the configured model.
      */
     public ClimateZone[] calculate() {
-        ClimateZone[] zones = new ClimateZone[polygons.size()];
+        ClimateZone[] zones = new ClimateZone[mesh.size()];
 
-        for (int i = 0; i < polygons.size(); i++) {
-            Vector3D center = polygons.get(i).center();
-            zones[i] = calculateZoneForModel(center);
+        for (int i = 0; i < mesh.size(); i++) {
+            zones[i] = calculateZoneForModel(mesh.centerX(i), mesh.centerY(i), mesh.centerZ(i));
         }
 
         return zones;
@@ -114,14 +122,14 @@ public class ClimateCalculator {
     /**
      * Calculate climate zone based on the selected model.
      */
-    private ClimateZone calculateZoneForModel(Vector3D center) {
+    private ClimateZone calculateZoneForModel(double x, double y, double z) {
         return switch (model) {
-            case SIMPLE_LATITUDE -> calculateSimpleLatitude(center);
-            case HADLEY_CELLS -> calculateHadleyCells(center);
-            case ICE_WORLD -> calculateIceWorld(center);
-            case TROPICAL_WORLD -> calculateTropicalWorld(center);
-            case TIDALLY_LOCKED -> calculateTidallyLocked(center);
-            case SEASONAL -> calculateSeasonalInsolation(center);
+            case SIMPLE_LATITUDE -> calculateSimpleLatitude(x, y, z);
+            case HADLEY_CELLS -> calculateHadleyCells(x, y, z);
+            case ICE_WORLD -> calculateIceWorld(x, y, z);
+            case TROPICAL_WORLD -> calculateTropicalWorld(x, y, z);
+            case TIDALLY_LOCKED -> calculateTidallyLocked(x, y, z);
+            case SEASONAL -> calculateSeasonalInsolation(x, y, z);
         };
     }
 
@@ -129,8 +137,8 @@ public class ClimateCalculator {
      * Simple latitude-based model (default Earth-like).
      * 0-30° = Tropical, 30-60° = Temperate, 60°+ = Polar
      */
-    private ClimateZone calculateSimpleLatitude(Vector3D center) {
-        double latitude = Math.abs(getLatitudeRadians(center));
+    private ClimateZone calculateSimpleLatitude(double x, double y, double z) {
+        double latitude = Math.abs(getLatitudeRadians(x, y, z));
 
         if (latitude <= TROPICAL_LIMIT) {
             return ClimateZone.TROPICAL;
@@ -152,8 +160,8 @@ public class ClimateCalculator {
      * - 35-60°: Temperate (westerlies belt)
      * - 60°+: Polar
      */
-    private ClimateZone calculateHadleyCells(Vector3D center) {
-        double latitude = Math.abs(getLatitudeRadians(center));
+    private ClimateZone calculateHadleyCells(double x, double y, double z) {
+        double latitude = Math.abs(getLatitudeRadians(x, y, z));
 
         if (latitude <= HADLEY_ITCZ_LIMIT) {
             // Equatorial convergence zone - very wet tropical
@@ -176,8 +184,8 @@ public class ClimateCalculator {
      * Ice world model for cold planets (far from star, low greenhouse effect).
      * Polar zones dominate; narrow temperate band near equator; no true tropical.
      */
-    private ClimateZone calculateIceWorld(Vector3D center) {
-        double latitude = Math.abs(getLatitudeRadians(center));
+    private ClimateZone calculateIceWorld(double x, double y, double z) {
+        double latitude = Math.abs(getLatitudeRadians(x, y, z));
 
         if (latitude <= ICE_TEMPERATE_LIMIT) {
             // Narrow "warm" belt at equator - still just temperate, no tropical
@@ -195,8 +203,8 @@ public class ClimateCalculator {
      * Tropical world model for hot planets (close to star, high greenhouse).
      * Extended tropical zone with small polar caps.
      */
-    private ClimateZone calculateTropicalWorld(Vector3D center) {
-        double latitude = Math.abs(getLatitudeRadians(center));
+    private ClimateZone calculateTropicalWorld(double x, double y, double z) {
+        double latitude = Math.abs(getLatitudeRadians(x, y, z));
 
         if (latitude <= HOT_TROPICAL_LIMIT) {
             // Extended tropical zone up to 45°
@@ -217,12 +225,16 @@ public class ClimateCalculator {
      *
      * Subsolar point assumed at X=+1, antisolar at X=-1.
      */
-    private ClimateZone calculateTidallyLocked(Vector3D center) {
-        Vector3D normalized = center.normalize();
+    private ClimateZone calculateTidallyLocked(double x, double y, double z) {
+        // Same arithmetic as Vector3D.normalize()
+        double norm = Math.sqrt(x * x + y * y + z * z);
+        if (norm == 0) {
+            throw new IllegalArgumentException("Polygon center at the planet's origin");
+        }
 
         // Dot product with "sun direction" (+X) gives how much this point faces the star
         // +1 = directly facing star, -1 = opposite side, 0 = terminator
-        double starFacing = normalized.getX();
+        double starFacing = (1 / norm) * x;
 
         if (starFacing > 0.5) {
             // Day side - tropical (hot)
@@ -240,8 +252,8 @@ public class ClimateCalculator {
      * Seasonal insolation model with axial tilt.
      * Uses average insolation over the year to assign climate zones.
      */
-    private ClimateZone calculateSeasonalInsolation(Vector3D center) {
-        double latitude = getLatitudeRadians(center);
+    private ClimateZone calculateSeasonalInsolation(double x, double y, double z) {
+        double latitude = getLatitudeRadians(x, y, z);
         double avgInsolation = averageInsolation(latitude);
 
         if (avgInsolation >= 0.65) {
@@ -267,16 +279,18 @@ public class ClimateCalculator {
     }
 
     public static double getLatitudeDegrees(Polygon polygon) {
-        return Math.toDegrees(getLatitudeRadians(polygon.center()));
+        Vector3D center = polygon.center();
+        return Math.toDegrees(getLatitudeRadians(center.getX(), center.getY(), center.getZ()));
     }
 
-    private static double getLatitudeRadians(Vector3D center) {
-        double norm = center.getNorm();
+    private static double getLatitudeRadians(double x, double y, double z) {
+        // Same arithmetic as Vector3D.getNorm()
+        double norm = Math.sqrt(x * x + y * y + z * z);
         // Use epsilon comparison for floating-point zero check
         if (norm < EPSILON) {
             return 0.0;
         }
-        double clamped = Math.max(-1.0, Math.min(1.0, center.getY() / norm));
+        double clamped = Math.max(-1.0, Math.min(1.0, y / norm));
         return Math.asin(clamped);
     }
 }
@@ -402,7 +402,8 @@ public class ElevationCalculator {
         List<Integer> boundary = new ArrayList<>();
 
         for (int polyIdx : plate1Polys) {
-            for (int neighbor : adjacency.neighborsOnly(polyIdx)) {
+            for (int k = adjacency.neighborStart(polyIdx); k < adjacency.neighborEnd(polyIdx); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 if (plateIndex[neighbor] == plate2Idx && massMarker[polyIdx] != plate1Idx) {
                     boundary.add(polyIdx);
                     massMarker[polyIdx] = plate1Idx;
@@ -427,7 +428,8 @@ public class ElevationCalculator {
             List<Integer> toAdd = new ArrayList<>();
 
             for (int polyIdx : mass) {
-                for (int neighbor : adjacency.neighborsOnly(polyIdx)) {
+                for (int k = adjacency.neighborStart(polyIdx); k < adjacency.neighborEnd(polyIdx); k++) {
+                    int neighbor = adjacency.neighborAt(k);
                     if (massMarker[neighbor] == -1 && plateIndex[neighbor] == plate1Idx) {
                         if (random.nextDouble() < distortion) {
                             toAdd.add(neighbor);
@@ -488,10 +490,10 @@ public class ElevationCalculator {
         for (int polyIdx : platePolys) {
             if (heights[polyIdx] != PLAINS) continue;
 
-            int[] neighbors = adjacency.neighbors(polyIdx);
+            // The polygon itself is plains, so only its neighbors are checked
             boolean allPlains = true;
-            for (int neighbor : neighbors) {
-                if (heights[neighbor] != PLAINS) {
+            for (int k = adjacency.neighborStart(polyIdx); k < adjacency.neighborEnd(polyIdx); k++) {
+                if (heights[adjacency.neighborAt(k)] != PLAINS) {
                     allPlains = false;
                     break;
                 }
@@ -504,13 +506,15 @@ public class ElevationCalculator {
 
             while (range.size() < length) {
                 range.add(current);
-                int[] currentNeighbors = adjacency.neighborsOnly(current);
+                int start = adjacency.neighborStart(current);
+                int end = adjacency.neighborEnd(current);
 
                 int chosen = -1;
                 int skip = 0;
                 boolean flip = random.nextBoolean();
 
-                for (int neighbor : currentNeighbors) {
+                for (int k = start; k < end; k++) {
+                    int neighbor = adjacency.neighborAt(k);
                     if (!exclude.contains(neighbor) && plateIndex[neighbor] == plateIdx) {
                         if (chosen == -1) {
                             if ((flip && skip >= 1) || (!flip && skip >= 2)) {
@@ -524,7 +528,8 @@ public class ElevationCalculator {
 
                 if (chosen == -1) break;
 
-                for (int neighbor : currentNeighbors) {
+                for (int k = start; k < end; k++) {
+                    int neighbor = adjacency.neighborAt(k);
                     if (neighbor != chosen) {
                         exclude.add(neighbor);
                     }
@@ -548,10 +553,10 @@ public class ElevationCalculator {
         for (int polyIdx : platePolys) {
             if (heights[polyIdx] != DEEP_OCEAN) continue;
 
-            int[] neighbors = adjacency.neighbors(polyIdx);
+            // The polygon itself is deep ocean, so only its neighbors are checked
             boolean allDeep = true;
-            for (int neighbor : neighbors) {
-                if (heights[neighbor] != DEEP_OCEAN) {
+            for (int k = adjacency.neighborStart(polyIdx); k < adjacency.neighborEnd(polyIdx); k++) {
+                if (heights[adjacency.neighborAt(k)] != DEEP_OCEAN) {
                     allDeep = false;
                     break;
                 }
@@ -567,10 +572,10 @@ public class ElevationCalculator {
                     chain.add(current);
                 }
 
-                int[] currentNeighbors = adjacency.neighborsOnly(current);
                 int chosen = -1;
 
-                for (int neighbor : currentNeighbors) {
+                for (int k = adjacency.neighborStart(current); k < adjacency.neighborEnd(current); k++) {
+                    int neighbor = adjacency.neighborAt(k);
                     if (!exclude.contains(neighbor) && chosen == -1) {
                         chosen = neighbor;
                     } else if (!exclude.contains(neighbor)) {
@@ -645,7 +650,8 @@ public class ElevationCalculator {
         for (int iter = 0; iter < maxIterations && hotspotPolys.size() < size && !frontier.isEmpty(); iter++) {
             List<Integer> nextFrontier = new ArrayList<>();
             for (int polyIdx : frontier) {
-                for (int neighbor : adjacency.neighborsOnly(polyIdx)) {
+                for (int k = adjacency.neighborStart(polyIdx); k < adjacency.neighborEnd(polyIdx); k++) {
+                    int neighbor = adjacency.neighborAt(k);
                     if (!hotspotPolys.contains(neighbor)) {
                         if (random.nextDouble() < 0.6) {  // Irregular shape
                             hotspotPolys.add(neighbor);
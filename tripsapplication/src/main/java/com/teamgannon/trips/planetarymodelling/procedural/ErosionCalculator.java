@@ -3,6 +3,8 @@ package com.teamgannon.trips.planetarymodelling.procedural;
 import com.cognitivedynamics.noisegen.FastNoiseLite;
 import com.cognitivedynamics.noisegen.spatial.TiledNoise;
 import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.hipparchus.util.FastMath;
+import org.hipparchus.util.MathArrays;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -383,15 +385,13 @@ public class ErosionCalculator {
             int bestNeighbor = -1;
             double bestAlignment = -1;
 
-            for (int neighbor : adjacency.neighborsOnly(current)) {
+            for (int k = adjacency.neighborStart(current); k < adjacency.neighborEnd(current); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 if (visited.contains(neighbor)) continue;
 
-                Vector3D neighborDir = polygons.get(neighbor).center()
-                    .subtract(polygons.get(current).center()).normalize();
-
                 // Dot product gives alignment (-1 to 1)
                 // We want the neighbor that is most OPPOSITE to wind direction (upwind)
-                double alignment = -neighborDir.dotProduct(windDir);
+                double alignment = upwindAlignment(current, neighbor, windDir);
 
                 if (alignment > bestAlignment) {
                     bestAlignment = alignment;
@@ -464,6 +464,23 @@ public class ErosionCalculator {
             * stagnantLidFactor * divergentBoost * oceanBoost * rainShadowFactor;
     }
 
+    /**
+     * Returns the alignment of the direction from one polygon center to another with the
+     * reverse of the wind: 1 when the second polygon lies straight upwind.
+     * Reads the flat mesh, so the flow tracing allocates no vectors.
+     */
+    private double upwindAlignment(int from, int to, Vector3D windDir) {
+        PolygonMesh mesh = adjacency.mesh();
+        double dx = mesh.centerX(to) - mesh.centerX(from);
+        double dy = mesh.centerY(to) - mesh.centerY(from);
+        double dz = mesh.centerZ(to) - mesh.centerZ(from);
+        double inverseLength = 1 / FastMath.sqrt(dx * dx + dy * dy + dz * dz);
+        return -MathArrays.linearCombination(
+            inverseLength * dx, windDir.getX(),
+            inverseLength * dy, windDir.getY(),
+            inverseLength * dz, windDir.getZ());
+    }
+
     private double calculateOceanMoistureBoost(int startIdx, Vector3D windDir) {
         int current = startIdx;
         Set<Integer> visited = new HashSet<>();
@@ -475,12 +492,11 @@ public class ErosionCalculator {
             int bestNeighbor = -1;
             double bestAlignment = -1;
 
-            for (int neighbor : adjacency.neighborsOnly(current)) {
+            for (int k = adjacency.neighborStart(current); k < adjacency.neighborEnd(current); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 if (visited.contains(neighbor)) continue;
 
-                Vector3D neighborDir = polygons.get(neighbor).center()
-                    .subtract(polygons.get(current).center()).normalize();
-                double alignment = -neighborDir.dotProduct(windDir);
+                double alignment = upwindAlignment(current, neighbor, windDir);
                 if (alignment > bestAlignment) {
                     bestAlignment = alignment;
                     bestNeighbor = neighbor;
@@ -520,7 +536,8 @@ public class ErosionCalculator {
             int plate = plateIndex[i];
 
             // Check if any neighbor is on a different plate with divergent boundary
-            for (int neighbor : adjacency.neighborsOnly(i)) {
+            for (int k = adjacency.neighborStart(i); k < adjacency.neighborEnd(i); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 int neighborPlate = plateIndex[neighbor];
                 if (neighborPlate != plate) {
                     BoundaryDetector.PlatePair pair = new BoundaryDetector.PlatePair(
@@ -540,7 +557,8 @@ public class ErosionCalculator {
         boolean[] extended = nearDivergent.clone();
         for (int i = 0; i < polygons.size(); i++) {
             if (nearDivergent[i]) {
-                for (int neighbor : adjacency.neighborsOnly(i)) {
+                for (int k = adjacency.neighborStart(i); k < adjacency.neighborEnd(i); k++) {
+                    int neighbor = adjacency.neighborAt(k);
                     extended[neighbor] = true;
                 }
             }
@@ -792,7 +810,8 @@ public class ErosionCalculator {
         }
 
         // Prefer polygons that are local maxima or near them
-        for (int neighbor : adjacency.neighborsOnly(i)) {
+        for (int k = adjacency.neighborStart(i); k < adjacency.neighborEnd(i); k++) {
+            int neighbor = adjacency.neighborAt(k);
             if (workingHeights[neighbor] > workingHeights[i] + 0.5) {
                 return false;
             }
@@ -852,7 +871,8 @@ public class ErosionCalculator {
             }
 
             for (int polyIdx : basin) {
-                for (int neighbor : adjacency.neighborsOnly(polyIdx)) {
+                for (int k = adjacency.neighborStart(polyIdx); k < adjacency.neighborEnd(polyIdx); k++) {
+                    int neighbor = adjacency.neighborAt(k);
                     if (!basinMask[neighbor]) {
                         double neighborHeight = workingHeights[neighbor];
                         if (neighborHeight < spillElevation) {
@@ -946,7 +966,8 @@ public class ErosionCalculator {
         boolean hasWaterNeighbor = false;
         boolean hasLandNeighbor = false;
 
-        for (int neighbor : adjacency.neighborsOnly(idx)) {
+        for (int k = adjacency.neighborStart(idx); k < adjacency.neighborEnd(idx); k++) {
+            int neighbor = adjacency.neighborAt(k);
             if (workingHeights[neighbor] < 0) {
                 hasWaterNeighbor = true;
             } else {
@@ -983,16 +1004,17 @@ public class ErosionCalculator {
      * @param neighborWeight weight given to neighbors (0-1), remainder goes to current
      */
     private double averageWithNeighbors(int idx, double neighborWeight) {
-        int[] neighbors = adjacency.neighborsOnly(idx);
-        if (neighbors.length == 0) {
+        int start = adjacency.neighborStart(idx);
+        int end = adjacency.neighborEnd(idx);
+        if (start == end) {
             return workingHeights[idx];
         }
 
         double neighborSum = 0;
-        for (int neighbor : neighbors) {
-            neighborSum += workingHeights[neighbor];
+        for (int k = start; k < end; k++) {
+            neighborSum += workingHeights[adjacency.neighborAt(k)];
         }
-        double neighborAvg = neighborSum / neighbors.length;
+        double neighborAvg = neighborSum / (end - start);
 
         return workingHeights[idx] * (1 - neighborWeight) + neighborAvg * neighborWeight;
     }
@@ -1002,11 +1024,11 @@ public class ErosionCalculator {
      * @return neighbor index, or -1 if no valid neighbors
      */
     private int findLowestNeighbor(int idx) {
-        int[] neighbors = adjacency.neighborsOnly(idx);
         int lowestIdx = -1;
         double lowestHeight = Double.MAX_VALUE;
 
-        for (int neighbor : neighbors) {
+        for (int k = adjacency.neighborStart(idx); k < adjacency.neighborEnd(idx); k++) {
+            int neighbor = adjacency.neighborAt(k);
             if (workingHeights[neighbor] < lowestHeight) {
                 lowestHeight = workingHeights[neighbor];
                 lowestIdx = neighbor;
@@ -20,7 +20,7 @@ public class IcosahedralMesh {
 
     private final int n;
     private final Vector3D[] icoVertices;
-    private List<Polygon> polygons;
+    private PolygonMesh flatMesh;
 
     /**
      * Compares two Vector3D points for equality within epsilon tolerance.
@@ -352,38 +352,60 @@ public class IcosahedralMesh {
         return edgeHexes;
     }
 
-    private List<Polygon> projectToSphere(List<Polygon> polys) {
-        if (polys.isEmpty()) return polys;
+    /**
+     * Projects the polygons onto the sphere and moves each center onto the plane of its
+     * vertices, in one pass, writing the result straight into a flat mesh.
+     */
+    private static PolygonMesh projectToSphere(List<Polygon> polys) {
+        int count = polys.size();
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            offsets[i + 1] = offsets[i] + polys.get(i).vertexCount();
+        }
+        double[] centers = new double[count * 3];
+        double[] vertices = new double[offsets[count] * 3];
+        if (count == 0) {
+            return new PolygonMesh(centers, offsets, vertices);
+        }
         Polygon first = polys.get(0);
         double theta = Vector3D.angle(first.vertices().get(0), first.vertices().get(1));
         double r = Math.sqrt(1.0 / (2.0 * (1.0 - Math.cos(theta))));
 
-        List<Polygon> projected = new ArrayList<>();
-        for (Polygon p : polys) {
+        for (int i = 0; i < count; i++) {
+            Polygon p = polys.get(i);
             Vector3D projCenter = p.center().normalize().scalarMultiply(r);
-            List<Vector3D> projVerts = p.vertices().stream()
-                .map(v -> v.normalize().scalarMultiply(r))
-                .toList();
-            projected.add(new Polygon(projCenter, projVerts));
-        }
-        return projected;
-    }
+            Vector3D refVert = null;
+            int vertex = offsets[i];
+            for (Vector3D v : p.vertices()) {
+                Vector3D projected = v.normalize().scalarMultiply(r);
+                if (refVert == null) {
+                    refVert = projected;
+                }
+                PolygonMesh.put(vertices, vertex++, projected);
+            }
 
-    private List<Polygon> adjustCenters(List<Polygon> polys) {
-        List<Polygon> adjusted = new ArrayList<>();
-        for (Polygon p : polys) {
-            Vector3D refVert = p.vertices().get(0);
-            double dot = refVert.dotProduct(p.center());
-            double c = dot / p.center().getNormSq();
-            Vector3D newCenter = p.center().scalarMultiply(c);
-            adjusted.add(new Polygon(newCenter, p.vertices()));
+            // Adjust the center so it lies in the plane of the vertices
+            double dot = refVert.dotProduct(projCenter);
+            double c = dot / projCenter.getNormSq();
+            PolygonMesh.put(centers, i, projCenter.scalarMultiply(c));
         }
-        return adjusted;
+        return new PolygonMesh(centers, offsets, vertices);
     }
 
+    /**
+     * Returns the generated polygons, generating them if needed. The list is a view of
+     * {@link #generateFlat()} and builds each polygon as it is read.
+     */
     public List<Polygon> generate() {
-        if (polygons != null) {
-            return polygons;
+        return generateFlat().asPolygons();
+    }
+
+    /**
+     * Returns the generated polygons as a flat {@link PolygonMesh}, generating them if needed.
+     */
+    public PolygonMesh generateFlat() {
+        if (flatMesh != null) {
+            return flatMesh;
         }
 
         List<List<Vector3D>> faces = gridedFaces();
@@ -397,11 +419,8 @@ public class IcosahedralMesh {
 
         allPolys.addAll(edges(faces));
 
-        allPolys = projectToSphere(allPolys);
-        allPolys = adjustCenters(allPolys);
-
-        this.polygons = allPolys;
-        return polygons;
+        flatMesh = projectToSphere(allPolys);
+        return flatMesh;
     }
 
     public int getN() {
@@ -464,12 +464,14 @@ public class JavaFxPlanetMeshConverter {
         double[] averaged = new double[polygons.size()];
 
         for (int polyIdx = 0; polyIdx < polygons.size(); polyIdx++) {
-            int[] neighbors = adjacency.neighbors(polyIdx); // includes self
-            double sum = 0;
-            for (int neighborIdx : neighbors) {
-                sum += heights[neighborIdx];
+            // The polygon itself, then its neighbors
+            double sum = heights[polyIdx];
+            int start = adjacency.neighborStart(polyIdx);
+            int end = adjacency.neighborEnd(polyIdx);
+            for (int k = start; k < end; k++) {
+                sum += heights[adjacency.neighborAt(k)];
             }
-            averaged[polyIdx] = sum / neighbors.length;
+            averaged[polyIdx] = sum / (end - start + 1);
         }
 
         return averaged;
@@ -520,12 +522,14 @@ public class JavaFxPlanetMeshConverter {
         double[] averaged = new double[polygons.size()];
 
         for (int polyIdx = 0; polyIdx < polygons.size(); polyIdx++) {
-            int[] neighbors = adjacency.neighbors(polyIdx); // includes self
-            double sum = 0;
-            for (int neighborIdx : neighbors) {
-                sum += preciseHeights[neighborIdx];
+            // The polygon itself, then its neighbors, in the order the sum was always taken
+            double sum = preciseHeights[polyIdx];
+            int start = adjacency.neighborStart(polyIdx);
+            int end = adjacency.neighborEnd(polyIdx);
+            for (int k = start; k < end; k++) {
+                sum += preciseHeights[adjacency.neighborAt(k)];
             }
-            averaged[polyIdx] = sum / neighbors.length;
+            averaged[polyIdx] = sum / (end - start + 1);
         }
 
         return averaged;
@@ -0,0 +1,644 @@
+package com.teamgannon.trips.planetarymodelling.procedural;
+
+import com.teamgannon.trips.config.application.Localization;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetGenerator.GeneratedPlanet;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Disk store of generated planets.
+ * <p>
+ * The accrete and override snapshots saved with an {@code ExoPlanet} are enough to regenerate
+ * its terrain, but rerunning the {@link PlanetGenerator} pipeline takes seconds for a large
+ * planet. This store writes the full result of a generation (polygon geometry, heights,
+ * climates, plates, boundaries, erosion and adjacency) to a compact binary file under the
+ * {@code programdata} directory, keyed by a hash of the {@link PlanetConfig}. Reopening the
+ * planet memory-maps the file and bulk-copies its sections back, with no generation at all;
+ * the mapping is released before the planet is returned, so the file can be replaced or
+ * deleted straight away.
+ * <p>
+ * <b>File format</b> (little-endian): magic, format version, config hash, polygon count,
+ * generator version and the full config text, then the sections in record order. Arrays
+ * are stored as a length (-1 for null) followed by their elements; lists of index lists
+ * (plates, adjacent plates, rivers, neighbors) as offsets into one flat index array.
+ * Biomes are not stored; {@link GeneratedPlanet#biomes()} derives them from the rest.
+ * <p>
+ * <b>Invalidation:</b> a file is discarded when its format version or
+ * {@link PlanetGenerator#OUTPUT_VERSION} differs from the running code, or when its config text does not match the requested config.
+ * At most {@link #MAX_FILES} planets are kept; the least recently opened are deleted first.
+ */
+@Slf4j
+@Component
+public class PlanetArtifactStore {
+
+    /**
+     * Maximum number of planet files kept.
+     */
+    public static final int MAX_FILES = 64;
+
+    private static final int MAGIC = 0x544E4C50; // "PLNT"
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String STORE_DIRECTORY = "planetcache";
+    private static final String FILE_SUFFIX = ".planet";
+
+    /**
+     * Store root, or null if the programdata directory is not configured.
+     */
+    private final @Nullable Path storeDirectory;
+
+    public PlanetArtifactStore(@NotNull Localization localization) {
+        String programdata = localization.getProgramdata();
+        if (programdata == null || programdata.equals("unknown")) {
+            log.warn("programdata directory not configured, generated planets will not be stored");
+            this.storeDirectory = null;
+        } else {
+            this.storeDirectory = Paths.get(programdata, STORE_DIRECTORY);
+        }
+    }
+
+    // =========================================================================
+    // Lookup
+    // =========================================================================
+
+    /**
+     * Returns the planet for the config, loading it from the store when it was generated
+     * before, and generating and storing it otherwise.
+     *
+     * @param config the planet configuration
+     * @return the generated planet
+     */
+    public @NotNull GeneratedPlanet loadOrGenerate(@NotNull PlanetConfig config) {
+        GeneratedPlanet stored = load(config);
+        if (stored != null) {
+            return stored;
+        }
+        GeneratedPlanet planet = PlanetGenerator.generate(config);
+        store(planet);
+        return planet;
+    }
+
+    /**
+     * Loads the stored planet for the config.
+     *
+     * @param config the planet configuration
+     * @return the planet, or null if none is stored or the stored file is stale
+     */
+    public @Nullable GeneratedPlanet load(@NotNull PlanetConfig config) {
+        Path file = artifactFile(config);
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+        try {
+            long start = System.nanoTime();
+            GeneratedPlanet planet = read(file, config);
+            log.info("Loaded planet {} ({} polygons) from store in {} ms",
+                    file.getFileName(), planet.polygons().size(), (System.nanoTime() - start) / 1_000_000);
+            touch(file);
+            return planet;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable planet file {}: {}", file, e.getMessage());
+            deleteQuietly(file);
+            return null;
+        }
+    }
+
+    /**
+     * Marks a file as recently used, so pruning keeps it.
+     */
+    private static void touch(@NotNull Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Failed to touch {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the planet to the store, replacing any earlier file for its config.
+     *
+     * @param planet the generated planet
+     */
+    public void store(@NotNull GeneratedPlanet planet) {
+        Path file = artifactFile(planet.config());
+        if (file == null) {
+            return;
+        }
+        try {
+            write(file, planet);
+            prune();
+        } catch (IOException e) {
+            log.warn("Failed to write planet file {}: {}", file, e.getMessage());
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Deletes the stored planet for the config, if any.
+     *
+     * @param config the planet configuration
+     */
+    public void evict(@NotNull PlanetConfig config) {
+        Path file = artifactFile(config);
+        if (file != null) {
+            deleteQuietly(file);
+        }
+    }
+
+    // =========================================================================
+    // Keys and Files
+    // =========================================================================
+
+    /**
+     * Hashes the config text. Record {@code hashCode()} is not used because enum hash codes
+     * differ between runs.
+     */
+    static long configHash(@NotNull PlanetConfig config) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : config.toString().getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private @Nullable Path artifactFile(@NotNull PlanetConfig config) {
+        if (storeDirectory == null) {
+            return null;
+        }
+        return storeDirectory.resolve("%016x%s".formatted(configHash(config), FILE_SUFFIX));
+    }
+
+    /**
+     * Keeps only the most recently used files.
+     */
+    private void prune() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(storeDirectory)) {
+            files = list.filter(path -> path.toString().endsWith(FILE_SUFFIX)).toList();
+        }
+        if (files.size() <= MAX_FILES) {
+            return;
+        }
+        Map<Path, Long> modified = new HashMap<>();
+        for (Path file : files) {
+            modified.put(file, Files.getLastModifiedTime(file).toMillis());
+        }
+        files.stream()
+                .sorted(Comparator.comparing(modified::get))
+                .limit(files.size() - MAX_FILES)
+                .forEach(PlanetArtifactStore::deleteQuietly);
+    }
+
+    private static void deleteQuietly(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    // =========================================================================
+    // Binary Format
+    // =========================================================================
+
+    static void write(@NotNull Path file, @NotNull GeneratedPlanet planet) throws IOException {
+        PlanetConfig config = planet.config();
+        List<Polygon> polygons = planet.polygons();
+        int n = polygons.size();
+
+        Output out = new Output(1024 + n * 256);
+        out.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(configHash(config))
+                .putInt(n)
+                .putString(PlanetGenerator.OUTPUT_VERSION)
+                .putString(config.toString());
+
+        // Polygons
+        PolygonMesh mesh = planet.adjacency() != null ? planet.adjacency().mesh() : PolygonMesh.of(polygons);
+        out.putInts(mesh.vertexOffsets()).putDoubles(mesh.centers()).putDoubles(mesh.vertices());
+
+        // Terrain
+        out.putInts(planet.heights()).putDoubles(planet.baseHeights());
+        out.putBytes(ordinals(planet.climates()));
+
+        // Plates
+        PlateAssigner.PlateAssignment plates = planet.plateAssignment();
+        out.putBoolean(plates != null);
+        if (plates != null) {
+            out.putInts(plates.plateIndex())
+                    .putIndexLists(plates.plates())
+                    .putIndexLists(plates.adjacentPlates());
+        }
+
+        // Boundaries
+        BoundaryDetector.BoundaryAnalysis boundaries = planet.boundaryAnalysis();
+        out.putBoolean(boundaries != null);
+        if (boundaries != null) {
+            out.putBytes(ordinals(boundaries.plateTypes()));
+            Map<BoundaryDetector.PlatePair, BoundaryDetector.BoundaryType> map = boundaries.boundaries();
+            int[] pairs = new int[map.size() * 2];
+            byte[] types = new byte[map.size()];
+            int entry = 0;
+            for (Map.Entry<BoundaryDetector.PlatePair, BoundaryDetector.BoundaryType> boundary : map.entrySet()) {
+                pairs[entry * 2] = boundary.getKey().plate1();
+                pairs[entry * 2 + 1] = boundary.getKey().plate2();
+                types[entry++] = (byte) boundary.getValue().ordinal();
+            }
+            out.putInts(pairs).putBytes(types).putInts(toIntArray(boundaries.sizeOrder()));
+        }
+
+        // Erosion
+        ErosionCalculator.ErosionResult erosion = planet.erosionResult();
+        out.putBoolean(erosion != null);
+        if (erosion != null) {
+            out.putInts(erosion.erodedHeights())
+                    .putDoubles(erosion.preciseHeights())
+                    .putIndexLists(erosion.rivers())
+                    .putDoubles(erosion.rainfall())
+                    .putBooleans(erosion.frozenRiverTerminus())
+                    .putDoubles(erosion.flowAccumulation())
+                    .putBooleans(erosion.lakeMask());
+        }
+
+        // Adjacency
+        AdjacencyGraph adjacency = planet.adjacency();
+        out.putBoolean(adjacency != null);
+        if (adjacency != null) {
+            out.putInts(adjacency.offsets()).putInts(adjacency.indices());
+        }
+
+        ByteBuffer buffer = out.buffer.flip();
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static @NotNull GeneratedPlanet read(@NotNull Path file, @NotNull PlanetConfig config) throws IOException {
+        // every section is copied out, so the mapping can be closed before returning
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return read(new Input(mapped.asByteBuffer().order(ByteOrder.LITTLE_ENDIAN)), config);
+        }
+    }
+
+    private static @NotNull GeneratedPlanet read(@NotNull Input in, @NotNull PlanetConfig config) throws IOException {
+        if (in.buffer.remaining() < 20 || in.buffer.getInt() != MAGIC || in.buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("not a planet file");
+        }
+        if (in.buffer.getLong() != configHash(config)) {
+            throw new IOException("config hash mismatch");
+        }
+        int n = in.buffer.getInt();
+        if (!PlanetGenerator.OUTPUT_VERSION.equals(in.getString())) {
+            throw new IOException("stored by a different generator version");
+        }
+        if (!config.toString().equals(in.getString())) {
+            throw new IOException("config mismatch");
+        }
+
+        // Polygons
+        int[] vertexOffsets = in.getInts();
+        double[] centers = in.getDoubles();
+        double[] vertices = in.getDoubles();
+        if (vertexOffsets.length != n + 1 || centers.length != n * 3
+                || vertices.length != vertexOffsets[n] * 3) {
+            throw new IOException("corrupt polygon section");
+        }
+        PolygonMesh mesh = new PolygonMesh(centers, vertexOffsets, vertices);
+        List<Polygon> polygons = mesh.asPolygons();
+
+        // Terrain
+        int[] heights = in.getInts();
+        double[] baseHeights = in.getDoubles();
+        ClimateCalculator.ClimateZone[] climates = values(in.getBytes(),
+                ClimateCalculator.ClimateZone.values(), ClimateCalculator.ClimateZone[]::new);
+
+        // Plates
+        PlateAssigner.PlateAssignment plates = null;
+        if (in.getBoolean()) {
+            int[] plateIndex = in.getInts();
+            List<List<Integer>> plateMembers = in.getIndexLists();
+            List<List<Integer>> adjacentLists = in.getIndexLists();
+            List<Set<Integer>> adjacentPlates = null;
+            if (adjacentLists != null) {
+                adjacentPlates = new ArrayList<>(adjacentLists.size());
+                for (List<Integer> adjacent : adjacentLists) {
+                    adjacentPlates.add(new HashSet<>(adjacent));
+                }
+            }
+            plates = new PlateAssigner.PlateAssignment(plateIndex, plateMembers, adjacentPlates);
+        }
+
+        // Boundaries
+        BoundaryDetector.BoundaryAnalysis boundaries = null;
+        if (in.getBoolean()) {
+            BoundaryDetector.PlateType[] plateTypes = values(in.getBytes(),
+                    BoundaryDetector.PlateType.values(), BoundaryDetector.PlateType[]::new);
+            int[] pairs = in.getInts();
+            BoundaryDetector.BoundaryType[] types = values(in.getBytes(),
+                    BoundaryDetector.BoundaryType.values(), BoundaryDetector.BoundaryType[]::new);
+            if (types == null || pairs == null || pairs.length != types.length * 2) {
+                throw new IOException("corrupt boundary section");
+            }
+            Map<BoundaryDetector.PlatePair, BoundaryDetector.BoundaryType> map = new HashMap<>();
+            for (int i = 0; i < types.length; i++) {
+                map.put(new BoundaryDetector.PlatePair(pairs[i * 2], pairs[i * 2 + 1]), types[i]);
+            }
+            int[] sizeOrderArray = in.getInts();
+            List<Integer> sizeOrder = null;
+            if (sizeOrderArray != null) {
+                sizeOrder = new ArrayList<>(sizeOrderArray.length);
+                for (int plate : sizeOrderArray) {
+                    sizeOrder.add(plate);
+                }
+            }
+            boundaries = new BoundaryDetector.BoundaryAnalysis(plateTypes, map, sizeOrder);
+        }
+
+        // Erosion
+        ErosionCalculator.ErosionResult erosion = null;
+        if (in.getBoolean()) {
+            erosion = new ErosionCalculator.ErosionResult(
+                    in.getInts(),
+                    in.getDoubles(),
+                    in.getIndexLists(),
+                    in.getDoubles(),
+                    in.getBooleans(),
+                    in.getDoubles(),
+                    in.getBooleans());
+        }
+
+        // Adjacency
+        AdjacencyGraph adjacency = null;
+        if (in.getBoolean()) {
+            int[] neighborOffsets = in.getInts();
+            int[] neighbors = in.getInts();
+            if (neighborOffsets == null || neighbors == null || neighborOffsets.length != n + 1) {
+                throw new IOException("corrupt adjacency section");
+            }
+            adjacency = new AdjacencyGraph(mesh, neighborOffsets, neighbors);
+        }
+
+        if (in.buffer.hasRemaining()) {
+            throw new IOException("trailing data");
+        }
+        return new GeneratedPlanet(config, polygons, heights, baseHeights, climates,
+                plates, boundaries, erosion, adjacency);
+    }
+
+    private static byte @Nullable [] ordinals(Enum<?> @Nullable [] values) {
+        if (values == null) {
+            return null;
+        }
+        byte[] ordinals = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            ordinals[i] = (byte) values[i].ordinal();
+        }
+        return ordinals;
+    }
+
+    private static <E extends Enum<E>> E @Nullable [] values(byte @Nullable [] ordinals, E[] constants,
+                                                              IntFunction<E[]> arrayFactory) {
+        if (ordinals == null) {
+            return null;
+        }
+        E[] values = arrayFactory.apply(ordinals.length);
+        for (int i = 0; i < ordinals.length; i++) {
+            values[i] = constants[ordinals[i]];
+        }
+        return values;
+    }
+
+    private static int @Nullable [] toIntArray(@Nullable List<Integer> list) {
+        return list == null ? null : list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Growable little-endian output buffer.
+     */
+    private static final class Output {
+
+        private ByteBuffer buffer;
+
+        Output(int initialCapacity) {
+            buffer = ByteBuffer.allocate(initialCapacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private void ensure(long bytes) {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            long capacity = Math.max((long) buffer.capacity() * 2, buffer.position() + bytes);
+            if (capacity > Integer.MAX_VALUE) {
+                throw new IllegalStateException("planet too large to store");
+            }
+            ByteBuffer grown = ByteBuffer.allocate((int) capacity).order(ByteOrder.LITTLE_ENDIAN);
+            grown.put(buffer.flip());
+            buffer = grown;
+        }
+
+        Output putInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+            return this;
+        }
+
+        Output putLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+            return this;
+        }
+
+        Output putBoolean(boolean value) {
+            ensure(1);
+            buffer.put((byte) (value ? 1 : 0));
+            return this;
+        }
+
+        Output putString(String value) {
+            return putBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        Output putBytes(byte @Nullable [] values) {
+            if (values == null) {
+                return putInt(-1);
+            }
+            putInt(values.length);
+            ensure(values.length);
+            buffer.put(values);
+            return this;
+        }
+
+        Output putBooleans(boolean @Nullable [] values) {
+            if (values == null) {
+                return putInt(-1);
+            }
+            byte[] bytes = new byte[values.length];
+            for (int i = 0; i < values.length; i++) {
+                bytes[i] = (byte) (values[i] ? 1 : 0);
+            }
+            return putBytes(bytes);
+        }
+
+        Output putInts(int @Nullable [] values) {
+            if (values == null) {
+                return putInt(-1);
+            }
+            putInt(values.length);
+            ensure((long) values.length * Integer.BYTES);
+            buffer.asIntBuffer().put(values);
+            buffer.position(buffer.position() + values.length * Integer.BYTES);
+            return this;
+        }
+
+        Output putDoubles(double @Nullable [] values) {
+            if (values == null) {
+                return putInt(-1);
+            }
+            putInt(values.length);
+            ensure((long) values.length * Double.BYTES);
+            buffer.asDoubleBuffer().put(values);
+            buffer.position(buffer.position() + values.length * Double.BYTES);
+            return this;
+        }
+
+        /**
+         * Writes index lists as offsets into one flat index array.
+         */
+        Output putIndexLists(@Nullable List<? extends Collection<Integer>> lists) {
+            if (lists == null) {
+                putInts(null);
+                return putInts(null);
+            }
+            int[] offsets = new int[lists.size() + 1];
+            for (int i = 0; i < lists.size(); i++) {
+                offsets[i + 1] = offsets[i] + lists.get(i).size();
+            }
+            int[] indices = new int[offsets[lists.size()]];
+            int next = 0;
+            for (Collection<Integer> list : lists) {
+                for (int index : list) {
+                    indices[next++] = index;
+                }
+            }
+            return putInts(offsets).putInts(indices);
+        }
+    }
+
+    /**
+     * Reader over a mapped little-endian buffer; everything it returns is a copy.
+     */
+    private static final class Input {
+
+        private final ByteBuffer buffer;
+
+        Input(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private int length(int elementBytes) throws IOException {
+            int length = buffer.getInt();
+            if (length < -1 || (long) length * elementBytes > buffer.remaining()) {
+                throw new IOException("corrupt section length " + length);
+            }
+            return length;
+        }
+
+        boolean getBoolean() {
+            return buffer.get() != 0;
+        }
+
+        String getString() throws IOException {
+            byte[] bytes = getBytes();
+            if (bytes == null) {
+                throw new IOException("missing string");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        byte @Nullable [] getBytes() throws IOException {
+            int length = length(1);
+            if (length < 0) {
+                return null;
+            }
+            byte[] values = new byte[length];
+            buffer.get(values);
+            return values;
+        }
+
+        boolean @Nullable [] getBooleans() throws IOException {
+            byte[] bytes = getBytes();
+            if (bytes == null) {
+                return null;
+            }
+            boolean[] values = new boolean[bytes.length];
+            for (int i = 0; i < bytes.length; i++) {
+                values[i] = bytes[i] != 0;
+            }
+            return values;
+        }
+
+        int @Nullable [] getInts() throws IOException {
+            int length = length(Integer.BYTES);
+            if (length < 0) {
+                return null;
+            }
+            int[] values = new int[length];
+            buffer.asIntBuffer().get(values);
+            buffer.position(buffer.position() + length * Integer.BYTES);
+            return values;
+        }
+
+        double @Nullable [] getDoubles() throws IOException {
+            int length = length(Double.BYTES);
+            if (length < 0) {
+                return null;
+            }
+            double[] values = new double[length];
+            buffer.asDoubleBuffer().get(values);
+            buffer.position(buffer.position() + length * Double.BYTES);
+            return values;
+        }
+
+        @Nullable List<List<Integer>> getIndexLists() throws IOException {
+            int[] offsets = getInts();
+            int[] indices = getInts();
+            if (offsets == null || indices == null) {
+                return null;
+            }
+            List<List<Integer>> lists = new ArrayList<>(offsets.length - 1);
+            for (int i = 0; i + 1 < offsets.length; i++) {
+                List<Integer> list = new ArrayList<>(offsets[i + 1] - offsets[i]);
+                for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                    list.add(indices[j]);
+                }
+                lists.add(list);
+            }
+            return lists;
+        }
+    }
+}
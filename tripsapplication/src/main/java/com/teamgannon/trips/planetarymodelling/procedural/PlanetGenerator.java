@@ -15,6 +15,13 @@ import java.util.List;
  */
 public class PlanetGenerator {
 
+    /**
+     * Version of what the pipeline produces, stored in every {@link PlanetArtifactStore} file so
+     * that files written by older code are regenerated. Any change to the pipeline that alters
+     * its output for a given config must bump this.
+     */
+    static final String OUTPUT_VERSION = "2026-10-17";
+
     private final PlanetConfig config;
     private final GenerationProgressListener listener;
 
@@ -218,13 +225,7 @@ public class PlanetGenerator {
          * @return Array of BiomeType for each polygon
          */
         public BiomeType[] biomes() {
-            // Build adjacency array format expected by BiomeClassifier
-            int[][] adjacencies = new int[polygons.size()][];
-            for (int i = 0; i < polygons.size(); i++) {
-                adjacencies[i] = adjacency.neighbors(i);
-            }
-
-            return BiomeClassifier.classify(heights, climates, erosionResult, adjacencies);
+            return new BiomeClassifier(heights, climates, erosionResult, adjacency).classify();
         }
 
         /**
@@ -252,7 +253,8 @@ public class PlanetGenerator {
             listener.onPhaseStarted(currentPhase,
                 "Creating icosahedral mesh with " + config.polyCount() + " polygons");
             IcosahedralMesh mesh = new IcosahedralMesh(config);
-            List<Polygon> polygons = mesh.generate();
+            PolygonMesh flatMesh = mesh.generateFlat();
+            List<Polygon> polygons = flatMesh.asPolygons();
             listener.onProgressUpdate(currentPhase, 1.0);
             listener.onPhaseCompleted(currentPhase);
 
@@ -260,7 +262,7 @@ public class PlanetGenerator {
             currentPhase = GenerationProgressListener.Phase.ADJACENCY_GRAPH;
             listener.onPhaseStarted(currentPhase,
                 "Building adjacency relationships");
-            AdjacencyGraph adjacency = new AdjacencyGraph(polygons);
+            AdjacencyGraph adjacency = new AdjacencyGraph(flatMesh);
             listener.onProgressUpdate(currentPhase, 1.0);
             listener.onPhaseCompleted(currentPhase);
 
@@ -317,7 +319,7 @@ public class PlanetGenerator {
             listener.onPhaseStarted(currentPhase,
                 "Assigning climate zones using " + config.climateModel() + " model");
             ClimateCalculator climateCalc = new ClimateCalculator(
-                polygons, config.climateModel(),
+                flatMesh, config.climateModel(),
                 config.axialTiltDegrees(), config.seasonalOffsetDegrees(), config.seasonalSamples());
             ClimateCalculator.ClimateZone[] climates = climateCalc.calculate();
             validateClimates(polygons.size(), climates);
@@ -74,7 +74,8 @@ public class PlateAssigner {
                     done[p] = true;
                     placed++;
 
-                    for (int neighbor : adjacency.neighborsOnly(candidate)) {
+                    for (int k = adjacency.neighborStart(candidate); k < adjacency.neighborEnd(candidate); k++) {
+                        int neighbor = adjacency.neighborAt(k);
                         if (plateIndex[neighbor] == UNASSIGNED) {
                             plateIndex[neighbor] = CENTER_ADJACENT;
                         }
@@ -98,7 +99,8 @@ public class PlateAssigner {
         double distortion = calculateDistortion(progress);
 
         for (int polyIdx : currentPolys) {
-            for (int neighbor : adjacency.neighborsOnly(polyIdx)) {
+            for (int k = adjacency.neighborStart(polyIdx); k < adjacency.neighborEnd(polyIdx); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 if (plateIndex[neighbor] == UNASSIGNED) {
                     if (random.nextDouble() < distortion) {
                         plateIndex[neighbor] = plateIdx;
@@ -0,0 +1,157 @@
+package com.teamgannon.trips.planetarymodelling.procedural;
+
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Flat, structure-of-arrays view of a Goldberg polyhedron.
+ * <p>
+ * Polygon centers are stored as one {@code double[]} of xyz triples, and polygon vertices
+ * as one {@code double[]} of xyz triples indexed through CSR offsets: the vertices of
+ * polygon {@code i} are entries {@code vertexStart(i)} (inclusive) to {@code vertexEnd(i)}
+ * (exclusive). Pipeline stages that walk the whole mesh read these arrays instead of
+ * dereferencing a {@link Polygon} record and its {@link Vector3D} list per polygon.
+ * <p>
+ * The mesh is immutable; the arrays returned by the package-private accessors must not be
+ * modified. Callers that still want {@link Polygon} records get them from
+ * {@link #asPolygons()}, a view that builds each record when it is read.
+ */
+public final class PolygonMesh {
+
+    private final double[] centers;
+    private final int[] vertexOffsets;
+    private final double[] vertices;
+    private final List<Polygon> polygonView = new PolygonView();
+
+    PolygonMesh(double[] centers, int[] vertexOffsets, double[] vertices) {
+        if (centers.length != (vertexOffsets.length - 1) * 3
+                || vertices.length != vertexOffsets[vertexOffsets.length - 1] * 3) {
+            throw new IllegalArgumentException("Inconsistent mesh arrays");
+        }
+        this.centers = centers;
+        this.vertexOffsets = vertexOffsets;
+        this.vertices = vertices;
+    }
+
+    /**
+     * Creates the flat view of a list of polygons.
+     *
+     * @param polygons the polygons, in index order
+     * @return the mesh
+     */
+    public static PolygonMesh of(List<Polygon> polygons) {
+        int n = polygons.size();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + polygons.get(i).vertexCount();
+        }
+        double[] centers = new double[n * 3];
+        double[] vertices = new double[offsets[n] * 3];
+        for (int i = 0; i < n; i++) {
+            Polygon polygon = polygons.get(i);
+            put(centers, i, polygon.center());
+            List<Vector3D> polygonVertices = polygon.vertices();
+            for (int v = 0; v < polygonVertices.size(); v++) {
+                put(vertices, offsets[i] + v, polygonVertices.get(v));
+            }
+        }
+        return new PolygonMesh(centers, offsets, vertices);
+    }
+
+    static void put(double[] target, int index, Vector3D vector) {
+        target[index * 3] = vector.getX();
+        target[index * 3 + 1] = vector.getY();
+        target[index * 3 + 2] = vector.getZ();
+    }
+
+    public int size() {
+        return vertexOffsets.length - 1;
+    }
+
+    public double centerX(int polygon) {
+        return centers[polygon * 3];
+    }
+
+    public double centerY(int polygon) {
+        return centers[polygon * 3 + 1];
+    }
+
+    public double centerZ(int polygon) {
+        return centers[polygon * 3 + 2];
+    }
+
+    /**
+     * Squared distance between two polygon centers.
+     */
+    public double centerDistanceSq(int polygon1, int polygon2) {
+        double dx = centers[polygon2 * 3] - centers[polygon1 * 3];
+        double dy = centers[polygon2 * 3 + 1] - centers[polygon1 * 3 + 1];
+        double dz = centers[polygon2 * 3 + 2] - centers[polygon1 * 3 + 2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    public int vertexStart(int polygon) {
+        return vertexOffsets[polygon];
+    }
+
+    public int vertexEnd(int polygon) {
+        return vertexOffsets[polygon + 1];
+    }
+
+    public double vertexX(int vertex) {
+        return vertices[vertex * 3];
+    }
+
+    public double vertexY(int vertex) {
+        return vertices[vertex * 3 + 1];
+    }
+
+    public double vertexZ(int vertex) {
+        return vertices[vertex * 3 + 2];
+    }
+
+    /**
+     * The mesh as a read-only list of polygons. The list holds no copy of the mesh: each
+     * {@code get} builds a new {@link Polygon}, so code that walks the mesh repeatedly should
+     * use the array accessors instead.
+     */
+    public List<Polygon> asPolygons() {
+        return polygonView;
+    }
+
+    // Raw arrays, for bulk copies
+
+    double[] centers() {
+        return centers;
+    }
+
+    int[] vertexOffsets() {
+        return vertexOffsets;
+    }
+
+    double[] vertices() {
+        return vertices;
+    }
+
+    private final class PolygonView extends AbstractList<Polygon> implements RandomAccess {
+
+        @Override
+        public Polygon get(int index) {
+            Vector3D[] polygonVertices = new Vector3D[vertexEnd(index) - vertexStart(index)];
+            for (int v = 0; v < polygonVertices.length; v++) {
+                int vertex = vertexStart(index) + v;
+                polygonVertices[v] = new Vector3D(vertexX(vertex), vertexY(vertex), vertexZ(vertex));
+            }
+            return new Polygon(new Vector3D(centerX(index), centerY(index), centerZ(index)),
+                    List.of(polygonVertices));
+        }
+
+        @Override
+        public int size() {
+            return PolygonMesh.this.size();
+        }
+    }
+}
@@ -29,7 +29,7 @@ import java.util.concurrent.CountDownLatch;
 public final class ProceduralPlanetPersistenceHelper {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
-    private static final String GENERATOR_VERSION = "2026-01-18";
+    static final String GENERATOR_VERSION = "2026-01-18";
 
     private ProceduralPlanetPersistenceHelper() {}
 
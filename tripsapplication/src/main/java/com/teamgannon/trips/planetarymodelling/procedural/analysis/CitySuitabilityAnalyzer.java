@@ -167,7 +167,8 @@ public class CitySuitabilityAnalyzer {
             if (heights[i] < 0) continue;
 
             // Check neighbors for ocean
-            for (int neighbor : adjacency.neighborsOnly(i)) {
+            for (int k = adjacency.neighborStart(i); k < adjacency.neighborEnd(i); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 if (heights[neighbor] < 0) {
                     coastalMask[i] = true;
                     break;
@@ -196,7 +197,8 @@ public class CitySuitabilityAnalyzer {
         // Mark river polygons and their neighbors
         for (int riverPoly : riverPolygons) {
             riverAdjacentMask[riverPoly] = true;
-            for (int neighbor : adjacency.neighborsOnly(riverPoly)) {
+            for (int k = adjacency.neighborStart(riverPoly); k < adjacency.neighborEnd(riverPoly); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 if (heights[neighbor] >= 0) {  // Only land
                     riverAdjacentMask[neighbor] = true;
                 }
@@ -1,5 +1,6 @@
 package com.teamgannon.trips.planetarymodelling.procedural.biome;
 
+import com.teamgannon.trips.planetarymodelling.procedural.AdjacencyGraph;
 import com.teamgannon.trips.planetarymodelling.procedural.ClimateCalculator;
 import com.teamgannon.trips.planetarymodelling.procedural.ErosionCalculator;
 
@@ -59,11 +60,38 @@ public class BiomeClassifier {
             ErosionCalculator.ErosionResult erosionResult,
             int[][] adjacencies) {
 
+        this(heights, climates, erosionResult, computeCoastalMask(heights, adjacencies));
+    }
+
+    /**
+     * Creates a new BiomeClassifier that reads coastal neighbors straight from the
+     * shared adjacency graph, without copying them into per-polygon arrays.
+     *
+     * @param heights Integer height values for each polygon
+     * @param climates Climate zone assignments
+     * @param erosionResult Erosion result containing rainfall and lake data
+     * @param adjacency Adjacency graph over the same polygons
+     */
+    public BiomeClassifier(
+            int[] heights,
+            ClimateCalculator.ClimateZone[] climates,
+            ErosionCalculator.ErosionResult erosionResult,
+            AdjacencyGraph adjacency) {
+
+        this(heights, climates, erosionResult, computeCoastalMask(heights, adjacency));
+    }
+
+    private BiomeClassifier(
+            int[] heights,
+            ClimateCalculator.ClimateZone[] climates,
+            ErosionCalculator.ErosionResult erosionResult,
+            int[] coastalMask) {
+
         this.heights = heights;
         this.climates = climates;
         this.rainfall = erosionResult != null ? erosionResult.rainfall() : new double[heights.length];
         this.lakeMask = erosionResult != null ? erosionResult.lakeMask() : null;
-        this.coastalMask = computeCoastalMask(adjacencies);
+        this.coastalMask = coastalMask;
     }
 
     /**
@@ -194,7 +222,7 @@ public class BiomeClassifier {
      *
      * @return Array where 0 = coastal, -1 = not coastal
      */
-    private int[] computeCoastalMask(int[][] adjacencies) {
+    private static int[] computeCoastalMask(int[] heights, int[][] adjacencies) {
         if (adjacencies == null) {
             return null;
         }
@@ -220,6 +248,31 @@ public class BiomeClassifier {
         return mask;
     }
 
+    /**
+     * Computes which polygons are coastal from the adjacency graph.
+     *
+     * @return Array where 0 = coastal, -1 = not coastal
+     */
+    private static int[] computeCoastalMask(int[] heights, AdjacencyGraph adjacency) {
+        int[] mask = new int[heights.length];
+        java.util.Arrays.fill(mask, -1);
+
+        for (int i = 0; i < heights.length; i++) {
+            // Only consider land polygons
+            if (heights[i] < 0) continue;
+
+            // Check if any neighbor is ocean
+            for (int k = adjacency.neighborStart(i); k < adjacency.neighborEnd(i); k++) {
+                if (heights[adjacency.neighborAt(k)] < 0) {
+                    mask[i] = 0;  // This polygon is coastal
+                    break;
+                }
+            }
+        }
+
+        return mask;
+    }
+
     /**
      * Static factory method for easy classification.
      *
@@ -241,7 +241,8 @@ public class CraterCalculator {
             int plate = plateIndex[i];
             BoundaryDetector.BoundaryType boundaryType = null;
 
-            for (int neighbor : adjacency.neighborsOnly(i)) {
+            for (int k = adjacency.neighborStart(i); k < adjacency.neighborEnd(i); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 int neighborPlate = plateIndex[neighbor];
                 if (neighborPlate != plate) {
                     BoundaryDetector.PlatePair pair = new BoundaryDetector.PlatePair(
@@ -413,7 +414,8 @@ public class CraterCalculator {
 
             if (currentDist >= maxRadius) continue;
 
-            for (int neighbor : adjacency.neighborsOnly(current)) {
+            for (int k = adjacency.neighborStart(current); k < adjacency.neighborEnd(current); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 if (!distances.containsKey(neighbor)) {
                     distances.put(neighbor, currentDist + 1);
                     result.add(neighbor);
@@ -443,7 +445,8 @@ public class CraterCalculator {
 
             if (currentDist >= maxRadius) continue;
 
-            for (int neighbor : adjacency.neighborsOnly(current)) {
+            for (int k = adjacency.neighborStart(current); k < adjacency.neighborEnd(current); k++) {
+                int neighbor = adjacency.neighborAt(k);
                 if (!distances.containsKey(neighbor)) {
                     distances.put(neighbor, currentDist + 1);
                     queue.add(neighbor);
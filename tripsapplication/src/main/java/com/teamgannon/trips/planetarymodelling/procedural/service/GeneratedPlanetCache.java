@@ -0,0 +1,138 @@
+package com.teamgannon.trips.planetarymodelling.procedural.service;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetConfig;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetGenerator;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetGenerator.GeneratedPlanet;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * Bounded cache of generated planets, keyed by {@link PlanetConfig}.
+ * <p>
+ * A generated planet holds its polygon geometry and several per-polygon arrays, so its
+ * memory grows with the polygon count. The cache weighs each planet by an estimate from
+ * that count and evicts the least recently used planets once the total passes its limit.
+ * With soft values, the garbage collector may also reclaim planets before that, when the
+ * heap runs short.
+ * <p>
+ * Concurrent requests for a config that is not cached wait for a single generation.
+ * Hits, misses, evictions and the estimated weight are reported to Micrometer, as the
+ * {@code cache.*} meters tagged {@code cache=<name>}.
+ */
+public class GeneratedPlanetCache {
+
+    /**
+     * Rough heap footprint of one polygon: its center and vertices in the flat mesh, plus its
+     * share of the heights, climates, plates, erosion arrays and adjacency lists.
+     */
+    static final long ESTIMATED_BYTES_PER_POLYGON = 350;
+
+    /** Default limit on the estimated size of the cached planets */
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private final LoadingCache<PlanetConfig, GeneratedPlanet> cache;
+
+    /**
+     * Creates a cache generating missing planets with {@link PlanetGenerator#generate(PlanetConfig)}.
+     *
+     * @param name       the cache name, used as the metrics tag
+     * @param maxBytes   limit on the estimated size of the cached planets
+     * @param softValues whether the garbage collector may reclaim cached planets
+     * @param registry   registry for the cache metrics
+     */
+    public GeneratedPlanetCache(@NotNull String name, long maxBytes, boolean softValues,
+                                @NotNull MeterRegistry registry) {
+        this(name, maxBytes, softValues, registry, PlanetGenerator::generate);
+    }
+
+    GeneratedPlanetCache(@NotNull String name, long maxBytes, boolean softValues,
+                         @NotNull MeterRegistry registry,
+                         @NotNull Function<PlanetConfig, GeneratedPlanet> generator) {
+        // One segment, so the weight limit and LRU order span the whole cache; loads
+        // run outside the segment lock, so different configs still generate in parallel
+        CacheBuilder<PlanetConfig, GeneratedPlanet> builder = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(Math.max(1, maxBytes / 1024))
+                .weigher((PlanetConfig config, GeneratedPlanet planet) -> weightKb(planet))
+                .recordStats();
+        if (softValues) {
+            builder.softValues();
+        }
+        cache = builder.build(CacheLoader.from(generator::apply));
+
+        GuavaCacheMetrics.monitor(registry, cache, name);
+        Gauge.builder("cache.weight", this, GeneratedPlanetCache::estimatedBytes)
+                .tag("cache", name)
+                .description("Estimated heap held by the cached planets")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Returns the planet for the config, generating it if it is not cached.
+     * A generation already running for the config is waited for rather than repeated.
+     */
+    public @NotNull GeneratedPlanet get(@NotNull PlanetConfig config) {
+        try {
+            return cache.getUnchecked(config);
+        } catch (UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (ExecutionError e) {
+            throw (Error) e.getCause();
+        }
+    }
+
+    /**
+     * Returns the cached planet for the config, or null if it is not cached.
+     */
+    public @Nullable GeneratedPlanet getIfPresent(@NotNull PlanetConfig config) {
+        return cache.getIfPresent(config);
+    }
+
+    public void put(@NotNull PlanetConfig config, @NotNull GeneratedPlanet planet) {
+        cache.put(config, planet);
+    }
+
+    public void invalidate(@NotNull PlanetConfig config) {
+        cache.invalidate(config);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the estimated heap held by the cached planets.
+     */
+    public long estimatedBytes() {
+        long bytes = 0;
+        for (GeneratedPlanet planet : cache.asMap().values()) {
+            bytes += estimateBytes(planet);
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the estimated heap held by a planet, from its polygon count.
+     */
+    static long estimateBytes(@NotNull GeneratedPlanet planet) {
+        return planet.polygons().size() * ESTIMATED_BYTES_PER_POLYGON;
+    }
+
+    private static int weightKb(@NotNull GeneratedPlanet planet) {
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, estimateBytes(planet) / 1024));
+    }
+}
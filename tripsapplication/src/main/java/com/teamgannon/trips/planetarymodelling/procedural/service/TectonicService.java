@@ -2,18 +2,37 @@ package com.teamgannon.trips.planetarymodelling.procedural.service;
 
 import com.teamgannon.trips.planetarymodelling.procedural.*;
 import com.teamgannon.trips.planetarymodelling.procedural.PlanetGenerator.GeneratedPlanet;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 
 /**
  * Service for planet generation with caching.
  * Extend this class and annotate with @Service for Spring integration.
+ * <p>
+ * Generated planets are kept in a {@link GeneratedPlanetCache}, bounded by their estimated
+ * size, with its metrics reported to the given registry (by default the global registry,
+ * which Spring Boot's registry is added to).
  */
 public class TectonicService {
 
+    /** Name the cache metrics are tagged with */
+    public static final String CACHE_NAME = "procedural.planets";
+
     // Cache keyed by full PlanetConfig (record has proper equals/hashCode)
-    private final Map<PlanetConfig, GeneratedPlanet> cache = new ConcurrentHashMap<>();
+    private final GeneratedPlanetCache cache;
+
+    public TectonicService() {
+        this(GeneratedPlanetCache.DEFAULT_MAX_BYTES, false, Metrics.globalRegistry);
+    }
+
+    /**
+     * @param maxCacheBytes limit on the estimated size of the cached planets
+     * @param softValues    whether the garbage collector may reclaim cached planets under memory pressure
+     * @param registry      registry for the cache metrics
+     */
+    public TectonicService(long maxCacheBytes, boolean softValues, MeterRegistry registry) {
+        this.cache = new GeneratedPlanetCache(CACHE_NAME, maxCacheBytes, softValues, registry);
+    }
 
     public GeneratedPlanet generateFromAccrete(long seed, double radiusKm, double massEarths, double waterFraction) {
         PlanetConfig config = PlanetConfig.builder()
@@ -27,7 +46,7 @@ public class TectonicService {
     }
 
     public GeneratedPlanet generate(PlanetConfig config) {
-        return cache.computeIfAbsent(config, PlanetGenerator::generate);
+        return cache.get(config);
     }
 
     public GeneratedPlanet regenerate(PlanetConfig config) {
@@ -37,15 +56,22 @@ public class TectonicService {
     }
 
     public GeneratedPlanet getCached(PlanetConfig config) {
-        return cache.get(config);
+        return cache.getIfPresent(config);
     }
 
     public void evict(PlanetConfig config) {
-        cache.remove(config);
+        cache.invalidate(config);
     }
 
     public void clearCache() {
-        cache.clear();
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the estimated heap held by the cached planets.
+     */
+    public long getCachedBytes() {
+        return cache.estimatedBytes();
     }
 
     private int calculatePlateCount(double massEarths) {
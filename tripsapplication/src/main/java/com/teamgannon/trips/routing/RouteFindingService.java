@@ -12,6 +12,8 @@ import com.teamgannon.trips.transits.TransitRoute;
 import javafx.scene.paint.Color;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -56,10 +58,23 @@ public class RouteFindingService {
     private final StarMeasurementService starMeasurementService;
     private final RouteCache routeCache;
 
+    /**
+     * persistent transit graph cache, null to always build the graph
+     */
+    private final @Nullable TransitGraphCache transitGraphCache;
+
+    @Autowired
     public RouteFindingService(StarMeasurementService starMeasurementService,
-                               RouteCache routeCache) {
+                               RouteCache routeCache,
+                               @Nullable TransitGraphCache transitGraphCache) {
         this.starMeasurementService = starMeasurementService;
         this.routeCache = routeCache;
+        this.transitGraphCache = transitGraphCache;
+    }
+
+    public RouteFindingService(StarMeasurementService starMeasurementService,
+                               RouteCache routeCache) {
+        this(starMeasurementService, routeCache, null);
     }
 
     /**
@@ -133,16 +148,16 @@ public class RouteFindingService {
             }
 
             // Build route graph using appropriate algorithm
-            RouteGraph routeGraph = buildRouteGraph(prunedStars, options);
+            RouteGraph routeGraph = buildRouteGraph(prunedStars, options, dataSet);
 
-            if (routeGraph.getRoutingGraph().edgeSet().isEmpty()) {
+            if (routeGraph.getEdgeCount() == 0) {
                 return RouteFindingResult.failure(
                         "No transits found with the given distance bounds. Try adjusting upper/lower bounds.");
             }
 
             log.info("Built graph with {} vertices and {} edges",
-                    routeGraph.getRoutingGraph().vertexSet().size(),
-                    routeGraph.getRoutingGraph().edgeSet().size());
+                    routeGraph.getVertexCount(),
+                    routeGraph.getEdgeCount());
 
             // Check connectivity
             if (!routeGraph.isConnected(origin, destination)) {
@@ -240,12 +255,16 @@ public class RouteFindingService {
      * which has lower overhead. For larger datasets, uses KD-Tree spatial indexing
      * which provides O(n log n) complexity vs O(n²) brute-force.
      *
+     * KD-Tree graphs come from the transit graph cache when one is configured.
+     *
      * @param stars   the stars to include in the graph
      * @param options the route finding options with distance bounds
+     * @param dataSet the dataset the stars belong to
      * @return the constructed route graph
      */
     private @NotNull RouteGraph buildRouteGraph(@NotNull List<StarDisplayRecord> stars,
-                                                 @NotNull RouteFindingOptions options) {
+                                                 @NotNull RouteFindingOptions options,
+                                                 @NotNull DataSetDescriptor dataSet) {
         double lowerBound = options.getLowerBound();
         double upperBound = options.getUpperBound();
 
@@ -256,6 +275,11 @@ public class RouteFindingService {
         } else {
             // Use KD-Tree for larger datasets (O(n log n) vs O(n²))
             log.debug("Using KD-Tree graph building for {} stars", stars.size());
+            if (transitGraphCache != null) {
+                return new RouteGraph(transitGraphCache.getOrBuild(dataSet.getDataSetName(), stars,
+                        StarDisplayRecord::getStarName, StarDisplayRecord::getActualCoordinates,
+                        lowerBound, upperBound));
+            }
             return RouteGraph.buildWithKDTree(stars, lowerBound, upperBound);
         }
     }
@@ -292,7 +316,7 @@ public class RouteFindingService {
                                                         @NotNull DataSetDescriptor dataSet) {
         // Find the k shortest paths (add 1 because first may be null)
         List<String> kShortestPaths = routeGraph.findKShortestPaths(
-                origin, destination, options.getNumberPaths() + 1);
+                origin, destination, options.getNumberPaths() + 1, options.getSearchAlgorithm());
 
         PossibleRoutes possibleRoutes = new PossibleRoutes();
         possibleRoutes.setDesiredPath("Route %s to %s".formatted(origin, destination));
@@ -29,10 +29,11 @@ public final class RoutingConstants {
      * Maximum number of stars for route finding.
      * <p>
      * With KD-tree based graph building (O(n log n)), we can handle much larger
-     * datasets than the previous O(n²) brute-force approach. The limiting factor
-     * is now Yen's K-shortest paths algorithm rather than edge discovery.
+     * datasets than the previous O(n²) brute-force approach. Yen's K-shortest paths
+     * runs on the compact graph with A* and cost-bounded spur searches, so most spur
+     * searches settle only a few stars and the limit can be set well above 10,000.
      */
-    public static final int GRAPH_THRESHOLD = 10000;
+    public static final int GRAPH_THRESHOLD = 50000;
 
     /**
      * Threshold for switching from brute-force to KD-Tree algorithm.
@@ -41,6 +42,22 @@ public final class RoutingConstants {
      */
     public static final int KDTREE_THRESHOLD = 100;
 
+    /**
+     * Initial corridor radius for dataset-wide route searches, in multiples of the
+     * upper jump distance.
+     */
+    public static final double CORRIDOR_INITIAL_JUMPS = 2.0;
+
+    /**
+     * Factor applied to the corridor radius each time no route is found inside it.
+     */
+    public static final double CORRIDOR_WIDENING_FACTOR = 2.0;
+
+    /**
+     * Maximum number of corridors tried before falling back to the full volume around Sol.
+     */
+    public static final int CORRIDOR_MAX_ATTEMPTS = 4;
+
     /**
      * Default number of alternative paths to find using Yen's K-shortest path algorithm.
      */
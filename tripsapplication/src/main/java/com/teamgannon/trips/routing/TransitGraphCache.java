@@ -0,0 +1,457 @@
+package com.teamgannon.trips.routing;
+
+import com.teamgannon.trips.config.application.Localization;
+import com.teamgannon.trips.routing.automation.CompactRouteGraph;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Persistent cache of transit (neighbor) graphs.
+ * <p>
+ * Building the graph of all star pairs within jump range is O(n log n) per request,
+ * yet for a given dataset and pair of bounds the answer never changes until a star is
+ * added, moved or removed. This cache stores the edge list of each built
+ * {@link CompactRouteGraph} in a compact binary file under the {@code programdata}
+ * directory, so the graph survives across sessions and reloading it is a sequential read.
+ * <p>
+ * <b>Cache key:</b> dataset name, dataset modification stamp, lower and upper bound, and a
+ * fingerprint of the star list (names and coordinates, in order). The fingerprint lets
+ * in-view searches, which pass a filtered subset of a dataset, share the cache safely.
+ * <p>
+ * <b>File format</b> (little-endian): magic, format version, fingerprint, star count
+ * {@code n}, edge count {@code m}, then {@code n + 1} int offsets and {@code m} int
+ * neighbor indices. Each undirected transit is stored once, from its lower-indexed star;
+ * distances are recomputed from the coordinates on load.
+ * <p>
+ * <b>Invalidation:</b> {@link #invalidate(String)} bumps the dataset's modification stamp
+ * and deletes its files. {@code StarService} calls it whenever stars are added, updated
+ * or removed, once the change commits. A graph built before an invalidation is never stored under the new stamp.
+ * Datasets with no cached files are invalidated in memory only; the new stamp is saved
+ * with the next file written.
+ * <p>
+ * The most recently used graphs are also kept in memory.
+ */
+@Slf4j
+@Component
+public class TransitGraphCache {
+
+    /**
+     * Star lists smaller than this are built directly; the file round trip is not worth it.
+     */
+    public static final int MIN_CACHED_STARS = 2000;
+
+    private static final int MAGIC = 0x54524753; // "TRGS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4;
+
+    private static final String CACHE_DIRECTORY = "transitcache";
+    private static final String STAMP_FILE = "stamps.properties";
+    private static final String FILE_SUFFIX = ".bin";
+
+    /**
+     * Maximum number of cached graph files kept per dataset.
+     */
+    private static final int MAX_FILES_PER_DATASET = 16;
+
+    /**
+     * Maximum number of graphs kept in memory.
+     */
+    private static final int MAX_MEMORY_ENTRIES = 4;
+
+    /**
+     * Cache root, or null if the programdata directory is not configured.
+     */
+    private final @Nullable Path cacheDirectory;
+
+    private final Properties stamps = new Properties();
+
+    /**
+     * Directory names of the datasets that may have cached files.
+     */
+    private final Set<String> datasetsOnDisk = new HashSet<>();
+
+    /**
+     * Whether a stamp was bumped in memory without saving the stamps file.
+     */
+    private boolean stampsDirty;
+
+    private final Map<String, CompactRouteGraph> memory = new LinkedHashMap<>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CompactRouteGraph> eldest) {
+            return size() > MAX_MEMORY_ENTRIES;
+        }
+    };
+
+    private long hits;
+    private long misses;
+
+    public TransitGraphCache(@NotNull Localization localization) {
+        String programdata = localization.getProgramdata();
+        if (programdata == null || programdata.equals("unknown")) {
+            log.warn("programdata directory not configured, transit graph cache is memory only");
+            this.cacheDirectory = null;
+        } else {
+            this.cacheDirectory = Paths.get(programdata, CACHE_DIRECTORY);
+            loadStamps();
+            loadDatasetsOnDisk();
+        }
+    }
+
+    // =========================================================================
+    // Lookup
+    // =========================================================================
+
+    /**
+     * Returns the transit graph for the stars, loading it from the cache when the same
+     * stars were graphed with the same bounds since the dataset was last modified, and
+     * building and storing it otherwise.
+     *
+     * @param dataSetName     the dataset the stars belong to
+     * @param stars           the stars to include
+     * @param nameExtractor   function to extract the star name
+     * @param coordsExtractor function to extract the [x, y, z] coordinates
+     * @param lowerBound      minimum edge distance (exclusive)
+     * @param upperBound      maximum edge distance (inclusive)
+     * @param <T>             the star record type
+     * @return the graph
+     */
+    public <T> @NotNull CompactRouteGraph getOrBuild(@Nullable String dataSetName,
+                                                     @NotNull List<T> stars,
+                                                     @NotNull Function<T, String> nameExtractor,
+                                                     @NotNull Function<T, double[]> coordsExtractor,
+                                                     double lowerBound,
+                                                     double upperBound) {
+        if (dataSetName == null || dataSetName.isBlank() || stars.size() < MIN_CACHED_STARS) {
+            return CompactRouteGraph.build(stars, nameExtractor, coordsExtractor, lowerBound, upperBound);
+        }
+
+        long fingerprint = fingerprint(stars, nameExtractor, coordsExtractor);
+        long stamp = getStamp(dataSetName);
+        String key = cacheKey(dataSetName, stamp, lowerBound, upperBound, fingerprint);
+
+        synchronized (this) {
+            CompactRouteGraph cached = memory.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+        }
+
+        Path file = cacheFile(dataSetName, key);
+        if (file != null && Files.exists(file)) {
+            try {
+                long start = System.nanoTime();
+                CompactRouteGraph graph = read(file, fingerprint, stars, nameExtractor, coordsExtractor);
+                log.info("Loaded transit graph for {} ({} stars, {} edges) from cache in {} ms",
+                        dataSetName, graph.getVertexCount(), graph.getEdgeCount(),
+                        (System.nanoTime() - start) / 1_000_000);
+                remember(key, graph, true);
+                return graph;
+            } catch (IOException | IllegalArgumentException e) {
+                log.warn("Discarding unreadable transit graph cache file {}: {}", file, e.getMessage());
+                deleteQuietly(file);
+            }
+        }
+
+        CompactRouteGraph graph = CompactRouteGraph.build(stars, nameExtractor, coordsExtractor, lowerBound, upperBound);
+        remember(key, graph, false);
+        // a concurrent invalidation makes this graph stale; only store it under a current stamp
+        if (file != null && getStamp(dataSetName) == stamp) {
+            try {
+                markOnDisk(dataSetName);
+                write(file, fingerprint, graph);
+                pruneDataset(file.getParent());
+            } catch (IOException e) {
+                log.warn("Failed to write transit graph cache file {}: {}", file, e.getMessage());
+            }
+        }
+        return graph;
+    }
+
+    // =========================================================================
+    // Invalidation
+    // =========================================================================
+
+    /**
+     * Marks the dataset as modified, dropping every graph cached for it.
+     *
+     * @param dataSetName the dataset whose stars changed
+     */
+    public void invalidate(@Nullable String dataSetName) {
+        if (dataSetName == null) {
+            return;
+        }
+        boolean onDisk;
+        synchronized (this) {
+            long previous = Long.parseLong(stamps.getProperty(dataSetName, "0"));
+            stamps.setProperty(dataSetName, Long.toString(Math.max(previous + 1, System.currentTimeMillis())));
+            memory.keySet().removeIf(key -> key.startsWith(datasetPrefix(dataSetName)));
+            // star edits call this once per star; skip the disk when there is nothing to delete
+            onDisk = datasetsOnDisk.remove(directoryName(dataSetName));
+            if (onDisk) {
+                saveStamps();
+            } else {
+                stampsDirty = true;
+            }
+        }
+        if (onDisk) {
+            Path directory = cacheDirectory.resolve(directoryName(dataSetName));
+            try (Stream<Path> files = Files.list(directory)) {
+                files.forEach(TransitGraphCache::deleteQuietly);
+            } catch (NoSuchFileException e) {
+                // nothing cached yet
+            } catch (IOException e) {
+                log.warn("Failed to clear transit graph cache for {}: {}", dataSetName, e.getMessage());
+            }
+        }
+        log.debug("Transit graph cache invalidated for {}", dataSetName);
+    }
+
+    /**
+     * Returns the current modification stamp of a dataset.
+     */
+    public synchronized long getStamp(@NotNull String dataSetName) {
+        return Long.parseLong(stamps.getProperty(dataSetName, "0"));
+    }
+
+    /**
+     * Gets cache statistics.
+     *
+     * @return cache statistics string
+     */
+    public synchronized String getStatistics() {
+        return "TransitGraphCache[memory=%d, hits=%d, misses=%d]".formatted(memory.size(), hits, misses);
+    }
+
+    // =========================================================================
+    // Keys and Files
+    // =========================================================================
+
+    /**
+     * Hashes the star names and coordinates in order.
+     */
+    static <T> long fingerprint(@NotNull List<T> stars,
+                                @NotNull Function<T, String> nameExtractor,
+                                @NotNull Function<T, double[]> coordsExtractor) {
+        long hash = 0xcbf29ce484222325L;
+        for (T star : stars) {
+            hash = mix(hash, nameExtractor.apply(star).hashCode());
+            double[] coords = coordsExtractor.apply(star);
+            hash = mix(hash, Double.doubleToLongBits(coords[0]));
+            hash = mix(hash, Double.doubleToLongBits(coords[1]));
+            hash = mix(hash, Double.doubleToLongBits(coords[2]));
+        }
+        return mix(hash, stars.size());
+    }
+
+    private static long mix(long hash, long value) {
+        hash ^= value;
+        hash *= 0x100000001b3L;
+        return hash ^ (hash >>> 29);
+    }
+
+    private static @NotNull String cacheKey(@NotNull String dataSetName, long stamp,
+                                            double lowerBound, double upperBound, long fingerprint) {
+        return "%s%d-%016x-%016x-%016x".formatted(datasetPrefix(dataSetName), stamp,
+                Double.doubleToLongBits(lowerBound), Double.doubleToLongBits(upperBound), fingerprint);
+    }
+
+    private static @NotNull String datasetPrefix(@NotNull String dataSetName) {
+        return directoryName(dataSetName) + "/";
+    }
+
+    /**
+     * File-system safe, collision resistant directory name for a dataset.
+     */
+    private static @NotNull String directoryName(@NotNull String dataSetName) {
+        String safe = dataSetName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return "%s-%08x".formatted(safe, dataSetName.hashCode());
+    }
+
+    private @Nullable Path cacheFile(@NotNull String dataSetName, @NotNull String key) {
+        if (cacheDirectory == null) {
+            return null;
+        }
+        String fileName = key.substring(datasetPrefix(dataSetName).length()) + FILE_SUFFIX;
+        return cacheDirectory.resolve(directoryName(dataSetName)).resolve(fileName);
+    }
+
+    private synchronized void remember(@NotNull String key, @NotNull CompactRouteGraph graph, boolean hit) {
+        memory.put(key, graph);
+        if (hit) {
+            hits++;
+        } else {
+            misses++;
+        }
+    }
+
+    /**
+     * Keeps only the most recently written files of a dataset.
+     */
+    private void pruneDataset(@NotNull Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.toString().endsWith(FILE_SUFFIX)).toList();
+        }
+        if (files.size() <= MAX_FILES_PER_DATASET) {
+            return;
+        }
+        Map<Path, Long> modified = new HashMap<>();
+        for (Path file : files) {
+            modified.put(file, Files.getLastModifiedTime(file).toMillis());
+        }
+        files.stream()
+                .sorted(Comparator.comparing(modified::get))
+                .limit(files.size() - MAX_FILES_PER_DATASET)
+                .forEach(TransitGraphCache::deleteQuietly);
+    }
+
+    /**
+     * Records that the dataset is about to get a cached file, saving any stamps bumped
+     * since the last save first so the file is never newer than the saved stamps.
+     */
+    private synchronized void markOnDisk(@NotNull String dataSetName) {
+        datasetsOnDisk.add(directoryName(dataSetName));
+        if (stampsDirty) {
+            saveStamps();
+            stampsDirty = false;
+        }
+    }
+
+    private void loadDatasetsOnDisk() {
+        try (Stream<Path> directories = Files.list(cacheDirectory)) {
+            directories.filter(Files::isDirectory)
+                    .forEach(directory -> datasetsOnDisk.add(directory.getFileName().toString()));
+        } catch (NoSuchFileException e) {
+            // nothing cached yet
+        } catch (IOException e) {
+            log.warn("Failed to list transit graph cache directory: {}", e.getMessage());
+        }
+    }
+
+    private static void deleteQuietly(@NotNull Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void loadStamps() {
+        Path stampFile = cacheDirectory.resolve(STAMP_FILE);
+        if (Files.exists(stampFile)) {
+            try (InputStream in = Files.newInputStream(stampFile)) {
+                stamps.load(in);
+            } catch (IOException e) {
+                log.warn("Failed to read transit graph cache stamps, starting fresh: {}", e.getMessage());
+                stamps.clear();
+            }
+        }
+    }
+
+    private void saveStamps() {
+        if (cacheDirectory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(cacheDirectory);
+            Path temp = Files.createTempFile(cacheDirectory, STAMP_FILE, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    stamps.store(out, "dataset modification stamps");
+                }
+                Files.move(temp, cacheDirectory.resolve(STAMP_FILE),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                deleteQuietly(temp);
+                throw e;
+            }
+        } catch (IOException e) {
+            log.warn("Failed to save transit graph cache stamps: {}", e.getMessage());
+        }
+    }
+
+    // =========================================================================
+    // Binary Format
+    // =========================================================================
+
+    private static void write(@NotNull Path file, long fingerprint, @NotNull CompactRouteGraph graph) throws IOException {
+        int[] offsets = graph.upperEdgeOffsets();
+        int[] targets = graph.upperEdgeTargets();
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + (offsets.length + targets.length) * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(fingerprint)
+                .putInt(graph.getVertexCount())
+                .putInt(targets.length);
+        buffer.asIntBuffer().put(offsets).put(targets);
+        buffer.rewind();
+
+        Files.createDirectories(file.getParent());
+        // a temp file of its own, so two builds of the same graph never write into one file
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temp);
+            throw e;
+        }
+    }
+
+    private static <T> @NotNull CompactRouteGraph read(@NotNull Path file,
+                                                       long fingerprint,
+                                                       @NotNull List<T> stars,
+                                                       @NotNull Function<T, String> nameExtractor,
+                                                       @NotNull Function<T, double[]> coordsExtractor) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("unexpected file size " + size);
+            }
+            buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("truncated file");
+                }
+            }
+            buffer.flip();
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            throw new IOException("not a transit graph cache file");
+        }
+        if (buffer.getLong() != fingerprint) {
+            throw new IOException("star list fingerprint mismatch");
+        }
+        int vertexCount = buffer.getInt();
+        int edgeCount = buffer.getInt();
+        if (vertexCount < 0 || edgeCount < 0
+                || buffer.remaining() != ((long) vertexCount + 1 + edgeCount) * Integer.BYTES) {
+            throw new IOException("corrupt header");
+        }
+        int[] offsets = new int[vertexCount + 1];
+        int[] targets = new int[edgeCount];
+        buffer.asIntBuffer().get(offsets).get(targets);
+        return CompactRouteGraph.fromEdgeList(stars, nameExtractor, coordsExtractor, offsets, targets);
+    }
+}
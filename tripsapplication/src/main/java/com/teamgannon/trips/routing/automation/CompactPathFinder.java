@@ -0,0 +1,640 @@
+package com.teamgannon.trips.routing.automation;
+
+import com.teamgannon.trips.routing.model.PathSearchAlgorithm;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Shortest-path algorithms over a {@link CompactRouteGraph}.
+ * <p>
+ * Provides Dijkstra, A* (straight-line distance heuristic), bidirectional A* and
+ * Yen's k-shortest loopless paths. All per-vertex search state lives in primitive arrays sized to the
+ * graph and reused between searches via generation stamps, so a search does not
+ * clear O(n) state or allocate per relaxation.
+ * <p>
+ * Because every edge weight is the Euclidean distance between its endpoints, the
+ * straight-line distance to the destination never overestimates the remaining cost
+ * and is consistent, so A* returns the same optimal paths as Dijkstra while settling
+ * far fewer stars on long routes. Bidirectional A* grows a search from each end using
+ * the averaged potential {@code (h_dest(v) - h_origin(v)) / 2}, which keeps both
+ * searches consistent so they can stop as soon as their frontiers prove the best meeting
+ * point optimal.
+ * <p>
+ * Yen spur searches are bounded: once enough candidate paths are queued to fill the
+ * request, a spur search gives up as soon as its lower bound exceeds the worst of them,
+ * so most spur searches settle only a handful of stars.
+ * <p>
+ * Not thread-safe: create one finder per searching thread.
+ *
+ * @see CompactRouteGraph
+ */
+public final class CompactPathFinder {
+
+    /**
+     * Slack on spur search cutoffs so rounding never prunes a path tied with the bound.
+     */
+    private static final double COST_EPSILON = 1e-9;
+
+    /**
+     * Yen candidate order: cheapest first, then fewest hops. The vertex comparison only keeps
+     * distinct paths of equal cost and length apart in a sorted set.
+     */
+    private static final Comparator<Path> CANDIDATE_ORDER = Comparator.comparingDouble(Path::cost)
+            .thenComparingInt(Path::hops)
+            .thenComparing(Path::vertices, Arrays::compare);
+
+    private final CompactRouteGraph graph;
+
+    private final double[] dist;
+    private final int[] prev;
+    private final int[] seenStamp;
+    private final int[] settledStamp;
+    private int searchStamp;
+
+    private final int[] bannedVertexStamp;
+    private final int[] bannedEdgeStamp;
+    private int banStamp;
+
+    private final IndexedMinHeap heap;
+
+    // reverse search state, allocated on first bidirectional search
+    private double[] reverseDist;
+    private int[] nextHop;
+    private int[] reverseSeenStamp;
+    private int[] reverseSettledStamp;
+    private IndexedMinHeap reverseHeap;
+
+    /**
+     * Number of vertices settled by the most recent search, for diagnostics.
+     */
+    private int lastSettledCount;
+
+    public CompactPathFinder(@NotNull CompactRouteGraph graph) {
+        this.graph = graph;
+        int n = graph.getVertexCount();
+        this.dist = new double[n];
+        this.prev = new int[n];
+        this.seenStamp = new int[n];
+        this.settledStamp = new int[n];
+        this.bannedVertexStamp = new int[n];
+        this.bannedEdgeStamp = new int[graph.getEdgeCount() * 2];
+        this.heap = new IndexedMinHeap(n);
+    }
+
+    /**
+     * A path through the graph as a sequence of vertex indices.
+     *
+     * @param vertices the vertex indices from source to destination
+     * @param cost     the total path length in light years
+     */
+    public record Path(int @NotNull [] vertices, double cost) {
+
+        /**
+         * Returns the number of jumps in the path.
+         */
+        public int hops() {
+            return vertices.length - 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Path other && Arrays.equals(vertices, other.vertices);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(vertices);
+        }
+
+        @Override
+        public String toString() {
+            return "Path%s[%.3f]".formatted(Arrays.toString(vertices), cost);
+        }
+    }
+
+    /**
+     * Returns the number of vertices settled by the most recent search.
+     */
+    public int getLastSettledCount() {
+        return lastSettledCount;
+    }
+
+    // =========================================================================
+    // Single Path Searches
+    // =========================================================================
+
+    /**
+     * Finds the shortest path with Dijkstra's algorithm.
+     *
+     * @param source      the source vertex
+     * @param destination the destination vertex
+     * @return the shortest path, or null if the vertices are not connected
+     */
+    public @Nullable Path dijkstra(int source, int destination) {
+        banStamp++;
+        return search(source, destination, false);
+    }
+
+    /**
+     * Finds the shortest path with A* using the straight-line distance heuristic.
+     *
+     * @param source      the source vertex
+     * @param destination the destination vertex
+     * @return the shortest path, or null if the vertices are not connected
+     */
+    public @Nullable Path aStar(int source, int destination) {
+        banStamp++;
+        return search(source, destination, true);
+    }
+
+    /**
+     * Finds the shortest path with bidirectional A* using averaged straight-line potentials.
+     *
+     * @param source      the source vertex
+     * @param destination the destination vertex
+     * @return the shortest path, or null if the vertices are not connected
+     */
+    public @Nullable Path bidirectionalAStar(int source, int destination) {
+        banStamp++;
+        return bidirectionalSearch(source, destination, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the shortest path with the given algorithm.
+     *
+     * @param source      the source vertex
+     * @param destination the destination vertex
+     * @param algorithm   the search algorithm
+     * @return the shortest path, or null if the vertices are not connected
+     */
+    public @Nullable Path shortestPath(int source, int destination, @NotNull PathSearchAlgorithm algorithm) {
+        banStamp++;
+        return search(source, destination, algorithm, Double.POSITIVE_INFINITY);
+    }
+
+    // =========================================================================
+    // K Shortest Paths
+    // =========================================================================
+
+    /**
+     * Finds up to k shortest loopless paths with Yen's algorithm, using A* for the
+     * initial path and every spur path.
+     *
+     * @param source      the source vertex
+     * @param destination the destination vertex
+     * @param k           the maximum number of paths
+     * @return the paths in order of increasing cost, empty if not connected
+     */
+    public @NotNull List<Path> kShortestPaths(int source, int destination, int k) {
+        return kShortestPaths(source, destination, k, PathSearchAlgorithm.A_STAR);
+    }
+
+    /**
+     * Finds up to k shortest loopless paths with Yen's algorithm, using the given
+     * algorithm for the initial path and every spur path.
+     *
+     * @param source      the source vertex
+     * @param destination the destination vertex
+     * @param k           the maximum number of paths
+     * @param algorithm   the single-path search algorithm
+     * @return the paths in order of increasing cost, empty if not connected
+     */
+    public @NotNull List<Path> kShortestPaths(int source, int destination, int k,
+                                              @NotNull PathSearchAlgorithm algorithm) {
+        List<Path> accepted = new ArrayList<>();
+        if (k <= 0) {
+            return accepted;
+        }
+        Path first = shortestPath(source, destination, algorithm);
+        if (first == null) {
+            return accepted;
+        }
+        accepted.add(first);
+
+        // only the cheapest k - accepted.size() candidates can still be returned, so no more are kept
+        TreeSet<Path> candidates = new TreeSet<>(CANDIDATE_ORDER);
+        Set<Path> known = new HashSet<>();
+        known.add(first);
+
+        while (accepted.size() < k) {
+            Path last = accepted.get(accepted.size() - 1);
+            int[] lastVertices = last.vertices();
+            double[] rootCost = cumulativeCost(lastVertices);
+            int remaining = k - accepted.size();
+
+            for (int i = 0; i < lastVertices.length - 1; i++) {
+                int spur = lastVertices[i];
+
+                banStamp++;
+                // remove the next edge of every accepted path sharing this root
+                for (Path path : accepted) {
+                    int[] vertices = path.vertices();
+                    if (vertices.length > i + 1 && Arrays.equals(vertices, 0, i + 1, lastVertices, 0, i + 1)) {
+                        banEdge(vertices[i], vertices[i + 1]);
+                    }
+                }
+                // remove the root path vertices so spur paths stay loopless
+                for (int j = 0; j < i; j++) {
+                    bannedVertexStamp[lastVertices[j]] = banStamp;
+                }
+
+                Path spurPath = search(spur, destination, algorithm,
+                        candidateBound(candidates, remaining) - rootCost[i] + COST_EPSILON);
+                if (spurPath != null) {
+                    int[] spurVertices = spurPath.vertices();
+                    int[] total = new int[i + spurVertices.length];
+                    System.arraycopy(lastVertices, 0, total, 0, i);
+                    System.arraycopy(spurVertices, 0, total, i, spurVertices.length);
+                    Path candidate = new Path(total, rootCost[i] + spurPath.cost());
+                    if (known.add(candidate)) {
+                        candidates.add(candidate);
+                        if (candidates.size() > remaining) {
+                            candidates.pollLast();
+                        }
+                    }
+                }
+            }
+
+            Path next = candidates.pollFirst();
+            if (next == null) {
+                break;
+            }
+            accepted.add(next);
+        }
+        return accepted;
+    }
+
+    /**
+     * Formats a path as the bracketed, comma separated star name list used by
+     * {@link RouteBuilderHelper} and the route search tasks, e.g. {@code [Sol, Barnard's Star]}.
+     *
+     * @param path the path
+     * @return the path string
+     */
+    public @NotNull String toPathString(@NotNull Path path) {
+        StringBuilder builder = new StringBuilder("[");
+        int[] vertices = path.vertices();
+        for (int i = 0; i < vertices.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(graph.nameOf(vertices[i]));
+        }
+        return builder.append(']').toString();
+    }
+
+    // =========================================================================
+    // Search Implementation
+    // =========================================================================
+
+    /**
+     * Returns the cost that a new candidate must not exceed to still be among the
+     * paths returned: the most expensive kept candidate once {@code remaining} are kept,
+     * or infinity before. The bound only tightens as candidates are added.
+     */
+    private static double candidateBound(@NotNull TreeSet<Path> candidates, int remaining) {
+        return candidates.size() < remaining ? Double.POSITIVE_INFINITY : candidates.last().cost();
+    }
+
+    private double @NotNull [] cumulativeCost(int @NotNull [] vertices) {
+        double[] cost = new double[vertices.length];
+        for (int i = 1; i < vertices.length; i++) {
+            int edge = graph.findEdge(vertices[i - 1], vertices[i]);
+            cost[i] = cost[i - 1] + graph.edgeWeight(edge);
+        }
+        return cost;
+    }
+
+    private void banEdge(int from, int to) {
+        int forward = graph.findEdge(from, to);
+        if (forward >= 0) {
+            bannedEdgeStamp[forward] = banStamp;
+        }
+        int backward = graph.findEdge(to, from);
+        if (backward >= 0) {
+            bannedEdgeStamp[backward] = banStamp;
+        }
+    }
+
+    private @Nullable Path search(int source, int destination,
+                                  @NotNull PathSearchAlgorithm algorithm, double maxCost) {
+        return switch (algorithm) {
+            case DIJKSTRA -> search(source, destination, false, maxCost);
+            case A_STAR -> search(source, destination, true, maxCost);
+            case BIDIRECTIONAL_A_STAR -> bidirectionalSearch(source, destination, maxCost);
+        };
+    }
+
+    private @Nullable Path search(int source, int destination, boolean useHeuristic) {
+        return search(source, destination, useHeuristic, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Best-first search honoring the current vertex and edge bans.
+     * With {@code useHeuristic} false this is Dijkstra, otherwise A*.
+     * Gives up once no path of at most {@code maxCost} can remain.
+     */
+    private @Nullable Path search(int source, int destination, boolean useHeuristic, double maxCost) {
+        int stamp = ++searchStamp;
+        int settled = 0;
+        heap.clear();
+
+        dist[source] = 0;
+        prev[source] = -1;
+        seenStamp[source] = stamp;
+        heap.insertOrDecrease(source, useHeuristic ? graph.straightLineDistance(source, destination) : 0);
+
+        while (!heap.isEmpty()) {
+            if (heap.peekPriority() > maxCost) {
+                break;
+            }
+            int u = heap.poll();
+            settledStamp[u] = stamp;
+            settled++;
+            if (u == destination) {
+                lastSettledCount = settled;
+                return buildPath(destination);
+            }
+            double du = dist[u];
+            for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                if (bannedEdgeStamp[e] == banStamp) {
+                    continue;
+                }
+                int v = graph.edgeTarget(e);
+                if (settledStamp[v] == stamp || bannedVertexStamp[v] == banStamp) {
+                    continue;
+                }
+                double candidate = du + graph.edgeWeight(e);
+                if (seenStamp[v] != stamp || candidate < dist[v]) {
+                    seenStamp[v] = stamp;
+                    dist[v] = candidate;
+                    prev[v] = u;
+                    double priority = useHeuristic
+                            ? candidate + graph.straightLineDistance(v, destination)
+                            : candidate;
+                    heap.insertOrDecrease(v, priority);
+                }
+            }
+        }
+        lastSettledCount = settled;
+        return null;
+    }
+
+    /**
+     * Bidirectional A* honoring the current vertex and edge bans.
+     * <p>
+     * The forward search is keyed by {@code g + p(v)} and the reverse search by
+     * {@code g - p(v)}, where {@code p(v) = (|v - destination| - |v - source|) / 2}.
+     * Both are then Dijkstra on the same non-negative reduced costs, so the search can
+     * stop once the two smallest keys sum to at least the best path found through a
+     * star reached from both sides.
+     */
+    private @Nullable Path bidirectionalSearch(int source, int destination, double maxCost) {
+        if (source == destination) {
+            return search(source, destination, false, maxCost);
+        }
+        ensureReverseState();
+        int stamp = ++searchStamp;
+        int settled = 0;
+        heap.clear();
+        reverseHeap.clear();
+
+        dist[source] = 0;
+        prev[source] = -1;
+        seenStamp[source] = stamp;
+        heap.insertOrDecrease(source, potential(source, source, destination));
+
+        reverseDist[destination] = 0;
+        nextHop[destination] = -1;
+        reverseSeenStamp[destination] = stamp;
+        reverseHeap.insertOrDecrease(destination, -potential(destination, source, destination));
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+
+        while (!heap.isEmpty() && !reverseHeap.isEmpty()) {
+            double bound = heap.peekPriority() + reverseHeap.peekPriority();
+            if (bound >= best || bound > maxCost) {
+                break;
+            }
+            settled++;
+            if (heap.size() <= reverseHeap.size()) {
+                int u = heap.poll();
+                settledStamp[u] = stamp;
+                double du = dist[u];
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    if (bannedEdgeStamp[e] == banStamp) {
+                        continue;
+                    }
+                    int v = graph.edgeTarget(e);
+                    if (settledStamp[v] == stamp || bannedVertexStamp[v] == banStamp) {
+                        continue;
+                    }
+                    double candidate = du + graph.edgeWeight(e);
+                    if (seenStamp[v] != stamp || candidate < dist[v]) {
+                        seenStamp[v] = stamp;
+                        dist[v] = candidate;
+                        prev[v] = u;
+                        heap.insertOrDecrease(v, candidate + potential(v, source, destination));
+                    }
+                    if (reverseSeenStamp[v] == stamp && dist[v] + reverseDist[v] < best) {
+                        best = dist[v] + reverseDist[v];
+                        meeting = v;
+                    }
+                }
+            } else {
+                int u = reverseHeap.poll();
+                reverseSettledStamp[u] = stamp;
+                double du = reverseDist[u];
+                for (int e = graph.edgeStart(u), end = graph.edgeEnd(u); e < end; e++) {
+                    if (bannedEdgeStamp[e] == banStamp) {
+                        continue;
+                    }
+                    int v = graph.edgeTarget(e);
+                    if (reverseSettledStamp[v] == stamp || bannedVertexStamp[v] == banStamp) {
+                        continue;
+                    }
+                    double candidate = du + graph.edgeWeight(e);
+                    if (reverseSeenStamp[v] != stamp || candidate < reverseDist[v]) {
+                        reverseSeenStamp[v] = stamp;
+                        reverseDist[v] = candidate;
+                        nextHop[v] = u;
+                        reverseHeap.insertOrDecrease(v, candidate - potential(v, source, destination));
+                    }
+                    if (seenStamp[v] == stamp && dist[v] + reverseDist[v] < best) {
+                        best = dist[v] + reverseDist[v];
+                        meeting = v;
+                    }
+                }
+            }
+        }
+        lastSettledCount = settled;
+        if (meeting < 0 || best > maxCost) {
+            return null;
+        }
+        return buildBidirectionalPath(meeting, best);
+    }
+
+    private double potential(int vertex, int source, int destination) {
+        return 0.5 * (graph.straightLineDistance(vertex, destination) - graph.straightLineDistance(vertex, source));
+    }
+
+    private void ensureReverseState() {
+        if (reverseHeap == null) {
+            int n = graph.getVertexCount();
+            reverseDist = new double[n];
+            nextHop = new int[n];
+            reverseSeenStamp = new int[n];
+            reverseSettledStamp = new int[n];
+            reverseHeap = new IndexedMinHeap(n);
+        }
+    }
+
+    private @NotNull Path buildBidirectionalPath(int meeting, double cost) {
+        int forwardLength = 0;
+        for (int v = meeting; v >= 0; v = prev[v]) {
+            forwardLength++;
+        }
+        int reverseLength = 0;
+        for (int v = nextHop[meeting]; v >= 0; v = nextHop[v]) {
+            reverseLength++;
+        }
+        int[] vertices = new int[forwardLength + reverseLength];
+        int i = forwardLength;
+        for (int v = meeting; v >= 0; v = prev[v]) {
+            vertices[--i] = v;
+        }
+        i = forwardLength;
+        for (int v = nextHop[meeting]; v >= 0; v = nextHop[v]) {
+            vertices[i++] = v;
+        }
+        return new Path(vertices, cost);
+    }
+
+    private @NotNull Path buildPath(int destination) {
+        int length = 0;
+        for (int v = destination; v >= 0; v = prev[v]) {
+            length++;
+        }
+        int[] vertices = new int[length];
+        int i = length;
+        for (int v = destination; v >= 0; v = prev[v]) {
+            vertices[--i] = v;
+        }
+        return new Path(vertices, dist[destination]);
+    }
+
+    // =========================================================================
+    // Indexed Binary Heap
+    // =========================================================================
+
+    /**
+     * Binary min-heap of vertex indices with decrease-key, backed by primitive arrays.
+     */
+    private static final class IndexedMinHeap {
+        private final int[] heap;
+        private final int[] position;
+        private final double[] priority;
+        private int size;
+
+        IndexedMinHeap(int capacity) {
+            this.heap = new int[capacity];
+            this.position = new int[capacity];
+            this.priority = new double[capacity];
+            Arrays.fill(position, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        double peekPriority() {
+            return priority[heap[0]];
+        }
+
+        void clear() {
+            for (int i = 0; i < size; i++) {
+                position[heap[i]] = -1;
+            }
+            size = 0;
+        }
+
+        void insertOrDecrease(int vertex, double key) {
+            int i = position[vertex];
+            if (i < 0) {
+                i = size++;
+                heap[i] = vertex;
+                position[vertex] = i;
+                priority[vertex] = key;
+                siftUp(i);
+            } else if (key < priority[vertex]) {
+                priority[vertex] = key;
+                siftUp(i);
+            }
+        }
+
+        int poll() {
+            int top = heap[0];
+            position[top] = -1;
+            size--;
+            if (size > 0) {
+                int last = heap[size];
+                heap[0] = last;
+                position[last] = 0;
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int i) {
+            int vertex = heap[i];
+            double key = priority[vertex];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                int parentVertex = heap[parent];
+                if (priority[parentVertex] <= key) {
+                    break;
+                }
+                heap[i] = parentVertex;
+                position[parentVertex] = i;
+                i = parent;
+            }
+            heap[i] = vertex;
+            position[vertex] = i;
+        }
+
+        private void siftDown(int i) {
+            int vertex = heap[i];
+            double key = priority[vertex];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                int right = child + 1;
+                if (right < size && priority[heap[right]] < priority[heap[child]]) {
+                    child = right;
+                }
+                int childVertex = heap[child];
+                if (key <= priority[childVertex]) {
+                    break;
+                }
+                heap[i] = childVertex;
+                position[childVertex] = i;
+                i = child;
+            }
+            heap[i] = vertex;
+            position[vertex] = i;
+        }
+    }
+}
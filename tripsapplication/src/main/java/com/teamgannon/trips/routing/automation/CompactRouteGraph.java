@@ -0,0 +1,501 @@
+package com.teamgannon.trips.routing.automation;
+
+import com.teamgannon.trips.transits.kdtree.FlatKDTree3D;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.SimpleWeightedGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable, integer-indexed routing graph in compressed sparse row (CSR) form.
+ * <p>
+ * Stars are identified by dense indices {@code 0..n-1}. The neighbors of star {@code v}
+ * are {@code targets[offsets[v] .. offsets[v+1])} with matching {@code weights}. Each
+ * undirected transit is stored once per direction. Compared to a String-keyed
+ * {@code SimpleWeightedGraph}, there is no edge object, no vertex hashing during
+ * relaxation and the whole adjacency fits in three primitive arrays.
+ * <p>
+ * Star coordinates are kept alongside so that {@link CompactPathFinder} can use the
+ * straight-line distance as an A* heuristic.
+ *
+ * @see CompactPathFinder
+ * @see RouteGraph
+ */
+@Slf4j
+public final class CompactRouteGraph {
+
+    /**
+     * Minimum star count to use parallel edge discovery.
+     */
+    private static final int PARALLEL_THRESHOLD = 500;
+
+    private final String[] names;
+    private final Map<String, Integer> nameIndex;
+    private final double[] coordinates;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] componentIds;
+
+    private CompactRouteGraph(String @NotNull [] names,
+                              @NotNull Map<String, Integer> nameIndex,
+                              double @NotNull [] coordinates,
+                              int @NotNull [] offsets,
+                              int @NotNull [] targets,
+                              double @NotNull [] weights) {
+        this.names = names;
+        this.nameIndex = nameIndex;
+        this.coordinates = coordinates;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.componentIds = labelComponents();
+    }
+
+    // =========================================================================
+    // Construction
+    // =========================================================================
+
+    /**
+     * Builds a graph connecting every pair of stars whose separation is in
+     * {@code (lowerBound, upperBound]}. Stars with a duplicate name are merged into
+     * the first occurrence, matching the String-keyed graph.
+     *
+     * @param stars           the stars to include
+     * @param nameExtractor   function to extract the star name
+     * @param coordsExtractor function to extract the [x, y, z] coordinates
+     * @param lowerBound      minimum edge distance (exclusive)
+     * @param upperBound      maximum edge distance (inclusive)
+     * @param <T>             the star record type
+     * @return the graph
+     */
+    public static <T> @NotNull CompactRouteGraph build(@NotNull List<T> stars,
+                                                       @NotNull Function<T, String> nameExtractor,
+                                                       @NotNull Function<T, double[]> coordsExtractor,
+                                                       double lowerBound,
+                                                       double upperBound) {
+        long start = System.nanoTime();
+        VertexTable vertices = VertexTable.of(stars, nameExtractor, coordsExtractor);
+        int n = vertices.names.length;
+
+        // discover each undirected edge once, from its lower-indexed endpoint
+        FlatKDTree3D tree = new FlatKDTree3D(vertices.coordinates);
+        int[][] upperTargets = new int[n][];
+        double[][] upperWeights = new double[n][];
+        IntStream indices = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> {
+            EdgeBuffer buffer = new EdgeBuffer();
+            tree.rangeSearch(i, upperBound, (j, distSquared) -> {
+                if (j > i) {
+                    double distance = Math.sqrt(distSquared);
+                    if (distance > lowerBound) {
+                        buffer.add(j, distance);
+                    }
+                }
+            });
+            upperTargets[i] = buffer.targets();
+            upperWeights[i] = buffer.weights();
+        });
+
+        CompactRouteGraph graph = vertices.toGraph(upperTargets, upperWeights);
+        log.debug("Compact graph built in {} ms - {} vertices, {} edges",
+                (System.nanoTime() - start) / 1_000_000.0, graph.getVertexCount(), graph.getEdgeCount());
+        return graph;
+    }
+
+    /**
+     * Rebuilds a graph from a previously computed edge list, skipping edge discovery.
+     * The stars must be the ones the edge list was computed for, in the same order.
+     * Edge {@code k} of vertex {@code v} goes to {@code upperTargets[upperOffsets[v] + k]},
+     * which must be greater than {@code v}; weights are recomputed from the coordinates.
+     *
+     * @param stars           the stars to include
+     * @param nameExtractor   function to extract the star name
+     * @param coordsExtractor function to extract the [x, y, z] coordinates
+     * @param upperOffsets    per-vertex start of its higher-indexed neighbors, length n + 1
+     * @param upperTargets    the higher-indexed neighbors of every vertex
+     * @param <T>             the star record type
+     * @return the graph
+     * @throws IllegalArgumentException if the edge list does not fit the stars
+     * @see #upperEdgeOffsets()
+     * @see #upperEdgeTargets()
+     */
+    public static <T> @NotNull CompactRouteGraph fromEdgeList(@NotNull List<T> stars,
+                                                              @NotNull Function<T, String> nameExtractor,
+                                                              @NotNull Function<T, double[]> coordsExtractor,
+                                                              int @NotNull [] upperOffsets,
+                                                              int @NotNull [] upperTargets) {
+        VertexTable vertices = VertexTable.of(stars, nameExtractor, coordsExtractor);
+        int n = vertices.names.length;
+        if (upperOffsets.length != n + 1 || upperOffsets[n] != upperTargets.length) {
+            throw new IllegalArgumentException("Edge list does not match " + n + " stars");
+        }
+        int[][] targetLists = new int[n][];
+        double[][] weightLists = new double[n][];
+        for (int i = 0; i < n; i++) {
+            int[] js = Arrays.copyOfRange(upperTargets, upperOffsets[i], upperOffsets[i + 1]);
+            double[] ws = new double[js.length];
+            for (int k = 0; k < js.length; k++) {
+                if (js[k] <= i || js[k] >= n) {
+                    throw new IllegalArgumentException("Invalid edge " + i + "-" + js[k]);
+                }
+                ws[k] = vertices.distance(i, js[k]);
+            }
+            targetLists[i] = js;
+            weightLists[i] = ws;
+        }
+        return vertices.toGraph(targetLists, weightLists);
+    }
+
+    /**
+     * Dense vertex numbering of a star list, shared by both construction paths.
+     */
+    private record VertexTable(String[] names, Map<String, Integer> nameIndex, double[] coordinates) {
+
+        static <T> @NotNull VertexTable of(@NotNull List<T> stars,
+                                           @NotNull Function<T, String> nameExtractor,
+                                           @NotNull Function<T, double[]> coordsExtractor) {
+            Map<String, Integer> nameIndex = new HashMap<>(stars.size() * 2);
+            List<String> nameList = new ArrayList<>(stars.size());
+            double[] xyz = new double[stars.size() * 3];
+            for (T star : stars) {
+                String name = nameExtractor.apply(star);
+                if (nameIndex.putIfAbsent(name, nameList.size()) == null) {
+                    double[] coords = coordsExtractor.apply(star);
+                    int offset = nameList.size() * 3;
+                    xyz[offset] = coords[0];
+                    xyz[offset + 1] = coords[1];
+                    xyz[offset + 2] = coords[2];
+                    nameList.add(name);
+                }
+            }
+            int n = nameList.size();
+            double[] coordinates = n * 3 == xyz.length ? xyz : Arrays.copyOf(xyz, n * 3);
+            return new VertexTable(nameList.toArray(new String[0]), nameIndex, coordinates);
+        }
+
+        /**
+         * Distance computed exactly as the KD-tree reports it, so rebuilt weights match.
+         */
+        double distance(int a, int b) {
+            double dx = coordinates[b * 3] - coordinates[a * 3];
+            double dy = coordinates[b * 3 + 1] - coordinates[a * 3 + 1];
+            double dz = coordinates[b * 3 + 2] - coordinates[a * 3 + 2];
+            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+
+        /**
+         * Expands per-vertex higher-indexed neighbor lists to a symmetric CSR graph.
+         */
+        @NotNull CompactRouteGraph toGraph(int[][] upperTargets, double[][] upperWeights) {
+            int n = names.length;
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] += upperTargets[i].length;
+                for (int j : upperTargets[i]) {
+                    offsets[j + 1]++;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+            int[] targets = new int[offsets[n]];
+            double[] weights = new double[offsets[n]];
+            int[] cursor = Arrays.copyOf(offsets, n);
+            for (int i = 0; i < n; i++) {
+                int[] js = upperTargets[i];
+                double[] ws = upperWeights[i];
+                for (int k = 0; k < js.length; k++) {
+                    int j = js[k];
+                    targets[cursor[i]] = j;
+                    weights[cursor[i]++] = ws[k];
+                    targets[cursor[j]] = i;
+                    weights[cursor[j]++] = ws[k];
+                }
+            }
+            return new CompactRouteGraph(names, nameIndex, coordinates, offsets, targets, weights);
+        }
+    }
+
+    /**
+     * Growable pair of primitive arrays for the edges found from one star.
+     */
+    private static final class EdgeBuffer {
+        private int[] targets = new int[8];
+        private double[] weights = new double[8];
+        private int size;
+
+        void add(int target, double weight) {
+            if (size == targets.length) {
+                targets = Arrays.copyOf(targets, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            targets[size] = target;
+            weights[size++] = weight;
+        }
+
+        int[] targets() {
+            return Arrays.copyOf(targets, size);
+        }
+
+        double[] weights() {
+            return Arrays.copyOf(weights, size);
+        }
+    }
+
+    // =========================================================================
+    // Vertex Access
+    // =========================================================================
+
+    /**
+     * Returns the number of stars (vertices).
+     */
+    public int getVertexCount() {
+        return names.length;
+    }
+
+    /**
+     * Returns the number of undirected transits (edges).
+     */
+    public int getEdgeCount() {
+        return targets.length / 2;
+    }
+
+    /**
+     * Returns the dense index of a star, or -1 if it is not in the graph.
+     *
+     * @param name the star name
+     * @return the index or -1
+     */
+    public int indexOf(@NotNull String name) {
+        Integer index = nameIndex.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns true if the star is a vertex of this graph.
+     */
+    public boolean containsVertex(@NotNull String name) {
+        return nameIndex.containsKey(name);
+    }
+
+    /**
+     * Returns the name of the star at the given index.
+     */
+    public @NotNull String nameOf(int vertex) {
+        return names[vertex];
+    }
+
+    /**
+     * Returns the x coordinate of the star at the given index.
+     */
+    public double x(int vertex) {
+        return coordinates[vertex * 3];
+    }
+
+    /**
+     * Returns the y coordinate of the star at the given index.
+     */
+    public double y(int vertex) {
+        return coordinates[vertex * 3 + 1];
+    }
+
+    /**
+     * Returns the z coordinate of the star at the given index.
+     */
+    public double z(int vertex) {
+        return coordinates[vertex * 3 + 2];
+    }
+
+    /**
+     * Returns the straight-line distance between two stars.
+     */
+    public double straightLineDistance(int a, int b) {
+        double dx = coordinates[a * 3] - coordinates[b * 3];
+        double dy = coordinates[a * 3 + 1] - coordinates[b * 3 + 1];
+        double dz = coordinates[a * 3 + 2] - coordinates[b * 3 + 2];
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    // =========================================================================
+    // Adjacency Access
+    // =========================================================================
+
+    /**
+     * Returns the position of the first directed edge leaving the vertex.
+     * Edges of {@code v} occupy {@code [edgeStart(v), edgeEnd(v))}.
+     */
+    public int edgeStart(int vertex) {
+        return offsets[vertex];
+    }
+
+    /**
+     * Returns the position just past the last directed edge leaving the vertex.
+     */
+    public int edgeEnd(int vertex) {
+        return offsets[vertex + 1];
+    }
+
+    /**
+     * Returns the target vertex of a directed edge position.
+     */
+    public int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * Returns the weight (distance in ly) of a directed edge position.
+     */
+    public double edgeWeight(int edge) {
+        return weights[edge];
+    }
+
+    /**
+     * Finds the directed edge position from one vertex to another.
+     *
+     * @return the edge position, or -1 if the stars are not adjacent
+     */
+    public int findEdge(int from, int to) {
+        for (int e = offsets[from]; e < offsets[from + 1]; e++) {
+            if (targets[e] == to) {
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the weight of the edge between two named stars.
+     *
+     * @param from the source star name
+     * @param to   the target star name
+     * @return the edge weight, or null if either star is unknown or there is no edge
+     */
+    public @Nullable Double findEdgeWeight(@NotNull String from, @NotNull String to) {
+        int a = indexOf(from);
+        int b = indexOf(to);
+        if (a < 0 || b < 0) {
+            return null;
+        }
+        int edge = findEdge(a, b);
+        return edge >= 0 ? weights[edge] : null;
+    }
+
+    /**
+     * Returns, for each vertex, where its higher-indexed neighbors start in
+     * {@link #upperEdgeTargets()}; the last entry is the edge count.
+     * Together they are the edge list accepted by {@link #fromEdgeList}.
+     */
+    public int @NotNull [] upperEdgeOffsets() {
+        int n = names.length;
+        int[] upperOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            int count = 0;
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (targets[e] > v) {
+                    count++;
+                }
+            }
+            upperOffsets[v + 1] = upperOffsets[v] + count;
+        }
+        return upperOffsets;
+    }
+
+    /**
+     * Returns the higher-indexed neighbors of every vertex, vertex by vertex.
+     *
+     * @see #upperEdgeOffsets()
+     */
+    public int @NotNull [] upperEdgeTargets() {
+        int[] upperTargets = new int[getEdgeCount()];
+        int k = 0;
+        for (int v = 0; v < names.length; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                if (targets[e] > v) {
+                    upperTargets[k++] = targets[e];
+                }
+            }
+        }
+        return upperTargets;
+    }
+
+    // =========================================================================
+    // Connectivity
+    // =========================================================================
+
+    /**
+     * Returns true if a path exists between the two stars.
+     */
+    public boolean isConnected(int a, int b) {
+        return componentIds[a] == componentIds[b];
+    }
+
+    private int @NotNull [] labelComponents() {
+        int n = names.length;
+        int[] ids = new int[n];
+        Arrays.fill(ids, -1);
+        int[] stack = new int[n];
+        int component = 0;
+        for (int root = 0; root < n; root++) {
+            if (ids[root] >= 0) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = root;
+            ids[root] = component;
+            while (top > 0) {
+                int v = stack[--top];
+                for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                    int w = targets[e];
+                    if (ids[w] < 0) {
+                        ids[w] = component;
+                        stack[top++] = w;
+                    }
+                }
+            }
+            component++;
+        }
+        return ids;
+    }
+
+    // =========================================================================
+    // Interop
+    // =========================================================================
+
+    /**
+     * Materializes an equivalent String-keyed JGraphT graph.
+     * Intended for callers that need the JGraphT view of a small graph;
+     * dataset-scale searches should stay on the compact form.
+     *
+     * @return a new weighted graph
+     */
+    public @NotNull Graph<String, DefaultEdge> toJGraphT() {
+        Graph<String, DefaultEdge> graph = new SimpleWeightedGraph<>(DefaultEdge.class);
+        for (String name : names) {
+            graph.addVertex(name);
+        }
+        for (int v = 0; v < names.length; v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                int w = targets[e];
+                if (v < w) {
+                    DefaultEdge edge = graph.addEdge(names[v], names[w]);
+                    graph.setEdgeWeight(edge, weights[e]);
+                }
+            }
+        }
+        return graph;
+    }
+}
@@ -1,13 +1,14 @@
 package com.teamgannon.trips.routing.automation;
 
 import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
+import com.teamgannon.trips.routing.model.PathSearchAlgorithm;
 import com.teamgannon.trips.routing.model.SparseStarRecord;
 import com.teamgannon.trips.routing.model.SparseTransit;
 import com.teamgannon.trips.transits.TransitRoute;
-import com.teamgannon.trips.transits.kdtree.KDTreeGraphBuilder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jgrapht.Graph;
 import org.jgrapht.GraphPath;
 import org.jgrapht.alg.connectivity.ConnectivityInspector;
@@ -18,14 +19,27 @@ import org.jgrapht.graph.SimpleWeightedGraph;
 import java.util.List;
 import java.util.stream.Collectors;
 
-@Data
+/**
+ * A routing graph of stars joined by transits, with connectivity and k-shortest path queries.
+ * <p>
+ * Backed either by a JGraphT graph, built from transits by the legacy
+ * {@code calculateGraphFor*} methods, or by a read-only {@link CompactRouteGraph}.
+ * There is deliberately no generated toString, equals or hashCode: they would call
+ * {@link #getRoutingGraph()} and materialize the JGraphT copy of a compact graph.
+ */
+@Getter
 @Slf4j
 public class RouteGraph {
 
     /**
-     * the graph constructed
+     * the graph constructed; materialized on demand when backed by a compact graph
      */
-    private final @NotNull Graph<String, DefaultEdge> routingGraph;
+    private Graph<String, DefaultEdge> routingGraph;
+
+    /**
+     * integer-indexed CSR graph used for dataset-scale searches, null for transit-built graphs
+     */
+    private final @Nullable CompactRouteGraph compactGraph;
 
     /**
      * our connectivity graph
@@ -43,6 +57,7 @@ public class RouteGraph {
      */
     public RouteGraph() {
         routingGraph = new SimpleWeightedGraph<>(DefaultEdge.class);
+        compactGraph = null;
     }
 
     /**
@@ -55,9 +70,23 @@ public class RouteGraph {
      */
     public RouteGraph(@NotNull Graph<String, DefaultEdge> preBuiltGraph) {
         this.routingGraph = preBuiltGraph;
+        this.compactGraph = null;
         calculateGraphPaths();
     }
 
+    /**
+     * Creates a RouteGraph backed by a compact integer-indexed graph.
+     * <p>
+     * Connectivity, k-shortest paths and edge lookups run natively on the CSR arrays
+     * (A* driven Yen), so no JGraphT edge objects are created. {@link #getRoutingGraph()}
+     * still works but materializes a JGraphT copy on first use.
+     *
+     * @param compactGraph the compact graph
+     */
+    public RouteGraph(@NotNull CompactRouteGraph compactGraph) {
+        this.compactGraph = compactGraph;
+    }
+
     // =========================================================================
     // Static Factory Methods - KD-Tree Based Construction
     // =========================================================================
@@ -66,7 +95,8 @@ public class RouteGraph {
      * Creates a RouteGraph using KD-Tree spatial indexing for efficient edge discovery.
      * <p>
      * This is O(n log n) compared to O(n²) brute-force transit calculation,
-     * providing significant speedup for large star datasets.
+     * providing significant speedup for large star datasets. The result is backed
+     * by a {@link CompactRouteGraph}.
      *
      * @param stars      list of stars to include in the graph
      * @param lowerBound minimum edge distance (exclusive)
@@ -78,9 +108,9 @@ public class RouteGraph {
             double lowerBound,
             double upperBound) {
 
-        KDTreeGraphBuilder builder = new KDTreeGraphBuilder();
-        Graph<String, DefaultEdge> graph = builder.buildGraph(stars, lowerBound, upperBound);
-        return new RouteGraph(graph);
+        return new RouteGraph(CompactRouteGraph.build(
+                stars, StarDisplayRecord::getStarName, StarDisplayRecord::getActualCoordinates,
+                lowerBound, upperBound));
     }
 
     /**
@@ -96,17 +126,33 @@ public class RouteGraph {
             double lowerBound,
             double upperBound) {
 
-        KDTreeGraphBuilder builder = new KDTreeGraphBuilder();
-        Graph<String, DefaultEdge> graph = builder.buildGraphFromSparse(stars, lowerBound, upperBound);
-        return new RouteGraph(graph);
+        return new RouteGraph(CompactRouteGraph.build(
+                stars, SparseStarRecord::getStarName, SparseStarRecord::getActualCoordinates,
+                lowerBound, upperBound));
     }
 
     // =========================================================================
     // Instance Methods - Transit-Based Construction (Legacy)
     // =========================================================================
 
-    public void calculateGraphForTransit(List<TransitRoute> transitRoutes) {
+    /**
+     * add transits to the graph
+     *
+     * @param transitRoutes the transits, null is treated as none
+     * @throws IllegalStateException if the graph is backed by a compact graph
+     */
+    public void calculateGraphForTransit(@Nullable List<TransitRoute> transitRoutes) {
+        if (compactGraph != null) {
+            throw new IllegalStateException("a graph backed by a compact graph cannot take transits");
+        }
+        if (transitRoutes == null) {
+            transitRoutes = List.of();
+        }
         for (TransitRoute transitRoute : transitRoutes) {
+            if (transitRoute == null || transitRoute.getSource() == null || transitRoute.getTarget() == null) {
+                log.debug("Skipping transit without both ends");
+                continue;
+            }
             StarDisplayRecord source = transitRoute.getSource();
             StarDisplayRecord destination = transitRoute.getTarget();
 
@@ -133,6 +179,9 @@ public class RouteGraph {
     }
 
     public Double findEdges(String from, String to) {
+        if (compactGraph != null) {
+            return compactGraph.findEdgeWeight(from.trim(), to);
+        }
         DefaultEdge edge = routingGraph.getEdge(from.trim(), to);
         if (edge != null) {
             return routingGraph.getEdgeWeight(edge);
@@ -142,7 +191,20 @@ public class RouteGraph {
     }
 
 
-    public boolean calculateGraphForSparseTransits(List<SparseTransit> sparseTransitList) {
+    /**
+     * add sparse transits to the graph
+     *
+     * @param sparseTransitList the transits, null is treated as none
+     * @return false if the graph could not be built, including when it is backed by a compact graph
+     */
+    public boolean calculateGraphForSparseTransits(@Nullable List<SparseTransit> sparseTransitList) {
+        if (compactGraph != null) {
+            log.error("a graph backed by a compact graph cannot take transits");
+            return false;
+        }
+        if (sparseTransitList == null) {
+            sparseTransitList = List.of();
+        }
 
         for (SparseTransit transitRoute : sparseTransitList) {
             try {
@@ -187,7 +249,14 @@ public class RouteGraph {
      * @return true if a path exists, false otherwise
      */
     public boolean isConnected(String originStar, String destinationStar) {
-        return connectivityInspector.pathExists(originStar, destinationStar);
+        if (compactGraph != null) {
+            int origin = compactGraph.indexOf(originStar);
+            int destination = compactGraph.indexOf(destinationStar);
+            return origin >= 0 && destination >= 0 && compactGraph.isConnected(origin, destination);
+        }
+        return routingGraph.containsVertex(originStar)
+                && routingGraph.containsVertex(destinationStar)
+                && connectivityInspector.pathExists(originStar, destinationStar);
     }
 
     /**
@@ -199,8 +268,66 @@ public class RouteGraph {
      * @return the lsit of discovered paths
      */
     public List<String> findKShortestPaths(String source, String destination, int kPaths) {
+        return findKShortestPaths(source, destination, kPaths, PathSearchAlgorithm.A_STAR);
+    }
+
+    /**
+     * find the k shortest paths using the given single-path search for Yen's spur paths.
+     * The algorithm only applies to compact graphs; the JGraphT backend always uses its own Yen.
+     *
+     * @param source      the start
+     * @param destination the destination
+     * @param kPaths      the number of paths to find
+     * @param algorithm   the single-path search algorithm
+     * @return the list of discovered paths
+     */
+    public List<String> findKShortestPaths(String source, String destination, int kPaths,
+                                           @NotNull PathSearchAlgorithm algorithm) {
+        if (compactGraph != null) {
+            return findKShortestPathsCompact(source, destination, kPaths, algorithm);
+        }
         List<GraphPath<String, DefaultEdge>> yenKShort = kShortedPaths.getPaths(source, destination, kPaths);
         return yenKShort.stream().map(Object::toString).collect(Collectors.toList());
     }
 
+    private @NotNull List<String> findKShortestPathsCompact(String source, String destination, int kPaths,
+                                                            @NotNull PathSearchAlgorithm algorithm) {
+        int origin = compactGraph.indexOf(source);
+        int target = compactGraph.indexOf(destination);
+        if (origin < 0 || target < 0) {
+            throw new IllegalArgumentException("Graph must contain the source and destination vertices");
+        }
+        CompactPathFinder pathFinder = new CompactPathFinder(compactGraph);
+        return pathFinder.kShortestPaths(origin, target, kPaths, algorithm).stream()
+                .map(pathFinder::toPathString)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the JGraphT view of this graph, materializing it from the compact
+     * graph on first use.
+     *
+     * @return the weighted graph
+     */
+    public @NotNull Graph<String, DefaultEdge> getRoutingGraph() {
+        if (routingGraph == null && compactGraph != null) {
+            routingGraph = compactGraph.toJGraphT();
+        }
+        return routingGraph;
+    }
+
+    /**
+     * Returns the number of stars in the graph.
+     */
+    public int getVertexCount() {
+        return compactGraph != null ? compactGraph.getVertexCount() : routingGraph.vertexSet().size();
+    }
+
+    /**
+     * Returns the number of transits in the graph.
+     */
+    public int getEdgeCount() {
+        return compactGraph != null ? compactGraph.getEdgeCount() : routingGraph.edgeSet().size();
+    }
+
 }
@@ -0,0 +1,28 @@
+package com.teamgannon.trips.routing.model;
+
+/**
+ * The single-path search used by the compact k-shortest-path engine, both for the
+ * first route and for every Yen spur path.
+ * <p>
+ * All three return the same optimal routes; they differ only in how many stars
+ * they settle on the way.
+ */
+public enum PathSearchAlgorithm {
+
+    /**
+     * Plain Dijkstra, expanding uniformly around the origin.
+     */
+    DIJKSTRA,
+
+    /**
+     * A* guided by the straight-line distance to the destination.
+     */
+    A_STAR,
+
+    /**
+     * A* run from both ends at once with averaged potentials; best for long routes
+     * across large star fields.
+     */
+    BIDIRECTIONAL_A_STAR
+
+}
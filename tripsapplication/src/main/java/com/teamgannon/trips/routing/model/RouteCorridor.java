@@ -0,0 +1,142 @@
+package com.teamgannon.trips.routing.model;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Immutable capsule around the straight segment between two stars.
+ * <p>
+ * A star is inside the corridor when its distance to the origin-destination segment
+ * is at most the corridor radius. Dataset-wide route searches load only the stars
+ * in the corridor instead of the whole sphere around Sol that contains both ends:
+ * the axis-aligned bounding box is answered by the {@code idx_star_dataset_coords}
+ * index and the capsule test trims the corners of the box.
+ * <p>
+ * Routes found inside a corridor are the shortest routes that stay inside it. The
+ * search widens the corridor when no route is found.
+ */
+public final class RouteCorridor {
+
+    private final double[] start;
+    private final double[] end;
+    private final double radius;
+
+    // segment direction and squared length, precomputed for contains()
+    private final double dx;
+    private final double dy;
+    private final double dz;
+    private final double lengthSquared;
+
+    private RouteCorridor(double @NotNull [] start, double @NotNull [] end, double radius) {
+        this.start = start.clone();
+        this.end = end.clone();
+        this.radius = radius;
+        this.dx = end[0] - start[0];
+        this.dy = end[1] - start[1];
+        this.dz = end[2] - start[2];
+        this.lengthSquared = dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Creates a corridor between two points.
+     *
+     * @param start  the origin [x, y, z]
+     * @param end    the destination [x, y, z]
+     * @param radius the corridor radius in light years
+     * @return the corridor
+     */
+    public static @NotNull RouteCorridor between(double @NotNull [] start, double @NotNull [] end, double radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("Corridor radius must not be negative: " + radius);
+        }
+        return new RouteCorridor(start, end, radius);
+    }
+
+    /**
+     * Returns a corridor along the same segment with the radius multiplied by the factor.
+     *
+     * @param factor the widening factor
+     * @return the wider corridor
+     */
+    public @NotNull RouteCorridor widen(double factor) {
+        return new RouteCorridor(start, end, radius * factor);
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    /**
+     * Returns the length of the origin-destination segment.
+     */
+    public double getLength() {
+        return Math.sqrt(lengthSquared);
+    }
+
+    /**
+     * Tests whether the corridor contains every point within a distance of Sol. Such a
+     * corridor loads a superset of the sphere query, so neither widening it nor falling
+     * back to the sphere can connect stars it did not.
+     *
+     * @param sphereRadius the sphere radius around Sol in light years
+     * @return true if the sphere lies inside the corridor
+     */
+    public boolean coversSphere(double sphereRadius) {
+        // any point of the sphere is within sphereRadius of the segment point nearest Sol
+        return radius >= sphereRadius + Math.sqrt(distanceSquaredToSegment(0, 0, 0));
+    }
+
+    /**
+     * Tests whether a point lies within the corridor.
+     *
+     * @param point the point [x, y, z]
+     * @return true if the point is within radius of the segment
+     */
+    public boolean contains(double @NotNull [] point) {
+        return distanceSquaredToSegment(point[0], point[1], point[2]) <= radius * radius;
+    }
+
+    private double distanceSquaredToSegment(double x, double y, double z) {
+        double px = x - start[0];
+        double py = y - start[1];
+        double pz = z - start[2];
+        double t = lengthSquared > 0 ? (px * dx + py * dy + pz * dz) / lengthSquared : 0;
+        t = Math.max(0, Math.min(1, t));
+        double ex = px - t * dx;
+        double ey = py - t * dy;
+        double ez = pz - t * dz;
+        return ex * ex + ey * ey + ez * ez;
+    }
+
+    // =========================================================================
+    // Bounding Box
+    // =========================================================================
+
+    public double getMinX() {
+        return Math.min(start[0], end[0]) - radius;
+    }
+
+    public double getMaxX() {
+        return Math.max(start[0], end[0]) + radius;
+    }
+
+    public double getMinY() {
+        return Math.min(start[1], end[1]) - radius;
+    }
+
+    public double getMaxY() {
+        return Math.max(start[1], end[1]) + radius;
+    }
+
+    public double getMinZ() {
+        return Math.min(start[2], end[2]) - radius;
+    }
+
+    public double getMaxZ() {
+        return Math.max(start[2], end[2]) + radius;
+    }
+
+    @Override
+    public String toString() {
+        return "RouteCorridor[length=%.2f ly, radius=%.2f ly]".formatted(getLength(), radius);
+    }
+}
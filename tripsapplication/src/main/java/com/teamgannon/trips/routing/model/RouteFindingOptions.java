@@ -48,6 +48,19 @@ public class RouteFindingOptions {
     @Builder.Default
     private Set<String> polityExclusions = new HashSet<>();
 
+    /**
+     * the single-path search driving the k-shortest-path engine
+     */
+    @Builder.Default
+    private @NotNull PathSearchAlgorithm searchAlgorithm = PathSearchAlgorithm.A_STAR;
+
+    /**
+     * whether a dataset-wide search loads only the corridor around the origin-destination
+     * segment (widened until a route is found) instead of every star out to the farther end
+     */
+    @Builder.Default
+    private boolean corridorSearch = true;
+
     private boolean selected;
 
     private double maxDistance;
@@ -2,22 +2,33 @@ package com.teamgannon.trips.service;
 
 import com.teamgannon.trips.dataset.factories.DataSetDescriptorFactory;
 import com.teamgannon.trips.dialogs.dataset.model.Dataset;
-import com.teamgannon.trips.file.chview.model.ChViewFile;
+import com.teamgannon.trips.file.chview.ChviewReader;
 import com.teamgannon.trips.file.csvin.RegCSVFile;
 import com.teamgannon.trips.jpa.model.DataSetDescriptor;
 import com.teamgannon.trips.jpa.repository.DataSetDescriptorRepository;
 import com.teamgannon.trips.jpa.repository.StarObjectRepository;
 import com.teamgannon.trips.measure.TrackExecutionTime;
+import com.teamgannon.trips.routing.TransitGraphCache;
+import com.teamgannon.trips.service.bulkload.StarBulkInserter;
+import com.teamgannon.trips.service.bulkload.StarBulkLoad;
 import com.teamgannon.trips.service.importservices.tasks.ProgressUpdater;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.File;
+
 @Slf4j
 @Service
 public class BulkLoadService {
 
+    /**
+     * rough size of a star record in a chview file, to estimate the load size
+     */
+    private static final int ESTIMATED_CHV_BYTES_PER_STAR = 120;
+
     /**
      * storage of data sets in DB
      */
@@ -31,30 +42,82 @@ public class BulkLoadService {
 
     private final StarService starService;
     private final DatasetService datasetService;
+    private final StarSnapshotService starSnapshotService;
+    private final StarBulkInserter starBulkInserter;
+    private final TransitGraphCache transitGraphCache;
 
     public BulkLoadService(StarService starService,
                            DatasetService datasetService,
                            DataSetDescriptorRepository dataSetDescriptorRepository,
-                           StarObjectRepository starObjectRepository) {
+                           StarObjectRepository starObjectRepository,
+                           StarSnapshotService starSnapshotService,
+                           StarBulkInserter starBulkInserter,
+                           TransitGraphCache transitGraphCache) {
         this.starService = starService;
         this.datasetService = datasetService;
         this.dataSetDescriptorRepository = dataSetDescriptorRepository;
         this.starObjectRepository = starObjectRepository;
+        this.starSnapshotService = starSnapshotService;
+        this.starBulkInserter = starBulkInserter;
+        this.transitGraphCache = transitGraphCache;
     }
 
+    /**
+     * start inserting the stars of a new dataset with JDBC batches, bypassing Hibernate
+     *
+     * @param dataSetName   the dataset being loaded
+     * @param expectedStars about how many stars the load holds, 0 if unknown
+     * @return the load, to be closed once all stars are inserted
+     */
+    public @NotNull StarBulkLoad openStarLoad(@NotNull String dataSetName, long expectedStars) {
+        return starBulkInserter.open(dataSetName, expectedStars);
+    }
 
+
+    /**
+     * load a chview file into a new dataset, saving the stars batch by batch as the file is read
+     * <p>
+     * The batches are committed as they go, so if the load fails partway the stars already saved
+     * are deleted again, leaving nothing behind for a retry to duplicate.
+     *
+     * @param progressUpdater the updater
+     * @param dataset         the dataset to load into
+     * @param chviewReader    the reader for the file
+     * @param file            the chview file
+     * @return the descriptor of the loaded dataset
+     */
     @TrackExecutionTime
     public @NotNull
-    DataSetDescriptor loadCHFile(@NotNull ProgressUpdater progressUpdater, @NotNull Dataset dataset, @NotNull ChViewFile chViewFile) throws Exception {
+    DataSetDescriptor loadCHFile(@NotNull ProgressUpdater progressUpdater,
+                                 @NotNull Dataset dataset,
+                                 @NotNull ChviewReader chviewReader,
+                                 @NotNull File file) throws Exception {
 
-        // this method call actually saves the dataset in elasticsearch
-        return DataSetDescriptorFactory.createDataSetDescriptor(
-                progressUpdater,
-                dataset,
-                dataSetDescriptorRepository,
-                starObjectRepository,
-                chViewFile
-        );
+        StarBulkLoad starLoad = openStarLoad(dataset.getName(), file.length() / ESTIMATED_CHV_BYTES_PER_STAR);
+        try (starLoad) {
+            return DataSetDescriptorFactory.createDataSetDescriptor(
+                    progressUpdater,
+                    dataset,
+                    dataSetDescriptorRepository,
+                    starLoad,
+                    chviewReader,
+                    file
+            );
+        } catch (Exception e) {
+            // nothing inserted means the load failed before it started, e.g. the dataset already exists
+            if (starLoad.getInsertedCount() > 0) {
+                log.error("chview load of {} failed after {} stars were saved, removing them",
+                        dataset.getName(), starLoad.getInsertedCount());
+                try {
+                    starObjectRepository.deleteByDataSetName(dataset.getName());
+                    starSnapshotService.invalidate(dataset.getName());
+                    transitGraphCache.invalidate(dataset.getName());
+                } catch (RuntimeException cleanupFailure) {
+                    e.addSuppressed(cleanupFailure);
+                }
+            }
+            throw e;
+        }
     }
 
 
@@ -76,6 +139,7 @@ public class BulkLoadService {
     public void removeDataSet(@NotNull DataSetDescriptor descriptor) {
         starObjectRepository.deleteByDataSetName(descriptor.getDataSetName());
         dataSetDescriptorRepository.delete(descriptor);
+        starService.invalidateCaches(descriptor.getDataSetName());
     }
 
 }
@@ -101,7 +101,8 @@ public class DataExportService {
         // we keep the switch in case we want to add more varieties of export
         switch (exportOptions.getExportFormat()) {
 
-            case CSV -> {
+            // the dataset exporter writes either format
+            case CSV, COLUMNAR -> {
                 currentlyRunning.set(true);
                 runningExportService = csvDataSetDataExportService;
                 boolean queued = csvDataSetDataExportService.exportAsCSV(
@@ -93,7 +93,8 @@ public class DataImportService {
                 chvDataImportService.restart();
             }
 
-            case "trips.csv" -> {
+            // the CSV importer loads columnar exports too
+            case "trips.csv", "trips.col" -> {
                 currentlyRunning.set(true);
                 runningImportService = csvDataImportService;
                 boolean queued = csvDataImportService.processDataSet(
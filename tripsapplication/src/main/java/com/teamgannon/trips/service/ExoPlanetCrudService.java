@@ -4,6 +4,7 @@ import com.teamgannon.trips.jpa.model.ExoPlanet;
 import com.teamgannon.trips.jpa.model.SolarSystem;
 import com.teamgannon.trips.jpa.repository.ExoPlanetRepository;
 import com.teamgannon.trips.jpa.repository.SolarSystemRepository;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetArtifactStore;
 import com.teamgannon.trips.planetarymodelling.procedural.PlanetConfig;
 import com.teamgannon.trips.planetarymodelling.procedural.PlanetGenerator;
 import com.teamgannon.trips.planetarymodelling.procedural.ProceduralPlanetPersistenceHelper;
@@ -26,11 +27,14 @@ public class ExoPlanetCrudService {
 
     private final ExoPlanetRepository exoPlanetRepository;
     private final SolarSystemRepository solarSystemRepository;
+    private final PlanetArtifactStore planetArtifactStore;
 
     public ExoPlanetCrudService(ExoPlanetRepository exoPlanetRepository,
-                                SolarSystemRepository solarSystemRepository) {
+                                SolarSystemRepository solarSystemRepository,
+                                PlanetArtifactStore planetArtifactStore) {
         this.exoPlanetRepository = exoPlanetRepository;
         this.solarSystemRepository = solarSystemRepository;
+        this.planetArtifactStore = planetArtifactStore;
     }
 
     /**
@@ -219,7 +223,7 @@ public class ExoPlanetCrudService {
             return null;
         }
 
-        PlanetGenerator.GeneratedPlanet generated = PlanetGenerator.generate(config);
+        PlanetGenerator.GeneratedPlanet generated = planetArtifactStore.loadOrGenerate(config);
 
         ProceduralPlanetPersistenceHelper.populateProceduralMetadata(
                 exoPlanet, config, config.seed(), generated, "REGENERATED");
@@ -228,6 +232,26 @@ public class ExoPlanetCrudService {
         return generated;
     }
 
+    /**
+     * Load procedural terrain stored by an earlier generation with the same config,
+     * generating and storing it if there is none.
+     *
+     * @param config the planet configuration
+     * @return the generated planet
+     */
+    public PlanetGenerator.GeneratedPlanet loadOrGenerateProceduralPlanet(PlanetConfig config) {
+        return planetArtifactStore.loadOrGenerate(config);
+    }
+
+    /**
+     * Store procedural terrain so that reopening it with the same config skips generation.
+     *
+     * @param planet the generated planet
+     */
+    public void storeProceduralPlanet(PlanetGenerator.GeneratedPlanet planet) {
+        planetArtifactStore.store(planet);
+    }
+
     /**
      * Count exoplanets in a solar system.
      *
@@ -32,6 +32,7 @@ public class SolPlanetsInitializer {
     private final SolarSystemRepository solarSystemRepository;
     private final ExoPlanetRepository exoPlanetRepository;
     private final SolarSystemFeatureRepository featureRepository;
+    private final StarService starService;
 
     // Earth constants for unit conversion
     private static final double EARTH_MASS_KG = 5.97e24;  // kg
@@ -42,11 +43,13 @@ public class SolPlanetsInitializer {
     public SolPlanetsInitializer(StarObjectRepository starObjectRepository,
                                   SolarSystemRepository solarSystemRepository,
                                   ExoPlanetRepository exoPlanetRepository,
-                                  SolarSystemFeatureRepository featureRepository) {
+                                  SolarSystemFeatureRepository featureRepository,
+                                  StarService starService) {
         this.starObjectRepository = starObjectRepository;
         this.solarSystemRepository = solarSystemRepository;
         this.exoPlanetRepository = exoPlanetRepository;
         this.featureRepository = featureRepository;
+        this.starService = starService;
     }
 
     @PostConstruct
@@ -228,6 +231,7 @@ public class SolPlanetsInitializer {
         // Update Sol with the solar system reference
         sol.setSolarSystemId(solarSystem.getId());
         starObjectRepository.save(sol);
+        starService.invalidateCaches(sol.getDataSetName());
 
         return solarSystem;
     }
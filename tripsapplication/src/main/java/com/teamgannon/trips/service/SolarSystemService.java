@@ -12,6 +12,7 @@ import com.teamgannon.trips.jpa.repository.StarObjectRepository;
 import com.teamgannon.trips.planetarymodelling.FeatureDescription;
 import com.teamgannon.trips.planetarymodelling.PlanetDescription;
 import com.teamgannon.trips.planetarymodelling.SolarSystemDescription;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetConfig;
 import com.teamgannon.trips.planetarymodelling.procedural.PlanetGenerator;
 import com.teamgannon.trips.solarsysmodelling.accrete.Planet;
 import com.teamgannon.trips.solarsysmodelling.accrete.PostAccretionGenerator;
@@ -38,17 +39,20 @@ public class SolarSystemService {
     private final StarObjectRepository starObjectRepository;
     private final SolarSystemFeatureRepository featureRepository;
     private final ExoPlanetCrudService exoPlanetCrudService;
+    private final StarService starService;
 
     public SolarSystemService(SolarSystemRepository solarSystemRepository,
                               ExoPlanetRepository exoPlanetRepository,
                               StarObjectRepository starObjectRepository,
                               SolarSystemFeatureRepository featureRepository,
-                              ExoPlanetCrudService exoPlanetCrudService) {
+                              ExoPlanetCrudService exoPlanetCrudService,
+                              StarService starService) {
         this.solarSystemRepository = solarSystemRepository;
         this.exoPlanetRepository = exoPlanetRepository;
         this.starObjectRepository = starObjectRepository;
         this.featureRepository = featureRepository;
         this.exoPlanetCrudService = exoPlanetCrudService;
+        this.starService = starService;
     }
 
     // ==================== Solar System Retrieval ====================
@@ -222,6 +226,7 @@ public class SolarSystemService {
         solarSystem = solarSystemRepository.save(solarSystem);
         primaryStar.setSolarSystemId(solarSystem.getId());
         starObjectRepository.save(primaryStar);
+        starService.invalidateCaches(primaryStar.getDataSetName());
 
         log.info("Created solar system '{}' for star '{}'",
                 solarSystem.getSystemName(), primaryStar.getDisplayName());
@@ -258,6 +263,7 @@ public class SolarSystemService {
     public void addStarToSystem(SolarSystem solarSystem, StarObject star) {
         star.setSolarSystemId(solarSystem.getId());
         starObjectRepository.save(star);
+        starService.invalidateCaches(star.getDataSetName());
 
         solarSystem.setStarCount(solarSystem.getStarCount() + 1);
         solarSystemRepository.save(solarSystem);
@@ -329,6 +335,7 @@ public class SolarSystemService {
             star.setSolarSystemId(null);
             starObjectRepository.save(star);
         }
+        starService.invalidateCaches(stars);
 
         // Clear references from planets
         List<ExoPlanet> planets = exoPlanetRepository.findBySolarSystemId(solarSystem.getId());
@@ -362,6 +369,14 @@ public class SolarSystemService {
         return exoPlanetCrudService.regenerateProceduralPlanet(exoPlanet);
     }
 
+    public PlanetGenerator.GeneratedPlanet loadOrGenerateProceduralPlanet(PlanetConfig config) {
+        return exoPlanetCrudService.loadOrGenerateProceduralPlanet(config);
+    }
+
+    public void storeProceduralPlanet(PlanetGenerator.GeneratedPlanet planet) {
+        exoPlanetCrudService.storeProceduralPlanet(planet);
+    }
+
     @Transactional
     public void deleteExoPlanet(String planetId) {
         exoPlanetCrudService.delete(planetId);
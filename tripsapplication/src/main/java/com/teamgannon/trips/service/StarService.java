@@ -10,9 +10,13 @@ import com.teamgannon.trips.jpa.model.StarObject;
 import com.teamgannon.trips.jpa.repository.DataSetDescriptorRepository;
 import com.teamgannon.trips.jpa.repository.StarObjectRepository;
 import com.teamgannon.trips.measure.TrackExecutionTime;
+import com.teamgannon.trips.routing.TransitGraphCache;
+import com.teamgannon.trips.routing.model.RouteCorridor;
 import com.teamgannon.trips.routing.model.SparseStarRecord;
 import com.teamgannon.trips.search.AstroSearchQuery;
 import com.teamgannon.trips.search.SearchContext;
+import com.teamgannon.trips.service.snapshot.StarSnapshot;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.domain.Page;
@@ -20,6 +24,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -43,11 +49,19 @@ public class StarService {
 
     private final DataSetDescriptorRepository dataSetDescriptorRepository;
 
+    private final TransitGraphCache transitGraphCache;
+
+    private final StarSnapshotService starSnapshotService;
+
 
     public StarService(StarObjectRepository starObjectRepository,
-                       DataSetDescriptorRepository dataSetDescriptorRepository) {
+                       DataSetDescriptorRepository dataSetDescriptorRepository,
+                       TransitGraphCache transitGraphCache,
+                       StarSnapshotService starSnapshotService) {
         this.starObjectRepository = starObjectRepository;
         this.dataSetDescriptorRepository = dataSetDescriptorRepository;
+        this.transitGraphCache = transitGraphCache;
+        this.starSnapshotService = starSnapshotService;
     }
 
 
@@ -267,6 +281,15 @@ public class StarService {
     @Transactional(readOnly = true)
     public Map<String, SparseStarRecord> getFromDatasetWithinRanges(@NotNull DataSetDescriptor dataSetDescriptor, double distance) {
         final Map<String, SparseStarRecord> starRecordHashMap = new HashMap<>();
+        StarSnapshot snapshot = starSnapshotService.getSnapshot(dataSetDescriptor.getDataSetName());
+        if (snapshot != null) {
+            for (int i = 0; i < snapshot.size(); i++) {
+                if (snapshot.distance(i) <= distance) {
+                    starRecordHashMap.put(snapshot.displayName(i), snapshot.toSparseStarRecord(i));
+                }
+            }
+            return starRecordHashMap;
+        }
         try (Stream<StarObject> starObjectStream = starObjectRepository.streamByDistanceWithin(dataSetDescriptor.getDataSetName(), distance)) {
             starObjectStream.forEach(starObject -> {
                 SparseStarRecord sparseStarRecord = starObject.toSparseStarRecord();
@@ -277,6 +300,59 @@ public class StarService {
         return starRecordHashMap;
     }
 
+    /**
+     * get the stars of a dataset that lie inside a route corridor
+     * <p>
+     * The dataset's star snapshot is scanned when available; otherwise the corridor's
+     * bounding box is resolved by the dataset/coordinate index, and only id, name and
+     * coordinates are read for each star.
+     *
+     * @param dataSetDescriptor the dataset
+     * @param corridor          the corridor around the origin-destination segment
+     * @return the stars in the corridor keyed by name
+     */
+    @TrackExecutionTime
+    @Transactional(readOnly = true)
+    public Map<String, SparseStarRecord> getFromDatasetWithinCorridor(@NotNull DataSetDescriptor dataSetDescriptor,
+                                                                      @NotNull RouteCorridor corridor) {
+        final Map<String, SparseStarRecord> starRecordHashMap = new HashMap<>();
+        StarSnapshot snapshot = starSnapshotService.getSnapshot(dataSetDescriptor.getDataSetName());
+        if (snapshot != null) {
+            double[] coordinates = new double[3];
+            for (int i = 0; i < snapshot.size(); i++) {
+                coordinates[0] = snapshot.x(i);
+                coordinates[1] = snapshot.y(i);
+                coordinates[2] = snapshot.z(i);
+                if (corridor.contains(coordinates)) {
+                    starRecordHashMap.put(snapshot.displayName(i), snapshot.toSparseStarRecord(i));
+                }
+            }
+            return starRecordHashMap;
+        }
+        try (Stream<Object[]> rows = starObjectRepository.streamSparseInBoundingBox(
+                dataSetDescriptor.getDataSetName(),
+                corridor.getMinX(), corridor.getMaxX(),
+                corridor.getMinY(), corridor.getMaxY(),
+                corridor.getMinZ(), corridor.getMaxZ())) {
+            rows.forEach(row -> {
+                double[] coordinates = {
+                        ((Number) row[2]).doubleValue(),
+                        ((Number) row[3]).doubleValue(),
+                        ((Number) row[4]).doubleValue()
+                };
+                if (corridor.contains(coordinates)) {
+                    SparseStarRecord sparseStarRecord = new SparseStarRecord();
+                    sparseStarRecord.setRecordId((String) row[0]);
+                    sparseStarRecord.setStarName((String) row[1]);
+                    sparseStarRecord.setActualCoordinates(coordinates);
+                    starRecordHashMap.put(sparseStarRecord.getStarName(), sparseStarRecord);
+                }
+            });
+        }
+
+        return starRecordHashMap;
+    }
+
     /**
      * get a count of the number of stars based on a limit
      *
@@ -332,6 +408,7 @@ public class StarService {
     @Transactional
     public void removeStar(@NotNull StarObject starObject) {
         starObjectRepository.delete(starObject);
+        invalidateCaches(starObject.getDataSetName());
     }
 
     /**
@@ -344,6 +421,7 @@ public class StarService {
     public void addStar(@NotNull StarObject starObjectNew) {
 //        starObjectNew.calculateDisplayScore();
         starObjectRepository.save(starObjectNew);
+        invalidateCaches(starObjectNew.getDataSetName());
         Optional<StarObject> testGet = starObjectRepository.findById(starObjectNew.getId());
         if (testGet.isEmpty()) {
             log.error("why didn't this save work");
@@ -360,6 +438,7 @@ public class StarService {
     public void updateStar(@NotNull StarObject starObject) {
         log.info(">>>>updating star={}, name={}, common ={}", starObject.getId(), starObject.getDisplayName(), starObject.getCommonName());
         StarObject object = starObjectRepository.save(starObject);
+        invalidateCaches(object.getDataSetName());
         if (starObject.getId().equals(object.getId())) {
             log.info("same");
         } else {
@@ -421,6 +500,8 @@ public class StarService {
     @TrackExecutionTime
     @Transactional
     public void removeStar(@NotNull String recordId) {
+        starObjectRepository.findById(recordId)
+                .ifPresent(starObject -> invalidateCaches(starObject.getDataSetName()));
         starObjectRepository.deleteById(recordId);
     }
 
@@ -433,6 +514,7 @@ public class StarService {
     @Transactional
     public void addStars(@NotNull List<StarObject> starObjectList) {
         starObjectRepository.saveAll(starObjectList);
+        invalidateCaches(starObjectList);
     }
 
     /**
@@ -450,12 +532,54 @@ public class StarService {
     @Transactional
     public void starBulkSave(@NotNull java.util.Collection<StarObject> stars) {
         starObjectRepository.saveAll(stars);
+        invalidateCaches(stars);
     }
 
     @TrackExecutionTime
     @Transactional
     public void updateStars(@NotNull List<StarObject> starObjects) {
         starObjectRepository.saveAll(starObjects);
+        invalidateCaches(starObjects);
+    }
+
+    /**
+     * drop the cached transit graphs and star snapshots of every dataset touched by a bulk change
+     *
+     * @param stars the changed stars
+     * @see #invalidateCaches(String)
+     */
+    public void invalidateCaches(@NotNull java.util.Collection<StarObject> stars) {
+        stars.stream()
+                .map(StarObject::getDataSetName)
+                .distinct()
+                .forEach(this::invalidateCaches);
+    }
+
+    /**
+     * drop the cached transit graphs and star snapshot of a changed dataset
+     * <p>
+     * Inside a transaction the caches are dropped once it commits. Dropped earlier, a reader
+     * could rebuild them from the old committed rows and keep serving those; dropped on a
+     * rollback, they would only be rebuilt for nothing.
+     *
+     * @param dataSetName the dataset name
+     */
+    public void invalidateCaches(String dataSetName) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateCachesNow(dataSetName);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateCachesNow(dataSetName);
+            }
+        });
+    }
+
+    private void invalidateCachesNow(String dataSetName) {
+        transitGraphCache.invalidate(dataSetName);
+        starSnapshotService.invalidate(dataSetName);
     }
 
     @TrackExecutionTime
@@ -745,6 +869,42 @@ public class StarService {
         return count;
     }
 
+    /**
+     * Process all stars in a dataset in chunks, using streaming.
+     * Each chunk is detached from the persistence context before it is handed over, so memory
+     * stays bounded by the chunk size and the consumer may pass the chunk to other threads.
+     * Lazy collections (the alias list) are not loaded.
+     *
+     * @param dataSetName the dataset name
+     * @param chunkSize   stars per chunk
+     * @param processor   consumer of each chunk, called on this thread
+     * @return count of stars processed
+     */
+    @Transactional(readOnly = true)
+    public long processDatasetChunks(@NotNull String dataSetName,
+                                     int chunkSize,
+                                     @NotNull java.util.function.Consumer<List<StarObject>> processor) {
+        long count = 0;
+        try (Stream<StarObject> stream = starObjectRepository.findByDataSetName(dataSetName)) {
+            java.util.Iterator<StarObject> iterator = stream.iterator();
+            List<StarObject> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                count++;
+                if (chunk.size() == chunkSize) {
+                    entityManager.clear();
+                    processor.accept(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                entityManager.clear();
+                processor.accept(chunk);
+            }
+        }
+        return count;
+    }
+
     /**
      * Process stars matching a search query using streaming.
      * The consumer is called for each star within a single transaction.
@@ -0,0 +1,192 @@
+package com.teamgannon.trips.service.bulkload;
+
+import com.teamgannon.trips.routing.TransitGraphCache;
+import com.teamgannon.trips.service.StarService;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bulk insert of new datasets straight into STAR_OBJ with JDBC batches.
+ * <p>
+ * Saving through {@link StarService#starBulkSave} puts every star, with its embedded
+ * catalog ids and world building and its alias collection, into the persistence context
+ * to be tracked and flushed. A fresh dataset import needs none of that: every star is new
+ * and nothing reads it back during the load. {@link #open} starts a {@link StarBulkLoad}
+ * that writes rows with prepared-statement batches on its own connection instead.
+ * <p>
+ * For a load at least as large as the table already is, the secondary indexes on STAR_OBJ
+ * are dropped first and rebuilt once when the load is closed, which is cheaper than
+ * maintaining them row by row. Only one load defers indexes at a time. Should the
+ * application die mid-load, Hibernate's schema update recreates the missing indexes on
+ * the next start.
+ * <p>
+ * If the STAR_OBJ schema does not match {@link com.teamgannon.trips.jpa.model.StarObject}
+ * field for field, the load falls back to {@link StarService#starBulkSave}.
+ */
+@Slf4j
+@Service
+public class StarBulkInserter {
+
+    /**
+     * Smallest load for which indexes are dropped and rebuilt.
+     */
+    public static final long DEFER_INDEXES_MIN_STARS = 50_000;
+
+    private final DataSource dataSource;
+    private final StarService starService;
+    private final StarSnapshotService starSnapshotService;
+    private final TransitGraphCache transitGraphCache;
+
+    // set while a load has dropped the STAR_OBJ indexes
+    private final AtomicBoolean indexesDeferred = new AtomicBoolean();
+
+    public StarBulkInserter(DataSource dataSource,
+                            StarService starService,
+                            StarSnapshotService starSnapshotService,
+                            TransitGraphCache transitGraphCache) {
+        this.dataSource = dataSource;
+        this.starService = starService;
+        this.starSnapshotService = starSnapshotService;
+        this.transitGraphCache = transitGraphCache;
+    }
+
+    /**
+     * Start loading a new dataset.
+     *
+     * @param dataSetName   the dataset the stars belong to
+     * @param expectedStars about how many stars will be inserted, 0 if unknown
+     * @return the load, to be closed when all stars are inserted
+     */
+    public @NotNull StarBulkLoad open(@NotNull String dataSetName, long expectedStars) {
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            StarTableMapping mapping = StarTableMapping.resolve(connection.getMetaData());
+            if (mapping == null) {
+                connection.close();
+                log.warn("bulk insert: schema not matched, loading {} through Hibernate", dataSetName);
+                return new StarBulkLoad(this, dataSetName, null, null, List.of());
+            }
+            connection.setAutoCommit(false);
+            List<String> deferredIndexes = deferIndexes(connection, mapping, expectedStars);
+            log.info("bulk insert: loading {} (~{} stars) with JDBC batches, {} indexes deferred",
+                    dataSetName, expectedStars, deferredIndexes.size());
+            return new StarBulkLoad(this, dataSetName, mapping, connection, deferredIndexes);
+        } catch (SQLException e) {
+            log.warn("bulk insert: could not prepare, loading {} through Hibernate: {}", dataSetName, e.getMessage());
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException ignored) {
+                    // already failing
+                }
+            }
+            return new StarBulkLoad(this, dataSetName, null, null, List.of());
+        }
+    }
+
+    @NotNull StarService getStarService() {
+        return starService;
+    }
+
+    /**
+     * Called by a direct load once it is closed.
+     */
+    void loadClosed(@NotNull StarBulkLoad load) {
+        if (load.isIndexesDeferred()) {
+            indexesDeferred.set(false);
+        }
+        if (load.getInsertedCount() > 0) {
+            transitGraphCache.invalidate(load.getDataSetName());
+            starSnapshotService.invalidate(load.getDataSetName());
+        }
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    /**
+     * Drop the non-unique indexes on STAR_OBJ if the load is worth rebuilding them for.
+     *
+     * @return the statements that recreate the dropped indexes
+     */
+    private @NotNull List<String> deferIndexes(@NotNull Connection connection,
+                                               @NotNull StarTableMapping mapping,
+                                               long expectedStars) throws SQLException {
+        if (expectedStars < DEFER_INDEXES_MIN_STARS) {
+            return List.of();
+        }
+        long existingStars;
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(mapping.getCountSql())) {
+            existingStars = rs.next() ? rs.getLong(1) : 0;
+        }
+        if (expectedStars < existingStars || !indexesDeferred.compareAndSet(false, true)) {
+            return List.of();
+        }
+
+        List<String> deferred = new ArrayList<>();
+        try (Statement statement = connection.createStatement()) {
+            Map<String, List<String>> indexColumns = readIndexes(connection.getMetaData(), mapping);
+            for (Map.Entry<String, List<String>> index : indexColumns.entrySet()) {
+                try {
+                    statement.execute("DROP INDEX " + mapping.qualified(index.getKey()));
+                    deferred.add("CREATE INDEX " + mapping.qualified(index.getKey())
+                            + " ON " + mapping.getStarTable() + " (" + String.join(", ", index.getValue()) + ")");
+                } catch (SQLException e) {
+                    // e.g. backs a constraint; leave it in place
+                    log.debug("bulk insert: keeping index {}: {}", index.getKey(), e.getMessage());
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            // whatever was dropped is still rebuilt when the load closes
+            log.warn("bulk insert: failed to defer indexes: {}", e.getMessage());
+        }
+        if (deferred.isEmpty()) {
+            indexesDeferred.set(false);
+        }
+        return deferred;
+    }
+
+    /**
+     * The non-unique indexes on STAR_OBJ, each as its quoted columns with their order.
+     */
+    private static @NotNull Map<String, List<String>> readIndexes(@NotNull DatabaseMetaData meta,
+                                                                  @NotNull StarTableMapping mapping) throws SQLException {
+        Map<String, List<String>> indexColumns = new LinkedHashMap<>();
+        try (ResultSet rs = meta.getIndexInfo(mapping.getCatalog(), mapping.getSchema(),
+                mapping.getTableName(), false, false)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                String column = rs.getString("COLUMN_NAME");
+                if (indexName == null || column == null || !rs.getBoolean("NON_UNIQUE")) {
+                    continue;
+                }
+                indexColumns.computeIfAbsent(indexName, name -> new ArrayList<>())
+                        .add(mapping.quoted(column) + order(rs.getString("ASC_OR_DESC")));
+            }
+        }
+        return indexColumns;
+    }
+
+    private static @NotNull String order(@Nullable String ascOrDesc) {
+        return "D".equals(ascOrDesc) ? " DESC" : "";
+    }
+}
@@ -0,0 +1,235 @@
+package com.teamgannon.trips.service.bulkload;
+
+import com.teamgannon.trips.astrogation.Coordinates;
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.service.StarService;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One dataset load through {@link StarBulkInserter}.
+ * <p>
+ * Each {@link #insert} writes its stars and their aliases with JDBC batches on the load's
+ * own connection and commits them, bypassing the persistence context. Closing the load
+ * rebuilds any indexes dropped for it, releases the connection and drops the dataset's
+ * cached snapshots and transit graphs. When the schema could not be matched the load
+ * saves through {@link StarService#starBulkSave} instead, with the same results.
+ * <p>
+ * A load is used by one thread at a time; always close it, in a try-with-resources.
+ */
+@Slf4j
+public final class StarBulkLoad implements AutoCloseable {
+
+    // statements per executeBatch call
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    private final StarBulkInserter inserter;
+    private final String dataSetName;
+    private final @Nullable StarTableMapping mapping;
+    private final @Nullable Connection connection;
+    private final List<String> deferredIndexes;
+    private long insertedCount;
+    private boolean closed;
+
+    StarBulkLoad(@NotNull StarBulkInserter inserter,
+                 @NotNull String dataSetName,
+                 @Nullable StarTableMapping mapping,
+                 @Nullable Connection connection,
+                 @NotNull List<String> deferredIndexes) {
+        this.inserter = inserter;
+        this.dataSetName = dataSetName;
+        this.mapping = mapping;
+        this.connection = connection;
+        this.deferredIndexes = deferredIndexes;
+    }
+
+    /**
+     * Whether stars are written with JDBC batches rather than through Hibernate.
+     */
+    public boolean isDirect() {
+        return connection != null;
+    }
+
+    /**
+     * Number of stars inserted so far.
+     */
+    public long getInsertedCount() {
+        return insertedCount;
+    }
+
+    /**
+     * Whether indexes on STAR_OBJ were dropped for this load, to be rebuilt on close.
+     */
+    public boolean isIndexesDeferred() {
+        return !deferredIndexes.isEmpty();
+    }
+
+    /**
+     * Insert new stars and commit them.
+     *
+     * @param stars the stars, with ids not yet in the database
+     * @throws IllegalStateException if the insert failed; the stars of this call are rolled back
+     */
+    public void insert(@NotNull Collection<StarObject> stars) {
+        if (closed) {
+            throw new IllegalStateException("bulk load of " + dataSetName + " is closed");
+        }
+        if (stars.isEmpty()) {
+            return;
+        }
+        if (connection == null || mapping == null) {
+            inserter.getStarService().starBulkSave(stars);
+            insertedCount += stars.size();
+            return;
+        }
+        try {
+            insertStars(connection, mapping, stars);
+            insertAliases(connection, mapping, stars);
+            connection.commit();
+            insertedCount += stars.size();
+        } catch (SQLException e) {
+            rollback(connection);
+            throw new IllegalStateException("bulk insert into " + dataSetName + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Rebuild deferred indexes, release the connection and drop the dataset's caches.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (connection == null || mapping == null) {
+            return;
+        }
+        try {
+            rebuildIndexes(connection);
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("bulk insert: failed to close connection: {}", e.getMessage());
+            }
+            inserter.loadClosed(this);
+        }
+    }
+
+    @NotNull String getDataSetName() {
+        return dataSetName;
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    private void insertStars(Connection connection, StarTableMapping mapping,
+                             Collection<StarObject> stars) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(mapping.getInsertStarSql())) {
+            int pending = 0;
+            for (StarObject star : stars) {
+                ensureCoordinates(star);
+                for (int i = 0; i < mapping.getColumnCount(); i++) {
+                    Object value = mapping.value(i, star);
+                    if (value == null) {
+                        statement.setNull(i + 1, mapping.type(i));
+                    } else {
+                        statement.setObject(i + 1, value);
+                    }
+                }
+                statement.addBatch();
+                if (++pending == JDBC_BATCH_SIZE) {
+                    statement.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    private void insertAliases(Connection connection, StarTableMapping mapping,
+                               Collection<StarObject> stars) throws SQLException {
+        boolean anyAliases = stars.stream().anyMatch(star -> star.getAliasList() != null && !star.getAliasList().isEmpty());
+        if (!anyAliases) {
+            return;
+        }
+        if (mapping.getInsertAliasSql() == null) {
+            throw new SQLException("no alias table matched; cannot store star aliases");
+        }
+        try (PreparedStatement statement = connection.prepareStatement(mapping.getInsertAliasSql())) {
+            int pending = 0;
+            for (StarObject star : stars) {
+                if (star.getAliasList() == null) {
+                    continue;
+                }
+                for (String alias : star.getAliasList()) {
+                    statement.setString(1, star.getId());
+                    statement.setString(2, alias);
+                    statement.addBatch();
+                    if (++pending == JDBC_BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+            }
+        }
+    }
+
+    /**
+     * What StarObject's {@code @PrePersist} hook does: fill in x/y/z from ra, dec and distance.
+     */
+    private static void ensureCoordinates(StarObject star) {
+        if (star.getX() == 0.0 && star.getY() == 0.0 && star.getZ() == 0.0 && star.getDistance() > 0) {
+            double[] computed = Coordinates.calculateEquatorialCoordinates(
+                    star.getRa(), star.getDeclination(), star.getDistance());
+            star.setX(computed[0]);
+            star.setY(computed[1]);
+            star.setZ(computed[2]);
+        }
+    }
+
+    private void rebuildIndexes(Connection connection) {
+        if (deferredIndexes.isEmpty()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try (Statement statement = connection.createStatement()) {
+            for (String createIndex : deferredIndexes) {
+                try {
+                    statement.execute(createIndex);
+                } catch (SQLException e) {
+                    // Hibernate's schema update recreates it on the next start
+                    log.error("bulk insert: failed to rebuild index: {}: {}", createIndex, e.getMessage());
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            log.error("bulk insert: failed to rebuild indexes: {}", e.getMessage());
+        }
+        log.info("bulk insert: rebuilt {} STAR_OBJ indexes in {}ms",
+                deferredIndexes.size(), System.currentTimeMillis() - start);
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.warn("bulk insert: rollback failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package com.teamgannon.trips.service.bulkload;
+
+import com.teamgannon.trips.jpa.model.StarCatalogIds;
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.jpa.model.StarWorldBuilding;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The STAR_OBJ table as the database has it, matched to the fields of {@link StarObject}.
+ * <p>
+ * Table and column names are read from the JDBC metadata rather than hard-coded, so the
+ * mapping follows whatever naming strategy Hibernate created the schema with: a name
+ * matches a field when both agree ignoring case and underscores ({@code GAIA_DR2CAT_ID}
+ * is {@code gaiaDR2CatId}). If the table has a column no field accounts for, or a field
+ * has no column, the schema is not the one this mapping knows and {@link #resolve} gives
+ * up, so the caller can fall back to Hibernate.
+ */
+@Slf4j
+final class StarTableMapping {
+
+    private static final String STAR_TABLE = "starobj";
+    private static final String ALIAS_TABLE = "starobjaliaslist";
+    private static final String ALIAS_OWNER_COLUMN = "starobjid";
+    private static final String ALIAS_VALUE_COLUMN = "aliaslist";
+
+    // normalized column name -> the column's value for a star
+    private static final Map<String, Function<StarObject, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        field("id", StarObject::getId);
+        field("dataSetName", StarObject::getDataSetName);
+        field("displayName", StarObject::getDisplayName);
+        field("commonName", StarObject::getCommonName);
+        field("systemName", StarObject::getSystemName);
+        field("solarSystemId", StarObject::getSolarSystemId);
+        field("epoch", StarObject::getEpoch);
+        field("gaiaUpdated", StarObject::isGaiaUpdated);
+        field("gaiaUpdatedDate", StarObject::getGaiaUpdatedDate);
+        field("constellationName", StarObject::getConstellationName);
+
+        catalogField("simbadId", StarCatalogIds::getSimbadId);
+        catalogField("bayerCatId", StarCatalogIds::getBayerCatId);
+        catalogField("glieseCatId", StarCatalogIds::getGlieseCatId);
+        catalogField("hipCatId", StarCatalogIds::getHipCatId);
+        catalogField("hdCatId", StarCatalogIds::getHdCatId);
+        catalogField("flamsteedCatId", StarCatalogIds::getFlamsteedCatId);
+        catalogField("tycho2CatId", StarCatalogIds::getTycho2CatId);
+        catalogField("gaiaDR2CatId", StarCatalogIds::getGaiaDR2CatId);
+        catalogField("gaiaDR3CatId", StarCatalogIds::getGaiaDR3CatId);
+        catalogField("gaiaEDR3CatId", StarCatalogIds::getGaiaEDR3CatId);
+        catalogField("twoMassCatId", StarCatalogIds::getTwoMassCatId);
+        catalogField("csiCatId", StarCatalogIds::getCsiCatId);
+        catalogField("catalogIdList", StarCatalogIds::getRawCatalogIdList);
+
+        worldField("polity", StarWorldBuilding::getPolity);
+        worldField("worldType", StarWorldBuilding::getWorldType);
+        worldField("fuelType", StarWorldBuilding::getFuelType);
+        worldField("portType", StarWorldBuilding::getPortType);
+        worldField("populationType", StarWorldBuilding::getPopulationType);
+        worldField("techType", StarWorldBuilding::getTechType);
+        worldField("productType", StarWorldBuilding::getProductType);
+        worldField("milSpaceType", StarWorldBuilding::getMilSpaceType);
+        worldField("milPlanType", StarWorldBuilding::getMilPlanType);
+        worldField("other", StarWorldBuilding::isOther);
+        worldField("anomaly", StarWorldBuilding::isAnomaly);
+
+        field("mass", StarObject::getMass);
+        field("radius", StarObject::getRadius);
+        field("temperature", StarObject::getTemperature);
+        field("age", StarObject::getAge);
+        field("metallicity", StarObject::getMetallicity);
+        field("spectralClass", StarObject::getSpectralClass);
+        field("orthoSpectralClass", StarObject::getOrthoSpectralClass);
+        field("luminosity", StarObject::getLuminosity);
+        field("apparentMagnitude", StarObject::getApparentMagnitude);
+        field("absoluteMagnitude", StarObject::getAbsoluteMagnitude);
+        field("x", StarObject::getX);
+        field("y", StarObject::getY);
+        field("z", StarObject::getZ);
+        field("ra", StarObject::getRa);
+        field("declination", StarObject::getDeclination);
+        field("galacticLat", StarObject::getGalacticLat);
+        field("galacticLong", StarObject::getGalacticLong);
+        field("pmra", StarObject::getPmra);
+        field("pmdec", StarObject::getPmdec);
+        field("parallax", StarObject::getParallax);
+        field("distance", StarObject::getDistance);
+        field("radialVelocity", StarObject::getRadialVelocity);
+        field("bprp", StarObject::getBprp);
+        field("bpg", StarObject::getBpg);
+        field("grp", StarObject::getGrp);
+        field("magu", StarObject::getMagu);
+        field("magb", StarObject::getMagb);
+        field("magv", StarObject::getMagv);
+        field("magr", StarObject::getMagr);
+        field("magi", StarObject::getMagi);
+        field("notes", StarObject::getNotes);
+        field("source", StarObject::getSource);
+        field("realStar", StarObject::isRealStar);
+        field("exoplanets", StarObject::isExoplanets);
+        field("numExoplanets", StarObject::getNumExoplanets);
+        field("miscText1", StarObject::getMiscText1);
+        field("miscText2", StarObject::getMiscText2);
+        field("miscText3", StarObject::getMiscText3);
+        field("miscText4", StarObject::getMiscText4);
+        field("miscText5", StarObject::getMiscText5);
+        field("miscNum1", StarObject::getMiscNum1);
+        field("miscNum2", StarObject::getMiscNum2);
+        field("miscNum3", StarObject::getMiscNum3);
+        field("miscNum4", StarObject::getMiscNum4);
+        field("miscNum5", StarObject::getMiscNum5);
+        field("forceLabelToBeShown", StarObject::isForceLabelToBeShown);
+        field("displayScore", StarObject::getDisplayScore);
+    }
+
+    private final String starTable;
+    private final List<Function<StarObject, Object>> columnValues;
+    private final int[] columnTypes;
+    private final String insertStarSql;
+    private final @Nullable String insertAliasSql;
+    private final String countSql;
+    private final String quote;
+    private final @Nullable String schema;
+    private final @Nullable String catalog;
+    private final String tableName;
+
+    private StarTableMapping(String starTable,
+                             List<String> columns,
+                             List<Function<StarObject, Object>> columnValues,
+                             int[] columnTypes,
+                             @Nullable String insertAliasSql,
+                             String quote,
+                             @Nullable String catalog,
+                             @Nullable String schema,
+                             String tableName) {
+        this.starTable = starTable;
+        this.columnValues = columnValues;
+        this.columnTypes = columnTypes;
+        this.insertAliasSql = insertAliasSql;
+        this.quote = quote;
+        this.catalog = catalog;
+        this.schema = schema;
+        this.tableName = tableName;
+        this.insertStarSql = "INSERT INTO " + starTable + " ("
+                + String.join(", ", columns.stream().map(this::quoted).toList())
+                + ") VALUES (" + String.join(", ", columns.stream().map(c -> "?").toList()) + ")";
+        this.countSql = "SELECT COUNT(*) FROM " + starTable;
+    }
+
+    /**
+     * Match the database's STAR_OBJ table to the star fields.
+     *
+     * @param meta the connection's metadata
+     * @return the mapping, or null if the table is missing or its columns do not match
+     */
+    static @Nullable StarTableMapping resolve(@NotNull DatabaseMetaData meta) throws SQLException {
+        String quote = meta.getIdentifierQuoteString().trim();
+        TableName stars = findTable(meta, STAR_TABLE);
+        if (stars == null) {
+            log.warn("bulk insert: no STAR_OBJ table found");
+            return null;
+        }
+
+        List<String> columns = new ArrayList<>();
+        List<Function<StarObject, Object>> values = new ArrayList<>();
+        List<Integer> types = new ArrayList<>();
+        Set<String> matched = new HashSet<>();
+        try (ResultSet rs = meta.getColumns(stars.catalog, stars.schema, stars.name, "%")) {
+            while (rs.next()) {
+                String column = rs.getString("COLUMN_NAME");
+                Function<StarObject, Object> value = FIELDS.get(normalize(column));
+                if (value == null) {
+                    log.warn("bulk insert: STAR_OBJ column {} has no star field", column);
+                    return null;
+                }
+                columns.add(column);
+                values.add(value);
+                types.add(rs.getInt("DATA_TYPE"));
+                matched.add(normalize(column));
+            }
+        }
+        if (matched.size() != FIELDS.size()) {
+            Set<String> missing = new HashSet<>(FIELDS.keySet());
+            missing.removeAll(matched);
+            log.warn("bulk insert: STAR_OBJ has no columns for {}", missing);
+            return null;
+        }
+
+        String insertAliasSql = null;
+        TableName aliases = findTable(meta, ALIAS_TABLE);
+        if (aliases != null) {
+            String owner = null;
+            String alias = null;
+            try (ResultSet rs = meta.getColumns(aliases.catalog, aliases.schema, aliases.name, "%")) {
+                while (rs.next()) {
+                    String column = rs.getString("COLUMN_NAME");
+                    switch (normalize(column)) {
+                        case ALIAS_OWNER_COLUMN -> owner = column;
+                        case ALIAS_VALUE_COLUMN -> alias = column;
+                        default -> log.warn("bulk insert: unexpected alias column {}", column);
+                    }
+                }
+            }
+            if (owner != null && alias != null) {
+                insertAliasSql = "INSERT INTO " + aliases.qualified(quote)
+                        + " (" + quote + owner + quote + ", " + quote + alias + quote + ") VALUES (?, ?)";
+            }
+        }
+
+        int[] columnTypes = types.stream().mapToInt(Integer::intValue).toArray();
+        return new StarTableMapping(stars.qualified(quote), columns, values, columnTypes,
+                insertAliasSql, quote, stars.catalog, stars.schema, stars.name);
+    }
+
+    /**
+     * The qualified, quoted STAR_OBJ table name.
+     */
+    @NotNull String getStarTable() {
+        return starTable;
+    }
+
+    @NotNull String getInsertStarSql() {
+        return insertStarSql;
+    }
+
+    /**
+     * The alias insert, or null if the alias table could not be matched.
+     */
+    @Nullable String getInsertAliasSql() {
+        return insertAliasSql;
+    }
+
+    @NotNull String getCountSql() {
+        return countSql;
+    }
+
+    int getColumnCount() {
+        return columnValues.size();
+    }
+
+    /**
+     * The value of column {@code i} (0-based) for a star.
+     */
+    @Nullable Object value(int i, @NotNull StarObject star) {
+        return columnValues.get(i).apply(star);
+    }
+
+    /**
+     * The {@link java.sql.Types} of column {@code i} (0-based), for binding nulls.
+     */
+    int type(int i) {
+        return columnTypes[i];
+    }
+
+    @Nullable String getCatalog() {
+        return catalog;
+    }
+
+    @Nullable String getSchema() {
+        return schema;
+    }
+
+    @NotNull String getTableName() {
+        return tableName;
+    }
+
+    @NotNull String quoted(@NotNull String identifier) {
+        return quote + identifier + quote;
+    }
+
+    /**
+     * The name in schema-qualified, quoted form.
+     */
+    @NotNull String qualified(@NotNull String name) {
+        return schema == null ? quoted(name) : quoted(schema) + "." + quoted(name);
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    private static void field(String name, Function<StarObject, Object> value) {
+        FIELDS.put(normalize(name), value);
+    }
+
+    private static void catalogField(String name, Function<StarCatalogIds, Object> value) {
+        field(name, star -> star.getCatalogIds() == null ? null : value.apply(star.getCatalogIds()));
+    }
+
+    private static void worldField(String name, Function<StarWorldBuilding, Object> value) {
+        field(name, star -> star.getWorldBuilding() == null ? null : value.apply(star.getWorldBuilding()));
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static @Nullable TableName findTable(DatabaseMetaData meta, String normalizedName) throws SQLException {
+        try (ResultSet rs = meta.getTables(null, null, "%", new String[]{"TABLE", "BASE TABLE"})) {
+            while (rs.next()) {
+                String name = rs.getString("TABLE_NAME");
+                if (normalize(name).equals(normalizedName)) {
+                    return new TableName(rs.getString("TABLE_CAT"), rs.getString("TABLE_SCHEM"), name);
+                }
+            }
+        }
+        return null;
+    }
+
+    private record TableName(@Nullable String catalog, @Nullable String schema, String name) {
+
+        String qualified(String quote) {
+            String table = quote + name + quote;
+            return schema == null ? table : quote + schema + quote + "." + table;
+        }
+    }
+}
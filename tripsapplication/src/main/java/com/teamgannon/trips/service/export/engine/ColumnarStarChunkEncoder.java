@@ -0,0 +1,29 @@
+package com.teamgannon.trips.service.export.engine;
+
+import com.teamgannon.trips.file.columnar.StarColumnarFormat;
+import com.teamgannon.trips.jpa.model.StarObject;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Encodes stars as the row groups of a {@code .trips.col} file; see {@link StarColumnarFormat}.
+ */
+public class ColumnarStarChunkEncoder implements StarChunkEncoder {
+
+    @Override
+    public @NotNull ByteBuffer header() {
+        return StarColumnarFormat.encodeHeader();
+    }
+
+    @Override
+    public @NotNull ByteBuffer encode(@NotNull List<StarObject> stars) {
+        return StarColumnarFormat.encodeRowGroup(stars);
+    }
+
+    @Override
+    public @NotNull ByteBuffer trailer() {
+        return StarColumnarFormat.encodeEnd();
+    }
+}
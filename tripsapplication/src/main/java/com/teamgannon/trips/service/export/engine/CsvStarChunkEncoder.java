@@ -0,0 +1,193 @@
+package com.teamgannon.trips.service.export.engine;
+
+import com.teamgannon.trips.dialogs.gaiadata.CatalogUtils;
+import com.teamgannon.trips.jpa.model.StarObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Encodes stars as the rows of a {@code .trips.csv} file.
+ */
+public class CsvStarChunkEncoder implements StarChunkEncoder {
+
+    public static final String FILE_SUFFIX = ".trips.csv";
+
+    // Rough size of a star row, to size the chunk's builder
+    private static final int ESTIMATED_CHARS_PER_STAR = 512;
+
+    @Override
+    public @NotNull ByteBuffer header() {
+        return StandardCharsets.UTF_8.encode(getHeaders());
+    }
+
+    @Override
+    public @NotNull ByteBuffer encode(@NotNull List<StarObject> stars) {
+        StringBuilder csvBuilder = new StringBuilder(stars.size() * ESTIMATED_CHARS_PER_STAR);
+        for (StarObject starObject : stars) {
+            appendStar(csvBuilder, starObject);
+        }
+        return StandardCharsets.UTF_8.encode(CharBuffer.wrap(csvBuilder));
+    }
+
+    @Override
+    public @NotNull ByteBuffer trailer() {
+        return ByteBuffer.allocate(0);
+    }
+
+    private static @NotNull String getHeaders() {
+        return """
+                id,\
+                dataSetName,\
+                displayName,\
+                commonName,\
+                System Name,\
+                Epoch,\
+                constellationName,\
+                mass,\
+                notes,\
+                source,\
+                catalogIdList,\
+                simbadId,\
+                Gaia DR2,\
+                radius,\
+                ra,\
+                declination,\
+                pmra,\
+                pmdec,\
+                distance,\
+                radialVelocity,\
+                spectralClass,\
+                temperature,\
+                realStar,\
+                bprp,\
+                bpg,\
+                grp,\
+                luminosity,\
+                magu,\
+                magb,\
+                magv,\
+                magr,\
+                magi,\
+                other,\
+                anomaly,\
+                polity,\
+                worldType,\
+                fuelType,\
+                portType,\
+                populationType,\
+                techType,\
+                productType,\
+                milSpaceType,\
+                milPlanType,\
+                age,\
+                metallicity,\
+                miscText1,\
+                miscText2,\
+                miscText3,\
+                miscText4,\
+                miscText5,\
+                miscNum1,\
+                miscNum2,\
+                miscNum3,\
+                miscNum4,\
+                miscNum5,\
+                numExoplanets,\
+                absoluteMagnitude,\
+                gaiaDR3CatId,\
+                x,\
+                y,\
+                z,\
+                parallax
+                """;
+    }
+
+    private void appendStar(@NotNull StringBuilder csvBuilder, @NotNull StarObject starObject) {
+        // Set the Gaia DR2 id if it is not set
+        if (starObject.getGaiaDR2CatId() == null || starObject.getGaiaDR2CatId().isEmpty()) {
+            CatalogUtils.setGaiaDR2Id(starObject);
+        }
+
+        appendField(csvBuilder, starObject.getId());
+        appendField(csvBuilder, starObject.getDataSetName());
+        appendField(csvBuilder, starObject.getDisplayName());
+        appendField(csvBuilder, starObject.getCommonName());
+        appendField(csvBuilder, starObject.getSystemName());
+        appendField(csvBuilder, starObject.getEpoch());
+        appendField(csvBuilder, starObject.getConstellationName());
+        csvBuilder.append(starObject.getMass()).append(", ");
+        appendField(csvBuilder, starObject.getNotes());
+        appendField(csvBuilder, starObject.getSource());
+        csvBuilder.append(String.join("~", starObject.getCatalogIdList())).append(", ");
+        appendField(csvBuilder, starObject.getSimbadId());
+        appendField(csvBuilder, starObject.getGaiaDR2CatId());
+        csvBuilder.append(starObject.getRadius()).append(", ");
+        csvBuilder.append(starObject.getRa()).append(", ");
+        csvBuilder.append(starObject.getDeclination()).append(", ");
+        csvBuilder.append(starObject.getPmra()).append(", ");
+        csvBuilder.append(starObject.getPmdec()).append(", ");
+        csvBuilder.append(starObject.getDistance()).append(", ");
+        csvBuilder.append(starObject.getRadialVelocity()).append(", ");
+        csvBuilder.append(starObject.getSpectralClass()).append(", ");
+        csvBuilder.append(starObject.getTemperature()).append(", ");
+        csvBuilder.append(starObject.isRealStar()).append(", ");
+        csvBuilder.append(starObject.getBprp()).append(", ");
+        csvBuilder.append(starObject.getBpg()).append(", ");
+        csvBuilder.append(starObject.getGrp()).append(", ");
+        csvBuilder.append(starObject.getLuminosity()).append(", ");
+        csvBuilder.append(starObject.getMagu()).append(", ");
+        csvBuilder.append(starObject.getMagb()).append(", ");
+        csvBuilder.append(starObject.getMagv()).append(", ");
+        csvBuilder.append(starObject.getMagr()).append(", ");
+        csvBuilder.append(starObject.getMagi()).append(", ");
+        csvBuilder.append(starObject.isOther()).append(", ");
+        csvBuilder.append(starObject.isAnomaly()).append(", ");
+        csvBuilder.append(starObject.getPolity()).append(", ");
+        csvBuilder.append(starObject.getWorldType()).append(", ");
+        csvBuilder.append(starObject.getFuelType()).append(", ");
+        csvBuilder.append(starObject.getPortType()).append(", ");
+        csvBuilder.append(starObject.getPopulationType()).append(", ");
+        csvBuilder.append(starObject.getTechType()).append(", ");
+        csvBuilder.append(starObject.getProductType()).append(", ");
+        csvBuilder.append(starObject.getMilSpaceType()).append(", ");
+        csvBuilder.append(starObject.getMilPlanType()).append(", ");
+        csvBuilder.append(starObject.getAge()).append(", ");
+        csvBuilder.append(starObject.getMetallicity()).append(", ");
+        appendField(csvBuilder, starObject.getMiscText1());
+        appendField(csvBuilder, starObject.getMiscText2());
+        appendField(csvBuilder, starObject.getMiscText3());
+        appendField(csvBuilder, starObject.getMiscText4());
+        appendField(csvBuilder, starObject.getMiscText5());
+        csvBuilder.append(starObject.getMiscNum1()).append(", ");
+        csvBuilder.append(starObject.getMiscNum2()).append(", ");
+        csvBuilder.append(starObject.getMiscNum3()).append(", ");
+        csvBuilder.append(starObject.getMiscNum4()).append(", ");
+        csvBuilder.append(starObject.getMiscNum5()).append(", ");
+        csvBuilder.append(starObject.getNumExoplanets()).append(", ");
+        appendField(csvBuilder, starObject.getAbsoluteMagnitude());
+        appendField(csvBuilder, starObject.getGaiaDR3CatId());
+        csvBuilder.append(starObject.getX()).append(", ");
+        csvBuilder.append(starObject.getY()).append(", ");
+        csvBuilder.append(starObject.getZ()).append(", ");
+        csvBuilder.append(starObject.getParallax());
+        csvBuilder.append('\n');
+    }
+
+    /**
+     * Append a string field to the builder, replacing commas with tildes.
+     */
+    private void appendField(@NotNull StringBuilder sb, @Nullable String value) {
+        if (value != null) {
+            // Replace commas inline without creating intermediate String
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                sb.append(c == ',' ? '~' : c);
+            }
+        }
+        sb.append(", ");
+    }
+}
@@ -0,0 +1,138 @@
+package com.teamgannon.trips.service.export.engine;
+
+import com.teamgannon.trips.file.columnar.StarColumnarFormat;
+import com.teamgannon.trips.service.StarService;
+import com.teamgannon.trips.service.importservices.tasks.ProgressUpdater;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exports a dataset to a file, encoding in parallel.
+ * <p>
+ * The calling thread streams the dataset from the database in detached chunks
+ * ({@link StarService#processDatasetChunks}), hands each chunk to a pool of encoder workers,
+ * and writes the encoded chunks to the file in dataset order, each as one large buffer
+ * through a {@link FileChannel}. At most a few chunks per worker are pending at a time, so
+ * the reading waits when encoding or writing falls behind and memory stays bounded.
+ * <p>
+ * What the file looks like is up to the {@link StarChunkEncoder}.
+ */
+public class ParallelStarExporter {
+
+    /**
+     * Stars per chunk read from the database and encoded as a unit.
+     */
+    public static final int CHUNK_SIZE = StarColumnarFormat.ROWS_PER_GROUP;
+
+    // Chunks being encoded or waiting to be written, per encoder worker
+    private static final int CHUNKS_IN_FLIGHT_PER_WORKER = 2;
+
+    private final StarService starService;
+    private final StarChunkEncoder encoder;
+    private final int workers;
+
+    public ParallelStarExporter(@NotNull StarService starService, @NotNull StarChunkEncoder encoder) {
+        // the reading and writing thread takes a core
+        this(starService, encoder, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    ParallelStarExporter(@NotNull StarService starService, @NotNull StarChunkEncoder encoder, int workers) {
+        this.starService = starService;
+        this.encoder = encoder;
+        this.workers = workers;
+    }
+
+    /**
+     * Write a dataset to a file, replacing the file if it exists.
+     *
+     * @param dataSetName     the dataset
+     * @param file            the file to write
+     * @param progressUpdater told how far the export has got
+     * @return the number of stars written
+     * @throws InterruptedException if the export was cancelled
+     */
+    public long export(@NotNull String dataSetName,
+                       @NotNull Path file,
+                       @NotNull ProgressUpdater progressUpdater) throws IOException, InterruptedException {
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService encoders = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "export-encode-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(channel, encoder.header());
+
+            // encoded chunks in dataset order
+            Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+            long[] submitted = {0};
+            long count = starService.processDatasetChunks(dataSetName, CHUNK_SIZE, chunk -> {
+                pending.add(encoders.submit(() -> encoder.encode(chunk)));
+                // write whatever is done; wait for the oldest chunk when too far ahead
+                while (!pending.isEmpty()
+                        && (pending.size() > workers * CHUNKS_IN_FLIGHT_PER_WORKER || pending.peek().isDone())) {
+                    writeNext(channel, pending);
+                }
+                submitted[0] += chunk.size();
+                progressUpdater.updateTaskInfo(submitted[0] + " elements written so far");
+            });
+            while (!pending.isEmpty()) {
+                writeNext(channel, pending);
+            }
+
+            writeFully(channel, encoder.trailer());
+            return count;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (CancellationException e) {
+            throw new InterruptedException("export of " + dataSetName + " was cancelled");
+        } finally {
+            encoders.shutdownNow();
+        }
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    /**
+     * Write the oldest chunk, waiting for it to be encoded. Runs inside the dataset stream,
+     * so failures are thrown unchecked.
+     */
+    private void writeNext(@NotNull FileChannel channel, @NotNull Deque<Future<ByteBuffer>> pending) {
+        try {
+            writeFully(channel, pending.poll().get());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("export interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("failed to encode stars for export", e.getCause());
+        }
+    }
+
+    private static void writeFully(@NotNull FileChannel channel, @NotNull ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
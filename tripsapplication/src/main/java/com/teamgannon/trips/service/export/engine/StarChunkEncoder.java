@@ -0,0 +1,31 @@
+package com.teamgannon.trips.service.export.engine;
+
+import com.teamgannon.trips.jpa.model.StarObject;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Turns stars into the bytes of one export file format, for {@link ParallelStarExporter}.
+ * <p>
+ * {@link #encode} is called from several threads at once and must not share state between
+ * calls; the stars it is given are detached and may be modified.
+ */
+public interface StarChunkEncoder {
+
+    /**
+     * The bytes starting the file.
+     */
+    @NotNull ByteBuffer header();
+
+    /**
+     * The bytes for a chunk of stars, in order.
+     */
+    @NotNull ByteBuffer encode(@NotNull List<StarObject> stars);
+
+    /**
+     * The bytes ending the file.
+     */
+    @NotNull ByteBuffer trailer();
+}
@@ -1,34 +1,31 @@
 package com.teamgannon.trips.service.export.tasks;
 
 import com.teamgannon.trips.dialogs.dataset.model.ExportOptions;
-import com.teamgannon.trips.dialogs.gaiadata.CatalogUtils;
-import com.teamgannon.trips.jpa.model.StarObject;
 import com.teamgannon.trips.service.DatabaseManagementService;
 import com.teamgannon.trips.service.StarService;
 import com.teamgannon.trips.service.export.ExportResults;
+import com.teamgannon.trips.service.export.engine.ColumnarStarChunkEncoder;
+import com.teamgannon.trips.service.export.engine.CsvStarChunkEncoder;
+import com.teamgannon.trips.service.export.engine.ParallelStarExporter;
+import com.teamgannon.trips.service.export.engine.StarChunkEncoder;
 import com.teamgannon.trips.service.importservices.tasks.ProgressUpdater;
+import com.teamgannon.trips.service.model.ExportFileType;
 import javafx.concurrent.Task;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedWriter;
-import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Exports a dataset to a file in the chosen format, through a {@link ParallelStarExporter}.
+ */
 @Slf4j
 public class CSVDataSetDataExportTask extends Task<ExportResults> implements ProgressUpdater {
 
-    private static final int PROGRESS_UPDATE_INTERVAL = 1000;
-
     private final ExportOptions export;
     private final DatabaseManagementService databaseManagementService;
     private final StarService starService;
 
-    // Reusable StringBuilder to avoid allocations per record
-    private final StringBuilder csvBuilder = new StringBuilder(1024);
-
     public CSVDataSetDataExportTask(ExportOptions export,
                                     DatabaseManagementService databaseManagementService,
                                     StarService starService) {
@@ -45,7 +42,7 @@ public class CSVDataSetDataExportTask extends Task<ExportResults> implements Pro
 
     @Override
     protected ExportResults call() throws Exception {
-        ExportResults result = processCSVFile(export);
+        ExportResults result = exportDataset(export);
         if (result.isSuccess()) {
             log.info("Dataset {} exported", export.getFileName());
         } else {
@@ -55,41 +52,28 @@ public class CSVDataSetDataExportTask extends Task<ExportResults> implements Pro
         return result;
     }
 
-    private ExportResults processCSVFile(ExportOptions export) {
+    private ExportResults exportDataset(ExportOptions export) {
         ExportResults exportResults = ExportResults.builder().success(false).build();
         String dataSetName = export.getDataset().getDataSetName();
+        ExportFileType format = export.getExportFormat() == null ? ExportFileType.CSV : export.getExportFormat();
+        String fileName = export.getFileName() + format.getSuffix();
 
-        log.info("Starting streaming export for dataset: {}", dataSetName);
+        log.info("Starting {} export for dataset: {}", format, dataSetName);
         long startTime = System.currentTimeMillis();
 
-        try (BufferedWriter writer = Files.newBufferedWriter(Paths.get(export.getFileName() + ".trips.csv"))) {
-
-            // Write headers
-            writer.write(getHeaders());
-
-            // Use atomic counter for lambda
-            AtomicLong count = new AtomicLong(0);
+        try {
+            ParallelStarExporter exporter = new ParallelStarExporter(starService, encoderFor(format));
+            long totalProcessed = exporter.export(dataSetName, Paths.get(fileName), this);
 
-            // Stream and write each star within transaction - constant memory usage
-            long totalProcessed = starService.processDatasetStream(dataSetName, starObject -> {
-                try {
-                    String csvRecord = convertToCSV(starObject);
-                    writer.write(csvRecord);
-                    long current = count.incrementAndGet();
-                    if (current % PROGRESS_UPDATE_INTERVAL == 0) {
-                        updateTaskInfo(current + " elements written so far");
-                    }
-                } catch (Exception e) {
-                    log.error("Error writing star {}: {}", starObject.getDisplayName(), e.getMessage());
-                }
-            });
-
-            writer.flush();
             long elapsed = System.currentTimeMillis() - startTime;
             log.info("Finished exporting {} stars in {} ms", totalProcessed, elapsed);
             exportResults.setSuccess(true);
-            exportResults.setMessage("Exported " + totalProcessed + " stars to " + export.getFileName() + ".trips.csv");
+            exportResults.setMessage("Exported " + totalProcessed + " stars to " + fileName);
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            exportResults.setMessage("Export cancelled");
+            log.warn("Export of {} was cancelled", dataSetName);
         } catch (Exception e) {
             exportResults.setMessage("Export failed: " + e.getMessage());
             log.error("Export error: {}", e.getMessage(), e);
@@ -97,163 +81,11 @@ public class CSVDataSetDataExportTask extends Task<ExportResults> implements Pro
         return exportResults;
     }
 
-
-    private @NotNull String getHeaders() {
-        return """
-                id,\
-                dataSetName,\
-                displayName,\
-                commonName,\
-                System Name,\
-                Epoch,\
-                constellationName,\
-                mass,\
-                notes,\
-                source,\
-                catalogIdList,\
-                simbadId,\
-                Gaia DR2,\
-                radius,\
-                ra,\
-                declination,\
-                pmra,\
-                pmdec,\
-                distance,\
-                radialVelocity,\
-                spectralClass,\
-                temperature,\
-                realStar,\
-                bprp,\
-                bpg,\
-                grp,\
-                luminosity,\
-                magu,\
-                magb,\
-                magv,\
-                magr,\
-                magi,\
-                other,\
-                anomaly,\
-                polity,\
-                worldType,\
-                fuelType,\
-                portType,\
-                populationType,\
-                techType,\
-                productType,\
-                milSpaceType,\
-                milPlanType,\
-                age,\
-                metallicity,\
-                miscText1,\
-                miscText2,\
-                miscText3,\
-                miscText4,\
-                miscText5,\
-                miscNum1,\
-                miscNum2,\
-                miscNum3,\
-                miscNum4,\
-                miscNum5,\
-                numExoplanets,\
-                absoluteMagnitude,\
-                gaiaDR3CatId,\
-                x,\
-                y,\
-                z,\
-                parallax
-                """;
-    }
-
-    private @NotNull String convertToCSV(@NotNull StarObject starObject) {
-        // Set the Gaia DR2 id if it is not set
-        if (starObject.getGaiaDR2CatId() == null || starObject.getGaiaDR2CatId().isEmpty()) {
-            CatalogUtils.setGaiaDR2Id(starObject);
-        }
-
-        // Reuse StringBuilder to avoid allocations
-        csvBuilder.setLength(0);
-
-        appendField(csvBuilder, starObject.getId());
-        appendField(csvBuilder, starObject.getDataSetName());
-        appendField(csvBuilder, starObject.getDisplayName());
-        appendField(csvBuilder, starObject.getCommonName());
-        appendField(csvBuilder, starObject.getSystemName());
-        appendField(csvBuilder, starObject.getEpoch());
-        appendField(csvBuilder, starObject.getConstellationName());
-        csvBuilder.append(starObject.getMass()).append(", ");
-        appendField(csvBuilder, starObject.getNotes());
-        appendField(csvBuilder, starObject.getSource());
-        csvBuilder.append(String.join("~", starObject.getCatalogIdList())).append(", ");
-        appendField(csvBuilder, starObject.getSimbadId());
-        appendField(csvBuilder, starObject.getGaiaDR2CatId());
-        csvBuilder.append(starObject.getRadius()).append(", ");
-        csvBuilder.append(starObject.getRa()).append(", ");
-        csvBuilder.append(starObject.getDeclination()).append(", ");
-        csvBuilder.append(starObject.getPmra()).append(", ");
-        csvBuilder.append(starObject.getPmdec()).append(", ");
-        csvBuilder.append(starObject.getDistance()).append(", ");
-        csvBuilder.append(starObject.getRadialVelocity()).append(", ");
-        csvBuilder.append(starObject.getSpectralClass()).append(", ");
-        csvBuilder.append(starObject.getTemperature()).append(", ");
-        csvBuilder.append(starObject.isRealStar()).append(", ");
-        csvBuilder.append(starObject.getBprp()).append(", ");
-        csvBuilder.append(starObject.getBpg()).append(", ");
-        csvBuilder.append(starObject.getGrp()).append(", ");
-        csvBuilder.append(starObject.getLuminosity()).append(", ");
-        csvBuilder.append(starObject.getMagu()).append(", ");
-        csvBuilder.append(starObject.getMagb()).append(", ");
-        csvBuilder.append(starObject.getMagv()).append(", ");
-        csvBuilder.append(starObject.getMagr()).append(", ");
-        csvBuilder.append(starObject.getMagi()).append(", ");
-        csvBuilder.append(starObject.isOther()).append(", ");
-        csvBuilder.append(starObject.isAnomaly()).append(", ");
-        csvBuilder.append(starObject.getPolity()).append(", ");
-        csvBuilder.append(starObject.getWorldType()).append(", ");
-        csvBuilder.append(starObject.getFuelType()).append(", ");
-        csvBuilder.append(starObject.getPortType()).append(", ");
-        csvBuilder.append(starObject.getPopulationType()).append(", ");
-        csvBuilder.append(starObject.getTechType()).append(", ");
-        csvBuilder.append(starObject.getProductType()).append(", ");
-        csvBuilder.append(starObject.getMilSpaceType()).append(", ");
-        csvBuilder.append(starObject.getMilPlanType()).append(", ");
-        csvBuilder.append(starObject.getAge()).append(", ");
-        csvBuilder.append(starObject.getMetallicity()).append(", ");
-        appendField(csvBuilder, starObject.getMiscText1());
-        appendField(csvBuilder, starObject.getMiscText2());
-        appendField(csvBuilder, starObject.getMiscText3());
-        appendField(csvBuilder, starObject.getMiscText4());
-        appendField(csvBuilder, starObject.getMiscText5());
-        csvBuilder.append(starObject.getMiscNum1()).append(", ");
-        csvBuilder.append(starObject.getMiscNum2()).append(", ");
-        csvBuilder.append(starObject.getMiscNum3()).append(", ");
-        csvBuilder.append(starObject.getMiscNum4()).append(", ");
-        csvBuilder.append(starObject.getMiscNum5()).append(", ");
-        csvBuilder.append(starObject.getNumExoplanets()).append(", ");
-        appendField(csvBuilder, starObject.getAbsoluteMagnitude());
-        appendField(csvBuilder, starObject.getGaiaDR3CatId());
-        csvBuilder.append(starObject.getX()).append(", ");
-        csvBuilder.append(starObject.getY()).append(", ");
-        csvBuilder.append(starObject.getZ()).append(", ");
-        csvBuilder.append(starObject.getParallax());
-        csvBuilder.append('\n');
-
-        return csvBuilder.toString();
+    private static @NotNull StarChunkEncoder encoderFor(@NotNull ExportFileType format) {
+        return switch (format) {
+            case CSV -> new CsvStarChunkEncoder();
+            case COLUMNAR -> new ColumnarStarChunkEncoder();
+        };
     }
 
-    /**
-     * Append a string field to the builder, replacing commas with tildes.
-     */
-    private void appendField(@NotNull StringBuilder sb, @Nullable String value) {
-        if (value != null) {
-            // Replace commas inline without creating intermediate String
-            for (int i = 0; i < value.length(); i++) {
-                char c = value.charAt(i);
-                sb.append(c == ',' ? '~' : c);
-            }
-        }
-        sb.append(", ");
-    }
-
-
 }
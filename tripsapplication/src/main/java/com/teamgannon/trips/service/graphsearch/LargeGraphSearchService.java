@@ -2,6 +2,7 @@ package com.teamgannon.trips.service.graphsearch;
 
 import com.teamgannon.trips.events.StatusUpdateEvent;
 import com.teamgannon.trips.jpa.model.DataSetDescriptor;
+import com.teamgannon.trips.routing.TransitGraphCache;
 import com.teamgannon.trips.routing.model.RouteFindingOptions;
 import com.teamgannon.trips.service.DatabaseManagementService;
 import com.teamgannon.trips.service.StarService;
@@ -20,6 +21,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class LargeGraphSearchService extends Service<GraphRouteResult> {
 
+    private final TransitGraphCache transitGraphCache;
+
     private RouteFindingOptions routeFindingOptions;
     private DataSetDescriptor currentDataset;
     private DatabaseManagementService databaseManagementService;
@@ -30,6 +33,10 @@ public class LargeGraphSearchService extends Service<GraphRouteResult> {
     private Label progressText;
     private ProgressBar loadProgressBar;
 
+    public LargeGraphSearchService(TransitGraphCache transitGraphCache) {
+        this.transitGraphCache = transitGraphCache;
+    }
+
     public boolean processGraphSearch(RouteFindingOptions routeFindingOptions,
                                       DataSetDescriptor currentDataset,
                                       DatabaseManagementService databaseManagementService,
@@ -64,7 +71,8 @@ public class LargeGraphSearchService extends Service<GraphRouteResult> {
 
     @Override
     protected Task<GraphRouteResult> createTask() {
-        return new LargeGraphSearchTask(currentDataset, databaseManagementService, starService, routeFindingOptions);
+        return new LargeGraphSearchTask(currentDataset, databaseManagementService, starService, routeFindingOptions,
+                true, transitGraphCache);
     }
 
     @Override
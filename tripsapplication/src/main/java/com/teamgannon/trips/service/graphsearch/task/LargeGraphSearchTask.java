@@ -4,16 +4,15 @@ import com.teamgannon.trips.graphics.entities.RouteDescriptor;
 import com.teamgannon.trips.graphics.entities.RouteVisibility;
 import com.teamgannon.trips.jpa.model.DataSetDescriptor;
 import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.routing.RoutingConstants;
+import com.teamgannon.trips.routing.TransitGraphCache;
 import com.teamgannon.trips.routing.automation.RouteGraph;
 import com.teamgannon.trips.routing.model.*;
 import com.teamgannon.trips.service.DatabaseManagementService;
 import com.teamgannon.trips.service.StarService;
 import com.teamgannon.trips.service.graphsearch.GraphRouteResult;
-import com.teamgannon.trips.transits.kdtree.KDTreeGraphBuilder;
 import javafx.concurrent.Task;
 import lombok.extern.slf4j.Slf4j;
-import org.jgrapht.Graph;
-import org.jgrapht.graph.DefaultEdge;
 
 import java.util.*;
 import java.util.concurrent.*;
@@ -41,6 +40,11 @@ public class LargeGraphSearchTask extends Task<GraphRouteResult> {
      */
     private final boolean useKDTree;
 
+    /**
+     * Persistent transit graph cache for KD-Tree graphs, or null to always build.
+     */
+    private final TransitGraphCache transitGraphCache;
+
     public LargeGraphSearchTask(DataSetDescriptor currentDataset,
                                 DatabaseManagementService databaseManagementService,
                                 StarService starService,
@@ -53,12 +57,22 @@ public class LargeGraphSearchTask extends Task<GraphRouteResult> {
                                 StarService starService,
                                 RouteFindingOptions routeFindingOptions,
                                 boolean useKDTree) {
+        this(currentDataset, databaseManagementService, starService, routeFindingOptions, useKDTree, null);
+    }
+
+    public LargeGraphSearchTask(DataSetDescriptor currentDataset,
+                                DatabaseManagementService databaseManagementService,
+                                StarService starService,
+                                RouteFindingOptions routeFindingOptions,
+                                boolean useKDTree,
+                                TransitGraphCache transitGraphCache) {
 
         this.currentDataset = currentDataset;
         this.databaseManagementService = databaseManagementService;
         this.starService = starService;
         this.routeFindingOptions = routeFindingOptions;
         this.useKDTree = useKDTree;
+        this.transitGraphCache = transitGraphCache;
 
         Map<String, Integer> collisionMap = new ConcurrentHashMap<>();
         collisionSet = ConcurrentHashMap.newKeySet(collisionMap.size());
@@ -94,38 +108,39 @@ public class LargeGraphSearchTask extends Task<GraphRouteResult> {
         double lower = routeFindingOptions.getLowerBound();
         double upper = routeFindingOptions.getUpperBound();
 
-        // get a set of stars that match the range request
-        Map<String, SparseStarRecord> sparseStarRecordList = getStarRecords(routeFindingOptions);
-
-        // Build route graph using appropriate algorithm
+        // get a set of stars that match the range request and build the route graph,
+        // widening the search corridor until the stars are connected
+        Map<String, SparseStarRecord> sparseStarRecordList;
         RouteGraph routeGraph;
-        long startTime = System.currentTimeMillis();
-
-        if (useKDTree) {
-            // Use KD-Tree for O(n log n) graph building
-            log.info("Using KD-Tree based graph building for {} stars", sparseStarRecordList.size());
-            updateTaskInfo("Building graph with KD-Tree spatial indexing...");
-            routeGraph = buildGraphWithKDTree(sparseStarRecordList, lower, upper);
-        } else {
-            // Use legacy brute-force O(n²) approach
-            log.info("Using brute-force graph building for {} stars", sparseStarRecordList.size());
-            updateTaskInfo("begin link calculation");
-            List<SparseTransit> transitRoutes = calculateTransits(lower, upper, new ArrayList<>(sparseStarRecordList.values()));
-            log.info("Number of transits found is {}", transitRoutes.size());
-            updateTaskInfo("Number of transits found is %d".formatted(transitRoutes.size()));
-
-            routeGraph = new RouteGraph();
-            routeGraph.calculateGraphForSparseTransits(transitRoutes);
+        RouteCorridor corridor = useKDTree && routeFindingOptions.isCorridorSearch()
+                ? RouteCorridor.between(origin.getCoordinates(), destination.getCoordinates(),
+                upper * RoutingConstants.CORRIDOR_INITIAL_JUMPS)
+                : null;
+        double sphereRadius = getSphereRadius(routeFindingOptions);
+        int corridorAttempts = 0;
+        while (true) {
+            sparseStarRecordList = corridor != null
+                    ? getCorridorStarRecords(corridor)
+                    : getStarRecords(routeFindingOptions);
+            routeGraph = buildRouteGraph(sparseStarRecordList, lower, upper);
+            if (corridor == null || routeGraph.isConnected(origin.getDisplayName(), destination.getDisplayName())) {
+                break;
+            }
+            if (corridor.coversSphere(sphereRadius)) {
+                log.info("No route inside {}, which already covers the {} ly volume around Sol",
+                        corridor, sphereRadius);
+                break;
+            }
+            if (++corridorAttempts < RoutingConstants.CORRIDOR_MAX_ATTEMPTS) {
+                corridor = corridor.widen(RoutingConstants.CORRIDOR_WIDENING_FACTOR);
+                log.info("No route inside corridor, widening to {}", corridor);
+            } else {
+                log.info("No route inside {} corridors, searching the full volume", corridorAttempts);
+                corridor = null;
+            }
         }
 
-        long endTime = System.currentTimeMillis();
-        log.info("Metrics: in long route search, graph building, time = {} ms", "%,d".formatted(endTime - startTime));
-        updateTaskInfo(String.format("Graph built with %d vertices and %d edges in %d ms",
-                routeGraph.getRoutingGraph().vertexSet().size(),
-                routeGraph.getRoutingGraph().edgeSet().size(),
-                endTime - startTime));
-
-        boolean connected = !routeGraph.getRoutingGraph().edgeSet().isEmpty();
+        boolean connected = routeGraph.isConnected(origin.getDisplayName(), destination.getDisplayName());
 
         // so there is at least one path between the stars
         if (connected) {
@@ -133,11 +148,12 @@ public class LargeGraphSearchTask extends Task<GraphRouteResult> {
             log.info("Source ({}) and destination ({}) stars have a path", origin.getDisplayName(), destination.getDisplayName());
             updateTaskInfo(String.format("The chosen stars (%s,%s) stars have a path", origin.getDisplayName(), destination.getDisplayName()));
             // find the k shortest paths. We add one because the first is null
-            startTime = System.currentTimeMillis();
+            long startTime = System.currentTimeMillis();
             List<String> kShortestPaths = routeGraph.findKShortestPaths(
-                    origin.getDisplayName(), destination.getDisplayName(), routeFindingOptions.getNumberPaths() + 1);
+                    origin.getDisplayName(), destination.getDisplayName(), routeFindingOptions.getNumberPaths() + 1,
+                    routeFindingOptions.getSearchAlgorithm());
             kShortestPaths.forEach(System.out::println);
-            endTime = System.currentTimeMillis();
+            long endTime = System.currentTimeMillis();
             log.info("Metrics: in long route search, get shortest paths, time = {}", "%,d".formatted(endTime - startTime));
 
             PossibleRoutes possibleRoutes = new PossibleRoutes();
@@ -169,11 +185,52 @@ public class LargeGraphSearchTask extends Task<GraphRouteResult> {
         return graphRouteResult;
     }
 
+    /**
+     * Build the route graph for a set of stars with the configured algorithm.
+     *
+     * @param sparseStarRecordList the stars to include
+     * @param lower                minimum transit distance
+     * @param upper                maximum transit distance
+     * @return the constructed route graph
+     */
+    private RouteGraph buildRouteGraph(Map<String, SparseStarRecord> sparseStarRecordList,
+                                       double lower, double upper) {
+        RouteGraph routeGraph;
+        long startTime = System.currentTimeMillis();
+
+        if (useKDTree) {
+            // Use KD-Tree for O(n log n) graph building
+            log.info("Using KD-Tree based graph building for {} stars", sparseStarRecordList.size());
+            updateTaskInfo("Building graph with KD-Tree spatial indexing...");
+            routeGraph = buildGraphWithKDTree(sparseStarRecordList, lower, upper);
+        } else {
+            // Use legacy brute-force O(n²) approach
+            log.info("Using brute-force graph building for {} stars", sparseStarRecordList.size());
+            updateTaskInfo("begin link calculation");
+            List<SparseTransit> transitRoutes = calculateTransits(lower, upper, new ArrayList<>(sparseStarRecordList.values()));
+            log.info("Number of transits found is {}", transitRoutes.size());
+            updateTaskInfo("Number of transits found is %d".formatted(transitRoutes.size()));
+
+            routeGraph = new RouteGraph();
+            routeGraph.calculateGraphForSparseTransits(transitRoutes);
+        }
+
+        long endTime = System.currentTimeMillis();
+        log.info("Metrics: in long route search, graph building, time = {} ms", "%,d".formatted(endTime - startTime));
+        updateTaskInfo(String.format("Graph built with %d vertices and %d edges in %d ms",
+                routeGraph.getVertexCount(),
+                routeGraph.getEdgeCount(),
+                endTime - startTime));
+        return routeGraph;
+    }
+
     /**
      * Build route graph using KD-Tree spatial indexing.
      * <p>
      * This provides O(n log n) complexity compared to O(n²) brute-force,
-     * significantly improving performance for large datasets.
+     * significantly improving performance for large datasets. The graph is the
+     * integer-indexed compact form, so dataset-wide searches do not create a
+     * JGraphT edge object per transit.
      *
      * @param sparseStarRecordList the stars to include
      * @param lower                minimum transit distance
@@ -184,17 +241,25 @@ public class LargeGraphSearchTask extends Task<GraphRouteResult> {
                                              double lower, double upper) {
         List<SparseStarRecord> stars = new ArrayList<>(sparseStarRecordList.values());
 
-        KDTreeGraphBuilder builder = new KDTreeGraphBuilder(true);
-        Graph<String, DefaultEdge> graph = builder.buildGraphFromSparse(stars, lower, upper);
+        if (transitGraphCache != null) {
+            // the record map has no stable order, so sort for a repeatable cache key
+            stars.sort(Comparator.comparing(SparseStarRecord::getRecordId));
+            return new RouteGraph(transitGraphCache.getOrBuild(currentDataset.getDataSetName(), stars,
+                    SparseStarRecord::getStarName, SparseStarRecord::getActualCoordinates, lower, upper));
+        }
+        return RouteGraph.buildWithKDTreeFromSparse(stars, lower, upper);
+    }
 
-        return new RouteGraph(graph);
+    /**
+     * The radius of the sphere around Sol that holds both ends of the route.
+     */
+    private double getSphereRadius(RouteFindingOptions routeFindingOptions) {
+        return Math.max(routeFindingOptions.getOriginStar().getDistance(),
+                routeFindingOptions.getDestinationStar().getDistance());
     }
 
     private Map<String, SparseStarRecord> getStarRecords(RouteFindingOptions routeFindingOptions) {
-        StarObject origin = routeFindingOptions.getOriginStar();
-        StarObject destination = routeFindingOptions.getDestinationStar();
-
-        double maxDistance = Math.max(origin.getDistance(), destination.getDistance());
+        double maxDistance = getSphereRadius(routeFindingOptions);
 
         updateTaskInfo("searching for the star volume between origin and destination");
         long time0 = System.currentTimeMillis();
@@ -207,6 +272,26 @@ public class LargeGraphSearchTask extends Task<GraphRouteResult> {
         return sparseStarRecordList;
     }
 
+    /**
+     * get the stars inside the corridor around the origin-destination segment.
+     * Only used with KD-Tree graph building, since the brute-force path cannot be re-run.
+     *
+     * @param corridor the corridor to load
+     * @return the stars keyed by name
+     */
+    private Map<String, SparseStarRecord> getCorridorStarRecords(RouteCorridor corridor) {
+        updateTaskInfo("searching for the stars in the %.1f ly corridor between origin and destination"
+                .formatted(corridor.getRadius()));
+        long time0 = System.currentTimeMillis();
+        Map<String, SparseStarRecord> sparseStarRecordList = starService.getFromDatasetWithinCorridor(currentDataset, corridor);
+        long time1 = System.currentTimeMillis();
+        log.info("corridor query for {} took={} ms", corridor, time1 - time0);
+        updateTaskInfo("%d stars found in corridor in %d ms".formatted(sparseStarRecordList.size(), time1 - time0));
+
+        log.info("number of stars = {}", sparseStarRecordList.size());
+        return sparseStarRecordList;
+    }
+
     /**
      * create a asynchronous batch to be run for a segment of the transits
      *
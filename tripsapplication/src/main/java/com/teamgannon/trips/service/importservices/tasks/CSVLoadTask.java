@@ -2,6 +2,8 @@ package com.teamgannon.trips.service.importservices.tasks;
 
 import com.teamgannon.trips.dialogs.dataset.model.Dataset;
 import com.teamgannon.trips.dialogs.dataset.model.FileProcessResult;
+import com.teamgannon.trips.file.columnar.ColumnarStarFileReader;
+import com.teamgannon.trips.file.columnar.StarColumnarFormat;
 import com.teamgannon.trips.file.csvin.RegCSVFile;
 import com.teamgannon.trips.file.csvin.RegularStarCatalogCsvReader;
 import com.teamgannon.trips.jpa.model.DataSetDescriptor;
@@ -23,6 +25,8 @@ public class CSVLoadTask extends Task<FileProcessResult> implements ProgressUpda
 
     private final RegularStarCatalogCsvReader regularStarCatalogCsvReader;
 
+    private final ColumnarStarFileReader columnarStarFileReader;
+
     public CSVLoadTask(DatabaseManagementService databaseManagementService,
                        StarService starService,
                        BulkLoadService bulkLoadService,
@@ -30,7 +34,8 @@ public class CSVLoadTask extends Task<FileProcessResult> implements ProgressUpda
         this.databaseManagementService = databaseManagementService;
         this.bulkLoadService = bulkLoadService;
         this.dataSet = loadDataset;
-        this.regularStarCatalogCsvReader = new RegularStarCatalogCsvReader(databaseManagementService, starService);
+        this.regularStarCatalogCsvReader = new RegularStarCatalogCsvReader(databaseManagementService, starService, bulkLoadService);
+        this.columnarStarFileReader = new ColumnarStarFileReader(starService, bulkLoadService);
     }
 
     @Override
@@ -52,7 +57,9 @@ public class CSVLoadTask extends Task<FileProcessResult> implements ProgressUpda
 
         File file = new File(dataset.getFileSelected());
         // read records
-        RegCSVFile regCSVFile = regularStarCatalogCsvReader.loadFile(this, file, dataset);
+        RegCSVFile regCSVFile = file.getName().endsWith(StarColumnarFormat.FILE_SUFFIX)
+                ? columnarStarFileReader.loadFile(this, file, dataset)
+                : regularStarCatalogCsvReader.loadFile(this, file, dataset);
         log.info("finished processing of dataset");
         try {
             if (regCSVFile.isReadSuccess()) {
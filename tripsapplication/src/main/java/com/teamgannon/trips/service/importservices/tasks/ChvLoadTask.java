@@ -3,7 +3,6 @@ package com.teamgannon.trips.service.importservices.tasks;
 import com.teamgannon.trips.dialogs.dataset.model.Dataset;
 import com.teamgannon.trips.dialogs.dataset.model.FileProcessResult;
 import com.teamgannon.trips.file.chview.ChviewReader;
-import com.teamgannon.trips.file.chview.model.ChViewFile;
 import com.teamgannon.trips.jpa.model.DataSetDescriptor;
 import com.teamgannon.trips.service.BulkLoadService;
 import javafx.concurrent.Task;
@@ -36,18 +35,9 @@ public class ChvLoadTask extends Task<FileProcessResult> implements ProgressUpda
         try {
             File file = new File(dataset.getFileSelected());
 
-            // load chView file
-            ChViewFile chViewFile = chviewReader.loadFile(this, file);
-            if (chViewFile == null) {
-                FileProcessResult result = new FileProcessResult();
-                result.setDataSetDescriptor(null);
-                result.setSuccess(false);
-                result.setMessage("Failed to parse file");
-                return result;
-            }
-
-            updateMessage("File load complete, about to save records in database");
-            DataSetDescriptor dataSetDescriptor = bulkLoadService.loadCHFile(this, dataset, chViewFile);
+            // read the chView file, saving its records as they are decoded
+            updateMessage("Loading file and saving records in database");
+            DataSetDescriptor dataSetDescriptor = bulkLoadService.loadCHFile(this, dataset, chviewReader, file);
             String data = String.format("%s records loaded from dataset %s, Use plot to see data.",
                     dataSetDescriptor.getNumberStars(),
                     dataSetDescriptor.getDataSetName());
@@ -2,15 +2,30 @@ package com.teamgannon.trips.service.model;
 
 public enum ExportFileType {
 
-    CSV("csv");
+    CSV("csv", ".trips.csv"),
+
+    /**
+     * compact binary columnar file, much faster to load back than CSV
+     */
+    COLUMNAR("columnar", ".trips.col");
 
     private final String fileType;
 
-    ExportFileType(String fileType) {
+    private final String suffix;
+
+    ExportFileType(String fileType, String suffix) {
         this.fileType = fileType;
+        this.suffix = suffix;
     }
 
     public String getFileType() {
         return fileType;
     }
+
+    /**
+     * the suffix added to the export file name
+     */
+    public String getSuffix() {
+        return suffix;
+    }
 }
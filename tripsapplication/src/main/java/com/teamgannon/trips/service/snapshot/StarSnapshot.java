@@ -0,0 +1,335 @@
+package com.teamgannon.trips.service.snapshot;
+
+import com.teamgannon.trips.routing.model.SparseStarRecord;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only columnar copy of the fields of a dataset that the hot paths read.
+ * <p>
+ * A star is an index {@code i} in {@code [0, size())}; each field is one primitive
+ * array, so a scan over 100k stars touches a few contiguous arrays instead of
+ * hydrating 100k {@code StarObject} entities with their embedded catalog IDs and
+ * lazy alias collections. Repetitive strings (spectral class, common name, system
+ * name, constellation) are stored once in a dictionary and referenced by index.
+ * <p>
+ * Built by {@link StarSnapshotService} from a projection query; see
+ * {@link Builder#addRow(Object[])} for the column order.
+ */
+public final class StarSnapshot {
+
+    /**
+     * Spectral code of a star without a recognised spectral class.
+     */
+    public static final int UNKNOWN_SPECTRAL_CODE = -1;
+
+    private static final String SPECTRAL_LETTERS = "OBAFGKMLTY";
+
+    private final String dataSetName;
+    private final int size;
+
+    private final String[] ids;
+    private final String[] displayNames;
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final double[] distance;
+
+    private final float[] magv;
+    private final float[] absMag;
+    private final float[] bprp;
+    private final float[] temperature;
+
+    private final int[] spectralCode;
+
+    private final String[] dictionary;
+    private final int[] spectralClass;
+    private final int[] commonName;
+    private final int[] systemName;
+    private final int[] constellation;
+
+    private StarSnapshot(@NotNull Builder builder) {
+        int n = builder.size;
+        this.dataSetName = builder.dataSetName;
+        this.size = n;
+        this.ids = Arrays.copyOf(builder.ids, n);
+        this.displayNames = Arrays.copyOf(builder.displayNames, n);
+        this.x = Arrays.copyOf(builder.x, n);
+        this.y = Arrays.copyOf(builder.y, n);
+        this.z = Arrays.copyOf(builder.z, n);
+        this.distance = Arrays.copyOf(builder.distance, n);
+        this.magv = Arrays.copyOf(builder.magv, n);
+        this.absMag = Arrays.copyOf(builder.absMag, n);
+        this.bprp = Arrays.copyOf(builder.bprp, n);
+        this.temperature = Arrays.copyOf(builder.temperature, n);
+        this.spectralCode = Arrays.copyOf(builder.spectralCode, n);
+        this.spectralClass = Arrays.copyOf(builder.spectralClass, n);
+        this.commonName = Arrays.copyOf(builder.commonName, n);
+        this.systemName = Arrays.copyOf(builder.systemName, n);
+        this.constellation = Arrays.copyOf(builder.constellation, n);
+        this.dictionary = new String[builder.dictionary.size()];
+        for (Map.Entry<String, Integer> entry : builder.dictionary.entrySet()) {
+            dictionary[entry.getValue()] = entry.getKey();
+        }
+    }
+
+    // =========================================================================
+    // Columns
+    // =========================================================================
+
+    public @NotNull String getDataSetName() {
+        return dataSetName;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String id(int i) {
+        return ids[i];
+    }
+
+    public String displayName(int i) {
+        return displayNames[i];
+    }
+
+    public double x(int i) {
+        return x[i];
+    }
+
+    public double y(int i) {
+        return y[i];
+    }
+
+    public double z(int i) {
+        return z[i];
+    }
+
+    /**
+     * Distance from Sol in light years, as stored in the dataset.
+     */
+    public double distance(int i) {
+        return distance[i];
+    }
+
+    /**
+     * V-band magnitude; 0 when unknown, as in the dataset.
+     */
+    public float magv(int i) {
+        return magv[i];
+    }
+
+    /**
+     * Absolute magnitude parsed from the dataset's text column; NaN when missing or unparseable.
+     */
+    public float absMag(int i) {
+        return absMag[i];
+    }
+
+    public float bprp(int i) {
+        return bprp[i];
+    }
+
+    public float temperature(int i) {
+        return temperature[i];
+    }
+
+    /**
+     * Spectral class as a sortable code: letter index in OBAFGKMLTY times ten plus the
+     * subclass digit, so G2 is 42. {@link #UNKNOWN_SPECTRAL_CODE} when not recognised.
+     */
+    public int spectralCode(int i) {
+        return spectralCode[i];
+    }
+
+    public @Nullable String spectralClass(int i) {
+        return dictionary[spectralClass[i]];
+    }
+
+    public @Nullable String commonName(int i) {
+        return dictionary[commonName[i]];
+    }
+
+    public @Nullable String systemName(int i) {
+        return dictionary[systemName[i]];
+    }
+
+    public @Nullable String constellationName(int i) {
+        return dictionary[constellation[i]];
+    }
+
+    /**
+     * Squared distance between a star and a point, in light years squared.
+     */
+    public double distanceSquared(int i, double px, double py, double pz) {
+        double dx = x[i] - px;
+        double dy = y[i] - py;
+        double dz = z[i] - pz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Creates the routing record of a star.
+     */
+    public @NotNull SparseStarRecord toSparseStarRecord(int i) {
+        SparseStarRecord sparseStarRecord = new SparseStarRecord();
+        sparseStarRecord.setRecordId(ids[i]);
+        sparseStarRecord.setStarName(displayNames[i]);
+        sparseStarRecord.setActualCoordinates(new double[]{x[i], y[i], z[i]});
+        return sparseStarRecord;
+    }
+
+    /**
+     * Number of distinct strings in the dictionary, for diagnostics.
+     */
+    public int dictionarySize() {
+        return dictionary.length;
+    }
+
+    // =========================================================================
+    // Parsing
+    // =========================================================================
+
+    /**
+     * Encodes a spectral class such as "G2V", "M4.5Ve" or "sdK7" as letter index * 10 + subclass.
+     */
+    static int encodeSpectralClass(@Nullable String spectralClass) {
+        if (spectralClass == null) {
+            return UNKNOWN_SPECTRAL_CODE;
+        }
+        String trimmed = spectralClass.trim();
+        int start = 0;
+        while (start < trimmed.length() && Character.isLowerCase(trimmed.charAt(start))) {
+            start++;
+        }
+        if (start >= trimmed.length()) {
+            return UNKNOWN_SPECTRAL_CODE;
+        }
+        int letter = SPECTRAL_LETTERS.indexOf(trimmed.charAt(start));
+        if (letter < 0) {
+            return UNKNOWN_SPECTRAL_CODE;
+        }
+        int subclass = 0;
+        if (start + 1 < trimmed.length() && Character.isDigit(trimmed.charAt(start + 1))) {
+            subclass = trimmed.charAt(start + 1) - '0';
+        }
+        return letter * 10 + subclass;
+    }
+
+    static float parseMagnitude(@Nullable String magnitude) {
+        if (magnitude == null || magnitude.isBlank()) {
+            return Float.NaN;
+        }
+        try {
+            return Float.parseFloat(magnitude.trim());
+        } catch (NumberFormatException e) {
+            return Float.NaN;
+        }
+    }
+
+    // =========================================================================
+    // Builder
+    // =========================================================================
+
+    /**
+     * Accumulates projection rows into growable columns.
+     */
+    public static final class Builder {
+
+        private final String dataSetName;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private int size;
+
+        private String[] ids;
+        private String[] displayNames;
+        private double[] x;
+        private double[] y;
+        private double[] z;
+        private double[] distance;
+        private float[] magv;
+        private float[] absMag;
+        private float[] bprp;
+        private float[] temperature;
+        private int[] spectralCode;
+        private int[] spectralClass;
+        private int[] commonName;
+        private int[] systemName;
+        private int[] constellation;
+
+        /**
+         * @param dataSetName      the dataset the rows belong to
+         * @param expectedCapacity the expected number of stars, used to size the columns
+         */
+        public Builder(@NotNull String dataSetName, int expectedCapacity) {
+            this.dataSetName = dataSetName;
+            allocate(Math.max(16, expectedCapacity));
+        }
+
+        /**
+         * Adds one row of {@code [id, displayName, x, y, z, distance, magv, absoluteMagnitude,
+         * bprp, temperature, spectralClass, commonName, systemName, constellationName]}.
+         */
+        public @NotNull Builder addRow(@NotNull Object[] row) {
+            if (size == x.length) {
+                allocate(size * 2);
+            }
+            int i = size++;
+            ids[i] = (String) row[0];
+            displayNames[i] = (String) row[1];
+            x[i] = asDouble(row[2]);
+            y[i] = asDouble(row[3]);
+            z[i] = asDouble(row[4]);
+            distance[i] = asDouble(row[5]);
+            magv[i] = (float) asDouble(row[6]);
+            absMag[i] = parseMagnitude((String) row[7]);
+            bprp[i] = (float) asDouble(row[8]);
+            temperature[i] = (float) asDouble(row[9]);
+            String spectral = (String) row[10];
+            spectralCode[i] = encodeSpectralClass(spectral);
+            spectralClass[i] = intern(spectral);
+            commonName[i] = intern((String) row[11]);
+            systemName[i] = intern((String) row[12]);
+            constellation[i] = intern((String) row[13]);
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public @NotNull StarSnapshot build() {
+            return new StarSnapshot(this);
+        }
+
+        private int intern(@Nullable String value) {
+            return dictionary.computeIfAbsent(value, key -> dictionary.size());
+        }
+
+        private static double asDouble(@Nullable Object value) {
+            return value == null ? 0.0 : ((Number) value).doubleValue();
+        }
+
+        private void allocate(int capacity) {
+            ids = ids == null ? new String[capacity] : Arrays.copyOf(ids, capacity);
+            displayNames = displayNames == null ? new String[capacity] : Arrays.copyOf(displayNames, capacity);
+            x = x == null ? new double[capacity] : Arrays.copyOf(x, capacity);
+            y = y == null ? new double[capacity] : Arrays.copyOf(y, capacity);
+            z = z == null ? new double[capacity] : Arrays.copyOf(z, capacity);
+            distance = distance == null ? new double[capacity] : Arrays.copyOf(distance, capacity);
+            magv = magv == null ? new float[capacity] : Arrays.copyOf(magv, capacity);
+            absMag = absMag == null ? new float[capacity] : Arrays.copyOf(absMag, capacity);
+            bprp = bprp == null ? new float[capacity] : Arrays.copyOf(bprp, capacity);
+            temperature = temperature == null ? new float[capacity] : Arrays.copyOf(temperature, capacity);
+            spectralCode = spectralCode == null ? new int[capacity] : Arrays.copyOf(spectralCode, capacity);
+            spectralClass = spectralClass == null ? new int[capacity] : Arrays.copyOf(spectralClass, capacity);
+            commonName = commonName == null ? new int[capacity] : Arrays.copyOf(commonName, capacity);
+            systemName = systemName == null ? new int[capacity] : Arrays.copyOf(systemName, capacity);
+            constellation = constellation == null ? new int[capacity] : Arrays.copyOf(constellation, capacity);
+        }
+    }
+}
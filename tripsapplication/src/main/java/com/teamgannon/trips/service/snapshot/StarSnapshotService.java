@@ -0,0 +1,142 @@
+package com.teamgannon.trips.service.snapshot;
+
+import com.teamgannon.trips.jpa.repository.StarObjectRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Builds and caches the {@link StarSnapshot} of each dataset.
+ * <p>
+ * A snapshot is built on first use by streaming a projection query, then reused until
+ * {@link #invalidate(String)} is called. {@code StarService} invalidates a dataset whenever
+ * its stars are added, updated or removed, and {@code BulkLoadService} when the dataset
+ * is removed, in both cases once the change commits. A snapshot built while an invalidation happened is returned to its
+ * caller but not cached.
+ * <p>
+ * Datasets larger than {@link #MAX_SNAPSHOT_STARS} are not snapshotted; callers get null
+ * and fall back to their entity queries.
+ */
+@Slf4j
+@Service
+public class StarSnapshotService {
+
+    /**
+     * Largest dataset kept as a snapshot; ids and names dominate the footprint at about
+     * 200 bytes per star.
+     */
+    public static final int MAX_SNAPSHOT_STARS = 500_000;
+
+    /**
+     * Number of dataset snapshots kept in memory.
+     */
+    private static final int MAX_CACHED_SNAPSHOTS = 2;
+
+    private final StarObjectRepository starObjectRepository;
+
+    private final Map<String, StarSnapshot> snapshots = new LinkedHashMap<>(4, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, StarSnapshot> eldest) {
+            return size() > MAX_CACHED_SNAPSHOTS;
+        }
+    };
+
+    /**
+     * Invalidation count per dataset, to tell whether a build raced an invalidation.
+     */
+    private final Map<String, Long> generations = new HashMap<>();
+
+    /**
+     * Invalidation count over all datasets.
+     */
+    private long totalGeneration;
+
+    public StarSnapshotService(StarObjectRepository starObjectRepository) {
+        this.starObjectRepository = starObjectRepository;
+    }
+
+    /**
+     * Returns the snapshot of a dataset, building it if it is not cached.
+     *
+     * @param dataSetName the dataset name
+     * @return the snapshot, or null if the name is blank or the dataset is too large
+     */
+    @Transactional(readOnly = true)
+    public @Nullable StarSnapshot getSnapshot(@Nullable String dataSetName) {
+        if (dataSetName == null || dataSetName.isBlank()) {
+            return null;
+        }
+
+        long generation;
+        synchronized (this) {
+            StarSnapshot cached = snapshots.get(dataSetName);
+            if (cached != null) {
+                return cached;
+            }
+            generation = generations.getOrDefault(dataSetName, 0L);
+        }
+
+        long count = starObjectRepository.countByDataSetName(dataSetName);
+        if (count > MAX_SNAPSHOT_STARS) {
+            log.debug("Dataset {} has {} stars, too large for a snapshot", dataSetName, count);
+            return null;
+        }
+
+        long start = System.nanoTime();
+        StarSnapshot.Builder builder = new StarSnapshot.Builder(dataSetName, (int) count);
+        try (Stream<Object[]> rows = starObjectRepository.streamSnapshotColumns(dataSetName)) {
+            rows.forEach(builder::addRow);
+        }
+        StarSnapshot snapshot = builder.build();
+        log.info("Built star snapshot of {}: {} stars, {} dictionary strings in {} ms",
+                dataSetName, snapshot.size(), snapshot.dictionarySize(), (System.nanoTime() - start) / 1_000_000);
+
+        synchronized (this) {
+            if (generations.getOrDefault(dataSetName, 0L) == generation) {
+                snapshots.put(dataSetName, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the snapshot of a dataset whose stars changed.
+     *
+     * @param dataSetName the dataset name
+     */
+    public synchronized void invalidate(@Nullable String dataSetName) {
+        if (dataSetName == null) {
+            return;
+        }
+        generations.merge(dataSetName, 1L, Long::sum);
+        totalGeneration++;
+        snapshots.remove(dataSetName);
+    }
+
+    /**
+     * Returns the invalidation count of a dataset, which changes whenever its stars change.
+     * Caches of other data derived from a dataset compare it to detect stale entries.
+     *
+     * @param dataSetName the dataset name, or null for the count over all datasets
+     */
+    public synchronized long getGeneration(@Nullable String dataSetName) {
+        if (dataSetName == null || dataSetName.isBlank()) {
+            return totalGeneration;
+        }
+        return generations.getOrDefault(dataSetName, 0L);
+    }
+
+    /**
+     * Returns true if the snapshot of a dataset is cached.
+     */
+    public synchronized boolean isCached(@NotNull String dataSetName) {
+        return snapshots.containsKey(dataSetName);
+    }
+}
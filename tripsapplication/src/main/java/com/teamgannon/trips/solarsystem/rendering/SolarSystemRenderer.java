@@ -1,5 +1,6 @@
 package com.teamgannon.trips.solarsystem.rendering;
 
+import com.teamgannon.trips.particlefields.ParticleFieldScheduler;
 import com.teamgannon.trips.particlefields.RingConfiguration;
 import com.teamgannon.trips.particlefields.RingFieldRenderer;
 import com.teamgannon.trips.particlefields.RingType;
@@ -1581,7 +1582,9 @@ public class SolarSystemRenderer {
 
     /**
      * Update all ring animations.
-     * Call this from the animation loop to animate ring particles.
+     * Call this from the animation loop to animate ring particles. The particles are
+     * propagated on the shared {@link ParticleFieldScheduler} workers, and the meshes
+     * follow a frame later without a separate refresh.
      *
      * @param timeScale time scale factor (1.0 = normal speed)
      */
@@ -1590,9 +1593,7 @@ public class SolarSystemRenderer {
             return;
         }
 
-        for (RingFieldRenderer renderer : planetRings.values()) {
-            renderer.update(timeScale);
-        }
+        ParticleFieldScheduler.shared().step(planetRings.values(), timeScale);
     }
 
     /**
@@ -1906,14 +1907,12 @@ public class SolarSystemRenderer {
     }
 
     /**
-     * Update all feature animations.
+     * Update all feature animations, propagating on the shared {@link ParticleFieldScheduler}.
      *
      * @param timeScale time scale factor
      */
     public void updateFeatures(double timeScale) {
-        for (RingFieldRenderer renderer : featureRenderers.values()) {
-            renderer.update(timeScale);
-        }
+        ParticleFieldScheduler.shared().step(featureRenderers.values(), timeScale);
     }
 
     /**
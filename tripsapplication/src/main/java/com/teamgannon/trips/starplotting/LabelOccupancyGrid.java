@@ -0,0 +1,175 @@
+package com.teamgannon.trips.starplotting;
+
+import java.util.Arrays;
+
+/**
+ * Screen-space occupancy of placed labels, for collision checks during label layout.
+ * <p>
+ * The viewport is divided into square cells and each placed rectangle is recorded in
+ * every cell it overlaps. A collision test then only compares the candidate with the
+ * rectangles sharing a cell with it, instead of every label placed so far, so a layout
+ * pass over n labels is O(n) rather than O(n²) for evenly spread labels.
+ * <p>
+ * Rectangles extending past the viewport are clamped into the border cells; clamping
+ * keeps overlapping rectangles in a shared cell, so the test stays exact. Overlap uses
+ * the same strict test as {@link javafx.geometry.Rectangle2D#intersects}: rectangles
+ * that only touch do not collide.
+ * <p>
+ * Storage is reused across passes; {@link #reset} only clears the cells touched since the
+ * previous reset.
+ */
+final class LabelOccupancyGrid {
+
+    /**
+     * Default cell edge in pixels, about the size of a short label.
+     */
+    static final double DEFAULT_CELL_SIZE = 64.0;
+
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    private final double cellSize;
+
+    private int columns;
+    private int rows;
+
+    /**
+     * Rectangle indices per cell, and the number used in each.
+     */
+    private int[][] cellItems = new int[0][];
+    private int[] cellCounts = new int[0];
+
+    /**
+     * Cells holding at least one rectangle, so reset can skip the empty ones.
+     */
+    private int[] usedCells = new int[16];
+    private int usedCellCount;
+
+    /**
+     * Placed rectangles as minX, minY, maxX, maxY.
+     */
+    private double[] rectangles = new double[64];
+    private int size;
+
+    LabelOccupancyGrid() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    LabelOccupancyGrid(double cellSize) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+    }
+
+    /**
+     * Removes all rectangles and sizes the grid for a viewport.
+     *
+     * @param width  viewport width in pixels
+     * @param height viewport height in pixels
+     */
+    void reset(double width, double height) {
+        int newColumns = Math.max(1, (int) Math.ceil(Math.max(0, width) / cellSize));
+        int newRows = Math.max(1, (int) Math.ceil(Math.max(0, height) / cellSize));
+        if (newColumns != columns || newRows != rows) {
+            columns = newColumns;
+            rows = newRows;
+            cellItems = new int[columns * rows][];
+            cellCounts = new int[columns * rows];
+        } else {
+            for (int i = 0; i < usedCellCount; i++) {
+                cellCounts[usedCells[i]] = 0;
+            }
+        }
+        usedCellCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Places a rectangle unless it overlaps one already placed.
+     *
+     * @return true if the rectangle was free and is now occupied
+     */
+    boolean tryOccupy(double x, double y, double width, double height) {
+        double maxX = x + width;
+        double maxY = y + height;
+        int c0 = column(x);
+        int c1 = column(maxX);
+        int r0 = row(y);
+        int r1 = row(maxY);
+
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * columns + c;
+                int[] items = cellItems[cell];
+                for (int k = 0, n = cellCounts[cell]; k < n; k++) {
+                    int base = items[k] * 4;
+                    if (rectangles[base + 2] > x && rectangles[base + 3] > y
+                            && rectangles[base] < maxX && rectangles[base + 1] < maxY) {
+                        return false;
+                    }
+                }
+            }
+        }
+
+        int index = add(x, y, maxX, maxY);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                addToCell(r * columns + c, index);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Number of rectangles placed since the last reset.
+     */
+    int size() {
+        return size;
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    private int column(double x) {
+        return clamp((int) Math.floor(x / cellSize), columns);
+    }
+
+    private int row(double y) {
+        return clamp((int) Math.floor(y / cellSize), rows);
+    }
+
+    private static int clamp(int index, int count) {
+        return index < 0 ? 0 : Math.min(index, count - 1);
+    }
+
+    private int add(double minX, double minY, double maxX, double maxY) {
+        if ((size + 1) * 4 > rectangles.length) {
+            rectangles = Arrays.copyOf(rectangles, rectangles.length * 2);
+        }
+        int base = size * 4;
+        rectangles[base] = minX;
+        rectangles[base + 1] = minY;
+        rectangles[base + 2] = maxX;
+        rectangles[base + 3] = maxY;
+        return size++;
+    }
+
+    private void addToCell(int cell, int index) {
+        int count = cellCounts[cell];
+        int[] items = cellItems[cell];
+        if (items == null) {
+            items = cellItems[cell] = new int[INITIAL_CELL_CAPACITY];
+        } else if (count == items.length) {
+            items = cellItems[cell] = Arrays.copyOf(items, count * 2);
+        }
+        if (count == 0) {
+            if (usedCellCount == usedCells.length) {
+                usedCells = Arrays.copyOf(usedCells, usedCellCount * 2);
+            }
+            usedCells[usedCellCount++] = cell;
+        }
+        items[count] = index;
+        cellCounts[cell] = count + 1;
+    }
+}
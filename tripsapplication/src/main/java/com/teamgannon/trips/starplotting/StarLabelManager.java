@@ -6,10 +6,10 @@ import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.geometry.Bounds;
 import javafx.geometry.Point2D;
 import javafx.geometry.Point3D;
-import javafx.geometry.Rectangle2D;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.SubScene;
@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Manages star labels for the interstellar space view.
@@ -48,6 +49,10 @@ import java.util.Map;
  * <p>
  * The {@link #updateLabels} method must be called after any camera movement
  * (rotation, zoom, pan) to reposition labels to match their 3D node positions.
+ * A pass measures each label once and reuses the size until its text or font changes,
+ * resolves collisions against a screen-space {@link LabelOccupancyGrid}, and measures at
+ * most {@link #setMeasurementBudget measurement budget} new labels; labels left unmeasured
+ * stay hidden until a follow-up pass queued on the FX thread.
  */
 @Slf4j
 public class StarLabelManager {
@@ -148,6 +153,11 @@ public class StarLabelManager {
      */
     private static final double FONT_SCALE_RANGE = 1600.0;
 
+    /**
+     * Default number of labels measured (CSS + layout) in one update pass.
+     */
+    public static final int DEFAULT_MEASUREMENT_BUDGET = 256;
+
     // =========================================================================
     // State
     // =========================================================================
@@ -216,6 +226,26 @@ public class StarLabelManager {
      */
     private Timeline currentHighlightAnimation;
 
+    /**
+     * Measured label sizes, valid while the label's text and font are unchanged.
+     */
+    private final Map<Label, LabelSize> labelSizes = new HashMap<>();
+
+    /**
+     * Occupied screen areas of the current pass, reused across passes.
+     */
+    private final LabelOccupancyGrid occupancy = new LabelOccupancyGrid();
+
+    /**
+     * Maximum number of labels measured in one pass.
+     */
+    private int measurementBudget = DEFAULT_MEASUREMENT_BUDGET;
+
+    /**
+     * Bounds for the follow-up pass of a pass that ran out of measurement budget, or null.
+     */
+    private @Nullable Bounds pendingBounds;
+
     // =========================================================================
     // Initialization
     // =========================================================================
@@ -252,6 +282,18 @@ public class StarLabelManager {
         this.currentCameraZ = cameraZ;
     }
 
+    /**
+     * Set how many labels a single update pass may measure.
+     * <p>
+     * Measuring a label (CSS and layout) dominates the cost of a pass; sizes are cached,
+     * so the budget only matters when many labels are new or were re-fonted by zoom.
+     *
+     * @param budget labels measured per pass, at least 1
+     */
+    public void setMeasurementBudget(int budget) {
+        this.measurementBudget = Math.max(1, budget);
+    }
+
     /**
      * Calculate the font scale factor based on current camera Z position.
      * <p>
@@ -526,7 +568,9 @@ public class StarLabelManager {
         Label label = shapeToLabel.remove(starNode);
         if (label != null) {
             labelDisplayGroup.getChildren().remove(label);
+            labelSizes.remove(label);
         }
+        lastLabelPositions.remove(starNode);
     }
 
     // =========================================================================
@@ -566,6 +610,9 @@ public class StarLabelManager {
      * Includes collision detection: labels are sorted by depth (camera distance),
      * and overlapping labels are hidden with priority given to closer stars.
      * <p>
+     * Labels not measured within the measurement budget are hidden, and another pass
+     * is queued to place them.
+     * <p>
      * Call this method after any camera movement (rotation, zoom, pan).
      *
      * @param parentBounds the bounds of the parent container
@@ -629,7 +676,9 @@ public class StarLabelManager {
         candidates.sort((a, b) -> Double.compare(a.distanceToCamera(), b.distanceToCamera()));
 
         // Phase 3: Process with collision detection
-        List<Rectangle2D> occupied = new ArrayList<>();
+        occupancy.reset(subScene.getWidth(), subScene.getHeight());
+        int measurementsLeft = measurementBudget;
+        boolean unmeasured = false;
 
         for (LabelCandidate candidate : candidates) {
             Node node = candidate.node();
@@ -649,40 +698,39 @@ public class StarLabelManager {
                 y = ys < 0 ? ys - controlPaneOffset : ys + controlPaneOffset;
             }
 
-            // Measure label dimensions
-            label.applyCss();
-            label.autosize();
-            double labelWidth = label.getWidth();
-            double labelHeight = label.getHeight();
+            // Measure label dimensions, reusing the size while text and font are unchanged
+            LabelSize size = labelSizes.get(label);
+            if (size == null || !size.matches(label)) {
+                if (measurementsLeft == 0) {
+                    label.setVisible(false);
+                    unmeasured = true;
+                    continue;
+                }
+                measurementsLeft--;
+                size = measure(label);
+                labelSizes.put(label, size);
+            }
+            double labelWidth = size.width();
+            double labelHeight = size.height();
 
             // Clamp to viewport bounds
             x = clampX(x, labelWidth);
             y = clampY(y, labelHeight);
 
-            // Create bounds rectangle with padding for collision detection
-            Rectangle2D bounds = new Rectangle2D(
+            // Occupy the bounds with padding unless an already-placed label is there
+            boolean placed = occupancy.tryOccupy(
                     x - LABEL_COLLISION_PADDING,
                     y - LABEL_COLLISION_PADDING,
                     labelWidth + (LABEL_COLLISION_PADDING * 2),
                     labelHeight + (LABEL_COLLISION_PADDING * 2));
 
-            // Check for collision with already-placed labels
-            boolean collides = false;
-            for (Rectangle2D occupiedBounds : occupied) {
-                if (occupiedBounds.intersects(bounds)) {
-                    collides = true;
-                    break;
-                }
-            }
-
-            if (collides) {
+            if (!placed) {
                 label.setVisible(false);
                 continue;
             }
 
-            // No collision - show label and track its bounds
+            // No collision - show label
             label.setVisible(true);
-            occupied.add(bounds);
 
             // Check if position changed enough to warrant redraw
             Point2D lastPosition = lastLabelPositions.get(node);
@@ -698,6 +746,40 @@ public class StarLabelManager {
             label.getTransforms().setAll(new Translate(x, y));
             lastLabelPositions.put(node, new Point2D(x, y));
         }
+
+        // Every follow-up measures at least one label for good, so the passes end
+        if (unmeasured && measurementsLeft < measurementBudget) {
+            scheduleFollowUpPass(parentBounds);
+        }
+    }
+
+    /**
+     * Queue one more pass on the FX thread to place the labels left unmeasured.
+     * Only one follow-up is queued at a time; it uses the latest bounds.
+     */
+    private void scheduleFollowUpPass(@NotNull Bounds parentBounds) {
+        boolean alreadyQueued = pendingBounds != null;
+        pendingBounds = parentBounds;
+        if (alreadyQueued) {
+            return;
+        }
+        Platform.runLater(() -> {
+            Bounds bounds = pendingBounds;
+            pendingBounds = null;
+            if (bounds != null) {
+                updateLabels(bounds);
+            }
+        });
+    }
+
+    /**
+     * Measure a label's laid-out size.
+     */
+    private static @NotNull LabelSize measure(@NotNull Label label) {
+        label.applyCss();
+        label.autosize();
+        return new LabelSize(label.getText(), label.getFont(), label.getScene() != null,
+                label.getWidth(), label.getHeight());
     }
 
     /**
@@ -755,6 +837,8 @@ public class StarLabelManager {
         labelDisplayGroup.getChildren().clear();
         shapeToLabel.clear();
         lastLabelPositions.clear();
+        labelSizes.clear();
+        pendingBounds = null;
     }
 
     /**
@@ -795,4 +879,30 @@ public class StarLabelManager {
             Point3D scenePoint,
             double distanceToCamera
     ) {}
+
+    /**
+     * Measured size of a label and the text and font it was measured with.
+     *
+     * @param text    the label text when measured
+     * @param font    the label font when measured
+     * @param inScene whether the label was in a scene, and so styled, when measured
+     * @param width   the laid-out width
+     * @param height  the laid-out height
+     */
+    private record LabelSize(
+            String text,
+            Font font,
+            boolean inScene,
+            double width,
+            double height
+    ) {
+        /**
+         * Labels outside a scene get no CSS, so a size measured there holds only until the
+         * label is added to one; it is then measured once more.
+         */
+        boolean matches(@NotNull Label label) {
+            return Objects.equals(text, label.getText()) && Objects.equals(font, label.getFont())
+                    && (inScene || label.getScene() == null);
+        }
+    }
 }
@@ -1,8 +1,7 @@
 package com.teamgannon.trips.starplotting;
 
 import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
-import com.teamgannon.trips.transits.kdtree.KDPoint;
-import com.teamgannon.trips.transits.kdtree.KDTree3D;
+import com.teamgannon.trips.transits.kdtree.FlatKDTree3D;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -32,7 +31,7 @@ import java.util.stream.Collectors;
  * <p>
  * The index is immutable after construction. Rebuild when the star list changes.
  *
- * @see KDTree3D
+ * @see FlatKDTree3D
  */
 @Slf4j
 public class VisualizationSpatialIndex {
@@ -43,7 +42,7 @@ public class VisualizationSpatialIndex {
      */
     private static final int MIN_STARS_FOR_TREE = 50;
 
-    private final KDTree3D<StarDisplayRecord> tree;
+    private final FlatKDTree3D tree;
     private final List<StarDisplayRecord> stars;
     private final boolean useTree;
 
@@ -58,10 +57,7 @@ public class VisualizationSpatialIndex {
 
         if (useTree) {
             long startTime = System.nanoTime();
-            List<KDPoint<StarDisplayRecord>> points = stars.stream()
-                    .map(star -> new KDPoint<>(star.getActualCoordinates(), star))
-                    .collect(Collectors.toList());
-            this.tree = new KDTree3D<>(points);
+            this.tree = FlatKDTree3D.of(this.stars, StarDisplayRecord::getActualCoordinates);
             long buildTime = System.nanoTime() - startTime;
             log.debug("Built spatial index for {} stars in {:.2f} ms", stars.size(), buildTime / 1_000_000.0);
         } else {
@@ -108,9 +104,10 @@ public class VisualizationSpatialIndex {
      */
     public @NotNull List<StarDisplayRecord> findStarsWithinRadius(double centerX, double centerY, double centerZ, double radius) {
         if (useTree) {
-            return tree.rangeSearch(centerX, centerY, centerZ, radius).stream()
-                    .map(KDPoint::data)
-                    .collect(Collectors.toList());
+            List<StarDisplayRecord> results = new ArrayList<>();
+            tree.rangeSearch(centerX, centerY, centerZ, radius,
+                    (index, distSquared) -> results.add(stars.get(index)));
+            return results;
         } else {
             return findStarsWithinRadiusLinear(centerX, centerY, centerZ, radius);
         }
@@ -178,8 +175,8 @@ public class VisualizationSpatialIndex {
         }
 
         if (useTree) {
-            KDPoint<StarDisplayRecord> nearest = tree.nearestNeighbor(new double[]{x, y, z});
-            return nearest != null ? nearest.data() : null;
+            int nearest = tree.nearestNeighbor(x, y, z);
+            return nearest >= 0 ? stars.get(nearest) : null;
         } else {
             return findNearestStarLinear(x, y, z);
         }
@@ -1,8 +1,10 @@
 package com.teamgannon.trips.transits;
 
+import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
 import lombok.Builder;
 import lombok.Data;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Map;
@@ -28,6 +30,12 @@ public class TransitCalculationResult {
     @NotNull
     private TransitDefinitions transitDefinitions;
 
+    /**
+     * The stars the transits were calculated over, kept for incremental updates.
+     */
+    @Nullable
+    private List<StarDisplayRecord> starsInView;
+
     /**
      * Total number of routes calculated across all bands.
      */
@@ -117,6 +117,11 @@ public class TransitCalculationService extends Service<TransitCalculationResult>
     @Override
     protected void succeeded() {
         TransitCalculationResult result = getValue();
+        if (result.isCancelled()) {
+            // the task noticed the cancellation itself; report it as one, not as an empty result
+            cancelled();
+            return;
+        }
         log.info("Transit calculation completed: {} routes found in {} ms",
                 result.getTotalRoutes(), result.getCalculationTimeMs());
 
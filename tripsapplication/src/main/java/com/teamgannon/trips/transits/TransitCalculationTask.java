@@ -1,14 +1,13 @@
 package com.teamgannon.trips.transits;
 
 import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
-import com.teamgannon.trips.transits.kdtree.KDPoint;
-import com.teamgannon.trips.transits.kdtree.KDTree3D;
+import com.teamgannon.trips.transits.kdtree.KDTreeTransitCalculator;
 import javafx.concurrent.Task;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 
 /**
@@ -21,7 +20,8 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>0%: Starting</li>
  *   <li>5%: Building spatial index</li>
- *   <li>10-90%: Processing bands (evenly divided among enabled bands)</li>
+ *   <li>10-90%: Processing stars (all bands in one pass for large datasets,
+ *       evenly divided among enabled bands for small ones)</li>
  *   <li>100%: Complete</li>
  * </ul>
  */
@@ -78,35 +78,26 @@ public class TransitCalculationTask extends Task<TransitCalculationResult> {
 
             // Check if cancelled
             if (isCancelled()) {
-                return buildResult(routesByBand, 0, startTime, true, null);
+                return cancelledResult(startTime);
             }
 
-            // For large datasets, use KD-Tree with progress reporting
+            // For large datasets, compute all bands in one KD-Tree pass with progress reporting
             if (starsInView.size() > 100) {
-                // Build tree once
                 updateMessage("Building spatial index...");
-                KDTree3D<StarDisplayRecord> tree = buildTree(starsInView);
+                KDTreeTransitCalculator multiBandCalculator = calculator instanceof KDTreeTransitCalculator kdTree
+                        ? kdTree
+                        : new KDTreeTransitCalculator();
+                int starCount = starsInView.size();
                 updateProgress(10, 100);
 
-                // Process each band with progress
-                double progressPerBand = 80.0 / enabledBands.size();
-                int bandIndex = 0;
-
-                for (TransitRangeDef band : enabledBands) {
-                    if (isCancelled()) {
-                        return buildResult(routesByBand, totalRoutes, startTime, true, null);
-                    }
-
-                    updateMessage(String.format("Processing band '%s' (%d of %d)...",
-                            band.getBandName(), bandIndex + 1, enabledBands.size()));
-
-                    List<TransitRoute> routes = calculateBandWithProgress(tree, band, bandIndex, enabledBands.size());
-                    routesByBand.put(band.getBandId(), routes);
-                    totalRoutes += routes.size();
-
-                    bandIndex++;
-                    updateProgress(10 + (int) (progressPerBand * bandIndex), 100);
-                }
+                routesByBand.putAll(multiBandCalculator.calculateDistancesByBand(
+                        enabledBands, starsInView, this::isCancelled, processed -> {
+                            updateProgress(10 + 80L * processed / starCount, 100);
+                            updateMessage(String.format("Processing %d transit bands: %,d of %,d stars...",
+                                    enabledBands.size(), processed, starCount));
+                        }));
+                totalRoutes = routesByBand.values().stream().mapToInt(List::size).sum();
+                updateProgress(90, 100);
             } else {
                 // For small datasets, use the standard calculator (fast enough)
                 double progressPerBand = 85.0 / enabledBands.size();
@@ -114,7 +105,7 @@ public class TransitCalculationTask extends Task<TransitCalculationResult> {
 
                 for (TransitRangeDef band : enabledBands) {
                     if (isCancelled()) {
-                        return buildResult(routesByBand, totalRoutes, startTime, true, null);
+                        return cancelledResult(startTime);
                     }
 
                     updateMessage(String.format("Processing band '%s' (%d of %d)...",
@@ -134,6 +125,8 @@ public class TransitCalculationTask extends Task<TransitCalculationResult> {
 
             return buildResult(routesByBand, totalRoutes, startTime, false, null);
 
+        } catch (CancellationException e) {
+            return cancelledResult(startTime);
         } catch (Exception e) {
             log.error("Transit calculation failed", e);
             updateMessage("Calculation failed: " + e.getMessage());
@@ -142,86 +135,11 @@ public class TransitCalculationTask extends Task<TransitCalculationResult> {
     }
 
     /**
-     * Build KD-Tree from stars.
+     * A cancelled calculation carries no routes: the bands it did finish are not a complete answer.
      */
-    private KDTree3D<StarDisplayRecord> buildTree(List<StarDisplayRecord> stars) {
-        List<KDPoint<StarDisplayRecord>> points = stars.stream()
-                .map(star -> new KDPoint<>(star.getActualCoordinates(), star))
-                .collect(Collectors.toList());
-        return new KDTree3D<>(points);
-    }
-
-    /**
-     * Calculate transits for a single band with progress reporting.
-     */
-    private List<TransitRoute> calculateBandWithProgress(
-            KDTree3D<StarDisplayRecord> tree,
-            TransitRangeDef rangeDef,
-            int bandIndex,
-            int totalBands) {
-
-        Set<String> seen = ConcurrentHashMap.newKeySet();
-        List<TransitRoute> routes = new ArrayList<>();
-        double upperRange = rangeDef.getUpperRange();
-        double lowerRange = rangeDef.getLowerRange();
-
-        int starCount = starsInView.size();
-        int progressReportInterval = Math.max(1, starCount / 20); // Report progress every 5%
-
-        for (int i = 0; i < starCount; i++) {
-            if (isCancelled()) {
-                break;
-            }
-
-            StarDisplayRecord star = starsInView.get(i);
-            double[] coords = star.getActualCoordinates();
-            List<KDPoint<StarDisplayRecord>> neighbors = tree.rangeSearch(coords, upperRange);
-
-            for (KDPoint<StarDisplayRecord> neighbor : neighbors) {
-                StarDisplayRecord target = neighbor.data();
-                if (star == target) continue;
-
-                String key = pairKey(star, target);
-                if (!seen.add(key)) continue;
-
-                double distance = neighbor.distanceTo(coords);
-                if (distance > lowerRange) {
-                    routes.add(createRoute(star, target, distance, rangeDef));
-                }
-            }
-
-            // Update progress periodically
-            if (i % progressReportInterval == 0) {
-                double bandProgress = (double) i / starCount;
-                double overallProgress = 10 + (80.0 / totalBands) * (bandIndex + bandProgress);
-                updateProgress((int) overallProgress, 100);
-
-                updateMessage(String.format("Band '%s': processed %,d of %,d stars, found %,d routes...",
-                        rangeDef.getBandName(), i, starCount, routes.size()));
-            }
-        }
-
-        return routes;
-    }
-
-    private String pairKey(StarDisplayRecord a, StarDisplayRecord b) {
-        String nameA = a.getStarName();
-        String nameB = b.getStarName();
-        return nameA.compareTo(nameB) < 0 ? nameA + "|" + nameB : nameB + "|" + nameA;
-    }
-
-    private TransitRoute createRoute(StarDisplayRecord source,
-                                      StarDisplayRecord target,
-                                      double distance,
-                                      TransitRangeDef rangeDef) {
-        return TransitRoute.builder()
-                .good(true)
-                .source(source)
-                .target(target)
-                .distance(distance)
-                .lineWeight(rangeDef.getLineWidth())
-                .color(rangeDef.getBandColor())
-                .build();
+    private TransitCalculationResult cancelledResult(long startTime) {
+        updateMessage("Calculation cancelled");
+        return buildResult(new HashMap<>(), 0, startTime, true, null);
     }
 
     private TransitCalculationResult buildResult(Map<UUID, List<TransitRoute>> routesByBand,
@@ -232,6 +150,7 @@ public class TransitCalculationTask extends Task<TransitCalculationResult> {
         return TransitCalculationResult.builder()
                 .routesByBand(routesByBand)
                 .transitDefinitions(transitDefinitions)
+                .starsInView(starsInView)
                 .totalRoutes(totalRoutes)
                 .calculationTimeMs(System.currentTimeMillis() - startTime)
                 .cancelled(cancelled)
@@ -1,5 +1,6 @@
 package com.teamgannon.trips.transits;
 
+import com.teamgannon.trips.routing.TransitGraphCache;
 import com.teamgannon.trips.service.measure.StarMeasurementService;
 import com.teamgannon.trips.transits.kdtree.KDTreeTransitCalculator;
 import lombok.extern.slf4j.Slf4j;
@@ -28,9 +29,10 @@ public class TransitCalculatorFactory {
     private final StarMeasurementService bruteForceCalculator;
     private final KDTreeTransitCalculator kdTreeCalculator;
 
-    public TransitCalculatorFactory(StarMeasurementService bruteForceCalculator) {
+    public TransitCalculatorFactory(StarMeasurementService bruteForceCalculator,
+                                    TransitGraphCache transitGraphCache) {
         this.bruteForceCalculator = bruteForceCalculator;
-        this.kdTreeCalculator = new KDTreeTransitCalculator(true);
+        this.kdTreeCalculator = new KDTreeTransitCalculator(true, transitGraphCache);
     }
 
     /**
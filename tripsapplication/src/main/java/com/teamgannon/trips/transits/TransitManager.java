@@ -4,6 +4,8 @@ import com.teamgannon.trips.config.application.TripsContext;
 import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
 import com.teamgannon.trips.graphics.panes.InterstellarSpacePane;
 import com.teamgannon.trips.jpa.model.DataSetDescriptor;
+import com.teamgannon.trips.transits.kdtree.IncrementalTransitCalculator;
+import com.teamgannon.trips.transits.kdtree.KDTreeTransitCalculator;
 import javafx.scene.Group;
 import javafx.scene.SubScene;
 import lombok.Getter;
@@ -33,6 +35,16 @@ public class TransitManager {
     @Getter
     private TransitSpatialIndex spatialIndex = new TransitSpatialIndex();
 
+    /**
+     * The last full calculation, which small changes of the plotted stars are applied to.
+     */
+    private final IncrementalTransitCalculator incrementalCalculator = new IncrementalTransitCalculator();
+
+    /**
+     * Definitions of the displayed transits, or null when none are displayed.
+     */
+    private @Nullable TransitDefinitions currentDefinitions;
+
     private final TripsContext tripsContext;
     private final TransitCalculatorFactory calculatorFactory;
     private final TransitRouteBuilderService routeBuilderService;
@@ -101,31 +113,126 @@ public class TransitManager {
      * Automatically selects the optimal algorithm based on star count:
      * <ul>
      *   <li>≤ 100 stars: O(n²) brute-force (lower overhead)</li>
-     *   <li>> 100 stars: O(n log n) KD-Tree with parallel queries</li>
+     *   <li>> 100 stars: O(n log n) KD-Tree, all bands in one parallel pass, read from the
+     *   persistent transit graph cache for large datasets</li>
      * </ul>
+     * If the same bands are displayed and only a few stars changed since, the displayed
+     * transits are patched instead (see {@link #updateTransits}).
      */
     public void findTransits(TransitDefinitions transitDefinitions, @NotNull List<StarDisplayRecord> starsInView) {
+        if (updateTransits(transitDefinitions, starsInView)) {
+            return;
+        }
         clearTransits();
 
         log.debug("Finding transits for {} stars", starsInView.size());
         TransitGraphicsContext context = buildContext(starsInView.size());
         List<TransitRangeDef> transitRangeDefList = transitDefinitions.getTransitRangeDefs();
 
+        Map<UUID, List<TransitRoute>> routesByBand = null;
+        if (context.getDistanceCalculator() instanceof KDTreeTransitCalculator multiBandCalculator) {
+            routesByBand = multiBandCalculator.calculateDistancesByBand(transitRangeDefList, starsInView);
+        }
+
         for (TransitRangeDef transitRangeDef : transitRangeDefList) {
             if (transitRangeDef.isEnabled()) {
                 TransitRouteVisibilityGroup visibilityGroup = new TransitRouteVisibilityGroup(context, transitRangeDef);
-                visibilityGroup.plotTransit(transitRangeDef, starsInView);
+                if (routesByBand != null) {
+                    visibilityGroup.plotPreCalculatedRoutes(
+                            routesByBand.getOrDefault(transitRangeDef.getBandId(), List.of()));
+                } else {
+                    visibilityGroup.plotTransit(transitRangeDef, starsInView);
+                }
                 installGroup(visibilityGroup);
             }
         }
 
         // Build spatial index from computed transits
         rebuildSpatialIndex();
+        recordTransits(transitDefinitions, starsInView);
 
         updateLabels();
         log.debug("Transits computed and displayed");
     }
 
+    /**
+     * Applies a change of the plotted stars to the displayed transits in place.
+     * <p>
+     * Only transits of added, removed or changed stars are recalculated; kept transits
+     * are moved to the new star positions. Returns false without changing anything when
+     * no transits for these bands are displayed or too many stars changed, in which case
+     * the caller recalculates.
+     *
+     * @param transitDefinitions the transit band definitions
+     * @param starsInView        the stars now in view
+     * @return true if the displayed transits were updated
+     */
+    public boolean updateTransits(@NotNull TransitDefinitions transitDefinitions,
+                                  @NotNull List<StarDisplayRecord> starsInView) {
+        if (currentDefinitions == null || transitGroup == null) {
+            return false;
+        }
+        Map<UUID, IncrementalTransitCalculator.BandUpdate> updates =
+                incrementalCalculator.update(transitDefinitions.getTransitRangeDefs(), starsInView);
+        if (updates == null) {
+            return false;
+        }
+
+        TransitGraphicsContext context = null;
+        for (TransitRangeDef rangeDef : transitDefinitions.getTransitRangeDefs()) {
+            IncrementalTransitCalculator.BandUpdate update = updates.get(rangeDef.getBandId());
+            if (update == null) {
+                continue;
+            }
+            TransitRouteVisibilityGroup visibilityGroup = transitMap.get(rangeDef.getBandId());
+            if (visibilityGroup == null) {
+                if (update.added().isEmpty()) {
+                    continue;
+                }
+                // Bands without routes have no group after an async calculation
+                if (context == null) {
+                    context = buildContext(starsInView.size());
+                }
+                visibilityGroup = new TransitRouteVisibilityGroup(context, rangeDef);
+                visibilityGroup.toggleTransit(true);
+                installGroup(visibilityGroup);
+            }
+            visibilityGroup.applyUpdate(update.removed(), update.added(), update.retargeted());
+        }
+        currentDefinitions = transitDefinitions;
+
+        rebuildSpatialIndex();
+        updateLabels();
+        log.debug("Transits updated incrementally for {} stars", starsInView.size());
+        return true;
+    }
+
+    /**
+     * Brings the displayed transits up to date after the stars were replotted.
+     * Small changes are patched in place; otherwise the transits are cleared.
+     *
+     * @param starsInView the stars now in view
+     */
+    public void refreshTransits(@NotNull List<StarDisplayRecord> starsInView) {
+        if (currentDefinitions != null && !updateTransits(currentDefinitions, starsInView)) {
+            log.debug("Plotted stars changed too much for an incremental transit update, clearing transits");
+            clearTransits();
+        }
+    }
+
+    /**
+     * Remembers the displayed transits as the base for incremental updates.
+     */
+    private void recordTransits(@NotNull TransitDefinitions transitDefinitions,
+                                @NotNull List<StarDisplayRecord> starsInView) {
+        currentDefinitions = transitDefinitions;
+        Map<UUID, List<TransitRoute>> displayed = new HashMap<>();
+        for (TransitRouteVisibilityGroup visibilityGroup : transitMap.values()) {
+            displayed.put(visibilityGroup.getGroupId(), new ArrayList<>(visibilityGroup.getTransitRoutes()));
+        }
+        incrementalCalculator.record(transitDefinitions.getTransitRangeDefs(), starsInView, displayed);
+    }
+
     private void installGroup(TransitRouteVisibilityGroup visibilityGroup) {
         transitMap.put(visibilityGroup.getGroupId(), visibilityGroup);
         transitGroup.getChildren().add(visibilityGroup.getGroup());
@@ -188,6 +295,8 @@ public class TransitManager {
         transitMap.clear();
         labelDisplayGroup.getChildren().clear();
         spatialIndex.clear();
+        currentDefinitions = null;
+        incrementalCalculator.reset();
     }
 
     /**
@@ -247,6 +356,11 @@ public class TransitManager {
 
         // Build spatial index from applied transits
         rebuildSpatialIndex();
+        if (result.getStarsInView() != null) {
+            recordTransits(definitions, result.getStarsInView());
+        } else {
+            currentDefinitions = definitions;
+        }
 
         updateLabels();
         log.debug("Pre-calculated transits applied and displayed");
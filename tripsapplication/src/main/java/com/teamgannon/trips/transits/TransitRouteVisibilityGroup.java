@@ -14,6 +14,7 @@ import javafx.scene.input.MouseButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.PhongMaterial;
+import javafx.scene.shape.Cylinder;
 import javafx.scene.shape.Sphere;
 import javafx.scene.transform.Rotate;
 import javafx.scene.transform.Translate;
@@ -50,6 +51,11 @@ public class TransitRouteVisibilityGroup {
     private final Map<String, TransitRoute> transitRouteMap = new HashMap<>();
     private final Map<Node, Label> shapeToLabel = new HashMap<>();
 
+    /**
+     * Line group of each plotted route, by identity since routes are mutable.
+     */
+    private final Map<TransitRoute, Group> segmentByRoute = new IdentityHashMap<>();
+
     /**
      * Gets all transit routes in this visibility group.
      *
@@ -116,6 +122,7 @@ public class TransitRouteVisibilityGroup {
         group.getChildren().clear();
         shapeToLabel.clear();
         transitRouteMap.clear();
+        segmentByRoute.clear();
     }
 
     /**
@@ -143,12 +150,63 @@ public class TransitRouteVisibilityGroup {
         plotTransitRoutes(transitRoutes);
     }
 
+    /**
+     * Patch the plotted transits after the plotted stars changed, without rebuilding
+     * the transits that are still valid. Visibility of the band is left as it is.
+     *
+     * @param removed    transits to remove
+     * @param added      transits to plot
+     * @param retargeted plotted transits whose star records were replaced; their
+     *                   cylinders and label anchors are moved to the new positions
+     */
+    public void applyUpdate(@NotNull List<TransitRoute> removed,
+                            @NotNull List<TransitRoute> added,
+                            @NotNull List<TransitRoute> retargeted) {
+        log.debug("Updating band {}: {} removed, {} added, {} retargeted",
+                groupName, removed.size(), added.size(), retargeted.size());
+
+        // Bulk removal keeps this linear in the number of plotted transits
+        Set<Node> removedSegments = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<Node> removedLabels = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (TransitRoute route : removed) {
+            Group segment = segmentByRoute.remove(route);
+            if (segment == null) {
+                continue;
+            }
+            transitRouteMap.remove(route.getName());
+            removedSegments.add(segment);
+            Label label = shapeToLabel.remove(labelAnchor(segment));
+            if (label != null) {
+                removedLabels.add(label);
+            }
+        }
+        group.getChildren().removeAll(removedSegments);
+        labelGroup.getChildren().removeAll(removedLabels);
+
+        for (TransitRoute route : retargeted) {
+            Group segment = segmentByRoute.get(route);
+            if (segment != null) {
+                positionSegment((Cylinder) segment.getChildren().get(0), labelAnchor(segment),
+                        route.getSourceEndpoint(), route.getTargetEndpoint());
+            }
+        }
+
+        MapUtils.populateMap(transitRouteMap, added, TransitRoute::getName);
+        addSegments(added);
+    }
+
     private void plotTransitRoutes(@NotNull List<TransitRoute> transitRoutes) {
+        addSegments(transitRoutes);
+        group.setVisible(true);
+        labelGroup.setVisible(true);
+    }
+
+    private void addSegments(@NotNull List<TransitRoute> transitRoutes) {
         for (TransitRoute transitRoute : transitRoutes) {
             log.debug("transit: {}", transitRoute);
             Label lengthLabel = createLabel(transitRoute);
 
-            Node transitSegment = createLineSegment(
+            Group transitSegment = createLineSegment(
                     transitRoute.getSourceEndpoint(),
                     transitRoute.getTargetEndpoint(),
                     transitRoute.getLineWeight(),
@@ -161,10 +219,8 @@ public class TransitRouteVisibilityGroup {
 
             createContextMenu(transitSegment);
             group.getChildren().add(transitSegment);
+            segmentByRoute.put(transitRoute, transitSegment);
         }
-
-        group.setVisible(true);
-        labelGroup.setVisible(true);
     }
 
     private @NotNull String hoverText(@NotNull TransitRoute transitRoute) {
@@ -174,32 +230,18 @@ public class TransitRouteVisibilityGroup {
                 + String.format("%.2f", transitRoute.getDistance()) + " ly";
     }
 
-    private @NotNull Node createLineSegment(Point3D origin, @NotNull Point3D target,
-                                            double lineWeight, Color color, @NotNull Label lengthLabel) {
-        Point3D yAxis = new Point3D(0, 1, 0);
-        Point3D diff = target.subtract(origin);
-        double height = diff.magnitude();
-
-        Point3D mid = target.midpoint(origin);
-        Translate moveToMidpoint = new Translate(mid.getX(), mid.getY(), mid.getZ());
-
-        Point3D axisOfRotation = diff.crossProduct(yAxis);
-        double angle = Math.acos(diff.normalize().dotProduct(yAxis));
-        Rotate rotateAroundCenter = new Rotate(-Math.toDegrees(angle), axisOfRotation);
-
-        var line = StellarEntityFactory.createCylinder(lineWeight, color, height);
+    private @NotNull Group createLineSegment(Point3D origin, @NotNull Point3D target,
+                                             double lineWeight, Color color, @NotNull Label lengthLabel) {
+        var line = StellarEntityFactory.createCylinder(lineWeight, color, 0);
 
         Group lineGroup = new Group();
-        line.getTransforms().addAll(moveToMidpoint, rotateAroundCenter);
         lineGroup.getChildren().add(line);
 
         // Always create label attachment point
         Sphere pointSphere = createPointSphere(lengthLabel);
-        pointSphere.setTranslateX(mid.getX());
-        pointSphere.setTranslateY(mid.getY());
-        pointSphere.setTranslateZ(mid.getZ());
         lengthLabel.setTextFill(color);
         lineGroup.getChildren().add(pointSphere);
+        positionSegment(line, pointSphere, origin, target);
 
         if (!shapeToLabel.containsValue(lengthLabel)) {
             shapeToLabel.put(pointSphere, lengthLabel);
@@ -211,6 +253,37 @@ public class TransitRouteVisibilityGroup {
         return lineGroup;
     }
 
+    /**
+     * Stretches the cylinder between the endpoints and puts the label anchor at the midpoint.
+     */
+    private void positionSegment(@NotNull Cylinder line, @NotNull Node labelAnchor,
+                                 @NotNull Point3D origin, @NotNull Point3D target) {
+        Point3D yAxis = new Point3D(0, 1, 0);
+        Point3D diff = target.subtract(origin);
+        double height = diff.magnitude();
+
+        Point3D mid = target.midpoint(origin);
+        Translate moveToMidpoint = new Translate(mid.getX(), mid.getY(), mid.getZ());
+
+        Point3D axisOfRotation = diff.crossProduct(yAxis);
+        double angle = Math.acos(diff.normalize().dotProduct(yAxis));
+        Rotate rotateAroundCenter = new Rotate(-Math.toDegrees(angle), axisOfRotation);
+
+        line.setHeight(height);
+        line.getTransforms().setAll(moveToMidpoint, rotateAroundCenter);
+
+        labelAnchor.setTranslateX(mid.getX());
+        labelAnchor.setTranslateY(mid.getY());
+        labelAnchor.setTranslateZ(mid.getZ());
+    }
+
+    /**
+     * Returns the label anchor sphere of a line group built by {@link #createLineSegment}.
+     */
+    private static @NotNull Node labelAnchor(@NotNull Group segment) {
+        return segment.getChildren().get(1);
+    }
+
     private @NotNull Sphere createPointSphere(@NotNull Label label) {
         final PhongMaterial material = new PhongMaterial();
         material.setDiffuseColor(Color.WHEAT);
@@ -263,6 +336,7 @@ public class TransitRouteVisibilityGroup {
             TransitRoute transitRoute = (TransitRoute) transitSegment.getUserData();
             group.getChildren().remove(transitSegment);
             transitRouteMap.remove(transitRoute.getName());
+            segmentByRoute.remove(transitRoute);
             log.debug("Removed transit: {}", transitRoute.getName());
         });
         return menuItem;
@@ -0,0 +1,365 @@
+package com.teamgannon.trips.transits.kdtree;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * A primitive, array-backed 3D KD-Tree for allocation-free neighbor queries.
+ * <p>
+ * Unlike {@link KDTree3D}, this tree does not allocate a node object per point.
+ * Coordinates are stored in a single interleaved {@code double[]} and the tree
+ * is implicit: the sub-range {@code [lo, hi)} of the node arrays is a subtree whose
+ * root sits at {@code (lo + hi) >>> 1}. Construction partitions the ranges in place
+ * with quickselect (nth-element) instead of re-sorting at every level.
+ * <p>
+ * Points are identified by their position in the input, so callers keep their own
+ * list of records and look them up by the index handed to the {@link NeighborVisitor}.
+ * <p>
+ * Complexity:
+ * <ul>
+ *   <li>Construction: O(n log n) expected</li>
+ *   <li>Range queries: O(log n + k), no allocation per query</li>
+ *   <li>Nearest neighbor: O(log n) expected</li>
+ * </ul>
+ * <p>
+ * Thread-safe for concurrent read operations after construction.
+ *
+ * @see KDTree3D
+ */
+public final class FlatKDTree3D {
+
+    private static final int DIMENSIONS = 3;
+
+    /**
+     * Point coordinates in input order: [x0, y0, z0, x1, y1, z1, ...].
+     */
+    private final double[] points;
+
+    /**
+     * Point coordinates in tree order, so that a subtree is a contiguous slice.
+     */
+    private final double[] nodeCoords;
+
+    /**
+     * Input index of the point stored at each tree slot.
+     */
+    private final int[] nodeIndex;
+
+    private final int size;
+
+    /**
+     * Callback receiving each point found by a range query.
+     */
+    @FunctionalInterface
+    public interface NeighborVisitor {
+
+        /**
+         * Called once for every point within the query radius.
+         *
+         * @param index           the input index of the point
+         * @param distanceSquared the squared distance from the query point
+         */
+        void visit(int index, double distanceSquared);
+    }
+
+    /**
+     * Constructs a tree from interleaved coordinates.
+     * The array is copied; point {@code i} is at {@code [3i, 3i+1, 3i+2]}.
+     *
+     * @param xyz interleaved x, y, z coordinates
+     */
+    public FlatKDTree3D(double @NotNull [] xyz) {
+        if (xyz.length % DIMENSIONS != 0) {
+            throw new IllegalArgumentException("Coordinate array length must be a multiple of " + DIMENSIONS);
+        }
+        this.size = xyz.length / DIMENSIONS;
+        this.points = xyz.clone();
+        this.nodeCoords = xyz.clone();
+        this.nodeIndex = new int[size];
+        for (int i = 0; i < size; i++) {
+            nodeIndex[i] = i;
+        }
+        if (size > 1) {
+            buildTree(0, size, 0);
+        }
+    }
+
+    /**
+     * Builds a tree over a list of records. Index {@code i} in query results
+     * refers to {@code items.get(i)}.
+     *
+     * @param items           the records to index
+     * @param coordsExtractor function returning the [x, y, z] coordinates of a record
+     * @param <T>             the record type
+     * @return the tree
+     */
+    public static <T> @NotNull FlatKDTree3D of(@NotNull List<T> items,
+                                               @NotNull Function<T, double[]> coordsExtractor) {
+        double[] xyz = new double[items.size() * DIMENSIONS];
+        int offset = 0;
+        for (T item : items) {
+            double[] coords = coordsExtractor.apply(item);
+            xyz[offset++] = coords[0];
+            xyz[offset++] = coords[1];
+            xyz[offset++] = coords[2];
+        }
+        return new FlatKDTree3D(xyz);
+    }
+
+    /**
+     * Returns the number of points in the tree.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if the tree is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the x coordinate of the point at the given input index.
+     */
+    public double x(int index) {
+        return points[index * DIMENSIONS];
+    }
+
+    /**
+     * Returns the y coordinate of the point at the given input index.
+     */
+    public double y(int index) {
+        return points[index * DIMENSIONS + 1];
+    }
+
+    /**
+     * Returns the z coordinate of the point at the given input index.
+     */
+    public double z(int index) {
+        return points[index * DIMENSIONS + 2];
+    }
+
+    /**
+     * Visits all points within the specified radius of the query point.
+     * The query point itself is reported if it is in the tree.
+     * <p>
+     * Complexity: O(log n + k) where k is the number of points visited.
+     *
+     * @param x       query x coordinate
+     * @param y       query y coordinate
+     * @param z       query z coordinate
+     * @param radius  the search radius (inclusive)
+     * @param visitor callback invoked for each point in range
+     */
+    public void rangeSearch(double x, double y, double z, double radius, @NotNull NeighborVisitor visitor) {
+        if (size > 0) {
+            rangeSearchRecursive(0, size, 0, x, y, z, radius * radius, visitor);
+        }
+    }
+
+    /**
+     * Visits all points within the specified radius of the point at the given input index,
+     * including that point itself.
+     *
+     * @param index   input index of the query point
+     * @param radius  the search radius (inclusive)
+     * @param visitor callback invoked for each point in range
+     */
+    public void rangeSearch(int index, double radius, @NotNull NeighborVisitor visitor) {
+        rangeSearch(x(index), y(index), z(index), radius, visitor);
+    }
+
+    /**
+     * Counts the points within the specified radius of the query point.
+     *
+     * @param x      query x coordinate
+     * @param y      query y coordinate
+     * @param z      query z coordinate
+     * @param radius the search radius (inclusive)
+     * @return number of points in range
+     */
+    public int rangeCount(double x, double y, double z, double radius) {
+        int[] count = new int[1];
+        rangeSearch(x, y, z, radius, (index, distSq) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Finds the point nearest to the query point.
+     *
+     * @param x query x coordinate
+     * @param y query y coordinate
+     * @param z query z coordinate
+     * @return input index of the nearest point, or -1 if the tree is empty
+     */
+    public int nearestNeighbor(double x, double y, double z) {
+        if (size == 0) {
+            return -1;
+        }
+        NearestState state = new NearestState();
+        nearestNeighborRecursive(0, size, 0, x, y, z, state);
+        return state.bestIndex;
+    }
+
+    // =========================================================================
+    // Tree Construction
+    // =========================================================================
+
+    private void buildTree(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int axis = depth % DIMENSIONS;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        buildTree(lo, mid, depth + 1);
+        buildTree(mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * Hoare-style quickselect on the inclusive slot range [left, right] so that
+     * slot k holds the k-th smallest coordinate on the axis, with no greater value
+     * before it and no smaller value after it. Handles runs of equal keys without
+     * degrading to quadratic time.
+     */
+    private void select(int left, int right, int k, int axis) {
+        while (right > left) {
+            double pivot = medianOfThree(left, k, right, axis);
+            int i = left;
+            int j = right;
+            do {
+                while (key(i, axis) < pivot) {
+                    i++;
+                }
+                while (pivot < key(j, axis)) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            } while (i <= j);
+            if (j < k) {
+                left = i;
+            }
+            if (k < i) {
+                right = j;
+            }
+        }
+    }
+
+    private double medianOfThree(int a, int b, int c, int axis) {
+        double ka = key(a, axis);
+        double kb = key(b, axis);
+        double kc = key(c, axis);
+        if (ka < kb) {
+            return kb < kc ? kb : Math.max(ka, kc);
+        }
+        return ka < kc ? ka : Math.max(kb, kc);
+    }
+
+    private double key(int slot, int axis) {
+        return nodeCoords[slot * DIMENSIONS + axis];
+    }
+
+    private void swap(int a, int b) {
+        int tmpIndex = nodeIndex[a];
+        nodeIndex[a] = nodeIndex[b];
+        nodeIndex[b] = tmpIndex;
+
+        int oa = a * DIMENSIONS;
+        int ob = b * DIMENSIONS;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double tmp = nodeCoords[oa + d];
+            nodeCoords[oa + d] = nodeCoords[ob + d];
+            nodeCoords[ob + d] = tmp;
+        }
+    }
+
+    // =========================================================================
+    // Range Search Implementation
+    // =========================================================================
+
+    private void rangeSearchRecursive(int lo, int hi, int depth,
+                                      double x, double y, double z,
+                                      double radiusSquared,
+                                      @NotNull NeighborVisitor visitor) {
+        int mid = (lo + hi) >>> 1;
+        int offset = mid * DIMENSIONS;
+        double dx = nodeCoords[offset] - x;
+        double dy = nodeCoords[offset + 1] - y;
+        double dz = nodeCoords[offset + 2] - z;
+        double distSquared = dx * dx + dy * dy + dz * dz;
+        if (distSquared <= radiusSquared) {
+            visitor.visit(nodeIndex[mid], distSquared);
+        }
+
+        int axis = depth % DIMENSIONS;
+        double axisDist = (axis == 0 ? x : axis == 1 ? y : z) - nodeCoords[offset + axis];
+
+        // Search the side containing the query point first, the far side only
+        // if the splitting plane is within radius
+        boolean leftNear = axisDist < 0;
+        boolean searchFar = axisDist * axisDist <= radiusSquared;
+        if (leftNear || searchFar) {
+            if (lo < mid) {
+                rangeSearchRecursive(lo, mid, depth + 1, x, y, z, radiusSquared, visitor);
+            }
+        }
+        if (!leftNear || searchFar) {
+            if (mid + 1 < hi) {
+                rangeSearchRecursive(mid + 1, hi, depth + 1, x, y, z, radiusSquared, visitor);
+            }
+        }
+    }
+
+    // =========================================================================
+    // Nearest Neighbor Implementation
+    // =========================================================================
+
+    private static class NearestState {
+        int bestIndex = -1;
+        double bestDistSquared = Double.MAX_VALUE;
+    }
+
+    private void nearestNeighborRecursive(int lo, int hi, int depth,
+                                          double x, double y, double z,
+                                          @NotNull NearestState state) {
+        int mid = (lo + hi) >>> 1;
+        int offset = mid * DIMENSIONS;
+        double dx = nodeCoords[offset] - x;
+        double dy = nodeCoords[offset + 1] - y;
+        double dz = nodeCoords[offset + 2] - z;
+        double distSquared = dx * dx + dy * dy + dz * dz;
+        if (distSquared < state.bestDistSquared) {
+            state.bestIndex = nodeIndex[mid];
+            state.bestDistSquared = distSquared;
+        }
+
+        int axis = depth % DIMENSIONS;
+        double axisDist = (axis == 0 ? x : axis == 1 ? y : z) - nodeCoords[offset + axis];
+
+        boolean hasLeft = lo < mid;
+        boolean hasRight = mid + 1 < hi;
+        if (axisDist < 0) {
+            if (hasLeft) {
+                nearestNeighborRecursive(lo, mid, depth + 1, x, y, z, state);
+            }
+            if (hasRight && axisDist * axisDist < state.bestDistSquared) {
+                nearestNeighborRecursive(mid + 1, hi, depth + 1, x, y, z, state);
+            }
+        } else {
+            if (hasRight) {
+                nearestNeighborRecursive(mid + 1, hi, depth + 1, x, y, z, state);
+            }
+            if (hasLeft && axisDist * axisDist < state.bestDistSquared) {
+                nearestNeighborRecursive(lo, mid, depth + 1, x, y, z, state);
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.teamgannon.trips.transits.kdtree;
+
+import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
+import com.teamgannon.trips.transits.TransitRangeDef;
+import com.teamgannon.trips.transits.TransitRoute;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Keeps the transits of the last calculation and updates them when the plotted stars
+ * change slightly, instead of recalculating every band from scratch.
+ * <p>
+ * Stars are matched by record ID. A star counts as changed when it is new, or when its
+ * name or actual coordinates differ from the previous plot; stars that only moved on
+ * screen (a recenter or rescale) keep their transits. An update then:
+ * <ul>
+ *   <li>drops the transits touching a removed or changed star</li>
+ *   <li>queries a KD-Tree over the new stars around each changed star only, bucketing
+ *       new pairs into bands the same way as the full multi-band pass</li>
+ *   <li>re-points the kept transits at the new star records so their display
+ *       positions can be patched in place</li>
+ * </ul>
+ * Updates are refused (null) when there is no previous calculation, the bands differ,
+ * star names or record IDs are not unique, or too many stars changed for an update to
+ * beat a full calculation. The caller then recalculates and records the result.
+ * <p>
+ * Not thread-safe; used from the JavaFX thread by the transit manager.
+ *
+ * @see KDTreeTransitCalculator#calculateDistancesByBand(List, List)
+ */
+@Slf4j
+public class IncrementalTransitCalculator {
+
+    /**
+     * Largest share of added, removed or changed stars still handled incrementally.
+     */
+    private static final double MAX_CHANGED_FRACTION = 0.25;
+
+    /**
+     * Bands of the recorded calculation, compared by value since definitions are edited in place.
+     */
+    private @Nullable List<BandKey> recordedBands;
+
+    /**
+     * Stars of the recorded calculation by record ID.
+     */
+    private Map<String, StarDisplayRecord> starsById = Map.of();
+
+    /**
+     * Transits of the recorded calculation per band, keyed by the record IDs of both stars.
+     */
+    private final Map<UUID, Map<String, TransitRoute>> routesByBand = new HashMap<>();
+
+    /**
+     * The changes one band needs to match the new star set.
+     *
+     * @param removed    transits to remove
+     * @param added      transits to add
+     * @param retargeted kept transits now pointing at new star records, whose display
+     *                   endpoints may have moved
+     */
+    public record BandUpdate(@NotNull List<TransitRoute> removed,
+                             @NotNull List<TransitRoute> added,
+                             @NotNull List<TransitRoute> retargeted) {
+    }
+
+    private record BandKey(UUID bandId, double lowerRange, double upperRange, double lineWidth, String color) {
+
+        static @NotNull BandKey of(@NotNull TransitRangeDef band) {
+            return new BandKey(band.getBandId(), band.getLowerRange(), band.getUpperRange(),
+                    band.getLineWidth(), band.getColor());
+        }
+    }
+
+    /**
+     * Records a full calculation as the base for later updates.
+     *
+     * @param bands        the band definitions the routes were calculated for
+     * @param starsInView  the stars the routes were calculated over
+     * @param routesByBand the calculated routes by band ID
+     */
+    public void record(@NotNull List<TransitRangeDef> bands,
+                       @NotNull List<StarDisplayRecord> starsInView,
+                       @NotNull Map<UUID, List<TransitRoute>> routesByBand) {
+        reset();
+        Map<String, StarDisplayRecord> byId = new HashMap<>(starsInView.size() * 2);
+        for (StarDisplayRecord star : starsInView) {
+            if (star.getRecordId() == null || byId.put(star.getRecordId(), star) != null) {
+                log.debug("Not recording transits for incremental updates: record IDs are not unique");
+                return;
+            }
+        }
+
+        List<TransitRangeDef> enabled = new TransitBandIndex(bands).bands();
+        for (TransitRangeDef band : enabled) {
+            Map<String, TransitRoute> routes = new HashMap<>();
+            for (TransitRoute route : routesByBand.getOrDefault(band.getBandId(), List.of())) {
+                routes.put(pairKey(route), route);
+            }
+            this.routesByBand.put(band.getBandId(), routes);
+        }
+        this.recordedBands = enabled.stream().map(BandKey::of).toList();
+        this.starsById = byId;
+    }
+
+    /**
+     * Forgets the recorded calculation.
+     */
+    public void reset() {
+        recordedBands = null;
+        starsById = Map.of();
+        routesByBand.clear();
+    }
+
+    /**
+     * Returns true if a calculation is recorded.
+     */
+    public boolean hasRecordedTransits() {
+        return recordedBands != null;
+    }
+
+    /**
+     * Updates the recorded transits to a new star set.
+     *
+     * @param bands       the band definitions, which must match the recorded ones
+     * @param starsInView the new stars
+     * @return the changes per band ID, or null if the update was refused; the recorded
+     * state is left untouched when refused
+     */
+    public @Nullable Map<UUID, BandUpdate> update(@NotNull List<TransitRangeDef> bands,
+                                                  @NotNull List<StarDisplayRecord> starsInView) {
+        TransitBandIndex bandIndex = new TransitBandIndex(bands);
+        if (recordedBands == null
+                || !recordedBands.equals(bandIndex.bands().stream().map(BandKey::of).toList())) {
+            return null;
+        }
+
+        // Match stars by record ID and find the changed ones
+        int n = starsInView.size();
+        Map<String, StarDisplayRecord> byId = new HashMap<>(n * 2);
+        Set<String> names = new HashSet<>(n * 2);
+        boolean[] changed = new boolean[n];
+        int changedCount = 0;
+        int keptCount = 0;
+        for (int i = 0; i < n; i++) {
+            StarDisplayRecord star = starsInView.get(i);
+            String id = star.getRecordId();
+            if (id == null || byId.put(id, star) != null || !names.add(star.getStarName())) {
+                log.debug("Incremental transit update refused: record IDs or star names are not unique");
+                return null;
+            }
+            StarDisplayRecord previous = starsById.get(id);
+            if (previous == null || hasChanged(previous, star)) {
+                changed[i] = true;
+                changedCount++;
+            } else {
+                keptCount++;
+            }
+        }
+        int goneCount = starsById.size() - keptCount;
+        if (changedCount + goneCount > MAX_CHANGED_FRACTION * Math.max(n, starsById.size())) {
+            log.debug("Incremental transit update refused: {} changed and {} removed of {} stars",
+                    changedCount, goneCount, n);
+            return null;
+        }
+
+        // New record of every previous star still plotted unchanged
+        Map<StarDisplayRecord, StarDisplayRecord> keptStars = new IdentityHashMap<>(starsById.size());
+        for (StarDisplayRecord previous : starsById.values()) {
+            StarDisplayRecord current = byId.get(previous.getRecordId());
+            if (current != null && !hasChanged(previous, current)) {
+                keptStars.put(previous, current);
+            }
+        }
+
+        // Drop transits touching a removed or changed star, re-point the rest
+        Map<UUID, BandUpdate> updates = new LinkedHashMap<>();
+        for (int b = 0; b < bandIndex.size(); b++) {
+            UUID bandId = bandIndex.band(b).getBandId();
+            BandUpdate update = new BandUpdate(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+            Iterator<TransitRoute> routes = routesByBand.get(bandId).values().iterator();
+            while (routes.hasNext()) {
+                TransitRoute route = routes.next();
+                StarDisplayRecord source = keptStars.get(route.getSource());
+                StarDisplayRecord target = keptStars.get(route.getTarget());
+                if (source == null || target == null) {
+                    routes.remove();
+                    update.removed().add(route);
+                } else if (source != route.getSource() || target != route.getTarget()) {
+                    route.setSource(source);
+                    route.setTarget(target);
+                    update.retargeted().add(route);
+                }
+            }
+            updates.put(bandId, update);
+        }
+
+        // Find the transits of the changed stars
+        if (changedCount > 0 && bandIndex.size() > 0) {
+            FlatKDTree3D tree = FlatKDTree3D.of(starsInView, StarDisplayRecord::getActualCoordinates);
+            double maxRange = bandIndex.maxUpperRange();
+            for (int i = 0; i < n; i++) {
+                if (!changed[i]) {
+                    continue;
+                }
+                int sourceIndex = i;
+                tree.rangeSearch(i, maxRange, (neighborIndex, distSquared) -> {
+                    if (neighborIndex == sourceIndex) return;
+                    // Pairs of two changed stars are found from both ends; keep one
+                    if (changed[neighborIndex] && neighborIndex < sourceIndex) return;
+
+                    double distance = Math.sqrt(distSquared);
+                    for (int band : bandIndex.bandsAt(distance)) {
+                        TransitRangeDef rangeDef = bandIndex.band(band);
+                        TransitRoute route = KDTreeTransitCalculator.createRoute(
+                                starsInView.get(Math.min(sourceIndex, neighborIndex)),
+                                starsInView.get(Math.max(sourceIndex, neighborIndex)),
+                                distance, rangeDef);
+                        routesByBand.get(rangeDef.getBandId()).put(pairKey(route), route);
+                        updates.get(rangeDef.getBandId()).added().add(route);
+                    }
+                });
+            }
+        }
+
+        starsById = byId;
+        log.debug("Incremental transit update: {} changed and {} removed of {} stars",
+                changedCount, goneCount, n);
+        return updates;
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    private static boolean hasChanged(@NotNull StarDisplayRecord previous, @NotNull StarDisplayRecord current) {
+        return !Objects.equals(previous.getStarName(), current.getStarName())
+                || !Arrays.equals(previous.getActualCoordinates(), current.getActualCoordinates());
+    }
+
+    private static @NotNull String pairKey(@NotNull TransitRoute route) {
+        String a = route.getSource().getRecordId();
+        String b = route.getTarget().getRecordId();
+        return a.compareTo(b) < 0 ? a + "|" + b : b + "|" + a;
+    }
+}
@@ -9,10 +9,11 @@ import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.SimpleWeightedGraph;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Builds JGraphT weighted graphs using KD-Tree spatial indexing for efficient edge discovery.
@@ -34,7 +35,7 @@ import java.util.stream.Collectors;
  * // Use with YenKShortestPath or ConnectivityInspector
  * }</pre>
  *
- * @see KDTree3D
+ * @see FlatKDTree3D
  * @see com.teamgannon.trips.routing.automation.RouteGraph
  */
 @Slf4j
@@ -150,7 +151,7 @@ public class KDTreeGraphBuilder {
 
         // Build KD-Tree - O(n log n)
         long startBuild = System.nanoTime();
-        KDTree3D<T> tree = buildTree(stars, coordsExtractor);
+        FlatKDTree3D tree = FlatKDTree3D.of(stars, coordsExtractor);
         long buildTime = System.nanoTime() - startBuild;
         log.debug("KD-Tree built in {:.2f} ms", buildTime / 1_000_000.0);
 
@@ -158,9 +159,9 @@ public class KDTreeGraphBuilder {
         long startGraph = System.nanoTime();
         Graph<String, DefaultEdge> graph;
         if (enableParallel && stars.size() >= PARALLEL_THRESHOLD) {
-            graph = buildGraphParallel(tree, stars, nameExtractor, coordsExtractor, lowerBound, upperBound);
+            graph = buildGraphParallel(tree, stars, nameExtractor, lowerBound, upperBound);
         } else {
-            graph = buildGraphSequential(tree, stars, nameExtractor, coordsExtractor, lowerBound, upperBound);
+            graph = buildGraphSequential(tree, stars, nameExtractor, lowerBound, upperBound);
         }
         long graphTime = System.nanoTime() - startGraph;
 
@@ -176,26 +177,15 @@ public class KDTreeGraphBuilder {
     // Private Implementation
     // =========================================================================
 
-    private <T> @NotNull KDTree3D<T> buildTree(
-            @NotNull List<T> stars,
-            @NotNull Function<T, double[]> coordsExtractor) {
-
-        List<KDPoint<T>> points = stars.stream()
-                .map(star -> new KDPoint<>(coordsExtractor.apply(star), star))
-                .collect(Collectors.toList());
-        return new KDTree3D<>(points);
-    }
-
     private <T> @NotNull Graph<String, DefaultEdge> buildGraphSequential(
-            @NotNull KDTree3D<T> tree,
+            @NotNull FlatKDTree3D tree,
             @NotNull List<T> stars,
             @NotNull Function<T, String> nameExtractor,
-            @NotNull Function<T, double[]> coordsExtractor,
             double lowerBound,
             double upperBound) {
 
         Graph<String, DefaultEdge> graph = new SimpleWeightedGraph<>(DefaultEdge.class);
-        Set<String> seen = StarPairKey.createTrackingSet();
+        StarPairFilter pairs = StarPairFilter.of(stars, nameExtractor);
 
         // Add all vertices first
         for (T star : stars) {
@@ -203,43 +193,26 @@ public class KDTreeGraphBuilder {
         }
 
         // Find and add edges
-        for (T star : stars) {
-            String sourceName = nameExtractor.apply(star);
-            double[] sourceCoords = coordsExtractor.apply(star);
-
-            List<KDPoint<T>> neighbors = tree.rangeSearch(sourceCoords, upperBound);
-
-            for (KDPoint<T> neighbor : neighbors) {
-                T target = neighbor.data();
-                if (star == target) continue;
-
-                String targetName = nameExtractor.apply(target);
-
-                // Skip if already processed this pair
-                if (!StarPairKey.addIfAbsent(seen, sourceName, targetName)) {
-                    continue;
-                }
-
-                double distance = neighbor.distanceTo(sourceCoords);
-                if (distance > lowerBound) {
-                    addEdge(graph, sourceName, targetName, distance);
-                }
-            }
+        List<EdgeData> edges = new ArrayList<>();
+        for (int i = 0; i < stars.size(); i++) {
+            collectEdges(tree, stars, nameExtractor, i, lowerBound, upperBound, pairs, edges);
+        }
+        for (EdgeData edge : edges) {
+            addEdge(graph, edge.source, edge.target, edge.distance);
         }
 
         return graph;
     }
 
     private <T> @NotNull Graph<String, DefaultEdge> buildGraphParallel(
-            @NotNull KDTree3D<T> tree,
+            @NotNull FlatKDTree3D tree,
             @NotNull List<T> stars,
             @NotNull Function<T, String> nameExtractor,
-            @NotNull Function<T, double[]> coordsExtractor,
             double lowerBound,
             double upperBound) {
 
         Graph<String, DefaultEdge> graph = new SimpleWeightedGraph<>(DefaultEdge.class);
-        Set<String> seen = StarPairKey.createTrackingSet();
+        StarPairFilter pairs = StarPairFilter.of(stars, nameExtractor);
 
         // Add all vertices first (sequential - graph not thread-safe for vertex addition)
         for (T star : stars) {
@@ -247,29 +220,14 @@ public class KDTreeGraphBuilder {
         }
 
         // Collect edges in parallel
-        List<EdgeData> edges = stars.parallelStream()
-                .flatMap(star -> {
-                    String sourceName = nameExtractor.apply(star);
-                    double[] sourceCoords = coordsExtractor.apply(star);
-
-                    List<KDPoint<T>> neighbors = tree.rangeSearch(sourceCoords, upperBound);
-
-                    return neighbors.stream()
-                            .filter(neighbor -> neighbor.data() != star)
-                            .filter(neighbor -> {
-                                String targetName = nameExtractor.apply(neighbor.data());
-                                return StarPairKey.addIfAbsent(seen, sourceName, targetName);
-                            })
-                            .map(neighbor -> {
-                                String targetName = nameExtractor.apply(neighbor.data());
-                                double distance = neighbor.distanceTo(sourceCoords);
-                                if (distance > lowerBound) {
-                                    return new EdgeData(sourceName, targetName, distance);
-                                }
-                                return null;
-                            })
-                            .filter(edge -> edge != null);
+        List<EdgeData> edges = IntStream.range(0, stars.size())
+                .parallel()
+                .mapToObj(i -> {
+                    List<EdgeData> local = new ArrayList<>();
+                    collectEdges(tree, stars, nameExtractor, i, lowerBound, upperBound, pairs, local);
+                    return local;
                 })
+                .flatMap(List::stream)
                 .collect(Collectors.toList());
 
         // Add edges sequentially (graph not thread-safe for edge addition)
@@ -280,6 +238,33 @@ public class KDTreeGraphBuilder {
         return graph;
     }
 
+    /**
+     * Collects the edges from one star to its not-yet-seen neighbors within range.
+     */
+    private <T> void collectEdges(@NotNull FlatKDTree3D tree,
+                                  @NotNull List<T> stars,
+                                  @NotNull Function<T, String> nameExtractor,
+                                  int sourceIndex,
+                                  double lowerBound,
+                                  double upperBound,
+                                  @NotNull StarPairFilter pairs,
+                                  @NotNull List<EdgeData> edges) {
+        String sourceName = nameExtractor.apply(stars.get(sourceIndex));
+
+        tree.rangeSearch(sourceIndex, upperBound, (neighborIndex, distSquared) -> {
+            if (neighborIndex == sourceIndex) return;
+
+            // Skip if already processed this pair, and same-named stars (one vertex, no loops)
+            if (!pairs.accept(sourceIndex, neighborIndex)) return;
+            if (pairs.sameName(sourceIndex, neighborIndex)) return;
+
+            double distance = Math.sqrt(distSquared);
+            if (distance > lowerBound) {
+                edges.add(new EdgeData(sourceName, nameExtractor.apply(stars.get(neighborIndex)), distance));
+            }
+        });
+    }
+
     private void addEdge(@NotNull Graph<String, DefaultEdge> graph,
                          @NotNull String source,
                          @NotNull String target,
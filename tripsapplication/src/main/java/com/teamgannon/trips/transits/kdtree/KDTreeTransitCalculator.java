@@ -2,16 +2,27 @@ package com.teamgannon.trips.transits.kdtree;
 
 import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
 import com.teamgannon.trips.measure.TrackExecutionTime;
+import com.teamgannon.trips.routing.TransitGraphCache;
+import com.teamgannon.trips.routing.automation.CompactRouteGraph;
 import com.teamgannon.trips.transits.ITransitDistanceCalculator;
 import com.teamgannon.trips.transits.TransitRangeDef;
 import com.teamgannon.trips.transits.TransitRoute;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * High-performance transit calculator using KD-Tree spatial indexing with parallel queries.
@@ -26,7 +37,7 @@ import java.util.stream.Collectors;
  * For small counts (< 100 stars), the overhead may not be worth it.
  *
  * @see ITransitDistanceCalculator
- * @see KDTree3D
+ * @see FlatKDTree3D
  */
 @Slf4j
 public class KDTreeTransitCalculator implements ITransitDistanceCalculator {
@@ -37,11 +48,21 @@ public class KDTreeTransitCalculator implements ITransitDistanceCalculator {
      */
     private static final int PARALLEL_THRESHOLD = 500;
 
+    /**
+     * Number of progress reports over a multi-band pass.
+     */
+    private static final int PROGRESS_INTERVALS = 50;
+
     /**
      * Whether to use parallel processing for large datasets.
      */
     private final boolean enableParallel;
 
+    /**
+     * Persistent transit graph cache, or null to always query the tree.
+     */
+    private final @Nullable TransitGraphCache transitGraphCache;
+
     /**
      * Creates a calculator with parallel processing enabled.
      */
@@ -55,7 +76,20 @@ public class KDTreeTransitCalculator implements ITransitDistanceCalculator {
      * @param enableParallel true to enable parallel processing for large datasets
      */
     public KDTreeTransitCalculator(boolean enableParallel) {
+        this(enableParallel, null);
+    }
+
+    /**
+     * Creates a calculator that reuses cached transit graphs. Single-band requests always
+     * go through the cache; multi-band passes do once the stars are numerous enough to be
+     * stored ({@link TransitGraphCache#MIN_CACHED_STARS}).
+     *
+     * @param enableParallel    true to enable parallel processing for large datasets
+     * @param transitGraphCache the transit graph cache, or null to always query the tree
+     */
+    public KDTreeTransitCalculator(boolean enableParallel, @Nullable TransitGraphCache transitGraphCache) {
         this.enableParallel = enableParallel;
+        this.transitGraphCache = transitGraphCache;
     }
 
     @Override
@@ -71,9 +105,17 @@ public class KDTreeTransitCalculator implements ITransitDistanceCalculator {
                 transitRangeDef.getLowerRange(),
                 transitRangeDef.getUpperRange());
 
+        String dataSetName = starsInView.get(0).getDataSetName();
+        if (transitGraphCache != null && dataSetName != null && !dataSetName.isBlank()) {
+            return transitsFromGraph(transitGraphCache.getOrBuild(dataSetName, starsInView,
+                    StarDisplayRecord::getStarName, StarDisplayRecord::getActualCoordinates,
+                    transitRangeDef.getLowerRange(), transitRangeDef.getUpperRange()),
+                    starsInView, transitRangeDef);
+        }
+
         // Build KD-Tree - O(n log n)
         long startBuild = System.nanoTime();
-        KDTree3D<StarDisplayRecord> tree = buildTree(starsInView);
+        FlatKDTree3D tree = buildTree(starsInView);
         long buildTime = System.nanoTime() - startBuild;
         log.debug("KD-Tree built in {} ms", buildTime / 1_000_000.0);
 
@@ -93,139 +135,288 @@ public class KDTreeTransitCalculator implements ITransitDistanceCalculator {
     }
 
     /**
-     * Calculates transits for multiple bands efficiently by reusing the KD-Tree.
+     * Calculates transits for multiple bands in one pass, returning all routes in one list.
      *
      * @param bands       the transit band definitions
      * @param starsInView the stars to check
-     * @return map of band ID to transit routes
+     * @return the routes of all enabled bands
+     * @see #calculateDistancesByBand(List, List)
      */
     @TrackExecutionTime
     public @NotNull List<TransitRoute> calculateDistancesMultiBand(
             @NotNull List<TransitRangeDef> bands,
             @NotNull List<StarDisplayRecord> starsInView) {
 
-        if (starsInView.isEmpty() || bands.isEmpty()) {
-            return List.of();
-        }
+        return calculateDistancesByBand(bands, starsInView).values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
 
-        // Find maximum range across all enabled bands
-        double maxRange = bands.stream()
-                .filter(TransitRangeDef::isEnabled)
-                .mapToDouble(TransitRangeDef::getUpperRange)
-                .max()
-                .orElse(0);
+    /**
+     * Calculates transits for all enabled bands in a single pass over one KD-Tree.
+     * <p>
+     * Each star is queried once at the largest upper range and every neighbor pair is
+     * bucketed straight into its band by binary search over the sorted band bounds, so
+     * several bands cost about as much as the widest one. Large star sets are split across
+     * the common fork-join pool; each worker fills its own per-band lists, which are
+     * concatenated when workers join, so no locks are taken on the results.
+     * <p>
+     * A band gets the same routes as {@link #calculateDistances} would return for it alone
+     * (lower range exclusive, upper range inclusive), overlapping bands included.
+     * <p>
+     * With a transit graph cache, large star sets of a dataset are instead bucketed from the
+     * cached graph spanning all the bands, so the pass is a file read once the band set has
+     * been graphed.
+     *
+     * @param bands       the transit band definitions
+     * @param starsInView the stars to check
+     * @return map of band ID to transit routes, one entry per enabled band
+     */
+    @TrackExecutionTime
+    public @NotNull Map<UUID, List<TransitRoute>> calculateDistancesByBand(
+            @NotNull List<TransitRangeDef> bands,
+            @NotNull List<StarDisplayRecord> starsInView) {
+        return calculateDistancesByBand(bands, starsInView, () -> false, processed -> { });
+    }
 
-        if (maxRange <= 0) {
-            return List.of();
+    /**
+     * Calculates transits for all enabled bands in a single pass, reporting progress.
+     *
+     * @param bands       the transit band definitions
+     * @param starsInView the stars to check
+     * @param cancelled   polled per star; once true the remaining stars are skipped
+     * @param progress    receives the number of stars processed so far, about 50 times per
+     *                    pass and possibly from worker threads
+     * @return map of band ID to transit routes, one entry per enabled band
+     * @throws CancellationException if stars were skipped, so a cancelled pass is never
+     *                               mistaken for one that found no transits
+     * @see #calculateDistancesByBand(List, List)
+     */
+    public @NotNull Map<UUID, List<TransitRoute>> calculateDistancesByBand(
+            @NotNull List<TransitRangeDef> bands,
+            @NotNull List<StarDisplayRecord> starsInView,
+            @NotNull BooleanSupplier cancelled,
+            @NotNull IntConsumer progress) {
+
+        TransitBandIndex bandIndex = new TransitBandIndex(bands);
+        Map<UUID, List<TransitRoute>> routesByBand = new LinkedHashMap<>();
+        if (bandIndex.size() == 0 || starsInView.isEmpty()) {
+            for (TransitRangeDef band : bandIndex.bands()) {
+                routesByBand.put(band.getBandId(), new ArrayList<>());
+            }
+            return routesByBand;
         }
 
-        // Build ONE tree for all bands
-        KDTree3D<StarDisplayRecord> tree = buildTree(starsInView);
-
-        // Find all pairs within max range, then filter by band
-        Set<String> seen = StarPairKey.createTrackingSet();
-        List<TransitRoute> allRoutes = new ArrayList<>();
-
-        for (StarDisplayRecord star : starsInView) {
-            double[] coords = star.getActualCoordinates();
-            List<KDPoint<StarDisplayRecord>> neighbors = tree.rangeSearch(coords, maxRange);
-
-            for (KDPoint<StarDisplayRecord> neighbor : neighbors) {
-                StarDisplayRecord target = neighbor.data();
-                if (star == target) continue;
-
-                if (!StarPairKey.addIfAbsent(seen, star.getStarName(), target.getStarName())) continue;
-
-                double distance = neighbor.distanceTo(coords);
+        String dataSetName = starsInView.get(0).getDataSetName();
+        if (transitGraphCache != null && dataSetName != null && !dataSetName.isBlank()
+                && starsInView.size() >= TransitGraphCache.MIN_CACHED_STARS && !cancelled.getAsBoolean()) {
+            BandRoutes routes = bandTransitsFromGraph(transitGraphCache.getOrBuild(dataSetName, starsInView,
+                    StarDisplayRecord::getStarName, StarDisplayRecord::getActualCoordinates,
+                    bandIndex.minLowerRange(), bandIndex.maxUpperRange()),
+                    starsInView, bandIndex);
+            progress.accept(starsInView.size());
+            for (int b = 0; b < bandIndex.size(); b++) {
+                routesByBand.put(bandIndex.band(b).getBandId(), routes.byBand[b]);
+            }
+            return routesByBand;
+        }
 
-                // Find which band this distance belongs to
-                for (TransitRangeDef band : bands) {
-                    if (!band.isEnabled()) continue;
-                    if (distance > band.getLowerRange() && distance < band.getUpperRange()) {
-                        allRoutes.add(createRoute(star, target, distance, band));
-                        break; // Only add to first matching band
+        FlatKDTree3D tree = buildTree(starsInView);
+        StarPairFilter[] pairsByBand = new StarPairFilter[bandIndex.size()];
+        pairsByBand[0] = StarPairFilter.of(starsInView, StarDisplayRecord::getStarName);
+        for (int b = 1; b < pairsByBand.length; b++) {
+            pairsByBand[b] = pairsByBand[0].withNoPairsSeen();
+        }
+        double maxRange = bandIndex.maxUpperRange();
+        int starCount = starsInView.size();
+        int reportInterval = Math.max(1, starCount / PROGRESS_INTERVALS);
+        AtomicInteger processed = new AtomicInteger();
+        AtomicBoolean skipped = new AtomicBoolean();
+
+        IntStream sources = IntStream.range(0, starCount);
+        if (enableParallel && starCount >= PARALLEL_THRESHOLD) {
+            sources = sources.parallel();
+        }
+        BandRoutes routes = sources.collect(
+                () -> new BandRoutes(bandIndex.size()),
+                (local, sourceIndex) -> {
+                    if (cancelled.getAsBoolean()) {
+                        skipped.set(true);
+                        return;
                     }
-                }
-            }
+                    collectBandTransits(tree, starsInView, sourceIndex, maxRange, bandIndex, pairsByBand, local);
+                    int done = processed.incrementAndGet();
+                    if (done % reportInterval == 0) {
+                        progress.accept(done);
+                    }
+                },
+                BandRoutes::addAll);
+        if (skipped.get()) {
+            throw new CancellationException("transit calculation cancelled");
         }
 
-        return allRoutes;
+        for (int b = 0; b < bandIndex.size(); b++) {
+            routesByBand.put(bandIndex.band(b).getBandId(), routes.byBand[b]);
+        }
+        return routesByBand;
     }
 
     // =========================================================================
     // Private Implementation
     // =========================================================================
 
-    private @NotNull KDTree3D<StarDisplayRecord> buildTree(@NotNull List<StarDisplayRecord> stars) {
-        List<KDPoint<StarDisplayRecord>> points = stars.stream()
-                .map(star -> new KDPoint<>(star.getActualCoordinates(), star))
-                .collect(Collectors.toList());
-        return new KDTree3D<>(points);
+    private @NotNull FlatKDTree3D buildTree(@NotNull List<StarDisplayRecord> stars) {
+        return FlatKDTree3D.of(stars, StarDisplayRecord::getActualCoordinates);
     }
 
     private @NotNull List<TransitRoute> findTransitsSequential(
-            @NotNull KDTree3D<StarDisplayRecord> tree,
+            @NotNull FlatKDTree3D tree,
             @NotNull List<StarDisplayRecord> stars,
             @NotNull TransitRangeDef rangeDef) {
 
-        Set<String> seen = StarPairKey.createTrackingSet();
+        StarPairFilter pairs = StarPairFilter.of(stars, StarDisplayRecord::getStarName);
         List<TransitRoute> routes = new ArrayList<>();
-        double upperRange = rangeDef.getUpperRange();
+        for (int i = 0; i < stars.size(); i++) {
+            collectTransits(tree, stars, i, rangeDef, pairs, routes);
+        }
+        return routes;
+    }
+
+    private @NotNull List<TransitRoute> findTransitsParallel(
+            @NotNull FlatKDTree3D tree,
+            @NotNull List<StarDisplayRecord> stars,
+            @NotNull TransitRangeDef rangeDef) {
+
+        StarPairFilter pairs = StarPairFilter.of(stars, StarDisplayRecord::getStarName);
+
+        return IntStream.range(0, stars.size())
+                .parallel()
+                .mapToObj(i -> {
+                    List<TransitRoute> local = new ArrayList<>();
+                    collectTransits(tree, stars, i, rangeDef, pairs, local);
+                    return local;
+                })
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Adds the transits from one star to its not-yet-seen neighbors within the band.
+     * Stars sharing a name are one transit graph vertex, so pairs of them are skipped,
+     * as the cached graph path does.
+     */
+    private void collectTransits(@NotNull FlatKDTree3D tree,
+                                 @NotNull List<StarDisplayRecord> stars,
+                                 int sourceIndex,
+                                 @NotNull TransitRangeDef rangeDef,
+                                 @NotNull StarPairFilter pairs,
+                                 @NotNull List<TransitRoute> routes) {
+        StarDisplayRecord star = stars.get(sourceIndex);
         double lowerRange = rangeDef.getLowerRange();
 
-        for (StarDisplayRecord star : stars) {
-            double[] coords = star.getActualCoordinates();
-            List<KDPoint<StarDisplayRecord>> neighbors = tree.rangeSearch(coords, upperRange);
+        tree.rangeSearch(sourceIndex, rangeDef.getUpperRange(), (neighborIndex, distSquared) -> {
+            if (neighborIndex == sourceIndex) return;
+            if (pairs.sameName(sourceIndex, neighborIndex)) return;
+            if (!pairs.accept(sourceIndex, neighborIndex)) return;
 
-            for (KDPoint<StarDisplayRecord> neighbor : neighbors) {
-                StarDisplayRecord target = neighbor.data();
-                if (star == target) continue;
+            double distance = Math.sqrt(distSquared);
+            if (distance > lowerRange) {
+                routes.add(createRoute(star, stars.get(neighborIndex), distance, rangeDef));
+            }
+        });
+    }
 
-                if (!StarPairKey.addIfAbsent(seen, star.getStarName(), target.getStarName())) continue;
+    /**
+     * Adds the transits from one star to its neighbors, each to the bands whose range
+     * contains the distance. Pairs are de-duplicated per band, as separate single-band
+     * passes would, so a name shared by several stars still gets one route per band.
+     * Pairs of stars sharing a name are skipped.
+     */
+    private void collectBandTransits(@NotNull FlatKDTree3D tree,
+                                     @NotNull List<StarDisplayRecord> stars,
+                                     int sourceIndex,
+                                     double maxRange,
+                                     @NotNull TransitBandIndex bandIndex,
+                                     @NotNull StarPairFilter[] pairsByBand,
+                                     @NotNull BandRoutes routes) {
+        StarDisplayRecord star = stars.get(sourceIndex);
+
+        tree.rangeSearch(sourceIndex, maxRange, (neighborIndex, distSquared) -> {
+            if (neighborIndex == sourceIndex) return;
+            if (pairsByBand[0].sameName(sourceIndex, neighborIndex)) return;
+
+            double distance = Math.sqrt(distSquared);
+            for (int band : bandIndex.bandsAt(distance)) {
+                if (pairsByBand[band].accept(sourceIndex, neighborIndex)) {
+                    routes.byBand[band].add(createRoute(star, stars.get(neighborIndex), distance, bandIndex.band(band)));
+                }
+            }
+        });
+    }
 
-                double distance = neighbor.distanceTo(coords);
-                if (distance > lowerRange) {
-                    routes.add(createRoute(star, target, distance, rangeDef));
+    /**
+     * Converts each edge of a transit graph built over the stars into a route.
+     * Stars sharing a name are one graph vertex, represented by the first of them,
+     * the same pairs that name based de-duplication keeps.
+     */
+    private @NotNull List<TransitRoute> transitsFromGraph(@NotNull CompactRouteGraph graph,
+                                                          @NotNull List<StarDisplayRecord> stars,
+                                                          @NotNull TransitRangeDef rangeDef) {
+        StarDisplayRecord[] byVertex = starsByVertex(graph, stars);
+        List<TransitRoute> routes = new ArrayList<>(graph.getEdgeCount());
+        for (int v = 0; v < byVertex.length; v++) {
+            for (int e = graph.edgeStart(v), end = graph.edgeEnd(v); e < end; e++) {
+                int w = graph.edgeTarget(e);
+                if (w > v) {
+                    routes.add(createRoute(byVertex[v], byVertex[w], graph.edgeWeight(e), rangeDef));
                 }
             }
         }
-
         return routes;
     }
 
-    private @NotNull List<TransitRoute> findTransitsParallel(
-            @NotNull KDTree3D<StarDisplayRecord> tree,
-            @NotNull List<StarDisplayRecord> stars,
-            @NotNull TransitRangeDef rangeDef) {
-
-        Set<String> seen = StarPairKey.createTrackingSet();
-        double upperRange = rangeDef.getUpperRange();
-        double lowerRange = rangeDef.getLowerRange();
+    /**
+     * Converts each edge of a transit graph spanning all the bands into a route of every
+     * band whose range contains its length.
+     */
+    private @NotNull BandRoutes bandTransitsFromGraph(@NotNull CompactRouteGraph graph,
+                                                      @NotNull List<StarDisplayRecord> stars,
+                                                      @NotNull TransitBandIndex bandIndex) {
+        StarDisplayRecord[] byVertex = starsByVertex(graph, stars);
+        BandRoutes routes = new BandRoutes(bandIndex.size());
+        for (int v = 0; v < byVertex.length; v++) {
+            for (int e = graph.edgeStart(v), end = graph.edgeEnd(v); e < end; e++) {
+                int w = graph.edgeTarget(e);
+                if (w > v) {
+                    double distance = graph.edgeWeight(e);
+                    for (int band : bandIndex.bandsAt(distance)) {
+                        routes.byBand[band].add(createRoute(byVertex[v], byVertex[w], distance, bandIndex.band(band)));
+                    }
+                }
+            }
+        }
+        return routes;
+    }
 
-        return stars.parallelStream()
-                .flatMap(star -> {
-                    double[] coords = star.getActualCoordinates();
-                    List<KDPoint<StarDisplayRecord>> neighbors = tree.rangeSearch(coords, upperRange);
-
-                    return neighbors.stream()
-                            .filter(neighbor -> neighbor.data() != star)
-                            .filter(neighbor -> StarPairKey.addIfAbsent(seen, star.getStarName(), neighbor.data().getStarName()))
-                            .map(neighbor -> {
-                                double distance = neighbor.distanceTo(coords);
-                                if (distance > lowerRange) {
-                                    return createRoute(star, neighbor.data(), distance, rangeDef);
-                                }
-                                return null;
-                            })
-                            .filter(route -> route != null);
-                })
-                .collect(Collectors.toList());
+    /**
+     * Returns the star representing each graph vertex, the first star with its name.
+     */
+    private static StarDisplayRecord @NotNull [] starsByVertex(@NotNull CompactRouteGraph graph,
+                                                               @NotNull List<StarDisplayRecord> stars) {
+        StarDisplayRecord[] byVertex = new StarDisplayRecord[graph.getVertexCount()];
+        for (StarDisplayRecord star : stars) {
+            int vertex = graph.indexOf(star.getStarName());
+            if (byVertex[vertex] == null) {
+                byVertex[vertex] = star;
+            }
+        }
+        return byVertex;
     }
 
-    private @NotNull TransitRoute createRoute(@NotNull StarDisplayRecord source,
-                                               @NotNull StarDisplayRecord target,
-                                               double distance,
-                                               @NotNull TransitRangeDef rangeDef) {
+    static @NotNull TransitRoute createRoute(@NotNull StarDisplayRecord source,
+                                             @NotNull StarDisplayRecord target,
+                                             double distance,
+                                             @NotNull TransitRangeDef rangeDef) {
         return TransitRoute.builder()
                 .good(true)
                 .source(source)
@@ -235,4 +426,30 @@ public class KDTreeTransitCalculator implements ITransitDistanceCalculator {
                 .color(rangeDef.getBandColor())
                 .build();
     }
+
+    // =========================================================================
+    // Band Routes
+    // =========================================================================
+
+    /**
+     * Per-band route lists filled by one worker of the multi-band pass.
+     */
+    private static final class BandRoutes {
+
+        private final List<TransitRoute>[] byBand;
+
+        @SuppressWarnings("unchecked")
+        BandRoutes(int bandCount) {
+            byBand = new List[bandCount];
+            for (int b = 0; b < bandCount; b++) {
+                byBand[b] = new ArrayList<>();
+            }
+        }
+
+        void addAll(@NotNull BandRoutes other) {
+            for (int b = 0; b < byBand.length; b++) {
+                byBand[b].addAll(other.byBand[b]);
+            }
+        }
+    }
 }
@@ -0,0 +1,183 @@
+package com.teamgannon.trips.transits.kdtree;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Allocation-free de-duplication of the star pairs found by a symmetric range search.
+ * <p>
+ * A KD-tree pass visits every pair twice, once from each end. Each star gets a dense
+ * index when the filter is created, so the pass keeps a pair by comparing indices
+ * instead of building a {@link StarPairKey} string for every candidate neighbor:
+ * <ul>
+ *   <li>Pairs of stars with unique names are kept only from the lower star index,
+ *       which needs no shared state at all</li>
+ *   <li>Pairs involving a name carried by more than one star are keyed by the two
+ *       dense name indices packed into a {@code long} and tracked in a primitive
+ *       open-addressing set, so they are kept once per name pair exactly as the
+ *       string keys did</li>
+ * </ul>
+ * <p>
+ * Thread-safe for concurrent use; only the rare shared-name pairs synchronize.
+ *
+ * @see KDTreeTransitCalculator
+ * @see KDTreeGraphBuilder
+ */
+public final class StarPairFilter {
+
+    /**
+     * Dense name index of each star.
+     */
+    private final int[] nameIndex;
+
+    /**
+     * Whether each star's name is carried by another star in the pass.
+     */
+    private final boolean[] sharedName;
+
+    /**
+     * Seen shared-name pairs, allocated only when the pass has duplicate names.
+     */
+    private final LongHashSet seen;
+
+    private StarPairFilter(int[] nameIndex, boolean[] sharedName, boolean anyShared) {
+        this.nameIndex = nameIndex;
+        this.sharedName = sharedName;
+        this.seen = anyShared ? new LongHashSet() : null;
+    }
+
+    /**
+     * Creates a filter for one pass over the stars.
+     *
+     * @param stars         the stars, in the order the KD-tree indexes them
+     * @param nameExtractor function to extract the star name
+     * @param <T>           the star record type
+     * @return the filter
+     */
+    public static <T> @NotNull StarPairFilter of(@NotNull List<T> stars,
+                                                 @NotNull Function<T, String> nameExtractor) {
+        int n = stars.size();
+        int[] nameIndex = new int[n];
+        boolean[] sharedName = new boolean[n];
+        int[] firstStar = new int[n];
+        Map<String, Integer> byName = new HashMap<>(Math.max(16, n * 2));
+        boolean anyShared = false;
+
+        for (int i = 0; i < n; i++) {
+            Integer existing = byName.putIfAbsent(nameExtractor.apply(stars.get(i)), byName.size());
+            if (existing == null) {
+                int index = byName.size() - 1;
+                nameIndex[i] = index;
+                firstStar[index] = i;
+            } else {
+                nameIndex[i] = existing;
+                sharedName[i] = true;
+                sharedName[firstStar[existing]] = true;
+                anyShared = true;
+            }
+        }
+        return new StarPairFilter(nameIndex, sharedName, anyShared);
+    }
+
+    /**
+     * Returns true the first time the pair of stars is offered, in either order.
+     *
+     * @param sourceIndex the index of the star being searched from
+     * @param targetIndex the index of the neighbor found
+     * @return true if the pair should be emitted
+     */
+    public boolean accept(int sourceIndex, int targetIndex) {
+        if (!sharedName[sourceIndex] && !sharedName[targetIndex]) {
+            return sourceIndex < targetIndex;
+        }
+        int a = nameIndex[sourceIndex];
+        int b = nameIndex[targetIndex];
+        long key = a < b
+                ? ((long) a << 32) | b
+                : ((long) b << 32) | a;
+        synchronized (seen) {
+            return seen.add(key);
+        }
+    }
+
+    /**
+     * Returns a filter over the same stars that has not seen any pair yet.
+     * The name indices are shared, so this is cheap enough to create one filter per
+     * transit band when a single pass de-duplicates several bands independently.
+     */
+    public @NotNull StarPairFilter withNoPairsSeen() {
+        return new StarPairFilter(nameIndex, sharedName, seen != null);
+    }
+
+    /**
+     * Returns true if both stars carry the same name, i.e. the pair is one graph vertex.
+     */
+    public boolean sameName(int sourceIndex, int targetIndex) {
+        return nameIndex[sourceIndex] == nameIndex[targetIndex];
+    }
+
+    // =========================================================================
+    // Primitive Set
+    // =========================================================================
+
+    /**
+     * Linear-probing set of non-negative long keys.
+     */
+    private static final class LongHashSet {
+
+        private static final long EMPTY = -1L;
+
+        private long[] keys = newTable(64);
+        private int size;
+
+        boolean add(long key) {
+            if ((size + 1) * 2 > keys.length) {
+                rehash();
+            }
+            if (insert(keys, key)) {
+                size++;
+                return true;
+            }
+            return false;
+        }
+
+        private static boolean insert(long[] table, long key) {
+            int mask = table.length - 1;
+            int slot = mix(key) & mask;
+            while (table[slot] != EMPTY) {
+                if (table[slot] == key) {
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = key;
+            return true;
+        }
+
+        private void rehash() {
+            long[] table = newTable(keys.length * 2);
+            for (long key : keys) {
+                if (key != EMPTY) {
+                    insert(table, key);
+                }
+            }
+            keys = table;
+        }
+
+        private static long[] newTable(int capacity) {
+            long[] table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -12,9 +12,11 @@ import java.util.concurrent.ConcurrentHashMap;
  * enabling efficient deduplication of bidirectional relationships.
  * <p>
  * Thread-safe for concurrent use.
+ * <p>
+ * The KD-tree transit passes use the allocation-free {@link StarPairFilter} instead;
+ * this class remains for callers that only have star names.
  *
- * @see KDTreeTransitCalculator
- * @see KDTreeGraphBuilder
+ * @see StarPairFilter
  */
 public final class StarPairKey {
 
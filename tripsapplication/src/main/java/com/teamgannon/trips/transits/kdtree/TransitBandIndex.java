@@ -0,0 +1,94 @@
+package com.teamgannon.trips.transits.kdtree;
+
+import com.teamgannon.trips.transits.TransitRangeDef;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * Maps a distance to the enabled transit bands containing it.
+ * <p>
+ * All band bounds are sorted into one array, splitting the distance axis into
+ * intervals (bound[k], bound[k + 1]]; each interval stores the bands covering it.
+ * A lookup is one binary search. Bands validated by the transit dialog do not
+ * overlap, so an interval normally holds at most one band.
+ *
+ * @see KDTreeTransitCalculator
+ * @see IncrementalTransitCalculator
+ */
+final class TransitBandIndex {
+
+    private static final int[] NO_BANDS = new int[0];
+
+    private final TransitRangeDef[] bands;
+    private final double[] bounds;
+    private final int[][] bandsByInterval;
+
+    /**
+     * Indexes the enabled bands with a non-empty range.
+     *
+     * @param definitions the transit band definitions
+     */
+    TransitBandIndex(@NotNull List<TransitRangeDef> definitions) {
+        this.bands = definitions.stream()
+                .filter(TransitRangeDef::isEnabled)
+                .filter(band -> band.getUpperRange() > band.getLowerRange())
+                .toArray(TransitRangeDef[]::new);
+
+        this.bounds = Arrays.stream(bands)
+                .flatMapToDouble(band -> DoubleStream.of(band.getLowerRange(), band.getUpperRange()))
+                .sorted()
+                .distinct()
+                .toArray();
+
+        this.bandsByInterval = new int[Math.max(0, bounds.length - 1)][];
+        for (int k = 0; k < bandsByInterval.length; k++) {
+            double low = bounds[k];
+            double high = bounds[k + 1];
+            bandsByInterval[k] = IntStream.range(0, bands.length)
+                    .filter(b -> bands[b].getLowerRange() <= low && high <= bands[b].getUpperRange())
+                    .toArray();
+        }
+    }
+
+    int size() {
+        return bands.length;
+    }
+
+    @NotNull TransitRangeDef band(int index) {
+        return bands[index];
+    }
+
+    @NotNull List<TransitRangeDef> bands() {
+        return List.of(bands);
+    }
+
+    /**
+     * Returns the smallest lower range; only valid when {@link #size()} is positive.
+     */
+    double minLowerRange() {
+        return bounds[0];
+    }
+
+    /**
+     * Returns the largest upper range; only valid when {@link #size()} is positive.
+     */
+    double maxUpperRange() {
+        return bounds[bounds.length - 1];
+    }
+
+    /**
+     * Returns the indices of the bands with lower &lt; distance &lt;= upper.
+     */
+    int[] bandsAt(double distance) {
+        int position = Arrays.binarySearch(bounds, distance);
+        int interval = position >= 0 ? position - 1 : -position - 2;
+        if (interval < 0 || interval >= bandsByInterval.length) {
+            return NO_BANDS;
+        }
+        return bandsByInterval[interval];
+    }
+}
@@ -38,6 +38,7 @@ import com.teamgannon.trips.workbench.service.WorkbenchExoplanetImportService.Ex
 import com.teamgannon.trips.workbench.service.WorkbenchExoplanetImportService.ExoplanetImportResult;
 import com.teamgannon.trips.workbench.service.WorkbenchMappingDefaults;
 import com.teamgannon.trips.workbench.service.WorkbenchTapService;
+import com.teamgannon.trips.workbench.service.tap.TapResponseCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
@@ -106,6 +107,12 @@ public class DataWorkbenchController {
     @FXML
     private CheckBox cacheDefaultCheckbox;
 
+    @FXML
+    private CheckBox tapCacheCheckbox;
+
+    @FXML
+    private CheckBox tapReplayCheckbox;
+
     @FXML
     private TextField liveTapBatchField;
 
@@ -629,12 +636,15 @@ public class DataWorkbenchController {
         String dataSetName = selection.get();
         int finalBatchSize = batchSize;
         int finalBackoffMs = backoffMs;
+        TapResponseCache.Mode tapCacheMode = selectedTapCacheMode();
+        Path tapCacheDir = cacheDir;
         updateStatus("Enriching missing distances (live TAP)...");
         showProgress();
         Task<Void> task = new Task<>() {
             @Override
             protected Void call() throws Exception {
-                enrichmentService.enrichMissingDistancesLive(dataSetName, finalBatchSize, finalBackoffMs, DataWorkbenchController.this::updateStatus);
+                enrichmentService.enrichMissingDistancesLive(dataSetName, finalBatchSize, finalBackoffMs,
+                        openTapCache(tapCacheDir, tapCacheMode), DataWorkbenchController.this::updateStatus);
                 return null;
             }
         };
@@ -734,13 +744,15 @@ public class DataWorkbenchController {
         String dataSetName = selection.get();
         int finalBatchSize = batchSize;
         int finalBackoffMs = backoffMs;
+        TapResponseCache.Mode tapCacheMode = selectedTapCacheMode();
+        Path tapCacheDir = cacheDir;
         updateStatus("Enriching stellar parameters from Gaia DR3...");
         showProgress();
         Task<Void> task = new Task<>() {
             @Override
             protected Void call() throws Exception {
                 enrichmentService.enrichMissingMassesFromGaia(dataSetName, finalBatchSize, finalBackoffMs,
-                        DataWorkbenchController.this::updateStatus);
+                        openTapCache(tapCacheDir, tapCacheMode), DataWorkbenchController.this::updateStatus);
                 return null;
             }
         };
@@ -1300,9 +1312,33 @@ public class DataWorkbenchController {
         if (cacheDefaultCheckbox != null) {
             cacheDefaultCheckbox.setSelected(true);
         }
+        if (tapCacheCheckbox != null) {
+            tapCacheCheckbox.setSelected(true);
+        }
         ensureCacheDir();
     }
 
+    /**
+     * How live TAP enrichment should use the response cache, read from the settings on the FX
+     * thread; null when the cache is off.
+     */
+    private TapResponseCache.Mode selectedTapCacheMode() {
+        if (tapCacheCheckbox == null || !tapCacheCheckbox.isSelected() || cacheDir == null) {
+            return null;
+        }
+        if (tapReplayCheckbox != null && tapReplayCheckbox.isSelected()) {
+            return TapResponseCache.Mode.REPLAY;
+        }
+        return TapResponseCache.Mode.READ_WRITE;
+    }
+
+    private TapResponseCache openTapCache(Path dir, TapResponseCache.Mode mode) throws IOException {
+        if (dir == null || mode == null) {
+            return null;
+        }
+        return TapResponseCache.open(dir, TapResponseCache.DEFAULT_MAX_BYTES, mode);
+    }
+
     private void ensureCacheDir() {
         try {
             Files.createDirectories(cacheDir);
@@ -2,18 +2,20 @@ package com.teamgannon.trips.workbench.service;
 
 import com.teamgannon.trips.jpa.model.StarObject;
 import com.teamgannon.trips.service.StarService;
+import com.teamgannon.trips.workbench.service.tap.TapCsvReader;
+import com.teamgannon.trips.workbench.service.tap.TapFetchPipeline;
+import com.teamgannon.trips.workbench.service.tap.TapQuery;
+import com.teamgannon.trips.workbench.service.tap.TapRateLimiter;
+import com.teamgannon.trips.workbench.service.tap.TapResponseCache;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.URLEncoder;
 import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -22,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -39,17 +43,86 @@ public class WorkbenchEnrichmentService {
             .connectTimeout(Duration.ofSeconds(30))
             .build();
 
+    // TAP queries in flight at once during live enrichment
+    private static final int TAP_MAX_IN_FLIGHT = 4;
+    private static final Duration TAP_REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final Duration TAP_RETRY_DELAY = Duration.ofSeconds(5);
+    // enriched stars saved per write during live enrichment
+    private static final int TAP_SAVE_BATCH = 500;
+
     private final StarService starService;
+    private final String gaiaTapUrl;
+    private final String simbadTapUrl;
+    private final String vizierTapUrl;
+    private final Duration retryDelay;
 
+    @Autowired
     public WorkbenchEnrichmentService(StarService starService) {
+        this(starService, GAIA_TAP_BASE_URL, SIMBAD_TAP_BASE_URL, VIZIER_TAP_BASE_URL, TAP_RETRY_DELAY);
+    }
+
+    /**
+     * For tests against a local TAP server.
+     */
+    WorkbenchEnrichmentService(StarService starService,
+                               String gaiaTapUrl,
+                               String simbadTapUrl,
+                               String vizierTapUrl,
+                               Duration retryDelay) {
         this.starService = starService;
+        this.gaiaTapUrl = gaiaTapUrl;
+        this.simbadTapUrl = simbadTapUrl;
+        this.vizierTapUrl = vizierTapUrl;
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * Fills in missing distances from Gaia DR3, Hipparcos (VizieR) and SIMBAD parallaxes.
+     * <p>
+     * Each pass takes a page of stars still missing a distance. Gaia and HIP batches run
+     * together through a {@link TapFetchPipeline}, up to {@value #TAP_MAX_IN_FLIGHT} at a time
+     * and no more often than one per {@code delayMs}; SIMBAD then looks up the stars neither
+     * matched. Matched stars are saved in chunks as results arrive, while later batches are
+     * still being fetched.
+     */
+    public void enrichMissingDistancesLive(String dataSetName,
+                                           int batchSize,
+                                           long delayMs,
+                                           Consumer<String> statusConsumer) throws IOException, InterruptedException {
+        enrichMissingDistancesLive(dataSetName, batchSize, delayMs, null, statusConsumer);
     }
 
+    /**
+     * As {@link #enrichMissingDistancesLive(String, int, long, Consumer)}, reusing TAP responses
+     * from earlier runs.
+     *
+     * @param tapCache responses to reuse and record, or null to always query the services
+     */
     public void enrichMissingDistancesLive(String dataSetName,
                                            int batchSize,
                                            long delayMs,
+                                           @Nullable TapResponseCache tapCache,
                                            Consumer<String> statusConsumer) throws IOException, InterruptedException {
         int pageSize = Math.max(batchSize * 4, 200);
+        TapFetchPipeline pipeline = newTapPipeline(delayMs, tapCache);
+        ParallaxCatalog gaia = new ParallaxCatalog("Gaia", gaiaTapUrl,
+                ids -> "SELECT source_id, parallax FROM gaiadr3.gaia_source WHERE source_id IN ("
+                        + String.join(",", ids) + ")",
+                "source_id", "parallax", this::extractNumericId,
+                "Gaia DR3 parallax", "distance from Gaia DR3 parallax");
+        ParallaxCatalog hip = new ParallaxCatalog("HIP", vizierTapUrl,
+                ids -> "SELECT HIP, Plx FROM \"I/239/hip_main\" WHERE HIP IN (" + String.join(",", ids) + ")",
+                "HIP", "Plx", this::extractNumericId,
+                "HIP parallax", "distance from HIP parallax");
+        ParallaxCatalog simbad = new ParallaxCatalog("SIMBAD", simbadTapUrl,
+                names -> "SELECT i.id AS id, b.plx_value "
+                        + "FROM ident i JOIN basic b ON i.oidref = b.oid "
+                        + "WHERE i.id IN (" + names.stream()
+                        .map(name -> "'" + escapeAdqlString(name) + "'")
+                        .collect(Collectors.joining(",")) + ")",
+                "id", "plx_value", this::normalizeSimbadKey,
+                "SIMBAD parallax", "distance from SIMBAD parallax");
+
         long updated = 0;
         long iteration = 0;
         int consecutiveNoProgress = 0;
@@ -61,8 +134,7 @@ public class WorkbenchEnrichmentService {
                 break;
             }
             List<StarObject> candidates = page.getContent();
-            List<StarObject> updatedStars = new ArrayList<>();
-            Set<String> updatedIds = new HashSet<>();
+            StarUpdateWriter writer = new StarUpdateWriter();
             iteration++;
             updateStatus(statusConsumer, "Live TAP enrichment: iteration " + iteration + ", candidates " + candidates.size() + ", remaining " + page.getTotalElements());
 
@@ -88,75 +160,17 @@ public class WorkbenchEnrichmentService {
                 }
             }
 
-            List<String> gaiaIds = new ArrayList<>(gaiaMap.keySet());
-            List<String> hipIds = new ArrayList<>(hipMap.keySet());
-            int gaiaBatches = (gaiaIds.size() + batchSize - 1) / batchSize;
-            int hipBatches = (hipIds.size() + batchSize - 1) / batchSize;
-
-            for (int i = 0; i < gaiaIds.size(); i += batchSize) {
-                int batchNumber = (i / batchSize) + 1;
-                List<String> batch = gaiaIds.subList(i, Math.min(i + batchSize, gaiaIds.size()));
-                updateStatus(statusConsumer, "Live TAP: Gaia batch " + batchNumber + "/" + gaiaBatches + " (ids " + batch.size() + ")");
-                try {
-                    Map<String, Double> parallaxById = fetchGaiaParallax(batch);
-                    int updatedBefore = updatedStars.size();
-                    for (Map.Entry<String, Double> entry : parallaxById.entrySet()) {
-                        List<StarObject> stars = gaiaMap.get(entry.getKey());
-                        if (stars != null) {
-                            for (StarObject star : stars) {
-                                if (applyParallaxEnrichment(star, entry.getValue(), "Gaia DR3 parallax",
-                                        "distance from Gaia DR3 parallax") && updatedIds.add(star.getId())) {
-                                    updatedStars.add(star);
-                                }
-                            }
-                        }
-                    }
-                    int updatedInBatch = updatedStars.size() - updatedBefore;
-                    log.info("Gaia TAP batch {}/{}: ids={}, matches={}, updated={}",
-                            batchNumber, gaiaBatches, batch.size(), parallaxById.size(), updatedInBatch);
-                } catch (IOException e) {
-                    log.error("Gaia TAP batch {}/{} failed after retries: {} - skipping batch",
-                            batchNumber, gaiaBatches, e.getMessage());
-                    updateStatus(statusConsumer, "Gaia batch " + batchNumber + " failed - skipping");
-                }
-                if (delayMs > 0) {
-                    Thread.sleep(delayMs);
-                }
-            }
-
-            for (int i = 0; i < hipIds.size(); i += batchSize) {
-                int batchNumber = (i / batchSize) + 1;
-                List<String> batch = hipIds.subList(i, Math.min(i + batchSize, hipIds.size()));
-                updateStatus(statusConsumer, "Live TAP: HIP batch " + batchNumber + "/" + hipBatches + " (ids " + batch.size() + ")");
-                try {
-                    Map<String, Double> parallaxById = fetchHipParallax(batch);
-                    int updatedBefore = updatedStars.size();
-                    for (Map.Entry<String, Double> entry : parallaxById.entrySet()) {
-                        List<StarObject> stars = hipMap.get(entry.getKey());
-                        if (stars != null) {
-                            for (StarObject star : stars) {
-                                if (applyParallaxEnrichment(star, entry.getValue(), "HIP parallax",
-                                        "distance from HIP parallax") && updatedIds.add(star.getId())) {
-                                    updatedStars.add(star);
-                                }
-                            }
-                        }
-                    }
-                    int updatedInBatch = updatedStars.size() - updatedBefore;
-                    log.info("HIP TAP batch {}/{}: ids={}, matches={}, updated={}",
-                            batchNumber, hipBatches, batch.size(), parallaxById.size(), updatedInBatch);
-                } catch (IOException e) {
-                    log.error("HIP TAP batch {}/{} failed after retries: {} - skipping batch",
-                            batchNumber, hipBatches, e.getMessage());
-                    updateStatus(statusConsumer, "HIP batch " + batchNumber + " failed - skipping");
-                }
-                if (delayMs > 0) {
-                    Thread.sleep(delayMs);
-                }
-            }
+            // Gaia and HIP cover different stars, so their batches run together
+            List<TapQuery<?>> queries = new ArrayList<>();
+            queries.addAll(parallaxQueries(gaia, gaiaMap, batchSize, writer, statusConsumer));
+            queries.addAll(parallaxQueries(hip, hipMap, batchSize, writer, statusConsumer));
+            updateStatus(statusConsumer, "Live TAP: " + queries.size() + " Gaia/HIP batches (ids "
+                    + (gaiaMap.size() + hipMap.size()) + ")");
+            pipeline.run(queries);
 
+            // SIMBAD is asked only for the stars Gaia and HIP did not place
             for (StarObject star : candidates) {
-                if (star.getDistance() > 0 || updatedIds.contains(star.getId())) {
+                if (star.getDistance() > 0 || writer.contains(star)) {
                     continue;
                 }
                 String name = getPreferredSimbadName(star);
@@ -165,62 +179,18 @@ public class WorkbenchEnrichmentService {
                     simbadMap.computeIfAbsent(key, value -> new ArrayList<>()).add(star);
                 }
             }
-
-            List<String> simbadNames = new ArrayList<>(simbadMap.keySet());
-            int simbadBatches = (simbadNames.size() + batchSize - 1) / batchSize;
-            if (!simbadNames.isEmpty()) {
-                updateStatus(statusConsumer, "Live TAP: SIMBAD batches " + simbadBatches + " (names " + simbadNames.size() + ")");
-            }
-            for (int i = 0; i < simbadNames.size(); i += batchSize) {
-                int batchNumber = (i / batchSize) + 1;
-                List<String> batch = simbadNames.subList(i, Math.min(i + batchSize, simbadNames.size()));
-                updateStatus(statusConsumer, "Live TAP: SIMBAD batch " + batchNumber + "/" + simbadBatches + " (names " + batch.size() + ")");
-                log.info("SIMBAD TAP batch {}/{} name sample: {}",
-                        batchNumber, simbadBatches, batch.subList(0, Math.min(10, batch.size())));
-                try {
-                    Map<String, Double> parallaxByName = fetchSimbadParallax(batch);
-                    int updatedBefore = updatedStars.size();
-                    int positiveParallax = 0;
-                    List<String> parallaxSamples = new ArrayList<>();
-                    for (Map.Entry<String, Double> entry : parallaxByName.entrySet()) {
-                        Double parallax = entry.getValue();
-                        if (parallax != null && parallax > 0) {
-                            positiveParallax++;
-                            if (parallaxSamples.size() < 5) {
-                                parallaxSamples.add(entry.getKey() + "=" + parallax);
-                            }
-                        }
-                        List<StarObject> stars = simbadMap.get(normalizeSimbadKey(entry.getKey()));
-                        if (stars != null) {
-                            for (StarObject star : stars) {
-                                if (applyParallaxEnrichment(star, parallax, "SIMBAD parallax",
-                                        "distance from SIMBAD parallax") && updatedIds.add(star.getId())) {
-                                    updatedStars.add(star);
-                                }
-                            }
-                        }
-                    }
-                    int updatedInBatch = updatedStars.size() - updatedBefore;
-                    log.info("SIMBAD TAP batch {}/{}: names={}, matches={}, updated={}",
-                            batchNumber, simbadBatches, batch.size(), parallaxByName.size(), updatedInBatch);
-                    log.info("SIMBAD TAP batch {}/{}: positive parallaxes={}, samples={}",
-                            batchNumber, simbadBatches, positiveParallax, parallaxSamples);
-                } catch (IOException e) {
-                    log.error("SIMBAD TAP batch {}/{} failed after retries: {} - skipping batch",
-                            batchNumber, simbadBatches, e.getMessage());
-                    updateStatus(statusConsumer, "SIMBAD batch " + batchNumber + " failed - skipping");
-                }
-                if (delayMs > 0) {
-                    Thread.sleep(delayMs);
-                }
+            List<TapQuery<Map<String, Double>>> simbadQueries = parallaxQueries(simbad, simbadMap, batchSize, writer, statusConsumer);
+            if (!simbadQueries.isEmpty()) {
+                updateStatus(statusConsumer, "Live TAP: SIMBAD batches " + simbadQueries.size() + " (names " + simbadMap.size() + ")");
             }
+            pipeline.run(simbadQueries);
+            writer.flush();
 
-            if (!updatedStars.isEmpty()) {
-                starService.updateStars(updatedStars);
-                updated += updatedStars.size();
+            if (writer.getSavedCount() > 0) {
+                updated += writer.getSavedCount();
                 consecutiveNoProgress = 0;
                 log.info("Live TAP enrichment: iteration {} saved {}, total updated {}",
-                        iteration, updatedStars.size(), updated);
+                        iteration, writer.getSavedCount(), updated);
             } else {
                 consecutiveNoProgress++;
                 log.info("Live TAP enrichment: iteration {} no matches, consecutive no-progress: {}",
@@ -239,6 +209,56 @@ public class WorkbenchEnrichmentService {
                 break;
             }
         }
+        logTapCache(tapCache, statusConsumer);
+    }
+
+    /**
+     * One batched parallax query per {@code batchSize} ids; each result is applied to the
+     * stars with those ids and queued for saving.
+     */
+    private List<TapQuery<Map<String, Double>>> parallaxQueries(ParallaxCatalog catalog,
+                                                                Map<String, List<StarObject>> starsById,
+                                                                int batchSize,
+                                                                StarUpdateWriter writer,
+                                                                Consumer<String> statusConsumer) {
+        // sorted for stable batches; the cache keeps each id's answer whichever batch it is in
+        List<String> ids = new ArrayList<>(starsById.keySet());
+        ids.sort(null);
+        int batches = (ids.size() + batchSize - 1) / batchSize;
+        List<TapQuery<Map<String, Double>>> queries = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            int batchNumber = (i / batchSize) + 1;
+            List<String> batch = ids.subList(i, Math.min(i + batchSize, ids.size()));
+            String label = catalog.name() + " TAP batch " + batchNumber + "/" + batches;
+            TapQuery.Ids batchIds = new TapQuery.Ids(catalog.idColumn(), batch, catalog.idNormalizer(), catalog.adql());
+            queries.add(TapQuery.forIds(label, catalog.baseUrl(), batchIds,
+                    rows -> readParallax(rows, catalog),
+                    parallaxById -> {
+                        int updatedInBatch = 0;
+                        for (Map.Entry<String, Double> entry : parallaxById.entrySet()) {
+                            List<StarObject> stars = starsById.get(entry.getKey());
+                            if (stars == null) {
+                                continue;
+                            }
+                            for (StarObject star : stars) {
+                                if (applyParallaxEnrichment(star, entry.getValue(), catalog.sourceToken(),
+                                        catalog.notesToken()) && writer.add(star)) {
+                                    updatedInBatch++;
+                                }
+                            }
+                        }
+                        log.info("{}: ids={}, matches={}, updated={}",
+                                label, batch.size(), parallaxById.size(), updatedInBatch);
+                        updateStatus(statusConsumer, "Live TAP: " + label + " (ids " + batch.size()
+                                + ", updated " + updatedInBatch + ")");
+                        writer.flushIfFull();
+                    },
+                    e -> {
+                        log.error("{} failed after retries: {} - skipping batch", label, e.getMessage());
+                        updateStatus(statusConsumer, catalog.name() + " batch " + batchNumber + " failed - skipping");
+                    }));
+        }
+        return queries;
     }
 
     private void updateStatus(Consumer<String> statusConsumer, String message) {
@@ -345,7 +365,22 @@ public class WorkbenchEnrichmentService {
                                              int batchSize,
                                              long delayMs,
                                              Consumer<String> statusConsumer) throws IOException, InterruptedException {
+        enrichMissingMassesFromGaia(dataSetName, batchSize, delayMs, null, statusConsumer);
+    }
+
+    /**
+     * As {@link #enrichMissingMassesFromGaia(String, int, long, Consumer)}, reusing TAP responses
+     * from earlier runs.
+     *
+     * @param tapCache responses to reuse and record, or null to always query Gaia
+     */
+    public void enrichMissingMassesFromGaia(String dataSetName,
+                                             int batchSize,
+                                             long delayMs,
+                                             @Nullable TapResponseCache tapCache,
+                                             Consumer<String> statusConsumer) throws IOException, InterruptedException {
         int pageSize = Math.max(batchSize * 4, 200);
+        TapFetchPipeline pipeline = newTapPipeline(delayMs, tapCache);
         long updated = 0;
         long iteration = 0;
         int consecutiveNoProgress = 0;
@@ -366,8 +401,7 @@ public class WorkbenchEnrichmentService {
             }
 
             List<StarObject> candidates = page.getContent();
-            List<StarObject> updatedStars = new ArrayList<>();
-            Set<String> updatedIds = new HashSet<>();
+            StarUpdateWriter writer = new StarUpdateWriter();
             iteration++;
 
             updateStatus(statusConsumer, "Stellar params enrichment: iteration " + iteration +
@@ -392,55 +426,55 @@ public class WorkbenchEnrichmentService {
             log.info("Built gaiaMap: {} unique IDs from {} candidates (skipped: {} have mass, {} no Gaia ID)",
                     gaiaMap.size(), candidates.size(), skippedMass, skippedNoId);
 
-            // Debug: log first few extracted IDs
             List<String> gaiaIds = new ArrayList<>(gaiaMap.keySet());
+            gaiaIds.sort(null);
             if (!gaiaIds.isEmpty()) {
                 log.info("First 5 extracted Gaia IDs: {}", gaiaIds.subList(0, Math.min(5, gaiaIds.size())));
             }
 
             int gaiaBatches = (gaiaIds.size() + batchSize - 1) / batchSize;
-
+            List<TapQuery<Map<String, GaiaStellarParams>>> queries = new ArrayList<>();
             for (int i = 0; i < gaiaIds.size(); i += batchSize) {
                 int batchNumber = (i / batchSize) + 1;
                 List<String> batch = gaiaIds.subList(i, Math.min(i + batchSize, gaiaIds.size()));
-                updateStatus(statusConsumer, "Stellar params: Gaia batch " + batchNumber + "/" + gaiaBatches +
-                        " (ids " + batch.size() + ")");
-
-                try {
-                    Map<String, GaiaStellarParams> paramsById = fetchGaiaStellarParams(batch);
-                    int updatedBefore = updatedStars.size();
-
-                    for (Map.Entry<String, GaiaStellarParams> entry : paramsById.entrySet()) {
-                        List<StarObject> stars = gaiaMap.get(entry.getKey());
-                        if (stars != null) {
-                            for (StarObject star : stars) {
-                                if (applyStellarParams(star, entry.getValue()) && updatedIds.add(star.getId())) {
-                                    updatedStars.add(star);
+                String label = "Gaia stellar params batch " + batchNumber + "/" + gaiaBatches;
+                TapQuery.Ids batchIds = new TapQuery.Ids("source_id", batch, this::extractNumericId,
+                        ids -> "SELECT source_id, mass_flame, radius_flame, lum_flame, teff_gspphot, mh_gspphot " +
+                                "FROM gaiadr3.astrophysical_parameters " +
+                                "WHERE source_id IN (" + String.join(",", ids) + ")");
+                queries.add(TapQuery.forIds(label, gaiaTapUrl, batchIds, this::readGaiaStellarParams,
+                        paramsById -> {
+                            int updatedInBatch = 0;
+                            for (Map.Entry<String, GaiaStellarParams> entry : paramsById.entrySet()) {
+                                List<StarObject> stars = gaiaMap.get(entry.getKey());
+                                if (stars == null) {
+                                    continue;
+                                }
+                                for (StarObject star : stars) {
+                                    if (applyStellarParams(star, entry.getValue()) && writer.add(star)) {
+                                        updatedInBatch++;
+                                    }
                                 }
                             }
-                        }
-                    }
-
-                    int updatedInBatch = updatedStars.size() - updatedBefore;
-                    log.info("Gaia stellar params batch {}/{}: ids={}, matches={}, updated={}",
-                            batchNumber, gaiaBatches, batch.size(), paramsById.size(), updatedInBatch);
-                } catch (IOException e) {
-                    log.error("Gaia stellar params batch {}/{} failed after retries: {} - skipping batch",
-                            batchNumber, gaiaBatches, e.getMessage());
-                    updateStatus(statusConsumer, "Gaia batch " + batchNumber + " failed - skipping");
-                }
-
-                if (delayMs > 0) {
-                    Thread.sleep(delayMs);
-                }
+                            log.info("{}: ids={}, matches={}, updated={}",
+                                    label, batch.size(), paramsById.size(), updatedInBatch);
+                            updateStatus(statusConsumer, "Stellar params: " + label + " (ids " + batch.size()
+                                    + ", updated " + updatedInBatch + ")");
+                            writer.flushIfFull();
+                        },
+                        e -> {
+                            log.error("{} failed after retries: {} - skipping batch", label, e.getMessage());
+                            updateStatus(statusConsumer, "Gaia batch " + batchNumber + " failed - skipping");
+                        }));
             }
+            pipeline.run(queries);
+            writer.flush();
 
-            if (!updatedStars.isEmpty()) {
-                starService.updateStars(updatedStars);
-                updated += updatedStars.size();
+            if (writer.getSavedCount() > 0) {
+                updated += writer.getSavedCount();
                 consecutiveNoProgress = 0;
                 log.info("Stellar params enrichment: iteration {} saved {}, total updated {}",
-                        iteration, updatedStars.size(), updated);
+                        iteration, writer.getSavedCount(), updated);
             } else {
                 consecutiveNoProgress++;
                 log.info("Stellar params enrichment: iteration {} no matches, consecutive no-progress: {}",
@@ -466,6 +500,7 @@ public class WorkbenchEnrichmentService {
                 updated, finalMissing);
         updateStatus(statusConsumer, "Stellar params enrichment complete: " + updated +
                 " stars updated, " + finalMissing + " still missing mass");
+        logTapCache(tapCache, statusConsumer);
     }
 
     /**
@@ -480,71 +515,24 @@ public class WorkbenchEnrichmentService {
     }
 
     /**
-     * Fetches stellar parameters from Gaia DR3 astrophysical_parameters table.
+     * Reads a Gaia astrophysical_parameters response into parameters by source id.
      */
-    private Map<String, GaiaStellarParams> fetchGaiaStellarParams(List<String> gaiaIds) throws IOException, InterruptedException {
-        if (gaiaIds.isEmpty()) {
-            return Map.of();
-        }
-        String idList = String.join(",", gaiaIds);
-        String adql = "SELECT source_id, mass_flame, radius_flame, lum_flame, teff_gspphot, mh_gspphot " +
-                "FROM gaiadr3.astrophysical_parameters " +
-                "WHERE source_id IN (" + idList + ")";
-        String csv = submitTapSyncCsv(GAIA_TAP_BASE_URL, adql, "Gaia Stellar Params TAP");
-
-        // Debug: log first few IDs and CSV response
-        if (gaiaIds.size() > 0) {
-            log.info("Gaia stellar params query: first 5 IDs = {}", gaiaIds.subList(0, Math.min(5, gaiaIds.size())));
-        }
-        if (csv != null) {
-            String[] lines = csv.split("\\r?\\n");
-            log.info("Gaia stellar params response: {} lines, header = {}", lines.length, lines.length > 0 ? lines[0] : "empty");
-            if (lines.length > 1 && lines.length <= 6) {
-                for (int i = 1; i < lines.length; i++) {
-                    log.info("  Row {}: {}", i, lines[i]);
-                }
-            }
-        }
-
-        return parseGaiaStellarParamsCsv(csv);
-    }
-
-    /**
-     * Parses CSV response for stellar parameters.
-     */
-    private Map<String, GaiaStellarParams> parseGaiaStellarParamsCsv(String csv) {
+    private Map<String, GaiaStellarParams> readGaiaStellarParams(TapCsvReader rows) throws IOException {
         Map<String, GaiaStellarParams> map = new HashMap<>();
-        if (csv == null || csv.isBlank()) {
-            return map;
-        }
-        String[] lines = csv.split("\\r?\\n");
-        if (lines.length == 0) {
-            return map;
-        }
-        String[] header = splitCsvLine(lines[0]);
-        Map<String, Integer> headerIndex = new HashMap<>();
-        for (int i = 0; i < header.length; i++) {
-            headerIndex.put(header[i].trim().toLowerCase(), i);
-        }
-
-        int idIdx = findHeaderIndex(headerIndex, List.of("source_id"));
-        int massIdx = findHeaderIndex(headerIndex, List.of("mass_flame"));
-        int radiusIdx = findHeaderIndex(headerIndex, List.of("radius_flame"));
-        int lumIdx = findHeaderIndex(headerIndex, List.of("lum_flame"));
-        int tempIdx = findHeaderIndex(headerIndex, List.of("teff_gspphot"));
-        int metalIdx = findHeaderIndex(headerIndex, List.of("mh_gspphot"));
+        int idIdx = rows.column("source_id");
+        int massIdx = rows.column("mass_flame");
+        int radiusIdx = rows.column("radius_flame");
+        int lumIdx = rows.column("lum_flame");
+        int tempIdx = rows.column("teff_gspphot");
+        int metalIdx = rows.column("mh_gspphot");
 
         if (idIdx < 0) {
-            log.warn("Gaia stellar params CSV missing source_id column");
+            log.warn("Gaia stellar params CSV missing source_id column, header = {}", rows.getHeader());
             return map;
         }
 
-        for (int i = 1; i < lines.length; i++) {
-            String line = lines[i];
-            if (line.isBlank()) {
-                continue;
-            }
-            String[] values = splitCsvLine(line);
+        String[] values;
+        while ((values = rows.next()) != null) {
             if (idIdx >= values.length) {
                 continue;
             }
@@ -577,6 +565,7 @@ public class WorkbenchEnrichmentService {
                 map.putIfAbsent(id, params);
             }
         }
+        log.info("Gaia stellar params response: {} rows, {} with values", rows.getRowCount(), map.size());
         return map;
     }
 
@@ -994,181 +983,46 @@ public class WorkbenchEnrichmentService {
     // Debug counter for distance rejections
     private int distanceRejectCount = 0;
 
-    private Map<String, Double> fetchGaiaParallax(List<String> gaiaIds) throws IOException, InterruptedException {
-        if (gaiaIds.isEmpty()) {
-            return Map.of();
-        }
-        String idList = String.join(",", gaiaIds);
-        String adql = "SELECT source_id, parallax FROM gaiadr3.gaia_source WHERE source_id IN (" + idList + ")";
-        String csv = submitTapSyncCsv(GAIA_TAP_BASE_URL, adql, "Gaia TAP");
-        return parseParallaxCsv(csv, "source_id", "parallax");
-    }
-
-    private Map<String, Double> fetchHipParallax(List<String> hipIds) throws IOException, InterruptedException {
-        if (hipIds.isEmpty()) {
-            return Map.of();
-        }
-        String idList = String.join(",", hipIds);
-        String adql = "SELECT HIP, Plx FROM \"I/239/hip_main\" WHERE HIP IN (" + idList + ")";
-        String csv = submitTapSyncCsv(VIZIER_TAP_BASE_URL, adql, "VizieR TAP");
-        return parseParallaxCsv(csv, "HIP", "Plx");
-    }
-
-    private Map<String, Double> fetchSimbadParallax(List<String> simbadNames) throws IOException, InterruptedException {
-        if (simbadNames.isEmpty()) {
-            return Map.of();
-        }
-        String idList = simbadNames.stream()
-                .map(this::escapeAdqlString)
-                .map(name -> "'" + name + "'")
-                .collect(Collectors.joining(","));
-        String adql = "SELECT i.id AS id, b.plx_value "
-                + "FROM ident i JOIN basic b ON i.oidref = b.oid "
-                + "WHERE i.id IN (" + idList + ")";
-        String csv = submitTapSyncCsv(SIMBAD_TAP_BASE_URL, adql, "SIMBAD TAP");
-        logSimbadCsvSample(csv);
-        return parseParallaxCsvRawId(csv, "id", "plx_value");
-    }
-
-    private void logSimbadCsvSample(String csv) {
-        if (csv == null || csv.isBlank()) {
-            log.info("SIMBAD TAP CSV sample: <empty>");
-            return;
-        }
-        String[] lines = csv.split("\\r?\\n");
-        if (lines.length > 0) {
-            log.info("SIMBAD TAP CSV header: {}", lines[0]);
-        }
-        int printed = 0;
-        List<String> sample = new ArrayList<>();
-        for (int i = 1; i < lines.length && printed < 5; i++) {
-            String line = lines[i].trim();
-            if (!line.isEmpty()) {
-                sample.add(line);
-                printed++;
-            }
-        }
-        log.info("SIMBAD TAP CSV sample rows: {}", sample);
-    }
-
-    private static final int MAX_RETRIES = 3;
-    private static final long RETRY_DELAY_MS = 5000;
-
-    private String submitTapSyncCsv(String baseUrl, String adql, String label) throws IOException, InterruptedException {
-        String body = "REQUEST=doQuery&LANG=ADQL&FORMAT=csv&QUERY="
-                + URLEncoder.encode(adql, StandardCharsets.UTF_8);
-        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/sync"))
-                .header("Content-Type", "application/x-www-form-urlencoded")
-                .timeout(Duration.ofSeconds(60))
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build();
-
-        IOException lastException = null;
-        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
-            try {
-                HttpResponse<String> response = HTTP_CLIENT.send(request, HttpResponse.BodyHandlers.ofString());
-                log.info("{} sync status: {} (attempt {})", label, response.statusCode(), attempt);
-                if (response.statusCode() >= 200 && response.statusCode() < 300) {
-                    return response.body();
-                }
-                if (response.statusCode() == 429 || response.statusCode() >= 500) {
-                    // Rate limited or server error - retry
-                    log.warn("{} got {} on attempt {}, retrying after delay...", label, response.statusCode(), attempt);
-                    Thread.sleep(RETRY_DELAY_MS * attempt);
-                    continue;
-                }
-                // Client error (4xx except 429) - don't retry
-                String bodyPreview = response.body();
-                if (bodyPreview != null && bodyPreview.length() > 400) {
-                    bodyPreview = bodyPreview.substring(0, 400) + "...";
-                }
-                log.error("{} sync error body: {}", label, bodyPreview);
-                throw new IOException(label + " sync failed. HTTP " + response.statusCode());
-            } catch (IOException e) {
-                lastException = e;
-                log.warn("{} connection error on attempt {}: {} - retrying after delay...",
-                        label, attempt, e.getMessage());
-                if (attempt < MAX_RETRIES) {
-                    Thread.sleep(RETRY_DELAY_MS * attempt);
-                }
-            }
-        }
-        log.error("{} failed after {} attempts", label, MAX_RETRIES);
-        throw lastException != null ? lastException : new IOException(label + " failed after retries");
-    }
-
-    private Map<String, Double> parseParallaxCsv(String csv, String idHeader, String parallaxHeader) {
+    /**
+     * Reads a parallax response into parallaxes (mas) by normalized id, keeping positive ones.
+     */
+    private Map<String, Double> readParallax(TapCsvReader rows, ParallaxCatalog catalog) throws IOException {
         Map<String, Double> map = new HashMap<>();
-        if (csv == null || csv.isBlank()) {
-            return map;
-        }
-        String[] lines = csv.split("\\r?\\n");
-        if (lines.length == 0) {
-            return map;
-        }
-        String[] header = splitCsvLine(lines[0]);
-        Map<String, Integer> headerIndex = new HashMap<>();
-        for (int i = 0; i < header.length; i++) {
-            headerIndex.put(header[i].trim(), i);
-        }
-        int idIdx = findHeaderIndex(headerIndex, List.of(idHeader));
-        int parallaxIdx = findHeaderIndex(headerIndex, List.of(parallaxHeader));
+        int idIdx = rows.column(catalog.idColumn());
+        int parallaxIdx = rows.column(catalog.parallaxColumn());
         if (idIdx < 0 || parallaxIdx < 0) {
+            log.warn("{} TAP CSV missing {} or {} column, header = {}",
+                    catalog.name(), catalog.idColumn(), catalog.parallaxColumn(), rows.getHeader());
             return map;
         }
-        for (int i = 1; i < lines.length; i++) {
-            String line = lines[i];
-            if (line.isBlank()) {
-                continue;
-            }
-            String[] values = splitCsvLine(line);
+        String[] values;
+        while ((values = rows.next()) != null) {
             if (idIdx >= values.length || parallaxIdx >= values.length) {
                 continue;
             }
-            String id = extractNumericId(values[idIdx]);
+            String id = catalog.idNormalizer().apply(values[idIdx]);
             double parallax = parseDoubleSafe(values[parallaxIdx]);
             if (!id.isEmpty() && parallax > 0) {
                 map.putIfAbsent(id, parallax);
             }
         }
+        log.debug("{} TAP CSV: {} rows, {} positive parallaxes", catalog.name(), rows.getRowCount(), map.size());
         return map;
     }
 
-    private Map<String, Double> parseParallaxCsvRawId(String csv, String idHeader, String parallaxHeader) {
-        Map<String, Double> map = new HashMap<>();
-        if (csv == null || csv.isBlank()) {
-            return map;
-        }
-        String[] lines = csv.split("\\r?\\n");
-        if (lines.length == 0) {
-            return map;
-        }
-        String[] header = splitCsvLine(lines[0]);
-        Map<String, Integer> headerIndex = new HashMap<>();
-        for (int i = 0; i < header.length; i++) {
-            headerIndex.put(unquote(header[i]).trim(), i);
-        }
-        int idIdx = findHeaderIndex(headerIndex, List.of(idHeader));
-        int parallaxIdx = findHeaderIndex(headerIndex, List.of(parallaxHeader));
-        if (idIdx < 0 || parallaxIdx < 0) {
-            return map;
-        }
-        for (int i = 1; i < lines.length; i++) {
-            String line = lines[i];
-            if (line.isBlank()) {
-                continue;
-            }
-            String[] values = splitCsvLine(line);
-            if (idIdx >= values.length || parallaxIdx >= values.length) {
-                continue;
-            }
-            String id = normalizeSimbadKey(values[idIdx]);
-            double parallax = parseDoubleSafe(values[parallaxIdx]);
-            if (!id.isEmpty() && parallax > 0) {
-                map.putIfAbsent(id, parallax);
-            }
+    private TapFetchPipeline newTapPipeline(long delayMs, @Nullable TapResponseCache tapCache) {
+        return new TapFetchPipeline(HTTP_CLIENT, TAP_MAX_IN_FLIGHT,
+                TapRateLimiter.everyMillis(delayMs, 1), retryDelay, TAP_REQUEST_TIMEOUT, tapCache);
+    }
+
+    private void logTapCache(@Nullable TapResponseCache tapCache, Consumer<String> statusConsumer) {
+        if (tapCache == null) {
+            return;
         }
-        return map;
+        log.info("TAP cache: {} hits, {} misses, {} entries ({} bytes)", tapCache.getHits(),
+                tapCache.getMisses(), tapCache.getEntryCount(), tapCache.getSizeBytes());
+        updateStatus(statusConsumer, "TAP cache: " + tapCache.getHits() + " hits, "
+                + tapCache.getMisses() + " misses");
     }
 
     private boolean applyParallaxEnrichment(StarObject star,
@@ -1266,17 +1120,6 @@ public class WorkbenchEnrichmentService {
         return value.replace("'", "''");
     }
 
-    private int findHeaderIndex(Map<String, Integer> headerIndex, List<String> candidates) {
-        for (String candidate : candidates) {
-            for (Map.Entry<String, Integer> entry : headerIndex.entrySet()) {
-                if (entry.getKey().equalsIgnoreCase(candidate)) {
-                    return entry.getValue();
-                }
-            }
-        }
-        return -1;
-    }
-
     private String extractNumericId(String value) {
         if (value == null) {
             return "";
@@ -1352,13 +1195,6 @@ public class WorkbenchEnrichmentService {
         return current + separator + token;
     }
 
-    private String[] splitCsvLine(String line) {
-        if (line == null) {
-            return new String[0];
-        }
-        return line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-    }
-
     private String unquote(String value) {
         String trimmed = value.trim();
         if (trimmed.startsWith("\"") && trimmed.endsWith("\"") && trimmed.length() >= 2) {
@@ -1829,4 +1665,66 @@ public class WorkbenchEnrichmentService {
             return "Y0";
         }
     }
+
+    // ==================== Live TAP Support ====================
+
+    /**
+     * A catalog queried for parallaxes: where, how, and how its matches are recorded.
+     */
+    private record ParallaxCatalog(String name,
+                                   String baseUrl,
+                                   Function<List<String>, String> adql,
+                                   String idColumn,
+                                   String parallaxColumn,
+                                   UnaryOperator<String> idNormalizer,
+                                   String sourceToken,
+                                   String notesToken) {
+    }
+
+    /**
+     * Writer stage of one live enrichment pass: collects the updated stars and saves them in
+     * chunks as TAP results arrive. Used only on the thread running the pass.
+     */
+    private final class StarUpdateWriter {
+
+        private final List<StarObject> pending = new ArrayList<>();
+        private final Set<String> updatedIds = new HashSet<>();
+        private long savedCount;
+
+        /**
+         * Queue a star for saving.
+         *
+         * @return false if the star was already updated in this pass
+         */
+        boolean add(StarObject star) {
+            if (!updatedIds.add(star.getId())) {
+                return false;
+            }
+            pending.add(star);
+            return true;
+        }
+
+        boolean contains(StarObject star) {
+            return updatedIds.contains(star.getId());
+        }
+
+        void flushIfFull() {
+            if (pending.size() >= TAP_SAVE_BATCH) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            starService.updateStars(new ArrayList<>(pending));
+            savedCount += pending.size();
+            pending.clear();
+        }
+
+        long getSavedCount() {
+            return savedCount;
+        }
+    }
 }
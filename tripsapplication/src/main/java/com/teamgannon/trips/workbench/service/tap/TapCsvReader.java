@@ -0,0 +1,171 @@
+package com.teamgannon.trips.workbench.service.tap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Incremental reader for the CSV a TAP service returns.
+ * <p>
+ * Rows are parsed straight off the response stream one at a time, so a large result is
+ * never held as a whole string or split into a line array. Fields follow RFC 4180: quoted
+ * fields may hold commas, line breaks and doubled quotes, and are returned unquoted.
+ * Blank lines are skipped. The first row is the header.
+ */
+public final class TapCsvReader implements Closeable {
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+
+    private final List<String> header;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private long rowCount;
+
+    public TapCsvReader(@NotNull Reader reader) throws IOException {
+        this.reader = reader;
+        String[] names = next();
+        List<String> trimmed = new ArrayList<>();
+        if (names != null) {
+            for (String name : names) {
+                trimmed.add(name.trim());
+            }
+        }
+        this.header = Collections.unmodifiableList(trimmed);
+        this.rowCount = 0;
+    }
+
+    /**
+     * The header names, trimmed; empty for an empty response.
+     */
+    public @NotNull List<String> getHeader() {
+        return header;
+    }
+
+    /**
+     * Index of a header column, ignoring case.
+     *
+     * @return the index, or -1 if there is no such column
+     */
+    public int column(@NotNull String name) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).toLowerCase(Locale.ROOT).equals(name.toLowerCase(Locale.ROOT))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Data rows read so far.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Read the next row.
+     *
+     * @return the row's fields, or null at the end of the response
+     */
+    public String @Nullable [] next() throws IOException {
+        while (true) {
+            int c = read();
+            if (c < 0) {
+                return null;
+            }
+            if (c == '\n' || c == '\r') {
+                continue;  // blank line
+            }
+            unread();
+            String[] row = readRow();
+            rowCount++;
+            return row;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    private String[] readRow() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c < 0) {
+                    break;  // unterminated quote; keep what was read
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c < 0) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    // only called right after a successful read, so the character is still in the buffer
+    private void unread() {
+        position--;
+    }
+
+    private boolean fill() throws IOException {
+        int count = reader.read(buffer, 0, buffer.length);
+        if (count <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+}
@@ -0,0 +1,463 @@
+package com.teamgannon.trips.workbench.service.tap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs TAP queries concurrently while their results are handled in order of arrival.
+ * <p>
+ * A dispatcher starts each query on a virtual thread once a slot is free (at most
+ * {@code maxInFlight} at a time) and the {@link TapRateLimiter} allows it. Each fetch
+ * streams the response through a {@link TapCsvReader} into the query's parser and queues
+ * the outcome. The thread calling {@link #run} is the writer stage: it takes outcomes off
+ * the queue and runs the query handlers, so applying and saving one result overlaps with
+ * the network wait of the queries still in flight.
+ * <p>
+ * Responses of 429 and 5xx, and connection errors, are retried with a growing delay; other
+ * errors fail the query at once.
+ * <p>
+ * With a {@link TapResponseCache}, cached queries are read from disk without waiting for the
+ * rate limit, and successful responses are stored as they stream in. A query for a batch of
+ * {@link TapQuery.Ids} asks the service only for the ids not yet cached, stores the answer per
+ * id (an id without rows is stored too), and hands its parser the rows of all its ids.
+ */
+@Slf4j
+public final class TapFetchPipeline {
+
+    private static final int MAX_RETRIES = 3;
+    private static final int ERROR_PREVIEW_CHARS = 400;
+
+    private final HttpClient httpClient;
+    private final int maxInFlight;
+    private final TapRateLimiter rateLimiter;
+    private final Duration retryDelay;
+    private final Duration requestTimeout;
+    private final @Nullable TapResponseCache cache;
+
+    public TapFetchPipeline(@NotNull HttpClient httpClient,
+                            int maxInFlight,
+                            @NotNull TapRateLimiter rateLimiter,
+                            @NotNull Duration retryDelay,
+                            @NotNull Duration requestTimeout) {
+        this(httpClient, maxInFlight, rateLimiter, retryDelay, requestTimeout, null);
+    }
+
+    /**
+     * @param httpClient     the client to send with, shared by the caller
+     * @param maxInFlight    most queries running at once
+     * @param rateLimiter    limit on how often queries start
+     * @param retryDelay     delay before the first retry, multiplied by the attempt number
+     * @param requestTimeout time allowed for each request
+     * @param cache          responses to reuse and record, or null to always fetch
+     */
+    public TapFetchPipeline(@NotNull HttpClient httpClient,
+                            int maxInFlight,
+                            @NotNull TapRateLimiter rateLimiter,
+                            @NotNull Duration retryDelay,
+                            @NotNull Duration requestTimeout,
+                            @Nullable TapResponseCache cache) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be at least 1: " + maxInFlight);
+        }
+        this.httpClient = httpClient;
+        this.maxInFlight = maxInFlight;
+        this.rateLimiter = rateLimiter;
+        this.retryDelay = retryDelay;
+        this.requestTimeout = requestTimeout;
+        this.cache = cache;
+    }
+
+    /**
+     * Run the queries and handle every outcome on this thread; returns once all are handled.
+     * A handler that throws stops the run and the queries still in flight, as does a fetch
+     * or parser that throws anything other than an {@link IOException}.
+     */
+    public void run(@NotNull List<? extends TapQuery<?>> queries) throws InterruptedException {
+        if (queries.isEmpty()) {
+            return;
+        }
+        BlockingQueue<Runnable> outcomes = new LinkedBlockingQueue<>();
+        Semaphore slots = new Semaphore(maxInFlight);
+        try (ExecutorService fetchers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Thread dispatcher = Thread.ofVirtual().name("tap-dispatch").start(() -> {
+                try {
+                    for (TapQuery<?> query : queries) {
+                        slots.acquire();
+                        if (cache == null || !isCached(query)) {
+                            rateLimiter.acquire();
+                        }
+                        fetchers.execute(() -> {
+                            try {
+                                outcomes.add(fetch(query));
+                            } finally {
+                                slots.release();
+                            }
+                        });
+                    }
+                } catch (InterruptedException | RejectedExecutionException e) {
+                    // the writer stopped the run
+                    Thread.currentThread().interrupt();
+                }
+            });
+            try {
+                for (int handled = 0; handled < queries.size(); handled++) {
+                    outcomes.take().run();
+                }
+            } finally {
+                dispatcher.interrupt();
+                fetchers.shutdownNow();
+            }
+        }
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    /**
+     * Fetch and parse one query on a fetcher thread. Never throws: the writer waits for one
+     * outcome per query, so anything thrown is rethrown by the outcome instead.
+     *
+     * @return the outcome, to be run by the writer
+     */
+    private <R> Runnable fetch(TapQuery<R> query) {
+        try {
+            R result = send(query);
+            return () -> query.onResult().accept(result);
+        } catch (IOException e) {
+            return () -> query.onFailure().accept(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            InterruptedIOException interrupted = new InterruptedIOException(query.label() + " interrupted");
+            return () -> query.onFailure().accept(interrupted);
+        } catch (RuntimeException e) {
+            return () -> {
+                throw e;
+            };
+        } catch (Error e) {
+            return () -> {
+                throw e;
+            };
+        } catch (Throwable e) {
+            // a checked exception thrown without being declared; still queue an outcome
+            return () -> {
+                throw new UndeclaredThrowableException(e, query.label() + " failed");
+            };
+        }
+    }
+
+    private <R> R send(TapQuery<R> query) throws IOException, InterruptedException {
+        if (cache != null && query.ids() != null) {
+            return sendPerId(query, query.ids());
+        }
+        if (cache != null) {
+            String key = cacheKey(query);
+            InputStream cached = cache.get(key);
+            if (cached != null) {
+                try (TapCsvReader rows = new TapCsvReader(new InputStreamReader(cached, StandardCharsets.UTF_8))) {
+                    R result = query.parser().parse(rows);
+                    log.debug("{} read from TAP cache", query.label());
+                    return result;
+                } catch (IOException e) {
+                    log.warn("{} cached response unreadable, dropping it: {}", query.label(), e.getMessage());
+                    cache.remove(key);
+                }
+            }
+            if (cache.isReplay()) {
+                throw new IOException(query.label() + " not in TAP cache (replay mode)");
+            }
+        }
+        return request(query.label(), query.baseUrl(), query.adql(), query.parser(),
+                cache == null ? null : cacheKey(query));
+    }
+
+    /**
+     * Answer a query for a batch of ids from the ids' cache entries, asking the service only
+     * for the ids that have none and storing its answer for each of them.
+     */
+    private <R> R sendPerId(TapQuery<R> query, TapQuery.Ids ids) throws IOException, InterruptedException {
+        List<List<String>> headers = new ArrayList<>();
+        List<String[]> rows = new ArrayList<>();
+        // index into headers of each row's header
+        List<Integer> rowHeaders = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String id : ids.values()) {
+            String key = idKey(query.baseUrl(), ids, id);
+            InputStream cached = cache.get(key);
+            if (cached == null) {
+                missing.add(id);
+                continue;
+            }
+            try (TapCsvReader entry = new TapCsvReader(new InputStreamReader(cached, StandardCharsets.UTF_8))) {
+                List<String[]> entryRows = new ArrayList<>();
+                String[] row;
+                while ((row = entry.next()) != null) {
+                    entryRows.add(row);
+                }
+                headers.add(entry.getHeader());
+                for (String[] entryRow : entryRows) {
+                    rows.add(entryRow);
+                    rowHeaders.add(headers.size() - 1);
+                }
+            } catch (IOException e) {
+                log.warn("{} cached entry for {} unreadable, dropping it: {}", query.label(), id, e.getMessage());
+                cache.remove(key);
+                missing.add(id);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            if (cache.isReplay()) {
+                throw new IOException(query.label() + " not in TAP cache (replay mode): "
+                        + missing.size() + " of " + ids.values().size() + " ids");
+            }
+            List<String> header = new ArrayList<>();
+            List<String[]> fetched = new ArrayList<>();
+            request(query.label(), query.baseUrl(), ids.adql().apply(missing), response -> {
+                header.addAll(response.getHeader());
+                String[] row;
+                while ((row = response.next()) != null) {
+                    fetched.add(row);
+                }
+                return null;
+            }, null);
+            storePerId(query, ids, missing, header, fetched);
+            headers.add(header);
+            for (String[] row : fetched) {
+                rows.add(row);
+                rowHeaders.add(headers.size() - 1);
+            }
+        }
+        if (missing.size() < ids.values().size()) {
+            log.debug("{}: {} of {} ids read from TAP cache", query.label(),
+                    ids.values().size() - missing.size(), ids.values().size());
+        }
+
+        // the latest header wins; entries stored by an older run may order their columns differently
+        List<String> header = List.of();
+        for (List<String> candidate : headers) {
+            if (!candidate.isEmpty()) {
+                header = candidate;
+            }
+        }
+        StringBuilder csv = new StringBuilder();
+        if (!header.isEmpty()) {
+            appendCsvRow(csv, header.toArray(new String[0]));
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            appendCsvRow(csv, arrange(rows.get(i), headers.get(rowHeaders.get(i)), header));
+        }
+        try (TapCsvReader combined = new TapCsvReader(new StringReader(csv.toString()))) {
+            return query.parser().parse(combined);
+        }
+    }
+
+    /**
+     * Store the rows fetched for each id under the id's key, an empty answer included. Nothing
+     * is stored if the response has no id column, e.g. an error reported as a table.
+     */
+    private void storePerId(TapQuery<?> query, TapQuery.Ids ids, List<String> requested,
+                            List<String> header, List<String[]> rows) {
+        int idColumn = indexOf(header, ids.column());
+        if (idColumn < 0) {
+            log.warn("{} response has no {} column, not cached: {}", query.label(), ids.column(), header);
+            return;
+        }
+        Map<String, StringBuilder> entries = new LinkedHashMap<>();
+        for (String id : requested) {
+            StringBuilder entry = new StringBuilder();
+            appendCsvRow(entry, header.toArray(new String[0]));
+            entries.put(id, entry);
+        }
+        for (String[] row : rows) {
+            if (idColumn < row.length) {
+                StringBuilder entry = entries.get(ids.normalizer().apply(row[idColumn]));
+                if (entry != null) {
+                    appendCsvRow(entry, row);
+                }
+            }
+        }
+        for (Map.Entry<String, StringBuilder> entry : entries.entrySet()) {
+            try {
+                cache.put(idKey(query.baseUrl(), ids, entry.getKey()),
+                        entry.getValue().toString().getBytes(StandardCharsets.UTF_8));
+            } catch (IOException e) {
+                log.warn("{} entry for {} will not be cached: {}", query.label(), entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Send one query to the service, retrying as needed, and parse the response as it streams in.
+     *
+     * @param recordKey the key to record the response under, or null not to record it
+     */
+    private <R> R request(String label,
+                          String baseUrl,
+                          String adql,
+                          TapQuery.Parser<R> parser,
+                          @Nullable String recordKey) throws IOException, InterruptedException {
+        String body = "REQUEST=doQuery&LANG=ADQL&FORMAT=csv&QUERY="
+                + URLEncoder.encode(adql, StandardCharsets.UTF_8);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/sync"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .timeout(requestTimeout)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+
+        IOException lastException = null;
+        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+            HttpResponse<InputStream> response;
+            try {
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            } catch (IOException e) {
+                lastException = e;
+                log.warn("{} connection error on attempt {}: {}", label, attempt, e.getMessage());
+                backOff(attempt);
+                continue;
+            }
+
+            int status = response.statusCode();
+            log.info("{} sync status: {} (attempt {})", label, status, attempt);
+            try (InputStream stream = response.body()) {
+                if (status >= 200 && status < 300) {
+                    InputStream content = recording(label, recordKey, stream);
+                    try (TapCsvReader rows = new TapCsvReader(new InputStreamReader(content, StandardCharsets.UTF_8))) {
+                        R result = parser.parse(rows);
+                        // read to the end so the recording is complete
+                        content.transferTo(OutputStream.nullOutputStream());
+                        return result;
+                    } catch (IOException e) {
+                        // the response broke off mid-stream
+                        lastException = e;
+                        log.warn("{} read error on attempt {}: {}", label, attempt, e.getMessage());
+                        backOff(attempt);
+                        continue;
+                    }
+                }
+                if (status == 429 || status >= 500) {
+                    // rate limited or server error
+                    lastException = new IOException(label + " sync failed. HTTP " + status);
+                    log.warn("{} got {} on attempt {}", label, status, attempt);
+                    backOff(attempt);
+                    continue;
+                }
+                // other client errors will not get better by retrying
+                String preview = new String(stream.readNBytes(ERROR_PREVIEW_CHARS), StandardCharsets.UTF_8);
+                log.error("{} sync error body: {}", label, preview);
+                throw new IOException(label + " sync failed. HTTP " + status);
+            }
+        }
+        log.error("{} failed after {} attempts", label, MAX_RETRIES);
+        throw lastException != null ? lastException : new IOException(label + " failed after retries");
+    }
+
+    /**
+     * The response, recorded into the cache if there is one; caching problems never fail a query.
+     */
+    private InputStream recording(String label, @Nullable String recordKey, InputStream stream) {
+        if (cache == null || recordKey == null) {
+            return stream;
+        }
+        try {
+            return cache.record(recordKey, stream);
+        } catch (IOException e) {
+            log.warn("{} response will not be cached: {}", label, e.getMessage());
+            return stream;
+        }
+    }
+
+    private boolean isCached(TapQuery<?> query) {
+        TapQuery.Ids ids = query.ids();
+        if (ids == null) {
+            return cache.contains(cacheKey(query));
+        }
+        for (String id : ids.values()) {
+            if (!cache.contains(idKey(query.baseUrl(), ids, id))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String cacheKey(TapQuery<?> query) {
+        return TapResponseCache.key(query.baseUrl(), query.adql());
+    }
+
+    /**
+     * An id's entry is keyed by the query asking for that id alone, so it does not depend on
+     * which batch the id was fetched in.
+     */
+    private static String idKey(String baseUrl, TapQuery.Ids ids, String id) {
+        return TapResponseCache.key(baseUrl, ids.adql().apply(List.of(id)));
+    }
+
+    private static int indexOf(List<String> header, String column) {
+        for (int i = 0; i < header.size(); i++) {
+            if (header.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The row's values in the order of {@code target}, empty where its header lacks a column.
+     */
+    private static String[] arrange(String[] row, List<String> header, List<String> target) {
+        if (header.equals(target)) {
+            return row;
+        }
+        String[] arranged = new String[target.size()];
+        for (int i = 0; i < target.size(); i++) {
+            int index = indexOf(header, target.get(i));
+            arranged[i] = index >= 0 && index < row.length ? row[index] : "";
+        }
+        return arranged;
+    }
+
+    /**
+     * Append a CSV row with every field quoted, as {@link TapCsvReader} reads it back.
+     */
+    private static void appendCsvRow(StringBuilder csv, String[] fields) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                csv.append(',');
+            }
+            csv.append('"').append(fields[i].replace("\"", "\"\"")).append('"');
+        }
+        csv.append('\n');
+    }
+
+    private void backOff(int attempt) throws InterruptedException {
+        if (attempt < MAX_RETRIES) {
+            Thread.sleep(retryDelay.multipliedBy(attempt));
+        }
+    }
+}
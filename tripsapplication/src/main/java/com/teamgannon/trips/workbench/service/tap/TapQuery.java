@@ -0,0 +1,82 @@
+package com.teamgannon.trips.workbench.service.tap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * One synchronous ADQL query for {@link TapFetchPipeline}, with what to do with its answer.
+ * <p>
+ * The parser runs on the fetching thread, over the response as it streams in. The result
+ * and failure handlers run on the thread that called {@link TapFetchPipeline#run}, one at
+ * a time, so they may update shared state and write to the database without locking.
+ * <p>
+ * A query that looks up a batch of ids can say so with {@link Ids}. Its response is then
+ * cached per id rather than per batch, so a later run finds each star's answer, including
+ * an empty one, whichever batch the star falls in.
+ *
+ * @param label     name for logs and status messages, e.g. "Gaia TAP batch 3/12"
+ * @param baseUrl   the TAP service, without {@code /sync}
+ * @param adql      the query
+ * @param parser    turns the response rows into a result
+ * @param onResult  called with the parsed result
+ * @param onFailure called instead if the query failed after its retries
+ * @param ids       the ids the query looks up, or null to cache the response as a whole
+ * @param <R>       the parsed result
+ */
+public record TapQuery<R>(@NotNull String label,
+                          @NotNull String baseUrl,
+                          @NotNull String adql,
+                          @NotNull Parser<R> parser,
+                          @NotNull Consumer<R> onResult,
+                          @NotNull Consumer<IOException> onFailure,
+                          @Nullable Ids ids) {
+
+    public TapQuery(@NotNull String label,
+                    @NotNull String baseUrl,
+                    @NotNull String adql,
+                    @NotNull Parser<R> parser,
+                    @NotNull Consumer<R> onResult,
+                    @NotNull Consumer<IOException> onFailure) {
+        this(label, baseUrl, adql, parser, onResult, onFailure, null);
+    }
+
+    /**
+     * A query for a batch of ids, cached per id.
+     */
+    public static <R> @NotNull TapQuery<R> forIds(@NotNull String label,
+                                                  @NotNull String baseUrl,
+                                                  @NotNull Ids ids,
+                                                  @NotNull Parser<R> parser,
+                                                  @NotNull Consumer<R> onResult,
+                                                  @NotNull Consumer<IOException> onFailure) {
+        return new TapQuery<>(label, baseUrl, ids.adql().apply(ids.values()), parser, onResult, onFailure, ids);
+    }
+
+    /**
+     * The ids a batched query looks up.
+     *
+     * @param column     the response column holding the id
+     * @param values     the ids, as {@code normalizer} returns them
+     * @param normalizer turns a value of the id column into an id
+     * @param adql       builds the query for some of the ids; the query for one id names its cache entry
+     */
+    public record Ids(@NotNull String column,
+                      @NotNull List<String> values,
+                      @NotNull UnaryOperator<String> normalizer,
+                      @NotNull Function<List<String>, String> adql) {
+    }
+
+    /**
+     * Reads a TAP response into a result.
+     */
+    @FunctionalInterface
+    public interface Parser<R> {
+        R parse(@NotNull TapCsvReader rows) throws IOException;
+    }
+}
@@ -0,0 +1,59 @@
+package com.teamgannon.trips.workbench.service.tap;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket limiting how often TAP requests start.
+ * <p>
+ * Tokens refill at a fixed rate up to the bucket's capacity and each request takes one.
+ * A caller finding the bucket empty reserves the next token anyway and sleeps until it is
+ * due, so concurrent callers are spaced out in arrival order rather than all waking at once.
+ */
+public final class TapRateLimiter {
+
+    private final double nanosPerToken;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    private TapRateLimiter(double nanosPerToken, int capacity) {
+        this.nanosPerToken = nanosPerToken;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * A limiter starting one request per interval on average.
+     *
+     * @param intervalMs milliseconds per request; 0 or less for no limit
+     * @param burst      requests that may start back to back after an idle spell
+     */
+    public static TapRateLimiter everyMillis(long intervalMs, int burst) {
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1: " + burst);
+        }
+        return new TapRateLimiter(Math.max(0, intervalMs) * 1_000_000.0, burst);
+    }
+
+    /**
+     * Take a token, sleeping until one is available.
+     */
+    public void acquire() throws InterruptedException {
+        if (nanosPerToken == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) / nanosPerToken);
+            lastRefillNanos = now;
+            tokens -= 1;
+            waitNanos = tokens >= 0 ? 0 : (long) (-tokens * nanosPerToken);
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
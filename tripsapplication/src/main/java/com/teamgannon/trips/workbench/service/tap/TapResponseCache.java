@@ -0,0 +1,367 @@
+package com.teamgannon.trips.workbench.service.tap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-disk cache of TAP query responses, so re-running an enrichment reads from disk what an
+ * earlier run already fetched.
+ * <p>
+ * Each response is stored as it was received, in a file named by the SHA-256 of the service
+ * URL and the ADQL; the response to a lookup of several ids is instead stored per id, under
+ * the ADQL that asks for that id alone (see {@link TapQuery.Ids}). Only responses read
+ * through to the end are kept, so an interrupted download never leaves a partial entry.
+ * When the total size passes the limit, the least recently used entries are deleted; use is
+ * tracked in memory and, across runs, by the files' modification times.
+ * <p>
+ * In {@link Mode#REPLAY} mode a query not in the cache fails instead of going to the network.
+ * <p>
+ * Thread-safe: entries are read and recorded concurrently by the pipeline's fetchers.
+ */
+@Slf4j
+public final class TapResponseCache {
+
+    /**
+     * Sub-directory of the workbench cache holding the responses.
+     */
+    public static final String DIRECTORY_NAME = "tap-responses";
+
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+
+    private static final String ENTRY_SUFFIX = ".csv";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    public enum Mode {
+        /**
+         * Serve hits from disk, fetch and store misses.
+         */
+        READ_WRITE,
+        /**
+         * Serve hits from disk, fail misses without a request.
+         */
+        REPLAY
+    }
+
+    private final Path directory;
+    private final long maxBytes;
+    private final Mode mode;
+
+    // key -> size in bytes, least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long sizeBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private TapResponseCache(Path directory, long maxBytes, Mode mode) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.mode = mode;
+    }
+
+    /**
+     * Open the cache under a workbench cache directory, creating it if needed.
+     *
+     * @param cacheDir the workbench cache directory
+     * @param maxBytes most bytes of responses to keep
+     * @param mode     whether misses may be fetched
+     */
+    public static @NotNull TapResponseCache open(@NotNull Path cacheDir, long maxBytes, @NotNull Mode mode) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        Path directory = cacheDir.resolve(DIRECTORY_NAME);
+        Files.createDirectories(directory);
+        TapResponseCache cache = new TapResponseCache(directory, maxBytes, mode);
+        cache.load();
+        return cache;
+    }
+
+    /**
+     * The cache key of a query: its service and ADQL, hashed.
+     */
+    public static @NotNull String key(@NotNull String baseUrl, @NotNull String adql) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(baseUrl.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(adql.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public @NotNull Mode getMode() {
+        return mode;
+    }
+
+    public boolean isReplay() {
+        return mode == Mode.REPLAY;
+    }
+
+    public synchronized boolean contains(@NotNull String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Open a cached response and mark it as recently used.
+     *
+     * @return the response, or null if it is not cached
+     */
+    public @Nullable InputStream get(@NotNull String key) throws IOException {
+        synchronized (this) {
+            if (entries.get(key) == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+        }
+        Path path = entryPath(key);
+        try {
+            InputStream stream = Files.newInputStream(path);
+            touch(path);
+            hits.incrementAndGet();
+            return stream;
+        } catch (NoSuchFileException e) {
+            // deleted behind our back
+            forget(key);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Wrap a response so that it is stored under the key once read to the end and closed.
+     * Closing it early discards what was read.
+     */
+    public @NotNull InputStream record(@NotNull String key, @NotNull InputStream response) throws IOException {
+        Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        return new RecordingInputStream(response, key, temp);
+    }
+
+    /**
+     * Store a response already held in memory, replacing any entry under the key.
+     */
+    public void put(@NotNull String key, byte @NotNull [] response) throws IOException {
+        Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        try {
+            Files.write(temp, response);
+            commit(key, temp);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Drop an entry, e.g. one that could not be parsed.
+     */
+    public void remove(@NotNull String key) {
+        forget(key);
+        try {
+            Files.deleteIfExists(entryPath(key));
+        } catch (IOException e) {
+            log.warn("Unable to delete TAP cache entry {}: {}", key, e.getMessage());
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    // =========================================================================
+    // Private Implementation
+    // =========================================================================
+
+    private record StoredEntry(String key, long size, FileTime lastUsed) {
+    }
+
+    /**
+     * Index the entries left by earlier runs, oldest use first, and clear out leftovers of
+     * interrupted recordings.
+     */
+    private void load() throws IOException {
+        List<StoredEntry> stored = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(ENTRY_SUFFIX)) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    String key = name.substring(0, name.length() - ENTRY_SUFFIX.length());
+                    stored.add(new StoredEntry(key, attributes.size(), attributes.lastModifiedTime()));
+                }
+            }
+        }
+        stored.sort(Comparator.comparing(StoredEntry::lastUsed));
+        synchronized (this) {
+            for (StoredEntry entry : stored) {
+                entries.put(entry.key(), entry.size());
+                sizeBytes += entry.size();
+            }
+            evict();
+        }
+        log.info("TAP cache {}: {} entries, {} bytes", directory, entries.size(), sizeBytes);
+    }
+
+    private void commit(String key, Path temp) throws IOException {
+        long size = Files.size(temp);
+        if (size > maxBytes) {
+            Files.deleteIfExists(temp);
+            return;
+        }
+        synchronized (this) {
+            Files.move(temp, entryPath(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Long previous = entries.put(key, size);
+            sizeBytes += size - (previous == null ? 0 : previous);
+            evict();
+        }
+    }
+
+    // caller holds the lock
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(entryPath(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Unable to evict TAP cache entry {}: {}", entry.getKey(), e.getMessage());
+                continue;
+            }
+            sizeBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    private synchronized void forget(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            sizeBytes -= size;
+        }
+    }
+
+    private void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // only the order of eviction in later runs suffers
+            log.debug("Unable to touch TAP cache entry {}: {}", path, e.getMessage());
+        }
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key + ENTRY_SUFFIX);
+    }
+
+    /**
+     * Copies what is read to a temporary file, committed to the cache on close if the
+     * response was read to the end.
+     */
+    private final class RecordingInputStream extends FilterInputStream {
+
+        private final String key;
+        private final Path temp;
+        private final OutputStream copy;
+        private boolean complete;
+        private boolean closed;
+
+        RecordingInputStream(InputStream in, String key, Path temp) throws IOException {
+            super(in);
+            this.key = key;
+            this.temp = temp;
+            this.copy = Files.newOutputStream(temp);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b < 0) {
+                complete = true;
+            } else {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte @NotNull [] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count < 0) {
+                complete = true;
+            } else {
+                copy.write(buffer, offset, count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // skipped bytes would be missing from the copy
+            byte[] discard = new byte[(int) Math.min(n, 8192)];
+            int count = read(discard, 0, discard.length);
+            return Math.max(count, 0);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                // a failure to store the copy must not fail the read that was made
+                try {
+                    copy.close();
+                    if (complete) {
+                        commit(key, temp);
+                    } else {
+                        Files.deleteIfExists(temp);
+                    }
+                } catch (IOException e) {
+                    log.warn("Unable to store TAP cache entry {}: {}", key, e.getMessage());
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+    }
+}
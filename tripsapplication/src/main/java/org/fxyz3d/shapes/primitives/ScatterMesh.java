@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.fxyz3d.scene.paint.Patterns;
 import org.fxyz3d.shapes.primitives.helper.MarkerFactory;
@@ -630,10 +631,20 @@ public class ScatterMesh extends Group implements TextureMode {
     private int verticesPerMarker = -1;
 
     /**
-     * Cached positions from last mesh build.
+     * Particle positions the mesh vertices currently sit at, as x, y, z per particle.
      * Used to calculate deltas for efficient updates.
      */
-    private List<Point3D> cachedPositions = null;
+    private float[] cachedCoordinates = null;
+
+    /**
+     * Staging copy of the mesh points, reused between bulk updates.
+     */
+    private float[] pointStaging = null;
+
+    /**
+     * Particle count from which the vertex offsets of a bulk update are computed in parallel.
+     */
+    private static final int PARALLEL_UPDATE_THRESHOLD = 20_000;
 
     /**
      * Updates particle positions efficiently without full mesh rebuild.
@@ -655,58 +666,93 @@ public class ScatterMesh extends Group implements TextureMode {
      */
     public boolean updatePositions(List<Point3D> newPositions) {
         // Validate preconditions for efficient update
-        if (!canUseEfficientUpdate(newPositions)) {
+        if (newPositions == null || !canUseEfficientUpdate(newPositions.size())) {
             // Fall back to full rebuild
             setScatterData(newPositions);
             return false;
         }
 
+        float[] coordinates = new float[newPositions.size() * 3];
+        for (int p = 0; p < newPositions.size(); p++) {
+            Point3D newPos = newPositions.get(p);
+            coordinates[p * 3] = newPos.x;
+            coordinates[p * 3 + 1] = newPos.y;
+            coordinates[p * 3 + 2] = newPos.z;
+        }
+        if (!updatePositions(coordinates)) {
+            setScatterData(newPositions);
+            return false;
+        }
+
+        // Update the property without triggering rebuild
+        scatterData.set(newPositions);
+
+        return true;
+    }
+
+    /**
+     * Updates particle positions in bulk, without full mesh rebuild.
+     * <p>
+     * The marker vertices are moved in a staging copy of the mesh points, which is then
+     * committed with a single {@code set}, so the mesh sees one change per update rather
+     * than one per vertex coordinate. Large fields compute the moves in parallel.
+     * <p>
+     * The scatter data is left as it is: the positions are only tracked to compute the
+     * next update, and a full rebuild returns the particles to the scatter data.
+     * The requirements are those of {@link #updatePositions(List)}, but nothing is
+     * rebuilt when they are not met.
+     *
+     * @param coordinates the new positions as x, y, z per particle (same count as original)
+     * @return true if the positions were updated, false if the mesh cannot be updated in place
+     */
+    public boolean updatePositions(float[] coordinates) {
+        if (coordinates == null || coordinates.length % 3 != 0 || !canUseEfficientUpdate(coordinates.length / 3)) {
+            return false;
+        }
+
         // Get the combined mesh
         TexturedMesh texturedMesh = meshes.get(0);
         TriangleMesh mesh = (TriangleMesh) texturedMesh.getMesh();
         if (mesh == null) {
-            setScatterData(newPositions);
             return false;
         }
 
         // Get the points array
         javafx.collections.ObservableFloatArray points = mesh.getPoints();
-
-        // Update each particle's vertices by applying delta
-        for (int p = 0; p < newPositions.size(); p++) {
-            Point3D oldPos = cachedPositions.get(p);
-            Point3D newPos = newPositions.get(p);
-
-            float dx = newPos.x - oldPos.x;
-            float dy = newPos.y - oldPos.y;
-            float dz = newPos.z - oldPos.z;
+        pointStaging = points.toArray(pointStaging);
+        float[] staging = pointStaging;
+        float[] cached = cachedCoordinates;
+
+        // Move each particle's vertices by its delta
+        int particleCount = coordinates.length / 3;
+        IntStream particles = IntStream.range(0, particleCount);
+        if (particleCount >= PARALLEL_UPDATE_THRESHOLD) {
+            particles = particles.parallel();
+        }
+        particles.forEach(p -> {
+            int c = p * 3;
+            float dx = coordinates[c] - cached[c];
+            float dy = coordinates[c + 1] - cached[c + 1];
+            float dz = coordinates[c + 2] - cached[c + 2];
 
             // Skip if no change
             if (dx == 0 && dy == 0 && dz == 0) {
-                continue;
+                return;
             }
 
             // Update all vertices for this particle
             int baseIdx = p * verticesPerMarker * 3;
             for (int v = 0; v < verticesPerMarker; v++) {
                 int idx = baseIdx + v * 3;
-                points.set(idx, points.get(idx) + dx);
-                points.set(idx + 1, points.get(idx + 1) + dy);
-                points.set(idx + 2, points.get(idx + 2) + dz);
+                staging[idx] += dx;
+                staging[idx + 1] += dy;
+                staging[idx + 2] += dz;
             }
-        }
+        });
 
-        // Update cached positions (copy the new positions)
-        for (int i = 0; i < newPositions.size(); i++) {
-            Point3D newPos = newPositions.get(i);
-            Point3D cached = cachedPositions.get(i);
-            cached.x = newPos.x;
-            cached.y = newPos.y;
-            cached.z = newPos.z;
-        }
-
-        // Update the property without triggering rebuild
-        scatterData.set(newPositions);
+        // Commit all vertices at once
+        points.set(0, staging, 0, points.size());
+        System.arraycopy(coordinates, 0, cached, 0, coordinates.length);
 
         return true;
     }
@@ -714,7 +760,7 @@ public class ScatterMesh extends Group implements TextureMode {
     /**
      * Checks if efficient position update can be used.
      */
-    private boolean canUseEfficientUpdate(List<Point3D> newPositions) {
+    private boolean canUseEfficientUpdate(int particleCount) {
         // Must be in joined segments mode
         if (!joinSegments.get()) {
             return false;
@@ -726,16 +772,12 @@ public class ScatterMesh extends Group implements TextureMode {
         }
 
         // Must have cached info from previous build
-        if (verticesPerMarker <= 0 || cachedPositions == null) {
+        if (verticesPerMarker <= 0 || cachedCoordinates == null) {
             return false;
         }
 
         // Particle count must match
-        if (newPositions == null || newPositions.size() != cachedPositions.size()) {
-            return false;
-        }
-
-        return true;
+        return particleCount == cachedCoordinates.length / 3;
     }
 
     /**
@@ -749,11 +791,11 @@ public class ScatterMesh extends Group implements TextureMode {
      * @return true if update was successful, false if index out of bounds
      */
     public boolean updateParticlePosition(int particleIndex, Point3D newPosition) {
-        if (!canUseEfficientUpdate(cachedPositions)) {
+        if (!canUseEfficientUpdate(getParticleCount())) {
             return false;
         }
 
-        if (particleIndex < 0 || particleIndex >= cachedPositions.size()) {
+        if (particleIndex < 0 || particleIndex >= getParticleCount()) {
             return false;
         }
 
@@ -763,10 +805,10 @@ public class ScatterMesh extends Group implements TextureMode {
             return false;
         }
 
-        Point3D oldPos = cachedPositions.get(particleIndex);
-        float dx = newPosition.x - oldPos.x;
-        float dy = newPosition.y - oldPos.y;
-        float dz = newPosition.z - oldPos.z;
+        int c = particleIndex * 3;
+        float dx = newPosition.x - cachedCoordinates[c];
+        float dy = newPosition.y - cachedCoordinates[c + 1];
+        float dz = newPosition.z - cachedCoordinates[c + 2];
 
         if (dx == 0 && dy == 0 && dz == 0) {
             return true; // No change needed
@@ -783,9 +825,9 @@ public class ScatterMesh extends Group implements TextureMode {
         }
 
         // Update cached position
-        oldPos.x = newPosition.x;
-        oldPos.y = newPosition.y;
-        oldPos.z = newPosition.z;
+        cachedCoordinates[c] = newPosition.x;
+        cachedCoordinates[c + 1] = newPosition.y;
+        cachedCoordinates[c + 2] = newPosition.z;
 
         return true;
     }
@@ -806,7 +848,7 @@ public class ScatterMesh extends Group implements TextureMode {
      * @return particle count, or 0 if no mesh exists
      */
     public int getParticleCount() {
-        return cachedPositions != null ? cachedPositions.size() : 0;
+        return cachedCoordinates != null ? cachedCoordinates.length / 3 : 0;
     }
 
     /**
@@ -815,14 +857,14 @@ public class ScatterMesh extends Group implements TextureMode {
     private void cacheMeshInfo() {
         if (!joinSegments.get() || meshes == null || meshes.isEmpty()) {
             verticesPerMarker = -1;
-            cachedPositions = null;
+            cachedCoordinates = null;
             return;
         }
 
         List<Point3D> data = scatterData.get();
         if (data == null || data.isEmpty()) {
             verticesPerMarker = -1;
-            cachedPositions = null;
+            cachedCoordinates = null;
             return;
         }
 
@@ -833,10 +875,13 @@ public class ScatterMesh extends Group implements TextureMode {
             int totalVertices = mesh.getPoints().size() / 3;
             verticesPerMarker = totalVertices / data.size();
 
-            // Cache positions (make copies to track deltas)
-            cachedPositions = new ArrayList<>(data.size());
-            for (Point3D p : data) {
-                cachedPositions.add(new Point3D(p.x, p.y, p.z, p.f, p.colorIndex));
+            // Cache positions (copies, to track deltas)
+            cachedCoordinates = new float[data.size() * 3];
+            for (int i = 0; i < data.size(); i++) {
+                Point3D p = data.get(i);
+                cachedCoordinates[i * 3] = p.x;
+                cachedCoordinates[i * 3 + 1] = p.y;
+                cachedCoordinates[i * 3 + 2] = p.z;
             }
         }
     }
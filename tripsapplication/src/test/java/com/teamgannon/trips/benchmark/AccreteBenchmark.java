@@ -0,0 +1,47 @@
+package com.teamgannon.trips.benchmark;
+
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.solarsysmodelling.accrete.StarSystem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for Accrete solar system generation ({@link StarSystem}).
+ * <p>
+ * Accrete draws from its own random source, so each invocation grows a different system;
+ * the average over many invocations is what is tracked.
+ *
+ * Run with:
+ *   ./mvnw-java25.sh test -Pbenchmark -Dbenchmark.class=AccreteBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class AccreteBenchmark {
+
+    @Param({"G2V", "K5V", "M3V"})
+    private String spectralClass;
+
+    @Param({"false", "true"})
+    private boolean doMoons;
+
+    private StarObject star;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        star = new StarObject();
+        star.setId("bench-star");
+        star.setDisplayName("Bench " + spectralClass);
+        star.setSpectralClass(spectralClass);
+        star.setOrthoSpectralClass(spectralClass);
+    }
+
+    @Benchmark
+    public StarSystem generateStarSystem() {
+        return new StarSystem(star, doMoons, false, false);
+    }
+}
@@ -0,0 +1,253 @@
+package com.teamgannon.trips.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Stores JMH results as per-machine baselines and compares new runs against them.
+ * <p>
+ * Baselines live in {@code benchmarks/baselines/<profile>.json} in the JMH JSON format, one
+ * file per machine profile, so numbers are only ever compared with runs on the same kind of
+ * machine. A result is identified by its benchmark method and parameters; saving merges the
+ * new results into the profile's baseline, so running a subset of benchmarks only updates
+ * those entries.
+ * <p>
+ * Usage (normally through the {@code benchmark-compare} Maven profile):
+ * <pre>
+ *   BenchmarkBaselines compare|save &lt;jmh-result.json&gt; &lt;baseline dir&gt; &lt;profile|auto&gt; &lt;threshold %&gt;
+ * </pre>
+ * Compare exits with status 1 when any benchmark is slower than its baseline by more than
+ * the threshold.
+ */
+public final class BenchmarkBaselines {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * One benchmark result.
+     *
+     * @param key   benchmark method and parameters
+     * @param mode  JMH mode (thrpt, avgt, sample, ss)
+     * @param score the primary metric score
+     * @param error the primary metric error (99.9% confidence half-width)
+     * @param unit  the score unit
+     */
+    public record Result(String key, String mode, double score, double error, String unit) {
+
+        /**
+         * Returns true if a higher score is better (throughput), false if lower is better (time).
+         */
+        public boolean higherIsBetter() {
+            return "thrpt".equals(mode);
+        }
+    }
+
+    /**
+     * Comparison of one benchmark against its baseline.
+     *
+     * @param key             benchmark method and parameters
+     * @param baseline        the baseline result
+     * @param current         the new result
+     * @param slowdownPercent how much slower the new result is, negative when faster
+     * @param regression      true if the slowdown exceeds the threshold
+     */
+    public record Comparison(String key, Result baseline, Result current,
+                             double slowdownPercent, boolean regression) {
+    }
+
+    private BenchmarkBaselines() {
+        // Utility class - no instantiation
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5) {
+            System.err.println("usage: BenchmarkBaselines compare|save <jmh-result.json> <baseline dir> <profile|auto> <threshold %>");
+            System.exit(2);
+        }
+        String command = args[0];
+        Path resultFile = Path.of(args[1]);
+        Path baselineFile = Path.of(args[2]).resolve(resolveProfile(args[3]) + ".json");
+        double threshold = Double.parseDouble(args[4]);
+
+        if (!Files.exists(resultFile)) {
+            System.err.println("No JMH results at " + resultFile + ", run with -Pbenchmark first");
+            System.exit(2);
+        }
+
+        switch (command) {
+            case "save" -> {
+                int saved = save(resultFile, baselineFile);
+                System.out.printf("Saved %d results to baseline %s%n", saved, baselineFile);
+            }
+            case "compare" -> {
+                if (!Files.exists(baselineFile)) {
+                    System.err.println("No baseline at " + baselineFile + ", save one with -Dbenchmark.baseline.mode=save");
+                    System.exit(2);
+                }
+                List<Comparison> comparisons = compare(read(baselineFile), read(resultFile), threshold);
+                System.out.print(report(comparisons, threshold, baselineFile));
+                if (comparisons.stream().anyMatch(Comparison::regression)) {
+                    System.exit(1);
+                }
+            }
+            default -> {
+                System.err.println("Unknown command: " + command);
+                System.exit(2);
+            }
+        }
+    }
+
+    // =========================================================================
+    // Machine Profile
+    // =========================================================================
+
+    /**
+     * Returns the profile name, deriving it from the machine when {@code auto}.
+     */
+    public static String resolveProfile(String profile) {
+        if (profile == null || profile.isBlank() || profile.equals("auto")) {
+            return machineProfile();
+        }
+        return profile;
+    }
+
+    /**
+     * Describes this machine as os-arch-cpus-jdk, e.g. {@code mac-os-x-aarch64-10cpu-jdk25}.
+     */
+    public static String machineProfile() {
+        String raw = String.format("%s-%s-%dcpu-jdk%d",
+                System.getProperty("os.name"),
+                System.getProperty("os.arch"),
+                Runtime.getRuntime().availableProcessors(),
+                Runtime.version().feature());
+        return raw.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9.-]+", "-");
+    }
+
+    // =========================================================================
+    // Reading and Saving
+    // =========================================================================
+
+    /**
+     * Reads a JMH JSON result file keyed by benchmark and parameters.
+     */
+    public static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode node : MAPPER.readTree(file.toFile())) {
+            Result result = toResult(node);
+            results.put(result.key(), result);
+        }
+        return results;
+    }
+
+    /**
+     * Merges a JMH result file into a baseline file, replacing entries with the same key.
+     *
+     * @return the number of results saved
+     */
+    public static int save(Path resultFile, Path baselineFile) throws IOException {
+        Map<String, JsonNode> merged = new TreeMap<>();
+        if (Files.exists(baselineFile)) {
+            for (JsonNode node : MAPPER.readTree(baselineFile.toFile())) {
+                merged.put(key(node), node);
+            }
+        }
+        int saved = 0;
+        for (JsonNode node : MAPPER.readTree(resultFile.toFile())) {
+            merged.put(key(node), node);
+            saved++;
+        }
+
+        ArrayNode array = MAPPER.createArrayNode();
+        merged.values().forEach(array::add);
+        Files.createDirectories(baselineFile.toAbsolutePath().getParent());
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(baselineFile.toFile(), array);
+        return saved;
+    }
+
+    private static Result toResult(JsonNode node) {
+        JsonNode metric = node.path("primaryMetric");
+        double error = metric.path("scoreError").asDouble(0);
+        return new Result(key(node),
+                node.path("mode").asText(),
+                metric.path("score").asDouble(),
+                Double.isFinite(error) ? error : 0,
+                metric.path("scoreUnit").asText());
+    }
+
+    private static String key(JsonNode node) {
+        String benchmark = node.path("benchmark").asText();
+        JsonNode params = node.path("params");
+        if (params.isMissingNode() || params.isEmpty()) {
+            return benchmark;
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        params.fields().forEachRemaining(entry -> sorted.put(entry.getKey(), entry.getValue().asText()));
+        return benchmark + sorted;
+    }
+
+    // =========================================================================
+    // Comparison
+    // =========================================================================
+
+    /**
+     * Compares every current result that has a baseline.
+     * <p>
+     * A result regresses when it is slower than the baseline by more than the threshold
+     * and the gap is larger than the two error bars combined, so noisy benchmarks are not
+     * flagged on variance alone.
+     *
+     * @param baseline         the baseline results
+     * @param current          the new results
+     * @param thresholdPercent the allowed slowdown in percent
+     * @return one comparison per result present in both
+     */
+    public static List<Comparison> compare(Map<String, Result> baseline,
+                                           Map<String, Result> current,
+                                           double thresholdPercent) {
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Result now : current.values()) {
+            Result before = baseline.get(now.key());
+            if (before == null || !before.mode().equals(now.mode())
+                    || !before.unit().equals(now.unit()) || before.score() == 0) {
+                continue;
+            }
+            double worse = now.higherIsBetter()
+                    ? before.score() - now.score()
+                    : now.score() - before.score();
+            double slowdown = 100.0 * worse / before.score();
+            boolean regression = slowdown > thresholdPercent
+                    && worse > before.error() + now.error();
+            comparisons.add(new Comparison(now.key(), before, now, slowdown, regression));
+        }
+        return comparisons;
+    }
+
+    /**
+     * Formats the comparisons as a text table, regressions marked.
+     */
+    public static String report(List<Comparison> comparisons, double thresholdPercent, Path baselineFile) {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("Benchmark comparison against %s (threshold %.1f%%)%n", baselineFile, thresholdPercent));
+        int regressions = 0;
+        for (Comparison c : comparisons) {
+            if (c.regression()) {
+                regressions++;
+            }
+            out.append(String.format("%-10s %-90s %12.3f -> %12.3f %-8s %+7.1f%%%n",
+                    c.regression() ? "REGRESSED" : "ok",
+                    c.key(),
+                    c.baseline().score(),
+                    c.current().score(),
+                    c.current().unit(),
+                    c.slowdownPercent()));
+        }
+        out.append(String.format("%d compared, %d regressions%n", comparisons.size(), regressions));
+        return out.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package com.teamgannon.trips.benchmark;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BenchmarkBaselines.
+ */
+class BenchmarkBaselinesTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static String entry(String benchmark, String mode, double score, String error, String params) {
+        return """
+                {"benchmark": "%s", "mode": "%s", "params": {%s},
+                 "primaryMetric": {"score": %s, "scoreError": %s, "scoreUnit": "ms/op"}}"""
+                .formatted(benchmark, mode, params, score, error);
+    }
+
+    private Path write(String name, String... entries) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, "[" + String.join(",", entries) + "]");
+        return file;
+    }
+
+    // =========================================================================
+    // Comparison Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Comparison Tests")
+    class ComparisonTests {
+
+        @Test
+        @DisplayName("Slower average time beyond threshold and error is a regression")
+        void slowerIsRegression() throws IOException {
+            Map<String, BenchmarkBaselines.Result> baseline = BenchmarkBaselines.read(
+                    write("base.json", entry("a.B.run", "avgt", 10.0, "0.2", "")));
+            Map<String, BenchmarkBaselines.Result> current = BenchmarkBaselines.read(
+                    write("now.json", entry("a.B.run", "avgt", 12.0, "0.2", "")));
+
+            List<BenchmarkBaselines.Comparison> comparisons = BenchmarkBaselines.compare(baseline, current, 10);
+
+            assertEquals(1, comparisons.size());
+            assertTrue(comparisons.get(0).regression());
+            assertEquals(20.0, comparisons.get(0).slowdownPercent(), 1e-9);
+        }
+
+        @Test
+        @DisplayName("Lower throughput is a regression, higher is not")
+        void throughputDirection() throws IOException {
+            Map<String, BenchmarkBaselines.Result> baseline = BenchmarkBaselines.read(write("base.json",
+                    entry("a.B.up", "thrpt", 100.0, "1", ""),
+                    entry("a.B.down", "thrpt", 100.0, "1", "")));
+            Map<String, BenchmarkBaselines.Result> current = BenchmarkBaselines.read(write("now.json",
+                    entry("a.B.up", "thrpt", 150.0, "1", ""),
+                    entry("a.B.down", "thrpt", 50.0, "1", "")));
+
+            List<BenchmarkBaselines.Comparison> comparisons = BenchmarkBaselines.compare(baseline, current, 10);
+
+            assertFalse(comparisons.get(0).regression());
+            assertTrue(comparisons.get(1).regression());
+        }
+
+        @Test
+        @DisplayName("Slowdown inside the error bars is not a regression")
+        void noisyIsNotRegression() throws IOException {
+            Map<String, BenchmarkBaselines.Result> baseline = BenchmarkBaselines.read(
+                    write("base.json", entry("a.B.run", "avgt", 10.0, "2.0", "")));
+            Map<String, BenchmarkBaselines.Result> current = BenchmarkBaselines.read(
+                    write("now.json", entry("a.B.run", "avgt", 13.0, "2.0", "")));
+
+            assertFalse(BenchmarkBaselines.compare(baseline, current, 10).get(0).regression());
+        }
+
+        @Test
+        @DisplayName("Parameters are part of the key and NaN errors are tolerated")
+        void parametersAndNaN() throws IOException {
+            Map<String, BenchmarkBaselines.Result> baseline = BenchmarkBaselines.read(write("base.json",
+                    entry("a.B.run", "avgt", 10.0, "\"NaN\"", "\"size\": \"100\"")));
+            Map<String, BenchmarkBaselines.Result> current = BenchmarkBaselines.read(write("now.json",
+                    entry("a.B.run", "avgt", 50.0, "\"NaN\"", "\"size\": \"1000\"")));
+
+            assertTrue(BenchmarkBaselines.compare(baseline, current, 10).isEmpty());
+            assertEquals(0.0, baseline.values().iterator().next().error());
+        }
+    }
+
+    // =========================================================================
+    // Save Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Save Tests")
+    class SaveTests {
+
+        @Test
+        @DisplayName("Saving merges new results into the existing baseline")
+        void saveMerges() throws IOException {
+            Path baseline = tempDir.resolve("baselines").resolve("machine.json");
+            BenchmarkBaselines.save(write("first.json",
+                    entry("a.B.one", "avgt", 1.0, "0", ""),
+                    entry("a.B.two", "avgt", 2.0, "0", "")), baseline);
+
+            int saved = BenchmarkBaselines.save(write("second.json",
+                    entry("a.B.two", "avgt", 3.0, "0", "")), baseline);
+
+            Map<String, BenchmarkBaselines.Result> merged = BenchmarkBaselines.read(baseline);
+            assertEquals(1, saved);
+            assertEquals(2, merged.size());
+            assertEquals(1.0, merged.get("a.B.one").score());
+            assertEquals(3.0, merged.get("a.B.two").score());
+        }
+
+        @Test
+        @DisplayName("Explicit profile names are kept, auto resolves to the machine")
+        void profiles() {
+            assertEquals("ci-runner", BenchmarkBaselines.resolveProfile("ci-runner"));
+            assertEquals(BenchmarkBaselines.machineProfile(), BenchmarkBaselines.resolveProfile("auto"));
+            assertTrue(BenchmarkBaselines.machineProfile().matches("[a-z0-9.-]+"));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.teamgannon.trips.benchmark;
+
+import com.teamgannon.trips.config.application.Localization;
+import com.teamgannon.trips.dialogs.dataset.model.Dataset;
+import com.teamgannon.trips.dialogs.dataset.model.ExportOptions;
+import com.teamgannon.trips.file.csvin.RegCSVFile;
+import com.teamgannon.trips.file.csvin.RegularStarCatalogCsvReader;
+import com.teamgannon.trips.jpa.model.DataSetDescriptor;
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.jpa.repository.StarObjectRepository;
+import com.teamgannon.trips.routing.TransitGraphCache;
+import com.teamgannon.trips.service.BulkLoadService;
+import com.teamgannon.trips.service.StarService;
+import com.teamgannon.trips.service.bulkload.StarBulkInserter;
+import com.teamgannon.trips.service.export.ExportResults;
+import com.teamgannon.trips.service.export.tasks.CSVDataSetDataExportTask;
+import com.teamgannon.trips.service.model.ExportFileType;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
+import javafx.application.Platform;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * JMH benchmarks for CSV dataset import and export against an embedded in-memory H2 database.
+ * <p>
+ * A minimal Spring context (JPA repositories and {@link StarService}, no UI) is started per
+ * trial. Export streams a stored dataset through {@link CSVDataSetDataExportTask}; import
+ * parses that export with {@link RegularStarCatalogCsvReader} and bulk-saves the stars,
+ * either through Hibernate or with JDBC batches through {@link StarBulkInserter}, after
+ * which the imported dataset is deleted again. The export task reports progress
+ * through JavaFX, so the toolkit is started as well.
+ *
+ * Run with:
+ *   ./mvnw-java25.sh test -Pbenchmark -Dbenchmark.class=CsvImportExportBenchmark
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CsvImportExportBenchmark {
+
+    private static final String EXPORT_DATASET = "bench-export";
+    private static final String IMPORT_DATASET = "bench-import";
+    private static final String[] SPECTRAL_CLASSES = {"A0V", "F5V", "G2V", "K5V", "M3V"};
+
+    @Param({"10000", "50000"})
+    private int starCount;
+
+    private ConfigurableApplicationContext context;
+    private StarService starService;
+    private BulkLoadService bulkLoadService;
+    private StarObjectRepository starObjectRepository;
+    private TransactionTemplate transactionTemplate;
+    private DataSetDescriptor exportDescriptor;
+    private Path workDir;
+    private Path importFile;
+
+    /**
+     * Minimal context: JPA over the repository package plus the star service.
+     */
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @AutoConfigurationPackage(basePackages = "com.teamgannon.trips.jpa")
+    @Import({StarService.class, StarSnapshotService.class, StarBulkInserter.class,
+            TransitGraphCache.class, Localization.class})
+    static class BenchmarkContext {
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException e) {
+            // toolkit already running in this JVM
+        }
+
+        context = new SpringApplicationBuilder(BenchmarkContext.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:tripsbench;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.main.banner-mode=off",
+                        "--app.programdata=unknown",
+                        "--app.fileDirectory=unknown",
+                        "--app.scriptDirectory=unknown",
+                        "--logging.level.root=WARN");
+        starService = context.getBean(StarService.class);
+        // only the bulk insert is used; the rest of the load service stays out of the context
+        bulkLoadService = new BulkLoadService(starService, null, null, null,
+                context.getBean(StarSnapshotService.class), context.getBean(StarBulkInserter.class),
+                context.getBean(TransitGraphCache.class));
+        starObjectRepository = context.getBean(StarObjectRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        double[] xyz = StarFields.generate(StarFields.Shape.CLUSTERED, starCount,
+                StarFields.radiusForDensity(starCount, 0.004));
+        List<StarObject> batch = new ArrayList<>();
+        for (int i = 0; i < starCount; i++) {
+            batch.add(createStar(i, xyz));
+            if (batch.size() == 1000) {
+                starService.starBulkSave(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        starService.starBulkSave(batch);
+
+        exportDescriptor = new DataSetDescriptor();
+        exportDescriptor.setDataSetName(EXPORT_DATASET);
+
+        workDir = Files.createTempDirectory("trips-csv-bench");
+        ExportResults results = export(workDir.resolve("import-source"));
+        if (!results.isSuccess()) {
+            throw new IllegalStateException("Could not create import file: " + results.getMessage());
+        }
+        importFile = workDir.resolve("import-source.trips.csv");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (workDir != null) {
+            try (Stream<Path> files = Files.walk(workDir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteImportedStars() {
+        transactionTemplate.executeWithoutResult(status ->
+                starObjectRepository.deleteByDataSetName(IMPORT_DATASET));
+    }
+
+    // ============== Benchmarks ==============
+
+    @Benchmark
+    public ExportResults exportCsv() throws Exception {
+        return export(workDir.resolve("export-" + UUID.randomUUID()));
+    }
+
+    @Benchmark
+    public RegCSVFile importCsv() {
+        return new RegularStarCatalogCsvReader(null, starService)
+                .loadFile(message -> { }, importFile.toFile(), importDataset());
+    }
+
+    @Benchmark
+    public RegCSVFile importCsvJdbc() {
+        return new RegularStarCatalogCsvReader(null, starService, bulkLoadService)
+                .loadFile(message -> { }, importFile.toFile(), importDataset());
+    }
+
+    // ============== Helpers ==============
+
+    private static Dataset importDataset() {
+        Dataset dataset = new Dataset();
+        dataset.setName(IMPORT_DATASET);
+        dataset.setAuthor("benchmark");
+        dataset.setNotes("");
+        return dataset;
+    }
+
+    private ExportResults export(Path baseName) throws Exception {
+        CSVDataSetDataExportTask task = new CSVDataSetDataExportTask(
+                ExportOptions.builder()
+                        .doExport(true)
+                        .exportFormat(ExportFileType.CSV)
+                        .fileName(baseName.toString())
+                        .dataset(exportDescriptor)
+                        .build(),
+                null,
+                starService);
+        task.run();
+        return task.get();
+    }
+
+    private static StarObject createStar(int index, double[] xyz) {
+        StarObject star = new StarObject();
+        star.setId(UUID.randomUUID().toString());
+        star.setDataSetName(EXPORT_DATASET);
+        star.setDisplayName("Star " + index);
+        star.setX(xyz[index * 3]);
+        star.setY(xyz[index * 3 + 1]);
+        star.setZ(xyz[index * 3 + 2]);
+        star.setDistance(Math.sqrt(xyz[index * 3] * xyz[index * 3]
+                + xyz[index * 3 + 1] * xyz[index * 3 + 1]
+                + xyz[index * 3 + 2] * xyz[index * 3 + 2]));
+        star.setRealStar(true);
+        star.setCommonName("");
+        star.setConstellationName("");
+        star.setSpectralClass(SPECTRAL_CLASSES[index % SPECTRAL_CLASSES.length]);
+        star.setOrthoSpectralClass(star.getSpectralClass());
+        star.setNotes("");
+        star.setSource("benchmark");
+        star.getCatalogIds().initDefaults();
+        star.getWorldBuilding().initDefaults();
+        return star;
+    }
+}
@@ -0,0 +1,153 @@
+package com.teamgannon.trips.benchmark;
+
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.jpa.repository.ExoPlanetRepository;
+import com.teamgannon.trips.jpa.repository.StarObjectRepository;
+import com.teamgannon.trips.nightsky.model.AtmosphereModel;
+import com.teamgannon.trips.nightsky.model.LevelOfDetail;
+import com.teamgannon.trips.nightsky.model.NightSkyRequest;
+import com.teamgannon.trips.nightsky.model.NightSkyResult;
+import com.teamgannon.trips.nightsky.model.SkyCandidateSet;
+import com.teamgannon.trips.nightsky.model.SkyFrame;
+import com.teamgannon.trips.nightsky.service.*;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JMH benchmarks for the night-sky pipeline ({@link NightSkyService#computeNightSky}).
+ * <p>
+ * The real services run end to end; only the repositories are replaced by an in-memory
+ * star list, so the benchmark measures candidate conversion, horizon transform,
+ * photometry, sorting and caching rather than database access. The host star and planet
+ * are unknown, so the observer sits at the origin with the default attitude.
+ * <p>
+ * {@code snapshot} switches candidate retrieval between the columnar star snapshot
+ * and streaming {@code StarObject} entities.
+ * <p>
+ * {@code computeNightSkyNextMinute} advances the clock on every invocation, so each call
+ * misses the result cache but finds the candidate stars cached, as when scrubbing time.
+ * <p>
+ * {@code computeSkyFrame} measures the streaming per-frame path: candidates are prepared
+ * once and each invocation projects them into a reused {@link SkyFrame}, as an animation would.
+ *
+ * Run with:
+ *   ./mvnw-java25.sh test -Pbenchmark -Dbenchmark.class=NightSkyBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NightSkyBenchmark {
+
+    private static final String[] SPECTRAL_CLASSES = {"O9V", "B5V", "A0V", "F5V", "G2V", "K5V", "M3V"};
+
+    @Param({"20000", "100000"})
+    private int starCount;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    private StarFields.Shape shape;
+
+    @Param({"true", "false"})
+    private boolean snapshot;
+
+    private NightSkyService nightSkyService;
+    private NightSkyRequest request;
+    private SkyCandidateSet candidates;
+    private SkyFrame frame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        double radius = StarFields.radiusForDensity(starCount, 0.004);
+        double[] xyz = StarFields.generate(shape, starCount, radius);
+        Random random = new Random(42);
+
+        List<StarObject> stars = new ArrayList<>(starCount);
+        for (int i = 0; i < starCount; i++) {
+            StarObject star = new StarObject();
+            star.setId("STAR-" + i);
+            star.setDisplayName("Star " + i);
+            star.setX(xyz[i * 3]);
+            star.setY(xyz[i * 3 + 1]);
+            star.setZ(xyz[i * 3 + 2]);
+            star.setMagv(-1 + random.nextDouble() * 16);
+            star.setSpectralClass(SPECTRAL_CLASSES[random.nextInt(SPECTRAL_CLASSES.length)]);
+            stars.add(star);
+        }
+
+        StarObjectRepository starRepository = mock(StarObjectRepository.class);
+        when(starRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(starRepository.streamInBoundingBox(any(), anyDouble(), anyDouble(),
+                anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+                .thenAnswer(invocation -> stars.stream());
+        when(starRepository.countByDataSetName("bench")).thenReturn(snapshot ? (long) starCount : Long.MAX_VALUE);
+        when(starRepository.streamSnapshotColumns("bench"))
+                .thenAnswer(invocation -> stars.stream().map(NightSkyBenchmark::snapshotRow));
+        ExoPlanetRepository exoPlanetRepository = mock(ExoPlanetRepository.class);
+        when(exoPlanetRepository.findById(anyString())).thenReturn(Optional.empty());
+
+        StarSnapshotService snapshotService = new StarSnapshotService(starRepository);
+        nightSkyService = new NightSkyService(
+                null,
+                new EphemerisService(starRepository, exoPlanetRepository, null),
+                new StarQueryService(starRepository, snapshotService),
+                new SkyTransformService(),
+                new PhotometryService(),
+                new NightSkyCacheService(snapshotService));
+
+        request = NightSkyRequest.builder()
+                .planetId("bench-planet")
+                .hostStarId("bench-host")
+                .instantUtc(Instant.parse("2025-06-21T00:00:00Z"))
+                .latRad(Math.toRadians(35))
+                .lonRad(0.0)
+                .radiusLy(radius)
+                .maxMagnitude(6.5f)
+                .maxStars(10000)
+                .lod(LevelOfDetail.ULTRA)
+                .atmosphereModel(AtmosphereModel.earthLike())
+                .datasetName("bench")
+                .build();
+
+        candidates = nightSkyService.prepareCandidates(request);
+        frame = new SkyFrame();
+    }
+
+    private static Object[] snapshotRow(StarObject star) {
+        return new Object[]{star.getId(), star.getDisplayName(), star.getX(), star.getY(), star.getZ(),
+                star.getDistance(), star.getMagv(), star.getAbsoluteMagnitude(), star.getBprp(),
+                star.getTemperature(), star.getSpectralClass(), star.getCommonName(), star.getSystemName(),
+                star.getConstellationName()};
+    }
+
+    @Benchmark
+    public NightSkyResult computeNightSky() {
+        // every invocation computes; the cache would otherwise answer all but the first
+        nightSkyService.clearCache();
+        return nightSkyService.computeNightSky(request);
+    }
+
+    @Benchmark
+    public NightSkyResult computeNightSkyNextMinute() {
+        // a new instant misses the result cache but reuses the cached candidates
+        request.setInstantUtc(request.getInstantUtc().plusSeconds(60));
+        return nightSkyService.computeNightSky(request);
+    }
+
+    @Benchmark
+    public SkyFrame computeSkyFrame() {
+        return nightSkyService.computeSkyFrame(request, candidates, frame);
+    }
+}
@@ -0,0 +1,89 @@
+package com.teamgannon.trips.benchmark;
+
+import com.teamgannon.trips.planetarymodelling.procedural.*;
+import javafx.scene.shape.TriangleMesh;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for erosion and JavaFX mesh conversion of procedural planets.
+ * <p>
+ * Plates, elevation and climate are computed once per planet size; the benchmarks time
+ * {@link ErosionCalculator} and the {@link JavaFxPlanetMeshConverter} variants used by
+ * the planet viewer on the eroded heights.
+ *
+ * Run with:
+ *   ./mvnw-java25.sh test -Pbenchmark -Dbenchmark.class=PlanetMeshBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class PlanetMeshBenchmark {
+
+    private static final double SCALE = 1.0;
+
+    @Param({"DUEL", "STANDARD", "COLOSSAL"})
+    private PlanetConfig.Size size;
+
+    private PlanetConfig config;
+    private List<Polygon> polygons;
+    private AdjacencyGraph adjacency;
+    private PlateAssigner.PlateAssignment plateAssignment;
+    private BoundaryDetector.BoundaryAnalysis boundaryAnalysis;
+    private int[] preErosionHeights;
+    private ClimateCalculator.ClimateZone[] climates;
+    private ErosionCalculator.ErosionResult erosion;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        config = PlanetConfig.builder()
+            .seed(12345L)
+            .size(size)
+            .plateCount(10)
+            .waterFraction(0.66)
+            .erosionIterations(5)
+            .rainfallScale(1.0)
+            .enableRivers(true)
+            .build();
+
+        polygons = new IcosahedralMesh(config).generate();
+        adjacency = new AdjacencyGraph(polygons);
+        plateAssignment = new PlateAssigner(config, adjacency).assign();
+        boundaryAnalysis = new BoundaryDetector(config, plateAssignment).analyze();
+        preErosionHeights = new ElevationCalculator(config, adjacency, plateAssignment, boundaryAnalysis).calculate();
+        climates = new ClimateCalculator(polygons).calculate();
+        erosion = erosion();
+    }
+
+    // ============== Erosion ==============
+
+    @Benchmark
+    public ErosionCalculator.ErosionResult erosion() {
+        return ErosionCalculator.calculate(
+            preErosionHeights, polygons, adjacency, climates, config, plateAssignment, boundaryAnalysis);
+    }
+
+    // ============== Mesh Conversion ==============
+
+    @Benchmark
+    public TriangleMesh convertFlat() {
+        return JavaFxPlanetMeshConverter.convert(polygons, erosion.erodedHeights(), SCALE);
+    }
+
+    @Benchmark
+    public TriangleMesh convertSmooth() {
+        return JavaFxPlanetMeshConverter.convertSmooth(polygons, erosion.preciseHeights(), SCALE);
+    }
+
+    @Benchmark
+    public Map<Integer, TriangleMesh> convertByHeightWithAveraging() {
+        return JavaFxPlanetMeshConverter.convertByHeightWithAveraging(
+            polygons, erosion.erodedHeights(), adjacency, SCALE, erosion.preciseHeights());
+    }
+}
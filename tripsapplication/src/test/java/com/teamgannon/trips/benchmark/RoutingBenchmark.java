@@ -1,5 +1,8 @@
 package com.teamgannon.trips.benchmark;
 
+import com.teamgannon.trips.routing.automation.CompactPathFinder;
+import com.teamgannon.trips.routing.automation.CompactRouteGraph;
+import com.teamgannon.trips.routing.model.PathSearchAlgorithm;
 import com.teamgannon.trips.routing.model.SparseStarRecord;
 import com.teamgannon.trips.transits.kdtree.KDTreeGraphBuilder;
 import org.jgrapht.Graph;
@@ -36,6 +39,9 @@ public class RoutingBenchmark {
     private Graph<String, DefaultWeightedEdge> graph5000;
     private Graph<String, DefaultWeightedEdge> graph10000;
 
+    private CompactRouteGraph compact1000;
+    private CompactRouteGraph compact5000;
+
     private static final double MAX_JUMP_DISTANCE = 10.0; // light years
     private Random random = new Random(12345);
 
@@ -50,6 +56,14 @@ public class RoutingBenchmark {
         graph1000 = buildGraph(stars1000, MAX_JUMP_DISTANCE);
         graph5000 = buildGraph(stars5000, MAX_JUMP_DISTANCE);
         graph10000 = buildGraph(stars10000, MAX_JUMP_DISTANCE);
+
+        compact1000 = buildCompact(stars1000);
+        compact5000 = buildCompact(stars5000);
+    }
+
+    private CompactRouteGraph buildCompact(List<SparseStarRecord> stars) {
+        return CompactRouteGraph.build(stars, SparseStarRecord::getRecordId,
+                SparseStarRecord::getActualCoordinates, 0.0, MAX_JUMP_DISTANCE);
     }
 
     private List<SparseStarRecord> generateStarField(int count, double radius) {
@@ -142,6 +156,18 @@ public class RoutingBenchmark {
         return kdTreeBuilder.buildGraphFromSparse(stars10000, 0.0, MAX_JUMP_DISTANCE);
     }
 
+    // ============== Graph Building Benchmarks (Compact CSR) ==============
+
+    @Benchmark
+    public CompactRouteGraph buildGraphCompact5000() {
+        return buildCompact(stars5000);
+    }
+
+    @Benchmark
+    public CompactRouteGraph buildGraphCompact10000() {
+        return buildCompact(stars10000);
+    }
+
     // ============== Transit Calculation Benchmarks (Naive O(n²)) ==============
 
     @Benchmark
@@ -209,6 +235,45 @@ public class RoutingBenchmark {
         bh.consume(paths);
     }
 
+    // ============== Pathfinding Benchmarks (Compact CSR) ==============
+
+    @Benchmark
+    public void dijkstraCompact5000(Blackhole bh) {
+        CompactPathFinder finder = new CompactPathFinder(compact5000);
+        bh.consume(finder.dijkstra(compact5000.indexOf("STAR-0"), compact5000.indexOf("STAR-4999")));
+    }
+
+    @Benchmark
+    public void aStarCompact5000(Blackhole bh) {
+        CompactPathFinder finder = new CompactPathFinder(compact5000);
+        bh.consume(finder.aStar(compact5000.indexOf("STAR-0"), compact5000.indexOf("STAR-4999")));
+    }
+
+    @Benchmark
+    public void bidirectionalAStarCompact5000(Blackhole bh) {
+        CompactPathFinder finder = new CompactPathFinder(compact5000);
+        bh.consume(finder.bidirectionalAStar(compact5000.indexOf("STAR-0"), compact5000.indexOf("STAR-4999")));
+    }
+
+    @Benchmark
+    public void yenCompact1000_k3(Blackhole bh) {
+        CompactPathFinder finder = new CompactPathFinder(compact1000);
+        bh.consume(finder.kShortestPaths(compact1000.indexOf("STAR-0"), compact1000.indexOf("STAR-999"), 3));
+    }
+
+    @Benchmark
+    public void yenCompact1000_k5(Blackhole bh) {
+        CompactPathFinder finder = new CompactPathFinder(compact1000);
+        bh.consume(finder.kShortestPaths(compact1000.indexOf("STAR-0"), compact1000.indexOf("STAR-999"), 5));
+    }
+
+    @Benchmark
+    public void yenCompact5000_k5_bidirectional(Blackhole bh) {
+        CompactPathFinder finder = new CompactPathFinder(compact5000);
+        bh.consume(finder.kShortestPaths(compact5000.indexOf("STAR-0"), compact5000.indexOf("STAR-4999"), 5,
+                PathSearchAlgorithm.BIDIRECTIONAL_A_STAR));
+    }
+
     // ============== Distance Calculation Benchmarks ==============
 
     @Benchmark
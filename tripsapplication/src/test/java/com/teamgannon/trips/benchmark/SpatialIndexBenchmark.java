@@ -0,0 +1,106 @@
+package com.teamgannon.trips.benchmark;
+
+import com.teamgannon.trips.transits.kdtree.FlatKDTree3D;
+import com.teamgannon.trips.transits.kdtree.KDPoint;
+import com.teamgannon.trips.transits.kdtree.KDTree3D;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for KD-tree construction and range search at catalog scale.
+ * <p>
+ * Compares the object based {@link KDTree3D} against the array backed {@link FlatKDTree3D}
+ * on 100k and 1M star fields at solar-neighbourhood density, uniform and clustered.
+ *
+ * Run with:
+ *   ./mvnw-java25.sh test -Pbenchmark -Dbenchmark.class=SpatialIndexBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SpatialIndexBenchmark {
+
+    private static final double STARS_PER_CUBIC_LY = 0.004;
+    private static final double QUERY_RADIUS = 10.0; // light years
+    private static final int QUERY_COUNT = 1000;
+
+    @Param({"100000", "1000000"})
+    private int starCount;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    private StarFields.Shape shape;
+
+    private double[] xyz;
+    private List<KDPoint<Integer>> points;
+    private KDTree3D<Integer> tree;
+    private FlatKDTree3D flatTree;
+    private double[][] queryCenters;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        xyz = StarFields.generate(shape, starCount,
+                StarFields.radiusForDensity(starCount, STARS_PER_CUBIC_LY));
+
+        points = new ArrayList<>(starCount);
+        for (int i = 0; i < starCount; i++) {
+            points.add(new KDPoint<>(StarFields.point(xyz, i), i));
+        }
+        tree = new KDTree3D<>(points);
+        flatTree = new FlatKDTree3D(xyz);
+
+        // Query around existing stars so clustered fields are queried where the stars are
+        Random random = new Random(42);
+        queryCenters = new double[QUERY_COUNT][];
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            queryCenters[q] = StarFields.point(xyz, random.nextInt(starCount));
+        }
+    }
+
+    // ============== Construction ==============
+
+    @Benchmark
+    public KDTree3D<Integer> buildKDTree() {
+        return new KDTree3D<>(points);
+    }
+
+    @Benchmark
+    public FlatKDTree3D buildFlatKDTree() {
+        return new FlatKDTree3D(xyz);
+    }
+
+    // ============== Range Search ==============
+
+    @Benchmark
+    public int rangeSearchKDTree() {
+        int found = 0;
+        for (double[] center : queryCenters) {
+            found += tree.rangeSearch(center, QUERY_RADIUS).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int rangeSearchFlatKDTree() {
+        int found = 0;
+        for (double[] center : queryCenters) {
+            found += flatTree.rangeCount(center[0], center[1], center[2], QUERY_RADIUS);
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int nearestNeighborFlatKDTree() {
+        int sum = 0;
+        for (double[] center : queryCenters) {
+            sum += flatTree.nearestNeighbor(center[0] + 0.5, center[1] - 0.5, center[2]);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,104 @@
+package com.teamgannon.trips.benchmark;
+
+import java.util.Random;
+
+/**
+ * Synthetic star fields shared by the benchmarks.
+ * <p>
+ * Uniform fields spread the stars evenly through a sphere. Clustered fields put most of
+ * the stars in a few dense Gaussian clusters over a sparse uniform background, which is
+ * closer to real catalogs and is the worst case for tree balance and label collisions.
+ * Both are seeded, so every run of a benchmark sees the same field.
+ */
+public final class StarFields {
+
+    /**
+     * Shape of a generated star field.
+     */
+    public enum Shape {
+        UNIFORM,
+        CLUSTERED
+    }
+
+    private static final long SEED = 12345L;
+
+    /**
+     * Number of clusters in a clustered field.
+     */
+    private static final int CLUSTER_COUNT = 24;
+
+    /**
+     * Fraction of the stars of a clustered field that belong to a cluster.
+     */
+    private static final double CLUSTERED_FRACTION = 0.8;
+
+    /**
+     * Cluster standard deviation as a fraction of the field radius.
+     */
+    private static final double CLUSTER_SIGMA = 0.04;
+
+    private StarFields() {
+        // Utility class - no instantiation
+    }
+
+    /**
+     * Generates star positions as a flat array [x0, y0, z0, x1, y1, z1, ...].
+     *
+     * @param shape  the field shape
+     * @param count  the number of stars
+     * @param radius the field radius in light years
+     * @return the packed coordinates
+     */
+    public static double[] generate(Shape shape, int count, double radius) {
+        Random random = new Random(SEED);
+        double[] xyz = new double[count * 3];
+
+        double[][] centers = new double[CLUSTER_COUNT][];
+        for (int c = 0; c < CLUSTER_COUNT; c++) {
+            centers[c] = uniformPoint(random, radius * 0.8);
+        }
+
+        for (int i = 0; i < count; i++) {
+            double[] point;
+            if (shape == Shape.CLUSTERED && random.nextDouble() < CLUSTERED_FRACTION) {
+                double[] center = centers[random.nextInt(CLUSTER_COUNT)];
+                double sigma = radius * CLUSTER_SIGMA;
+                point = new double[]{
+                        center[0] + random.nextGaussian() * sigma,
+                        center[1] + random.nextGaussian() * sigma,
+                        center[2] + random.nextGaussian() * sigma
+                };
+            } else {
+                point = uniformPoint(random, radius);
+            }
+            System.arraycopy(point, 0, xyz, i * 3, 3);
+        }
+        return xyz;
+    }
+
+    /**
+     * Returns the field radius that keeps the mean density of a uniform field at
+     * {@code starsPerCubicLy} for the given star count.
+     */
+    public static double radiusForDensity(int count, double starsPerCubicLy) {
+        return Math.cbrt(3.0 * count / (4.0 * Math.PI * starsPerCubicLy));
+    }
+
+    /**
+     * Returns the coordinates of star {@code index} of a packed field.
+     */
+    public static double[] point(double[] xyz, int index) {
+        return new double[]{xyz[index * 3], xyz[index * 3 + 1], xyz[index * 3 + 2]};
+    }
+
+    private static double[] uniformPoint(Random random, double radius) {
+        double r = radius * Math.cbrt(random.nextDouble());
+        double theta = random.nextDouble() * 2 * Math.PI;
+        double phi = Math.acos(2 * random.nextDouble() - 1);
+        return new double[]{
+                r * Math.sin(phi) * Math.cos(theta),
+                r * Math.sin(phi) * Math.sin(theta),
+                r * Math.cos(phi)
+        };
+    }
+}
@@ -0,0 +1,117 @@
+package com.teamgannon.trips.benchmark;
+
+import com.teamgannon.trips.config.application.model.ColorPalette;
+import com.teamgannon.trips.config.application.model.SerialFont;
+import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
+import com.teamgannon.trips.starplotting.StarLabelManager;
+import javafx.application.Platform;
+import javafx.geometry.BoundingBox;
+import javafx.geometry.Bounds;
+import javafx.scene.Group;
+import javafx.scene.PerspectiveCamera;
+import javafx.scene.SubScene;
+import javafx.scene.shape.Sphere;
+import javafx.scene.transform.Rotate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for {@link StarLabelManager#updateLabels} layout with collision detection.
+ * <p>
+ * Star nodes are placed in front of a perspective camera and the world is turned a little
+ * before every layout, so every invocation projects, measures and places the labels again.
+ * Runs on the JavaFX application thread and needs a display (or Monocle headless).
+ *
+ * Run with:
+ *   ./mvnw-java25.sh test -Pbenchmark -Dbenchmark.class=StarLabelLayoutBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class StarLabelLayoutBenchmark {
+
+    private static final double WIDTH = 1600;
+    private static final double HEIGHT = 1000;
+    private static final double FIELD_RADIUS = 400;
+
+    @Param({"500", "2000"})
+    private int labelCount;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    private StarFields.Shape shape;
+
+    private StarLabelManager labelManager;
+    private Rotate worldRotation;
+    private Bounds viewportBounds;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        try {
+            Platform.startup(() -> {});
+        } catch (IllegalStateException e) {
+            // toolkit already running in this JVM
+        }
+
+        double[] xyz = StarFields.generate(shape, labelCount, FIELD_RADIUS);
+        onFxThread(() -> {
+            Group world = new Group();
+            worldRotation = new Rotate(0, Rotate.Y_AXIS);
+            world.getTransforms().add(worldRotation);
+            world.setTranslateX(WIDTH / 2);
+            world.setTranslateY(HEIGHT / 2);
+
+            SubScene subScene = new SubScene(world, WIDTH, HEIGHT, true, null);
+            subScene.setCamera(new PerspectiveCamera());
+            Group sceneRoot = new Group(subScene);
+
+            labelManager = new StarLabelManager();
+            labelManager.initialize(sceneRoot, subScene);
+
+            ColorPalette palette = new ColorPalette();
+            palette.setLabelColor("WHITE");
+            palette.setLabelFont(new SerialFont("Arial", 12));
+
+            for (int i = 0; i < labelCount; i++) {
+                Sphere node = new Sphere(2);
+                node.setTranslateX(xyz[i * 3]);
+                node.setTranslateY(xyz[i * 3 + 1]);
+                node.setTranslateZ(xyz[i * 3 + 2]);
+                world.getChildren().add(node);
+
+                StarDisplayRecord record = new StarDisplayRecord();
+                record.setStarName("Star " + i);
+                record.setRecordId("STAR-" + i);
+                labelManager.addLabel(node, record, palette);
+            }
+            return null;
+        });
+        viewportBounds = new BoundingBox(0, 0, WIDTH, HEIGHT);
+    }
+
+    @Benchmark
+    public int updateLabels() throws Exception {
+        return onFxThread(() -> {
+            worldRotation.setAngle(worldRotation.getAngle() + 1.0);
+            labelManager.updateLabels(viewportBounds);
+            return labelManager.getLabelCount();
+        });
+    }
+
+    private static <T> T onFxThread(Callable<T> callable) throws Exception {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Platform.runLater(() -> {
+            try {
+                future.complete(callable.call());
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future.get(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,83 @@
+package com.teamgannon.trips.benchmark;
+
+import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
+import com.teamgannon.trips.transits.TransitRangeDef;
+import com.teamgannon.trips.transits.TransitRoute;
+import com.teamgannon.trips.transits.kdtree.KDTreeTransitCalculator;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for multi-band transit calculation: one KD-tree pass per band
+ * against the single pass of {@link KDTreeTransitCalculator#calculateDistancesByBand}.
+ *
+ * Run with:
+ *   ./mvnw-java25.sh test -Pbenchmark -Dbenchmark.class=TransitBandsBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class TransitBandsBenchmark {
+
+    private static final double[][] BAND_RANGES = {{0, 3}, {3, 5}, {5, 7}, {7, 9}};
+
+    @Param({"20000", "100000"})
+    private int starCount;
+
+    private List<StarDisplayRecord> stars;
+    private List<TransitRangeDef> bands;
+    private KDTreeTransitCalculator calculator;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        double[] xyz = StarFields.generate(StarFields.Shape.UNIFORM, starCount,
+                StarFields.radiusForDensity(starCount, 0.004));
+        stars = new ArrayList<>(starCount);
+        for (int i = 0; i < starCount; i++) {
+            StarDisplayRecord star = new StarDisplayRecord();
+            star.setStarName("Star " + i);
+            star.setRecordId("id-" + i);
+            star.setActualCoordinates(StarFields.point(xyz, i));
+            stars.add(star);
+        }
+
+        bands = new ArrayList<>();
+        for (double[] range : BAND_RANGES) {
+            TransitRangeDef band = new TransitRangeDef();
+            band.setBandId(UUID.randomUUID());
+            band.setBandName(range[0] + "-" + range[1]);
+            band.setEnabled(true);
+            band.setLowerRange(range[0]);
+            band.setUpperRange(range[1]);
+            band.setLineWidth(1.0);
+            band.setBandColor(Color.WHITE);
+            bands.add(band);
+        }
+        calculator = new KDTreeTransitCalculator(true);
+    }
+
+    @Benchmark
+    public int perBandPasses() {
+        int routes = 0;
+        for (TransitRangeDef band : bands) {
+            List<TransitRoute> bandRoutes = calculator.calculateDistances(band, stars);
+            routes += bandRoutes.size();
+        }
+        return routes;
+    }
+
+    @Benchmark
+    public int singlePass() {
+        Map<UUID, List<TransitRoute>> byBand = calculator.calculateDistancesByBand(bands, stars);
+        return byBand.values().stream().mapToInt(List::size).sum();
+    }
+}
@@ -0,0 +1,93 @@
+package com.teamgannon.trips.benchmark;
+
+import com.teamgannon.trips.transits.kdtree.FlatKDTree3D;
+import com.teamgannon.trips.transits.kdtree.StarPairFilter;
+import com.teamgannon.trips.transits.kdtree.StarPairKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks comparing star-pair de-duplication in the KD-tree transit pass:
+ * the original {@link StarPairKey} string keys against the index based {@link StarPairFilter}.
+ * <p>
+ * Both variants run the same tree queries; only the per-pair dedupe differs.
+ * Add {@code -prof gc} to compare the allocation rate.
+ *
+ * Run with:
+ *   ./mvnw-java25.sh test -Pbenchmark -Dbenchmark.class=TransitDedupeBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class TransitDedupeBenchmark {
+
+    private static final double MAX_JUMP_DISTANCE = 10.0; // light years
+
+    @Param({"5000", "20000"})
+    private int starCount;
+
+    private List<BenchStar> stars;
+    private FlatKDTree3D tree;
+
+    private record BenchStar(String name, double[] coordinates) {}
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(12345);
+        // Keep the density constant so the pair count grows linearly with the star count
+        double radius = 100.0 * Math.cbrt(starCount / 5000.0);
+        stars = new ArrayList<>(starCount);
+        for (int i = 0; i < starCount; i++) {
+            double r = radius * Math.cbrt(random.nextDouble());
+            double theta = random.nextDouble() * 2 * Math.PI;
+            double phi = Math.acos(2 * random.nextDouble() - 1);
+            stars.add(new BenchStar("Star " + i, new double[]{
+                    r * Math.sin(phi) * Math.cos(theta),
+                    r * Math.sin(phi) * Math.sin(theta),
+                    r * Math.cos(phi)
+            }));
+        }
+        tree = FlatKDTree3D.of(stars, BenchStar::coordinates);
+    }
+
+    @Benchmark
+    public int stringKeyDedupe() {
+        Set<String> seen = StarPairKey.createTrackingSet();
+        int[] kept = new int[1];
+        for (int i = 0; i < stars.size(); i++) {
+            String sourceName = stars.get(i).name();
+            int sourceIndex = i;
+            tree.rangeSearch(i, MAX_JUMP_DISTANCE, (neighborIndex, distSquared) -> {
+                if (neighborIndex == sourceIndex) return;
+                if (StarPairKey.addIfAbsent(seen, sourceName, stars.get(neighborIndex).name())) {
+                    kept[0]++;
+                }
+            });
+        }
+        return kept[0];
+    }
+
+    @Benchmark
+    public int pairFilterDedupe() {
+        StarPairFilter pairs = StarPairFilter.of(stars, BenchStar::name);
+        int[] kept = new int[1];
+        for (int i = 0; i < stars.size(); i++) {
+            int sourceIndex = i;
+            tree.rangeSearch(i, MAX_JUMP_DISTANCE, (neighborIndex, distSquared) -> {
+                if (neighborIndex == sourceIndex) return;
+                if (pairs.accept(sourceIndex, neighborIndex)) {
+                    kept[0]++;
+                }
+            });
+        }
+        return kept[0];
+    }
+}
@@ -0,0 +1,159 @@
+package com.teamgannon.trips.benchmark;
+
+import com.teamgannon.trips.graphics.entities.RouteDescriptor;
+import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
+import com.teamgannon.trips.routing.routemanagement.RouteSegmentSpatialIndex;
+import com.teamgannon.trips.transits.TransitRoute;
+import com.teamgannon.trips.transits.TransitSpatialIndex;
+import com.teamgannon.trips.transits.kdtree.FlatKDTree3D;
+import javafx.geometry.Point3D;
+import javafx.scene.paint.Color;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the viewport culling indexes over transits and route segments.
+ * <p>
+ * Transits are every star pair within jump range of a synthetic field; routes are random
+ * walks through the same field. Queries are viewport spheres centred on random stars.
+ *
+ * Run with:
+ *   ./mvnw-java25.sh test -Pbenchmark -Dbenchmark.class=ViewportIndexBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+public class ViewportIndexBenchmark {
+
+    private static final int STAR_COUNT = 20000;
+    private static final double MAX_JUMP_DISTANCE = 6.0; // light years
+    private static final double VIEWPORT_RADIUS = 25.0;  // light years
+    private static final int ROUTE_COUNT = 500;
+    private static final int ROUTE_LENGTH = 20;
+    private static final int QUERY_COUNT = 100;
+
+    @Param({"UNIFORM", "CLUSTERED"})
+    private StarFields.Shape shape;
+
+    private List<TransitRoute> transits;
+    private List<RouteDescriptor> routes;
+    private TransitSpatialIndex transitIndex;
+    private RouteSegmentSpatialIndex routeIndex;
+    private double[][] queryCenters;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        double[] xyz = StarFields.generate(shape, STAR_COUNT,
+                StarFields.radiusForDensity(STAR_COUNT, 0.004));
+        List<StarDisplayRecord> stars = new ArrayList<>(STAR_COUNT);
+        for (int i = 0; i < STAR_COUNT; i++) {
+            StarDisplayRecord record = new StarDisplayRecord();
+            double[] coords = StarFields.point(xyz, i);
+            record.setStarName("Star " + i);
+            record.setRecordId("STAR-" + i);
+            record.setActualCoordinates(coords);
+            record.setCoordinates(new Point3D(coords[0], coords[1], coords[2]));
+            stars.add(record);
+        }
+
+        FlatKDTree3D tree = new FlatKDTree3D(xyz);
+        transits = new ArrayList<>();
+        for (int i = 0; i < STAR_COUNT; i++) {
+            int source = i;
+            tree.rangeSearch(i, MAX_JUMP_DISTANCE, (neighbor, distSquared) -> {
+                if (neighbor > source) {
+                    transits.add(TransitRoute.builder()
+                            .good(true)
+                            .source(stars.get(source))
+                            .target(stars.get(neighbor))
+                            .distance(Math.sqrt(distSquared))
+                            .color(Color.CYAN)
+                            .lineWeight(1.0)
+                            .build());
+                }
+            });
+        }
+
+        Random random = new Random(42);
+        routes = new ArrayList<>(ROUTE_COUNT);
+        for (int r = 0; r < ROUTE_COUNT; r++) {
+            List<Point3D> coordinates = new ArrayList<>(ROUTE_LENGTH);
+            int current = random.nextInt(STAR_COUNT);
+            for (int hop = 0; hop < ROUTE_LENGTH; hop++) {
+                coordinates.add(stars.get(current).getCoordinates());
+                current = tree.nearestNeighbor(
+                        xyz[current * 3] + random.nextGaussian() * MAX_JUMP_DISTANCE,
+                        xyz[current * 3 + 1] + random.nextGaussian() * MAX_JUMP_DISTANCE,
+                        xyz[current * 3 + 2] + random.nextGaussian() * MAX_JUMP_DISTANCE);
+            }
+            routes.add(RouteDescriptor.builder()
+                    .name("Route " + r)
+                    .routeCoordinates(coordinates)
+                    .build());
+        }
+
+        transitIndex = buildTransitIndex();
+        routeIndex = buildRouteIndex();
+
+        queryCenters = new double[QUERY_COUNT][];
+        for (int q = 0; q < QUERY_COUNT; q++) {
+            queryCenters[q] = StarFields.point(xyz, random.nextInt(STAR_COUNT));
+        }
+    }
+
+    private TransitSpatialIndex buildTransitIndex() {
+        TransitSpatialIndex index = new TransitSpatialIndex();
+        index.addTransits("band-1", transits);
+        // first query builds the tree
+        index.findTransitsWithinRadius(0, 0, 0, 1);
+        return index;
+    }
+
+    private RouteSegmentSpatialIndex buildRouteIndex() {
+        RouteSegmentSpatialIndex index = new RouteSegmentSpatialIndex();
+        index.addRoutes(routes);
+        index.findSegmentsWithinRadius(0, 0, 0, 1);
+        return index;
+    }
+
+    // ============== Index Build ==============
+
+    @Benchmark
+    public TransitSpatialIndex buildTransitSpatialIndex() {
+        return buildTransitIndex();
+    }
+
+    @Benchmark
+    public RouteSegmentSpatialIndex buildRouteSegmentSpatialIndex() {
+        return buildRouteIndex();
+    }
+
+    // ============== Viewport Queries ==============
+
+    @Benchmark
+    public int queryTransitSpatialIndex() {
+        int found = 0;
+        for (double[] center : queryCenters) {
+            found += transitIndex.findTransitsWithinRadius(
+                    center[0], center[1], center[2], VIEWPORT_RADIUS).size();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int queryRouteSegmentSpatialIndex() {
+        int found = 0;
+        for (double[] center : queryCenters) {
+            found += routeIndex.findSegmentsWithinRadius(
+                    center[0], center[1], center[2], VIEWPORT_RADIUS).size();
+        }
+        return found;
+    }
+}
@@ -0,0 +1,63 @@
+package com.teamgannon.trips.file.chview;
+
+import com.teamgannon.trips.file.chview.model.ChViewFile;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ChviewReader, reading the sample files shipped with the project.
+ */
+class ChviewReaderTest {
+
+    private static final File SAMPLE = new File("../files/chview/TERRAGRP.chv");
+
+    @Nested
+    @DisplayName("Streaming")
+    class StreamingTests {
+
+        @Test
+        @DisplayName("should hand over the same records as a complete load, in batches")
+        void shouldStreamSameRecords() {
+            Assumptions.assumeTrue(SAMPLE.exists(), "sample chview file not available");
+            ChViewFile complete = new ChviewReader().loadFile(message -> { }, SAMPLE);
+            assertNotNull(complete);
+
+            List<ChViewRecord> streamed = new ArrayList<>();
+            List<Integer> batchSizes = new ArrayList<>();
+            ChViewFile header = new ChviewReader().streamFile(message -> { }, SAMPLE, 10, batch -> {
+                batchSizes.add(batch.size());
+                streamed.addAll(batch);
+            });
+
+            assertNotNull(header);
+            assertTrue(header.getRecords().isEmpty());
+            assertEquals(complete.getNumberOfRecords(), header.getNumberOfRecords());
+            assertEquals(complete.getCHViewPreferences(), header.getCHViewPreferences());
+            assertTrue(batchSizes.size() > 1);
+            assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+            assertEquals(complete.getRecords().size(), streamed.size());
+            for (ChViewRecord record : streamed) {
+                assertEquals(complete.getRecord(record.getRecordNumber()), record);
+            }
+        }
+
+        @Test
+        @DisplayName("should return null for a file that cannot be read")
+        void shouldReturnNullForMissingFile(@TempDir Path tempDir) {
+            File missing = tempDir.resolve("missing.chv").toFile();
+
+            assertNull(new ChviewReader().streamFile(message -> { }, missing, 10,
+                    batch -> fail("no records expected")));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.teamgannon.trips.file.columnar;
+
+import com.teamgannon.trips.file.columnar.StarColumnarFormat.FileColumn;
+import com.teamgannon.trips.jpa.model.StarObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StarColumnarFormat.
+ */
+class StarColumnarFormatTest {
+
+    private static List<StarObject> stars(int count, IntFunction<String> notes) {
+        List<StarObject> stars = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StarObject star = new StarObject();
+            star.setDisplayName("Star " + i);
+            star.setNotes(notes.apply(i));
+            star.setSpectralClass(i % 3 == 0 ? null : "K" + (i % 10));
+            star.setX(i * 0.25);
+            star.setMagv(12.5);
+            star.setNumExoplanets(i % 2);
+            star.setRealStar(true);
+            stars.add(star);
+        }
+        return stars;
+    }
+
+    private static List<FileColumn> headerColumns() throws IOException {
+        ByteBuffer header = StarColumnarFormat.encodeHeader();
+        StarColumnarFormat.readPreamble(header);
+        return StarColumnarFormat.readHeader(header);
+    }
+
+    private static List<StarObject> roundTrip(List<StarObject> stars, List<FileColumn> columns) throws IOException {
+        ByteBuffer group = StarColumnarFormat.encodeRowGroup(stars);
+        assertEquals(group.remaining() - Integer.BYTES, group.getInt());
+        return StarColumnarFormat.decodeRowGroup(group, columns);
+    }
+
+    @Nested
+    @DisplayName("Row groups")
+    class RowGroupTests {
+
+        @Test
+        @DisplayName("should round trip constant, dictionary and plain columns")
+        void shouldRoundTripEveryEncoding() throws IOException {
+            // notes: a few hundred distinct values, so a dictionary with two byte indices
+            List<StarObject> stars = stars(5000, i -> i % 7 == 0 ? null : "ñ note " + (i % 300));
+
+            List<StarObject> loaded = roundTrip(stars, headerColumns());
+
+            assertEquals(stars.size(), loaded.size());
+            for (int i = 0; i < stars.size(); i++) {
+                StarObject original = stars.get(i);
+                StarObject copy = loaded.get(i);
+                assertEquals(original.getDisplayName(), copy.getDisplayName());
+                assertEquals(original.getNotes(), copy.getNotes());
+                assertEquals(original.getSpectralClass(), copy.getSpectralClass());
+                assertEquals(original.getX(), copy.getX());
+                assertEquals(12.5, copy.getMagv());
+                assertEquals(original.getNumExoplanets(), copy.getNumExoplanets());
+                assertTrue(copy.isRealStar());
+            }
+        }
+
+        @Test
+        @DisplayName("should store repeated values once")
+        void shouldStoreRepeatedValuesOnce() {
+            int repeated = StarColumnarFormat.encodeRowGroup(stars(1000, i -> "same note")).remaining();
+            int distinct = StarColumnarFormat.encodeRowGroup(stars(1000, i -> "note number " + i)).remaining();
+
+            assertTrue(repeated + 1000 * "note number ".length() < distinct,
+                    "repeated " + repeated + " bytes, distinct " + distinct);
+        }
+
+        @Test
+        @DisplayName("should skip columns it does not know")
+        void shouldSkipUnknownColumns() throws IOException {
+            List<FileColumn> columns = new ArrayList<>(headerColumns());
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).name().equals("notes")) {
+                    columns.set(i, new FileColumn("notes", columns.get(i).typeCode(), null));
+                }
+            }
+
+            List<StarObject> loaded = roundTrip(stars(10, i -> "note " + i), columns);
+
+            assertEquals("Star 9", loaded.get(9).getDisplayName());
+            assertNotEquals("note 9", loaded.get(9).getNotes());
+            assertEquals(2.25, loaded.get(9).getX());
+        }
+
+        @Test
+        @DisplayName("should reject a truncated row group")
+        void shouldRejectTruncatedGroup() throws IOException {
+            List<FileColumn> columns = headerColumns();
+            ByteBuffer group = StarColumnarFormat.encodeRowGroup(stars(10, i -> "note " + i));
+            group.getInt();
+            group.limit(group.limit() - 3);
+
+            assertThrows(IOException.class, () -> StarColumnarFormat.decodeRowGroup(group, columns));
+        }
+    }
+
+    @Nested
+    @DisplayName("Header")
+    class HeaderTests {
+
+        @Test
+        @DisplayName("should list every column in file order")
+        void shouldListEveryColumn() throws IOException {
+            List<FileColumn> columns = headerColumns();
+
+            assertEquals(StarColumnarFormat.columns().size(), columns.size());
+            for (int i = 0; i < columns.size(); i++) {
+                assertSame(StarColumnarFormat.columns().get(i), columns.get(i).column());
+            }
+        }
+
+        @Test
+        @DisplayName("should reject a file that is not columnar")
+        void shouldRejectOtherFiles() {
+            ByteBuffer preamble = ByteBuffer.wrap("id,dataSetName,di".getBytes(StandardCharsets.US_ASCII));
+
+            IOException thrown = assertThrows(IOException.class, () -> StarColumnarFormat.readPreamble(preamble));
+            assertEquals("not a TRIPS columnar star file", thrown.getMessage());
+        }
+    }
+}
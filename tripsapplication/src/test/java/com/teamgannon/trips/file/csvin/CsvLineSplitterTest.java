@@ -0,0 +1,78 @@
+package com.teamgannon.trips.file.csvin;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CsvLineSplitter.
+ */
+class CsvLineSplitterTest {
+
+    @Nested
+    @DisplayName("Splitting")
+    class SplittingTests {
+
+        @Test
+        @DisplayName("should split plain fields")
+        void shouldSplitPlainFields() {
+            assertArrayEquals(new String[]{"a", "b", "c"}, CsvLineSplitter.split("a,b,c"));
+        }
+
+        @Test
+        @DisplayName("should keep empty and trailing fields")
+        void shouldKeepEmptyFields() {
+            assertArrayEquals(new String[]{"", "a", "", ""}, CsvLineSplitter.split(",a,,"));
+            assertArrayEquals(new String[]{""}, CsvLineSplitter.split(""));
+        }
+
+        @Test
+        @DisplayName("should not split inside quotes and keep the quotes")
+        void shouldNotSplitInsideQuotes() {
+            assertArrayEquals(new String[]{"1", "\"Alpha, Beta\"", "x"},
+                    CsvLineSplitter.split("1,\"Alpha, Beta\",x"));
+        }
+
+        @Test
+        @DisplayName("should grow past sixteen fields")
+        void shouldGrowPastSixteenFields() {
+            String line = ",".repeat(61);
+
+            assertEquals(62, CsvLineSplitter.split(line).length);
+        }
+    }
+
+    @Nested
+    @DisplayName("Regex equivalence")
+    class RegexEquivalenceTests {
+
+        @Test
+        @DisplayName("should match the look-ahead regex split on lines with balanced quotes")
+        void shouldMatchRegex() {
+            Pattern regex = Pattern.compile(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
+            char[] alphabet = {'a', ',', '"', ' ', '1'};
+            Random random = new Random(42);
+
+            for (int t = 0; t < 10_000; t++) {
+                StringBuilder line = new StringBuilder();
+                int quotes = 0;
+                int length = random.nextInt(60);
+                for (int i = 0; i < length; i++) {
+                    char c = alphabet[random.nextInt(alphabet.length)];
+                    quotes += c == '"' ? 1 : 0;
+                    line.append(c);
+                }
+                if (quotes % 2 == 1) {
+                    line.append('"');
+                }
+
+                assertArrayEquals(regex.split(line, -1), CsvLineSplitter.split(line.toString()), line.toString());
+            }
+        }
+    }
+}
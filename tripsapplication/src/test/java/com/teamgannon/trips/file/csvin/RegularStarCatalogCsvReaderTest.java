@@ -0,0 +1,135 @@
+package com.teamgannon.trips.file.csvin;
+
+import com.teamgannon.trips.dialogs.dataset.model.Dataset;
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.service.StarService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Tests for the RegularStarCatalogCsvReader load pipeline.
+ */
+@ExtendWith(MockitoExtension.class)
+class RegularStarCatalogCsvReaderTest {
+
+    private static final String HEADER = "id,dataSetName,displayName,commonName,systemName";
+
+    @Mock
+    private StarService starService;
+
+    @TempDir
+    Path tempDir;
+
+    private RegularStarCatalogCsvReader reader;
+    private Dataset dataset;
+
+    @BeforeEach
+    void setUp() {
+        reader = new RegularStarCatalogCsvReader(null, starService);
+        dataset = new Dataset();
+        dataset.setName("test");
+        dataset.setAuthor("tester");
+        dataset.setNotes("");
+    }
+
+    @Nested
+    @DisplayName("Pipeline")
+    class PipelineTests {
+
+        @Test
+        @DisplayName("should save every star across blocks in file order")
+        void shouldSaveInFileOrder() throws IOException {
+            List<StarObject> saved = new ArrayList<>();
+            doAnswer(invocation -> saved.addAll(invocation.getArgument(0)))
+                    .when(starService).starBulkSave(any());
+
+            RegCSVFile csvFile = reader.loadFile(message -> { }, writeFile(12_345), dataset);
+
+            assertTrue(csvFile.isReadSuccess());
+            assertEquals(12_345, csvFile.getSize());
+            assertEquals(12_345, csvFile.getNumbAccepts());
+            assertEquals(0, csvFile.getNumbRejects());
+            assertEquals(99.0, csvFile.getMaxDistance());
+            assertEquals(12_345, csvFile.getDataSetDescriptor().getNumberStars());
+            assertEquals(12_345, saved.size());
+            for (int i = 0; i < saved.size(); i++) {
+                assertEquals("Star " + i, saved.get(i).getDisplayName());
+                assertEquals("test", saved.get(i).getDataSetName());
+            }
+        }
+
+        @Test
+        @DisplayName("should keep quoted commas inside a field")
+        void shouldKeepQuotedCommas() throws IOException {
+            List<StarObject> saved = new ArrayList<>();
+            doAnswer(invocation -> saved.addAll(invocation.getArgument(0)))
+                    .when(starService).starBulkSave(any());
+            Path file = tempDir.resolve("quoted.csv");
+            Files.writeString(file, HEADER + "\n" + line("\"Alpha, Beta\"", 5) + "\n");
+
+            reader.loadFile(message -> { }, file.toFile(), dataset);
+
+            assertEquals(1, saved.size());
+            assertEquals("\"Alpha, Beta\"", saved.get(0).getDisplayName());
+        }
+
+        @Test
+        @DisplayName("should stop and propagate a save failure")
+        void shouldPropagateSaveFailure() throws IOException {
+            doThrow(new IllegalStateException("database down")).when(starService).starBulkSave(any());
+            File file = writeFile(30_000);
+
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> reader.loadFile(message -> { }, file, dataset));
+            assertEquals("database down", e.getMessage());
+        }
+    }
+
+    // =========================================================================
+    // Helper Methods
+    // =========================================================================
+
+    private File writeFile(int stars) throws IOException {
+        StringBuilder content = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < stars; i++) {
+            content.append(line("Star " + i, i % 100)).append('\n');
+        }
+        Path file = tempDir.resolve("stars-" + stars + ".csv");
+        Files.writeString(file, content);
+        return file.toFile();
+    }
+
+    /**
+     * A star line with a name, position and distance, and the remaining columns empty.
+     */
+    private static String line(String name, double distance) {
+        String[] fields = new String[62];
+        Arrays.fill(fields, "");
+        fields[0] = "id";
+        fields[2] = name;
+        fields[14] = "10.0";
+        fields[15] = "20.0";
+        fields[18] = Double.toString(distance);
+        fields[20] = "G2V";
+        return String.join(",", fields);
+    }
+}
@@ -0,0 +1,325 @@
+package com.teamgannon.trips.nightsky.service;
+
+import com.teamgannon.trips.nightsky.model.*;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
+import org.hipparchus.geometry.euclidean.threed.Vector3D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for NightSkyService's frame computation and candidate caching.
+ */
+@ExtendWith(MockitoExtension.class)
+class NightSkyServiceTest {
+
+    private static final String[] SPECTRAL_CLASSES = {"O9V", "B5V", "A0V", "F5V", "G2V", "K5V", "M3V"};
+
+    @Mock
+    private EphemerisService ephemerisService;
+
+    @Mock
+    private StarQueryService starQueryService;
+
+    private final SkyTransformService skyTransformService = new SkyTransformService();
+    private final PhotometryService photometryService = new PhotometryService();
+    private final StarSnapshotService snapshotService = new StarSnapshotService(null);
+
+    private NightSkyService service;
+    private NightSkyRequest request;
+    private EnuFrame enuFrame;
+
+    @BeforeEach
+    void setUp() {
+        service = new NightSkyService(null, ephemerisService, starQueryService,
+                skyTransformService, photometryService, new NightSkyCacheService(snapshotService));
+
+        PlanetAttitude attitude = PlanetAttitude.builder()
+                .positionLy(new double[]{0, 0, 0})
+                .spinAxisWorldUnit(Vector3D.PLUS_K)
+                .primeMeridianWorldUnitAtT(Vector3D.PLUS_I)
+                .build();
+        enuFrame = EnuFrame.builder()
+                .east(Vector3D.PLUS_I)
+                .north(Vector3D.PLUS_J)
+                .up(Vector3D.PLUS_K)
+                .build();
+        lenient().when(ephemerisService.getPlanetAttitude(any(), any(), any())).thenReturn(attitude);
+        lenient().when(ephemerisService.getEnuFrame(any(), anyDouble(), anyDouble())).thenReturn(enuFrame);
+
+        request = NightSkyRequest.builder()
+                .planetId("planet")
+                .hostStarId("host")
+                .instantUtc(Instant.parse("2025-06-21T00:00:00Z"))
+                .radiusLy(100)
+                .maxMagnitude(6.5f)
+                .maxStars(500)
+                .lod(LevelOfDetail.HIGH)
+                .atmosphereModel(AtmosphereModel.earthLike())
+                .datasetName("main")
+                .build();
+    }
+
+    // =========================================================================
+    // Equivalence Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Equivalence")
+    class EquivalenceTests {
+
+        @BeforeEach
+        void withoutExtinction() {
+            // identical magnitudes make the order comparable; extinction depends on altitude,
+            // which the two paths round differently in the last bit
+            request.setAtmosphereModel(AtmosphereModel.none());
+        }
+
+        @Test
+        @DisplayName("should match a per-star transform and sort")
+        void shouldMatchReference() {
+            List<StarRenderRow> stars = randomStars(5_000, 1);
+            stubStars(stars);
+
+            assertFrameMatches(referenceSky(stars),
+                    service.computeSkyFrame(request, service.prepareCandidates(request), null));
+        }
+
+        @Test
+        @DisplayName("should match a per-star transform and sort when projecting on several cores")
+        void shouldMatchInParallel() {
+            List<StarRenderRow> stars = randomStars(NightSkyService.PARALLEL_THRESHOLD + 20_000, 2);
+            stubStars(stars);
+
+            assertFrameMatches(referenceSky(stars),
+                    service.computeSkyFrame(request, service.prepareCandidates(request), null));
+        }
+
+        @Test
+        @DisplayName("should return the frame's stars from computeNightSky")
+        void shouldMatchComputeNightSky() {
+            List<StarRenderRow> stars = randomStars(5_000, 3);
+            stubStars(stars);
+
+            NightSkyResult result = service.computeNightSky(request);
+
+            List<SkyStarPoint> expected = referenceSky(stars);
+            assertEquals(expected.size(), result.getStars().size());
+            assertEquals(stars.size(), result.getTotalStarsQueried());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getStarId(), result.getStars().get(i).getStarId(), "Star " + i);
+            }
+        }
+    }
+
+    // =========================================================================
+    // Candidate Cache Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Candidate cache")
+    class CandidateCacheTests {
+
+        @Test
+        @DisplayName("should query candidates once while the time changes")
+        void shouldQueryCandidatesOnce() {
+            stubStars(randomStars(500, 4));
+
+            NightSkyResult first = service.computeNightSky(request);
+            request.setInstantUtc(request.getInstantUtc().plusSeconds(3600));
+            NightSkyResult second = service.computeNightSky(request);
+
+            assertFalse(second.isFromCache());
+            assertEquals(first.getTotalStarsQueried(), second.getTotalStarsQueried());
+            verify(starQueryService, times(1))
+                    .queryStarsInRadius(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any());
+            verify(starQueryService, times(1)).getHostStar("host");
+        }
+
+        @Test
+        @DisplayName("should query candidates again for another LOD")
+        void shouldQueryPerLod() {
+            stubStars(randomStars(500, 5));
+
+            service.computeNightSky(request);
+            request.setLod(LevelOfDetail.LOW);
+            service.computeNightSky(request);
+
+            verify(starQueryService, times(2))
+                    .queryStarsInRadius(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any());
+        }
+
+        @Test
+        @DisplayName("should query candidates again after the dataset changes")
+        void shouldRequeryAfterDatasetChange() {
+            stubStars(randomStars(500, 6));
+
+            service.computeNightSky(request);
+            snapshotService.invalidate("main");
+            request.setInstantUtc(request.getInstantUtc().plusSeconds(60));
+            service.computeNightSky(request);
+
+            verify(starQueryService, times(2))
+                    .queryStarsInRadius(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any());
+        }
+    }
+
+    // =========================================================================
+    // Frame Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Frames")
+    class FrameTests {
+
+        @Test
+        @DisplayName("should keep the brightest stars up to the limit")
+        void shouldKeepBrightest() {
+            stubStars(List.of(
+                    star(1, 0, 0, 10, 4.0f),
+                    star(2, 0, 0, 10, -1.0f),
+                    star(3, 0, 0, 10, 2.0f),
+                    star(4, 0, 0, -10, -5.0f)));  // below the horizon
+            request.setMaxStars(2);
+
+            SkyFrame frame = service.computeSkyFrame(request, service.prepareCandidates(request), null);
+
+            assertEquals(2, frame.size());
+            assertEquals(3, frame.getMatchedCount());
+            assertEquals(4, frame.getCandidateCount());
+            assertEquals(1, frame.getCandidateIndex(0));
+            assertEquals(2, frame.getCandidateIndex(1));
+            assertTrue(frame.getApparentMag(0) < frame.getApparentMag(1));
+        }
+
+        @Test
+        @DisplayName("should reuse the frame passed in")
+        void shouldReuseFrame() {
+            stubStars(randomStars(2_000, 3));
+            SkyCandidateSet candidates = service.prepareCandidates(request);
+
+            SkyFrame first = service.computeSkyFrame(request, candidates, null);
+            int firstSize = first.size();
+            request.setInstantUtc(request.getInstantUtc().plusSeconds(60));
+            SkyFrame second = service.computeSkyFrame(request, candidates, first);
+
+            assertSame(first, second);
+            assertEquals(firstSize, second.size());
+            assertEquals(request.getInstantUtc(), second.getInstantUtc());
+        }
+
+        @Test
+        @DisplayName("should place the host star")
+        void shouldPlaceHostStar() {
+            stubStars(List.of(star(1, 0, 0, 10, 1.0f)));
+            when(starQueryService.getHostStar("host")).thenReturn(star(99, 0, 1e-5, 0, 4.8f));
+
+            SkyFrame frame = service.computeSkyFrame(request, service.prepareCandidates(request), null);
+
+            assertTrue(frame.isHostStarPresent());
+            assertEquals(0.0, frame.getHostAltRad(), 1e-6);
+            assertEquals(0.0, frame.getHostAzRad(), 1e-6);
+        }
+    }
+
+    // =========================================================================
+    // Helper Methods
+    // =========================================================================
+
+    /**
+     * The sky computed star by star with SkyTransformService and PhotometryService, sorted
+     * by magnitude and limited.
+     */
+    private List<SkyStarPoint> referenceSky(List<StarRenderRow> stars) {
+        double[] observerPos = {0, 0, 0};
+        List<SkyStarPoint> visible = new ArrayList<>();
+        for (StarRenderRow star : stars) {
+            double[] horizontal = skyTransformService.worldToHorizontal(star, observerPos, enuFrame);
+            if (!skyTransformService.isAboveHorizon(horizontal[1])) {
+                continue;
+            }
+            float apparentMag = photometryService.calculateApparentMagnitude(star.getAbsMag(), horizontal[2]);
+            apparentMag = photometryService.applyAtmosphericExtinction(
+                    apparentMag, horizontal[1], request.getAtmosphereModel());
+            if (apparentMag > request.getMaxMagnitude()) {
+                continue;
+            }
+            visible.add(SkyStarPoint.builder()
+                    .azRad(horizontal[0])
+                    .altRad(horizontal[1])
+                    .apparentMag(apparentMag)
+                    .color(photometryService.starToColor(star))
+                    .starId(star.getStarId())
+                    .distanceLy(horizontal[2])
+                    .build());
+        }
+        visible.sort(Comparator.comparingDouble(SkyStarPoint::getApparentMag));
+        return visible.size() > request.getMaxStars() ? visible.subList(0, request.getMaxStars()) : visible;
+    }
+
+    private void assertFrameMatches(List<SkyStarPoint> expectedStars, SkyFrame frame) {
+        assertEquals(expectedStars.size(), frame.size());
+        for (int i = 0; i < frame.size(); i++) {
+            SkyStarPoint point = expectedStars.get(i);
+            assertEquals(point.getStarId(), frame.getCandidateIndex(i), "Star " + i);
+            assertEquals(point.getApparentMag(), frame.getApparentMag(i), 1e-4);
+            assertEquals(point.getAzRad(), frame.getAzRad(i), 1e-5);
+            assertEquals(point.getAltRad(), frame.getAltRad(i), 1e-5);
+            assertEquals(point.getColor(), frame.getColor(i));
+        }
+    }
+
+    private void stubStars(List<StarRenderRow> stars) {
+        when(starQueryService.queryStarsInRadius(anyDouble(), anyDouble(), anyDouble(), anyDouble(), any(), any()))
+                .thenReturn(stars);
+    }
+
+    /**
+     * Random stars whose ids equal their candidate index.
+     */
+    private static List<StarRenderRow> randomStars(int count, long seed) {
+        Random random = new Random(seed);
+        List<StarRenderRow> stars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stars.add(StarRenderRow.builder()
+                    .starId(i)
+                    .xLy(random.nextDouble() * 200 - 100)
+                    .yLy(random.nextDouble() * 200 - 100)
+                    .zLy(random.nextDouble() * 200 - 100)
+                    .absMag((float) (-5 + random.nextDouble() * 20))
+                    .spectralClass(SPECTRAL_CLASSES[random.nextInt(SPECTRAL_CLASSES.length)])
+                    .starName("Star " + i)
+                    .build());
+        }
+        return stars;
+    }
+
+    private static StarRenderRow star(long id, double x, double y, double z, float absMag) {
+        return StarRenderRow.builder()
+                .starId(id)
+                .xLy(x)
+                .yLy(y)
+                .zLy(z)
+                .absMag(absMag)
+                .spectralClass("G2V")
+                .starName("Star " + id)
+                .build();
+    }
+}
@@ -0,0 +1,148 @@
+package com.teamgannon.trips.particlefields;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.shape.TriangleMesh;
+import org.fxyz3d.shapes.primitives.ScatterMesh;
+import org.fxyz3d.shapes.primitives.TexturedMesh;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ParticleFieldScheduler, with the propagations run by hand.
+ */
+class ParticleFieldSchedulerTest {
+
+    private final Deque<Runnable> queued = new ArrayDeque<>();
+
+    private final ParticleFieldScheduler scheduler = new ParticleFieldScheduler(queued::add);
+
+    private static RingFieldRenderer renderer() {
+        return new RingFieldRenderer(RingFieldFactory.saturnRing().withNumElements(500), new Random(42));
+    }
+
+    /** More elements than one mesh chunk holds, so the field is spatially binned */
+    private static RingFieldRenderer binnedRenderer() {
+        return new RingFieldRenderer(RingFieldFactory.saturnRing().withNumElements(5000), new Random(42));
+    }
+
+    private static float[] vertices(Node bin) {
+        ScatterMesh mesh = (ScatterMesh) ((Group) bin).getChildren().get(0);
+        TexturedMesh texturedMesh = (TexturedMesh) mesh.getChildren().get(0);
+        return ((TriangleMesh) texturedMesh.getMesh()).getPoints().toArray(null);
+    }
+
+    private void runQueued() {
+        while (!queued.isEmpty()) {
+            queued.poll().run();
+        }
+    }
+
+    @Nested
+    @DisplayName("Stepping")
+    class SteppingTests {
+
+        @Test
+        @DisplayName("should publish a propagation on the frame after it finishes")
+        void shouldPublishFinishedPropagation() {
+            RingFieldRenderer renderer = renderer();
+            RingElement element = renderer.getElements().get(7);
+            double angle = element.getCurrentAngle();
+
+            assertEquals(0, scheduler.step(List.of(renderer), 1.0));
+            runQueued();
+            assertEquals(angle, element.getCurrentAngle());
+
+            assertEquals(1, scheduler.step(List.of(renderer), 1.0));
+            assertEquals(angle + element.getAngularSpeed(), element.getCurrentAngle());
+            assertEquals(1, queued.size());
+        }
+
+        @Test
+        @DisplayName("should add the frames passed during a propagation to the next one")
+        void shouldCarryDeferredFrames() {
+            RingFieldRenderer renderer = renderer();
+            RingElement element = renderer.getElements().get(7);
+            double angle = element.getCurrentAngle();
+
+            scheduler.step(List.of(renderer), 1.0);
+            assertEquals(0, scheduler.step(List.of(renderer), 0.5));
+            assertEquals(0, scheduler.step(List.of(renderer), 0.5));
+            assertEquals(1, queued.size());
+
+            runQueued();
+            scheduler.step(List.of(renderer), 1.0);
+            runQueued();
+            scheduler.step(List.of(renderer), 1.0);
+
+            assertEquals(angle + element.getAngularSpeed() + element.getAngularSpeed() * 2.0,
+                    element.getCurrentAngle(), 1e-12);
+        }
+
+        @Test
+        @DisplayName("should finish a pending propagation before a direct update")
+        void shouldFinishPendingBeforeUpdate() {
+            RingFieldRenderer renderer = renderer();
+            RingElement element = renderer.getElements().get(7);
+            double angle = element.getCurrentAngle();
+
+            scheduler.step(List.of(renderer), 1.0);
+            runQueued();
+            renderer.update(1.0);
+
+            assertEquals(angle + element.getAngularSpeed() * 2.0, element.getCurrentAngle(), 1e-12);
+        }
+    }
+
+    @Nested
+    @DisplayName("Binned fields")
+    class BinnedFieldTests {
+
+        @Test
+        @DisplayName("should push propagated positions into the existing bin meshes")
+        void shouldUpdateBinsInPlace() {
+            RingFieldRenderer renderer = binnedRenderer();
+            List<Node> bins = List.copyOf(renderer.getGroup().getChildren());
+            assertTrue(renderer.getMeshCount() > 1);
+            float[] before = vertices(bins.get(0));
+
+            scheduler.step(List.of(renderer), 1.0);
+            runQueued();
+            assertEquals(1, scheduler.step(List.of(renderer), 1.0));
+
+            assertEquals(bins.size(), renderer.getGroup().getChildren().size());
+            for (int i = 0; i < bins.size(); i++) {
+                assertSame(bins.get(i), renderer.getGroup().getChildren().get(i));
+            }
+            assertFalse(Arrays.equals(before, vertices(bins.get(0))));
+        }
+
+        @Test
+        @DisplayName("should rebin the field only every REBIN_INTERVAL propagations")
+        void shouldRebinPeriodically() {
+            RingFieldRenderer renderer = binnedRenderer();
+            Node firstBin = renderer.getGroup().getChildren().get(0);
+
+            // the first step only starts a propagation
+            scheduler.step(List.of(renderer), 1.0);
+            for (int published = 1; published < RingFieldRenderer.REBIN_INTERVAL; published++) {
+                runQueued();
+                scheduler.step(List.of(renderer), 1.0);
+            }
+            assertSame(firstBin, renderer.getGroup().getChildren().get(0));
+
+            runQueued();
+            scheduler.step(List.of(renderer), 1.0);
+            assertNotSame(firstBin, renderer.getGroup().getChildren().get(0));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.teamgannon.trips.particlefields;
+
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RingElementBuffer and the RingElements attached to it.
+ */
+class RingElementBufferTest {
+
+    private static List<RingElement> elements(int count) {
+        Random random = new Random(7);
+        List<RingElement> elements = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            elements.add(new RingElement(
+                    10 + random.nextDouble() * 5,
+                    i % 4 == 0 ? 0 : random.nextDouble() * 0.3,
+                    random.nextDouble() * 0.2,
+                    random.nextDouble() * Math.PI,
+                    random.nextDouble() * Math.PI,
+                    random.nextDouble() * 2 * Math.PI,
+                    0.01 + random.nextDouble() * 0.02,
+                    1.0,
+                    random.nextDouble() - 0.5,
+                    Color.WHITE));
+        }
+        return elements;
+    }
+
+    @Nested
+    @DisplayName("Advance")
+    class AdvanceTests {
+
+        @Test
+        @DisplayName("should move attached elements exactly as detached elements move")
+        void shouldMatchDetachedElements() {
+            // enough elements for the parallel path
+            List<RingElement> detached = elements(25_000);
+            List<RingElement> attached = elements(25_000);
+            RingElementBuffer buffer = new RingElementBuffer(attached);
+
+            for (int step = 0; step < 5; step++) {
+                detached.forEach(element -> element.advance(1.5));
+                buffer.advance(1.5);
+            }
+
+            for (int i = 0; i < detached.size(); i++) {
+                assertEquals(detached.get(i).getCurrentAngle(), attached.get(i).getCurrentAngle());
+                assertEquals(detached.get(i).getX(), attached.get(i).getX());
+                assertEquals(detached.get(i).getY(), attached.get(i).getY());
+                assertEquals(detached.get(i).getZ(), attached.get(i).getZ());
+            }
+        }
+
+        @Test
+        @DisplayName("should advance an attached element through the buffer")
+        void shouldAdvanceSingleElement() {
+            List<RingElement> attached = elements(3);
+            RingElementBuffer buffer = new RingElementBuffer(attached);
+            double angle = attached.get(1).getCurrentAngle();
+
+            attached.get(1).advance(2.0);
+
+            assertEquals(angle + attached.get(1).getAngularSpeed() * 2.0, buffer.getAngle(1));
+            assertEquals(buffer.getX(1), attached.get(1).getX());
+        }
+
+        @Test
+        @DisplayName("should keep the current state until a propagation is swapped in")
+        void shouldPublishPropagationOnSwap() {
+            List<RingElement> detached = elements(10);
+            List<RingElement> attached = elements(10);
+            RingElementBuffer buffer = new RingElementBuffer(attached);
+            double x = attached.get(3).getX();
+
+            buffer.propagate(1.5);
+
+            assertEquals(x, attached.get(3).getX());
+
+            buffer.swap();
+            detached.forEach(element -> element.advance(1.5));
+            for (int i = 0; i < detached.size(); i++) {
+                assertEquals(detached.get(i).getCurrentAngle(), attached.get(i).getCurrentAngle());
+                assertEquals(detached.get(i).getX(), attached.get(i).getX());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Positions")
+    class PositionTests {
+
+        @Test
+        @DisplayName("should write offset positions relative to the origin")
+        void shouldWriteRebasedPositions() {
+            List<RingElement> attached = elements(4);
+            RingElementBuffer buffer = new RingElementBuffer(attached);
+            attached.get(2).setPosition(1, 2, 3);
+            float[] target = new float[12];
+
+            buffer.writePositions(target, 100, 200, 300, 90, 180, 270);
+
+            assertEquals(11f, target[6]);
+            assertEquals(22f, target[7]);
+            assertEquals(33f, target[8]);
+            assertEquals((float) (attached.get(0).getX() + 10), target[0], 1e-4);
+        }
+
+        @Test
+        @DisplayName("should write only the given elements, in the given order")
+        void shouldWriteIndexedPositions() {
+            List<RingElement> attached = elements(4);
+            RingElementBuffer buffer = new RingElementBuffer(attached);
+            attached.get(1).setPosition(4, 5, 6);
+            attached.get(3).setPosition(1, 2, 3);
+            float[] target = new float[6];
+
+            buffer.writePositions(new int[]{3, 1}, target, 100, 200, 300, 90, 180, 270);
+
+            assertArrayEquals(new float[]{11f, 22f, 33f, 14f, 25f, 36f}, target);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.teamgannon.trips.planetary.rendering;
+
+import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
+import com.teamgannon.trips.jpa.model.ExoPlanet;
+import com.teamgannon.trips.planetary.PlanetaryContext;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.shape.Sphere;
+import org.fxyz3d.shapes.primitives.ScatterMesh;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for PlanetarySkyRenderer star rendering modes.
+ */
+class PlanetarySkyRendererTest {
+
+    private static boolean javaFxInitialized = false;
+    private PlanetarySkyRenderer renderer;
+
+    @BeforeAll
+    static void initJavaFx() {
+        try {
+            Platform.startup(() -> {});
+            javaFxInitialized = true;
+        } catch (IllegalStateException e) {
+            javaFxInitialized = true;
+        } catch (Exception e) {
+            System.out.println("JavaFX not available: " + e.getMessage());
+            javaFxInitialized = false;
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Assumptions.assumeTrue(javaFxInitialized, "JavaFX not available");
+        renderer = new PlanetarySkyRenderer();
+    }
+
+    // =========================================================================
+    // Mesh Mode Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Mesh Mode Tests")
+    class MeshModeTests {
+
+        @Test
+        @DisplayName("Mesh mode is the default")
+        void meshModeDefault() {
+            assertEquals(PlanetarySkyRenderer.StarRenderMode.MESH, renderer.getStarRenderMode());
+        }
+
+        @Test
+        @DisplayName("Stars render as meshes without per-star spheres")
+        void starsRenderAsMeshes() {
+            Node sky = renderer.render(context(false), stars());
+
+            assertEquals(0, count(sky, Sphere.class));
+            assertEquals(2, count(sky, ScatterMesh.class), "One halo mesh and one core mesh");
+            assertEquals(3, renderer.getBrightestStars().size());
+        }
+
+        @Test
+        @DisplayName("Clicked sky points resolve to the nearest star")
+        void pickResolvesStar() {
+            renderer.render(context(false), stars());
+
+            for (PlanetarySkyRenderer.BrightStarEntry entry : renderer.getBrightestStars()) {
+                double[] point = renderer.toSkyPoint(renderer.getSkyDomeRadius(), entry.getAzimuth(), entry.getAltitude());
+                assertSame(entry, renderer.findMeshStar(point[0] + 1, point[1], point[2]), entry.getName());
+            }
+            assertNull(renderer.findMeshStar(0, 500, 0), "No star below the horizon");
+        }
+
+        @Test
+        @DisplayName("Bright stars keep label anchors at their sky positions")
+        void labelAnchorsPlaced() {
+            renderer.render(context(false), stars());
+
+            assertEquals(2, renderer.getShapeToLabel().size());
+            for (Node anchor : renderer.getShapeToLabel().keySet()) {
+                assertFalse(anchor instanceof Sphere);
+                double radius = Math.sqrt(anchor.getTranslateX() * anchor.getTranslateX()
+                        + anchor.getTranslateY() * anchor.getTranslateY()
+                        + anchor.getTranslateZ() * anchor.getTranslateZ());
+                assertEquals(renderer.getSkyDomeRadius(), radius, 1e-6);
+            }
+        }
+
+        @Test
+        @DisplayName("Milky Way renders as a single mesh")
+        void milkyWayRendersAsMesh() {
+            Node sky = renderer.render(context(true), List.of());
+
+            assertEquals(0, count(sky, Sphere.class));
+            assertEquals(1, count(sky, ScatterMesh.class));
+        }
+
+        @Test
+        @DisplayName("Clear drops the pick lookup")
+        void clearDropsLookup() {
+            renderer.render(context(false), stars());
+            PlanetarySkyRenderer.BrightStarEntry entry = renderer.getBrightestStars().get(0);
+            double[] point = renderer.toSkyPoint(renderer.getSkyDomeRadius(), entry.getAzimuth(), entry.getAltitude());
+
+            renderer.clear();
+
+            assertNull(renderer.findMeshStar(point[0], point[1], point[2]));
+        }
+    }
+
+    // =========================================================================
+    // Node Mode Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Node Mode Tests")
+    class NodeModeTests {
+
+        @Test
+        @DisplayName("Stars render as spheres with labels on their cores")
+        void starsRenderAsSpheres() {
+            renderer.setStarRenderMode(PlanetarySkyRenderer.StarRenderMode.NODES);
+
+            Node sky = renderer.render(context(false), stars());
+
+            assertEquals(0, count(sky, ScatterMesh.class));
+            assertTrue(count(sky, Sphere.class) >= 3);
+            assertEquals(2, renderer.getShapeToLabel().size());
+            assertTrue(renderer.getShapeToLabel().keySet().stream().allMatch(Sphere.class::isInstance));
+            assertNull(renderer.findMeshStar(0, -500, 0));
+        }
+    }
+
+    // =========================================================================
+    // Helper Methods
+    // =========================================================================
+
+    private static PlanetaryContext context(boolean showMilkyWay) {
+        ExoPlanet planet = new ExoPlanet();
+        planet.setName("Test b");
+        return PlanetaryContext.builder()
+                .planet(planet)
+                .planetPositionLy(new double[]{0, 0, 0})
+                .localTime(22.0)
+                .showMilkyWay(showMilkyWay)
+                .showSiblingPlanets(false)
+                .build();
+    }
+
+    private static List<StarDisplayRecord> stars() {
+        return List.of(
+                star("Zenith", 0, 10, 0, -1.5, "A1V"),
+                star("East", 10, 2, 0, 1.0, "K0III"),
+                star("Faint", -3, 4, 4, 5.0, "M2V"),
+                star("Below", 0, -10, 0, 0.0, "G2V"));
+    }
+
+    private static StarDisplayRecord star(String name, double x, double y, double z,
+                                          double magnitude, String spectralClass) {
+        StarDisplayRecord star = new StarDisplayRecord();
+        star.setRecordId(name);
+        star.setStarName(name);
+        star.setActualCoordinates(new double[]{x, y, z});
+        star.setDistance(Math.sqrt(x * x + y * y + z * z));
+        star.setMagnitude(magnitude);
+        star.setSpectralClass(spectralClass);
+        return star;
+    }
+
+    private static int count(Node node, Class<? extends Node> type) {
+        if (type.isInstance(node)) {
+            return 1;
+        }
+        int total = 0;
+        if (node instanceof Parent parent) {
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                total += count(child, type);
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,114 @@
+package com.teamgannon.trips.planetary.rendering;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SkyPointIndex.
+ */
+class SkyPointIndexTest {
+
+    // =========================================================================
+    // Lookup Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Lookup Tests")
+    class LookupTests {
+
+        @Test
+        @DisplayName("Nearest point within range is found")
+        void nearestFound() {
+            float[] points = {0, 0, 0, 10, 0, 0, 0, -500, 0};
+            SkyPointIndex index = new SkyPointIndex(points, 3, 5.0);
+
+            assertEquals(3, index.size());
+            assertEquals(0, index.nearest(1, 1, 0));
+            assertEquals(1, index.nearest(8, 0, 0));
+            assertEquals(2, index.nearest(2, -499, 1));
+        }
+
+        @Test
+        @DisplayName("Points beyond the maximum distance are not found")
+        void outOfRangeIgnored() {
+            float[] points = {0, 0, 0};
+            SkyPointIndex index = new SkyPointIndex(points, 1, 5.0);
+
+            assertEquals(-1, index.nearest(6, 0, 0));
+            assertEquals(-1, index.nearest(4, 4, 0));
+        }
+
+        @Test
+        @DisplayName("Only the given number of points is indexed")
+        void countRespected() {
+            float[] points = {0, 0, 0, 50, 0, 0};
+            SkyPointIndex index = new SkyPointIndex(points, 1, 5.0);
+
+            assertEquals(1, index.size());
+            assertEquals(-1, index.nearest(50, 0, 0));
+        }
+
+        @Test
+        @DisplayName("Empty index finds nothing")
+        void emptyIndex() {
+            SkyPointIndex index = new SkyPointIndex(new float[0], 0, 5.0);
+
+            assertEquals(-1, index.nearest(0, 0, 0));
+        }
+    }
+
+    // =========================================================================
+    // Equivalence Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Equivalence Tests")
+    class EquivalenceTests {
+
+        @Test
+        @DisplayName("Matches a linear scan for points on the sky dome")
+        void matchesLinearScan() {
+            Random random = new Random(42);
+            int count = 3000;
+            double radius = 500.0;
+            double maxDistance = 22.0;
+            float[] points = new float[count * 3];
+            for (int i = 0; i < count; i++) {
+                double azimuth = random.nextDouble() * 2 * Math.PI;
+                double altitude = random.nextDouble() * Math.PI / 2;
+                points[i * 3] = (float) (radius * Math.cos(altitude) * Math.sin(azimuth));
+                points[i * 3 + 1] = (float) (-radius * Math.sin(altitude));
+                points[i * 3 + 2] = (float) (radius * Math.cos(altitude) * Math.cos(azimuth));
+            }
+            SkyPointIndex index = new SkyPointIndex(points, count, maxDistance);
+
+            for (int q = 0; q < 2000; q++) {
+                // Query near a random point so most lookups have candidates
+                int near = random.nextInt(count);
+                double x = points[near * 3] + random.nextGaussian() * 10;
+                double y = points[near * 3 + 1] + random.nextGaussian() * 10;
+                double z = points[near * 3 + 2] + random.nextGaussian() * 10;
+
+                int expected = -1;
+                double best = maxDistance * maxDistance;
+                for (int i = 0; i < count; i++) {
+                    double dx = points[i * 3] - x;
+                    double dy = points[i * 3 + 1] - y;
+                    double dz = points[i * 3 + 2] - z;
+                    double d = dx * dx + dy * dy + dz * dz;
+                    if (d <= best && (expected < 0 || d < best)) {
+                        best = d;
+                        expected = i;
+                    }
+                }
+
+                assertEquals(expected, index.nearest(x, y, z), "Query " + q);
+            }
+        }
+    }
+}
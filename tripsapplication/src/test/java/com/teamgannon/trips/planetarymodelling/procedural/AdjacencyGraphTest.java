@@ -209,4 +209,33 @@ class AdjacencyGraphTest {
                 .isGreaterThan(0.95);
         }
     }
+
+    @Test
+    @DisplayName("neighborStart/End/At walk the same neighbors as neighborsOnly()")
+    void positionalAccessMatchesNeighborsOnly() {
+        for (int i = 0; i < adjacency.size(); i++) {
+            int[] expected = adjacency.neighborsOnly(i);
+            int[] walked = new int[adjacency.neighborEnd(i) - adjacency.neighborStart(i)];
+            for (int k = adjacency.neighborStart(i); k < adjacency.neighborEnd(i); k++) {
+                walked[k - adjacency.neighborStart(i)] = adjacency.neighborAt(k);
+            }
+            assertThat(walked).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Graph built from the flat mesh equals the graph built from polygons")
+    void flatMeshGraphMatches() {
+        PolygonMesh mesh = PolygonMesh.of(polygons);
+        AdjacencyGraph flat = new AdjacencyGraph(mesh);
+
+        assertThat(flat.mesh()).isSameAs(mesh);
+        for (int i = 0; i < polygons.size(); i++) {
+            assertThat(flat.neighbors(i)).isEqualTo(adjacency.neighbors(i));
+            assertThat(mesh.centerX(i)).isEqualTo(polygons.get(i).center().getX());
+            assertThat(mesh.centerZ(i)).isEqualTo(polygons.get(i).center().getZ());
+            assertThat(mesh.vertexEnd(i) - mesh.vertexStart(i)).isEqualTo(polygons.get(i).vertexCount());
+            assertThat(mesh.vertexY(mesh.vertexStart(i))).isEqualTo(polygons.get(i).vertices().get(0).getY());
+        }
+    }
 }
@@ -5,6 +5,8 @@ import org.hipparchus.geometry.euclidean.threed.Vector3D;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 
 import java.util.List;
 
@@ -35,6 +37,16 @@ class ClimateCalculatorTest {
         assertThat(zones).hasSize(polygons.size());
     }
 
+    @ParameterizedTest
+    @EnumSource(ClimateCalculator.ClimateModel.class)
+    @DisplayName("Flat mesh centers give the same zones as the polygon list")
+    void flatMeshMatchesPolygons(ClimateCalculator.ClimateModel model) {
+        ClimateZone[] fromPolygons = new ClimateCalculator(polygons, model, 23.5, 10, 12).calculate();
+        ClimateZone[] fromMesh = new ClimateCalculator(PolygonMesh.of(polygons), model, 23.5, 10, 12).calculate();
+
+        assertThat(fromMesh).containsExactly(fromPolygons);
+    }
+
     @Test
     @DisplayName("All zones are assigned (no nulls)")
     void allZonesAssigned() {
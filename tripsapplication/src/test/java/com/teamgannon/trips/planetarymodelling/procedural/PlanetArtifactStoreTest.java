@@ -0,0 +1,162 @@
+package com.teamgannon.trips.planetarymodelling.procedural;
+
+import com.teamgannon.trips.config.application.Localization;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetGenerator.GeneratedPlanet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PlanetArtifactStoreTest {
+
+    private static PlanetConfig config;
+    private static GeneratedPlanet generated;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeAll
+    static void generate() {
+        config = PlanetConfig.builder().seed(4242).size(PlanetConfig.Size.TINY).build();
+        generated = PlanetGenerator.generate(config);
+    }
+
+    private PlanetArtifactStore newStore() {
+        Localization localization = new Localization();
+        localization.setProgramdata(tempDir.toString());
+        return new PlanetArtifactStore(localization);
+    }
+
+    private Path storedFile() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            return files.filter(path -> path.toString().endsWith(".planet")).findFirst().orElseThrow();
+        }
+    }
+
+    private long storedFileCount() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            return files.filter(path -> path.toString().endsWith(".planet")).count();
+        }
+    }
+
+    @Test
+    @DisplayName("Stored planet loads back identical to the generated one")
+    void roundTrip() {
+        PlanetArtifactStore store = newStore();
+        store.store(generated);
+
+        GeneratedPlanet loaded = newStore().load(config);
+
+        assertThat(loaded).isNotNull();
+        assertThat(loaded.config()).isEqualTo(config);
+        assertThat(loaded.polygons()).isEqualTo(generated.polygons());
+        assertThat(loaded.heights()).isEqualTo(generated.heights());
+        assertThat(loaded.baseHeights()).isEqualTo(generated.baseHeights());
+        assertThat(loaded.climates()).isEqualTo(generated.climates());
+        assertThat(loaded.plateAssignment().plateIndex()).isEqualTo(generated.plateAssignment().plateIndex());
+        assertThat(loaded.plateAssignment().plates()).isEqualTo(generated.plateAssignment().plates());
+        assertThat(loaded.plateAssignment().adjacentPlates()).isEqualTo(generated.plateAssignment().adjacentPlates());
+        assertThat(loaded.boundaryAnalysis().plateTypes()).isEqualTo(generated.boundaryAnalysis().plateTypes());
+        assertThat(loaded.boundaryAnalysis().boundaries()).isEqualTo(generated.boundaryAnalysis().boundaries());
+        assertThat(loaded.boundaryAnalysis().sizeOrder()).isEqualTo(generated.boundaryAnalysis().sizeOrder());
+        assertThat(loaded.preciseHeights()).isEqualTo(generated.preciseHeights());
+        assertThat(loaded.rainfall()).isEqualTo(generated.rainfall());
+        assertThat(loaded.flowAccumulation()).isEqualTo(generated.flowAccumulation());
+        assertThat(loaded.lakeMask()).isEqualTo(generated.lakeMask());
+        assertThat(loaded.rivers()).isEqualTo(generated.rivers());
+        assertThat(loaded.frozenRiverTerminus()).isEqualTo(generated.frozenRiverTerminus());
+        for (int i = 0; i < generated.adjacency().size(); i++) {
+            assertThat(loaded.adjacency().neighbors(i)).isEqualTo(generated.adjacency().neighbors(i));
+        }
+        assertThat(loaded.biomes()).isEqualTo(generated.biomes());
+    }
+
+    @Test
+    @DisplayName("loadOrGenerate() stores the planet on first use and loads it afterwards")
+    void loadOrGenerateStores() throws IOException {
+        PlanetArtifactStore store = newStore();
+        assertThat(store.load(config)).isNull();
+
+        GeneratedPlanet first = store.loadOrGenerate(config);
+        Path file = storedFile();
+        long size = Files.size(file);
+        GeneratedPlanet second = store.loadOrGenerate(config);
+
+        assertThat(Files.size(file)).isEqualTo(size);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.heights()).isEqualTo(first.heights());
+    }
+
+    @Test
+    @DisplayName("A different config does not load another config's planet")
+    void differentConfigMisses() {
+        PlanetArtifactStore store = newStore();
+        store.store(generated);
+
+        PlanetConfig other = PlanetConfig.builder().seed(4243).size(PlanetConfig.Size.TINY).build();
+
+        assertThat(store.load(other)).isNull();
+        assertThat(store.load(config)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("A corrupt file is discarded")
+    void corruptFileDiscarded() throws IOException {
+        PlanetArtifactStore store = newStore();
+        store.store(generated);
+        Path file = storedFile();
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        assertThat(store.load(config)).isNull();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("A file written by another generator version is discarded")
+    void otherGeneratorVersionDiscarded() throws IOException {
+        PlanetArtifactStore store = newStore();
+        store.store(generated);
+        Path file = storedFile();
+        String content = new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1);
+        String older = "0".repeat(PlanetGenerator.OUTPUT_VERSION.length());
+        Files.write(file, content.replace(PlanetGenerator.OUTPUT_VERSION, older).getBytes(StandardCharsets.ISO_8859_1));
+
+        assertThat(store.load(config)).isNull();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("A loaded planet's file can be replaced and deleted at once")
+    void loadReleasesFile() throws IOException {
+        PlanetArtifactStore store = newStore();
+        store.store(generated);
+        assertThat(store.load(config)).isNotNull();
+
+        store.store(generated);
+        assertThat(store.load(config)).isNotNull();
+        store.evict(config);
+
+        assertThat(storedFileCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Without a programdata directory, planets are generated and not stored")
+    void noProgramdata() {
+        PlanetArtifactStore store = new PlanetArtifactStore(new Localization());
+
+        GeneratedPlanet planet = store.loadOrGenerate(config);
+
+        assertThat(planet.heights()).isEqualTo(generated.heights());
+        assertThat(store.load(config)).isNull();
+    }
+}
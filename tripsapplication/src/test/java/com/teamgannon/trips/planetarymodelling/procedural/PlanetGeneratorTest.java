@@ -91,6 +91,20 @@ class PlanetGeneratorTest {
         assertThat(pentagonCount).isEqualTo(12);
     }
 
+    @Test
+    @DisplayName("IcosahedralMesh polygons are a view of its flat mesh")
+    void meshPolygonsViewFlatMesh() {
+        var config = PlanetConfig.builder().size(Size.DUEL).build();
+        var mesh = new IcosahedralMesh(config);
+        var flat = mesh.generateFlat();
+        var polygons = mesh.generate();
+
+        assertThat(polygons).hasSize(flat.size());
+        assertThat(PolygonMesh.of(polygons).centers()).isEqualTo(flat.centers());
+        assertThat(PolygonMesh.of(polygons).vertices()).isEqualTo(flat.vertices());
+        assertThat(mesh.generateFlat()).isSameAs(flat);
+    }
+
     @Test
     @DisplayName("AdjacencyGraph neighbors are symmetric")
     void adjacencySymmetric() {
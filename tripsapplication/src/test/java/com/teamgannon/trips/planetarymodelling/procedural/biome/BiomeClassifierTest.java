@@ -1,7 +1,11 @@
 package com.teamgannon.trips.planetarymodelling.procedural.biome;
 
+import com.teamgannon.trips.planetarymodelling.procedural.AdjacencyGraph;
 import com.teamgannon.trips.planetarymodelling.procedural.ClimateCalculator;
 import com.teamgannon.trips.planetarymodelling.procedural.ErosionCalculator;
+import com.teamgannon.trips.planetarymodelling.procedural.IcosahedralMesh;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetConfig;
+import com.teamgannon.trips.planetarymodelling.procedural.Polygon;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -207,6 +211,28 @@ class BiomeClassifierTest {
         assertEquals(BiomeType.OCEAN, biomes[2], "Ocean polygon should be ocean");
     }
 
+    @Test
+    void testAdjacencyGraphMatchesNeighborArrays() {
+        var config = PlanetConfig.builder().size(PlanetConfig.Size.DUEL).build();
+        List<Polygon> polygons = new IcosahedralMesh(config).generate();
+        AdjacencyGraph adjacency = new AdjacencyGraph(polygons);
+
+        int[] heights = new int[polygons.size()];
+        ClimateCalculator.ClimateZone[] climates = new ClimateCalculator.ClimateZone[polygons.size()];
+        int[][] adjacencies = new int[polygons.size()][];
+        for (int i = 0; i < polygons.size(); i++) {
+            heights[i] = (i * 7) % 5 - 2;  // Mix of ocean and land
+            climates[i] = ClimateCalculator.ClimateZone.TEMPERATE;
+            adjacencies[i] = adjacency.neighbors(i);
+        }
+
+        BiomeType[] expected = BiomeClassifier.classify(heights, climates, null, adjacencies);
+        BiomeType[] biomes = new BiomeClassifier(heights, climates, null, adjacency).classify();
+
+        assertArrayEquals(expected, biomes);
+        assertTrue(List.of(biomes).contains(BiomeType.COASTAL), "Mixed heights should produce coastal polygons");
+    }
+
     @Test
     void testGetDistribution() {
         BiomeType[] biomes = {
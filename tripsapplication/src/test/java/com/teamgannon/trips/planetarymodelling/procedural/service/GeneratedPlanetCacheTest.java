@@ -0,0 +1,142 @@
+package com.teamgannon.trips.planetarymodelling.procedural.service;
+
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetConfig;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetGenerator.GeneratedPlanet;
+import com.teamgannon.trips.planetarymodelling.procedural.Polygon;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.*;
+
+class GeneratedPlanetCacheTest {
+
+    // Each stand-in planet weighs just over 2 MB, so two fit in 5 MB
+    private static final int POLYGONS = 3000;
+    private static final long MAX_BYTES = 5L * 1024 * 1024;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger generations = new AtomicInteger();
+
+    private static PlanetConfig config(long seed) {
+        return PlanetConfig.builder().seed(seed).size(PlanetConfig.Size.DUEL).build();
+    }
+
+    /**
+     * A planet with the given number of empty polygons, standing in for a generated one.
+     */
+    private static GeneratedPlanet planet(PlanetConfig config, int polygons) {
+        List<Polygon> list = Collections.nCopies(polygons, new Polygon(null, List.of()));
+        return new GeneratedPlanet(config, list, new int[polygons], null, null, null, null, null, null);
+    }
+
+    private GeneratedPlanetCache cache(Function<PlanetConfig, GeneratedPlanet> generator) {
+        return new GeneratedPlanetCache("test.planets", MAX_BYTES, false, registry, config -> {
+            generations.incrementAndGet();
+            return generator.apply(config);
+        });
+    }
+
+    @Test
+    @DisplayName("get() generates once and then hits the cache")
+    void getGeneratesOnce() {
+        GeneratedPlanetCache cache = cache(config -> planet(config, POLYGONS));
+
+        GeneratedPlanet first = cache.get(config(1));
+        GeneratedPlanet second = cache.get(config(1));
+
+        assertThat(second).isSameAs(first);
+        assertThat(generations.get()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "test.planets").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tag("cache", "test.planets").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Least recently used planet is evicted when the weight limit is passed")
+    void evictsLeastRecentlyUsed() {
+        GeneratedPlanetCache cache = cache(config -> planet(config, POLYGONS));
+
+        cache.get(config(1));
+        cache.get(config(2));
+        cache.get(config(1));  // config 2 is now least recently used
+        cache.get(config(3));
+
+        assertThat(cache.getIfPresent(config(1))).isNotNull();
+        assertThat(cache.getIfPresent(config(2))).isNull();
+        assertThat(cache.getIfPresent(config(3))).isNotNull();
+        assertThat(cache.estimatedBytes()).isEqualTo(2 * POLYGONS * GeneratedPlanetCache.ESTIMATED_BYTES_PER_POLYGON);
+        assertThat(registry.get("cache.evictions").tag("cache", "test.planets")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.weight").tag("cache", "test.planets")
+                .gauge().value()).isEqualTo((double) cache.estimatedBytes());
+    }
+
+    @Test
+    @DisplayName("A planet heavier than the limit is not kept")
+    void oversizedPlanetNotKept() {
+        GeneratedPlanetCache cache = cache(config -> planet(config, 4 * POLYGONS));
+
+        GeneratedPlanet planet = cache.get(config(1));
+
+        assertThat(planet).isNotNull();
+        assertThat(cache.getIfPresent(config(1))).isNull();
+    }
+
+    @Test
+    @DisplayName("Concurrent requests for the same config share one generation")
+    void concurrentRequestsShareGeneration() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        GeneratedPlanetCache cache = cache(config -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return planet(config, POLYGONS);
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<GeneratedPlanet>> requests = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                requests.add(pool.submit(() -> cache.get(config(1))));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            GeneratedPlanet first = requests.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<GeneratedPlanet> request : requests) {
+                assertThat(request.get(10, TimeUnit.SECONDS)).isSameAs(first);
+            }
+            assertThat(generations.get()).isEqualTo(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("A failed generation throws its own exception and is not cached")
+    void failedGenerationRethrown() {
+        GeneratedPlanetCache cache = cache(config -> {
+            throw new IllegalArgumentException("bad config");
+        });
+
+        assertThatThrownBy(() -> cache.get(config(1)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("bad config");
+        assertThat(cache.getIfPresent(config(1))).isNull();
+    }
+}
@@ -0,0 +1,251 @@
+package com.teamgannon.trips.routing;
+
+import com.teamgannon.trips.config.application.Localization;
+import com.teamgannon.trips.routing.automation.CompactRouteGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TransitGraphCache.
+ */
+class TransitGraphCacheTest {
+
+    private static final String DATASET = "Test Dataset";
+
+    @TempDir
+    Path tempDir;
+
+    private List<Star> stars;
+
+    private record Star(String name, double x, double y, double z) {
+        double[] coords() {
+            return new double[]{x, y, z};
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        stars = randomStars(new Random(42), TransitGraphCache.MIN_CACHED_STARS + 500);
+    }
+
+    private TransitGraphCache newCache() {
+        Localization localization = new Localization();
+        localization.setProgramdata(tempDir.toString());
+        return new TransitGraphCache(localization);
+    }
+
+    private CompactRouteGraph getOrBuild(TransitGraphCache cache, List<Star> starList) {
+        return cache.getOrBuild(DATASET, starList, Star::name, Star::coords, 0, 6);
+    }
+
+    private long cachedFileCount() throws IOException {
+        try (Stream<Path> files = Files.walk(tempDir)) {
+            return files.filter(path -> path.toString().endsWith(".bin")).count();
+        }
+    }
+
+    private static List<Star> randomStars(Random random, int count) {
+        List<Star> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new Star("Star" + i,
+                    random.nextDouble() * 100,
+                    random.nextDouble() * 100,
+                    random.nextDouble() * 100));
+        }
+        return result;
+    }
+
+    private static void assertSameGraph(CompactRouteGraph expected, CompactRouteGraph actual) {
+        assertEquals(expected.getVertexCount(), actual.getVertexCount());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int v = 0; v < expected.getVertexCount(); v++) {
+            for (int e = expected.edgeStart(v); e < expected.edgeEnd(v); e++) {
+                int w = expected.edgeTarget(e);
+                int edge = actual.findEdge(v, w);
+                assertTrue(edge >= 0, "missing edge " + v + "-" + w);
+                assertEquals(expected.edgeWeight(e), actual.edgeWeight(edge));
+            }
+        }
+    }
+
+    // =========================================================================
+    // Persistence Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Persistence Tests")
+    class PersistenceTests {
+
+        @Test
+        @DisplayName("Built graph is written and reloaded by a new session")
+        void reloadAcrossSessions() throws IOException {
+            CompactRouteGraph built = getOrBuild(newCache(), stars);
+            assertEquals(1, cachedFileCount());
+
+            CompactRouteGraph loaded = getOrBuild(newCache(), stars);
+
+            assertSameGraph(built, loaded);
+            assertSameGraph(CompactRouteGraph.build(stars, Star::name, Star::coords, 0, 6), loaded);
+        }
+
+        @Test
+        @DisplayName("Same session returns the graph from memory")
+        void memoryHit() {
+            TransitGraphCache cache = newCache();
+
+            CompactRouteGraph first = getOrBuild(cache, stars);
+
+            assertSame(first, getOrBuild(cache, stars));
+        }
+
+        @Test
+        @DisplayName("Small star lists are not cached")
+        void smallListsNotCached() throws IOException {
+            getOrBuild(newCache(), stars.subList(0, 100));
+
+            assertEquals(0, cachedFileCount());
+        }
+
+        @Test
+        @DisplayName("Different bounds or stars get separate entries")
+        void separateEntries() throws IOException {
+            TransitGraphCache cache = newCache();
+            getOrBuild(cache, stars);
+            cache.getOrBuild(DATASET, stars, Star::name, Star::coords, 0, 8);
+
+            List<Star> moved = new ArrayList<>(stars);
+            moved.set(0, new Star("Star0", 50, 50, 50));
+            CompactRouteGraph movedGraph = getOrBuild(cache, moved);
+
+            assertEquals(3, cachedFileCount());
+            assertSameGraph(CompactRouteGraph.build(moved, Star::name, Star::coords, 0, 6), movedGraph);
+        }
+
+        @Test
+        @DisplayName("Concurrent builds of one graph each write their own temp file")
+        void concurrentBuilds() throws Exception {
+            List<TransitGraphCache> sessions = List.of(newCache(), newCache(), newCache(), newCache());
+            ExecutorService executor = Executors.newFixedThreadPool(sessions.size());
+            try {
+                List<Future<CompactRouteGraph>> builds = new ArrayList<>();
+                for (TransitGraphCache session : sessions) {
+                    builds.add(executor.submit(() -> getOrBuild(session, stars)));
+                }
+                for (Future<CompactRouteGraph> build : builds) {
+                    build.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            assertEquals(1, cachedFileCount());
+            try (Stream<Path> files = Files.walk(tempDir)) {
+                assertEquals(0, files.filter(path -> path.toString().endsWith(".tmp")).count());
+            }
+            assertSameGraph(CompactRouteGraph.build(stars, Star::name, Star::coords, 0, 6),
+                    getOrBuild(newCache(), stars));
+        }
+
+        @Test
+        @DisplayName("Corrupt cache file is discarded and rebuilt")
+        void corruptFileRebuilt() throws IOException {
+            CompactRouteGraph built = getOrBuild(newCache(), stars);
+            try (Stream<Path> files = Files.walk(tempDir)) {
+                Path file = files.filter(path -> path.toString().endsWith(".bin")).findFirst().orElseThrow();
+                Files.write(file, new byte[]{1, 2, 3});
+            }
+
+            CompactRouteGraph rebuilt = getOrBuild(newCache(), stars);
+
+            assertSameGraph(built, rebuilt);
+        }
+    }
+
+    // =========================================================================
+    // Invalidation Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Invalidation Tests")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("Invalidation deletes files and bumps the stamp")
+        void invalidateDeletesFiles() throws IOException {
+            TransitGraphCache cache = newCache();
+            CompactRouteGraph first = getOrBuild(cache, stars);
+            long stamp = cache.getStamp(DATASET);
+
+            cache.invalidate(DATASET);
+
+            assertEquals(0, cachedFileCount());
+            assertTrue(cache.getStamp(DATASET) > stamp);
+            assertNotSame(first, getOrBuild(cache, stars));
+        }
+
+        @Test
+        @DisplayName("Stamp survives a new session")
+        void stampPersists() {
+            TransitGraphCache cache = newCache();
+            getOrBuild(cache, stars);
+            cache.invalidate(DATASET);
+
+            assertEquals(cache.getStamp(DATASET), newCache().getStamp(DATASET));
+        }
+
+        @Test
+        @DisplayName("Invalidating a dataset with nothing cached does not touch the disk")
+        void invalidateWithoutFiles() throws IOException {
+            TransitGraphCache cache = newCache();
+            long stamp = cache.getStamp(DATASET);
+
+            cache.invalidate(DATASET);
+
+            assertTrue(cache.getStamp(DATASET) > stamp);
+            try (Stream<Path> files = Files.walk(tempDir)) {
+                assertEquals(1, files.count()); // just the temp directory itself
+            }
+        }
+
+        @Test
+        @DisplayName("A stamp bumped in memory is saved with the next cached file")
+        void pendingStampSavedWithFile() throws IOException {
+            TransitGraphCache cache = newCache();
+            cache.invalidate(DATASET);
+
+            CompactRouteGraph graph = getOrBuild(cache, stars);
+
+            TransitGraphCache reopened = newCache();
+            assertEquals(cache.getStamp(DATASET), reopened.getStamp(DATASET));
+            assertSameGraph(graph, getOrBuild(reopened, stars));
+            assertEquals(1, cachedFileCount());
+        }
+
+        @Test
+        @DisplayName("Invalidating one dataset keeps the others")
+        void otherDatasetsKept() throws IOException {
+            TransitGraphCache cache = newCache();
+            getOrBuild(cache, stars);
+
+            cache.invalidate("Other Dataset");
+
+            assertEquals(1, cachedFileCount());
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.teamgannon.trips.routing.automation;
+
+import com.teamgannon.trips.routing.model.PathSearchAlgorithm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for CompactRouteGraph and CompactPathFinder.
+ */
+class CompactRouteGraphTest {
+
+    // =========================================================================
+    // Test Helpers
+    // =========================================================================
+
+    private record Star(String name, double x, double y, double z) {
+        double[] coords() {
+            return new double[]{x, y, z};
+        }
+    }
+
+    private CompactRouteGraph build(List<Star> stars, double lower, double upper) {
+        return CompactRouteGraph.build(stars, Star::name, Star::coords, lower, upper);
+    }
+
+    private static final double VIA_A = 2 * Math.sqrt(10);
+    private static final double VIA_B = 2 * Math.sqrt(13);
+
+    /**
+     * A diamond: Sol to Dest through A (2 x 3.16 ly) or through B (2 x 3.61 ly).
+     * Built with bounds (3.1, 3.7] so there is no direct Sol-Dest or A-B transit.
+     */
+    private CompactRouteGraph diamond() {
+        return build(List.of(
+                new Star("Sol", 0, 0, 0),
+                new Star("A", 3, 1, 0),
+                new Star("Dest", 6, 0, 0),
+                new Star("B", 3, -2, 0)
+        ), 3.1, 3.7);
+    }
+
+    // =========================================================================
+    // Construction Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Construction Tests")
+    class ConstructionTests {
+
+        @Test
+        @DisplayName("Empty star list builds empty graph")
+        void emptyGraph() {
+            CompactRouteGraph graph = build(List.of(), 0, 10);
+
+            assertEquals(0, graph.getVertexCount());
+            assertEquals(0, graph.getEdgeCount());
+        }
+
+        @Test
+        @DisplayName("Edges respect lower and upper bounds")
+        void edgesRespectBounds() {
+            CompactRouteGraph graph = build(List.of(
+                    new Star("Sol", 0, 0, 0),
+                    new Star("Near", 0.5, 0, 0),
+                    new Star("Mid", 4, 0, 0),
+                    new Star("Far", 20, 0, 0)
+            ), 1.0, 5.0);
+
+            assertNull(graph.findEdgeWeight("Sol", "Near"));
+            assertEquals(4.0, graph.findEdgeWeight("Sol", "Mid"), 1e-12);
+            assertEquals(4.0, graph.findEdgeWeight("Mid", "Sol"), 1e-12);
+            assertNull(graph.findEdgeWeight("Sol", "Far"));
+            assertNull(graph.findEdgeWeight("Sol", "Unknown"));
+        }
+
+        @Test
+        @DisplayName("Duplicate star names merge into one vertex")
+        void duplicateNamesMerge() {
+            CompactRouteGraph graph = build(List.of(
+                    new Star("Sol", 0, 0, 0),
+                    new Star("Sol", 1, 0, 0),
+                    new Star("Other", 3, 0, 0)
+            ), 0, 10);
+
+            assertEquals(2, graph.getVertexCount());
+            assertEquals(1, graph.getEdgeCount());
+        }
+
+        @Test
+        @DisplayName("Connected components are labelled")
+        void connectivity() {
+            CompactRouteGraph graph = build(List.of(
+                    new Star("A", 0, 0, 0),
+                    new Star("B", 3, 0, 0),
+                    new Star("C", 100, 0, 0)
+            ), 0, 5);
+
+            assertTrue(graph.isConnected(graph.indexOf("A"), graph.indexOf("B")));
+            assertFalse(graph.isConnected(graph.indexOf("A"), graph.indexOf("C")));
+        }
+    }
+
+    // =========================================================================
+    // Path Finding Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Path Finding Tests")
+    class PathFindingTests {
+
+        @Test
+        @DisplayName("Dijkstra and A* find the shorter branch of the diamond")
+        void shortestPath() {
+            CompactRouteGraph graph = diamond();
+            CompactPathFinder finder = new CompactPathFinder(graph);
+            int sol = graph.indexOf("Sol");
+            int dest = graph.indexOf("Dest");
+
+            CompactPathFinder.Path dijkstra = finder.dijkstra(sol, dest);
+            CompactPathFinder.Path aStar = finder.aStar(sol, dest);
+
+            assertNotNull(dijkstra);
+            assertNotNull(aStar);
+            assertEquals(VIA_A, dijkstra.cost(), 1e-9);
+            assertEquals(VIA_A, aStar.cost(), 1e-9);
+            assertEquals("[Sol, A, Dest]", finder.toPathString(aStar));
+        }
+
+        @Test
+        @DisplayName("Yen returns both diamond branches in cost order")
+        void kShortestPaths() {
+            CompactRouteGraph graph = diamond();
+            CompactPathFinder finder = new CompactPathFinder(graph);
+
+            List<CompactPathFinder.Path> paths = finder.kShortestPaths(
+                    graph.indexOf("Sol"), graph.indexOf("Dest"), 5);
+
+            assertEquals(2, paths.size());
+            assertEquals(VIA_A, paths.get(0).cost(), 1e-9);
+            assertEquals(VIA_B, paths.get(1).cost(), 1e-9);
+            assertEquals("[Sol, A, Dest]", finder.toPathString(paths.get(0)));
+            assertEquals("[Sol, B, Dest]", finder.toPathString(paths.get(1)));
+        }
+
+        @Test
+        @DisplayName("Unreachable destination yields no paths")
+        void unreachable() {
+            CompactRouteGraph graph = build(List.of(
+                    new Star("A", 0, 0, 0),
+                    new Star("B", 100, 0, 0)
+            ), 0, 5);
+            CompactPathFinder finder = new CompactPathFinder(graph);
+
+            assertNull(finder.aStar(0, 1));
+            assertTrue(finder.kShortestPaths(0, 1, 3).isEmpty());
+        }
+
+        @Test
+        @DisplayName("A* matches Dijkstra on a random star field and settles fewer stars")
+        void aStarMatchesDijkstra() {
+            Random random = new Random(42);
+            List<Star> stars = new ArrayList<>();
+            for (int i = 0; i < 3000; i++) {
+                stars.add(new Star("Star" + i,
+                        random.nextDouble() * 100,
+                        random.nextDouble() * 100,
+                        random.nextDouble() * 100));
+            }
+            CompactRouteGraph graph = build(stars, 0, 8);
+            CompactPathFinder finder = new CompactPathFinder(graph);
+
+            for (int q = 0; q < 20; q++) {
+                int source = random.nextInt(stars.size());
+                int target = random.nextInt(stars.size());
+
+                CompactPathFinder.Path dijkstra = finder.dijkstra(source, target);
+                int dijkstraSettled = finder.getLastSettledCount();
+                CompactPathFinder.Path aStar = finder.aStar(source, target);
+                int aStarSettled = finder.getLastSettledCount();
+
+                if (dijkstra == null) {
+                    assertNull(aStar);
+                } else {
+                    assertNotNull(aStar);
+                    assertEquals(dijkstra.cost(), aStar.cost(), 1e-9);
+                    assertTrue(aStarSettled <= dijkstraSettled);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Bidirectional A* matches Dijkstra on a random star field")
+        void bidirectionalMatchesDijkstra() {
+            CompactRouteGraph graph = build(randomField(new Random(17), 3000), 0, 8);
+            CompactPathFinder finder = new CompactPathFinder(graph);
+            Random random = new Random(18);
+
+            for (int q = 0; q < 20; q++) {
+                int source = random.nextInt(graph.getVertexCount());
+                int target = random.nextInt(graph.getVertexCount());
+
+                CompactPathFinder.Path dijkstra = finder.dijkstra(source, target);
+                CompactPathFinder.Path bidirectional = finder.bidirectionalAStar(source, target);
+
+                if (dijkstra == null) {
+                    assertNull(bidirectional);
+                } else {
+                    assertNotNull(bidirectional);
+                    assertEquals(dijkstra.cost(), bidirectional.cost(), 1e-9);
+                    assertEquals(source, bidirectional.vertices()[0]);
+                    assertEquals(target, bidirectional.vertices()[bidirectional.hops()]);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Source equal to destination yields a single-star path")
+        void sourceIsDestination() {
+            CompactRouteGraph graph = diamond();
+            CompactPathFinder finder = new CompactPathFinder(graph);
+
+            CompactPathFinder.Path path = finder.bidirectionalAStar(0, 0);
+
+            assertNotNull(path);
+            assertEquals(0, path.hops());
+            assertEquals(0.0, path.cost());
+        }
+    }
+
+    // =========================================================================
+    // K Shortest Path Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("K Shortest Path Tests")
+    class KShortestPathTests {
+
+        @ParameterizedTest
+        @EnumSource(PathSearchAlgorithm.class)
+        @DisplayName("Every search algorithm yields the same k shortest path costs")
+        void algorithmsAgree(PathSearchAlgorithm algorithm) {
+            Random random = new Random(99);
+            CompactRouteGraph graph = build(randomField(random, 400), 0, 15);
+            CompactPathFinder finder = new CompactPathFinder(graph);
+            CompactPathFinder reference = new CompactPathFinder(graph);
+
+            for (int q = 0; q < 10; q++) {
+                int source = random.nextInt(graph.getVertexCount());
+                int target = random.nextInt(graph.getVertexCount());
+
+                List<CompactPathFinder.Path> expected =
+                        reference.kShortestPaths(source, target, 6, PathSearchAlgorithm.DIJKSTRA);
+                List<CompactPathFinder.Path> actual = finder.kShortestPaths(source, target, 6, algorithm);
+
+                assertEquals(expected.size(), actual.size());
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i).cost(), actual.get(i).cost(), 1e-9);
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("Paths are loopless and in non-decreasing cost order")
+        void pathsAreOrderedAndLoopless() {
+            Random random = new Random(5);
+            CompactRouteGraph graph = build(randomField(random, 400), 0, 15);
+            CompactPathFinder finder = new CompactPathFinder(graph);
+
+            List<CompactPathFinder.Path> paths = finder.kShortestPaths(0, 1, 10,
+                    PathSearchAlgorithm.BIDIRECTIONAL_A_STAR);
+
+            for (int i = 0; i < paths.size(); i++) {
+                int[] vertices = paths.get(i).vertices();
+                assertEquals(vertices.length, Arrays.stream(vertices).distinct().count());
+                if (i > 0) {
+                    assertTrue(paths.get(i - 1).cost() <= paths.get(i).cost() + 1e-9);
+                }
+            }
+        }
+    }
+
+    private static List<Star> randomField(Random random, int count) {
+        List<Star> stars = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            stars.add(new Star("Star" + i,
+                    random.nextDouble() * 100,
+                    random.nextDouble() * 100,
+                    random.nextDouble() * 100));
+        }
+        return stars;
+    }
+}
@@ -104,6 +104,21 @@ class RouteGraphTest {
             assertEquals(0, routeGraph.getRoutingGraph().edgeSet().size());
         }
 
+        @Test
+        @DisplayName("Null transit list and transits without both ends are skipped")
+        void nullTransitsSkipped() {
+            routeGraph.calculateGraphForTransit(null);
+
+            List<TransitRoute> transits = new ArrayList<>();
+            transits.add(null);
+            transits.add(TransitRoute.builder().source(createStarDisplayRecord("Sol")).distance(1).build());
+            transits.add(createTransitRoute("Sol", "Alpha Centauri", 4.37));
+            routeGraph.calculateGraphForTransit(transits);
+
+            assertEquals(2, routeGraph.getRoutingGraph().vertexSet().size());
+            assertEquals(1, routeGraph.getRoutingGraph().edgeSet().size());
+        }
+
         @Test
         @DisplayName("Single transit creates two vertices and one edge")
         void singleTransitCreatesTwoVerticesAndOneEdge() {
@@ -176,6 +191,13 @@ class RouteGraphTest {
             assertEquals(0, routeGraph.getRoutingGraph().vertexSet().size());
         }
 
+        @Test
+        @DisplayName("Null sparse transit list returns true")
+        void nullSparseTransitListReturnsTrue() {
+            assertTrue(routeGraph.calculateGraphForSparseTransits(null));
+            assertEquals(0, routeGraph.getRoutingGraph().vertexSet().size());
+        }
+
         @Test
         @DisplayName("Single sparse transit creates two vertices and one edge")
         void singleSparseTransitCreatesTwoVerticesAndOneEdge() {
@@ -265,6 +287,17 @@ class RouteGraphTest {
             assertFalse(routeGraph.isConnected("Sol", "Barnard's Star"));
             assertFalse(routeGraph.isConnected("Alpha Centauri", "Proxima"));
         }
+
+        @Test
+        @DisplayName("Stars missing from the graph are not connected")
+        void missingStarsAreNotConnected() {
+            List<TransitRoute> transits = List.of(
+                    createTransitRoute("Sol", "Alpha Centauri", 4.37)
+            );
+            routeGraph.calculateGraphForTransit(transits);
+
+            assertFalse(routeGraph.isConnected("Sol", "Unknown"));
+        }
     }
 
     // =========================================================================
@@ -430,4 +463,90 @@ class RouteGraphTest {
             assertTrue(routeGraph.isConnected("Star0", "Star100"));
         }
     }
+
+    // =========================================================================
+    // Compact Graph Backend Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Compact Graph Backend Tests")
+    class CompactBackendTests {
+
+        private SparseStarRecord createSparseStar(String name, double x, double y, double z) {
+            SparseStarRecord record = createSparseStarRecord(name, name);
+            record.setActualCoordinates(new double[]{x, y, z});
+            return record;
+        }
+
+        private RouteGraph buildChain() {
+            List<SparseStarRecord> stars = new ArrayList<>();
+            for (int i = 0; i <= 10; i++) {
+                stars.add(createSparseStar("Star" + i, i * 3.0, 0, 0));
+            }
+            stars.add(createSparseStar("Isolated", 500, 0, 0));
+            return RouteGraph.buildWithKDTreeFromSparse(stars, 0, 4);
+        }
+
+        @Test
+        @DisplayName("KD-Tree factory produces a compact-backed graph")
+        void factoryUsesCompactGraph() {
+            RouteGraph graph = buildChain();
+
+            assertNotNull(graph.getCompactGraph());
+            assertEquals(12, graph.getVertexCount());
+            assertEquals(10, graph.getEdgeCount());
+        }
+
+        @Test
+        @DisplayName("Connectivity and edge lookups work on the compact graph")
+        void connectivityAndEdges() {
+            RouteGraph graph = buildChain();
+
+            assertTrue(graph.isConnected("Star0", "Star10"));
+            assertFalse(graph.isConnected("Star0", "Isolated"));
+            assertFalse(graph.isConnected("Star0", "Unknown"));
+            assertEquals(3.0, graph.findEdges(" Star0 ", "Star1"), 1e-9);
+            assertNull(graph.findEdges("Star0", "Star2"));
+        }
+
+        @Test
+        @DisplayName("K-shortest paths use the bracketed star name format")
+        void pathFormat() {
+            RouteGraph graph = buildChain();
+
+            List<String> paths = graph.findKShortestPaths("Star0", "Star3", 3);
+
+            assertEquals(List.of("[Star0, Star1, Star2, Star3]"), paths);
+        }
+
+        @Test
+        @DisplayName("Throws when destination not in compact graph")
+        void throwsForUnknownStar() {
+            RouteGraph graph = buildChain();
+
+            assertThrows(IllegalArgumentException.class, () ->
+                    graph.findKShortestPaths("Star0", "Unknown", 1));
+        }
+
+        @Test
+        @DisplayName("JGraphT view is materialized on demand")
+        void jgraphtViewMaterialized() {
+            RouteGraph graph = buildChain();
+
+            assertEquals(12, graph.getRoutingGraph().vertexSet().size());
+            assertEquals(10, graph.getRoutingGraph().edgeSet().size());
+        }
+
+        @Test
+        @DisplayName("Transits cannot be added to a compact-backed graph")
+        void rejectsTransits() {
+            RouteGraph graph = buildChain();
+
+            assertThrows(IllegalStateException.class, () ->
+                    graph.calculateGraphForTransit(List.of(createTransitRoute("Star0", "Isolated", 5))));
+            assertFalse(graph.calculateGraphForSparseTransits(List.of(
+                    createSparseTransit("Star0", "Star0", "Isolated", "Isolated", 5))));
+            assertEquals(10, graph.getEdgeCount());
+        }
+    }
 }
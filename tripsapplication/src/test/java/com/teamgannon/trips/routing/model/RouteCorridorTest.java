@@ -0,0 +1,109 @@
+package com.teamgannon.trips.routing.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RouteCorridor.
+ */
+class RouteCorridorTest {
+
+    private final RouteCorridor corridor = RouteCorridor.between(
+            new double[]{0, 0, 0}, new double[]{100, 0, 0}, 10);
+
+    // =========================================================================
+    // Containment Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Containment Tests")
+    class ContainmentTests {
+
+        @Test
+        @DisplayName("Endpoints and points on the segment are inside")
+        void segmentIsInside() {
+            assertTrue(corridor.contains(new double[]{0, 0, 0}));
+            assertTrue(corridor.contains(new double[]{100, 0, 0}));
+            assertTrue(corridor.contains(new double[]{50, 0, 0}));
+        }
+
+        @Test
+        @DisplayName("Radius boundary is inclusive alongside the segment")
+        void radiusIsInclusive() {
+            assertTrue(corridor.contains(new double[]{50, 10, 0}));
+            assertFalse(corridor.contains(new double[]{50, 10.01, 0}));
+        }
+
+        @Test
+        @DisplayName("Ends are rounded caps, not box corners")
+        void endsAreRounded() {
+            assertTrue(corridor.contains(new double[]{-10, 0, 0}));
+            assertFalse(corridor.contains(new double[]{-8, 8, 0}));
+            assertTrue(corridor.contains(new double[]{107, 7, 0}));
+        }
+
+        @Test
+        @DisplayName("Zero length corridor is a sphere")
+        void zeroLengthIsSphere() {
+            RouteCorridor sphere = RouteCorridor.between(
+                    new double[]{1, 1, 1}, new double[]{1, 1, 1}, 2);
+
+            assertTrue(sphere.contains(new double[]{3, 1, 1}));
+            assertFalse(sphere.contains(new double[]{3, 3, 1}));
+        }
+
+        @Test
+        @DisplayName("Corridor covers the sphere once the radius reaches past it from the segment")
+        void coversSphere() {
+            // segment nearest Sol at (0, 5, 0), 5 ly away
+            RouteCorridor offset = RouteCorridor.between(
+                    new double[]{-20, 5, 0}, new double[]{20, 5, 0}, 30);
+
+            assertTrue(offset.coversSphere(25));
+            assertFalse(offset.coversSphere(25.01));
+            assertFalse(corridor.coversSphere(100));
+            assertTrue(corridor.widen(10).coversSphere(100));
+        }
+
+        @Test
+        @DisplayName("Negative radius is rejected")
+        void negativeRadiusRejected() {
+            assertThrows(IllegalArgumentException.class, () ->
+                    RouteCorridor.between(new double[]{0, 0, 0}, new double[]{1, 0, 0}, -1));
+        }
+    }
+
+    // =========================================================================
+    // Bounds Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Bounds Tests")
+    class BoundsTests {
+
+        @Test
+        @DisplayName("Bounding box is the segment box padded by the radius")
+        void boundingBox() {
+            assertEquals(-10, corridor.getMinX());
+            assertEquals(110, corridor.getMaxX());
+            assertEquals(-10, corridor.getMinY());
+            assertEquals(10, corridor.getMaxY());
+            assertEquals(-10, corridor.getMinZ());
+            assertEquals(10, corridor.getMaxZ());
+        }
+
+        @Test
+        @DisplayName("Widening scales the radius and keeps the segment")
+        void widen() {
+            RouteCorridor wider = corridor.widen(2);
+
+            assertEquals(20, wider.getRadius());
+            assertEquals(100, wider.getLength(), 1e-12);
+            assertTrue(wider.contains(new double[]{50, 15, 0}));
+            assertFalse(corridor.contains(new double[]{50, 15, 0}));
+        }
+    }
+}
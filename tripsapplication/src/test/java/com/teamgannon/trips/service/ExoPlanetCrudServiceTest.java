@@ -4,6 +4,7 @@ import com.teamgannon.trips.jpa.model.ExoPlanet;
 import com.teamgannon.trips.jpa.model.SolarSystem;
 import com.teamgannon.trips.jpa.repository.ExoPlanetRepository;
 import com.teamgannon.trips.jpa.repository.SolarSystemRepository;
+import com.teamgannon.trips.planetarymodelling.procedural.PlanetArtifactStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -33,11 +34,14 @@ class ExoPlanetCrudServiceTest {
     @Mock
     private SolarSystemRepository solarSystemRepository;
 
+    @Mock
+    private PlanetArtifactStore planetArtifactStore;
+
     private ExoPlanetCrudService service;
 
     @BeforeEach
     void setUp() {
-        service = new ExoPlanetCrudService(exoPlanetRepository, solarSystemRepository);
+        service = new ExoPlanetCrudService(exoPlanetRepository, solarSystemRepository, planetArtifactStore);
     }
 
     @Nested
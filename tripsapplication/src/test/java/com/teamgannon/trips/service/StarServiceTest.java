@@ -0,0 +1,109 @@
+package com.teamgannon.trips.service;
+
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.jpa.repository.DataSetDescriptorRepository;
+import com.teamgannon.trips.jpa.repository.StarObjectRepository;
+import com.teamgannon.trips.routing.TransitGraphCache;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StarService.
+ */
+@ExtendWith(MockitoExtension.class)
+class StarServiceTest {
+
+    @Mock
+    private StarObjectRepository starObjectRepository;
+
+    @Mock
+    private DataSetDescriptorRepository dataSetDescriptorRepository;
+
+    @Mock
+    private TransitGraphCache transitGraphCache;
+
+    @Mock
+    private StarSnapshotService starSnapshotService;
+
+    private StarService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StarService(starObjectRepository, dataSetDescriptorRepository,
+                transitGraphCache, starSnapshotService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static StarObject createStar(String dataSetName) {
+        StarObject star = new StarObject();
+        star.setId("star-1");
+        star.setDataSetName(dataSetName);
+        return star;
+    }
+
+    @Nested
+    @DisplayName("Cache Invalidation")
+    class CacheInvalidationTests {
+
+        @Test
+        @DisplayName("should invalidate right away outside a transaction")
+        void shouldInvalidateWithoutTransaction() {
+            service.addStar(createStar("Local"));
+
+            verify(transitGraphCache).invalidate("Local");
+            verify(starSnapshotService).invalidate("Local");
+        }
+
+        @Test
+        @DisplayName("should wait for the commit inside a transaction")
+        void shouldInvalidateAfterCommit() {
+            TransactionSynchronizationManager.initSynchronization();
+
+            service.updateStars(List.of(createStar("Local"), createStar("Local"), createStar("Remote")));
+
+            verify(transitGraphCache, never()).invalidate(anyString());
+            verify(starSnapshotService, never()).invalidate(anyString());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            verify(transitGraphCache).invalidate("Local");
+            verify(transitGraphCache).invalidate("Remote");
+            verify(starSnapshotService).invalidate("Local");
+            verify(starSnapshotService).invalidate("Remote");
+        }
+
+        @Test
+        @DisplayName("should keep the caches when the transaction rolls back")
+        void shouldKeepCachesOnRollback() {
+            TransactionSynchronizationManager.initSynchronization();
+
+            service.removeStar(createStar("Local"));
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            verify(transitGraphCache, never()).invalidate(anyString());
+            verify(starSnapshotService, never()).invalidate(anyString());
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package com.teamgannon.trips.service.bulkload;
+
+import com.teamgannon.trips.dialogs.dataset.model.Dataset;
+import com.teamgannon.trips.dialogs.support.DataFileFormat;
+import com.teamgannon.trips.dialogs.support.DataFormatEnum;
+import com.teamgannon.trips.file.chview.ChviewReader;
+import com.teamgannon.trips.jpa.model.DataSetDescriptor;
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.jpa.repository.DataSetDescriptorRepository;
+import com.teamgannon.trips.jpa.repository.StarObjectRepository;
+import com.teamgannon.trips.routing.TransitGraphCache;
+import com.teamgannon.trips.service.BulkLoadService;
+import com.teamgannon.trips.service.DatasetService;
+import com.teamgannon.trips.service.StarService;
+import com.teamgannon.trips.service.snapshot.StarSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for StarBulkInserter against an in-memory H2 schema laid out the way Hibernate
+ * creates it for StarObject.
+ */
+@ExtendWith(MockitoExtension.class)
+class StarBulkInserterTest {
+
+    private static final String[] STRING_COLUMNS = {
+            "data_set_name", "display_name", "common_name", "system_name", "solar_system_id", "epoch",
+            "gaia_updated_date", "constellation_name",
+            "simbad_id", "bayer_cat_id", "gliese_cat_id", "hip_cat_id", "hd_cat_id", "flamsteed_cat_id",
+            "tycho2cat_id", "gaia_dr2cat_id", "gaia_dr3cat_id", "gaia_edr3cat_id", "two_mass_cat_id", "csi_cat_id",
+            "polity", "world_type", "fuel_type", "port_type", "population_type", "tech_type", "product_type",
+            "mil_space_type", "mil_plan_type",
+            "spectral_class", "ortho_spectral_class", "luminosity", "apparent_magnitude", "absolute_magnitude",
+            "misc_text1", "misc_text2", "misc_text3", "misc_text4", "misc_text5"};
+    private static final String[] DOUBLE_COLUMNS = {
+            "mass", "radius", "temperature", "age", "metallicity", "x", "y", "z", "ra", "declination",
+            "galactic_lat", "galactic_long", "pmra", "pmdec", "parallax", "distance", "radial_velocity",
+            "bprp", "bpg", "grp", "magu", "magb", "magv", "magr", "magi",
+            "misc_num1", "misc_num2", "misc_num3", "misc_num4", "misc_num5", "display_score"};
+    private static final String[] BOOLEAN_COLUMNS = {
+            "gaia_updated", "other", "anomaly", "real_star", "exoplanets", "force_label_to_be_shown"};
+    private static final String[] CLOB_COLUMNS = {"catalog_id_list", "notes", "source"};
+
+    @Mock
+    private StarService starService;
+
+    @Mock
+    private TransitGraphCache transitGraphCache;
+
+    @Mock
+    private DatasetService datasetService;
+
+    @Mock
+    private DataSetDescriptorRepository dataSetDescriptorRepository;
+
+    @Mock
+    private StarObjectRepository starObjectRepository;
+
+    private final StarSnapshotService snapshotService = new StarSnapshotService(null);
+
+    private DriverManagerDataSource dataSource;
+    private Connection keepAlive;
+    private StarBulkInserter inserter;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:bulk" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        keepAlive = dataSource.getConnection();
+        createSchema();
+        inserter = new StarBulkInserter(dataSource, starService, snapshotService, transitGraphCache);
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+    }
+
+    // =========================================================================
+    // Insert Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Insert")
+    class InsertTests {
+
+        @Test
+        @DisplayName("should write stars and aliases with JDBC")
+        void shouldInsertStarsAndAliases() throws SQLException {
+            List<StarObject> stars = stars(2_500);
+            stars.get(7).getAliasList().addAll(Set.of("Alpha", "Beta"));
+            stars.get(7).getCatalogIds().setHipCatId("HIP 7");
+            stars.get(7).getWorldBuilding().setPolity("Terran");
+
+            try (StarBulkLoad load = inserter.open("bulk", stars.size())) {
+                assertTrue(load.isDirect());
+                assertFalse(load.isIndexesDeferred());
+                load.insert(stars.subList(0, 1_000));
+                load.insert(stars.subList(1_000, stars.size()));
+                assertEquals(stars.size(), load.getInsertedCount());
+            }
+
+            assertEquals(stars.size(), count("SELECT COUNT(*) FROM star_obj WHERE data_set_name = 'bulk'"));
+            assertEquals(2, count("SELECT COUNT(*) FROM star_obj_alias_list WHERE star_obj_id = '"
+                    + stars.get(7).getId() + "'"));
+            try (Statement statement = keepAlive.createStatement();
+                 ResultSet rs = statement.executeQuery("SELECT hip_cat_id, polity, distance, real_star "
+                         + "FROM star_obj WHERE id = '" + stars.get(7).getId() + "'")) {
+                assertTrue(rs.next());
+                assertEquals("HIP 7", rs.getString(1));
+                assertEquals("Terran", rs.getString(2));
+                assertEquals(7.0, rs.getDouble(3));
+                assertTrue(rs.getBoolean(4));
+            }
+            verify(starService, never()).starBulkSave(anyCollection());
+        }
+
+        @Test
+        @DisplayName("should fill in coordinates like the entity's persist hook")
+        void shouldEnsureCoordinates() throws SQLException {
+            StarObject star = star(1);
+            star.setX(0);
+            star.setY(0);
+            star.setZ(0);
+            star.setDistance(10);
+
+            try (StarBulkLoad load = inserter.open("bulk", 1)) {
+                load.insert(List.of(star));
+            }
+
+            assertNotEquals(0.0, star.getX() * star.getX() + star.getY() * star.getY() + star.getZ() * star.getZ());
+            assertEquals(1, count("SELECT COUNT(*) FROM star_obj WHERE x <> 0 OR y <> 0 OR z <> 0"));
+        }
+
+        @Test
+        @DisplayName("should roll back a failed insert and keep earlier ones")
+        void shouldRollBackFailedInsert() throws SQLException {
+            List<StarObject> stars = stars(10);
+
+            try (StarBulkLoad load = inserter.open("bulk", stars.size())) {
+                load.insert(stars.subList(0, 5));
+                List<StarObject> duplicate = List.of(stars.get(5), stars.get(0));
+                assertThrows(IllegalStateException.class, () -> load.insert(duplicate));
+            }
+
+            assertEquals(5, count("SELECT COUNT(*) FROM star_obj"));
+        }
+
+        @Test
+        @DisplayName("should drop the dataset's caches when closed")
+        void shouldInvalidateCaches() {
+            long before = snapshotService.getGeneration("bulk");
+
+            try (StarBulkLoad load = inserter.open("bulk", 1)) {
+                load.insert(stars(1));
+            }
+
+            assertTrue(snapshotService.getGeneration("bulk") > before);
+            verify(transitGraphCache).invalidate("bulk");
+        }
+    }
+
+    // =========================================================================
+    // Index Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Indexes")
+    class IndexTests {
+
+        @Test
+        @DisplayName("should drop secondary indexes for a large load and rebuild them on close")
+        void shouldDeferIndexes() throws SQLException {
+            Set<String> indexes = secondaryIndexes();
+            assertEquals(3, indexes.size());
+
+            try (StarBulkLoad load = inserter.open("bulk", StarBulkInserter.DEFER_INDEXES_MIN_STARS)) {
+                assertTrue(load.isIndexesDeferred());
+                assertTrue(secondaryIndexes().isEmpty());
+                load.insert(stars(100));
+            }
+
+            assertEquals(indexes, secondaryIndexes());
+            assertEquals(49, count("SELECT COUNT(*) FROM star_obj WHERE data_set_name = 'bulk' AND distance > 50"));
+        }
+
+        @Test
+        @DisplayName("should keep indexes for a small load")
+        void shouldKeepIndexesForSmallLoad() throws SQLException {
+            try (StarBulkLoad load = inserter.open("bulk", 1_000)) {
+                assertFalse(load.isIndexesDeferred());
+            }
+            assertEquals(3, secondaryIndexes().size());
+        }
+
+        @Test
+        @DisplayName("should let only one load defer indexes at a time")
+        void shouldDeferOnce() {
+            try (StarBulkLoad first = inserter.open("first", StarBulkInserter.DEFER_INDEXES_MIN_STARS);
+                 StarBulkLoad second = inserter.open("second", StarBulkInserter.DEFER_INDEXES_MIN_STARS)) {
+                assertTrue(first.isIndexesDeferred());
+                assertFalse(second.isIndexesDeferred());
+            }
+        }
+    }
+
+    // =========================================================================
+    // Fallback Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Fallback")
+    class FallbackTests {
+
+        @Test
+        @DisplayName("should save through Hibernate when the table has an unknown column")
+        void shouldFallBackOnUnknownColumn() throws SQLException {
+            try (Statement statement = keepAlive.createStatement()) {
+                statement.execute("ALTER TABLE star_obj ADD COLUMN unknown_field VARCHAR(255)");
+            }
+            List<StarObject> stars = stars(3);
+
+            try (StarBulkLoad load = inserter.open("bulk", stars.size())) {
+                assertFalse(load.isDirect());
+                load.insert(stars);
+            }
+
+            verify(starService).starBulkSave(stars);
+            assertEquals(0, count("SELECT COUNT(*) FROM star_obj"));
+        }
+
+        @Test
+        @DisplayName("should save through Hibernate when a field has no column")
+        void shouldFallBackOnMissingColumn() throws SQLException {
+            try (Statement statement = keepAlive.createStatement()) {
+                statement.execute("ALTER TABLE star_obj DROP COLUMN display_score");
+            }
+
+            try (StarBulkLoad load = inserter.open("bulk", 1)) {
+                assertFalse(load.isDirect());
+            }
+        }
+    }
+
+    // =========================================================================
+    // Chview Load Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Chview loads")
+    class ChviewLoadTests {
+
+        private static final File SAMPLE = new File("../files/chview/100LY-H.CHV");
+
+        @TempDir
+        Path tempDir;
+
+        @Test
+        @DisplayName("should leave no stars behind when the file is truncated")
+        void shouldRemoveStarsOfTruncatedFile() throws Exception {
+            assumeTrue(SAMPLE.exists(), "sample chview file not available");
+            // cut the file well past the first batch so some stars are committed before it fails
+            byte[] content = Files.readAllBytes(SAMPLE.toPath());
+            File truncated = tempDir.resolve("truncated.chv").toFile();
+            Files.write(truncated.toPath(), Arrays.copyOf(content, content.length * 3 / 4));
+
+            when(dataSetDescriptorRepository.existsById("truncated")).thenReturn(false);
+            doAnswer(invocation -> {
+                deleteDataSet(invocation.getArgument(0));
+                return null;
+            }).when(starObjectRepository).deleteByDataSetName(anyString());
+            BulkLoadService bulkLoadService = new BulkLoadService(starService, datasetService,
+                    dataSetDescriptorRepository, starObjectRepository, snapshotService, inserter, transitGraphCache);
+
+            Exception failure = assertThrows(Exception.class, () -> bulkLoadService.loadCHFile(
+                    message -> { }, chviewDataset("truncated"), new ChviewReader(), truncated));
+
+            assertTrue(failure.getMessage().contains("Failed to read the chview file"));
+            verify(starObjectRepository).deleteByDataSetName("truncated");
+            verify(dataSetDescriptorRepository, never()).save(any(DataSetDescriptor.class));
+            assertEquals(0, count("SELECT COUNT(*) FROM star_obj"));
+        }
+
+        @Test
+        @DisplayName("should not touch the stars of an existing dataset")
+        void shouldKeepExistingDataSet() {
+            when(dataSetDescriptorRepository.existsById("truncated")).thenReturn(true);
+            BulkLoadService bulkLoadService = new BulkLoadService(starService, datasetService,
+                    dataSetDescriptorRepository, starObjectRepository, snapshotService, inserter, transitGraphCache);
+
+            assertThrows(Exception.class, () -> bulkLoadService.loadCHFile(
+                    message -> { }, chviewDataset("truncated"), new ChviewReader(), SAMPLE));
+
+            verify(starObjectRepository, never()).deleteByDataSetName(anyString());
+        }
+
+        private Dataset chviewDataset(String name) {
+            DataFileFormat format = new DataFileFormat();
+            format.setDataFormatEnum(DataFormatEnum.CH_VIEW);
+            format.setSuffix("chv");
+            Dataset dataset = new Dataset();
+            dataset.setName(name);
+            dataset.setDataType(format);
+            return dataset;
+        }
+
+        private void deleteDataSet(String dataSetName) throws SQLException {
+            try (PreparedStatement aliases = keepAlive.prepareStatement("DELETE FROM star_obj_alias_list "
+                    + "WHERE star_obj_id IN (SELECT id FROM star_obj WHERE data_set_name = ?)");
+                 PreparedStatement stars = keepAlive.prepareStatement("DELETE FROM star_obj WHERE data_set_name = ?")) {
+                aliases.setString(1, dataSetName);
+                aliases.executeUpdate();
+                stars.setString(1, dataSetName);
+                stars.executeUpdate();
+            }
+        }
+    }
+
+    // =========================================================================
+    // Helper Methods
+    // =========================================================================
+
+    private void createSchema() throws SQLException {
+        StringBuilder ddl = new StringBuilder("CREATE TABLE star_obj (id VARCHAR(255) NOT NULL PRIMARY KEY");
+        for (String column : STRING_COLUMNS) {
+            ddl.append(", ").append(column).append(" VARCHAR(255)");
+        }
+        for (String column : DOUBLE_COLUMNS) {
+            ddl.append(", ").append(column).append(" FLOAT(53) NOT NULL");
+        }
+        for (String column : BOOLEAN_COLUMNS) {
+            ddl.append(", ").append(column).append(" BOOLEAN NOT NULL");
+        }
+        for (String column : CLOB_COLUMNS) {
+            ddl.append(", ").append(column).append(" CHARACTER LARGE OBJECT");
+        }
+        ddl.append(", num_exoplanets INTEGER NOT NULL)");
+
+        try (Statement statement = keepAlive.createStatement()) {
+            statement.execute(ddl.toString());
+            statement.execute("CREATE INDEX idx_star_dataset_distance ON star_obj (data_set_name, distance DESC)");
+            statement.execute("CREATE INDEX idx_star_display_name ON star_obj (display_name)");
+            statement.execute("CREATE TABLE star_obj_alias_list (star_obj_id VARCHAR(255) NOT NULL, "
+                    + "alias_list VARCHAR(255), "
+                    + "FOREIGN KEY (star_obj_id) REFERENCES star_obj (id))");
+        }
+    }
+
+    /**
+     * The non-unique STAR_OBJ index columns, as name:column:order.
+     */
+    private Set<String> secondaryIndexes() throws SQLException {
+        Set<String> indexes = new HashSet<>();
+        try (ResultSet rs = keepAlive.getMetaData().getIndexInfo(null, null, "STAR_OBJ", false, false)) {
+            while (rs.next()) {
+                if (rs.getBoolean("NON_UNIQUE")) {
+                    indexes.add(rs.getString("INDEX_NAME").toLowerCase(Locale.ROOT)
+                            + ":" + rs.getString("COLUMN_NAME").toLowerCase(Locale.ROOT)
+                            + ":" + rs.getString("ASC_OR_DESC"));
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement statement = keepAlive.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static List<StarObject> stars(int count) {
+        List<StarObject> stars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stars.add(star(i));
+        }
+        return stars;
+    }
+
+    private static StarObject star(int i) {
+        StarObject star = new StarObject();
+        star.setDataSetName("bulk");
+        star.setDisplayName("Star " + i);
+        star.setDistance(i);
+        star.setX(i);
+        star.setY(1);
+        star.setZ(1);
+        return star;
+    }
+}
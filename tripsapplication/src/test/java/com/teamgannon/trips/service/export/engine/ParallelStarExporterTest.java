@@ -0,0 +1,207 @@
+package com.teamgannon.trips.service.export.engine;
+
+import com.teamgannon.trips.dialogs.dataset.model.Dataset;
+import com.teamgannon.trips.file.columnar.ColumnarStarFileReader;
+import com.teamgannon.trips.file.csvin.RegCSVFile;
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.service.StarService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Tests for {@link ParallelStarExporter}, with the dataset served by a mocked {@link StarService}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ParallelStarExporterTest {
+
+    private static final String DATASET = "export-test";
+
+    @Mock
+    private StarService starService;
+
+    @TempDir
+    Path tempDir;
+
+    private static List<StarObject> stars(int count) {
+        List<StarObject> stars = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StarObject star = new StarObject();
+            star.setDataSetName(DATASET);
+            star.setDisplayName("Star " + i);
+            star.setCommonName(i % 2 == 0 ? "" : "Nom, " + i);
+            star.setDistance(i * 0.5);
+            star.setRa(i % 360);
+            star.setDeclination(-45.0);
+            star.setX(i);
+            star.setY(-i);
+            star.setZ(i * 2.0);
+            star.setRealStar(i % 3 != 0);
+            star.setNumExoplanets(i % 4);
+            star.setSpectralClass("G2V");
+            star.setHipCatId("HIP " + i);
+            star.setPolity(i % 5 == 0 ? "Terran" : "NA");
+            star.setOther(i % 7 == 0);
+            star.setNotes("ñ ☉ notes " + i);
+            stars.add(star);
+        }
+        return stars;
+    }
+
+    /**
+     * Serve the stars through processDatasetChunks, as the database would.
+     */
+    @SuppressWarnings("unchecked")
+    private void serve(List<StarObject> stars) {
+        doAnswer(invocation -> {
+            int chunkSize = invocation.getArgument(1);
+            Consumer<List<StarObject>> processor = invocation.getArgument(2);
+            for (int from = 0; from < stars.size(); from += chunkSize) {
+                processor.accept(new ArrayList<>(stars.subList(from, Math.min(stars.size(), from + chunkSize))));
+            }
+            return (long) stars.size();
+        }).when(starService).processDatasetChunks(eq(DATASET), anyInt(), any(Consumer.class));
+    }
+
+    @Nested
+    @DisplayName("CSV")
+    class CsvTests {
+
+        @Test
+        @DisplayName("writes the header once and every row in dataset order across chunks")
+        void writesRowsInOrder() throws Exception {
+            List<StarObject> stars = stars(12_345);
+            serve(stars);
+            Path file = tempDir.resolve("out.trips.csv");
+
+            long count = new ParallelStarExporter(starService, new CsvStarChunkEncoder(), 3)
+                    .export(DATASET, file, message -> { });
+
+            assertEquals(12_345, count);
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(12_346, lines.size());
+            assertTrue(lines.get(0).startsWith("id,dataSetName,displayName"));
+            for (int i = 0; i < stars.size(); i++) {
+                String[] fields = lines.get(i + 1).split(", ", -1);
+                assertEquals(stars.get(i).getId(), fields[0]);
+                assertEquals("Star " + i, fields[2]);
+            }
+            // commas inside fields are replaced so the columns stay aligned
+            assertTrue(lines.get(2).contains("Nom~ 1, "));
+        }
+    }
+
+    @Nested
+    @DisplayName("Columnar")
+    class ColumnarTests {
+
+        @Test
+        @DisplayName("a columnar export loads back with the same star fields")
+        void roundTrip() throws Exception {
+            List<StarObject> stars = stars(11_000);
+            serve(stars);
+            Path file = tempDir.resolve("out.trips.col");
+
+            long count = new ParallelStarExporter(starService, new ColumnarStarChunkEncoder(), 2)
+                    .export(DATASET, file, message -> { });
+            assertEquals(11_000, count);
+
+            List<StarObject> loaded = new ArrayList<>();
+            doAnswer(invocation -> loaded.addAll(invocation.getArgument(0)))
+                    .when(starService).starBulkSave(any());
+            Dataset dataset = new Dataset();
+            dataset.setName("reloaded");
+            dataset.setAuthor("tester");
+            dataset.setNotes("");
+
+            RegCSVFile result = new ColumnarStarFileReader(starService, null)
+                    .loadFile(message -> { }, file.toFile(), dataset);
+
+            assertTrue(result.isReadSuccess(), result.getProcessMessage());
+            assertEquals(11_000, result.getSize());
+            assertEquals(10_999 * 0.5, result.getMaxDistance());
+            assertEquals(11_000, result.getDataSetDescriptor().getNumberStars());
+            assertEquals(11_000, loaded.size());
+            for (int i = 0; i < stars.size(); i++) {
+                StarObject original = stars.get(i);
+                StarObject copy = loaded.get(i);
+                assertNotEquals(original.getId(), copy.getId());
+                assertEquals("reloaded", copy.getDataSetName());
+                assertEquals(original.getDisplayName(), copy.getDisplayName());
+                assertEquals(original.getCommonName(), copy.getCommonName());
+                assertEquals(original.getNotes(), copy.getNotes());
+                assertEquals(original.getDistance(), copy.getDistance());
+                assertEquals(original.getX(), copy.getX());
+                assertEquals(original.getY(), copy.getY());
+                assertEquals(original.getZ(), copy.getZ());
+                assertEquals(original.isRealStar(), copy.isRealStar());
+                assertEquals(original.getNumExoplanets(), copy.getNumExoplanets());
+                assertEquals(original.getHipCatId(), copy.getHipCatId());
+                assertEquals(original.getPolity(), copy.getPolity());
+                assertEquals(original.isOther(), copy.isOther());
+            }
+        }
+
+        @Test
+        @DisplayName("is smaller than the CSV export of the same stars")
+        void smallerThanCsv() throws Exception {
+            serve(stars(5_000));
+            Path csv = tempDir.resolve("out.trips.csv");
+            Path columnar = tempDir.resolve("out.trips.col");
+
+            new ParallelStarExporter(starService, new CsvStarChunkEncoder(), 2).export(DATASET, csv, message -> { });
+            new ParallelStarExporter(starService, new ColumnarStarChunkEncoder(), 2).export(DATASET, columnar, message -> { });
+
+            assertTrue(Files.size(columnar) < Files.size(csv),
+                    "columnar " + Files.size(columnar) + " bytes, CSV " + Files.size(csv));
+        }
+    }
+
+    @Nested
+    @DisplayName("Failures")
+    class FailureTests {
+
+        @Test
+        @DisplayName("an encoder failure fails the export")
+        void encoderFailure() {
+            serve(stars(20_000));
+            StarChunkEncoder failing = new CsvStarChunkEncoder() {
+                @Override
+                public ByteBuffer encode(List<StarObject> stars) {
+                    throw new IllegalStateException("cannot encode");
+                }
+            };
+
+            IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                    () -> new ParallelStarExporter(starService, failing, 2)
+                            .export(DATASET, tempDir.resolve("out.trips.csv"), message -> { }));
+            assertEquals("cannot encode", thrown.getMessage());
+        }
+
+        @Test
+        @DisplayName("a file that cannot be written fails the export")
+        void unwritableFile() {
+            assertThrows(IOException.class,
+                    () -> new ParallelStarExporter(starService, new CsvStarChunkEncoder(), 2)
+                            .export(DATASET, tempDir.resolve("missing").resolve("out.trips.csv"), message -> { }));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.teamgannon.trips.service.snapshot;
+
+import com.teamgannon.trips.jpa.repository.StarObjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.Stream;
+
+import static com.teamgannon.trips.service.snapshot.StarSnapshotTest.row;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StarSnapshotService.
+ */
+@ExtendWith(MockitoExtension.class)
+class StarSnapshotServiceTest {
+
+    @Mock
+    private StarObjectRepository starObjectRepository;
+
+    private StarSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StarSnapshotService(starObjectRepository);
+    }
+
+    @Nested
+    @DisplayName("Caching")
+    class CachingTests {
+
+        @Test
+        @DisplayName("should build a snapshot once and reuse it")
+        void shouldBuildOnce() {
+            stubDataset("main", 2);
+
+            StarSnapshot first = service.getSnapshot("main");
+            StarSnapshot second = service.getSnapshot("main");
+
+            assertNotNull(first);
+            assertEquals(2, first.size());
+            assertSame(first, second);
+            verify(starObjectRepository, times(1)).streamSnapshotColumns("main");
+        }
+
+        @Test
+        @DisplayName("should rebuild after invalidation")
+        void shouldRebuildAfterInvalidate() {
+            stubDataset("main", 2);
+            StarSnapshot first = service.getSnapshot("main");
+
+            service.invalidate("main");
+
+            assertFalse(service.isCached("main"));
+            StarSnapshot second = service.getSnapshot("main");
+            assertNotSame(first, second);
+            verify(starObjectRepository, times(2)).streamSnapshotColumns("main");
+        }
+
+        @Test
+        @DisplayName("should not cache a snapshot built across an invalidation")
+        void shouldNotCacheRacedBuild() {
+            when(starObjectRepository.countByDataSetName("main")).thenReturn(1L);
+            when(starObjectRepository.streamSnapshotColumns("main")).thenAnswer(invocation -> {
+                service.invalidate("main");
+                return Stream.<Object[]>of(row("id-1", "Alpha", 1, 2, 3, "G2V", "", ""));
+            });
+
+            StarSnapshot snapshot = service.getSnapshot("main");
+
+            assertNotNull(snapshot);
+            assertFalse(service.isCached("main"));
+        }
+
+        @Test
+        @DisplayName("should count invalidations per dataset and overall")
+        void shouldCountGenerations() {
+            service.invalidate("main");
+            service.invalidate("main");
+            service.invalidate("other");
+
+            assertEquals(2, service.getGeneration("main"));
+            assertEquals(1, service.getGeneration("other"));
+            assertEquals(0, service.getGeneration("unknown"));
+            assertEquals(3, service.getGeneration(null));
+        }
+    }
+
+    @Nested
+    @DisplayName("Fallback")
+    class FallbackTests {
+
+        @Test
+        @DisplayName("should return null for a blank dataset name")
+        void shouldReturnNullForBlankName() {
+            assertNull(service.getSnapshot(null));
+            assertNull(service.getSnapshot(" "));
+            verifyNoInteractions(starObjectRepository);
+        }
+
+        @Test
+        @DisplayName("should return null for a dataset too large to snapshot")
+        void shouldReturnNullForLargeDataset() {
+            when(starObjectRepository.countByDataSetName("gaia"))
+                    .thenReturn(StarSnapshotService.MAX_SNAPSHOT_STARS + 1L);
+
+            assertNull(service.getSnapshot("gaia"));
+            verify(starObjectRepository, never()).streamSnapshotColumns("gaia");
+        }
+    }
+
+    private void stubDataset(String dataSetName, int count) {
+        when(starObjectRepository.countByDataSetName(dataSetName)).thenReturn((long) count);
+        when(starObjectRepository.streamSnapshotColumns(dataSetName)).thenAnswer(invocation -> {
+            Stream.Builder<Object[]> rows = Stream.builder();
+            for (int i = 0; i < count; i++) {
+                rows.add(row("id-" + i, "Star " + i, i, 0, 0, "G2V", "", ""));
+            }
+            return rows.build();
+        });
+    }
+}
@@ -0,0 +1,129 @@
+package com.teamgannon.trips.service.snapshot;
+
+import com.teamgannon.trips.routing.model.SparseStarRecord;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StarSnapshot.
+ */
+class StarSnapshotTest {
+
+    // =========================================================================
+    // Column Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Column Tests")
+    class ColumnTests {
+
+        @Test
+        @DisplayName("Rows are stored column by column")
+        void rowsStored() {
+            StarSnapshot snapshot = new StarSnapshot.Builder("test", 2)
+                    .addRow(row("id-1", "Alpha", 1.0, 2.0, 3.0, "G2V", "Sol", "4.83"))
+                    .addRow(row("id-2", "Beta", -4.0, 0.5, 9.0, "M4.5Ve", "", "bad"))
+                    .build();
+
+            assertEquals("test", snapshot.getDataSetName());
+            assertEquals(2, snapshot.size());
+            assertEquals("id-2", snapshot.id(1));
+            assertEquals("Beta", snapshot.displayName(1));
+            assertEquals(-4.0, snapshot.x(1));
+            assertEquals(0.5, snapshot.y(1));
+            assertEquals(9.0, snapshot.z(1));
+            assertEquals(4.83f, snapshot.absMag(0));
+            assertTrue(Float.isNaN(snapshot.absMag(1)));
+            assertEquals("G2V", snapshot.spectralClass(0));
+            assertEquals("Sol", snapshot.commonName(0));
+            assertEquals(14.0, snapshot.distanceSquared(0, 0, 0, 0));
+        }
+
+        @Test
+        @DisplayName("Columns grow past the expected capacity")
+        void columnsGrow() {
+            StarSnapshot.Builder builder = new StarSnapshot.Builder("test", 0);
+            for (int i = 0; i < 1000; i++) {
+                builder.addRow(row("id-" + i, "Star " + i, i, 0, 0, "K5V", "", ""));
+            }
+
+            StarSnapshot snapshot = builder.build();
+
+            assertEquals(1000, snapshot.size());
+            assertEquals(999.0, snapshot.x(999));
+            assertEquals("Star 999", snapshot.displayName(999));
+        }
+
+        @Test
+        @DisplayName("Repeated strings share one dictionary entry")
+        void stringsShareDictionary() {
+            StarSnapshot.Builder builder = new StarSnapshot.Builder("test", 100);
+            for (int i = 0; i < 100; i++) {
+                builder.addRow(row("id-" + i, "Star " + i, i, 0, 0, i % 2 == 0 ? "G2V" : "M3V", "", "5"));
+            }
+
+            StarSnapshot snapshot = builder.build();
+
+            // G2V, M3V, empty common name, null system and constellation names
+            assertEquals(4, snapshot.dictionarySize());
+            assertEquals("M3V", snapshot.spectralClass(51));
+            assertNull(snapshot.systemName(51));
+        }
+
+        @Test
+        @DisplayName("Sparse star records carry id, name and coordinates")
+        void sparseStarRecord() {
+            StarSnapshot snapshot = new StarSnapshot.Builder("test", 1)
+                    .addRow(row("id-1", "Alpha", 1.0, 2.0, 3.0, "G2V", "", ""))
+                    .build();
+
+            SparseStarRecord record = snapshot.toSparseStarRecord(0);
+
+            assertEquals("id-1", record.getRecordId());
+            assertEquals("Alpha", record.getStarName());
+            assertArrayEquals(new double[]{1.0, 2.0, 3.0}, record.getActualCoordinates());
+        }
+    }
+
+    // =========================================================================
+    // Spectral Code Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Spectral Code Tests")
+    class SpectralCodeTests {
+
+        @Test
+        @DisplayName("Letter and subclass are encoded in order")
+        void lettersEncoded() {
+            assertEquals(2, StarSnapshot.encodeSpectralClass("O2"));
+            assertEquals(42, StarSnapshot.encodeSpectralClass("G2V"));
+            assertEquals(64, StarSnapshot.encodeSpectralClass("M4.5Ve"));
+            assertEquals(57, StarSnapshot.encodeSpectralClass("sdK7"));
+            assertEquals(30, StarSnapshot.encodeSpectralClass(" F "));
+        }
+
+        @Test
+        @DisplayName("Unrecognised classes are unknown")
+        void unknownClasses() {
+            assertEquals(StarSnapshot.UNKNOWN_SPECTRAL_CODE, StarSnapshot.encodeSpectralClass(null));
+            assertEquals(StarSnapshot.UNKNOWN_SPECTRAL_CODE, StarSnapshot.encodeSpectralClass(""));
+            assertEquals(StarSnapshot.UNKNOWN_SPECTRAL_CODE, StarSnapshot.encodeSpectralClass("DA2"));
+            assertEquals(StarSnapshot.UNKNOWN_SPECTRAL_CODE, StarSnapshot.encodeSpectralClass("wd"));
+        }
+    }
+
+    // =========================================================================
+    // Helper Methods
+    // =========================================================================
+
+    static Object[] row(String id, String name, double x, double y, double z,
+                        String spectralClass, String commonName, String absMag) {
+        double distance = Math.sqrt(x * x + y * y + z * z);
+        return new Object[]{id, name, x, y, z, distance, 5.0, absMag, 0.8, 5800.0,
+                spectralClass, commonName, null, null};
+    }
+}
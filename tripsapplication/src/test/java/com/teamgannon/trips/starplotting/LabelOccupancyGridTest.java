@@ -0,0 +1,124 @@
+package com.teamgannon.trips.starplotting;
+
+import javafx.geometry.Rectangle2D;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LabelOccupancyGrid.
+ */
+class LabelOccupancyGridTest {
+
+    private LabelOccupancyGrid grid;
+
+    @BeforeEach
+    void setUp() {
+        grid = new LabelOccupancyGrid();
+        grid.reset(800, 600);
+    }
+
+    // =========================================================================
+    // Occupancy Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Occupancy Tests")
+    class OccupancyTests {
+
+        @Test
+        @DisplayName("Overlapping rectangle is rejected")
+        void overlappingRejected() {
+            assertTrue(grid.tryOccupy(100, 100, 50, 20));
+            assertFalse(grid.tryOccupy(140, 110, 50, 20));
+            assertEquals(1, grid.size());
+        }
+
+        @Test
+        @DisplayName("Touching rectangles do not collide")
+        void touchingAccepted() {
+            assertTrue(grid.tryOccupy(100, 100, 50, 20));
+            assertTrue(grid.tryOccupy(150, 100, 50, 20));
+            assertTrue(grid.tryOccupy(100, 120, 50, 20));
+        }
+
+        @Test
+        @DisplayName("Rectangles past the viewport edge still collide")
+        void outsideViewportCollides() {
+            assertTrue(grid.tryOccupy(-40, -10, 50, 20));
+            assertFalse(grid.tryOccupy(-60, -20, 30, 20));
+            assertTrue(grid.tryOccupy(790, 590, 40, 40));
+            assertFalse(grid.tryOccupy(820, 620, 20, 20));
+        }
+
+        @Test
+        @DisplayName("Wide rectangle spanning many cells collides with small ones")
+        void wideRectangleCollides() {
+            assertTrue(grid.tryOccupy(500, 300, 10, 10));
+            assertFalse(grid.tryOccupy(0, 290, 800, 30));
+        }
+
+        @Test
+        @DisplayName("Reset clears placed rectangles")
+        void resetClears() {
+            assertTrue(grid.tryOccupy(100, 100, 50, 20));
+
+            grid.reset(800, 600);
+
+            assertEquals(0, grid.size());
+            assertTrue(grid.tryOccupy(100, 100, 50, 20));
+        }
+
+        @Test
+        @DisplayName("Reset to a new viewport size clears placed rectangles")
+        void resizeClears() {
+            assertTrue(grid.tryOccupy(100, 100, 50, 20));
+
+            grid.reset(1920, 1080);
+
+            assertTrue(grid.tryOccupy(100, 100, 50, 20));
+            assertTrue(grid.tryOccupy(1800, 1000, 50, 20));
+        }
+    }
+
+    // =========================================================================
+    // Equivalence Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Equivalence Tests")
+    class EquivalenceTests {
+
+        @Test
+        @DisplayName("Matches a linear scan over Rectangle2D for random labels")
+        void matchesLinearScan() {
+            Random random = new Random(42);
+            for (int pass = 0; pass < 5; pass++) {
+                grid.reset(800, 600);
+                List<Rectangle2D> occupied = new ArrayList<>();
+                for (int i = 0; i < 2000; i++) {
+                    double x = random.nextDouble() * 900 - 50;
+                    double y = random.nextDouble() * 700 - 50;
+                    double w = 10 + random.nextDouble() * 120;
+                    double h = 12 + random.nextDouble() * 10;
+                    Rectangle2D bounds = new Rectangle2D(x, y, w, h);
+
+                    boolean free = occupied.stream().noneMatch(o -> o.intersects(bounds));
+                    if (free) {
+                        occupied.add(bounds);
+                    }
+
+                    assertEquals(free, grid.tryOccupy(x, y, w, h), "Rectangle " + i + " of pass " + pass);
+                }
+                assertEquals(occupied.size(), grid.size());
+            }
+        }
+    }
+}
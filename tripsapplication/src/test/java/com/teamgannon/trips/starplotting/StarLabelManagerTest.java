@@ -9,6 +9,7 @@ import javafx.geometry.Bounds;
 import javafx.scene.Group;
 import javafx.scene.Node;
 import javafx.scene.PerspectiveCamera;
+import javafx.scene.Scene;
 import javafx.scene.SubScene;
 import javafx.scene.control.Label;
 import javafx.scene.paint.Color;
@@ -626,6 +627,95 @@ class StarLabelManagerTest {
         }
     }
 
+    // =========================================================================
+    // Measurement Budget Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Measurement Budget Tests")
+    class MeasurementBudgetTests {
+
+        @Test
+        @DisplayName("Labels beyond the budget are placed by follow-up passes")
+        void labelsBeyondBudgetPlacedLater() throws Exception {
+            Label[] labels = runOnFxThread(() -> {
+                Group world = new Group();
+                SubScene subScene = new SubScene(world, 800, 600);
+                subScene.setCamera(new PerspectiveCamera());
+                Group sceneRoot = new Group();
+                sceneRoot.getChildren().add(subScene);
+                new Scene(sceneRoot, 800, 600);
+
+                labelManager.initialize(sceneRoot, subScene);
+                labelManager.setMeasurementBudget(1);
+                ColorPalette palette = createTestPalette();
+
+                Label[] created = new Label[3];
+                for (int i = 0; i < 3; i++) {
+                    Sphere node = new Sphere(5);
+                    node.setTranslateX(100 + i * 250);
+                    node.setTranslateY(300);
+                    world.getChildren().add(node);
+                    created[i] = labelManager.addLabel(node, createTestRecord("Star " + i), palette);
+                }
+
+                labelManager.updateLabels(new BoundingBox(0, 0, 800, 600));
+
+                assertEquals(1, visibleCount(created), "Only the budgeted label is placed");
+                return created;
+            });
+
+            // Each queued follow-up pass measures one more label
+            for (int i = 0; i < 3; i++) {
+                runOnFxThread(() -> null);
+            }
+            assertEquals(3, (int) runOnFxThread(() -> visibleCount(labels)));
+        }
+
+        @Test
+        @DisplayName("Labels outside a scene are measured once and placed by follow-up passes")
+        void labelsOutsideSceneMeasuredOnce() throws Exception {
+            Label[] labels = runOnFxThread(() -> {
+                Group world = new Group();
+                SubScene subScene = new SubScene(world, 800, 600);
+                subScene.setCamera(new PerspectiveCamera());
+                Group sceneRoot = new Group();
+                sceneRoot.getChildren().add(subScene);
+
+                labelManager.initialize(sceneRoot, subScene);
+                labelManager.setMeasurementBudget(1);
+                ColorPalette palette = createTestPalette();
+
+                Label[] created = new Label[3];
+                for (int i = 0; i < 3; i++) {
+                    Sphere node = new Sphere(5);
+                    node.setTranslateX(100 + i * 250);
+                    node.setTranslateY(300);
+                    world.getChildren().add(node);
+                    created[i] = labelManager.addLabel(node, createTestRecord("Star " + i), palette);
+                }
+
+                labelManager.updateLabels(new BoundingBox(0, 0, 800, 600));
+                return created;
+            });
+
+            for (int i = 0; i < 3; i++) {
+                runOnFxThread(() -> null);
+            }
+            assertEquals(3, (int) runOnFxThread(() -> visibleCount(labels)));
+        }
+
+        private int visibleCount(Label[] labels) {
+            int visible = 0;
+            for (Label label : labels) {
+                if (label.isVisible()) {
+                    visible++;
+                }
+            }
+            return visible;
+        }
+    }
+
     // =========================================================================
     // Font Scaling Tests
     // =========================================================================
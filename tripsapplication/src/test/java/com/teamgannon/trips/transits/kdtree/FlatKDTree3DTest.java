@@ -0,0 +1,219 @@
+package com.teamgannon.trips.transits.kdtree;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the array-backed FlatKDTree3D.
+ */
+class FlatKDTree3DTest {
+
+    // =========================================================================
+    // Construction Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Construction Tests")
+    class ConstructionTests {
+
+        @Test
+        @DisplayName("Empty tree has size 0")
+        void emptyTreeHasSizeZero() {
+            FlatKDTree3D tree = new FlatKDTree3D(new double[0]);
+
+            assertEquals(0, tree.size());
+            assertTrue(tree.isEmpty());
+            assertEquals(-1, tree.nearestNeighbor(0, 0, 0));
+        }
+
+        @Test
+        @DisplayName("Coordinates are retrievable by input index")
+        void coordinatesByInputIndex() {
+            FlatKDTree3D tree = new FlatKDTree3D(new double[]{
+                    5, 6, 7,
+                    1, 2, 3,
+                    -1, -2, -3
+            });
+
+            assertEquals(3, tree.size());
+            assertEquals(1, tree.x(1));
+            assertEquals(2, tree.y(1));
+            assertEquals(3, tree.z(1));
+            assertEquals(-3, tree.z(2));
+        }
+
+        @Test
+        @DisplayName("Rejects coordinate arrays that are not a multiple of 3")
+        void rejectsBadLength() {
+            assertThrows(IllegalArgumentException.class, () -> new FlatKDTree3D(new double[]{1, 2}));
+        }
+
+        @Test
+        @DisplayName("Builds from a record list")
+        void buildsFromRecordList() {
+            List<double[]> records = List.of(
+                    new double[]{0, 0, 0},
+                    new double[]{10, 0, 0}
+            );
+
+            FlatKDTree3D tree = FlatKDTree3D.of(records, coords -> coords);
+
+            assertEquals(2, tree.size());
+            assertEquals(1, tree.nearestNeighbor(9, 0, 0));
+        }
+
+        @Test
+        @DisplayName("Tree handles duplicate coordinates")
+        void handlesDuplicateCoordinates() {
+            double[] xyz = new double[300];
+            Arrays.fill(xyz, 1.0);
+            FlatKDTree3D tree = new FlatKDTree3D(xyz);
+
+            assertEquals(100, tree.rangeCount(1, 1, 1, 0.0));
+        }
+    }
+
+    // =========================================================================
+    // Range Search Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Range Search Tests")
+    class RangeSearchTests {
+
+        private FlatKDTree3D tree;
+
+        @BeforeEach
+        void setUp() {
+            tree = new FlatKDTree3D(new double[]{
+                    0, 0, 0,    // 0 origin
+                    1, 0, 0,    // 1 x1
+                    0, 1, 0,    // 2 y1
+                    0, 0, 1,    // 3 z1
+                    5, 5, 5,    // 4 far
+                    -1, -1, -1  // 5 negative
+            });
+        }
+
+        @Test
+        @DisplayName("Range search visits points within radius")
+        void visitsPointsWithinRadius() {
+            Set<Integer> found = new HashSet<>();
+            tree.rangeSearch(0, 0, 0, 1.5, (index, distSq) -> found.add(index));
+
+            assertEquals(Set.of(0, 1, 2, 3), found);
+        }
+
+        @Test
+        @DisplayName("Range search reports squared distances")
+        void reportsSquaredDistances() {
+            Map<Integer, Double> found = new HashMap<>();
+            tree.rangeSearch(0, 0, 0, 2.0, found::put);
+
+            assertEquals(0.0, found.get(0), 1e-12);
+            assertEquals(1.0, found.get(1), 1e-12);
+            assertEquals(3.0, found.get(5), 1e-12);
+        }
+
+        @Test
+        @DisplayName("Range search by index includes the query point")
+        void rangeSearchByIndex() {
+            Set<Integer> found = new HashSet<>();
+            tree.rangeSearch(4, 0.5, (index, distSq) -> found.add(index));
+
+            assertEquals(Set.of(4), found);
+        }
+
+        @Test
+        @DisplayName("Radius boundary is inclusive")
+        void radiusIsInclusive() {
+            assertEquals(2, tree.rangeCount(0.5, 0, 0, 0.5));
+        }
+
+        @Test
+        @DisplayName("Nearest neighbor finds closest point")
+        void nearestNeighbor() {
+            assertEquals(4, tree.nearestNeighbor(4, 4, 4));
+            assertEquals(5, tree.nearestNeighbor(-2, -2, -2));
+        }
+    }
+
+    // =========================================================================
+    // Correctness vs Brute Force
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Brute Force Comparison Tests")
+    class BruteForceTests {
+
+        @Test
+        @DisplayName("Range search matches brute force on random data")
+        void rangeSearchMatchesBruteForce() {
+            Random random = new Random(42);
+            int n = 2000;
+            double[] xyz = new double[n * 3];
+            for (int i = 0; i < xyz.length; i++) {
+                xyz[i] = random.nextDouble() * 100;
+            }
+            FlatKDTree3D tree = new FlatKDTree3D(xyz);
+
+            for (int q = 0; q < 50; q++) {
+                double x = random.nextDouble() * 100;
+                double y = random.nextDouble() * 100;
+                double z = random.nextDouble() * 100;
+                double radius = random.nextDouble() * 20;
+
+                Set<Integer> found = new HashSet<>();
+                tree.rangeSearch(x, y, z, radius, (index, distSq) ->
+                        assertTrue(found.add(index), "Point visited twice: " + index));
+
+                Set<Integer> expected = new HashSet<>();
+                for (int i = 0; i < n; i++) {
+                    if (distanceSquared(xyz, i, x, y, z) <= radius * radius) {
+                        expected.add(i);
+                    }
+                }
+                assertEquals(expected, found);
+            }
+        }
+
+        @Test
+        @DisplayName("Nearest neighbor matches brute force on clustered data")
+        void nearestMatchesBruteForce() {
+            Random random = new Random(7);
+            int n = 1500;
+            double[] xyz = new double[n * 3];
+            for (int i = 0; i < xyz.length; i++) {
+                // coarse grid values force many equal keys on every axis
+                xyz[i] = Math.floor(random.nextDouble() * 8);
+            }
+            FlatKDTree3D tree = new FlatKDTree3D(xyz);
+
+            for (int q = 0; q < 50; q++) {
+                double x = random.nextDouble() * 8;
+                double y = random.nextDouble() * 8;
+                double z = random.nextDouble() * 8;
+
+                double best = Double.MAX_VALUE;
+                for (int i = 0; i < n; i++) {
+                    best = Math.min(best, distanceSquared(xyz, i, x, y, z));
+                }
+                int nearest = tree.nearestNeighbor(x, y, z);
+                assertEquals(best, distanceSquared(xyz, nearest, x, y, z), 1e-12);
+            }
+        }
+
+        private double distanceSquared(double[] xyz, int i, double x, double y, double z) {
+            double dx = xyz[i * 3] - x;
+            double dy = xyz[i * 3 + 1] - y;
+            double dz = xyz[i * 3 + 2] - z;
+            return dx * dx + dy * dy + dz * dz;
+        }
+    }
+}
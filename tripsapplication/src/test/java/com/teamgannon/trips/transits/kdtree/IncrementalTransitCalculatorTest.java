@@ -0,0 +1,250 @@
+package com.teamgannon.trips.transits.kdtree;
+
+import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
+import com.teamgannon.trips.transits.TransitConstants;
+import com.teamgannon.trips.transits.TransitRangeDef;
+import com.teamgannon.trips.transits.TransitRoute;
+import javafx.geometry.Point3D;
+import javafx.scene.paint.Color;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for IncrementalTransitCalculator.
+ */
+class IncrementalTransitCalculatorTest {
+
+    private final KDTreeTransitCalculator fullCalculator = new KDTreeTransitCalculator(false);
+    private IncrementalTransitCalculator incremental;
+    private List<TransitRangeDef> bands;
+
+    @BeforeEach
+    void setUp() {
+        incremental = new IncrementalTransitCalculator();
+        bands = List.of(createRangeDef(0, 4), createRangeDef(4, 7));
+    }
+
+    // =========================================================================
+    // Update Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Update Tests")
+    class UpdateTests {
+
+        @Test
+        @DisplayName("Update without a recorded calculation is refused")
+        void noRecordRefused() {
+            assertNull(incremental.update(bands, randomStars(100, 1)));
+            assertFalse(incremental.hasRecordedTransits());
+        }
+
+        @Test
+        @DisplayName("Unchanged stars produce an empty update")
+        void unchangedStarsEmptyUpdate() {
+            List<StarDisplayRecord> stars = randomStars(400, 2);
+            recordFull(stars);
+
+            Map<UUID, IncrementalTransitCalculator.BandUpdate> updates = incremental.update(bands, stars);
+
+            assertNotNull(updates);
+            for (IncrementalTransitCalculator.BandUpdate update : updates.values()) {
+                assertTrue(update.removed().isEmpty());
+                assertTrue(update.added().isEmpty());
+                assertTrue(update.retargeted().isEmpty());
+            }
+        }
+
+        @Test
+        @DisplayName("Added, removed and moved stars give the same transits as a full calculation")
+        void matchesFullCalculation() {
+            List<StarDisplayRecord> stars = randomStars(1000, 3);
+            Map<UUID, Set<String>> displayed = recordFull(stars);
+
+            // Remove 30, move 20, add 40
+            List<StarDisplayRecord> next = new ArrayList<>(stars.subList(30, stars.size()));
+            Random random = new Random(4);
+            for (int i = 0; i < 20; i++) {
+                StarDisplayRecord moved = copy(next.get(i * 7));
+                double[] c = moved.getActualCoordinates();
+                moved.setActualCoordinates(new double[]{c[0] + random.nextDouble() * 3, c[1], c[2] - 1});
+                next.set(i * 7, moved);
+            }
+            next.addAll(randomStars(40, 5, "New"));
+
+            Map<UUID, IncrementalTransitCalculator.BandUpdate> updates = incremental.update(bands, next);
+
+            assertNotNull(updates);
+            Map<UUID, List<TransitRoute>> expected = fullCalculator.calculateDistancesByBand(bands, next);
+            for (TransitRangeDef band : bands) {
+                IncrementalTransitCalculator.BandUpdate update = updates.get(band.getBandId());
+                Set<String> patched = displayed.get(band.getBandId());
+                update.removed().forEach(route -> assertTrue(patched.remove(key(route))));
+                update.added().forEach(route -> assertTrue(patched.add(key(route))));
+                assertEquals(keys(expected.get(band.getBandId())), patched);
+            }
+        }
+
+        @Test
+        @DisplayName("Replotted records of unmoved stars are retargeted, not recalculated")
+        void replottedRecordsRetargeted() {
+            List<StarDisplayRecord> stars = randomStars(300, 6);
+            Map<UUID, List<TransitRoute>> routes = fullCalculator.calculateDistancesByBand(bands, stars);
+            incremental.record(bands, stars, routes);
+
+            // Same stars at new display positions, as after a recenter
+            List<StarDisplayRecord> replotted = new ArrayList<>();
+            for (StarDisplayRecord star : stars) {
+                StarDisplayRecord copy = copy(star);
+                copy.setCoordinates(star.getCoordinates().add(10, 0, 0));
+                replotted.add(copy);
+            }
+
+            Map<UUID, IncrementalTransitCalculator.BandUpdate> updates = incremental.update(bands, replotted);
+
+            assertNotNull(updates);
+            for (TransitRangeDef band : bands) {
+                IncrementalTransitCalculator.BandUpdate update = updates.get(band.getBandId());
+                assertTrue(update.removed().isEmpty());
+                assertTrue(update.added().isEmpty());
+                assertEquals(routes.get(band.getBandId()).size(), update.retargeted().size());
+                for (TransitRoute route : update.retargeted()) {
+                    assertTrue(replotted.contains(route.getSource()));
+                    assertEquals(route.getSource().getCoordinates().getX(),
+                            route.getSourceEndpoint().getX());
+                }
+            }
+        }
+    }
+
+    // =========================================================================
+    // Refusal Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Refusal Tests")
+    class RefusalTests {
+
+        @Test
+        @DisplayName("Changed band ranges are refused")
+        void changedBandsRefused() {
+            List<StarDisplayRecord> stars = randomStars(200, 7);
+            recordFull(stars);
+
+            bands.get(1).setUpperRange(8);
+
+            assertNull(incremental.update(bands, stars));
+        }
+
+        @Test
+        @DisplayName("Large changes are refused and leave the record intact")
+        void largeChangeRefused() {
+            List<StarDisplayRecord> stars = randomStars(200, 8);
+            recordFull(stars);
+
+            assertNull(incremental.update(bands, randomStars(200, 9, "Other")));
+            assertNotNull(incremental.update(bands, stars));
+        }
+
+        @Test
+        @DisplayName("Shared star names are refused")
+        void sharedNamesRefused() {
+            List<StarDisplayRecord> stars = randomStars(200, 10);
+            recordFull(stars);
+
+            List<StarDisplayRecord> next = new ArrayList<>(stars);
+            StarDisplayRecord duplicate = copy(stars.get(0));
+            duplicate.setRecordId("another-id");
+            next.add(duplicate);
+
+            assertNull(incremental.update(bands, next));
+        }
+
+        @Test
+        @DisplayName("Reset forgets the recorded calculation")
+        void resetForgets() {
+            List<StarDisplayRecord> stars = randomStars(200, 11);
+            recordFull(stars);
+
+            incremental.reset();
+
+            assertFalse(incremental.hasRecordedTransits());
+            assertNull(incremental.update(bands, stars));
+        }
+    }
+
+    // =========================================================================
+    // Helper Methods
+    // =========================================================================
+
+    private Map<UUID, Set<String>> recordFull(List<StarDisplayRecord> stars) {
+        Map<UUID, List<TransitRoute>> routes = fullCalculator.calculateDistancesByBand(bands, stars);
+        incremental.record(bands, stars, routes);
+        assertTrue(incremental.hasRecordedTransits());
+        Map<UUID, Set<String>> keys = new HashMap<>();
+        routes.forEach((bandId, bandRoutes) -> keys.put(bandId, keys(bandRoutes)));
+        return keys;
+    }
+
+    private static Set<String> keys(List<TransitRoute> routes) {
+        Set<String> keys = new HashSet<>();
+        for (TransitRoute route : routes) {
+            assertTrue(keys.add(key(route)), "Duplicate route " + key(route));
+        }
+        return keys;
+    }
+
+    private static String key(TransitRoute route) {
+        String a = route.getSource().getStarName();
+        String b = route.getTarget().getStarName();
+        return a.compareTo(b) < 0 ? a + "|" + b : b + "|" + a;
+    }
+
+    private List<StarDisplayRecord> randomStars(int count, long seed) {
+        return randomStars(count, seed, "Star");
+    }
+
+    private List<StarDisplayRecord> randomStars(int count, long seed, String prefix) {
+        Random random = new Random(seed);
+        List<StarDisplayRecord> stars = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            stars.add(createStar(prefix + i,
+                    random.nextDouble() * 40,
+                    random.nextDouble() * 40,
+                    random.nextDouble() * 40));
+        }
+        return stars;
+    }
+
+    private TransitRangeDef createRangeDef(double lower, double upper) {
+        TransitRangeDef def = new TransitRangeDef();
+        def.setBandId(UUID.randomUUID());
+        def.setBandName("Band " + lower + "-" + upper);
+        def.setEnabled(true);
+        def.setLowerRange(lower);
+        def.setUpperRange(upper);
+        def.setLineWidth(TransitConstants.DEFAULT_LINE_WIDTH);
+        def.setBandColor(Color.WHITE);
+        return def;
+    }
+
+    private StarDisplayRecord createStar(String name, double x, double y, double z) {
+        StarDisplayRecord record = new StarDisplayRecord();
+        record.setStarName(name);
+        record.setRecordId("id-" + name);
+        record.setActualCoordinates(new double[]{x, y, z});
+        record.setCoordinates(new Point3D(x, y, z));
+        return record;
+    }
+
+    private StarDisplayRecord copy(StarDisplayRecord star) {
+        double[] c = star.getActualCoordinates();
+        return createStar(star.getStarName(), c[0], c[1], c[2]);
+    }
+}
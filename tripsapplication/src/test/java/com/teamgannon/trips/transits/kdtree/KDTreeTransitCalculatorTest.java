@@ -1,6 +1,8 @@
 package com.teamgannon.trips.transits.kdtree;
 
+import com.teamgannon.trips.config.application.Localization;
 import com.teamgannon.trips.graphics.entities.StarDisplayRecord;
+import com.teamgannon.trips.routing.TransitGraphCache;
 import com.teamgannon.trips.transits.TransitConstants;
 import com.teamgannon.trips.transits.TransitRangeDef;
 import com.teamgannon.trips.transits.TransitRoute;
@@ -10,8 +12,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -22,6 +30,9 @@ class KDTreeTransitCalculatorTest {
 
     private KDTreeTransitCalculator calculator;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         calculator = new KDTreeTransitCalculator(false); // Disable parallel for deterministic tests
@@ -217,6 +228,32 @@ class KDTreeTransitCalculatorTest {
 
             assertTrue(routes.isEmpty());
         }
+
+        @Test
+        @DisplayName("Stars sharing a name get no route between them, with or without the graph cache")
+        void sameNamePairsSkipped() {
+            TransitRangeDef rangeDef = createRangeDef(0, 10);
+            List<StarDisplayRecord> stars = List.of(
+                    createStar("A", 0, 0, 0),
+                    createStar("A", 3, 0, 0),
+                    createStar("B", 0, 4, 0)
+            );
+            stars.forEach(star -> star.setDataSetName("Test Dataset"));
+            Localization localization = new Localization();
+            localization.setProgramdata(tempDir.toString());
+            KDTreeTransitCalculator cached = new KDTreeTransitCalculator(false, new TransitGraphCache(localization));
+
+            List<TransitRoute> treeRoutes = calculator.calculateDistances(rangeDef, stars);
+            List<TransitRoute> graphRoutes = cached.calculateDistances(rangeDef, stars);
+
+            assertEquals(1, treeRoutes.size());
+            assertEquals(4.0, treeRoutes.get(0).getDistance(), 1e-9);
+            assertEquals(1, graphRoutes.size());
+            assertEquals(4.0, graphRoutes.get(0).getDistance(), 1e-9);
+
+            Map<UUID, List<TransitRoute>> byBand = calculator.calculateDistancesByBand(List.of(rangeDef), stars);
+            assertEquals(1, byBand.get(rangeDef.getBandId()).size());
+        }
     }
 
     // =========================================================================
@@ -445,6 +482,150 @@ class KDTreeTransitCalculatorTest {
         }
     }
 
+    // =========================================================================
+    // Multi-Band Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Multi-Band Tests")
+    class MultiBandTests {
+
+        @Test
+        @DisplayName("Pairs are bucketed into the band containing their distance")
+        void pairsBucketedByBand() {
+            TransitRangeDef near = createRangeDef(0, 5);
+            TransitRangeDef far = createRangeDef(5, 10);
+            List<StarDisplayRecord> stars = List.of(
+                    createStar("Sol", 0, 0, 0),
+                    createStar("Near", 3, 0, 0),
+                    createStar("Boundary", 0, 5, 0),
+                    createStar("Far", 0, 0, -8)
+            );
+
+            Map<UUID, List<TransitRoute>> byBand = calculator.calculateDistancesByBand(List.of(near, far), stars);
+
+            assertEquals(Set.of("Near|Sol", "Boundary|Sol"), routeKeys(byBand.get(near.getBandId())));
+            assertEquals(Set.of("Boundary|Near", "Far|Sol", "Far|Near", "Boundary|Far"),
+                    routeKeys(byBand.get(far.getBandId())));
+        }
+
+        @Test
+        @DisplayName("Disabled bands are skipped")
+        void disabledBandsSkipped() {
+            TransitRangeDef enabled = createRangeDef(0, 5);
+            TransitRangeDef disabled = createRangeDef(5, 10);
+            disabled.setEnabled(false);
+            List<StarDisplayRecord> stars = List.of(
+                    createStar("Sol", 0, 0, 0),
+                    createStar("Far", 8, 0, 0)
+            );
+
+            Map<UUID, List<TransitRoute>> byBand = calculator.calculateDistancesByBand(List.of(enabled, disabled), stars);
+
+            assertEquals(Set.of(enabled.getBandId()), byBand.keySet());
+            assertTrue(byBand.get(enabled.getBandId()).isEmpty());
+        }
+
+        @Test
+        @DisplayName("Each band matches a single-band calculation, sequential and parallel")
+        void matchesSingleBandCalculation() {
+            List<TransitRangeDef> bands = List.of(
+                    createRangeDef(0, 2.5),
+                    createRangeDef(2.5, 4),
+                    createRangeDef(4, 6),
+                    createRangeDef(3, 5)  // overlapping band gets its own pairs as well
+            );
+            List<StarDisplayRecord> stars = new ArrayList<>();
+            Random random = new Random(789);
+            for (int i = 0; i < 800; i++) {
+                stars.add(createStar("Star" + i,
+                        random.nextDouble() * 40,
+                        random.nextDouble() * 40,
+                        random.nextDouble() * 40
+                ));
+            }
+
+            Map<UUID, List<TransitRoute>> sequential = calculator.calculateDistancesByBand(bands, stars);
+            Map<UUID, List<TransitRoute>> parallel = new KDTreeTransitCalculator(true).calculateDistancesByBand(bands, stars);
+
+            for (TransitRangeDef band : bands) {
+                Set<String> expected = routeKeys(calculator.calculateDistances(band, stars));
+                assertFalse(expected.isEmpty());
+                assertEquals(expected, routeKeys(sequential.get(band.getBandId())));
+                assertEquals(expected, routeKeys(parallel.get(band.getBandId())));
+                assertEquals(expected.size(), parallel.get(band.getBandId()).size());
+            }
+        }
+
+        @Test
+        @DisplayName("Large datasets are bucketed from the cached graph, matching the tree pass")
+        void largeDatasetUsesGraphCache() throws IOException {
+            List<TransitRangeDef> bands = List.of(createRangeDef(0, 3), createRangeDef(3, 5));
+            List<StarDisplayRecord> stars = new ArrayList<>();
+            Random random = new Random(321);
+            for (int i = 0; i < TransitGraphCache.MIN_CACHED_STARS + 100; i++) {
+                StarDisplayRecord star = createStar("Star" + i,
+                        random.nextDouble() * 60,
+                        random.nextDouble() * 60,
+                        random.nextDouble() * 60);
+                star.setDataSetName("Test Dataset");
+                stars.add(star);
+            }
+            Localization localization = new Localization();
+            localization.setProgramdata(tempDir.toString());
+            KDTreeTransitCalculator cached = new KDTreeTransitCalculator(true, new TransitGraphCache(localization));
+
+            Map<UUID, List<TransitRoute>> fromTree = calculator.calculateDistancesByBand(bands, stars);
+            Map<UUID, List<TransitRoute>> fromGraph = cached.calculateDistancesByBand(bands, stars);
+
+            try (Stream<Path> files = Files.walk(tempDir)) {
+                assertEquals(1, files.filter(path -> path.toString().endsWith(".bin")).count());
+            }
+            for (TransitRangeDef band : bands) {
+                assertFalse(fromTree.get(band.getBandId()).isEmpty());
+                assertEquals(routeKeys(fromTree.get(band.getBandId())), routeKeys(fromGraph.get(band.getBandId())));
+                assertEquals(fromTree.get(band.getBandId()).size(), fromGraph.get(band.getBandId()).size());
+            }
+        }
+
+        @Test
+        @DisplayName("Multi-band list holds the routes of every band")
+        void multiBandListHoldsAllBands() {
+            List<TransitRangeDef> bands = List.of(createRangeDef(0, 5), createRangeDef(5, 10));
+            List<StarDisplayRecord> stars = List.of(
+                    createStar("Sol", 0, 0, 0),
+                    createStar("Near", 3, 0, 0),
+                    createStar("Far", 9, 0, 0)
+            );
+
+            List<TransitRoute> routes = calculator.calculateDistancesMultiBand(bands, stars);
+
+            assertEquals(Set.of("Near|Sol", "Far|Near", "Far|Sol"), routeKeys(routes));
+        }
+
+        @Test
+        @DisplayName("Cancellation stops the pass")
+        void cancellationStopsPass() {
+            List<StarDisplayRecord> stars = List.of(
+                    createStar("Sol", 0, 0, 0),
+                    createStar("Near", 3, 0, 0)
+            );
+
+            assertThrows(CancellationException.class, () -> calculator.calculateDistancesByBand(
+                    List.of(createRangeDef(0, 5)), stars, () -> true, processed -> fail("no star expected")));
+        }
+
+        private Set<String> routeKeys(List<TransitRoute> routes) {
+            Set<String> keys = new HashSet<>();
+            for (TransitRoute route : routes) {
+                String a = route.getSource().getStarName();
+                String b = route.getTarget().getStarName();
+                keys.add(a.compareTo(b) < 0 ? a + "|" + b : b + "|" + a);
+            }
+            return keys;
+        }
+    }
+
     // =========================================================================
     // Helper Methods
     // =========================================================================
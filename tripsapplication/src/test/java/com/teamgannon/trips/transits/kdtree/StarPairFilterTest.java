@@ -0,0 +1,114 @@
+package com.teamgannon.trips.transits.kdtree;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for StarPairFilter.
+ */
+class StarPairFilterTest {
+
+    private static StarPairFilter filterFor(String... names) {
+        return StarPairFilter.of(List.of(names), Function.identity());
+    }
+
+    // =========================================================================
+    // Unique Name Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Unique Name Tests")
+    class UniqueNameTests {
+
+        @Test
+        @DisplayName("Each pair is accepted once, from the lower index")
+        void acceptedOnceFromLowerIndex() {
+            StarPairFilter pairs = filterFor("Sol", "Alpha Centauri", "Barnard's Star");
+
+            assertTrue(pairs.accept(0, 2));
+            assertFalse(pairs.accept(2, 0));
+            assertFalse(pairs.accept(1, 0));
+            assertTrue(pairs.accept(0, 1));
+        }
+
+        @Test
+        @DisplayName("Matches string key de-duplication over all ordered pairs")
+        void matchesStringKeys() {
+            String[] names = new String[40];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = "Star" + i;
+            }
+            StarPairFilter pairs = filterFor(names);
+            Set<String> seen = StarPairKey.createTrackingSet();
+
+            for (int i = 0; i < names.length; i++) {
+                for (int j = names.length - 1; j >= 0; j--) {
+                    if (i == j) continue;
+                    boolean expected = StarPairKey.addIfAbsent(seen, names[i], names[j]);
+                    assertEquals(expected, pairs.accept(i, j), names[i] + "-" + names[j]);
+                }
+            }
+        }
+    }
+
+    // =========================================================================
+    // Shared Name Tests
+    // =========================================================================
+
+    @Nested
+    @DisplayName("Shared Name Tests")
+    class SharedNameTests {
+
+        @Test
+        @DisplayName("Stars sharing a name are one endpoint")
+        void sharedNameIsOneEndpoint() {
+            StarPairFilter pairs = filterFor("Sol", "Vega", "Sol", "Altair");
+
+            assertTrue(pairs.accept(1, 0));
+            assertFalse(pairs.accept(2, 1));
+            assertFalse(pairs.accept(0, 1));
+            assertTrue(pairs.accept(2, 3));
+            assertFalse(pairs.accept(3, 0));
+        }
+
+        @Test
+        @DisplayName("Same-named stars are reported as one vertex")
+        void sameName() {
+            StarPairFilter pairs = filterFor("Sol", "Vega", "Sol");
+
+            assertTrue(pairs.sameName(0, 2));
+            assertFalse(pairs.sameName(0, 1));
+            assertTrue(pairs.accept(0, 2));
+            assertFalse(pairs.accept(2, 0));
+        }
+
+        @Test
+        @DisplayName("Many shared-name pairs grow the primitive set")
+        void manySharedPairs() {
+            String[] names = new String[400];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = "Star" + (i % 200);
+            }
+            StarPairFilter pairs = filterFor(names);
+
+            int accepted = 0;
+            for (int i = 0; i < names.length; i++) {
+                for (int j = 0; j < names.length; j++) {
+                    if (i != j && pairs.accept(i, j)) {
+                        accepted++;
+                    }
+                }
+            }
+
+            // 200 distinct names: every unordered name pair plus each name with itself
+            assertEquals(200 * 199 / 2 + 200, accepted);
+        }
+    }
+}
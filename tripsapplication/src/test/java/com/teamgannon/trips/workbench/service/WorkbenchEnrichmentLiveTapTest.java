@@ -0,0 +1,231 @@
+package com.teamgannon.trips.workbench.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.teamgannon.trips.jpa.model.StarObject;
+import com.teamgannon.trips.service.StarService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Live TAP enrichment in {@link WorkbenchEnrichmentService}, run against a local stub
+ * serving the Gaia, SIMBAD and VizieR endpoints.
+ */
+@ExtendWith(MockitoExtension.class)
+class WorkbenchEnrichmentLiveTapTest {
+
+    private static final String DATASET = "test-dataset";
+
+    @Mock
+    private StarService starService;
+
+    private HttpServer server;
+    private WorkbenchEnrichmentService service;
+
+    // canned CSV answer per service path
+    private final Map<String, String> answers = new ConcurrentHashMap<>();
+    private final List<String> queries = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        for (String path : List.of("gaia", "simbad", "vizier")) {
+            server.createContext("/" + path + "/sync", exchange -> answer(path, exchange));
+        }
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        service = new WorkbenchEnrichmentService(starService,
+                base + "/gaia", base + "/simbad", base + "/vizier", Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void answer(String path, HttpExchange exchange) throws IOException {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String query = URLDecoder.decode(form.substring(form.indexOf("QUERY=") + "QUERY=".length()),
+                    StandardCharsets.UTF_8);
+            queries.add(path + ": " + query);
+            Thread.sleep(50);
+            byte[] body = answers.getOrDefault(path, "").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static StarObject star(String id) {
+        StarObject star = new StarObject();
+        star.setId(id);
+        star.setRa(10.0);
+        star.setDeclination(20.0);
+        return star;
+    }
+
+    private static Page<StarObject> page(List<StarObject> stars) {
+        return new PageImpl<>(stars);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StarObject> savedStars() {
+        ArgumentCaptor<List<StarObject>> captor = ArgumentCaptor.forClass(List.class);
+        verify(starService, atLeastOnce()).updateStars(captor.capture());
+        List<StarObject> saved = new ArrayList<>();
+        captor.getAllValues().forEach(saved::addAll);
+        return saved;
+    }
+
+    @Nested
+    @DisplayName("Distances")
+    class DistanceTests {
+
+        @Test
+        @DisplayName("Gaia, HIP and SIMBAD parallaxes fill in distances and are saved")
+        void enrichesFromAllCatalogs() throws Exception {
+            StarObject gaia = star("gaia-star");
+            gaia.setGaiaDR3CatId("Gaia DR3 4472832130942575872");
+            StarObject hip = star("hip-star");
+            hip.setHipCatId("HIP 87937");
+            StarObject simbad = star("simbad-star");
+            simbad.setCommonName("Barnard's Star");
+            StarObject orphan = star("orphan-star");
+            orphan.setCommonName("Nowhere");
+
+            answers.put("gaia", "source_id,parallax\n4472832130942575872,100.0\n");
+            answers.put("vizier", "HIP,Plx\n87937,\"200.0\"\n");
+            answers.put("simbad", "id,plx_value\n\"Barnard's Star\",500.0\n");
+            when(starService.findMissingDistanceWithIds(eq(DATASET), any(Pageable.class)))
+                    .thenReturn(page(List.of(gaia, hip, simbad, orphan)))
+                    .thenReturn(page(List.of()));
+
+            List<String> status = new CopyOnWriteArrayList<>();
+            service.enrichMissingDistancesLive(DATASET, 10, 0, status::add);
+
+            // parallax in mas -> light years
+            assertEquals(10.0 * 3.26156, gaia.getDistance(), 1e-6);
+            assertEquals(5.0 * 3.26156, hip.getDistance(), 1e-6);
+            assertEquals(2.0 * 3.26156, simbad.getDistance(), 1e-6);
+            assertEquals(0.0, orphan.getDistance());
+            assertEquals(List.of("gaia-star", "hip-star", "simbad-star"),
+                    savedStars().stream().map(StarObject::getId).sorted().toList());
+
+            // SIMBAD is asked only about the star Gaia and HIP could not place
+            List<String> simbadQueries = queries.stream().filter(q -> q.startsWith("simbad")).toList();
+            assertEquals(1, simbadQueries.size());
+            assertTrue(simbadQueries.get(0).contains("'Barnard''s Star'"));
+            assertTrue(simbadQueries.get(0).contains("'Nowhere'"));
+        }
+
+        @Test
+        @DisplayName("batches run concurrently without exceeding the in-flight limit")
+        void boundedConcurrency() throws Exception {
+            List<StarObject> stars = new ArrayList<>();
+            StringBuilder csv = new StringBuilder("source_id,parallax\n");
+            for (int i = 0; i < 40; i++) {
+                StarObject star = star("star-" + i);
+                star.setGaiaDR3CatId("Gaia DR3 " + (1000000 + i));
+                stars.add(star);
+                csv.append(1000000 + i).append(",50.0\n");
+            }
+            answers.put("gaia", csv.toString());
+            when(starService.findMissingDistanceWithIds(eq(DATASET), any(Pageable.class)))
+                    .thenReturn(page(stars))
+                    .thenReturn(page(List.of()));
+
+            service.enrichMissingDistancesLive(DATASET, 2, 0, message -> { });
+
+            assertEquals(20, queries.size());
+            assertTrue(maxInFlight.get() > 1, "batches were fetched one at a time");
+            assertTrue(maxInFlight.get() <= 4, "too many requests in flight: " + maxInFlight.get());
+            assertEquals(40, savedStars().size());
+            assertTrue(stars.stream().allMatch(star -> star.getDistance() > 0));
+        }
+
+        @Test
+        @DisplayName("stops after three passes without a match")
+        void stopsWithoutProgress() throws Exception {
+            StarObject orphan = star("orphan-star");
+            orphan.setGaiaDR3CatId("Gaia DR3 42");
+            answers.put("gaia", "source_id,parallax\n");
+            when(starService.findMissingDistanceWithIds(eq(DATASET), any(Pageable.class)))
+                    .thenReturn(page(List.of(orphan)));
+
+            service.enrichMissingDistancesLive(DATASET, 10, 0, message -> { });
+
+            assertEquals(3, queries.size());
+            verify(starService, never()).updateStars(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("Stellar parameters")
+    class StellarParamsTests {
+
+        @Test
+        @DisplayName("Gaia astrophysical parameters fill in mass and radius")
+        void enrichesMass() throws Exception {
+            StarObject star = star("gaia-star");
+            star.setGaiaDR3CatId("Gaia DR3 5853498713190525696");
+            answers.put("gaia", "source_id,mass_flame,radius_flame,lum_flame,teff_gspphot,mh_gspphot\n"
+                    + "5853498713190525696,0.12,0.15,,3050.0,\n");
+            when(starService.findMissingMassWithGaiaId(eq(DATASET), any(Pageable.class)))
+                    .thenReturn(page(List.of(star)))
+                    .thenReturn(page(List.of()));
+
+            service.enrichMissingMassesFromGaia(DATASET, 10, 0, message -> { });
+
+            assertEquals(0.12, star.getMass(), 1e-9);
+            assertEquals(0.15, star.getRadius(), 1e-9);
+            assertEquals(3050.0, star.getTemperature(), 1e-9);
+            assertEquals(List.of(star), savedStars());
+            assertTrue(queries.get(0).contains("gaiadr3.astrophysical_parameters"));
+        }
+    }
+}
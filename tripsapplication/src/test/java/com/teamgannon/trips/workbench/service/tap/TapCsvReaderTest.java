@@ -0,0 +1,109 @@
+package com.teamgannon.trips.workbench.service.tap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TapCsvReader}.
+ */
+class TapCsvReaderTest {
+
+    @Nested
+    @DisplayName("Header")
+    class HeaderTests {
+
+        @Test
+        @DisplayName("header names are trimmed and looked up ignoring case")
+        void headerLookup() throws IOException {
+            TapCsvReader rows = new TapCsvReader(new StringReader(" source_id , Parallax\n1,2\n"));
+
+            assertEquals(List.of("source_id", "Parallax"), rows.getHeader());
+            assertEquals(0, rows.column("SOURCE_ID"));
+            assertEquals(1, rows.column("parallax"));
+            assertEquals(-1, rows.column("plx"));
+        }
+
+        @Test
+        @DisplayName("empty response has no header and no rows")
+        void emptyResponse() throws IOException {
+            TapCsvReader rows = new TapCsvReader(new StringReader(""));
+
+            assertTrue(rows.getHeader().isEmpty());
+            assertNull(rows.next());
+            assertEquals(0, rows.getRowCount());
+        }
+    }
+
+    @Nested
+    @DisplayName("Rows")
+    class RowTests {
+
+        @Test
+        @DisplayName("reads rows in order and counts them")
+        void readsRows() throws IOException {
+            TapCsvReader rows = new TapCsvReader(new StringReader("id,plx\r\n1,10.5\r\n2,\r\n"));
+
+            assertArrayEquals(new String[]{"1", "10.5"}, rows.next());
+            assertArrayEquals(new String[]{"2", ""}, rows.next());
+            assertNull(rows.next());
+            assertEquals(2, rows.getRowCount());
+        }
+
+        @Test
+        @DisplayName("quoted fields keep commas, line breaks and doubled quotes")
+        void quotedFields() throws IOException {
+            String csv = "id,plx_value\n"
+                    + "\"* alf Cen, A\",742.1\n"
+                    + "\"NAME \"\"Barnard's\"\"\nStar\",546.9\n";
+            TapCsvReader rows = new TapCsvReader(new StringReader(csv));
+
+            assertArrayEquals(new String[]{"* alf Cen, A", "742.1"}, rows.next());
+            assertArrayEquals(new String[]{"NAME \"Barnard's\"\nStar", "546.9"}, rows.next());
+            assertNull(rows.next());
+        }
+
+        @Test
+        @DisplayName("blank lines are skipped and a missing final newline is fine")
+        void blankLines() throws IOException {
+            TapCsvReader rows = new TapCsvReader(new StringReader("id\n\n1\n\n\n2"));
+
+            assertArrayEquals(new String[]{"1"}, rows.next());
+            assertArrayEquals(new String[]{"2"}, rows.next());
+            assertNull(rows.next());
+        }
+
+        @Test
+        @DisplayName("rows spanning buffer refills are read whole")
+        void largeResponse() throws IOException {
+            StringBuilder csv = new StringBuilder("source_id,parallax\n");
+            for (int i = 0; i < 5000; i++) {
+                csv.append(4_000_000_000_000L + i).append(",\"").append(i).append(".25\"\n");
+            }
+            // hand out a few characters at a time, as a network stream might
+            Reader trickle = new StringReader(csv.toString()) {
+                @Override
+                public int read(char[] buffer, int offset, int length) throws IOException {
+                    return super.read(buffer, offset, Math.min(length, 7));
+                }
+            };
+            TapCsvReader rows = new TapCsvReader(trickle);
+
+            String[] row;
+            int count = 0;
+            while ((row = rows.next()) != null) {
+                assertEquals(String.valueOf(4_000_000_000_000L + count), row[0]);
+                assertEquals(count + ".25", row[1]);
+                count++;
+            }
+            assertEquals(5000, count);
+        }
+    }
+}
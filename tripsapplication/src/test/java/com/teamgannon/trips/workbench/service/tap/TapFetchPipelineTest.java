@@ -0,0 +1,408 @@
+package com.teamgannon.trips.workbench.service.tap;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TapFetchPipeline} against a local stub TAP server.
+ */
+class TapFetchPipelineTest {
+
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private HttpServer server;
+    private String baseUrl;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final List<Long> requestNanos = new CopyOnWriteArrayList<>();
+
+    // answers a query, given its ADQL; returns the HTTP status and body
+    private volatile Function<String, Response> handler = adql -> new Response(200, "id,value\n1,2\n");
+    private volatile long responseDelayMs = 0;
+
+    private record Response(int status, String body) {
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/tap/sync", this::handle);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/tap";
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestNanos.add(System.nanoTime());
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            String adql = "";
+            for (String pair : form.split("&")) {
+                if (pair.startsWith("QUERY=")) {
+                    adql = URLDecoder.decode(pair.substring("QUERY=".length()), StandardCharsets.UTF_8);
+                }
+            }
+            if (responseDelayMs > 0) {
+                Thread.sleep(responseDelayMs);
+            }
+            Response response = handler.apply(adql);
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private TapFetchPipeline pipeline(int maxInFlight, long intervalMs) {
+        return new TapFetchPipeline(HTTP_CLIENT, maxInFlight, TapRateLimiter.everyMillis(intervalMs, 1),
+                Duration.ofMillis(10), Duration.ofSeconds(10));
+    }
+
+    /**
+     * A query that reads the first column of every row; results and failures go to the lists.
+     */
+    private TapQuery<List<String>> query(String adql, List<List<String>> results, List<IOException> failures) {
+        return new TapQuery<>(adql, baseUrl, adql,
+                rows -> {
+                    List<String> values = new ArrayList<>();
+                    String[] row;
+                    while ((row = rows.next()) != null) {
+                        values.add(row[0]);
+                    }
+                    return values;
+                },
+                results::add,
+                failures::add);
+    }
+
+    @Nested
+    @DisplayName("Concurrency")
+    class ConcurrencyTests {
+
+        @Test
+        @DisplayName("every query is answered and handled on the calling thread")
+        void handlesAllOnCallingThread() throws InterruptedException {
+            handler = adql -> new Response(200, "id\n" + adql + "\n");
+            Thread caller = Thread.currentThread();
+            List<String> answered = new ArrayList<>();
+            List<TapQuery<?>> queries = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                queries.add(new TapQuery<>("q" + i, baseUrl, "q" + i,
+                        rows -> rows.next()[0],
+                        value -> {
+                            assertSame(caller, Thread.currentThread());
+                            answered.add(value);
+                        },
+                        e -> fail(e)));
+            }
+
+            pipeline(4, 0).run(queries);
+
+            assertEquals(12, answered.size());
+            for (int i = 0; i < 12; i++) {
+                assertTrue(answered.contains("q" + i));
+            }
+        }
+
+        @Test
+        @DisplayName("keeps several requests in flight but never more than the limit")
+        void boundsInFlight() throws InterruptedException {
+            responseDelayMs = 100;
+            List<List<String>> results = new ArrayList<>();
+            List<IOException> failures = new ArrayList<>();
+            List<TapQuery<?>> queries = new ArrayList<>();
+            for (int i = 0; i < 12; i++) {
+                queries.add(query("q" + i, results, failures));
+            }
+
+            pipeline(3, 0).run(queries);
+
+            assertEquals(12, results.size());
+            assertTrue(failures.isEmpty());
+            assertEquals(3, maxInFlight.get());
+        }
+
+        @Test
+        @DisplayName("spaces request starts by the rate limit")
+        void rateLimited() throws InterruptedException {
+            List<List<String>> results = new ArrayList<>();
+            List<IOException> failures = new ArrayList<>();
+            List<TapQuery<?>> queries = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                queries.add(query("q" + i, results, failures));
+            }
+
+            pipeline(5, 50).run(queries);
+
+            assertEquals(5, results.size());
+            List<Long> starts = new ArrayList<>(requestNanos);
+            starts.sort(Long::compare);
+            long elapsedMs = (starts.get(starts.size() - 1) - starts.get(0)) / 1_000_000;
+            // one token to start with, then one every 50 ms
+            assertTrue(elapsedMs >= 180, "requests came too fast: " + elapsedMs + " ms");
+        }
+
+        @Test
+        @DisplayName("a handler that throws stops the run")
+        void handlerFailureStopsRun() {
+            List<TapQuery<?>> queries = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                queries.add(new TapQuery<>("q" + i, baseUrl, "q" + i,
+                        rows -> rows.getRowCount(),
+                        value -> {
+                            throw new IllegalStateException("save failed");
+                        },
+                        e -> fail(e)));
+            }
+
+            IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                    () -> pipeline(2, 0).run(queries));
+            assertEquals("save failed", thrown.getMessage());
+        }
+    }
+
+    @Nested
+    @DisplayName("Errors")
+    class ErrorTests {
+
+        @Test
+        @DisplayName("an Error thrown while parsing stops the run instead of hanging it")
+        void parserErrorStopsRun() {
+            List<TapQuery<?>> queries = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                queries.add(new TapQuery<>("q" + i, baseUrl, "q" + i,
+                        rows -> {
+                            throw new LinkageError("parser broken");
+                        },
+                        value -> fail("no result expected"),
+                        e -> fail(e)));
+            }
+
+            LinkageError thrown = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> assertThrows(LinkageError.class, () -> pipeline(2, 0).run(queries)));
+            assertEquals("parser broken", thrown.getMessage());
+        }
+
+        @Test
+        @DisplayName("server errors are retried until the query succeeds")
+        void retriesServerErrors() throws InterruptedException {
+            AtomicInteger calls = new AtomicInteger();
+            handler = adql -> calls.incrementAndGet() < 3
+                    ? new Response(503, "busy")
+                    : new Response(200, "id\n7\n");
+            List<List<String>> results = new ArrayList<>();
+            List<IOException> failures = new ArrayList<>();
+
+            pipeline(1, 0).run(List.of(query("q", results, failures)));
+
+            assertEquals(List.of(List.of("7")), results);
+            assertTrue(failures.isEmpty());
+            assertEquals(3, requests.get());
+        }
+
+        @Test
+        @DisplayName("a query still failing after its retries goes to its failure handler")
+        void givesUpAfterRetries() throws InterruptedException {
+            handler = adql -> new Response(429, "slow down");
+            List<List<String>> results = new ArrayList<>();
+            List<IOException> failures = new ArrayList<>();
+
+            pipeline(1, 0).run(List.of(query("q", results, failures)));
+
+            assertTrue(results.isEmpty());
+            assertEquals(1, failures.size());
+            assertEquals(3, requests.get());
+        }
+
+        @Test
+        @DisplayName("client errors fail the query without a retry")
+        void clientErrorNotRetried() throws InterruptedException {
+            handler = adql -> adql.equals("bad")
+                    ? new Response(400, "syntax error in ADQL")
+                    : new Response(200, "id\n1\n");
+            List<List<String>> results = new ArrayList<>();
+            List<IOException> failures = new ArrayList<>();
+
+            pipeline(2, 0).run(List.of(query("bad", results, failures), query("good", results, failures)));
+
+            assertEquals(1, results.size());
+            assertEquals(1, failures.size());
+            assertTrue(failures.get(0).getMessage().contains("HTTP 400"));
+            assertEquals(2, requests.get());
+        }
+    }
+
+    @Nested
+    @DisplayName("Response cache")
+    class CacheTests {
+
+        @TempDir
+        Path cacheDir;
+
+        private TapFetchPipeline cachedPipeline(TapResponseCache cache, long intervalMs) {
+            return new TapFetchPipeline(HTTP_CLIENT, 2, TapRateLimiter.everyMillis(intervalMs, 1),
+                    Duration.ofMillis(10), Duration.ofSeconds(10), cache);
+        }
+
+        @Test
+        @DisplayName("a repeat run is answered from disk without requests or rate limiting")
+        void repeatRunFromCache() throws IOException, InterruptedException {
+            handler = adql -> new Response(200, "id\n" + adql + "\n");
+            List<List<String>> results = new ArrayList<>();
+            List<IOException> failures = new ArrayList<>();
+            List<TapQuery<?>> queries = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                queries.add(query("q" + i, results, failures));
+            }
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 1 << 20, TapResponseCache.Mode.READ_WRITE);
+            cachedPipeline(cache, 0).run(queries);
+            assertEquals(4, requests.get());
+
+            results.clear();
+            TapResponseCache reopened = TapResponseCache.open(cacheDir, 1 << 20, TapResponseCache.Mode.READ_WRITE);
+            long start = System.nanoTime();
+            cachedPipeline(reopened, 1_000).run(queries);
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(4, requests.get());
+            assertEquals(4, results.size());
+            assertTrue(results.contains(List.of("q3")));
+            assertEquals(4, reopened.getHits());
+            assertTrue(elapsedMs < 1_000, "cache hits waited for the rate limit: " + elapsedMs + " ms");
+        }
+
+        @Test
+        @DisplayName("batches of ids are cached per id, ids without rows included")
+        void perIdEntries() throws IOException, InterruptedException {
+            List<String> asked = new CopyOnWriteArrayList<>();
+            // only the even ids have a row
+            handler = adql -> {
+                asked.add(adql);
+                StringBuilder body = new StringBuilder("id,value\n");
+                for (String id : adql.substring(adql.indexOf('(') + 1, adql.lastIndexOf(')')).split(",")) {
+                    if (Integer.parseInt(id) % 2 == 0) {
+                        body.append(id).append(",\"v").append(id).append("\"\n");
+                    }
+                }
+                return new Response(200, body.toString());
+            };
+            List<List<String>> results = new ArrayList<>();
+            List<IOException> failures = new ArrayList<>();
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 1 << 20, TapResponseCache.Mode.READ_WRITE);
+
+            cachedPipeline(cache, 0).run(List.of(idsQuery(List.of("1", "2", "3", "4"), results, failures)));
+            assertEquals(List.of(List.of("2", "4")), results);
+
+            // the same ids in other batches: only the new id is asked for
+            results.clear();
+            cachedPipeline(cache, 0).run(List.of(idsQuery(List.of("2", "3"), results, failures),
+                    idsQuery(List.of("4", "5"), results, failures)));
+            assertEquals(2, asked.size());
+            assertEquals("SELECT id, value FROM t WHERE id IN (5)", asked.get(1));
+            assertTrue(results.contains(List.of("2")));
+            assertTrue(results.contains(List.of("4")));
+
+            // ids without a match replay as such
+            results.clear();
+            TapResponseCache replay = TapResponseCache.open(cacheDir, 1 << 20, TapResponseCache.Mode.REPLAY);
+            cachedPipeline(replay, 0).run(List.of(idsQuery(List.of("1", "3", "4", "5"), results, failures)));
+            assertEquals(2, asked.size());
+            assertEquals(List.of(List.of("4")), results);
+            assertTrue(failures.isEmpty());
+        }
+
+        /**
+         * A lookup of ids reading the id column of every row.
+         */
+        private TapQuery<List<String>> idsQuery(List<String> ids, List<List<String>> results,
+                                                List<IOException> failures) {
+            TapQuery.Ids batch = new TapQuery.Ids("id", ids, String::trim,
+                    values -> "SELECT id, value FROM t WHERE id IN (" + String.join(",", values) + ")");
+            return TapQuery.forIds("ids " + ids, baseUrl, batch,
+                    rows -> {
+                        List<String> values = new ArrayList<>();
+                        int idColumn = rows.column("id");
+                        String[] row;
+                        while ((row = rows.next()) != null) {
+                            values.add(row[idColumn]);
+                        }
+                        return values;
+                    },
+                    results::add,
+                    failures::add);
+        }
+
+        @Test
+        @DisplayName("failed responses are not cached")
+        void errorsNotCached() throws IOException, InterruptedException {
+            handler = adql -> new Response(400, "bad query");
+            List<List<String>> results = new ArrayList<>();
+            List<IOException> failures = new ArrayList<>();
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 1 << 20, TapResponseCache.Mode.READ_WRITE);
+
+            cachedPipeline(cache, 0).run(List.of(query("q", results, failures)));
+
+            assertEquals(1, failures.size());
+            assertEquals(0, cache.getEntryCount());
+        }
+
+        @Test
+        @DisplayName("replay mode fails misses without sending a request")
+        void replayMissFails() throws IOException, InterruptedException {
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 1 << 20, TapResponseCache.Mode.READ_WRITE);
+            List<List<String>> results = new ArrayList<>();
+            List<IOException> failures = new ArrayList<>();
+            cachedPipeline(cache, 0).run(List.of(query("cached", results, failures)));
+
+            TapResponseCache replay = TapResponseCache.open(cacheDir, 1 << 20, TapResponseCache.Mode.REPLAY);
+            results.clear();
+            cachedPipeline(replay, 0).run(List.of(query("cached", results, failures), query("new", results, failures)));
+
+            assertEquals(1, requests.get());
+            assertEquals(1, results.size());
+            assertEquals(1, failures.size());
+            assertTrue(failures.get(0).getMessage().contains("not in TAP cache"));
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.teamgannon.trips.workbench.service.tap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for {@link TapResponseCache}.
+ */
+class TapResponseCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private static void store(TapResponseCache cache, String key, String body) throws IOException {
+        try (InputStream recording = cache.record(key,
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)))) {
+            recording.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    private static String read(TapResponseCache cache, String key) throws IOException {
+        try (InputStream stream = cache.get(key)) {
+            return stream == null ? null : new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private long filesIn(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Nested
+    @DisplayName("Keys")
+    class KeyTests {
+
+        @Test
+        @DisplayName("keys depend on both the service and the query")
+        void keyDependsOnServiceAndQuery() {
+            String key = TapResponseCache.key("https://gaia/tap", "SELECT 1");
+
+            assertEquals(key, TapResponseCache.key("https://gaia/tap", "SELECT 1"));
+            assertNotEquals(key, TapResponseCache.key("https://simbad/tap", "SELECT 1"));
+            assertNotEquals(key, TapResponseCache.key("https://gaia/tap", "SELECT 2"));
+            assertEquals(64, key.length());
+        }
+    }
+
+    @Nested
+    @DisplayName("Recording")
+    class RecordingTests {
+
+        @Test
+        @DisplayName("a response read to the end is stored and survives reopening")
+        void storesCompleteResponse() throws IOException {
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 1024, TapResponseCache.Mode.READ_WRITE);
+            String key = TapResponseCache.key("url", "q");
+
+            assertNull(read(cache, key));
+            store(cache, key, "id,plx\n1,2\n");
+
+            assertEquals("id,plx\n1,2\n", read(cache, key));
+            assertEquals(1, cache.getHits());
+            assertEquals(1, cache.getMisses());
+
+            TapResponseCache reopened = TapResponseCache.open(cacheDir, 1024, TapResponseCache.Mode.REPLAY);
+            assertTrue(reopened.contains(key));
+            assertEquals("id,plx\n1,2\n", read(reopened, key));
+            assertEquals(11, reopened.getSizeBytes());
+        }
+
+        @Test
+        @DisplayName("a response closed part way is not stored")
+        void discardsPartialResponse() throws IOException {
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 1024, TapResponseCache.Mode.READ_WRITE);
+            String key = TapResponseCache.key("url", "q");
+
+            try (InputStream recording = cache.record(key,
+                    new ByteArrayInputStream("id,plx\n1,2\n".getBytes(StandardCharsets.UTF_8)))) {
+                recording.readNBytes(4);
+            }
+
+            assertFalse(cache.contains(key));
+            assertEquals(0, filesIn(cacheDir.resolve(TapResponseCache.DIRECTORY_NAME)));
+        }
+
+        @Test
+        @DisplayName("leftover temporary files are cleared on open")
+        void clearsLeftovers() throws IOException {
+            Path dir = cacheDir.resolve(TapResponseCache.DIRECTORY_NAME);
+            Files.createDirectories(dir);
+            Files.writeString(dir.resolve("abc123.tmp"), "partial");
+
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 1024, TapResponseCache.Mode.READ_WRITE);
+
+            assertEquals(0, cache.getEntryCount());
+            assertEquals(0, filesIn(dir));
+        }
+
+        @Test
+        @DisplayName("an entry deleted from disk is a miss")
+        void deletedEntryIsMiss() throws IOException {
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 1024, TapResponseCache.Mode.READ_WRITE);
+            String key = TapResponseCache.key("url", "q");
+            store(cache, key, "id\n1\n");
+            Files.delete(cacheDir.resolve(TapResponseCache.DIRECTORY_NAME).resolve(key + ".csv"));
+
+            assertNull(read(cache, key));
+            assertFalse(cache.contains(key));
+            assertEquals(0, cache.getSizeBytes());
+        }
+    }
+
+    @Nested
+    @DisplayName("Eviction")
+    class EvictionTests {
+
+        @Test
+        @DisplayName("least recently used entries go first when over the size limit")
+        void evictsLeastRecentlyUsed() throws IOException {
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 25, TapResponseCache.Mode.READ_WRITE);
+            String a = TapResponseCache.key("url", "a");
+            String b = TapResponseCache.key("url", "b");
+            String c = TapResponseCache.key("url", "c");
+            store(cache, a, "aaaaaaaaaa");
+            store(cache, b, "bbbbbbbbbb");
+            read(cache, a);
+            store(cache, c, "cccccccccc");
+
+            assertTrue(cache.contains(a));
+            assertFalse(cache.contains(b));
+            assertTrue(cache.contains(c));
+            assertEquals(20, cache.getSizeBytes());
+            assertEquals(2, filesIn(cacheDir.resolve(TapResponseCache.DIRECTORY_NAME)));
+        }
+
+        @Test
+        @DisplayName("reopening with a smaller limit evicts by last use")
+        void evictsOnOpenByLastUse() throws IOException {
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 1024, TapResponseCache.Mode.READ_WRITE);
+            String older = TapResponseCache.key("url", "older");
+            String newer = TapResponseCache.key("url", "newer");
+            store(cache, older, "0123456789");
+            store(cache, newer, "0123456789");
+            Path dir = cacheDir.resolve(TapResponseCache.DIRECTORY_NAME);
+            Files.setLastModifiedTime(dir.resolve(older + ".csv"), FileTime.fromMillis(1_000));
+            Files.setLastModifiedTime(dir.resolve(newer + ".csv"), FileTime.fromMillis(2_000));
+
+            TapResponseCache reopened = TapResponseCache.open(cacheDir, 15, TapResponseCache.Mode.READ_WRITE);
+
+            assertFalse(reopened.contains(older));
+            assertTrue(reopened.contains(newer));
+        }
+
+        @Test
+        @DisplayName("a response larger than the whole cache is not stored")
+        void skipsOversizedResponse() throws IOException {
+            TapResponseCache cache = TapResponseCache.open(cacheDir, 5, TapResponseCache.Mode.READ_WRITE);
+            String key = TapResponseCache.key("url", "q");
+
+            store(cache, key, "0123456789");
+
+            assertFalse(cache.contains(key));
+            assertEquals(0, filesIn(cacheDir.resolve(TapResponseCache.DIRECTORY_NAME)));
+        }
+    }
+}
@@ -464,6 +464,39 @@ public class ScatterMeshTest {
 
             assertThat(count, is(3));
         }
+
+        @Test
+        @DisplayName("bulk updatePositions moves every vertex of the moved particles")
+        void testBulkUpdatePositions() {
+            ScatterMesh mesh = new ScatterMesh(testPoints, true, 1.0, 0);
+            TriangleMesh triangleMesh = (TriangleMesh) ((TexturedMesh) mesh.getChildren().get(0)).getMesh();
+            float[] before = triangleMesh.getPoints().toArray(null);
+            int floatsPerMarker = mesh.getVerticesPerMarker() * 3;
+
+            // Move only the second particle
+            float[] coordinates = {0f, 0f, 0f, 11f, 2f, -3f, 20f, 0f, 0f};
+            boolean result = mesh.updatePositions(coordinates);
+
+            assertThat(result, is(true));
+            float[] after = triangleMesh.getPoints().toArray(null);
+            for (int i = 0; i < before.length; i += 3) {
+                boolean moved = i >= floatsPerMarker && i < 2 * floatsPerMarker;
+                assertEquals(before[i] + (moved ? 1f : 0f), after[i], 1e-5);
+                assertEquals(before[i + 1] + (moved ? 2f : 0f), after[i + 1], 1e-5);
+                assertEquals(before[i + 2] + (moved ? -3f : 0f), after[i + 2], 1e-5);
+            }
+            assertThat(mesh.getParticleCount(), is(3));
+        }
+
+        @Test
+        @DisplayName("bulk updatePositions returns false for a mismatched array")
+        void testBulkUpdatePositionsMismatch() {
+            ScatterMesh mesh = new ScatterMesh(testPoints, true, 1.0, 0);
+
+            assertThat(mesh.updatePositions(new float[]{1f, 0f, 0f, 11f, 0f, 0f}), is(false));
+            assertThat(mesh.updatePositions(new float[]{1f, 0f}), is(false));
+            assertThat(mesh.updatePositions((float[]) null), is(false));
+        }
     }
 
     // ==================== Marker Type Tests (Phase 5) ====================